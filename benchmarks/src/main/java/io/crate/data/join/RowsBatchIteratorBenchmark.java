@@ -225,5 +225,10 @@ public class RowsBatchIteratorBenchmark {
         public void release() {
 
         }
+
+        @Override
+        public void release(long bytes) {
+
+        }
     }
 }
@@ -0,0 +1,160 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.pipeline;
+
+import static io.crate.data.SentinelRow.SENTINEL;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.elasticsearch.common.inject.ModulesBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.crate.data.BatchIterator;
+import io.crate.data.InMemoryBatchIterator;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.expression.InputFactory;
+import io.crate.expression.RowFilter;
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.operator.EqOperator;
+import io.crate.expression.operator.GtOperator;
+import io.crate.expression.operator.OperatorModule;
+import io.crate.expression.predicate.NotPredicate;
+import io.crate.expression.predicate.PredicateModule;
+import io.crate.expression.scalar.ScalarFunctionModule;
+import io.crate.expression.scalar.arithmetic.ArithmeticFunctions;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.vector.ColumnBatchEvaluator;
+import io.crate.metadata.CoordinatorTxnCtx;
+import io.crate.metadata.FunctionImplementation;
+import io.crate.metadata.Functions;
+import io.crate.metadata.NodeContext;
+import io.crate.metadata.SearchPath;
+import io.crate.metadata.TransactionContext;
+import io.crate.role.Role;
+import io.crate.types.DataTypes;
+
+/**
+ * Compares evaluating filters and scalars row by row with evaluating them on batches of columns.
+ * The batch path is only used if the {@code enable_vectorized_evaluation} session setting is set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class VectorizedEvaluationBenchmark {
+
+    @Param({"false", "true"})
+    public boolean vectorized;
+
+    private List<Row> rows;
+    private FilterProjector filter;
+    private InputRowProjector eval;
+
+    @Setup
+    public void setup() {
+        rows = IntStream.range(0, 1_000_000)
+            .mapToObj(i -> new RowN("name-" + i, i % 7 == 0 ? null : i, i / 2.0))
+            .collect(Collectors.toList());
+
+        Functions functions = new ModulesBuilder()
+            .add(new OperatorModule())
+            .add(new ScalarFunctionModule())
+            .add(new PredicateModule())
+            .createInjector()
+            .getInstance(Functions.class);
+        NodeContext nodeCtx = new NodeContext(functions, () -> List.of(Role.CRATE_USER));
+        TransactionContext txnCtx = CoordinatorTxnCtx.systemTransactionContext();
+        InputFactory inputFactory = new InputFactory(nodeCtx);
+
+        InputColumn name = new InputColumn(0, DataTypes.STRING);
+        InputColumn x = new InputColumn(1, DataTypes.INTEGER);
+        InputColumn y = new InputColumn(2, DataTypes.DOUBLE);
+
+        // x % 2 = 0 AND NOT (y > 100000.0)
+        Symbol query = function(
+            nodeCtx,
+            AndOperator.NAME,
+            function(nodeCtx, EqOperator.NAME,
+                function(nodeCtx, ArithmeticFunctions.Names.MODULUS, x, Literal.of(2)), Literal.of(0)),
+            function(nodeCtx, NotPredicate.NAME, function(nodeCtx, GtOperator.NAME, y, Literal.of(100_000.0)))
+        );
+        filter = new FilterProjector(
+            RowFilter.create(txnCtx, inputFactory, query),
+            vectorized ? ColumnBatchEvaluator.create(txnCtx, nodeCtx, List.of(query)) : null
+        );
+
+        // name, x * 3, y + y
+        List<Symbol> outputs = List.of(
+            name,
+            function(nodeCtx, ArithmeticFunctions.Names.MULTIPLY, x, Literal.of(3)),
+            function(nodeCtx, ArithmeticFunctions.Names.ADD, y, y)
+        );
+        InputFactory.Context<CollectExpression<Row, ?>> ctx = inputFactory.ctxForInputColumns(txnCtx, outputs);
+        eval = new InputRowProjector(
+            ctx.topLevelInputs(),
+            ctx.expressions(),
+            outputs,
+            vectorized ? ColumnBatchEvaluator.create(txnCtx, nodeCtx, outputs.subList(1, outputs.size())) : null
+        );
+    }
+
+    private static Function function(NodeContext nodeCtx, String name, Symbol... args) {
+        List<Symbol> arguments = Arrays.asList(args);
+        FunctionImplementation impl = nodeCtx.functions().get(
+            null, name, arguments, SearchPath.pathWithPGCatalogAndDoc());
+        return new Function(impl.signature(), arguments, impl.boundSignature().returnType());
+    }
+
+    @Benchmark
+    public void measureFilter(Blackhole blackhole) throws Exception {
+        BatchIterator<Row> it = filter.apply(InMemoryBatchIterator.of(rows, SENTINEL, true));
+        while (it.moveNext()) {
+            blackhole.consume(it.currentElement().get(0));
+        }
+    }
+
+    @Benchmark
+    public void measureFilterAndEval(Blackhole blackhole) throws Exception {
+        BatchIterator<Row> it = eval.apply(filter.apply(InMemoryBatchIterator.of(rows, SENTINEL, true)));
+        while (it.moveNext()) {
+            Row row = it.currentElement();
+            blackhole.consume(row.get(1));
+            blackhole.consume(row.get(2));
+        }
+    }
+}
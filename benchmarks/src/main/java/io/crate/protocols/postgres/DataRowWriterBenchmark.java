@@ -0,0 +1,123 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.protocols.postgres.types.PGType;
+import io.crate.protocols.postgres.types.PGTypes;
+import io.crate.types.DataTypes;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Measurement(iterations = 5)
+@Fork(value = 2)
+@Warmup(iterations = 2)
+public class DataRowWriterBenchmark {
+
+    private static final int NUM_ROWS = 100_000;
+
+    @Param({"TEXT", "BINARY"})
+    public FormatCodes.FormatCode formatCode;
+
+    private final List<PGType<?>> columnTypes = List.of(
+        PGTypes.get(DataTypes.INTEGER),
+        PGTypes.get(DataTypes.LONG),
+        PGTypes.get(DataTypes.DOUBLE),
+        PGTypes.get(DataTypes.STRING),
+        PGTypes.get(DataTypes.TIMESTAMPZ)
+    );
+
+    private FormatCodes.FormatCode[] formatCodes;
+    private List<Row> rows;
+    private EmbeddedChannel channel;
+
+    @Setup
+    public void setup() {
+        formatCodes = new FormatCodes.FormatCode[] { formatCode };
+        rows = new ArrayList<>(NUM_ROWS);
+        for (int i = 0; i < NUM_ROWS; i++) {
+            rows.add(new RowN(i, (long) i * 31, i / 7.0, "value-" + i, 1700000000000L + i));
+        }
+        channel = new EmbeddedChannel();
+    }
+
+    @TearDown
+    public void closeChannel() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int measure_sendDataRow_per_row() {
+        for (int i = 0; i < rows.size(); i++) {
+            Messages.sendDataRow(channel, rows.get(i), columnTypes, formatCodes);
+            if (i % 1000 == 0) {
+                channel.flush();
+            }
+        }
+        channel.flush();
+        return releaseOutbound();
+    }
+
+    @Benchmark
+    public int measure_DataRowWriter_batched() {
+        DataRowWriter writer = new DataRowWriter(channel, columnTypes, formatCodes);
+        for (int i = 0; i < rows.size(); i++) {
+            if (writer.write(rows.get(i)) != null) {
+                channel.flush();
+            }
+        }
+        writer.writeBuffered();
+        channel.flush();
+        return releaseOutbound();
+    }
+
+    private int releaseOutbound() {
+        int bytes = 0;
+        ByteBuf buffer;
+        while ((buffer = channel.readOutbound()) != null) {
+            bytes += buffer.readableBytes();
+            buffer.release();
+        }
+        return bytes;
+    }
+}
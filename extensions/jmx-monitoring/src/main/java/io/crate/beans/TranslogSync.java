@@ -0,0 +1,84 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.beans;
+
+import java.util.function.ToLongFunction;
+
+import org.apache.lucene.store.AlreadyClosedException;
+import org.elasticsearch.index.IndexService;
+import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.translog.TranslogStats;
+import org.elasticsearch.indices.IndicesService;
+
+/**
+ * Translog fsync statistics summed up over the shards allocated on this node.
+ * Shards which are closed or relocated away no longer contribute to the totals.
+ */
+public final class TranslogSync implements TranslogSyncMBean {
+
+    public static final String NAME = "io.crate.monitoring:type=TranslogSync";
+
+    private final IndicesService indicesService;
+
+    public TranslogSync(IndicesService indicesService) {
+        this.indicesService = indicesService;
+    }
+
+    @Override
+    public long getSyncs() {
+        return sum(TranslogStats::getSyncs);
+    }
+
+    @Override
+    public long getSyncedOperations() {
+        return sum(TranslogStats::getSyncedOperations);
+    }
+
+    @Override
+    public long getMaxSyncedOperations() {
+        long max = 0L;
+        for (IndexService indexService : indicesService) {
+            for (IndexShard indexShard : indexService) {
+                try {
+                    max = Math.max(max, indexShard.translogStats().getMaxSyncedOperations());
+                } catch (AlreadyClosedException ignored) {
+                    // shard is closing or not yet started
+                }
+            }
+        }
+        return max;
+    }
+
+    private long sum(ToLongFunction<TranslogStats> getter) {
+        long sum = 0L;
+        for (IndexService indexService : indicesService) {
+            for (IndexShard indexShard : indexService) {
+                try {
+                    sum += getter.applyAsLong(indexShard.translogStats());
+                } catch (AlreadyClosedException ignored) {
+                    // shard is closing or not yet started
+                }
+            }
+        }
+        return sum;
+    }
+}
@@ -46,8 +46,10 @@ import io.crate.beans.CircuitBreakers;
 import io.crate.beans.Connections;
 import io.crate.beans.NodeInfo;
 import io.crate.beans.NodeStatus;
+import io.crate.beans.PlanCache;
 import io.crate.beans.QueryStats;
 import io.crate.beans.ThreadPools;
+import io.crate.beans.TranslogSync;
 import io.crate.execution.engine.collect.stats.JobsLogs;
 import io.crate.protocols.ConnectionStats;
 import io.crate.protocols.postgres.PostgresNetty;
@@ -78,6 +80,8 @@ public class CrateMonitor {
         ));
         registerMBean(ThreadPools.NAME, new ThreadPools(threadPool));
         registerMBean(CircuitBreakers.NAME, new CircuitBreakers(breakerService));
+        registerMBean(PlanCache.NAME, new PlanCache(sqlOperations.planCacheStats()));
+        registerMBean(TranslogSync.NAME, new TranslogSync(indicesService));
     }
 
     private void registerMBean(String name, Object bean) {
@@ -0,0 +1,119 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.data;
+
+import java.util.function.IntPredicate;
+
+/**
+ * {@link ColumnVector} for boolean values.
+ * The logical operations implement three-valued logic.
+ */
+public final class BooleanVector extends ColumnVector {
+
+    private final boolean[] values;
+
+    public BooleanVector(int size) {
+        super(size);
+        this.values = new boolean[size];
+    }
+
+    public boolean get(int idx) {
+        return values[idx];
+    }
+
+    public void set(int idx, boolean value) {
+        values[idx] = value;
+    }
+
+    /**
+     * @return true if the entry is not null and true
+     */
+    public boolean isTrue(int idx) {
+        return values[idx] && !isNull(idx);
+    }
+
+    /**
+     * @return true if the entry is not null and false
+     */
+    private boolean isFalse(int idx) {
+        return !values[idx] && !isNull(idx);
+    }
+
+    /**
+     * false AND x is false, null AND true is null
+     */
+    public static BooleanVector and(BooleanVector a, BooleanVector b) {
+        int size = a.size();
+        BooleanVector result = new BooleanVector(size);
+        for (int i = 0; i < size; i++) {
+            if (a.isFalse(i) || b.isFalse(i)) {
+                result.values[i] = false;
+            } else if (a.isNull(i) || b.isNull(i)) {
+                result.setNull(i);
+            } else {
+                result.values[i] = true;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * true OR x is true, null OR false is null
+     */
+    public static BooleanVector or(BooleanVector a, BooleanVector b) {
+        int size = a.size();
+        BooleanVector result = new BooleanVector(size);
+        for (int i = 0; i < size; i++) {
+            if (a.isTrue(i) || b.isTrue(i)) {
+                result.values[i] = true;
+            } else if (a.isNull(i) || b.isNull(i)) {
+                result.setNull(i);
+            } else {
+                result.values[i] = false;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * NOT null is null
+     */
+    public static BooleanVector not(BooleanVector a) {
+        int size = a.size();
+        BooleanVector result = new BooleanVector(size);
+        result.setNulls(a);
+        for (int i = 0; i < size; i++) {
+            result.values[i] = !a.values[i];
+        }
+        return result;
+    }
+
+    public static BooleanVector compare(BooleanVector a, BooleanVector b, IntPredicate cmpResultIsMatch) {
+        int size = a.size();
+        BooleanVector result = new BooleanVector(size);
+        result.setNulls(a, b);
+        for (int i = 0; i < size; i++) {
+            result.values[i] = cmpResultIsMatch.test(Boolean.compare(a.values[i], b.values[i]));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.data;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Columnar representation of a batch of rows.
+ *
+ * <p>
+ * Used to evaluate expressions for many rows at once instead of evaluating them row by row using {@link Input}s.
+ * Only the columns which are used by the expressions are present, see {@link #column(int)}.
+ * </p>
+ */
+public final class ColumnBatch {
+
+    private final int size;
+    private final ColumnVector[] columns;
+
+    /**
+     * @param columns the vectors by column index. Every vector must have {@code size} entries.
+     */
+    public ColumnBatch(int size, ColumnVector[] columns) {
+        this.size = size;
+        this.columns = columns;
+    }
+
+    /**
+     * @return the number of rows of the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the vector of the column at index {@code idx} or null if the column isn't part of the batch
+     */
+    @Nullable
+    public ColumnVector column(int idx) {
+        return idx < columns.length ? columns[idx] : null;
+    }
+}
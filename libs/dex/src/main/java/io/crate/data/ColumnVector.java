@@ -0,0 +1,77 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.data;
+
+/**
+ * The values of a single column for a batch of rows, see {@link ColumnBatch}.
+ *
+ * <p>
+ * Sub-classes store the values in a primitive array, null values are tracked in a bitmap.
+ * The value at the position of a null entry is undefined.
+ * </p>
+ */
+public abstract class ColumnVector {
+
+    private final int size;
+    private final long[] nulls;
+
+    protected ColumnVector(int size) {
+        this.size = size;
+        this.nulls = new long[(size + 63) >>> 6];
+    }
+
+    public final int size() {
+        return size;
+    }
+
+    public final boolean isNull(int idx) {
+        return (nulls[idx >>> 6] & (1L << idx)) != 0;
+    }
+
+    public final void setNull(int idx) {
+        nulls[idx >>> 6] |= 1L << idx;
+    }
+
+    public final boolean hasNulls() {
+        for (long word : nulls) {
+            if (word != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks every entry as null which is null in either {@code a} or {@code b}.
+     */
+    protected final void setNulls(ColumnVector a, ColumnVector b) {
+        assert a.size == size && b.size == size : "Vectors must have the same size";
+        for (int i = 0; i < nulls.length; i++) {
+            nulls[i] = a.nulls[i] | b.nulls[i];
+        }
+    }
+
+    protected final void setNulls(ColumnVector other) {
+        assert other.size == size : "Vectors must have the same size";
+        System.arraycopy(other.nulls, 0, nulls, 0, nulls.length);
+    }
+}
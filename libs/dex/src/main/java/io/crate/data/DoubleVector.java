@@ -0,0 +1,81 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.data;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntPredicate;
+
+/**
+ * {@link ColumnVector} for floating point values
+ */
+public final class DoubleVector extends ColumnVector {
+
+    private final double[] values;
+
+    public DoubleVector(int size) {
+        super(size);
+        this.values = new double[size];
+    }
+
+    public double get(int idx) {
+        return values[idx];
+    }
+
+    public void set(int idx, double value) {
+        values[idx] = value;
+    }
+
+    /**
+     * Applies {@code op} to all entries of both vectors.
+     * The result is null if either of the entries is null.
+     */
+    public static DoubleVector map(DoubleVector a, DoubleVector b, DoubleBinaryOperator op) {
+        int size = a.size();
+        DoubleVector result = new DoubleVector(size);
+        result.setNulls(a, b);
+        double[] resultValues = result.values;
+        double[] aValues = a.values;
+        double[] bValues = b.values;
+        // Floating point operations don't fail, so there is no need to skip null entries
+        for (int i = 0; i < size; i++) {
+            resultValues[i] = op.applyAsDouble(aValues[i], bValues[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Compares the entries of both vectors using {@link Double#compare(double, double)} and tests the
+     * result of the comparison using {@code cmpResultIsMatch}.
+     * The result is null if either of the entries is null.
+     */
+    public static BooleanVector compare(DoubleVector a, DoubleVector b, IntPredicate cmpResultIsMatch) {
+        int size = a.size();
+        BooleanVector result = new BooleanVector(size);
+        result.setNulls(a, b);
+        double[] aValues = a.values;
+        double[] bValues = b.values;
+        for (int i = 0; i < size; i++) {
+            result.set(i, cmpResultIsMatch.test(Double.compare(aValues[i], bValues[i])));
+        }
+        return result;
+    }
+}
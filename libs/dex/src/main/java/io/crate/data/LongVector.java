@@ -0,0 +1,87 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.data;
+
+import java.util.function.IntPredicate;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * {@link ColumnVector} for integral values
+ */
+public final class LongVector extends ColumnVector {
+
+    private final long[] values;
+
+    public LongVector(int size) {
+        super(size);
+        this.values = new long[size];
+    }
+
+    public long get(int idx) {
+        return values[idx];
+    }
+
+    public void set(int idx, long value) {
+        values[idx] = value;
+    }
+
+    /**
+     * Applies {@code op} to all entries which are not null in both vectors.
+     * The result is null if either of the entries is null.
+     */
+    public static LongVector map(LongVector a, LongVector b, LongBinaryOperator op) {
+        int size = a.size();
+        LongVector result = new LongVector(size);
+        result.setNulls(a, b);
+        long[] resultValues = result.values;
+        long[] aValues = a.values;
+        long[] bValues = b.values;
+        if (result.hasNulls()) {
+            for (int i = 0; i < size; i++) {
+                if (!result.isNull(i)) {
+                    resultValues[i] = op.applyAsLong(aValues[i], bValues[i]);
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                resultValues[i] = op.applyAsLong(aValues[i], bValues[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compares the entries of both vectors and tests the result of the comparison using {@code cmpResultIsMatch}.
+     * The result is null if either of the entries is null.
+     */
+    public static BooleanVector compare(LongVector a, LongVector b, IntPredicate cmpResultIsMatch) {
+        int size = a.size();
+        BooleanVector result = new BooleanVector(size);
+        result.setNulls(a, b);
+        long[] aValues = a.values;
+        long[] bValues = b.values;
+        for (int i = 0; i < size; i++) {
+            result.set(i, cmpResultIsMatch.test(Long.compare(aValues[i], bValues[i])));
+        }
+        return result;
+    }
+}
@@ -40,4 +40,10 @@ public interface RowAccounting<T> {
      * Stops accounting for previously accounted rows.
      */
     void release();
+
+    /**
+     * Stops accounting for some of the previously accounted rows.
+     * @param bytes sum of the estimated number of bytes of the rows as returned by {@link #accountForAndMaybeBreak(Object)}
+     */
+    void release(long bytes);
 }
@@ -0,0 +1,104 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ColumnVectorTest {
+
+    private static BooleanVector booleans(Boolean... values) {
+        BooleanVector vector = new BooleanVector(values.length);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                vector.setNull(i);
+            } else {
+                vector.set(i, values[i]);
+            }
+        }
+        return vector;
+    }
+
+    private static Boolean[] toArray(BooleanVector vector) {
+        Boolean[] values = new Boolean[vector.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = vector.isNull(i) ? null : vector.get(i);
+        }
+        return values;
+    }
+
+    @Test
+    void test_logical_operators_implement_three_valued_logic() {
+        BooleanVector left = booleans(true, true, true, false, false, false, null, null, null);
+        BooleanVector right = booleans(true, false, null, true, false, null, true, false, null);
+
+        assertThat(toArray(BooleanVector.and(left, right)))
+            .containsExactly(true, false, null, false, false, false, null, false, null);
+        assertThat(toArray(BooleanVector.or(left, right)))
+            .containsExactly(true, true, true, true, false, null, true, null, null);
+        assertThat(toArray(BooleanVector.not(left)))
+            .containsExactly(false, false, false, true, true, true, null, null, null);
+    }
+
+    @Test
+    void test_map_skips_null_entries_and_propagates_nulls() {
+        int size = 130;
+        LongVector left = new LongVector(size);
+        LongVector right = new LongVector(size);
+        for (int i = 0; i < size; i++) {
+            left.set(i, i);
+            if (i % 3 == 0) {
+                // a division by zero would fail if null entries weren't skipped
+                right.setNull(i);
+            } else {
+                right.set(i, 2);
+            }
+        }
+        left.setNull(129);
+
+        LongVector result = LongVector.map(left, right, (a, b) -> a / b);
+        for (int i = 0; i < size; i++) {
+            if (i % 3 == 0 || i == 129) {
+                assertThat(result.isNull(i)).isTrue();
+            } else {
+                assertThat(result.isNull(i)).isFalse();
+                assertThat(result.get(i)).isEqualTo(i / 2);
+            }
+        }
+    }
+
+    @Test
+    void test_compare_uses_double_compare_semantics() {
+        DoubleVector left = new DoubleVector(3);
+        DoubleVector right = new DoubleVector(3);
+        left.set(0, Double.NaN);
+        right.set(0, Double.NaN);
+        left.set(1, -0.0);
+        right.set(1, 0.0);
+        left.set(2, 1.5);
+        right.setNull(2);
+
+        BooleanVector eq = DoubleVector.compare(left, right, cmp -> cmp == 0);
+        assertThat(toArray(eq)).containsExactly(true, false, null);
+    }
+}
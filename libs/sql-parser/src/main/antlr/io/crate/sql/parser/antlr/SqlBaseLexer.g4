@@ -305,6 +305,9 @@ SCHEMA: 'SCHEMA';
 RETURN: 'RETURN';
 SUMMARY: 'SUMMARY';
 
+STDIN: 'STDIN';
+STDOUT: 'STDOUT';
+
 METADATA: 'METADATA';
 
 PUBLICATION: 'PUBLICATION';
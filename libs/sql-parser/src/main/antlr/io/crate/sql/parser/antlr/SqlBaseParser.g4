@@ -77,9 +77,9 @@ statement
         withProperties?                                                              #restore
     | COPY tableWithPartition
         (OPEN_ROUND_BRACKET ident (COMMA ident)* CLOSE_ROUND_BRACKET)?
-        FROM path=expr withProperties? (RETURN SUMMARY)?                             #copyFrom
+        FROM (STDIN | path=expr) withProperties? (RETURN SUMMARY)?                   #copyFrom
     | COPY tableWithPartition columns? where?
-        TO DIRECTORY? path=expr withProperties?                                      #copyTo
+        TO (STDOUT | DIRECTORY? path=expr) withProperties?                           #copyTo
     | dropStmt                                                                       #drop
     | GRANT (priviliges=idents | ALL PRIVILEGES?)
         (ON clazz qnames)? TO users=idents                                           #grantPrivilege
@@ -974,6 +974,8 @@ nonReserved
     | SHOW
     | SNAPSHOT
     | START
+    | STDIN
+    | STDOUT
     | STORAGE
     | STRICT
     | STRING_TYPE
@@ -214,7 +214,11 @@ public final class SqlFormatter {
                 builder.append(')');
             }
             append(indent, " FROM ");
-            copyFrom.path().accept(this, indent);
+            if (copyFrom.isStdin()) {
+                append(indent, "STDIN");
+            } else {
+                copyFrom.path().accept(this, indent);
+            }
             if (!copyFrom.properties().isEmpty()) {
                 append(indent, " ");
                 copyFrom.properties().accept(this, indent);
@@ -24,17 +24,20 @@ package io.crate.sql.tree;
 import java.util.List;
 import java.util.Objects;
 
+import org.jetbrains.annotations.Nullable;
+
 public class CopyFrom<T> extends Statement {
 
     private final Table<T> table;
     private final List<String> columns;
+    @Nullable
     private final T path;
     private final GenericProperties<T> properties;
     private final boolean returnSummary;
 
     public CopyFrom(Table<T> table,
                     List<String> columns,
-                    T path,
+                    @Nullable T path,
                     GenericProperties<T> properties,
                     boolean returnSummary) {
         this.table = table;
@@ -52,10 +55,18 @@ public class CopyFrom<T> extends Statement {
         return columns;
     }
 
+    /**
+     * @return the URI of the files to import or null if the rows are read from STDIN ({@code COPY ... FROM STDIN})
+     */
+    @Nullable
     public T path() {
         return path;
     }
 
+    public boolean isStdin() {
+        return path == null;
+    }
+
     public GenericProperties<T> properties() {
         return properties;
     }
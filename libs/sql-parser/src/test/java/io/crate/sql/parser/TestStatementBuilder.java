@@ -48,6 +48,7 @@ import io.crate.sql.tree.Close;
 import io.crate.sql.tree.CommitStatement;
 import io.crate.sql.tree.ComparisonExpression;
 import io.crate.sql.tree.CopyFrom;
+import io.crate.sql.tree.CopyTo;
 import io.crate.sql.tree.CreateFunction;
 import io.crate.sql.tree.CreatePublication;
 import io.crate.sql.tree.CreateRole;
@@ -1349,6 +1350,26 @@ public class TestStatementBuilder {
         printStatement("copy foo where a = 'x' to DIRECTORY '/folder'");
     }
 
+    @Test
+    public void test_copy_from_stdin_and_to_stdout() {
+        printStatement("copy foo from stdin");
+        printStatement("copy foo (a, b) from stdin with (format='csv')");
+        printStatement("copy foo to stdout");
+        printStatement("copy foo (a, b) where a = 'x' to stdout with (format='binary')");
+
+        CopyFrom<?> copyFrom = (CopyFrom<?>) SqlParser.createStatement("copy foo from STDIN");
+        assertThat(copyFrom.isStdin()).isTrue();
+        assertThat(copyFrom.path()).isNull();
+        copyFrom = (CopyFrom<?>) SqlParser.createStatement("copy foo from stdin_path");
+        assertThat(copyFrom.isStdin()).isFalse();
+
+        CopyTo<?> copyTo = (CopyTo<?>) SqlParser.createStatement("copy foo to STDOUT");
+        assertThat(copyTo.isStdout()).isTrue();
+        assertThat(copyTo.targetUri()).isNull();
+        copyTo = (CopyTo<?>) SqlParser.createStatement("copy foo to DIRECTORY '/folder'");
+        assertThat(copyTo.isStdout()).isFalse();
+    }
+
     @Test
     public void testInsertStmtBuilder() {
         // insert from values
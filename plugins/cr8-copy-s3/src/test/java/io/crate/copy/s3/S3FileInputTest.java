@@ -22,9 +22,14 @@
 package io.crate.copy.s3;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
 import java.net.URI;
 import java.util.LinkedList;
 import java.util.List;
@@ -33,9 +38,12 @@ import java.util.Objects;
 import org.elasticsearch.test.ESTestCase;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 
 import io.crate.copy.s3.common.S3ClientHelper;
@@ -92,6 +100,30 @@ public class S3FileInputTest extends ESTestCase {
         assertThat(uris.get(1)).hasToString("s3:///fakeBucket/prefix/test2.json.gz");
     }
 
+    @Test
+    public void test_get_stream_of_a_byte_range_requests_only_that_range() throws Exception {
+        URI uri = new URI("s3://fakeBucket/prefix/test1.csv");
+        S3URI s3URI = S3URI.toS3URI(uri);
+        AmazonS3 client = mock(AmazonS3.class);
+        S3ClientHelper clientBuilder = mock(S3ClientHelper.class);
+        when(clientBuilder.client(s3URI, PROTOCOL)).thenReturn(client);
+        S3Object object = new S3Object();
+        object.setObjectContent(new ByteArrayInputStream(new byte[] { 'a', 'b' }));
+        when(client.getObject(any(GetObjectRequest.class))).thenReturn(object);
+
+        S3FileInput fileInput = new S3FileInput(clientBuilder, uri, PROTOCOL);
+        try (InputStream stream = fileInput.getStream(uri, 10, 12)) {
+            assertThat(stream.readAllBytes()).containsExactly('a', 'b');
+        }
+
+        ArgumentCaptor<GetObjectRequest> request = ArgumentCaptor.forClass(GetObjectRequest.class);
+        verify(client).getObject(request.capture());
+        assertThat(request.getValue().getBucketName()).isEqualTo(BUCKET_NAME);
+        assertThat(request.getValue().getKey()).isEqualTo("prefix/test1.csv");
+        // the end of a S3 range is inclusive
+        assertThat(request.getValue().getRange()).containsExactly(10L, 11L);
+    }
+
     private List<S3ObjectSummary> objectSummaries() {
         listObjectSummaries = new LinkedList<>();
 
@@ -0,0 +1,114 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.action.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.lucene.util.RamUsageEstimator;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.breaker.EstimateCellsSize;
+import io.crate.data.Row;
+import io.crate.execution.resultcache.QueryResultCache;
+import io.crate.types.DataType;
+
+/**
+ * Forwards all rows to a delegate and adds them to the {@link QueryResultCache} once the result is complete,
+ * unless it exceeds {@link QueryResultCache#maxEntryBytes()}.
+ */
+final class CachingResultReceiver<T> implements ResultReceiver<T> {
+
+    private final ResultReceiver<T> delegate;
+    private final QueryResultCache cache;
+    private final QueryResultCache.Key key;
+    private final long metadataVersion;
+    private final Map<String, Long> readerVersions;
+    private final EstimateCellsSize estimateRowSize;
+    private final long maxBytes;
+
+    @Nullable
+    private List<Object[]> rows = new ArrayList<>();
+    private long bytes = 0;
+
+    CachingResultReceiver(ResultReceiver<T> delegate,
+                          QueryResultCache cache,
+                          QueryResultCache.Key key,
+                          long metadataVersion,
+                          Map<String, Long> readerVersions,
+                          List<? extends DataType<?>> outputTypes) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.key = key;
+        this.metadataVersion = metadataVersion;
+        this.readerVersions = readerVersions;
+        this.estimateRowSize = new EstimateCellsSize(outputTypes);
+        this.maxBytes = cache.maxEntryBytes();
+    }
+
+    @Override
+    public void setNextRow(Row row) {
+        if (rows != null) {
+            Object[] cells = row.materialize();
+            bytes += RamUsageEstimator.shallowSizeOf(cells) + estimateRowSize.applyAsLong(cells);
+            if (bytes > maxBytes) {
+                rows = null;
+            } else {
+                rows.add(cells);
+            }
+        }
+        delegate.setNextRow(row);
+    }
+
+    @Override
+    @Nullable
+    public CompletableFuture<?> readyForMoreRows() {
+        return delegate.readyForMoreRows();
+    }
+
+    @Override
+    public void batchFinished() {
+        delegate.batchFinished();
+    }
+
+    @Override
+    public void allFinished() {
+        if (rows != null) {
+            cache.put(key, metadataVersion, readerVersions, rows, bytes);
+            rows = null;
+        }
+        delegate.allFinished();
+    }
+
+    @Override
+    public void fail(Throwable t) {
+        rows = null;
+        delegate.fail(t);
+    }
+
+    @Override
+    public CompletableFuture<T> completionFuture() {
+        return delegate.completionFuture();
+    }
+}
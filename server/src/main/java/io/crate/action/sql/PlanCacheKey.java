@@ -0,0 +1,97 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.action.sql;
+
+import java.util.Set;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.ClusterState;
+
+import io.crate.analyze.AnalyzedDeleteStatement;
+import io.crate.analyze.AnalyzedInsertStatement;
+import io.crate.analyze.AnalyzedStatement;
+import io.crate.analyze.AnalyzedUpdateStatement;
+import io.crate.analyze.Relations;
+import io.crate.analyze.relations.AbstractTableRelation;
+import io.crate.analyze.relations.AnalyzedRelation;
+import io.crate.analyze.relations.TableFunctionRelation;
+import io.crate.expression.symbol.Symbols;
+import io.crate.metadata.SearchPath;
+import io.crate.metadata.settings.CoordinatorSessionSettings;
+import io.crate.planner.optimizer.Rule;
+
+/**
+ * Identifies the inputs besides the analyzed statement which can influence the plan of a {@link PreparedStmt}.
+ * A plan cached for a prepared statement can be re-used as long as the key is equal,
+ * the parameters are bound when the plan is executed.
+ *
+ * <p>
+ * Any change to the cluster metadata, like a schema change, results in a new {@code metadataVersion}
+ * and therefore invalidates the cached plans.
+ * </p>
+ */
+record PlanCacheKey(long metadataVersion,
+                    Version minNodeVersion,
+                    String userName,
+                    SearchPath searchPath,
+                    boolean hashJoinsEnabled,
+                    int joinDpThreshold,
+                    Set<Class<? extends Rule<?>>> excludedOptimizerRules) {
+
+    static PlanCacheKey of(ClusterState clusterState, CoordinatorSessionSettings sessionSettings) {
+        return new PlanCacheKey(
+            clusterState.metadata().version(),
+            clusterState.nodes().getMinNodeVersion(),
+            sessionSettings.userName(),
+            sessionSettings.searchPath(),
+            sessionSettings.hashJoinsEnabled(),
+            sessionSettings.joinDpThreshold(),
+            Set.copyOf(sessionSettings.excludedOptimizerRules())
+        );
+    }
+
+    /**
+     * Only plans of queries and DML statements are cached, other statements are cheap to plan
+     * or depend on the session state, like cursors.
+     * Statements using non-deterministic functions are not cached either, because the planner may evaluate
+     * functions like {@code current_schema()} while optimizing and embed their values into the plan.
+     */
+    static boolean isCacheable(AnalyzedStatement analyzedStatement) {
+        if (analyzedStatement instanceof AnalyzedRelation relation) {
+            return Relations.isDeterministic(relation, PlanCacheKey::isSupportedSource);
+        }
+        if (analyzedStatement instanceof AnalyzedInsertStatement
+            || analyzedStatement instanceof AnalyzedUpdateStatement
+            || analyzedStatement instanceof AnalyzedDeleteStatement) {
+            boolean[] deterministic = new boolean[] { true };
+            analyzedStatement.visitSymbols(
+                symbol -> deterministic[0] = deterministic[0] && Relations.isDeterministic(symbol, PlanCacheKey::isSupportedSource));
+            return deterministic[0];
+        }
+        return false;
+    }
+
+    private static boolean isSupportedSource(AnalyzedRelation relation) {
+        return relation instanceof AbstractTableRelation<?>
+            || (relation instanceof TableFunctionRelation tableFunction && Symbols.isDeterministic(tableFunction.function()));
+    }
+}
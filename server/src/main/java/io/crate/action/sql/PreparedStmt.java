@@ -21,8 +21,11 @@
 
 package io.crate.action.sql;
 
+import org.jetbrains.annotations.Nullable;
+
 import io.crate.analyze.AnalyzedStatement;
 import io.crate.analyze.ParamTypeHints;
+import io.crate.planner.Plan;
 import io.crate.sql.tree.Statement;
 import io.crate.types.DataType;
 
@@ -33,6 +36,11 @@ public class PreparedStmt {
     private final String rawStatement;
     private final DataType<?>[] describedParameterTypes;
 
+    @Nullable
+    private PlanCacheKey cachedPlanKey;
+    @Nullable
+    private Plan cachedPlan;
+
     PreparedStmt(Statement parsedStatement,
                  AnalyzedStatement analyzedStatement,
                  String query,
@@ -71,4 +79,18 @@ public class PreparedStmt {
     public String rawStatement() {
         return rawStatement;
     }
+
+    /**
+     * Returns the plan stored by {@link #cachePlan(PlanCacheKey, Plan)} if it was created for an equal key,
+     * otherwise null.
+     */
+    @Nullable
+    Plan cachedPlan(PlanCacheKey key) {
+        return key.equals(cachedPlanKey) ? cachedPlan : null;
+    }
+
+    void cachePlan(PlanCacheKey key, Plan plan) {
+        this.cachedPlanKey = key;
+        this.cachedPlan = plan;
+    }
 }
@@ -21,6 +21,10 @@
 
 package io.crate.action.sql;
 
+import java.util.concurrent.CompletableFuture;
+
+import org.jetbrains.annotations.Nullable;
+
 import io.crate.concurrent.CompletionListenable;
 import io.crate.data.Row;
 
@@ -31,6 +35,17 @@ public interface ResultReceiver<T> extends CompletionListenable<T> {
 
     void setNextRow(Row row);
 
+    /**
+     * Used for backpressure after {@link #setNextRow(Row)}.
+     *
+     * @return a future which completes once the receiver is ready to receive more rows
+     *         or null if it's ready right away.
+     */
+    @Nullable
+    default CompletableFuture<?> readyForMoreRows() {
+        return null;
+    }
+
     void batchFinished();
 
     /**
@@ -81,6 +81,11 @@ public class RowConsumerToResultReceiver implements RowConsumer {
                         resultReceiver.batchFinished();
                         return; // resumed via postgres protocol, close is done later
                     }
+                    CompletableFuture<?> ready = resultReceiver.readyForMoreRows();
+                    if (ready != null && !ready.isDone()) {
+                        ready.whenComplete((r, f) -> consumeIt(iterator));
+                        return;
+                    }
                 }
                 if (iterator.allLoaded()) {
                     completionFuture.complete(null);
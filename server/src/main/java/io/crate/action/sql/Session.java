@@ -27,6 +27,7 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
@@ -43,6 +44,7 @@ import org.jetbrains.annotations.Nullable;
 import io.crate.analyze.AnalyzedBegin;
 import io.crate.analyze.AnalyzedClose;
 import io.crate.analyze.AnalyzedCommit;
+import io.crate.analyze.AnalyzedCopyFrom;
 import io.crate.analyze.AnalyzedDeallocate;
 import io.crate.analyze.AnalyzedDeclare;
 import io.crate.analyze.AnalyzedDiscard;
@@ -65,6 +67,9 @@ import io.crate.exceptions.SQLExceptions;
 import io.crate.execution.engine.collect.stats.JobsLogs;
 import io.crate.execution.jobs.kill.KillJobsNodeAction;
 import io.crate.execution.jobs.kill.KillJobsNodeRequest;
+import io.crate.execution.resultcache.QueryResultCache;
+import io.crate.execution.resultcache.ShardReaderVersionsAction;
+import io.crate.execution.resultcache.ShardReaderVersionsRequest;
 import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.Symbols;
 import io.crate.metadata.CoordinatorTxnCtx;
@@ -159,6 +164,8 @@ public class Session implements AutoCloseable {
     private final boolean isReadOnly;
     private final Runnable onClose;
     private final TableStats tableStats;
+    private final PlanCacheStats planCacheStats;
+    private final QueryResultCache queryResultCache;
 
     private TransactionState currentTransactionState = TransactionState.IDLE;
 
@@ -172,6 +179,8 @@ public class Session implements AutoCloseable {
                    DependencyCarrier executor,
                    CoordinatorSessionSettings sessionSettings,
                    TableStats tableStats,
+                   PlanCacheStats planCacheStats,
+                   QueryResultCache queryResultCache,
                    Runnable onClose) {
         this.id = sessionId;
         this.secret = ThreadLocalRandom.current().nextInt();
@@ -183,6 +192,8 @@ public class Session implements AutoCloseable {
         this.executor = executor;
         this.sessionSettings = sessionSettings;
         this.tableStats = tableStats;
+        this.planCacheStats = planCacheStats;
+        this.queryResultCache = queryResultCache;
         this.onClose = onClose;
     }
 
@@ -280,6 +291,27 @@ public class Session implements AutoCloseable {
         plan.execute(executor, plannerContext, consumer, params, SubQueryResults.EMPTY);
     }
 
+    /**
+     * Creates the plan for a prepared statement or re-uses the plan created by a previous execution,
+     * see {@link PlanCacheKey}.
+     */
+    private Plan plan(PreparedStmt preparedStmt, PlannerContext plannerContext) {
+        AnalyzedStatement analyzedStatement = preparedStmt.analyzedStatement();
+        if (!PlanCacheKey.isCacheable(analyzedStatement)) {
+            return planner.plan(analyzedStatement, plannerContext);
+        }
+        PlanCacheKey key = PlanCacheKey.of(plannerContext.clusterState(), sessionSettings);
+        Plan plan = preparedStmt.cachedPlan(key);
+        if (plan == null) {
+            planCacheStats.miss();
+            plan = planner.plan(analyzedStatement, plannerContext);
+            preparedStmt.cachePlan(key, plan);
+        } else {
+            planCacheStats.hit();
+        }
+        return plan;
+    }
+
     private Portal getSafePortal(String portalName) {
         Portal portal = portals.get(portalName);
         if (portal == null) {
@@ -401,7 +433,7 @@ public class Session implements AutoCloseable {
                 return new DescribeResult(
                     portal.preparedStmt().parameterTypes(),
                     analyzedStmt.outputs(),
-                    resolveTableFromSelect(analyzedStmt)
+                    resolveTable(analyzedStmt)
                 );
             case 'S':
                 /*
@@ -430,7 +462,7 @@ public class Session implements AutoCloseable {
                 return new DescribeResult(
                     preparedStmt.parameterTypes(),
                     analyzedStatement.outputs(),
-                    resolveTableFromSelect(analyzedStatement)
+                    resolveTable(analyzedStatement)
                 );
             default:
                 throw new AssertionError("Unsupported type: " + type);
@@ -439,9 +471,12 @@ public class Session implements AutoCloseable {
 
     @Nullable
     @SuppressWarnings("unchecked")
-    private RelationInfo resolveTableFromSelect(AnalyzedStatement stmt) {
+    private RelationInfo resolveTable(AnalyzedStatement stmt) {
         // See description of {@link DescribeResult#relation()}
-        // It is only populated if it is a SELECT on a single table
+        // It is only populated if it is a SELECT on a single table or a COPY FROM
+        if (stmt instanceof AnalyzedCopyFrom copyFrom) {
+            return copyFrom.tableInfo();
+        }
         if (stmt instanceof QueriedSelectRelation) {
             var relation = ((QueriedSelectRelation) stmt);
             List<AnalyzedRelation> from = relation.from();
@@ -655,11 +690,10 @@ public class Session implements AutoCloseable {
         );
 
         PreparedStmt firstPreparedStatement = toExec.get(0).portal().preparedStmt();
-        AnalyzedStatement analyzedStatement = firstPreparedStatement.analyzedStatement();
 
         Plan plan;
         try {
-            plan = planner.plan(analyzedStatement, plannerContext);
+            plan = plan(firstPreparedStatement, plannerContext);
         } catch (Throwable t) {
             jobsLogs.logPreExecutionFailure(
                 mostRecentJobID,
@@ -750,11 +784,76 @@ public class Session implements AutoCloseable {
         }
         Plan plan;
         try {
-            plan = planner.plan(analyzedStmt, plannerContext);
+            plan = plan(portal.preparedStmt(), plannerContext);
         } catch (Throwable t) {
             jobsLogs.logPreExecutionFailure(mostRecentJobID, rawStatement, SQLExceptions.messageOf(t), sessionSettings.sessionUser());
             throw t;
         }
+        if (maxRows == 0 && queryResultCache.enabled() && !analyzedStmt.isWriteOperation()) {
+            Set<String> indices = QueryResultCache.cacheableIndices(analyzedStmt, plan);
+            if (indices != null) {
+                return cachedExec(portal, plan, plannerContext, resultReceiver, indices);
+            }
+        }
+        return execute(portal, plan, plannerContext, resultReceiver, maxRows, null, null);
+    }
+
+    /**
+     * Serves the result from the {@link QueryResultCache} if the Lucene readers of all shards of the queried
+     * indices are unchanged since the result was cached, otherwise executes the plan and caches its result.
+     */
+    private CompletableFuture<?> cachedExec(Portal portal,
+                                            Plan plan,
+                                            PlannerContext plannerContext,
+                                            ResultReceiver<?> resultReceiver,
+                                            Set<String> indices) {
+        UUID jobId = mostRecentJobID;
+        String rawStatement = portal.preparedStmt().rawStatement();
+        long metadataVersion = plannerContext.clusterState().metadata().version();
+        var cacheKey = new QueryResultCache.Key(
+            rawStatement,
+            sessionSettings.userName(),
+            sessionSettings.searchPath(),
+            portal.params()
+        );
+        var request = new ShardReaderVersionsRequest(List.copyOf(indices));
+        return executor.client().execute(ShardReaderVersionsAction.INSTANCE, request)
+            .handle((response, err) -> {
+                if (err != null) {
+                    LOGGER.debug("Couldn't retrieve shard reader versions, executing query without result cache", err);
+                    return execute(portal, plan, plannerContext, resultReceiver, 0, null, null);
+                }
+                Map<String, Long> readerVersions = response.versionByAllocationId();
+                List<Object[]> rows = queryResultCache.get(cacheKey, metadataVersion, readerVersions);
+                if (rows == null) {
+                    return execute(portal, plan, plannerContext, resultReceiver, 0, cacheKey, readerVersions);
+                }
+                jobsLogs.logExecutionStart(
+                    jobId, rawStatement, sessionSettings.sessionUser(), StatementClassifier.classify(plan));
+                for (Object[] cells : rows) {
+                    resultReceiver.setNextRow(new RowN(cells));
+                }
+                resultReceiver.allFinished();
+                jobsLogs.logExecutionEnd(jobId, null);
+                return resultReceiver.completionFuture();
+            })
+            .thenCompose(result -> result);
+    }
+
+    private CompletableFuture<?> execute(Portal portal,
+                                         Plan plan,
+                                         PlannerContext plannerContext,
+                                         ResultReceiver<?> resultReceiver,
+                                         int maxRows,
+                                         @Nullable QueryResultCache.Key cacheKey,
+                                         @Nullable Map<String, Long> readerVersions) {
+        var analyzedStmt = portal.analyzedStatement();
+        String rawStatement = portal.preparedStmt().rawStatement();
+        var clusterState = plannerContext.clusterState();
+        var routingProvider = plannerContext.routingProvider();
+        var txnCtx = plannerContext.transactionContext();
+        var nodeCtx = plannerContext.nodeContext();
+        var params = plannerContext.params();
         if (!analyzedStmt.isWriteOperation()) {
             resultReceiver = new RetryOnFailureResultReceiver<>(
                 executor.clusterService(),
@@ -776,6 +875,17 @@ public class Session implements AutoCloseable {
                 )
             );
         }
+        if (cacheKey != null) {
+            // Wraps the retry receiver so that a result is only cached if the query didn't need to be retried
+            resultReceiver = new CachingResultReceiver<>(
+                resultReceiver,
+                queryResultCache,
+                cacheKey,
+                clusterState.metadata().version(),
+                readerVersions,
+                Symbols.typeView(analyzedStmt.outputs())
+            );
+        }
         jobsLogs.logExecutionStart(
             mostRecentJobID, rawStatement, sessionSettings.sessionUser(), StatementClassifier.classify(plan));
         RowConsumerToResultReceiver consumer = new RowConsumerToResultReceiver(
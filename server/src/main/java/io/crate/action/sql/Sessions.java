@@ -41,9 +41,11 @@ import org.jetbrains.annotations.Nullable;
 
 import io.crate.analyze.Analyzer;
 import io.crate.common.unit.TimeValue;
+import io.crate.execution.engine.collect.files.StdinInputs;
 import io.crate.execution.engine.collect.stats.JobsLogs;
 import io.crate.execution.jobs.transport.CancelRequest;
 import io.crate.execution.jobs.transport.TransportCancelAction;
+import io.crate.execution.resultcache.QueryResultCache;
 import io.crate.metadata.NodeContext;
 import io.crate.metadata.settings.CoordinatorSessionSettings;
 import io.crate.planner.DependencyCarrier;
@@ -84,9 +86,12 @@ public class Sessions {
     private final JobsLogs jobsLogs;
     private final ClusterService clusterService;
     private final TableStats tableStats;
+    private final QueryResultCache queryResultCache;
+    private final StdinInputs stdinInputs;
     private final boolean isReadOnly;
     private final AtomicInteger nextSessionId = new AtomicInteger();
     private final ConcurrentMap<Integer, Session> sessions = new ConcurrentHashMap<>();
+    private final PlanCacheStats planCacheStats = new PlanCacheStats();
 
     private volatile boolean disabled;
     private volatile TimeValue defaultStatementTimeout;
@@ -101,7 +106,9 @@ public class Sessions {
                     JobsLogs jobsLogs,
                     Settings settings,
                     ClusterService clusterService,
-                    TableStats tableStats) {
+                    TableStats tableStats,
+                    QueryResultCache queryResultCache,
+                    StdinInputs stdinInputs) {
         this.nodeCtx = nodeCtx;
         this.analyzer = analyzer;
         this.planner = planner;
@@ -109,6 +116,8 @@ public class Sessions {
         this.jobsLogs = jobsLogs;
         this.clusterService = clusterService;
         this.tableStats = tableStats;
+        this.queryResultCache = queryResultCache;
+        this.stdinInputs = stdinInputs;
         this.isReadOnly = NODE_READ_ONLY_SETTING.get(settings);
         this.defaultStatementTimeout = STATEMENT_TIMEOUT.get(settings);
         this.memoryLimit = MEMORY_LIMIT.get(settings);
@@ -136,6 +145,8 @@ public class Sessions {
             executorProvider.get(),
             sessionSettings,
             tableStats,
+            planCacheStats,
+            queryResultCache,
             () -> sessions.remove(sessionId)
         );
         sessions.put(sessionId, session);
@@ -178,6 +189,14 @@ public class Sessions {
         return !disabled;
     }
 
+    public PlanCacheStats planCacheStats() {
+        return planCacheStats;
+    }
+
+    public StdinInputs stdinInputs() {
+        return stdinInputs;
+    }
+
     /**
      * @return true if a session matches the keyData, false otherwise.
      */
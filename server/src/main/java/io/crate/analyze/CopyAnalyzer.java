@@ -56,6 +56,10 @@ class CopyAnalyzer {
     AnalyzedCopyFrom analyzeCopyFrom(CopyFrom<Expression> node,
                                      ParamTypeHints paramTypeHints,
                                      CoordinatorTxnCtx txnCtx) {
+        if (node.isStdin()) {
+            throw new UnsupportedOperationException(
+                "COPY FROM STDIN is only supported via the simple query flow of the PostgreSQL wire protocol");
+        }
         DocTableInfo tableInfo = (DocTableInfo) schemas.resolveTableInfo(
             node.table().getName(),
             Operation.INSERT,
@@ -100,6 +104,10 @@ class CopyAnalyzer {
     AnalyzedCopyTo analyzeCopyTo(CopyTo<Expression> node,
                                  ParamTypeHints paramTypeHints,
                                  CoordinatorTxnCtx txnCtx) {
+        if (node.isStdout()) {
+            throw new UnsupportedOperationException(
+                "COPY TO STDOUT is only supported via the simple query flow of the PostgreSQL wire protocol");
+        }
         if (!node.directoryUri()) {
             throw new UnsupportedOperationException("Using COPY TO without specifying a DIRECTORY is not supported");
         }
@@ -24,6 +24,7 @@ package io.crate.analyze;
 import java.util.Locale;
 
 import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.unit.ByteSizeValue;
 
 import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 
@@ -40,16 +41,21 @@ public final class CopyStatementSettings {
         Validators.stringValidator("compression", "gzip"),
         Setting.Property.Dynamic);
 
+    public static final Setting<String> COPY_TO_COMPRESSION_SETTING = Setting.simpleString(
+        "compression",
+        Validators.stringValidator("compression", "gzip", "snappy"),
+        Setting.Property.Dynamic);
+
     public static final Setting<String> OUTPUT_FORMAT_SETTING = Setting.simpleString(
         "format",
-        Validators.stringValidator("format", "json_object", "json_array"),
+        Validators.stringValidator("format", "json_object", "json_array", "parquet"),
         Setting.Property.Dynamic);
 
     public static final Setting<String> INPUT_FORMAT_SETTING = new Setting<>(
         "format",
         "json",
         (s) -> s,
-        Validators.stringValidator("format", "json", "csv"),
+        Validators.stringValidator("format", "json", "csv", "parquet", "arrow"),
         DataTypes.STRING,
         Setting.Property.Dynamic);
 
@@ -63,6 +69,16 @@ public final class CopyStatementSettings {
         true,
         Setting.Property.Dynamic);
 
+    /**
+     * Uncompressed files on shared storage which exceed the split size are split into byte ranges of this size,
+     * which are distributed across the readers. Splitting is disabled by default (0), as the line numbers of the
+     * splits are relative to their start.
+     */
+    public static final Setting<ByteSizeValue> SPLIT_SIZE = Setting.byteSizeSetting(
+        "split_size",
+        ByteSizeValue.ZERO,
+        Setting.Property.Dynamic);
+
     public static final Setting<Long> SKIP_NUM_LINES = Setting.longSetting("skip", 0, 0, Setting.Property.Dynamic);
 
     public static final Setting<Character> CSV_COLUMN_SEPARATOR = new Setting<>(
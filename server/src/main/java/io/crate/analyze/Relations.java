@@ -21,6 +21,7 @@
 
 package io.crate.analyze;
 
+import io.crate.analyze.relations.AliasedAnalyzedRelation;
 import io.crate.analyze.relations.AnalyzedRelation;
 import io.crate.analyze.relations.AnalyzedRelationVisitor;
 import io.crate.analyze.relations.AnalyzedView;
@@ -29,8 +30,11 @@ import io.crate.analyze.relations.TableFunctionRelation;
 import io.crate.analyze.relations.TableRelation;
 import io.crate.analyze.relations.UnionSelect;
 import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.SymbolVisitors;
+import io.crate.expression.symbol.Symbols;
 
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class Relations {
 
@@ -42,6 +46,46 @@ public class Relations {
         TraverseDeepSymbolsStatements.traverse(stmt, consumer);
     }
 
+    /**
+     * @param isSupportedSource decides on the relations which are not made up of other relations, like tables
+     * @return true if the relation, its sub-relations and sub-queries only use deterministic functions
+     *         and all their sources are supported
+     */
+    public static boolean isDeterministic(AnalyzedRelation relation, Predicate<AnalyzedRelation> isSupportedSource) {
+        if (relation instanceof AliasedAnalyzedRelation aliased) {
+            return isDeterministic(aliased.relation(), isSupportedSource);
+        } else if (relation instanceof AnalyzedView view) {
+            return isDeterministic(view.relation(), isSupportedSource);
+        } else if (relation instanceof UnionSelect union) {
+            return isDeterministic(union.left(), isSupportedSource) && isDeterministic(union.right(), isSupportedSource);
+        } else if (relation instanceof QueriedSelectRelation select) {
+            for (AnalyzedRelation source : select.from()) {
+                if (!isDeterministic(source, isSupportedSource)) {
+                    return false;
+                }
+            }
+            boolean[] deterministic = new boolean[] { true };
+            select.visitSymbols(symbol -> deterministic[0] = deterministic[0] && isDeterministic(symbol, isSupportedSource));
+            return deterministic[0];
+        }
+        return isSupportedSource.test(relation);
+    }
+
+    /**
+     * @see #isDeterministic(AnalyzedRelation, Predicate)
+     */
+    public static boolean isDeterministic(Symbol symbol, Predicate<AnalyzedRelation> isSupportedSource) {
+        if (!Symbols.isDeterministic(symbol)) {
+            return false;
+        }
+        for (AnalyzedRelation subQuery : SymbolVisitors.extractAnalyzedRelations(symbol)) {
+            if (!isDeterministic(subQuery, isSupportedSource)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static class TraverseDeepSymbolsStatements extends AnalyzedStatementVisitor<Consumer<? super Symbol>, Void> {
 
         private static final TraverseDeepSymbolsStatements INSTANCE = new TraverseDeepSymbolsStatements();
@@ -50,6 +50,7 @@ import io.crate.common.annotations.Immutable;
 import io.crate.common.annotations.ThreadSafe;
 import io.crate.common.collections.MapBuilder;
 import io.crate.common.unit.TimeValue;
+import io.crate.expression.reference.doc.lucene.BinarySource;
 import io.crate.metadata.settings.NumberOfReplicasSetting;
 import io.crate.metadata.settings.Validators;
 import io.crate.sql.tree.ColumnPolicy;
@@ -93,6 +94,7 @@ public class TableParameters {
             IndexSettings.INDEX_TRANSLOG_FLUSH_THRESHOLD_SIZE_SETTING,
             EnableAllocationDecider.INDEX_ROUTING_ALLOCATION_ENABLE_SETTING,
             IndexSettings.INDEX_TRANSLOG_SYNC_INTERVAL_SETTING,
+            IndexSettings.INDEX_TRANSLOG_SYNC_GROUP_WINDOW_SETTING,
             IndexSettings.INDEX_TRANSLOG_DURABILITY_SETTING,
             ShardsLimitAllocationDecider.INDEX_TOTAL_SHARDS_PER_NODE_SETTING,
             MapperService.INDEX_MAPPING_TOTAL_FIELDS_LIMIT_SETTING,
@@ -107,6 +109,7 @@ public class TableParameters {
             IndexMetadata.INDEX_ROUTING_INCLUDE_GROUP_SETTING,
             IndexMetadata.INDEX_ROUTING_EXCLUDE_GROUP_SETTING,
             EngineConfig.INDEX_CODEC_SETTING,
+            BinarySource.INDEX_SOURCE_FORMAT_SETTING,
             IndexModule.INDEX_STORE_TYPE_SETTING,
             MergeSchedulerConfig.MAX_THREAD_COUNT_SETTING,
             IndexSettings.INDEX_SOFT_DELETES_SETTING,
@@ -140,7 +143,9 @@ public class TableParameters {
         IndexSettings.INDEX_REFRESH_INTERVAL_SETTING,
 
         IndexSettings.FILE_BASED_RECOVERY_THRESHOLD_SETTING,
-        Store.INDEX_STORE_STATS_REFRESH_INTERVAL_SETTING
+        Store.INDEX_STORE_STATS_REFRESH_INTERVAL_SETTING,
+        BinarySource.INDEX_SOURCE_FORMAT_SETTING,
+        IndexSettings.INDEX_TRANSLOG_SYNC_GROUP_WINDOW_SETTING
     );
 
     private static final Map<String, Setting<?>> SUPPORTED_SETTINGS_DEFAULT
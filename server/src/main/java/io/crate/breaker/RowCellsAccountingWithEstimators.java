@@ -75,4 +75,9 @@ public class RowCellsAccountingWithEstimators implements RowAccounting<Object[]>
     public void release() {
         ramAccounting.release();
     }
+
+    @Override
+    public void release(long bytes) {
+        ramAccounting.addBytes(-bytes);
+    }
 }
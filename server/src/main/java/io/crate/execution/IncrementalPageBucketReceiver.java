@@ -28,6 +28,7 @@ import io.crate.data.Bucket;
 import io.crate.data.CollectingBatchIterator;
 import io.crate.data.Row;
 import io.crate.data.RowConsumer;
+import io.crate.execution.engine.distribution.StreamBucket;
 import io.crate.execution.jobs.PageBucketReceiver;
 import io.crate.execution.jobs.PageResultListener;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
@@ -73,14 +74,19 @@ public class IncrementalPageBucketReceiver<T> implements PageBucketReceiver {
     }
 
     private void processRows(Bucket rows) {
-        for (Row row : rows) {
-            accumulator.accept(state, row);
+        try {
+            for (Row row : rows) {
+                accumulator.accept(state, row);
+            }
+        } finally {
+            StreamBucket.release(rows);
         }
     }
 
     @Override
     public void setBucket(int bucketIdx, Bucket rows, boolean isLast, PageResultListener pageResultListener) {
         if (processingFuture.isCompletedExceptionally()) {
+            StreamBucket.release(rows);
             pageResultListener.needMore(false);
             return;
         } else {
@@ -93,6 +99,7 @@ public class IncrementalPageBucketReceiver<T> implements PageBucketReceiver {
                 try {
                     currentlyAccumulating = CompletableFuture.runAsync(() -> processRows(rows), executor);
                 } catch (EsRejectedExecutionException e) {
+                    StreamBucket.release(rows);
                     processingFuture.completeExceptionally(e);
                 }
             } else {
@@ -100,6 +107,7 @@ public class IncrementalPageBucketReceiver<T> implements PageBucketReceiver {
                     if (t == null) {
                         processRows(rows);
                     } else {
+                        StreamBucket.release(rows);
                         var runtimeErr = Exceptions.toRuntimeException(t);
                         processingFuture.completeExceptionally(runtimeErr);
                         throw runtimeErr;
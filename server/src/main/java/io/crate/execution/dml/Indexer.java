@@ -46,6 +46,7 @@ import org.apache.lucene.index.IndexOptions;
 import org.apache.lucene.index.IndexableField;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.Version;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.xcontent.XContentBuilder;
@@ -65,6 +66,8 @@ import io.crate.execution.engine.collect.NestableCollectExpression;
 import io.crate.expression.InputFactory;
 import io.crate.expression.InputFactory.Context;
 import io.crate.expression.reference.ReferenceResolver;
+import io.crate.expression.reference.doc.lucene.BinarySource;
+import io.crate.expression.reference.doc.lucene.BinarySourceCollector;
 import io.crate.expression.symbol.DynamicReference;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.RefReplacer;
@@ -127,6 +130,8 @@ public class Indexer {
     private final List<Synthetic> undeterministic = new ArrayList<>();
     private final BytesStreamOutput stream;
     private final boolean writeOids;
+    @Nullable
+    private final BinarySourceCollector binarySourceCollector;
 
     /**
      * Function to resolve a field type based on the columns {@link Reference#storageIdent()}.
@@ -421,6 +426,9 @@ public class Indexer {
         this.synthetics = new HashMap<>();
         this.stream = new BytesStreamOutput();
         this.writeOids = table.versionCreated().onOrAfter(Version.V_5_5_0);
+        this.binarySourceCollector = BinarySource.BINARY.equals(BinarySource.INDEX_SOURCE_FORMAT_SETTING.get(table.parameters()))
+            ? new BinarySourceCollector()
+            : null;
         this.getFieldType = getFieldType;
         Function<ColumnIdent, Reference> getRef = table::getReference;
         PartitionName partitionName = table.isPartitioned()
@@ -743,7 +751,9 @@ public class Indexer {
         for (Synthetic synthetic: synthetics.values()) {
             synthetic.reset();
         }
-        try (XContentBuilder xContentBuilder = XContentFactory.json(stream)) {
+        try (XContentBuilder xContentBuilder = binarySourceCollector == null
+                ? XContentFactory.json(stream)
+                : binarySourceCollector.jsonBuilder(stream)) {
             xContentBuilder.startObject();
             Object[] values = item.insertValues();
             for (int i = 0; i < values.length; i++) {
@@ -821,8 +831,13 @@ public class Indexer {
             NumericDocValuesField version = new NumericDocValuesField(DocSysColumns.Names.VERSION, -1L);
             doc.add(version);
 
-            BytesReference source = BytesReference.bytes(xContentBuilder);
-            BytesRef sourceRef = source.toBytesRef();
+            // Copied out of the reused stream, the documents of append-only inserts are kept until all items of
+            // a request have been prepared
+            BytesReference source = new BytesArray(BytesReference.toBytes(BytesReference.bytes(xContentBuilder)));
+            // The translog keeps the JSON source, it is used to replay operations
+            BytesRef sourceRef = binarySourceCollector == null
+                ? source.toBytesRef()
+                : binarySourceCollector.binarySource(source.length() + 64);
             doc.add(new StoredField("_source", sourceRef.bytes, sourceRef.offset, sourceRef.length));
 
             BytesRef idBytes = Uid.encodeId(item.id());
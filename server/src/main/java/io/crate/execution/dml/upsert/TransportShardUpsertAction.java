@@ -79,6 +79,7 @@ import io.crate.execution.jobs.TasksService;
 import io.crate.expression.reference.Doc;
 import io.crate.expression.reference.doc.lucene.SourceParser;
 import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.SymbolVisitors;
 import io.crate.metadata.NodeContext;
 import io.crate.metadata.Reference;
 import io.crate.metadata.RelationName;
@@ -202,6 +203,9 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
         }
 
         Translog.Location translogLocation = null;
+        // Items of append-only inserts are collected and added in one batch after all other items were processed
+        boolean appendOnly = isAppendOnly(request, updateToInsert);
+        List<AppendOperation> appendOperations = new ArrayList<>(appendOnly ? request.items().size() : 0);
         for (ShardUpsertRequest.Item item : request.items()) {
             int location = item.location();
             if (killed.get()) {
@@ -212,6 +216,10 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
                 break;
             }
             try {
+                if (appendOnly) {
+                    appendOperations.add(prepareAppend(indexer, request, item, indexShard, rawIndexer));
+                    continue;
+                }
                 IndexItemResponse indexItemResponse = indexItem(
                     indexer,
                     request,
@@ -231,27 +239,9 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
                     }
                 }
             } catch (Exception e) {
-                if (retryPrimaryException(e)) {
-                    throw Exceptions.toRuntimeException(e);
-                }
-                if (logger.isDebugEnabled()) {
-                    logger.debug("Failed to execute upsert on nodeName={}, shardId={} id={} error={}", clusterService.localNode().getName(), request.shardId(), item.id(), e);
-                }
-
-                // *mark* the item as failed by setting the source to null
-                // to prevent the replica operation from processing this concrete item
-                item.source(null);
-                item.seqNo(SequenceNumbers.SKIP_ON_REPLICA);
-
-                if (!request.continueOnError()) {
-                    shardResponse.failure(e);
+                if (onItemFailure(request, item, shardResponse, e)) {
                     break;
                 }
-                shardResponse.add(location,
-                    new ShardResponse.Failure(
-                        item.id(),
-                        getExceptionMessage(e),
-                        (e instanceof VersionConflictEngineException)));
             } catch (AssertionError e) {
                 // Shouldn't happen in production but helps during development
                 // where bugs may trigger assertions
@@ -260,9 +250,186 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
                 break;
             }
         }
+        if (appendOperations.isEmpty() == false) {
+            Translog.Location appendLocation = append(request, indexShard, appendOperations, shardResponse);
+            if (appendLocation != null) {
+                translogLocation = appendLocation;
+            }
+        }
         return new WritePrimaryResult<>(request, shardResponse, translogLocation, null, indexShard);
     }
 
+    /**
+     * Marks the item as failed and adds the failure to the response
+     *
+     * @return true if the remaining items must not be processed
+     */
+    private boolean onItemFailure(ShardUpsertRequest request,
+                                  ShardUpsertRequest.Item item,
+                                  ShardResponse shardResponse,
+                                  Exception e) {
+        if (retryPrimaryException(e)) {
+            throw Exceptions.toRuntimeException(e);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Failed to execute upsert on nodeName={}, shardId={} id={} error={}", clusterService.localNode().getName(), request.shardId(), item.id(), e);
+        }
+
+        // *mark* the item as failed by setting the source to null
+        // to prevent the replica operation from processing this concrete item
+        item.source(null);
+        item.seqNo(SequenceNumbers.SKIP_ON_REPLICA);
+
+        if (!request.continueOnError()) {
+            shardResponse.failure(e);
+            return true;
+        }
+        shardResponse.add(item.location(),
+            new ShardResponse.Failure(
+                item.id(),
+                getExceptionMessage(e),
+                (e instanceof VersionConflictEngineException)));
+        return false;
+    }
+
+    /**
+     * Inserts into tables without primary key use auto generated ids.
+     * The documents can't exist already unless the request is retried, so version lookups are not required
+     * and the documents can be added to the shard in a single batch.
+     * Return values are evaluated before the batch is added, so they must not depend on the sequence number.
+     */
+    private static boolean isAppendOnly(ShardUpsertRequest request, @Nullable UpdateToInsert updateToInsert) {
+        if (updateToInsert != null || request.isRetry() || request.insertColumns() == null) {
+            return false;
+        }
+        Symbol[] returnValues = request.returnValues();
+        if (returnValues != null && SymbolVisitors.any(TransportShardUpsertAction::isAssignedOnIndex, List.of(returnValues))) {
+            return false;
+        }
+        for (ShardUpsertRequest.Item item : request.items()) {
+            if (item.autoGeneratedTimestamp() == Translog.UNSET_AUTO_GENERATED_TIMESTAMP || item.insertValues() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAssignedOnIndex(Symbol symbol) {
+        return symbol instanceof Reference ref
+            && (ref.column().equals(DocSysColumns.SEQ_NO) || ref.column().equals(DocSysColumns.PRIMARY_TERM));
+    }
+
+    /**
+     * An append-only item with its index operation and return values
+     */
+    private record AppendOperation(ShardUpsertRequest.Item item, Engine.Index index, @Nullable Object[] returnValues) {
+    }
+
+    /**
+     * Creates the index operation of an append-only item, see {@link #isAppendOnly(ShardUpsertRequest, UpdateToInsert)}
+     * The return values are evaluated right away, the generated and default values of the indexer are only valid
+     * until the next item is indexed.
+     * Like {@link #insert}, new columns of the item are added to the table before the document is created.
+     */
+    private AppendOperation prepareAppend(Indexer indexer,
+                                          ShardUpsertRequest request,
+                                          ShardUpsertRequest.Item item,
+                                          IndexShard indexShard,
+                                          @Nullable RawIndexer rawIndexer) throws Exception {
+        final long startTime = System.nanoTime();
+        List<Reference> newColumns = rawIndexer != null ? rawIndexer.collectSchemaUpdates(item) : indexer.collectSchemaUpdates(item);
+        if (!newColumns.isEmpty()) {
+            addNewColumns(indexer, indexShard, rawIndexer, newColumns);
+        }
+        ParsedDocument parsedDoc = rawIndexer != null ? rawIndexer.index() : indexer.index(item);
+        Object[] returnValues = indexer.returnValues(item);
+
+        // Replica must use the same values for undeterministic defaults/generated columns
+        if (rawIndexer == null && indexer.hasUndeterministicSynthetics()) {
+            item.insertValues(indexer.addGeneratedValues(item));
+        } else if (rawIndexer != null && rawIndexer.hasUndeterministicSynthetics()) {
+            item.insertValues(rawIndexer.addGeneratedValues(item));
+        }
+
+        Term uid = new Term(IdFieldMapper.NAME, Uid.encodeId(item.id()));
+        Engine.Index index = new Engine.Index(
+            uid,
+            parsedDoc,
+            SequenceNumbers.UNASSIGNED_SEQ_NO,
+            indexShard.getOperationPrimaryTerm(),
+            request.duplicateKeyAction() == DuplicateKeyAction.OVERWRITE ? Versions.MATCH_ANY : Versions.MATCH_DELETED,
+            VersionType.INTERNAL,
+            Engine.Operation.Origin.PRIMARY,
+            startTime,
+            item.autoGeneratedTimestamp(),
+            false,
+            SequenceNumbers.UNASSIGNED_SEQ_NO,
+            SequenceNumbers.UNASSIGNED_PRIMARY_TERM
+        );
+        return new AppendOperation(item, index, returnValues);
+    }
+
+    /**
+     * Adds the documents of append-only items using {@link IndexShard#indexAppendOnly(List)}
+     *
+     * @return the translog location of the last written item
+     */
+    @Nullable
+    private Translog.Location append(ShardUpsertRequest request,
+                                     IndexShard indexShard,
+                                     List<AppendOperation> operations,
+                                     ShardResponse shardResponse) {
+        List<Engine.Index> indexOperations = new ArrayList<>(operations.size());
+        for (AppendOperation operation : operations) {
+            indexOperations.add(operation.index());
+        }
+        List<IndexResult> results;
+        try {
+            results = indexShard.indexAppendOnly(indexOperations);
+        } catch (Exception e) {
+            for (AppendOperation operation : operations) {
+                if (onItemFailure(request, operation.item(), shardResponse, e)) {
+                    break;
+                }
+            }
+            return null;
+        }
+        Translog.Location translogLocation = null;
+        boolean failed = false;
+        for (int i = 0; i < operations.size(); i++) {
+            AppendOperation operation = operations.get(i);
+            ShardUpsertRequest.Item item = operation.item();
+            IndexResult result = results.get(i);
+            switch (result.getResultType()) {
+                case SUCCESS:
+                    item.seqNo(result.getSeqNo());
+                    item.version(result.getVersion());
+                    item.primaryTerm(result.getTerm());
+                    shardResponse.add(item.location());
+                    translogLocation = result.getTranslogLocation();
+                    if (operation.returnValues() != null) {
+                        shardResponse.addResultRows(operation.returnValues());
+                    }
+                    break;
+
+                case FAILURE:
+                    assert result.getFailure() != null : "Failure must not be null if resultType is FAILURE";
+                    if (failed) {
+                        // the response has a failure already, the remaining failed items are only marked
+                        item.source(null);
+                        item.seqNo(SequenceNumbers.SKIP_ON_REPLICA);
+                    } else {
+                        failed = onItemFailure(request, item, shardResponse, result.getFailure());
+                    }
+                    break;
+
+                default:
+                    throw new AssertionError("IndexResult must either succeed or fail, mappings are not updated by the engine");
+            }
+        }
+        return translogLocation;
+    }
+
     private static String getExceptionMessage(Throwable e) {
         if (SQLExceptions.isDocumentAlreadyExistsException(e)) {
             return "A document with the same primary key exists already";
@@ -548,23 +715,8 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
         final long startTime = System.nanoTime();
 
         List<Reference> newColumns = rawIndexer != null ? rawIndexer.collectSchemaUpdates(item) : indexer.collectSchemaUpdates(item);
-
-        var relationName = RelationName.fromIndexName(indexShard.shardId().getIndexName());
         if (!newColumns.isEmpty()) {
-            var addColumnRequest = new AddColumnRequest(
-                RelationName.fromIndexName(indexShard.shardId().getIndexName()),
-                newColumns,
-                Map.of(),
-                new IntArrayList(0)
-            );
-            addColumnAction.execute(addColumnRequest).get();
-            schemas.tableExists(relationName); // triggers cache invalidation
-            DocTableInfo actualTable = schemas.getTableInfo(relationName, Operation.READ);
-            if (rawIndexer != null) {
-                rawIndexer.updateTargets(actualTable::getReference);
-            } else {
-                indexer.updateTargets(actualTable::getReference);
-            }
+            addNewColumns(indexer, indexShard, rawIndexer, newColumns);
         }
 
         ParsedDocument parsedDoc = rawIndexer != null ? rawIndexer.index() : indexer.index(item);
@@ -616,6 +768,30 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
         }
     }
 
+    /**
+     * Adds the columns found by collectSchemaUpdates to the table and updates the targets of the indexer
+     */
+    private void addNewColumns(Indexer indexer,
+                               IndexShard indexShard,
+                               @Nullable RawIndexer rawIndexer,
+                               List<Reference> newColumns) throws Exception {
+        var relationName = RelationName.fromIndexName(indexShard.shardId().getIndexName());
+        var addColumnRequest = new AddColumnRequest(
+            relationName,
+            newColumns,
+            Map.of(),
+            new IntArrayList(0)
+        );
+        addColumnAction.execute(addColumnRequest).get();
+        schemas.tableExists(relationName); // triggers cache invalidation
+        DocTableInfo actualTable = schemas.getTableInfo(relationName, Operation.READ);
+        if (rawIndexer != null) {
+            rawIndexer.updateTargets(actualTable::getReference);
+        } else {
+            indexer.updateTargets(actualTable::getReference);
+        }
+    }
+
     private static Doc getDocument(IndexShard indexShard,
                                    String id,
                                    long version,
@@ -80,7 +80,17 @@ public class FileUriCollectPhase extends AbstractProjectionsPhase implements Col
 
     public enum InputFormat {
         JSON,
-        CSV
+        CSV,
+        PARQUET,
+        ARROW;
+
+        /**
+         * @return true if the files are read column by column using a
+         *         {@link io.crate.execution.engine.collect.files.ColumnarFileReadingIterator}
+         */
+        public boolean isColumnar() {
+            return this == PARQUET || this == ARROW;
+        }
     }
 
     public Symbol targetUri() {
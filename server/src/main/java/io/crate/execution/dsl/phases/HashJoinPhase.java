@@ -44,6 +44,8 @@ public class HashJoinPhase extends JoinPhase {
     private final List<Symbol> rightJoinConditionInputs;
 
     private final List<DataType<?>> leftOutputTypes;
+    @Nullable
+    private final List<DataType<?>> rightOutputTypes;
     private final long estimatedRowSizeForLeft;
 
     public HashJoinPhase(UUID jobId,
@@ -59,6 +61,7 @@ public class HashJoinPhase extends JoinPhase {
                          List<Symbol> leftJoinConditionInputs,
                          List<Symbol> rightJoinConditionInputs,
                          List<DataType<?>> leftOutputTypes,
+                         List<DataType<?>> rightOutputTypes,
                          long estimatedRowSizeForLeft) {
         super(
             jobId,
@@ -76,6 +79,7 @@ public class HashJoinPhase extends JoinPhase {
         this.leftJoinConditionInputs = leftJoinConditionInputs;
         this.rightJoinConditionInputs = rightJoinConditionInputs;
         this.leftOutputTypes = leftOutputTypes;
+        this.rightOutputTypes = rightOutputTypes;
         this.estimatedRowSizeForLeft = estimatedRowSizeForLeft;
     }
 
@@ -90,6 +94,9 @@ public class HashJoinPhase extends JoinPhase {
         if (in.getVersion().before(Version.V_5_6_0)) {
             // Version before 5.6.0 used to send numberOfRowsForLeft
             in.readZLong();
+            rightOutputTypes = null;
+        } else {
+            rightOutputTypes = DataTypes.listFromStream(in);
         }
     }
 
@@ -106,6 +113,8 @@ public class HashJoinPhase extends JoinPhase {
             // Version before 5.6.0 used to send numberOfRowsForLeft,
             // sending neutral value, indicating that this stat is unavailable.
             out.writeZLong(-1);
+        } else {
+            DataTypes.toStream(rightOutputTypes, out);
         }
     }
 
@@ -131,6 +140,14 @@ public class HashJoinPhase extends JoinPhase {
         return leftOutputTypes;
     }
 
+    /**
+     * @return the types of the right outputs or null if the phase was sent by a node which doesn't provide them.
+     */
+    @Nullable
+    public List<DataType<?>> rightOutputTypes() {
+        return rightOutputTypes;
+    }
+
     public long estimatedRowSizeForLeft() {
         return estimatedRowSizeForLeft;
     }
@@ -45,10 +45,23 @@ public class WindowAggProjection extends Projection {
     private final List<Symbol> standaloneWithInputs;
     private final ArrayList<Symbol> outputs;
     private final List<WindowFunction> windowFunctions;
+    private final boolean presorted;
 
     public WindowAggProjection(WindowDefinition windowDefinition,
                                List<WindowFunction> windowFunctions,
                                List<Symbol> standaloneWithInputs) {
+        this(windowDefinition, windowFunctions, standaloneWithInputs, false);
+    }
+
+    /**
+     * @param presorted true if the input rows are already sorted by the PARTITION BY followed by the ORDER BY
+     *                  expressions of the window definition. The rows are then processed one partition at a time.
+     */
+    public WindowAggProjection(WindowDefinition windowDefinition,
+                               List<WindowFunction> windowFunctions,
+                               List<Symbol> standaloneWithInputs,
+                               boolean presorted) {
+        this.presorted = presorted;
         this.windowFunctions = windowFunctions;
         assert windowFunctions.stream().noneMatch(Symbols.IS_COLUMN)
             : "Cannot operate on Reference or Field: " + windowFunctions;
@@ -83,6 +96,7 @@ public class WindowAggProjection extends Projection {
                 windowFunctions.add(function);
             }
         }
+        presorted = version.onOrAfter(Version.V_5_6_0) && in.readBoolean();
         outputs = new ArrayList<>(standaloneWithInputs);
         outputs.addAll(windowFunctions);
     }
@@ -99,6 +113,10 @@ public class WindowAggProjection extends Projection {
         return standaloneWithInputs;
     }
 
+    public boolean presorted() {
+        return presorted;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -108,13 +126,14 @@ public class WindowAggProjection extends Projection {
             return false;
         }
         WindowAggProjection that = (WindowAggProjection) o;
-        return Objects.equals(windowDefinition, that.windowDefinition) &&
+        return presorted == that.presorted &&
+               Objects.equals(windowDefinition, that.windowDefinition) &&
                Objects.equals(windowFunctions, that.windowFunctions);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), windowDefinition, windowFunctions);
+        return Objects.hash(super.hashCode(), windowDefinition, windowFunctions, presorted);
     }
 
     @Override
@@ -158,6 +177,9 @@ public class WindowAggProjection extends Projection {
                 Symbols.toStream(windowFunction.arguments(), out);
             }
         }
+        if (version.onOrAfter(Version.V_5_6_0)) {
+            out.writeBoolean(presorted);
+        }
     }
 
     @Override
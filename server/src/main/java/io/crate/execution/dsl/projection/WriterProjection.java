@@ -84,6 +84,12 @@ public class WriterProjection extends Projection {
         DataTypes.STRING
     );
 
+    public static final Symbol DIRECTORY_TO_PARQUET_FILENAME = new Function(
+        FormatFunction.SIGNATURE,
+        List.of(Literal.of("%s_%s_%s.parquet"), TABLE_NAME_REF, SHARD_ID_REF, PARTITION_IDENT_REF),
+        DataTypes.STRING
+    );
+
     private final Symbol uri;
     private final List<Symbol> inputs;
 
@@ -102,13 +108,19 @@ public class WriterProjection extends Projection {
 
     public enum OutputFormat {
         JSON_OBJECT,
-        JSON_ARRAY
+        JSON_ARRAY,
+        PARQUET
     }
 
     private final CompressionType compressionType;
 
+    /**
+     * For {@link OutputFormat#PARQUET} the compression is applied to the pages within the file,
+     * for the other formats to the whole file. SNAPPY is only supported for PARQUET.
+     */
     public enum CompressionType {
-        GZIP
+        GZIP,
+        SNAPPY
     }
 
     public WriterProjection(List<Symbol> inputs,
@@ -110,6 +110,17 @@ public abstract class AggregationFunction<TPartial, TFinal> implements FunctionI
         return false;
     }
 
+    /**
+     * Indicates if {@link #reduce(RamAccounting, Object, Object)} never mutates the given states, but only returns one
+     * of them or a new state. States of such functions can be reduced multiple times with different other states.
+     * Window functions use this to aggregate frames with a moving start using a segment tree of pre-aggregated
+     * states as described in http://www.vldb.org/pvldb/vol8/p1058-leis.pdf if the function isn't
+     * {@link #isRemovableCumulative()}.
+     */
+    public boolean isReduceNonMutating() {
+        return false;
+    }
+
     public TPartial removeFromAggregatedState(RamAccounting ramAccounting,
                                               TPartial previousAggState,
                                               Input<?>[] stateToRemove) {
@@ -0,0 +1,42 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import java.util.stream.Collector;
+
+import io.crate.data.Row;
+
+/**
+ * A {@link Collector} which groups rows by key and aggregates the values of each group.
+ * The resulting rows contain the key columns followed by the aggregation results.
+ *
+ * @param <S> type holding the aggregation states by key
+ */
+interface GroupByCollector<S> extends Collector<Row, S, Iterable<Row>> {
+
+    /**
+     * Like the {@link #finisher()}, but the rows contain the partial aggregation states
+     * instead of the states finished according to the {@link io.crate.expression.symbol.AggregateMode}.
+     * The states can be streamed using the {@link AggregationFunction#partialType()}.
+     */
+    Iterable<Row> partialRows(S statesByKey);
+}
@@ -43,7 +43,6 @@ import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collector;
 
 /**
  * Collector implementation which uses {@link AggregateMode}s and {@code keyInputs}
@@ -51,7 +50,7 @@ import java.util.stream.Collector;
  *
  * @param <K> type of the key
  */
-public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, Iterable<Row>> {
+public class GroupingCollector<K> implements GroupByCollector<Map<K, Object[]>> {
 
     private final CollectExpression<Row, ?>[] expressions;
     private final AggregationFunction[] aggregations;
@@ -191,7 +190,12 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
 
     @Override
     public Function<Map<K, Object[]>, Iterable<Row>> finisher() {
-        return this::mapToRows;
+        return statesByKey -> mapToRows(statesByKey, true);
+    }
+
+    @Override
+    public Iterable<Row> partialRows(Map<K, Object[]> statesByKey) {
+        return mapToRows(statesByKey, false);
     }
 
     @Override
@@ -258,7 +262,7 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
         addWithAccounting(statesByKey, key, states);
     }
 
-    private Iterable<Row> mapToRows(Map<K, Object[]> statesByKey) {
+    private Iterable<Row> mapToRows(Map<K, Object[]> statesByKey, boolean finish) {
 
         return () -> new Iterator<>() {
             final Iterator<Map.Entry<K, Object[]>> iterator = statesByKey.entrySet().iterator();
@@ -282,7 +286,7 @@ public class GroupingCollector<K> implements Collector<Row, Map<K, Object[]>, It
                 int c = numKeyColumns;
                 Object[] states = input.getValue();
                 for (int i = 0; i < states.length; i++) {
-                    cells[c] = mode.finishCollect(ramAccounting, aggregations[i], states[i]);
+                    cells[c] = finish ? mode.finishCollect(ramAccounting, aggregations[i], states[i]) : states[i];
                     c++;
                 }
                 return row;
@@ -21,6 +21,17 @@
 
 package io.crate.execution.engine.aggregation;
 
+import static io.crate.expression.symbol.Symbols.typeView;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+import org.elasticsearch.Version;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.Streamer;
+import io.crate.breaker.ConcurrentRamAccounting;
 import io.crate.data.BatchIterator;
 import io.crate.data.CollectingBatchIterator;
 import io.crate.data.Input;
@@ -28,19 +39,19 @@ import io.crate.data.Projector;
 import io.crate.data.Row;
 import io.crate.data.breaker.RamAccounting;
 import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.execution.engine.collect.RowCollectExpression;
+import io.crate.execution.engine.spill.SpillDirectory;
 import io.crate.expression.symbol.AggregateMode;
+import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
 import io.crate.memory.MemoryManager;
-import org.elasticsearch.Version;
-
-import java.util.List;
-import java.util.stream.Collector;
-
-import static io.crate.expression.symbol.Symbols.typeView;
+import io.crate.types.DataType;
 
 public class GroupingProjector implements Projector {
 
     private final Collector<Row, ?, Iterable<Row>> collector;
+    @Nullable
+    private final SpillingGroupingCollector<?, ?> spillingCollector;
 
 
     public GroupingProjector(List<? extends Symbol> keys,
@@ -52,6 +63,41 @@ public class GroupingProjector implements Projector {
                              MemoryManager memoryManager,
                              Version minNodeVersion,
                              Version indexVersionCreated) {
+        this(
+            keys,
+            keyInputs,
+            collectExpressions,
+            mode,
+            aggregations,
+            ramAccounting,
+            memoryManager,
+            minNodeVersion,
+            indexVersionCreated,
+            null,
+            null,
+            Long.MAX_VALUE
+        );
+    }
+
+    /**
+     * @param spillDirectory       if not null, the partial states are spilled to disk
+     *                             once the accounted memory exceeds {@code maxBytesInMemory}.
+     * @param memoryManagerFactory required if {@code spillDirectory} is not null. Used instead of the
+     *                             {@code memoryManager} to create one memory manager per spill generation,
+     *                             which is closed once the generation has been spilled or emitted.
+     */
+    public GroupingProjector(List<? extends Symbol> keys,
+                             List<Input<?>> keyInputs,
+                             CollectExpression<Row, ?>[] collectExpressions,
+                             AggregateMode mode,
+                             AggregationContext[] aggregations,
+                             RamAccounting ramAccounting,
+                             MemoryManager memoryManager,
+                             Version minNodeVersion,
+                             Version indexVersionCreated,
+                             @Nullable SpillDirectory spillDirectory,
+                             @Nullable Function<RamAccounting, MemoryManager> memoryManagerFactory,
+                             long maxBytesInMemory) {
         assert keys.size() == keyInputs.size() : "number of key types must match with number of key inputs";
 
         AggregationFunction[] functions = new AggregationFunction[aggregations.length];
@@ -63,9 +109,98 @@ public class GroupingProjector implements Projector {
             inputs[i] = aggregation.inputs();
             filters[i] = aggregation.filter();
         }
-        if (keys.size() == 1) {
-            Symbol key = keys.get(0);
-            collector = GroupingCollector.singleKey(
+        List<DataType<?>> keyTypes = typeView(keys);
+        // The spilling collector decides based on its own bytes when to spill and releases only those
+        RamAccounting collectorRamAccounting;
+        SpillGenerationMemoryManager collectorMemoryManager;
+        if (spillDirectory == null) {
+            collectorRamAccounting = ramAccounting;
+            collectorMemoryManager = null;
+        } else {
+            assert memoryManagerFactory != null : "memoryManagerFactory is required to spill";
+            collectorRamAccounting = new ConcurrentRamAccounting(
+                ramAccounting::addBytes,
+                bytes -> ramAccounting.addBytes(-bytes),
+                "group-by-spilling",
+                0
+            );
+            collectorMemoryManager = new SpillGenerationMemoryManager(memoryManagerFactory, collectorRamAccounting);
+        }
+        GroupByCollector<?> groupByCollector = createCollector(
+            keyTypes,
+            keyInputs,
+            collectExpressions,
+            mode,
+            functions,
+            inputs,
+            filters,
+            collectorRamAccounting,
+            collectorMemoryManager == null ? memoryManager : collectorMemoryManager,
+            minNodeVersion,
+            indexVersionCreated
+        );
+        if (collectorMemoryManager == null) {
+            collector = groupByCollector;
+            spillingCollector = null;
+        } else {
+            // The spilled rows contain the keys followed by the partial states, which are reduced per partition
+            int numKeys = keys.size();
+            Streamer<?>[] streamers = new Streamer[numKeys + functions.length];
+            RowCollectExpression[] spilledColumns = new RowCollectExpression[streamers.length];
+            for (int i = 0; i < spilledColumns.length; i++) {
+                spilledColumns[i] = new RowCollectExpression(i);
+            }
+            for (int i = 0; i < numKeys; i++) {
+                streamers[i] = keyTypes.get(i).streamer();
+            }
+            Input[][] spilledStates = new Input[functions.length][];
+            Input<Boolean>[] noFilters = new Input[functions.length];
+            for (int i = 0; i < functions.length; i++) {
+                streamers[numKeys + i] = functions[i].partialType().streamer();
+                spilledStates[i] = new Input[] { spilledColumns[numKeys + i] };
+                noFilters[i] = Literal.BOOLEAN_TRUE;
+            }
+            GroupByCollector<?> reducer = createCollector(
+                keyTypes,
+                List.<Input<?>>of(spilledColumns).subList(0, numKeys),
+                spilledColumns,
+                AggregateMode.PARTIAL_FINAL,
+                functions,
+                spilledStates,
+                noFilters,
+                collectorRamAccounting,
+                collectorMemoryManager,
+                minNodeVersion,
+                indexVersionCreated
+            );
+            spillingCollector = new SpillingGroupingCollector<>(
+                groupByCollector,
+                reducer,
+                mode == AggregateMode.ITER_PARTIAL,
+                numKeys,
+                streamers,
+                spillDirectory,
+                collectorRamAccounting,
+                collectorMemoryManager,
+                maxBytesInMemory
+            );
+            collector = spillingCollector;
+        }
+    }
+
+    private static GroupByCollector<?> createCollector(List<DataType<?>> keyTypes,
+                                                       List<Input<?>> keyInputs,
+                                                       CollectExpression<Row, ?>[] collectExpressions,
+                                                       AggregateMode mode,
+                                                       AggregationFunction[] functions,
+                                                       Input[][] inputs,
+                                                       Input<Boolean>[] filters,
+                                                       RamAccounting ramAccounting,
+                                                       MemoryManager memoryManager,
+                                                       Version minNodeVersion,
+                                                       Version indexVersionCreated) {
+        if (keyTypes.size() == 1) {
+            return GroupingCollector.singleKey(
                 collectExpressions,
                 mode,
                 functions,
@@ -75,12 +210,25 @@ public class GroupingProjector implements Projector {
                 memoryManager,
                 minNodeVersion,
                 keyInputs.get(0),
-                key.valueType(),
+                keyTypes.get(0),
+                indexVersionCreated
+            );
+        } else if (SerializedKeyHashTable.supportsTypes(keyTypes)) {
+            return new SerializedKeyGroupingCollector(
+                collectExpressions,
+                mode,
+                functions,
+                inputs,
+                filters,
+                ramAccounting,
+                memoryManager,
+                minNodeVersion,
+                keyInputs,
+                keyTypes,
                 indexVersionCreated
             );
         } else {
-            //noinspection unchecked
-            collector = (GroupingCollector<Object>) (GroupingCollector) GroupingCollector.manyKeys(
+            return GroupingCollector.manyKeys(
                 collectExpressions,
                 mode,
                 functions,
@@ -90,7 +238,7 @@ public class GroupingProjector implements Projector {
                 memoryManager,
                 minNodeVersion,
                 keyInputs,
-                typeView(keys),
+                keyTypes,
                 indexVersionCreated
             );
         }
@@ -98,6 +246,17 @@ public class GroupingProjector implements Projector {
 
     @Override
     public BatchIterator<Row> apply(BatchIterator<Row> batchIterator) {
+        if (spillingCollector != null) {
+            return CollectingBatchIterator.newInstance(
+                () -> {
+                    batchIterator.close();
+                    spillingCollector.close();
+                },
+                batchIterator::kill,
+                () -> batchIterator.collect(collector),
+                batchIterator.hasLazyResultSet()
+            );
+        }
         return CollectingBatchIterator.newInstance(batchIterator, collector);
     }
 
@@ -105,6 +264,16 @@ public class GroupingProjector implements Projector {
         return collector;
     }
 
+    /**
+     * Deletes spilled partitions and releases the memory of the spilling collector. Must be called once the rows of a {@link #getCollector()} have been consumed.
+     * {@link #apply(BatchIterator)} takes care of this on its own.
+     */
+    public void close() {
+        if (spillingCollector != null) {
+            spillingCollector.close();
+        }
+    }
+
     @Override
     public boolean providesIndependentScroll() {
         return true;
@@ -0,0 +1,205 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.elasticsearch.Version;
+
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.data.breaker.RamAccounting;
+import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.expression.InputCondition;
+import io.crate.expression.symbol.AggregateMode;
+import io.crate.memory.MemoryManager;
+import io.crate.types.DataType;
+
+/**
+ * Like {@link GroupingCollector}, but uses a {@link SerializedKeyHashTable} to group by multiple keys.
+ * This avoids creating a {@code List} for the keys of each row and boxing of the key values.
+ */
+public final class SerializedKeyGroupingCollector implements GroupByCollector<SerializedKeyHashTable> {
+
+    private final CollectExpression<Row, ?>[] expressions;
+    private final AggregationFunction[] aggregations;
+    private final AggregateMode mode;
+    private final Input[][] inputs;
+    private final Input<Boolean>[] filters;
+    private final RamAccounting ramAccounting;
+    private final MemoryManager memoryManager;
+    private final Version minNodeVersion;
+    private final Version indexVersionCreated;
+    private final List<Input<?>> keyInputs;
+    private final List<? extends DataType> keyTypes;
+    private final BiConsumer<SerializedKeyHashTable, Row> accumulator;
+
+    SerializedKeyGroupingCollector(CollectExpression<Row, ?>[] expressions,
+                                   AggregateMode mode,
+                                   AggregationFunction[] aggregations,
+                                   Input[][] inputs,
+                                   Input<Boolean>[] filters,
+                                   RamAccounting ramAccounting,
+                                   MemoryManager memoryManager,
+                                   Version minNodeVersion,
+                                   List<Input<?>> keyInputs,
+                                   List<? extends DataType> keyTypes,
+                                   Version indexVersionCreated) {
+        assert SerializedKeyHashTable.supportsTypes(keyTypes) : "Key types must be supported: " + keyTypes;
+        this.expressions = expressions;
+        this.aggregations = aggregations;
+        this.mode = mode;
+        this.inputs = inputs;
+        this.filters = filters;
+        this.ramAccounting = ramAccounting;
+        this.memoryManager = memoryManager;
+        this.minNodeVersion = minNodeVersion;
+        this.keyInputs = keyInputs;
+        this.keyTypes = keyTypes;
+        this.indexVersionCreated = indexVersionCreated;
+        this.accumulator = mode == AggregateMode.PARTIAL_FINAL ? this::reduce : this::iter;
+    }
+
+    @Override
+    public Supplier<SerializedKeyHashTable> supplier() {
+        return () -> new SerializedKeyHashTable(keyTypes, aggregations.length, ramAccounting, memoryManager);
+    }
+
+    @Override
+    public BiConsumer<SerializedKeyHashTable, Row> accumulator() {
+        return accumulator;
+    }
+
+    @Override
+    public BinaryOperator<SerializedKeyHashTable> combiner() {
+        return (state1, state2) -> {
+            throw new UnsupportedOperationException("combine not supported");
+        };
+    }
+
+    @Override
+    public Function<SerializedKeyHashTable, Iterable<Row>> finisher() {
+        return statesByKey -> tableToRows(statesByKey, true);
+    }
+
+    @Override
+    public Iterable<Row> partialRows(SerializedKeyHashTable statesByKey) {
+        return tableToRows(statesByKey, false);
+    }
+
+    @Override
+    public Set<Characteristics> characteristics() {
+        return Collections.emptySet();
+    }
+
+    private void reduce(SerializedKeyHashTable statesByKey, Row row) {
+        for (CollectExpression<Row, ?> expression : expressions) {
+            expression.setNextRow(row);
+        }
+        int ordinal = statesByKey.add(keyInputs);
+        if (ordinal >= 0) {
+            Object[] states = new Object[aggregations.length];
+            for (int i = 0; i < aggregations.length; i++) {
+                states[i] = inputs[i][0].value();
+            }
+            statesByKey.states(ordinal, states);
+        } else {
+            Object[] states = statesByKey.states(-(ordinal + 1));
+            for (int i = 0; i < aggregations.length; i++) {
+                states[i] = aggregations[i].reduce(ramAccounting, states[i], inputs[i][0].value());
+            }
+        }
+    }
+
+    private void iter(SerializedKeyHashTable statesByKey, Row row) {
+        for (CollectExpression<Row, ?> expression : expressions) {
+            expression.setNextRow(row);
+        }
+        int ordinal = statesByKey.add(keyInputs);
+        if (ordinal >= 0) {
+            Object[] states = new Object[aggregations.length];
+            for (int i = 0; i < aggregations.length; i++) {
+                AggregationFunction aggregation = aggregations[i];
+                var newState = aggregation.newState(ramAccounting, indexVersionCreated, minNodeVersion, memoryManager);
+                if (InputCondition.matches(filters[i])) {
+                    //noinspection unchecked
+                    states[i] = aggregation.iterate(ramAccounting, memoryManager, newState, inputs[i]);
+                } else {
+                    states[i] = newState;
+                }
+            }
+            statesByKey.states(ordinal, states);
+        } else {
+            Object[] states = statesByKey.states(-(ordinal + 1));
+            for (int i = 0; i < aggregations.length; i++) {
+                if (InputCondition.matches(filters[i])) {
+                    //noinspection unchecked
+                    states[i] = aggregations[i].iterate(ramAccounting, memoryManager, states[i], inputs[i]);
+                }
+            }
+        }
+    }
+
+    private Iterable<Row> tableToRows(SerializedKeyHashTable statesByKey, boolean finish) {
+        int numKeyColumns = keyInputs.size();
+        return () -> new Iterator<>() {
+
+            final RowN row = new RowN(numKeyColumns + aggregations.length);
+            final Object[] cells = new Object[row.numColumns()];
+            int ordinal = 0;
+
+            {
+                row.cells(cells);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return ordinal < statesByKey.size();
+            }
+
+            @Override
+            public Row next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("Iterator is exhausted");
+                }
+                statesByKey.readKey(ordinal, cells);
+                Object[] states = statesByKey.states(ordinal);
+                int c = numKeyColumns;
+                for (int i = 0; i < states.length; i++) {
+                    cells[c] = finish ? mode.finishCollect(ramAccounting, aggregations[i], states[i]) : states[i];
+                    c++;
+                }
+                ordinal++;
+                return row;
+            }
+        };
+    }
+}
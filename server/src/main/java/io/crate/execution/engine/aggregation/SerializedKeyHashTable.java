@@ -0,0 +1,312 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.apache.lucene.util.StringHelper;
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import io.crate.Streamer;
+import io.crate.data.Input;
+import io.crate.data.breaker.RamAccounting;
+import io.crate.memory.MemoryManager;
+import io.crate.types.BooleanType;
+import io.crate.types.ByteType;
+import io.crate.types.CharacterType;
+import io.crate.types.DataType;
+import io.crate.types.DateType;
+import io.crate.types.DoubleType;
+import io.crate.types.FloatType;
+import io.crate.types.IntegerType;
+import io.crate.types.IpType;
+import io.crate.types.LongType;
+import io.crate.types.ShortType;
+import io.crate.types.StringType;
+import io.crate.types.TimestampType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Open-addressing hash table for GROUP BY on multiple keys.
+ *
+ * <p>
+ * Instead of wrapping the key values of a row into a {@code List} and using it as key of a {@link java.util.HashMap},
+ * the key values are serialized using the {@link Streamer} of their type. The serialized keys are stored in pages
+ * allocated via the {@link MemoryManager}, so they are kept off-heap if the memory manager is off-heap.
+ * </p>
+ *
+ * <p>
+ * Each distinct key gets an ordinal in insertion order. The slots of the table only hold the hash and the ordinal of
+ * a key, so growing the table doesn't require to re-read or re-hash any keys.
+ * </p>
+ *
+ * <pre>
+ *  slotHashes:     [ h0 | h1 | .. ]          ┐ open addressing, linear probing
+ *  slotOrdinals:   [ o0 | o1 | .. ]          ┘ (ordinal + 1, 0 marks an empty slot)
+ *
+ *  keyAddresses:   [ page << 32 | offset ]   indexed by ordinal
+ *  states:         [ Object[] ]              indexed by ordinal
+ *
+ *  page:           [ len (int) | key bytes ][ len (int) | key bytes ] ...
+ * </pre>
+ *
+ * <p>
+ * All heap structures of the table are accounted exactly using the {@link RamAccounting}.
+ * The pages are accounted by the {@link MemoryManager} (see {@link MemoryManager#allocate(int)}).
+ * </p>
+ *
+ * This class is not thread-safe.
+ */
+public final class SerializedKeyHashTable {
+
+    static final int PAGE_SIZE = 32 * 1024;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int HASH_SEED = 0x9747b28c;
+    private static final int LENGTH_PREFIX_BYTES = Integer.BYTES;
+
+    private final Streamer[] streamers;
+    private final RamAccounting ramAccounting;
+    private final MemoryManager memoryManager;
+    private final int numAggregations;
+    private final List<ByteBuf> pages = new ArrayList<>();
+
+    private final ByteBuf scratch = Unpooled.buffer(256);
+    private final StreamOutput scratchOut = new OutputStreamStreamOutput(new ByteBufOutputStream(scratch));
+
+    private int[] slotHashes;
+    private int[] slotOrdinals;
+    private int mask;
+    private int resizeThreshold;
+
+    private long[] keyAddresses;
+    private Object[][] states;
+    private int size = 0;
+
+    /**
+     * @return true if the types have a serialized form that is equal if and only if the values are equal.
+     *         This is required as keys are compared by their serialized bytes.
+     */
+    @SuppressWarnings("rawtypes")
+    public static boolean supportsTypes(List<? extends DataType> types) {
+        for (DataType type : types) {
+            switch (type.id()) {
+                case BooleanType.ID:
+                case ByteType.ID:
+                case ShortType.ID:
+                case IntegerType.ID:
+                case LongType.ID:
+                case FloatType.ID:
+                case DoubleType.ID:
+                case DateType.ID:
+                case TimestampType.ID_WITH_TZ:
+                case TimestampType.ID_WITHOUT_TZ:
+                case StringType.ID:
+                case CharacterType.ID:
+                case IpType.ID:
+                    break;
+
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("rawtypes")
+    public SerializedKeyHashTable(List<? extends DataType> keyTypes,
+                                  int numAggregations,
+                                  RamAccounting ramAccounting,
+                                  MemoryManager memoryManager) {
+        assert supportsTypes(keyTypes) : "Key types must be supported: " + keyTypes;
+        this.streamers = new Streamer[keyTypes.size()];
+        for (int i = 0; i < streamers.length; i++) {
+            streamers[i] = keyTypes.get(i).streamer();
+        }
+        this.numAggregations = numAggregations;
+        this.ramAccounting = ramAccounting;
+        this.memoryManager = memoryManager;
+        this.slotHashes = new int[INITIAL_CAPACITY];
+        this.slotOrdinals = new int[INITIAL_CAPACITY];
+        this.mask = INITIAL_CAPACITY - 1;
+        this.resizeThreshold = (int) (INITIAL_CAPACITY * LOAD_FACTOR);
+        this.keyAddresses = new long[resizeThreshold];
+        this.states = new Object[resizeThreshold][];
+        ramAccounting.addBytes(
+            2 * RamUsageEstimator.sizeOf(slotHashes)
+            + RamUsageEstimator.sizeOf(keyAddresses)
+            + RamUsageEstimator.shallowSizeOf(states)
+        );
+    }
+
+    /**
+     * Looks up the key formed by the current values of the inputs and adds it if it doesn't exist yet.
+     *
+     * @return the ordinal of the key if it was added, or {@code -(ordinal + 1)} if the key already existed.
+     */
+    @SuppressWarnings("unchecked")
+    public int add(List<? extends Input<?>> keyInputs) {
+        assert keyInputs.size() == streamers.length : "Number of key inputs must match number of key types";
+        scratch.clear();
+        try {
+            for (int i = 0; i < streamers.length; i++) {
+                streamers[i].writeValueTo(scratchOut, keyInputs.get(i).value());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int length = scratch.writerIndex();
+        int hash = StringHelper.murmurhash3_x86_32(scratch.array(), scratch.arrayOffset(), length, HASH_SEED);
+        int slot = hash & mask;
+        while (true) {
+            int ordinal = slotOrdinals[slot] - 1;
+            if (ordinal < 0) {
+                break;
+            }
+            if (slotHashes[slot] == hash && keyEquals(ordinal, length)) {
+                return -(ordinal + 1);
+            }
+            slot = (slot + 1) & mask;
+        }
+        int ordinal = size;
+        if (ordinal == keyAddresses.length) {
+            growEntries();
+        }
+        keyAddresses[ordinal] = storeKey(length);
+        slotHashes[slot] = hash;
+        slotOrdinals[slot] = ordinal + 1;
+        size++;
+        if (size > resizeThreshold) {
+            rehash();
+        }
+        return ordinal;
+    }
+
+    public Object[] states(int ordinal) {
+        assert ordinal < size : "ordinal must be less than size";
+        return states[ordinal];
+    }
+
+    public void states(int ordinal, Object[] states) {
+        assert ordinal < size : "ordinal must be less than size";
+        assert states.length == numAggregations : "Number of states must match number of aggregations";
+        if (this.states[ordinal] == null) {
+            ramAccounting.addBytes(RamUsageEstimator.shallowSizeOf(states));
+        }
+        this.states[ordinal] = states;
+    }
+
+    /**
+     * Deserializes the key values of the given ordinal into {@code cells}, starting at index 0.
+     */
+    public void readKey(int ordinal, Object[] cells) {
+        assert ordinal < size : "ordinal must be less than size";
+        long address = keyAddresses[ordinal];
+        ByteBuf page = pages.get((int) (address >>> 32));
+        int offset = (int) address;
+        int length = page.getInt(offset);
+        ByteBuf key = page.slice(offset + LENGTH_PREFIX_BYTES, length);
+        try (StreamInput in = new InputStreamStreamInput(new ByteBufInputStream(key))) {
+            for (int i = 0; i < streamers.length; i++) {
+                cells[i] = streamers[i].readValueFrom(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private boolean keyEquals(int ordinal, int length) {
+        long address = keyAddresses[ordinal];
+        ByteBuf page = pages.get((int) (address >>> 32));
+        int offset = (int) address;
+        return page.getInt(offset) == length
+            && ByteBufUtil.equals(page, offset + LENGTH_PREFIX_BYTES, scratch, 0, length);
+    }
+
+    private long storeKey(int length) {
+        int required = LENGTH_PREFIX_BYTES + length;
+        ByteBuf page = pages.isEmpty() ? null : pages.get(pages.size() - 1);
+        if (page == null || page.writableBytes() < required) {
+            page = memoryManager.allocate(Math.max(PAGE_SIZE, required));
+            pages.add(page);
+        }
+        long address = ((long) (pages.size() - 1) << 32) | page.writerIndex();
+        page.writeInt(length);
+        page.writeBytes(scratch, 0, length);
+        return address;
+    }
+
+    private void growEntries() {
+        int newLength = ArrayUtil.oversize(keyAddresses.length + 1, Long.BYTES);
+        long oldBytes = RamUsageEstimator.sizeOf(keyAddresses) + RamUsageEstimator.shallowSizeOf(states);
+        keyAddresses = Arrays.copyOf(keyAddresses, newLength);
+        states = Arrays.copyOf(states, newLength);
+        ramAccounting.addBytes(
+            RamUsageEstimator.sizeOf(keyAddresses) + RamUsageEstimator.shallowSizeOf(states) - oldBytes);
+    }
+
+    private void rehash() {
+        int newCapacity = slotHashes.length << 1;
+        if (newCapacity <= 0) {
+            throw new IllegalStateException("Cannot grow the hash table beyond " + slotHashes.length + " slots");
+        }
+        int[] newHashes = new int[newCapacity];
+        int[] newOrdinals = new int[newCapacity];
+        int newMask = newCapacity - 1;
+        for (int i = 0; i < slotOrdinals.length; i++) {
+            int ordinal = slotOrdinals[i];
+            if (ordinal == 0) {
+                continue;
+            }
+            int hash = slotHashes[i];
+            int slot = hash & newMask;
+            while (newOrdinals[slot] != 0) {
+                slot = (slot + 1) & newMask;
+            }
+            newHashes[slot] = hash;
+            newOrdinals[slot] = ordinal;
+        }
+        ramAccounting.addBytes(2 * (RamUsageEstimator.sizeOf(newHashes) - RamUsageEstimator.sizeOf(slotHashes)));
+        slotHashes = newHashes;
+        slotOrdinals = newOrdinals;
+        mask = newMask;
+        resizeThreshold = (int) (newCapacity * LOAD_FACTOR);
+    }
+}
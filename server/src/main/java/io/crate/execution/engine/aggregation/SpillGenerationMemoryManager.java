@@ -0,0 +1,92 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import java.util.function.Function;
+
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.data.breaker.RamAccounting;
+import io.crate.memory.MemoryManager;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A {@link MemoryManager} used by the {@link SpillingGroupingCollector} which allocates the buffers of each
+ * spill generation from its own {@link MemoryManager}, so that they can be released once the states of a
+ * generation have been spilled or emitted.
+ *
+ * <p>
+ * The delegates are created on top of the ram accounting of the spilling collector. On-heap buffers are
+ * accounted there, while off-heap buffers are not accounted by their memory manager and are tracked
+ * in {@link #directBytes()} instead.
+ * </p>
+ */
+final class SpillGenerationMemoryManager implements MemoryManager {
+
+    private final Function<RamAccounting, MemoryManager> memoryManagerFactory;
+    private final RamAccounting ramAccounting;
+
+    @Nullable
+    private MemoryManager generation;
+    private long directBytes = 0;
+
+    SpillGenerationMemoryManager(Function<RamAccounting, MemoryManager> memoryManagerFactory,
+                                 RamAccounting ramAccounting) {
+        this.memoryManagerFactory = memoryManagerFactory;
+        this.ramAccounting = ramAccounting;
+    }
+
+    @Override
+    public ByteBuf allocate(int capacity) {
+        if (generation == null) {
+            generation = memoryManagerFactory.apply(ramAccounting);
+        }
+        ByteBuf buffer = generation.allocate(capacity);
+        if (buffer.isDirect()) {
+            directBytes += buffer.capacity();
+        }
+        return buffer;
+    }
+
+    /**
+     * @return the number of bytes allocated off-heap by the current generation
+     */
+    long directBytes() {
+        return directBytes;
+    }
+
+    /**
+     * Releases all buffers of the current generation. Must only be called once they are no longer referenced.
+     */
+    void releaseGeneration() {
+        if (generation != null) {
+            generation.close();
+            generation = null;
+        }
+        directBytes = 0;
+    }
+
+    @Override
+    public void close() {
+        releaseGeneration();
+    }
+}
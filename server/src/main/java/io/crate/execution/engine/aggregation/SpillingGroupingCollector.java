@@ -0,0 +1,280 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.carrotsearch.hppc.BitMixer;
+
+import io.crate.Streamer;
+import io.crate.common.io.IOUtils;
+import io.crate.data.CloseableIterator;
+import io.crate.data.Row;
+import io.crate.data.breaker.RamAccounting;
+import io.crate.execution.engine.spill.SpillDirectory;
+import io.crate.execution.engine.spill.SpillFile;
+
+/**
+ * Wraps a {@link GroupByCollector} and spills the partial aggregation states to disk
+ * if the accounted memory, including the buffers allocated by the {@code memoryManager}, exceeds
+ * {@code maxBytesInMemory}.
+ *
+ * <p>
+ * The groups are written into one of {@link #NUM_PARTITIONS} files based on the hash of their keys,
+ * using the {@link AggregationFunction#partialType()} to stream the states. The collector then continues
+ * with empty states. Once all rows are collected, each partition is re-aggregated on its own using the
+ * {@code reducer}, which must be a collector in {@link io.crate.expression.symbol.AggregateMode#PARTIAL_FINAL}
+ * mode reading the spilled rows. As all states of a key end up in the same partition, only one
+ * partition at a time must fit into memory.
+ * </p>
+ *
+ * <p>
+ * The buffers allocated by the collector and reducer are released together with the states of
+ * each spill generation and of each reduced partition.
+ * </p>
+ *
+ * <p>
+ * An instance can only be used once and must be closed to delete the spilled partitions.
+ * </p>
+ */
+final class SpillingGroupingCollector<S, R> implements GroupByCollector<SpillingGroupingCollector.Groups<S>>, Closeable {
+
+    static final int NUM_PARTITIONS = 32;
+
+    static final class Groups<S> {
+
+        private S statesByKey;
+
+        @Nullable
+        private SpillFile[] partitions;
+
+        private Groups(S statesByKey) {
+            this.statesByKey = statesByKey;
+        }
+    }
+
+    private final GroupByCollector<S> collector;
+    private final BiConsumer<S, Row> accumulator;
+    private final GroupByCollector<R> reducer;
+    private final boolean emitPartialStates;
+    private final int numKeyColumns;
+    private final Streamer<?>[] streamers;
+    private final SpillDirectory spillDirectory;
+    private final RamAccounting ramAccounting;
+    private final SpillGenerationMemoryManager memoryManager;
+    private final long maxBytesInMemory;
+
+    @Nullable
+    private Groups<S> groups;
+
+    /**
+     * @param collector         the collector aggregating the incoming rows
+     * @param reducer           collector reducing the spilled rows which consist of the key columns followed by
+     *                          the partial states
+     * @param emitPartialStates if true the result contains the partial states, otherwise the finished states
+     * @param streamers         streamers for the key columns followed by the partial states
+     * @param ramAccounting     the ram accounting used exclusively by the collector and reducer.
+     *                          It's released whenever the states are spilled or a partition has been emitted,
+     *                          so it must not be shared with other operations.
+     * @param memoryManager     the memory manager used exclusively by the collector and reducer.
+     *                          Its buffers are released together with the ram accounting.
+     */
+    SpillingGroupingCollector(GroupByCollector<S> collector,
+                              GroupByCollector<R> reducer,
+                              boolean emitPartialStates,
+                              int numKeyColumns,
+                              Streamer<?>[] streamers,
+                              SpillDirectory spillDirectory,
+                              RamAccounting ramAccounting,
+                              SpillGenerationMemoryManager memoryManager,
+                              long maxBytesInMemory) {
+        assert spillDirectory.isAvailable() : "SpillDirectory must be available to spill group states";
+        this.collector = collector;
+        this.accumulator = collector.accumulator();
+        this.reducer = reducer;
+        this.emitPartialStates = emitPartialStates;
+        this.numKeyColumns = numKeyColumns;
+        this.streamers = streamers;
+        this.spillDirectory = spillDirectory;
+        this.ramAccounting = ramAccounting;
+        this.memoryManager = memoryManager;
+        this.maxBytesInMemory = maxBytesInMemory;
+    }
+
+    @Override
+    public Supplier<Groups<S>> supplier() {
+        return () -> {
+            assert groups == null : "SpillingGroupingCollector can only be used once";
+            groups = new Groups<>(collector.supplier().get());
+            return groups;
+        };
+    }
+
+    @Override
+    public BiConsumer<Groups<S>, Row> accumulator() {
+        return (groups, row) -> {
+            if (ramAccounting.totalBytes() + memoryManager.directBytes() >= maxBytesInMemory) {
+                spill(groups);
+            }
+            accumulator.accept(groups.statesByKey, row);
+        };
+    }
+
+    @Override
+    public BinaryOperator<Groups<S>> combiner() {
+        return (state1, state2) -> {
+            throw new UnsupportedOperationException("combine not supported");
+        };
+    }
+
+    @Override
+    public Function<Groups<S>, Iterable<Row>> finisher() {
+        return groups -> {
+            if (groups.partitions == null) {
+                return collector.finisher().apply(groups.statesByKey);
+            }
+            spill(groups);
+            finishWriting(groups.partitions);
+            return partitionsToRows(groups.partitions);
+        };
+    }
+
+    @Override
+    public Iterable<Row> partialRows(Groups<S> groups) {
+        throw new UnsupportedOperationException("SpillingGroupingCollector cannot be nested");
+    }
+
+    @Override
+    public Set<Characteristics> characteristics() {
+        return Collections.emptySet();
+    }
+
+    static int partition(Row row, int numKeyColumns) {
+        int hash = 1;
+        for (int i = 0; i < numKeyColumns; i++) {
+            hash = 31 * hash + Objects.hashCode(row.get(i));
+        }
+        // Mix the hash, otherwise all keys of a partition would share the same low bits
+        // which are used to address the slots of the hash tables used while reducing a partition.
+        return Integer.remainderUnsigned(BitMixer.mix32(hash), NUM_PARTITIONS);
+    }
+
+    private void spill(Groups<S> groups) {
+        try {
+            if (groups.partitions == null) {
+                groups.partitions = new SpillFile[NUM_PARTITIONS];
+                for (int i = 0; i < NUM_PARTITIONS; i++) {
+                    groups.partitions[i] = spillDirectory.newFile("group-by-", streamers);
+                }
+            }
+            for (Row row : collector.partialRows(groups.statesByKey)) {
+                groups.partitions[partition(row, numKeyColumns)].write(row);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        releaseGeneration();
+        groups.statesByKey = collector.supplier().get();
+    }
+
+    private static void finishWriting(SpillFile[] partitions) {
+        try {
+            for (SpillFile partition : partitions) {
+                partition.finishWriting();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Iterable<Row> partitionsToRows(SpillFile[] partitions) {
+        BiConsumer<R, Row> reduce = reducer.accumulator();
+        return () -> new Iterator<>() {
+
+            int partition = -1;
+            Iterator<Row> rows = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!rows.hasNext()) {
+                    partition++;
+                    if (partition >= partitions.length) {
+                        releaseGeneration();
+                        return false;
+                    }
+                    rows = reducePartition(partitions[partition], reduce).iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public Row next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("Iterator is exhausted");
+                }
+                return rows.next();
+            }
+        };
+    }
+
+    private Iterable<Row> reducePartition(SpillFile partition, BiConsumer<R, Row> reduce) {
+        // The states of the previous partition have been emitted and are no longer referenced
+        releaseGeneration();
+        R statesByKey = reducer.supplier().get();
+        try (CloseableIterator<Row> rows = partition.rows()) {
+            while (rows.hasNext()) {
+                reduce.accept(statesByKey, rows.next());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return emitPartialStates ? reducer.partialRows(statesByKey) : reducer.finisher().apply(statesByKey);
+    }
+
+    private void releaseGeneration() {
+        ramAccounting.release();
+        memoryManager.releaseGeneration();
+    }
+
+    @Override
+    public void close() {
+        ramAccounting.release();
+        memoryManager.close();
+        if (groups != null && groups.partitions != null) {
+            IOUtils.closeWhileHandlingException(Arrays.asList(groups.partitions));
+        }
+    }
+}
@@ -145,6 +145,11 @@ public class ArbitraryAggregation extends AggregationFunction<Object, Object> {
         return state;
     }
 
+    @Override
+    public boolean isReduceNonMutating() {
+        return true;
+    }
+
     @Nullable
     @Override
     public DocValueAggregator<?> getDocValueAggregator(LuceneReferenceResolver referenceResolver,
@@ -252,6 +252,11 @@ public final class CmpByAggregation extends AggregationFunction<CmpByAggregation
         return state.resultValue;
     }
 
+    @Override
+    public boolean isReduceNonMutating() {
+        return true;
+    }
+
     @Override
     public DataType<?> partialType() {
         return partialType;
@@ -343,4 +343,9 @@ public abstract class MaximumAggregation extends AggregationFunction<Object, Obj
     public Object terminatePartial(RamAccounting ramAccounting, Object state) {
         return state;
     }
+
+    @Override
+    public boolean isReduceNonMutating() {
+        return true;
+    }
 }
@@ -332,6 +332,11 @@ public abstract class MinimumAggregation extends AggregationFunction<Object, Obj
         return state;
     }
 
+    @Override
+    public boolean isReduceNonMutating() {
+        return true;
+    }
+
     @Override
     public Object iterate(RamAccounting ramAccounting,
                           MemoryManager memoryManager,
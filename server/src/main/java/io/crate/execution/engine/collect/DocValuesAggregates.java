@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.IndexSearcher;
@@ -81,6 +82,7 @@ public final class DocValuesAggregates {
                                                  IndexShard indexShard,
                                                  DocTableInfo table,
                                                  LuceneQueryBuilder luceneQueryBuilder,
+                                                 PartialAggregateCache partialAggregateCache,
                                                  RoutedCollectPhase phase,
                                                  CollectTask collectTask) {
         var shardProjections = Projections.shardProjections(phase.projections());
@@ -112,6 +114,14 @@ public final class DocValuesAggregates {
             table,
             shardContext.indexService().cache()
         );
+        var cachedPartials = partialAggregateCache.forAggregations(
+            functions,
+            phase.toCollect(),
+            aggregateProjection.aggregations(),
+            aggregateProjection.aggregations(),
+            indexShard.indexSettings().getIndexVersionCreated(),
+            collectTask.minNodeVersion()
+        );
 
         AtomicReference<Throwable> killed = new AtomicReference<>();
         return CollectingBatchIterator.newInstance(
@@ -126,7 +136,8 @@ public final class DocValuesAggregates {
                         killed,
                         searcher.item(),
                         queryContext.query(),
-                        aggregators
+                        aggregators,
+                        cachedPartials
                     ));
                 } catch (Throwable t) {
                     return CompletableFuture.failedFuture(t);
@@ -231,40 +242,89 @@ public final class DocValuesAggregates {
                                         AtomicReference<Throwable> killed,
                                         IndexSearcher searcher,
                                         Query query,
-                                        List<DocValueAggregator> aggregators) throws IOException {
-        Weight weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
+                                        List<DocValueAggregator> aggregators,
+                                        @Nullable PartialAggregateCache.Aggregations cachedPartials) throws IOException {
+        Query rewrittenQuery = searcher.rewrite(query);
+        Weight weight = searcher.createWeight(rewrittenQuery, ScoreMode.COMPLETE_NO_SCORES, 1f);
         List<LeafReaderContext> leaves = searcher.getTopReaderContext().leaves();
-        Object[] cells = new Object[aggregators.size()];
+        Object[] cells = initialStates(aggregators, ramAccounting, memoryManager, minNodeVersion);
+        List<Object[]> segmentPartials = new ArrayList<>();
+        for (var leaf : leaves) {
+            IndexReader.CacheHelper segment = cachedPartials == null
+                ? null
+                : cachedPartials.cacheableSegment(weight, leaf);
+            if (segment != null) {
+                Object[] partials = (Object[]) cachedPartials.get(segment, rewrittenQuery);
+                if (partials == null) {
+                    RamAccounting segmentRamAccounting = PartialAggregateCache.segmentRamAccounting(ramAccounting);
+                    partials = initialStates(aggregators, segmentRamAccounting, memoryManager, minNodeVersion);
+                    applyAggregators(segmentRamAccounting, killed, weight, leaf, aggregators, partials);
+                    partialResults(segmentRamAccounting, aggregators, partials);
+                    cachedPartials.put(segment, rewrittenQuery, partials, segmentRamAccounting.totalBytes());
+                }
+                segmentPartials.add(partials);
+            } else {
+                applyAggregators(ramAccounting, killed, weight, leaf, aggregators, cells);
+            }
+        }
+        partialResults(ramAccounting, aggregators, cells);
+        for (Object[] partials : segmentPartials) {
+            for (int i = 0; i < aggregators.size(); i++) {
+                cells[i] = cachedPartials.reduce(ramAccounting, memoryManager, i, cells[i], partials[i]);
+            }
+        }
+        return List.of(new RowN(cells));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Object[] initialStates(List<DocValueAggregator> aggregators,
+                                          RamAccounting ramAccounting,
+                                          MemoryManager memoryManager,
+                                          Version minNodeVersion) {
+        Object[] states = new Object[aggregators.size()];
         for (int i = 0; i < aggregators.size(); i++) {
-            cells[i] = aggregators.get(i).initialState(ramAccounting, memoryManager, minNodeVersion);
+            states[i] = aggregators.get(i).initialState(ramAccounting, memoryManager, minNodeVersion);
         }
-        for (var leaf : leaves) {
-            Scorer scorer = weight.scorer(leaf);
-            if (scorer == null) {
+        return states;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static void applyAggregators(RamAccounting ramAccounting,
+                                         AtomicReference<Throwable> killed,
+                                         Weight weight,
+                                         LeafReaderContext leaf,
+                                         List<DocValueAggregator> aggregators,
+                                         Object[] states) throws IOException {
+        Scorer scorer = weight.scorer(leaf);
+        if (scorer == null) {
+            return;
+        }
+        for (int i = 0; i < aggregators.size(); i++) {
+            aggregators.get(i).loadDocValues(leaf);
+        }
+        DocIdSetIterator docs = scorer.iterator();
+        Bits liveDocs = leaf.reader().getLiveDocs();
+        for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
+            if (liveDocs != null && !liveDocs.get(doc)) {
                 continue;
             }
-            for (int i = 0; i < aggregators.size(); i++) {
-                aggregators.get(i).loadDocValues(leaf);
+            Throwable killCause = killed.get();
+            if (killCause != null) {
+                Exceptions.rethrowUnchecked(killCause);
             }
-            DocIdSetIterator docs = scorer.iterator();
-            Bits liveDocs = leaf.reader().getLiveDocs();
-            for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
-                if (liveDocs != null && !liveDocs.get(doc)) {
-                    continue;
-                }
-                Throwable killCause = killed.get();
-                if (killCause != null) {
-                    Exceptions.rethrowUnchecked(killCause);
-                }
-                for (int i = 0; i < aggregators.size(); i++) {
-                    aggregators.get(i).apply(ramAccounting, doc, cells[i]);
-                }
+            for (int i = 0; i < aggregators.size(); i++) {
+                aggregators.get(i).apply(ramAccounting, doc, states[i]);
             }
         }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static void partialResults(RamAccounting ramAccounting,
+                                       List<DocValueAggregator> aggregators,
+                                       Object[] states) {
         for (int i = 0; i < aggregators.size(); i++) {
-            cells[i] = aggregators.get(i).partialResult(ramAccounting, cells[i]);
+            states[i] = aggregators.get(i).partialResult(ramAccounting, states[i]);
         }
-        return List.of(new RowN(cells));
     }
 
 
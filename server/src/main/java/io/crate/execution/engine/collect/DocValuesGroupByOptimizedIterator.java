@@ -35,6 +35,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.IndexSearcher;
@@ -92,6 +93,7 @@ final class DocValuesGroupByOptimizedIterator {
                                           LuceneQueryBuilder luceneQueryBuilder,
                                           FieldTypeLookup fieldTypeLookup,
                                           DocInputFactory docInputFactory,
+                                          PartialAggregateCache partialAggregateCache,
                                           RoutedCollectPhase collectPhase,
                                           CollectTask collectTask) {
         if (Symbols.containsColumn(collectPhase.toCollect(), DocSysColumns.SCORE)
@@ -152,6 +154,14 @@ final class DocValuesGroupByOptimizedIterator {
             table,
             sharedShardContext.indexService().cache()
         );
+        var cachedPartials = partialAggregateCache.forAggregations(
+            functions,
+            collectPhase.toCollect(),
+            Lists2.concat(groupProjection.keys(), groupProjection.values()),
+            groupProjection.values(),
+            indexShard.indexSettings().getIndexVersionCreated(),
+            collectTask.minNodeVersion()
+        );
 
         if (columnKeyRefs.size() == 1) {
             return GroupByIterator.forSingleKey(
@@ -163,7 +173,8 @@ final class DocValuesGroupByOptimizedIterator {
                 collectTask.memoryManager(),
                 collectTask.minNodeVersion(),
                 queryContext.query(),
-                new CollectorContext(sharedShardContext.readerId(), table.droppedColumns(), table.lookupNameBySourceKey())
+                new CollectorContext(sharedShardContext.readerId(), table.droppedColumns(), table.lookupNameBySourceKey()),
+                cachedPartials
             );
         } else {
             return GroupByIterator.forManyKeys(
@@ -175,7 +186,8 @@ final class DocValuesGroupByOptimizedIterator {
                 collectTask.memoryManager(),
                 collectTask.minNodeVersion(),
                 queryContext.query(),
-                new CollectorContext(sharedShardContext.readerId(), table.droppedColumns(), table.lookupNameBySourceKey())
+                new CollectorContext(sharedShardContext.readerId(), table.droppedColumns(), table.lookupNameBySourceKey()),
+                cachedPartials
             );
         }
     }
@@ -194,7 +206,8 @@ final class DocValuesGroupByOptimizedIterator {
                                                MemoryManager memoryManager,
                                                Version minNodeVersion,
                                                Query query,
-                                               CollectorContext collectorContext) {
+                                               CollectorContext collectorContext,
+                                               @Nullable PartialAggregateCache.Aggregations cachedPartials) {
             //noinspection unchecked
             DataType<Object> valueType = (DataType<Object>) keyReference.valueType();
             return GroupByIterator.getIterator(
@@ -204,11 +217,12 @@ final class DocValuesGroupByOptimizedIterator {
                 ramAccounting,
                 memoryManager,
                 minNodeVersion,
-                GroupByMaps.accountForNewEntry(ramAccounting, valueType),
+                accounting -> GroupByMaps.accountForNewEntry(accounting, valueType),
                 (expressions) -> expressions.get(0).value(),
                 (key, cells) -> cells[0] = key,
                 query,
-                collectorContext
+                collectorContext,
+                cachedPartials
             );
         }
 
@@ -222,7 +236,8 @@ final class DocValuesGroupByOptimizedIterator {
                                               MemoryManager memoryManager,
                                               Version minNodeVersion,
                                               Query query,
-                                              CollectorContext collectorContext) {
+                                              CollectorContext collectorContext,
+                                              @Nullable PartialAggregateCache.Aggregations cachedPartials) {
             return GroupByIterator.getIterator(
                 aggregators,
                 indexSearcher,
@@ -230,8 +245,8 @@ final class DocValuesGroupByOptimizedIterator {
                 ramAccounting,
                 memoryManager,
                 minNodeVersion,
-                GroupByMaps.accountForNewEntry(
-                    ramAccounting,
+                accounting -> GroupByMaps.accountForNewEntry(
+                    accounting,
                     Lists2.map(keyColumnRefs, Reference::valueType)
                 ),
                 (expressions) -> {
@@ -247,7 +262,8 @@ final class DocValuesGroupByOptimizedIterator {
                     }
                 },
                 query,
-                collectorContext
+                collectorContext,
+                cachedPartials
             );
         }
 
@@ -259,11 +275,12 @@ final class DocValuesGroupByOptimizedIterator {
                                                   RamAccounting ramAccounting,
                                                   MemoryManager memoryManager,
                                                   Version minNodeVersion,
-                                                  BiConsumer<Map<K, Object[]>, K> accountForNewKeyEntry,
+                                                  Function<RamAccounting, BiConsumer<Map<K, Object[]>, K>> accountForNewKeyEntry,
                                                   Function<List<? extends LuceneCollectorExpression<?>>, K> keyExtractor,
                                                   BiConsumer<K, Object[]> applyKeyToCells,
                                                   Query query,
-                                                  CollectorContext collectorContext) {
+                                                  CollectorContext collectorContext,
+                                                  @Nullable PartialAggregateCache.Aggregations cachedPartials) {
             for (int i = 0; i < keyExpressions.size(); i++) {
                 keyExpressions.get(i).startCollect(collectorContext);
             }
@@ -286,12 +303,12 @@ final class DocValuesGroupByOptimizedIterator {
                                     memoryManager,
                                     minNodeVersion,
                                     query,
-                                    killed
+                                    killed,
+                                    cachedPartials
                                 ),
                                 keyExpressions.size(),
                                 applyKeyToCells,
-                                aggregators,
-                                ramAccounting
+                                aggregators.size()
                             )
                         );
                     } catch (Throwable t) {
@@ -302,101 +319,180 @@ final class DocValuesGroupByOptimizedIterator {
             );
         }
 
-        @SuppressWarnings("rawtypes")
-        private static <K> Iterable<Row> getRows(Map<K, Object[]> groupedStates,
+        private static <K> Iterable<Row> getRows(Map<K, Object[]> groupedPartials,
                                                  int numberOfKeys,
                                                  BiConsumer<K, Object[]> applyKeyToCells,
-                                                 List<DocValueAggregator> aggregators,
-                                                 RamAccounting ramAccounting) {
+                                                 int numberOfAggregations) {
             return () -> {
-                Object[] cells = new Object[numberOfKeys + aggregators.size()];
+                Object[] cells = new Object[numberOfKeys + numberOfAggregations];
                 RowN row = new RowN(cells);
                 Function<Map.Entry<K, Object[]>, Row> mapper = entry -> {
                     K key = entry.getKey();
                     applyKeyToCells.accept(key, cells);
-
-                    Object[] states = entry.getValue();
-                    int c = numberOfKeys;
-                    for (int i = 0; i < states.length; i++) {
-                        //noinspection unchecked
-                        cells[c] = aggregators.get(i).partialResult(ramAccounting, states[i]);
-                        c++;
-                    }
+                    System.arraycopy(entry.getValue(), 0, cells, numberOfKeys, numberOfAggregations);
                     return row;
                 };
-                return groupedStates.entrySet().stream().map(mapper).iterator();
+                return groupedPartials.entrySet().stream().map(mapper).iterator();
             };
         }
 
-        @SuppressWarnings("rawtypes")
+        /**
+         * @return the partial results of the aggregations grouped by key
+         */
+        @SuppressWarnings({"rawtypes", "unchecked"})
         private static <K> Map<K, Object[]> applyAggregatesGroupedByKey(
             List<DocValueAggregator> aggregators,
             IndexSearcher indexSearcher,
             List<? extends LuceneCollectorExpression<?>> keyExpressions,
-            BiConsumer<Map<K, Object[]>, K> accountForNewKeyEntry,
+            Function<RamAccounting, BiConsumer<Map<K, Object[]>, K>> accountForNewKeyEntry,
             Function<List<? extends LuceneCollectorExpression<?>>, K> keyExtractor,
             RamAccounting ramAccounting,
             MemoryManager memoryManager,
             Version minNodeVersion,
             Query query,
-            AtomicReference<Throwable> killed
+            AtomicReference<Throwable> killed,
+            @Nullable PartialAggregateCache.Aggregations cachedPartials
         ) throws IOException {
 
             HashMap<K, Object[]> statesByKey = new HashMap<>();
+            BiConsumer<Map<K, Object[]>, K> accountForNewEntry = accountForNewKeyEntry.apply(ramAccounting);
+            Query rewrittenQuery = indexSearcher.rewrite(query);
             Weight weight = indexSearcher.createWeight(
-                indexSearcher.rewrite(query),
+                rewrittenQuery,
                 ScoreMode.COMPLETE_NO_SCORES,
                 1f
             );
+            List<Map<K, Object[]>> segmentPartials = new ArrayList<>();
             List<LeafReaderContext> leaves = indexSearcher.getTopReaderContext().leaves();
             for (var leaf : leaves) {
                 raiseIfClosedOrKilled(killed);
-                Scorer scorer = weight.scorer(leaf);
-                if (scorer == null) {
+                IndexReader.CacheHelper segment = cachedPartials == null
+                    ? null
+                    : cachedPartials.cacheableSegment(weight, leaf);
+                if (segment == null) {
+                    applyAggregators(
+                        aggregators,
+                        weight,
+                        leaf,
+                        keyExpressions,
+                        accountForNewEntry,
+                        keyExtractor,
+                        ramAccounting,
+                        memoryManager,
+                        minNodeVersion,
+                        killed,
+                        statesByKey
+                    );
                     continue;
                 }
-                for (int i = 0; i < keyExpressions.size(); i++) {
-                    keyExpressions.get(i).setNextReader(new ReaderContext(leaf));
-                }
-                for (int i = 0; i < aggregators.size(); i++) {
-                    aggregators.get(i).loadDocValues(leaf);
+                Map<K, Object[]> partials = (Map<K, Object[]>) cachedPartials.get(segment, rewrittenQuery);
+                if (partials == null) {
+                    HashMap<K, Object[]> segmentStates = new HashMap<>();
+                    RamAccounting segmentRamAccounting = PartialAggregateCache.segmentRamAccounting(ramAccounting);
+                    applyAggregators(
+                        aggregators,
+                        weight,
+                        leaf,
+                        keyExpressions,
+                        accountForNewKeyEntry.apply(segmentRamAccounting),
+                        keyExtractor,
+                        segmentRamAccounting,
+                        memoryManager,
+                        minNodeVersion,
+                        killed,
+                        segmentStates
+                    );
+                    partialResults(aggregators, segmentRamAccounting, segmentStates);
+                    cachedPartials.put(segment, rewrittenQuery, segmentStates, segmentRamAccounting.totalBytes());
+                    partials = segmentStates;
                 }
-
-                DocIdSetIterator docs = scorer.iterator();
-                Bits liveDocs = leaf.reader().getLiveDocs();
-                for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
-                    raiseIfClosedOrKilled(killed);
-                    if (docDeleted(liveDocs, doc)) {
-                        continue;
-                    }
-
-                    for (int i = 0; i < keyExpressions.size(); i++) {
-                        keyExpressions.get(i).setNextDocId(doc);
-                    }
-                    K key = keyExtractor.apply(keyExpressions);
-
+                segmentPartials.add(partials);
+            }
+            partialResults(aggregators, ramAccounting, statesByKey);
+            for (Map<K, Object[]> partials : segmentPartials) {
+                raiseIfClosedOrKilled(killed);
+                for (var entry : partials.entrySet()) {
+                    K key = entry.getKey();
                     Object[] states = statesByKey.get(key);
                     if (states == null) {
                         states = new Object[aggregators.size()];
-                        for (int i = 0; i < aggregators.size(); i++) {
-                            var aggregator = aggregators.get(i);
-                            states[i] = aggregator.initialState(ramAccounting, memoryManager, minNodeVersion);
-                            //noinspection unchecked
-                            aggregator.apply(ramAccounting, doc, states[i]);
-                        }
-                        accountForNewKeyEntry.accept(statesByKey, key);
+                        accountForNewEntry.accept(statesByKey, key);
                         statesByKey.put(key, states);
-                    } else {
-                        for (int i = 0; i < aggregators.size(); i++) {
-                            //noinspection unchecked
-                            aggregators.get(i).apply(ramAccounting, doc, states[i]);
-                        }
+                    }
+                    Object[] cachedStates = entry.getValue();
+                    for (int i = 0; i < states.length; i++) {
+                        states[i] = cachedPartials.reduce(ramAccounting, memoryManager, i, states[i], cachedStates[i]);
                     }
                 }
             }
             return statesByKey;
         }
 
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        private static <K> void applyAggregators(List<DocValueAggregator> aggregators,
+                                                 Weight weight,
+                                                 LeafReaderContext leaf,
+                                                 List<? extends LuceneCollectorExpression<?>> keyExpressions,
+                                                 BiConsumer<Map<K, Object[]>, K> accountForNewKeyEntry,
+                                                 Function<List<? extends LuceneCollectorExpression<?>>, K> keyExtractor,
+                                                 RamAccounting ramAccounting,
+                                                 MemoryManager memoryManager,
+                                                 Version minNodeVersion,
+                                                 AtomicReference<Throwable> killed,
+                                                 Map<K, Object[]> statesByKey) throws IOException {
+            Scorer scorer = weight.scorer(leaf);
+            if (scorer == null) {
+                return;
+            }
+            for (int i = 0; i < keyExpressions.size(); i++) {
+                keyExpressions.get(i).setNextReader(new ReaderContext(leaf));
+            }
+            for (int i = 0; i < aggregators.size(); i++) {
+                aggregators.get(i).loadDocValues(leaf);
+            }
+
+            DocIdSetIterator docs = scorer.iterator();
+            Bits liveDocs = leaf.reader().getLiveDocs();
+            for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
+                raiseIfClosedOrKilled(killed);
+                if (docDeleted(liveDocs, doc)) {
+                    continue;
+                }
+
+                for (int i = 0; i < keyExpressions.size(); i++) {
+                    keyExpressions.get(i).setNextDocId(doc);
+                }
+                K key = keyExtractor.apply(keyExpressions);
+
+                Object[] states = statesByKey.get(key);
+                if (states == null) {
+                    states = new Object[aggregators.size()];
+                    for (int i = 0; i < aggregators.size(); i++) {
+                        var aggregator = aggregators.get(i);
+                        states[i] = aggregator.initialState(ramAccounting, memoryManager, minNodeVersion);
+                        aggregator.apply(ramAccounting, doc, states[i]);
+                    }
+                    accountForNewKeyEntry.accept(statesByKey, key);
+                    statesByKey.put(key, states);
+                } else {
+                    for (int i = 0; i < aggregators.size(); i++) {
+                        aggregators.get(i).apply(ramAccounting, doc, states[i]);
+                    }
+                }
+            }
+        }
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        private static <K> void partialResults(List<DocValueAggregator> aggregators,
+                                               RamAccounting ramAccounting,
+                                               Map<K, Object[]> statesByKey) {
+            for (Object[] states : statesByKey.values()) {
+                for (int i = 0; i < states.length; i++) {
+                    states[i] = aggregators.get(i).partialResult(ramAccounting, states[i]);
+                }
+            }
+        }
+
         private static boolean docDeleted(@Nullable Bits liveDocs, int doc) {
             return liveDocs != null && !liveDocs.get(doc);
         }
@@ -21,6 +21,8 @@
 
 package io.crate.execution.engine.collect;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 
@@ -43,6 +45,7 @@ import io.crate.data.InMemoryBatchIterator;
 import io.crate.data.Row;
 import io.crate.data.SentinelRow;
 import io.crate.execution.dsl.phases.RoutedCollectPhase;
+import io.crate.execution.engine.collect.collectors.LeafDocRange;
 import io.crate.execution.engine.collect.collectors.LuceneBatchIterator;
 import io.crate.execution.engine.collect.collectors.LuceneOrderedDocCollector;
 import io.crate.execution.engine.collect.collectors.OptimizeQueryForSearchAfter;
@@ -69,8 +72,16 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
 
     private static final Logger LOGGER = LogManager.getLogger(LuceneShardCollectorProvider.class);
 
+    /**
+     * Minimum number of documents per iterator if a shard is split into multiple iterators,
+     * see {@link #getUnorderedIterators(RoutedCollectPhase, CollectTask, int)}.
+     * Below that the overhead of an additional iterator and its partial result outweighs the gain.
+     */
+    static final int MIN_DOCS_PER_PART = 100_000;
+
     private final Supplier<String> localNodeId;
     private final LuceneQueryBuilder luceneQueryBuilder;
+    private final PartialAggregateCache partialAggregateCache;
     private final NodeContext nodeCtx;
     private final DocInputFactory docInputFactory;
     private final BigArrays bigArrays;
@@ -90,6 +101,7 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
                                         ElasticsearchClient elasticsearchClient,
                                         IndexShard indexShard,
                                         BigArrays bigArrays,
+                                        PartialAggregateCache partialAggregateCache,
                                         Map<String, FileOutputFactory> fileOutputFactoryMap) {
         super(
             clusterService,
@@ -105,6 +117,7 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
             fileOutputFactoryMap
         );
         this.luceneQueryBuilder = luceneQueryBuilder;
+        this.partialAggregateCache = partialAggregateCache;
         this.nodeCtx = nodeCtx;
         this.localNodeId = () -> clusterService.localNode().getId();
         var mapperService = indexShard.mapperService();
@@ -128,6 +141,19 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
     protected BatchIterator<Row> getUnorderedIterator(RoutedCollectPhase collectPhase,
                                                       boolean requiresScroll,
                                                       CollectTask collectTask) {
+        return createIterators(collectPhase, collectTask, 1).get(0);
+    }
+
+    @Override
+    protected List<BatchIterator<Row>> getUnorderedIterators(RoutedCollectPhase collectPhase,
+                                                             CollectTask collectTask,
+                                                             int maxParts) {
+        return createIterators(collectPhase, collectTask, maxParts);
+    }
+
+    private List<BatchIterator<Row>> createIterators(RoutedCollectPhase collectPhase,
+                                                     CollectTask collectTask,
+                                                     int maxParts) {
         ShardId shardId = indexShard.shardId();
         SharedShardContext sharedShardContext = collectTask.sharedShardContexts().getOrCreateContext(shardId);
         var searcher = sharedShardContext.acquireSearcher("unordered-iterator: " + formatSource(collectPhase));
@@ -137,31 +163,42 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
         // therefore skip it
         boolean isClosed = sharedShardContextShard.mapperService() == null;
         if (isClosed) {
-            return InMemoryBatchIterator.empty(SentinelRow.SENTINEL);
+            return List.of(InMemoryBatchIterator.empty(SentinelRow.SENTINEL));
         }
-        QueryShardContext queryShardContext = sharedShardContext.indexService().newQueryShardContext();
         DocTableInfo table = schemas.getTableInfo(relationName);
-        LuceneQueryBuilder.Context queryContext = luceneQueryBuilder.convert(
-            collectPhase.where(),
-            collectTask.txnCtx(),
-            sharedShardContextShard.mapperService(),
-            sharedShardContextShard.shardId().getIndexName(),
-            queryShardContext,
-            table,
-            sharedShardContext.indexService().cache()
-        );
-        InputFactory.Context<? extends LuceneCollectorExpression<?>> docCtx =
-            docInputFactory.extractImplementations(collectTask.txnCtx(), collectPhase);
-
-        return new LuceneBatchIterator(
-            searcher.item(),
-            queryContext.query(),
-            queryContext.minScore(),
-            Symbols.containsColumn(collectPhase.toCollect(), DocSysColumns.SCORE),
-            new CollectorContext(sharedShardContext.readerId(), table.droppedColumns(), table.lookupNameBySourceKey()),
-            docCtx.topLevelInputs(),
-            docCtx.expressions()
+        List<List<LeafDocRange>> parts = LeafDocRange.partition(
+            searcher.item().getTopReaderContext().leaves(),
+            maxParts,
+            MIN_DOCS_PER_PART
         );
+        List<BatchIterator<Row>> iterators = new ArrayList<>(parts.size());
+        for (List<LeafDocRange> part : parts) {
+            // Each iterator may be consumed by a different thread.
+            // Queries like the GenericFunctionQuery and the expressions have state, so they can't be shared.
+            QueryShardContext queryShardContext = sharedShardContext.indexService().newQueryShardContext();
+            LuceneQueryBuilder.Context queryContext = luceneQueryBuilder.convert(
+                collectPhase.where(),
+                collectTask.txnCtx(),
+                sharedShardContextShard.mapperService(),
+                sharedShardContextShard.shardId().getIndexName(),
+                queryShardContext,
+                table,
+                sharedShardContext.indexService().cache()
+            );
+            InputFactory.Context<? extends LuceneCollectorExpression<?>> docCtx =
+                docInputFactory.extractImplementations(collectTask.txnCtx(), collectPhase);
+            iterators.add(new LuceneBatchIterator(
+                searcher.item(),
+                part,
+                queryContext.query(),
+                queryContext.minScore(),
+                Symbols.containsColumn(collectPhase.toCollect(), DocSysColumns.SCORE),
+                new CollectorContext(sharedShardContext.readerId(), table.droppedColumns(), table.lookupNameBySourceKey()),
+                docCtx.topLevelInputs(),
+                docCtx.expressions()
+            ));
+        }
+        return iterators;
     }
 
     @Nullable
@@ -190,6 +227,7 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
             luceneQueryBuilder,
             fieldTypeLookup,
             docInputFactory,
+            partialAggregateCache,
             normalizedPhase,
             collectTask
         );
@@ -202,6 +240,7 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
             indexShard,
             table,
             luceneQueryBuilder,
+            partialAggregateCache,
             normalizedPhase,
             collectTask
         );
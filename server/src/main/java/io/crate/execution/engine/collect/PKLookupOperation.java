@@ -60,6 +60,7 @@ import io.crate.execution.engine.collect.sources.ShardCollectSource;
 import io.crate.execution.engine.pipeline.ProjectorFactory;
 import io.crate.execution.engine.pipeline.Projectors;
 import io.crate.expression.reference.Doc;
+import io.crate.expression.reference.doc.lucene.BinarySource;
 import io.crate.expression.reference.doc.lucene.SourceFieldVisitor;
 import io.crate.expression.reference.doc.lucene.SourceParser;
 import io.crate.memory.MemoryManager;
@@ -117,7 +118,7 @@ public final class PKLookupOperation {
                 docIdAndVersion.seqNo,
                 docIdAndVersion.primaryTerm,
                 sourceMap,
-                () -> visitor.source().utf8ToString()
+                () -> BinarySource.toJson(visitor.source()).utf8ToString()
             );
         }
     }
@@ -0,0 +1,269 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Weight;
+import org.elasticsearch.Version;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.jetbrains.annotations.Nullable;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.crate.breaker.ConcurrentRamAccounting;
+import io.crate.common.annotations.VisibleForTesting;
+import io.crate.common.collections.Lists2;
+import io.crate.data.breaker.RamAccounting;
+import io.crate.execution.engine.aggregation.AggregationFunction;
+import io.crate.expression.symbol.Aggregation;
+import io.crate.expression.symbol.Symbol;
+import io.crate.memory.MemoryManager;
+import io.crate.metadata.Functions;
+
+/**
+ * A node-local cache for the partial aggregation states which {@link DocValuesAggregates} and
+ * {@link DocValuesGroupByOptimizedIterator} compute for a single segment.
+ * <p>
+ * Segments are immutable, so the partial states of a segment only need to be computed once for a given filter
+ * and aggregation. Entries are keyed by the reader cache key of the segment, which changes if documents of the
+ * segment are deleted, and are removed once the segment reader is closed, e.g. because the segment was merged
+ * away. The cached states of the segments are merged using {@link AggregationFunction#reduce}, so only new or
+ * changed segments have to be aggregated.
+ * </p>
+ * The cache is disabled unless {@link #SIZE} is set.
+ */
+@Singleton
+public class PartialAggregateCache {
+
+    public static final Setting<ByteSizeValue> SIZE = Setting.memorySizeSetting(
+        "query.partial_aggregate_cache.size",
+        "0b",
+        Property.Dynamic,
+        Property.NodeScope,
+        Property.Exposed
+    );
+
+    private record Key(IndexReader.CacheKey segment,
+                       Query query,
+                       List<Symbol> toCollect,
+                       List<? extends Symbol> projection,
+                       Version minNodeVersion) {
+    }
+
+    private record Entry(Object partials, int bytes) {
+    }
+
+    private final Cache<Key, Entry> cache;
+    private final Map<IndexReader.CacheKey, Set<Key>> keysBySegment = new ConcurrentHashMap<>();
+
+    private volatile long maxBytes;
+
+    @Inject
+    public PartialAggregateCache(Settings settings, ClusterService clusterService) {
+        this(settings, clusterService.getClusterSettings());
+    }
+
+    @VisibleForTesting
+    public PartialAggregateCache(Settings settings, ClusterSettings clusterSettings) {
+        this.maxBytes = SIZE.get(settings).getBytes();
+        this.cache = Caffeine.newBuilder()
+            .executor(Runnable::run)
+            .maximumWeight(maxBytes)
+            .weigher((Key key, Entry entry) -> entry.bytes)
+            .removalListener(this::onRemoval)
+            .build();
+        clusterSettings.addSettingsUpdateConsumer(SIZE, this::setMaxBytes);
+    }
+
+    private void setMaxBytes(ByteSizeValue size) {
+        maxBytes = size.getBytes();
+        cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maxBytes));
+        if (maxBytes == 0) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * @param toCollect the symbols collected by the collect phase
+     * @param projection the symbols of the shard projection, these are the group keys and aggregations
+     * @return the cache for the partial states of the aggregations or null if the cache is disabled.
+     */
+    @Nullable
+    public Aggregations forAggregations(Functions functions,
+                                        List<Symbol> toCollect,
+                                        List<? extends Symbol> projection,
+                                        List<Aggregation> aggregations,
+                                        Version indexVersionCreated,
+                                        Version minNodeVersion) {
+        if (maxBytes == 0) {
+            return null;
+        }
+        List<AggregationFunction<?, ?>> aggregationFunctions = Lists2.map(
+            aggregations,
+            aggregation -> (AggregationFunction<?, ?>) functions.getQualified(aggregation)
+        );
+        return new Aggregations(toCollect, projection, aggregationFunctions, indexVersionCreated, minNodeVersion);
+    }
+
+    /**
+     * @return a ram accounting for the partial states of a single segment. The bytes are forwarded to
+     *         {@code ramAccounting} and its {@link RamAccounting#totalBytes()} are the size of the cache entry.
+     */
+    static RamAccounting segmentRamAccounting(RamAccounting ramAccounting) {
+        return new ConcurrentRamAccounting(
+            ramAccounting::addBytes,
+            bytes -> ramAccounting.addBytes(-bytes),
+            "partial-aggregate-cache",
+            0
+        );
+    }
+
+    @VisibleForTesting
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    @VisibleForTesting
+    long sizeInBytes() {
+        cache.cleanUp();
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    private void onSegmentClosed(IndexReader.CacheKey segment) {
+        Set<Key> keys = keysBySegment.remove(segment);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    private void onRemoval(@Nullable Key key, @Nullable Entry entry, RemovalCause cause) {
+        // A replaced entry keeps its key
+        if (key == null || cause == RemovalCause.REPLACED) {
+            return;
+        }
+        Set<Key> keys = keysBySegment.get(key.segment);
+        if (keys != null) {
+            keys.remove(key);
+        }
+    }
+
+    /**
+     * The cache bound to the aggregations of a collect phase.
+     */
+    public final class Aggregations {
+
+        private final List<Symbol> toCollect;
+        private final List<? extends Symbol> projection;
+        private final List<AggregationFunction<?, ?>> functions;
+        private final Version indexVersionCreated;
+        private final Version minNodeVersion;
+
+        private Aggregations(List<Symbol> toCollect,
+                             List<? extends Symbol> projection,
+                             List<AggregationFunction<?, ?>> functions,
+                             Version indexVersionCreated,
+                             Version minNodeVersion) {
+            this.toCollect = toCollect;
+            this.projection = projection;
+            this.functions = functions;
+            this.indexVersionCreated = indexVersionCreated;
+            this.minNodeVersion = minNodeVersion;
+        }
+
+        /**
+         * @return the cache helper of the segment if the partial states of the segment can be cached.
+         *         Like for the query cache, this requires that the matches of the weight only depend on the
+         *         segment, e.g. it must not use non-deterministic functions.
+         */
+        @Nullable
+        IndexReader.CacheHelper cacheableSegment(Weight weight, LeafReaderContext leaf) {
+            if (maxBytes == 0 || !weight.isCacheable(leaf)) {
+                return null;
+            }
+            return leaf.reader().getReaderCacheHelper();
+        }
+
+        @Nullable
+        Object get(IndexReader.CacheHelper segment, Query query) {
+            Entry entry = cache.getIfPresent(key(segment, query));
+            return entry == null ? null : entry.partials;
+        }
+
+        /**
+         * Caches the partial states of the segment. The states must not be modified afterwards.
+         * Partial states larger than a quarter of the cache size aren't cached.
+         *
+         * @param bytes the bytes accounted while computing the partial states,
+         *              see {@link #segmentRamAccounting(RamAccounting)}
+         */
+        void put(IndexReader.CacheHelper segment, Query query, Object partials, long bytes) {
+            if (bytes > Math.min(maxBytes / 4, Integer.MAX_VALUE)) {
+                return;
+            }
+            Key key = key(segment, query);
+            keysBySegment.computeIfAbsent(segment.getKey(), segmentKey -> {
+                segment.addClosedListener(PartialAggregateCache.this::onSegmentClosed);
+                return ConcurrentHashMap.newKeySet();
+            }).add(key);
+            cache.put(key, new Entry(partials, (int) bytes));
+        }
+
+        private Key key(IndexReader.CacheHelper segment, Query query) {
+            return new Key(segment.getKey(), query, toCollect, projection, minNodeVersion);
+        }
+
+        /**
+         * Merges the cached partial state of an aggregation into {@code state}, which is created if it's null.
+         * The cached state is left unchanged.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Object reduce(RamAccounting ramAccounting,
+                      MemoryManager memoryManager,
+                      int aggregation,
+                      @Nullable Object state,
+                      Object cachedState) {
+            AggregationFunction function = functions.get(aggregation);
+            if (state == null) {
+                // reduce into a new state, reduce implementations return or mutate the first state
+                state = function.newState(ramAccounting, indexVersionCreated, minNodeVersion, memoryManager);
+            }
+            return function.reduce(ramAccounting, state, cachedState);
+        }
+    }
+}
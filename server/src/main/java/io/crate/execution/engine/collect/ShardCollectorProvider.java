@@ -21,24 +21,37 @@
 
 package io.crate.execution.engine.collect;
 
+import static io.crate.execution.support.ThreadPools.numIdleThreads;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.IntSupplier;
 
 import org.jetbrains.annotations.Nullable;
 
 import org.elasticsearch.client.ElasticsearchClient;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.threadpool.ThreadPool;
 
 import io.crate.analyze.WhereClause;
 import io.crate.data.BatchIterator;
+import io.crate.data.CompositeBatchIterator;
 import io.crate.data.InMemoryBatchIterator;
 import io.crate.data.Row;
 import io.crate.data.SentinelRow;
 import io.crate.execution.dsl.phases.RoutedCollectPhase;
+import io.crate.execution.dsl.projection.AggregationProjection;
+import io.crate.execution.dsl.projection.GroupProjection;
+import io.crate.execution.dsl.projection.Projection;
 import io.crate.execution.dsl.projection.Projections;
 import io.crate.execution.engine.collect.collectors.OrderedDocCollector;
 import io.crate.execution.engine.export.FileOutputFactory;
@@ -50,6 +63,7 @@ import io.crate.execution.jobs.SharedShardContext;
 import io.crate.expression.InputFactory;
 import io.crate.expression.eval.EvaluatingNormalizer;
 import io.crate.expression.reference.sys.shard.ShardRowContext;
+import io.crate.expression.symbol.AggregateMode;
 import io.crate.metadata.NodeContext;
 import io.crate.metadata.RowGranularity;
 import io.crate.metadata.Schemas;
@@ -63,6 +77,8 @@ public abstract class ShardCollectorProvider {
     protected final IndexShard indexShard;
     final EvaluatingNormalizer shardNormalizer;
     private final BatchIteratorFactory batchIteratorFactory;
+    private final Executor executor;
+    private final IntSupplier availableThreads;
 
     ShardCollectorProvider(ClusterService clusterService,
                            CircuitBreakerService circuitBreakerService,
@@ -99,9 +115,14 @@ public abstract class ShardCollectorProvider {
             t -> null,
             indexShard.indexSettings().getIndexVersionCreated(),
             indexShard.shardId(),
-            fileOutputFactoryMap
+            fileOutputFactoryMap,
+            null,
+            null
         );
         this.batchIteratorFactory = new BatchIteratorFactory();
+        ThreadPoolExecutor searchExecutor = (ThreadPoolExecutor) threadPool.executor(ThreadPool.Names.SEARCH);
+        this.executor = searchExecutor;
+        this.availableThreads = numIdleThreads(searchExecutor, EsExecutors.numberOfProcessors(settings));
     }
 
     public class BatchIteratorFactory {
@@ -122,14 +143,39 @@ public abstract class ShardCollectorProvider {
                     return fusedIterator;
                 }
             }
+            Collection<? extends Projection> shardProjections = Projections.shardProjections(collectPhase.projections());
             final BatchIterator<Row> iterator;
             if (isOpenIndex && WhereClause.canMatch(normalizedCollectNode.where())) {
-                iterator = getUnorderedIterator(normalizedCollectNode, requiresScroll, collectTask);
+                if (requiresScroll == false && isPartialAggregation(shardProjections)) {
+                    // The partial aggregation states of the parts are merged like the ones of different shards
+                    List<BatchIterator<Row>> parts = getUnorderedIterators(
+                        normalizedCollectNode,
+                        collectTask,
+                        availableThreads.getAsInt()
+                    );
+                    if (parts.size() > 1) {
+                        List<BatchIterator<Row>> projectedParts = new ArrayList<>(parts.size());
+                        for (BatchIterator<Row> part : parts) {
+                            projectedParts.add(wrapWithProjections(collectPhase, collectTask, shardProjections, part));
+                        }
+                        return CompositeBatchIterator.asyncComposite(executor, availableThreads, projectedParts);
+                    }
+                    iterator = parts.get(0);
+                } else {
+                    iterator = getUnorderedIterator(normalizedCollectNode, requiresScroll, collectTask);
+                }
             } else {
                 iterator = InMemoryBatchIterator.empty(SentinelRow.SENTINEL);
             }
+            return wrapWithProjections(collectPhase, collectTask, shardProjections, iterator);
+        }
+
+        private BatchIterator<Row> wrapWithProjections(RoutedCollectPhase collectPhase,
+                                                       CollectTask collectTask,
+                                                       Collection<? extends Projection> shardProjections,
+                                                       BatchIterator<Row> iterator) {
             return Projectors.wrap(
-                Projections.shardProjections(collectPhase.projections()),
+                shardProjections,
                 collectPhase.jobId(),
                 collectTask.txnCtx(),
                 collectTask.getRamAccounting(),
@@ -151,6 +197,30 @@ public abstract class ShardCollectorProvider {
         }
     }
 
+    /**
+     * Only partial aggregations can be split into multiple parts per shard because their results are merged
+     * with {@link io.crate.execution.engine.aggregation.AggregationFunction#reduce} anyway.
+     */
+    private static boolean isPartialAggregation(Collection<? extends Projection> shardProjections) {
+        if (shardProjections.isEmpty()) {
+            return false;
+        }
+        for (Projection projection : shardProjections) {
+            AggregateMode mode;
+            if (projection instanceof GroupProjection groupProjection) {
+                mode = groupProjection.mode();
+            } else if (projection instanceof AggregationProjection aggregationProjection) {
+                mode = aggregationProjection.mode();
+            } else {
+                return false;
+            }
+            if (mode != AggregateMode.ITER_PARTIAL) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public ShardRowContext shardRowContext() {
         return shardRowContext;
     }
@@ -173,6 +243,17 @@ public abstract class ShardCollectorProvider {
                                                                boolean requiresScroll,
                                                                CollectTask collectTask);
 
+    /**
+     * Returns up to {@code maxParts} iterators over disjoint subsets of the documents of the shard.
+     * Together they expose the same rows as {@link #getUnorderedIterator(RoutedCollectPhase, boolean, CollectTask)}
+     * and can be consumed concurrently.
+     */
+    protected List<BatchIterator<Row>> getUnorderedIterators(RoutedCollectPhase collectPhase,
+                                                             CollectTask collectTask,
+                                                             int maxParts) {
+        return List.of(getUnorderedIterator(collectPhase, false, collectTask));
+    }
+
     protected abstract OrderedDocCollector getOrderedCollector(RoutedCollectPhase collectPhase,
                                                                SharedShardContext sharedShardContext,
                                                                CollectTask collectTask,
@@ -0,0 +1,84 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.collectors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.index.LeafReaderContext;
+
+/**
+ * A range of documents {@code [minDoc, maxDoc)} within a leaf.
+ */
+public record LeafDocRange(LeafReaderContext leaf, int minDoc, int maxDoc) {
+
+    public static LeafDocRange of(LeafReaderContext leaf) {
+        return new LeafDocRange(leaf, 0, leaf.reader().maxDoc());
+    }
+
+    public boolean coversLeaf() {
+        return minDoc == 0 && maxDoc == leaf.reader().maxDoc();
+    }
+
+    /**
+     * Splits the documents of the leaves into up to {@code maxParts} parts of roughly the same number of documents,
+     * each with at least {@code minDocsPerPart} documents.
+     * Small leaves are grouped into one part, large leaves are split into multiple ranges.
+     */
+    public static List<List<LeafDocRange>> partition(List<LeafReaderContext> leaves, int maxParts, int minDocsPerPart) {
+        long totalDocs = 0;
+        for (LeafReaderContext leaf : leaves) {
+            totalDocs += leaf.reader().maxDoc();
+        }
+        int numParts = (int) Math.max(1, Math.min(maxParts, totalDocs / minDocsPerPart));
+        if (numParts == 1) {
+            List<LeafDocRange> ranges = new ArrayList<>(leaves.size());
+            for (LeafReaderContext leaf : leaves) {
+                ranges.add(of(leaf));
+            }
+            return List.of(ranges);
+        }
+        long docsPerPart = (totalDocs + numParts - 1) / numParts;
+        List<List<LeafDocRange>> parts = new ArrayList<>(numParts);
+        List<LeafDocRange> part = new ArrayList<>();
+        long remaining = docsPerPart;
+        for (LeafReaderContext leaf : leaves) {
+            int maxDoc = leaf.reader().maxDoc();
+            int start = 0;
+            while (start < maxDoc) {
+                int end = (int) Math.min(maxDoc, start + remaining);
+                part.add(new LeafDocRange(leaf, start, end));
+                remaining -= end - start;
+                start = end;
+                if (remaining == 0) {
+                    parts.add(part);
+                    part = new ArrayList<>();
+                    remaining = docsPerPart;
+                }
+            }
+        }
+        if (part.isEmpty() == false) {
+            parts.add(part);
+        }
+        return parts;
+    }
+}
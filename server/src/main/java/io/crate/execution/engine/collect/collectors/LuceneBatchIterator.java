@@ -42,6 +42,7 @@ import org.apache.lucene.util.Bits;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -52,23 +53,36 @@ import java.util.concurrent.CompletionStage;
  * It supports filtering the data using a lucene {@link Query} or via {@code minScore}.
  * <p>
  * Row data depends on {@code inputs} and {@code expressions}. The data is unordered.
+ * <p>
+ * If no scores are required, the matching documents are collected in blocks of up to {@link #BLOCK_SIZE} documents.
+ * The {@code expressions} can then load the values of a whole block at once,
+ * see {@link LuceneCollectorExpression#loadBlock(int[], int)}.
+ * <p>
+ * The iterator can be restricted to a subset of the documents, see {@link LeafDocRange#partition(List, int, int)}.
+ * This allows to collect a single shard with multiple iterators concurrently.
  */
 public class LuceneBatchIterator implements BatchIterator<Row> {
 
+    static final int BLOCK_SIZE = 256;
+
     private final IndexSearcher indexSearcher;
     private final Query query;
     private final CollectorContext collectorContext;
     private final boolean doScores;
     private final LuceneCollectorExpression[] expressions;
-    private final List<LeafReaderContext> leaves;
+    private final List<LeafDocRange> ranges;
     private final InputRow row;
     private Weight weight;
     private final Float minScore;
+    @Nullable
+    private final int[] blockDocs;
 
-    private Iterator<LeafReaderContext> leavesIt;
+    private Iterator<LeafDocRange> rangesIt;
     private LeafReaderContext currentLeaf;
     private Scorer currentScorer;
     private DocIdSetIterator currentDocIdSetIt;
+    private int blockSize = 0;
+    private int blockPos = 0;
     private volatile Throwable killed;
 
     public LuceneBatchIterator(IndexSearcher indexSearcher,
@@ -78,6 +92,26 @@ public class LuceneBatchIterator implements BatchIterator<Row> {
                                CollectorContext collectorContext,
                                List<? extends Input<?>> inputs,
                                Collection<? extends LuceneCollectorExpression<?>> expressions) {
+        this(
+            indexSearcher,
+            allDocs(indexSearcher.getTopReaderContext().leaves()),
+            query,
+            minScore,
+            doScores,
+            collectorContext,
+            inputs,
+            expressions
+        );
+    }
+
+    public LuceneBatchIterator(IndexSearcher indexSearcher,
+                               List<LeafDocRange> ranges,
+                               Query query,
+                               @Nullable Float minScore,
+                               boolean doScores,
+                               CollectorContext collectorContext,
+                               List<? extends Input<?>> inputs,
+                               Collection<? extends LuceneCollectorExpression<?>> expressions) {
         this.indexSearcher = indexSearcher;
         this.query = query;
         this.doScores = doScores || minScore != null;
@@ -85,8 +119,18 @@ public class LuceneBatchIterator implements BatchIterator<Row> {
         this.collectorContext = collectorContext;
         this.row = new InputRow(inputs);
         this.expressions = expressions.toArray(new LuceneCollectorExpression[0]);
-        leaves = indexSearcher.getTopReaderContext().leaves();
-        leavesIt = leaves.iterator();
+        // Scores must be read while the scorer is positioned on the document, so blocks can't be used
+        this.blockDocs = this.doScores ? null : new int[BLOCK_SIZE];
+        this.ranges = ranges;
+        rangesIt = ranges.iterator();
+    }
+
+    private static List<LeafDocRange> allDocs(List<LeafReaderContext> leaves) {
+        List<LeafDocRange> ranges = new ArrayList<>(leaves.size());
+        for (LeafReaderContext leaf : leaves) {
+            ranges.add(LeafDocRange.of(leaf));
+        }
+        return ranges;
     }
 
     @Override
@@ -97,7 +141,9 @@ public class LuceneBatchIterator implements BatchIterator<Row> {
     @Override
     public void moveToStart() {
         raiseIfKilled();
-        leavesIt = leaves.iterator();
+        rangesIt = ranges.iterator();
+        blockSize = 0;
+        blockPos = 0;
     }
 
     @Override
@@ -119,6 +165,17 @@ public class LuceneBatchIterator implements BatchIterator<Row> {
     }
 
     private boolean innerMoveNext() throws IOException {
+        if (blockDocs != null) {
+            while (blockPos >= blockSize) {
+                if (!loadNextBlock()) {
+                    clearState();
+                    return false;
+                }
+            }
+            onDoc(blockDocs[blockPos]);
+            blockPos++;
+            return true;
+        }
         while (tryAdvanceDocIdSetIterator()) {
             LeafReader reader = currentLeaf.reader();
             Bits liveDocs = reader.getLiveDocs();
@@ -136,6 +193,35 @@ public class LuceneBatchIterator implements BatchIterator<Row> {
         return false;
     }
 
+    /**
+     * Collects the next matching documents of the current leaf into {@link #blockDocs}.
+     * A block never spans multiple leaves.
+     */
+    private boolean loadNextBlock() throws IOException {
+        blockSize = 0;
+        blockPos = 0;
+        while (tryAdvanceDocIdSetIterator()) {
+            Bits liveDocs = currentLeaf.reader().getLiveDocs();
+            int doc;
+            while (blockSize < BLOCK_SIZE && (doc = currentDocIdSetIt.nextDoc()) != DocIdSetIterator.NO_MORE_DOCS) {
+                if (!docDeleted(liveDocs, doc)) {
+                    blockDocs[blockSize] = doc;
+                    blockSize++;
+                }
+            }
+            if (blockSize < BLOCK_SIZE) {
+                currentDocIdSetIt = null;
+            }
+            if (blockSize > 0) {
+                for (LuceneCollectorExpression<?> expression : expressions) {
+                    expression.loadBlock(blockDocs, blockSize);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
     private boolean belowMinScore(Scorer currentScorer) throws IOException {
         return minScore != null && currentScorer.score() < minScore;
     }
@@ -144,15 +230,18 @@ public class LuceneBatchIterator implements BatchIterator<Row> {
         if (currentDocIdSetIt != null) {
             return true;
         }
-        while (leavesIt.hasNext()) {
-            LeafReaderContext leaf = leavesIt.next();
+        while (rangesIt.hasNext()) {
+            LeafDocRange range = rangesIt.next();
+            LeafReaderContext leaf = range.leaf();
             Scorer scorer = weight.scorer(leaf);
             if (scorer == null) {
                 continue;
             }
             currentScorer = scorer;
             currentLeaf = leaf;
-            currentDocIdSetIt = scorer.iterator();
+            currentDocIdSetIt = range.coversLeaf()
+                ? scorer.iterator()
+                : new DocRangeIterator(scorer.iterator(), range.minDoc(), range.maxDoc());
             var readerContext = new ReaderContext(currentLeaf);
             for (LuceneCollectorExpression<?> expression : expressions) {
                 expression.setScorer(currentScorer);
@@ -164,6 +253,8 @@ public class LuceneBatchIterator implements BatchIterator<Row> {
     }
 
     private void clearState() {
+        blockSize = 0;
+        blockPos = 0;
         currentDocIdSetIt = null;
         currentScorer = null;
         currentLeaf = null;
@@ -211,6 +302,55 @@ public class LuceneBatchIterator implements BatchIterator<Row> {
         }
     }
 
+    /**
+     * Restricts a {@link DocIdSetIterator} to the documents within {@code [minDoc, maxDoc)}.
+     * The delegate stays positioned on the current document, so a {@link Scorer} can still be used to score it.
+     */
+    private static final class DocRangeIterator extends DocIdSetIterator {
+
+        private final DocIdSetIterator delegate;
+        private final int minDoc;
+        private final int maxDoc;
+        private int doc = -1;
+
+        private DocRangeIterator(DocIdSetIterator delegate, int minDoc, int maxDoc) {
+            this.delegate = delegate;
+            this.minDoc = minDoc;
+            this.maxDoc = maxDoc;
+        }
+
+        @Override
+        public int docID() {
+            return doc;
+        }
+
+        @Override
+        public int nextDoc() throws IOException {
+            return advance(doc + 1);
+        }
+
+        @Override
+        public int advance(int target) throws IOException {
+            int next = Math.max(target, minDoc);
+            int current = delegate.docID();
+            int delegateDoc;
+            if (current >= next) {
+                delegateDoc = current;
+            } else if (current + 1 == next) {
+                delegateDoc = delegate.nextDoc();
+            } else {
+                delegateDoc = delegate.advance(next);
+            }
+            doc = delegateDoc >= maxDoc ? NO_MORE_DOCS : delegateDoc;
+            return doc;
+        }
+
+        @Override
+        public long cost() {
+            return Math.min(delegate.cost(), maxDoc - minDoc);
+        }
+    }
+
     private void raiseIfKilled() {
         if (killed != null) {
             Exceptions.rethrowUnchecked(killed);
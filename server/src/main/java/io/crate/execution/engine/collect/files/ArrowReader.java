@@ -0,0 +1,516 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reads files using the arrow IPC file format (https://arrow.apache.org/docs/format/Columnar.html#ipc-file-format).
+ *
+ * <p>
+ * Supported are top level columns of the primitive, string and binary types. Columns using other types, dictionary
+ * encoded columns and compressed record batches fail once they are read.
+ * Only the buffers of the columns which are read are loaded from the file.
+ * </p>
+ */
+final class ArrowReader implements ColumnarReader {
+
+    private static final byte[] MAGIC = "ARROW1".getBytes(StandardCharsets.US_ASCII);
+
+    // Schema.fbs: Type
+    private static final int TYPE_NULL = 1;
+    private static final int TYPE_INT = 2;
+    private static final int TYPE_FLOATING_POINT = 3;
+    private static final int TYPE_BINARY = 4;
+    private static final int TYPE_UTF8 = 5;
+    private static final int TYPE_BOOL = 6;
+    private static final int TYPE_DECIMAL = 7;
+    private static final int TYPE_DATE = 8;
+    private static final int TYPE_TIMESTAMP = 10;
+    private static final int TYPE_LIST = 12;
+    private static final int TYPE_STRUCT = 13;
+    private static final int TYPE_UNION = 14;
+    private static final int TYPE_FIXED_SIZE_LIST = 16;
+    private static final int TYPE_MAP = 17;
+    private static final int TYPE_LARGE_BINARY = 19;
+    private static final int TYPE_LARGE_UTF8 = 20;
+    private static final int TYPE_LARGE_LIST = 21;
+    private static final int TYPE_RUN_END_ENCODED = 22;
+    private static final int TYPE_BINARY_VIEW = 23;
+    private static final int TYPE_UTF8_VIEW = 24;
+    private static final int TYPE_LIST_VIEW = 25;
+    private static final int TYPE_LARGE_LIST_VIEW = 26;
+
+    // Message.fbs: MessageHeader
+    private static final int HEADER_RECORD_BATCH = 3;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private record Field(String name,
+                         int type,
+                         @Nullable Table typeTable,
+                         boolean dictionaryEncoded,
+                         List<Field> children) {
+    }
+
+    private record Block(long offset, int metaDataLength, long bodyLength) {
+    }
+
+    private record Buffer(long offset, long length) {
+    }
+
+    private final FileChannel channel;
+    private final List<Field> fields;
+    private final List<String> columnNames;
+    private final List<Block> recordBatches;
+
+    ArrowReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        int minSize = 2 * MAGIC.length + 2 + 4;
+        if (size < minSize) {
+            throw new IOException("Not an arrow file, the file is too small");
+        }
+        ByteBuffer tail = read(size - MAGIC.length - 4, MAGIC.length + 4);
+        if (!hasMagic(tail, 4) || !hasMagic(read(0, MAGIC.length), 0)) {
+            throw new IOException("Not an arrow file, the magic number is missing");
+        }
+        int footerLength = tail.getInt(0);
+        if (footerLength <= 0 || footerLength > size - minSize) {
+            throw new IOException("Invalid arrow footer length: " + footerLength);
+        }
+        Table footer = Table.root(read(size - MAGIC.length - 4 - footerLength, footerLength));
+        Table schema = footer.table(1);
+        if (schema == null) {
+            throw new IOException("Invalid arrow footer, the schema is missing");
+        }
+        this.fields = readFields(schema, 1);
+        this.columnNames = fields.stream().map(Field::name).toList();
+        int numBatches = footer.vectorLength(3);
+        int batchesStart = footer.vectorStart(3);
+        this.recordBatches = new ArrayList<>(numBatches);
+        ByteBuffer buffer = footer.buffer;
+        for (int i = 0; i < numBatches; i++) {
+            // struct Block { offset: long; metaDataLength: int; <padding>; bodyLength: long; }
+            int pos = batchesStart + i * 24;
+            recordBatches.add(new Block(buffer.getLong(pos), buffer.getInt(pos + 8), buffer.getLong(pos + 16)));
+        }
+    }
+
+    private static List<Field> readFields(Table table, int field) throws IOException {
+        int numFields = table.vectorLength(field);
+        List<Field> result = new ArrayList<>(numFields);
+        for (int i = 0; i < numFields; i++) {
+            Table fieldTable = table.tableAt(field, i);
+            String name = fieldTable.string(0);
+            result.add(new Field(
+                name == null ? "" : name,
+                fieldTable.getByte(2, (byte) 0) & 0xFF,
+                fieldTable.table(3),
+                fieldTable.table(4) != null,
+                readFields(fieldTable, 5)
+            ));
+        }
+        return result;
+    }
+
+    @Override
+    public List<String> columns() {
+        return columnNames;
+    }
+
+    @Override
+    public int numBlocks() {
+        return recordBatches.size();
+    }
+
+    @Override
+    public long numRows(int block) throws IOException {
+        return readRecordBatch(recordBatches.get(block)).getLong(0, 0L);
+    }
+
+    /**
+     * Reads the RecordBatch message of a block, the message is prefixed by its length
+     */
+    private Table readRecordBatch(Block block) throws IOException {
+        ByteBuffer metadata = read(block.offset, block.metaDataLength);
+        int prefix = 4;
+        int length = metadata.getInt(0);
+        if (length == -1) {
+            // continuation marker, followed by the length
+            prefix = 8;
+            length = metadata.getInt(4);
+        }
+        if (length <= 0 || length > block.metaDataLength - prefix) {
+            throw new IOException("Invalid arrow message length: " + length);
+        }
+        Table message = Table.root(metadata.slice(prefix, length));
+        Table recordBatch = message.table(2);
+        if (message.getByte(1, (byte) 0) != HEADER_RECORD_BATCH || recordBatch == null) {
+            throw new IOException("Invalid arrow file, expected a record batch");
+        }
+        return recordBatch;
+    }
+
+    @Override
+    public List<ColumnValues> readBlock(int blockIdx, List<Integer> columnIndices) throws IOException {
+        Block block = recordBatches.get(blockIdx);
+        Table recordBatch = readRecordBatch(block);
+        if (recordBatch.table(3) != null) {
+            throw new IOException("Compressed arrow record batches are not supported");
+        }
+        int nodesStart = recordBatch.vectorStart(1);
+        int buffersStart = recordBatch.vectorStart(2);
+        int numBuffers = recordBatch.vectorLength(2);
+        int variadicStart = recordBatch.vectorStart(4);
+        int numVariadic = recordBatch.vectorLength(4);
+        ByteBuffer batch = recordBatch.buffer;
+
+        // The nodes and buffers of all fields are stored in a flat list in depth first order
+        int[] firstNode = new int[fields.size()];
+        int[] firstBuffer = new int[fields.size()];
+        int[] position = new int[3]; // node, buffer, variadic buffer count
+        for (int i = 0; i < fields.size(); i++) {
+            firstNode[i] = position[0];
+            firstBuffer[i] = position[1];
+            advance(fields.get(i), position, batch, variadicStart, numVariadic);
+        }
+
+        long bodyStart = block.offset + block.metaDataLength;
+        List<ColumnValues> values = new ArrayList<>(columnIndices.size());
+        for (int idx : columnIndices) {
+            Field field = fields.get(idx);
+            String unsupported = unsupported(field);
+            if (unsupported != null) {
+                throw new IOException(String.format(
+                    Locale.ENGLISH, "Column \"%s\" is not supported: %s", field.name, unsupported));
+            }
+            long nullCount = batch.getLong(nodesStart + firstNode[idx] * 16 + 8);
+            int numFieldBuffers = isVariableLength(field.type) ? 3 : 2;
+            ByteBuffer[] buffers = new ByteBuffer[numFieldBuffers];
+            for (int b = 0; b < numFieldBuffers; b++) {
+                int bufferIdx = firstBuffer[idx] + b;
+                if (bufferIdx >= numBuffers) {
+                    throw new IOException("Invalid arrow record batch, buffers are missing");
+                }
+                Buffer buffer = new Buffer(
+                    batch.getLong(buffersStart + bufferIdx * 16),
+                    batch.getLong(buffersStart + bufferIdx * 16 + 8)
+                );
+                if (buffer.offset + buffer.length > block.bodyLength) {
+                    throw new IOException("Invalid arrow buffer, it exceeds the record batch");
+                }
+                buffers[b] = read(bodyStart + buffer.offset, Math.toIntExact(buffer.length));
+            }
+            values.add(new ArrayValues(field, nullCount > 0 ? buffers[0] : null, buffers));
+        }
+        return values;
+    }
+
+    /**
+     * Moves the node and buffer positions beyond the given field and its children
+     */
+    private static void advance(Field field,
+                                int[] position,
+                                ByteBuffer batch,
+                                int variadicStart,
+                                int numVariadic) throws IOException {
+        position[0]++;
+        if (field.dictionaryEncoded) {
+            // the indices of the dictionary are stored as integers
+            position[1] += 2;
+            return;
+        }
+        position[1] += switch (field.type) {
+            case TYPE_NULL, TYPE_RUN_END_ENCODED -> 0;
+            case TYPE_STRUCT, TYPE_FIXED_SIZE_LIST -> 1;
+            case TYPE_BINARY, TYPE_UTF8, TYPE_LARGE_BINARY, TYPE_LARGE_UTF8 -> 3;
+            case TYPE_LIST_VIEW, TYPE_LARGE_LIST_VIEW -> 3;
+            case TYPE_UNION -> {
+                // Union.mode: Sparse = 0 (type ids), Dense = 1 (type ids and offsets)
+                short mode = field.typeTable == null ? 0 : field.typeTable.getShort(0, (short) 0);
+                yield mode == 0 ? 1 : 2;
+            }
+            case TYPE_BINARY_VIEW, TYPE_UTF8_VIEW -> {
+                if (position[2] >= numVariadic) {
+                    throw new IOException("Invalid arrow record batch, variadic buffer counts are missing");
+                }
+                yield Math.toIntExact(2 + batch.getLong(variadicStart + 8 * position[2]++));
+            }
+            default -> 2;
+        };
+        for (Field child : field.children) {
+            advance(child, position, batch, variadicStart, numVariadic);
+        }
+    }
+
+    @Nullable
+    private static String unsupported(Field field) {
+        if (field.dictionaryEncoded) {
+            return "dictionary encoded columns are not supported";
+        }
+        return switch (field.type) {
+            case TYPE_INT, TYPE_BOOL, TYPE_DATE, TYPE_TIMESTAMP,
+                TYPE_BINARY, TYPE_UTF8, TYPE_LARGE_BINARY, TYPE_LARGE_UTF8 -> null;
+            case TYPE_FLOATING_POINT, TYPE_DECIMAL -> null;
+            case TYPE_LIST, TYPE_LARGE_LIST, TYPE_FIXED_SIZE_LIST, TYPE_MAP, TYPE_STRUCT, TYPE_UNION ->
+                "nested columns are not supported";
+            default -> "arrow type " + field.type + " is not supported";
+        };
+    }
+
+    private static boolean isVariableLength(int type) {
+        return type == TYPE_BINARY || type == TYPE_UTF8 || type == TYPE_LARGE_BINARY || type == TYPE_LARGE_UTF8;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of arrow file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static boolean hasMagic(ByteBuffer buffer, int offset) {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(offset + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The values of a column within a record batch
+     */
+    private static final class ArrayValues implements ColumnValues {
+
+        private final Field field;
+        @Nullable
+        private final ByteBuffer validity;
+        private final ByteBuffer[] buffers;
+        private final Table typeTable;
+        private int row = 0;
+
+        private ArrayValues(Field field, @Nullable ByteBuffer validity, ByteBuffer[] buffers) throws IOException {
+            this.field = field;
+            this.validity = validity;
+            this.buffers = buffers;
+            if (field.typeTable == null && field.type != TYPE_BOOL && !isVariableLength(field.type)) {
+                throw new IOException("Invalid arrow field \"" + field.name + "\", the type is missing");
+            }
+            this.typeTable = field.typeTable;
+        }
+
+        @Override
+        public Object next() throws IOException {
+            int i = row++;
+            if (validity != null && (validity.get(i >>> 3) & (1 << (i & 7))) == 0) {
+                return null;
+            }
+            ByteBuffer data = buffers[1];
+            try {
+                return switch (field.type) {
+                    case TYPE_INT -> readInt(data, i);
+                    case TYPE_FLOATING_POINT -> switch (typeTable.getShort(0, (short) 0)) {
+                        case 0 -> Float.float16ToFloat(data.getShort(i * 2));
+                        case 1 -> data.getFloat(i * 4);
+                        default -> data.getDouble(i * 8);
+                    };
+                    case TYPE_BOOL -> (data.get(i >>> 3) & (1 << (i & 7))) != 0;
+                    case TYPE_DATE -> typeTable.getShort(0, (short) 1) == 0
+                        ? data.getInt(i * 4) * MILLIS_PER_DAY
+                        : data.getLong(i * 8);
+                    case TYPE_TIMESTAMP -> readTimestamp(data, i);
+                    case TYPE_DECIMAL -> {
+                        int byteWidth = typeTable.getInt(2, 128) / 8;
+                        byte[] bytes = new byte[byteWidth];
+                        for (int b = 0; b < byteWidth; b++) {
+                            // little endian two's complement
+                            bytes[byteWidth - 1 - b] = data.get(i * byteWidth + b);
+                        }
+                        yield new BigDecimal(new BigInteger(bytes), typeTable.getInt(1, 0));
+                    }
+                    case TYPE_BINARY, TYPE_UTF8 -> string(data.getInt(i * 4), data.getInt(i * 4 + 4));
+                    case TYPE_LARGE_BINARY, TYPE_LARGE_UTF8 ->
+                        string(Math.toIntExact(data.getLong(i * 8)), Math.toIntExact(data.getLong(i * 8 + 8)));
+                    default -> throw new IOException("Unsupported arrow type: " + field.type);
+                };
+            } catch (IndexOutOfBoundsException e) {
+                throw new IOException("Invalid arrow buffer of column \"" + field.name + "\"", e);
+            }
+        }
+
+        private Object readInt(ByteBuffer data, int i) {
+            int bitWidth = typeTable.getInt(0, 32);
+            boolean signed = typeTable.getBool(1, false);
+            return switch (bitWidth) {
+                case 8 -> signed ? (Object) data.get(i) : (Object) (short) (data.get(i) & 0xFF);
+                case 16 -> signed ? (Object) data.getShort(i * 2) : (Object) (data.getShort(i * 2) & 0xFFFF);
+                case 32 -> signed ? (Object) data.getInt(i * 4) : (Object) (data.getInt(i * 4) & 0xFFFFFFFFL);
+                default -> data.getLong(i * 8);
+            };
+        }
+
+        /**
+         * @return the timestamp in milliseconds, converted from the unit of the column
+         */
+        private long readTimestamp(ByteBuffer data, int i) {
+            long value = data.getLong(i * 8);
+            return switch (typeTable.getShort(0, (short) 0)) {
+                case 0 -> value * 1000L; // seconds
+                case 1 -> value;
+                case 2 -> Math.floorDiv(value, 1000L); // microseconds
+                default -> Math.floorDiv(value, 1_000_000L); // nanoseconds
+            };
+        }
+
+        private String string(int start, int end) {
+            byte[] bytes = new byte[end - start];
+            buffers[2].get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * A flatbuffers table (https://flatbuffers.dev/md__internals.html)
+     */
+    private static final class Table {
+
+        private final ByteBuffer buffer;
+        private final int position;
+        private final int vtable;
+        private final int vtableSize;
+
+        private Table(ByteBuffer buffer, int position) throws IOException {
+            if (position < 0 || position + 4 > buffer.limit()) {
+                throw new IOException("Invalid flatbuffers table offset: " + position);
+            }
+            this.buffer = buffer;
+            this.position = position;
+            this.vtable = position - buffer.getInt(position);
+            if (vtable < 0 || vtable + 4 > buffer.limit()) {
+                throw new IOException("Invalid flatbuffers vtable offset: " + vtable);
+            }
+            this.vtableSize = buffer.getShort(vtable) & 0xFFFF;
+        }
+
+        static Table root(ByteBuffer buffer) throws IOException {
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return new Table(buffer, buffer.getInt(0));
+        }
+
+        /**
+         * @return the absolute position of the field or 0 if it is absent
+         */
+        private int field(int field) {
+            int vtableOffset = 4 + 2 * field;
+            if (vtableOffset >= vtableSize) {
+                return 0;
+            }
+            int offset = buffer.getShort(vtable + vtableOffset) & 0xFFFF;
+            return offset == 0 ? 0 : position + offset;
+        }
+
+        private int indirect(int pos) {
+            return pos + buffer.getInt(pos);
+        }
+
+        byte getByte(int field, byte defaultValue) {
+            int pos = field(field);
+            return pos == 0 ? defaultValue : buffer.get(pos);
+        }
+
+        boolean getBool(int field, boolean defaultValue) {
+            int pos = field(field);
+            return pos == 0 ? defaultValue : buffer.get(pos) != 0;
+        }
+
+        short getShort(int field, short defaultValue) {
+            int pos = field(field);
+            return pos == 0 ? defaultValue : buffer.getShort(pos);
+        }
+
+        int getInt(int field, int defaultValue) {
+            int pos = field(field);
+            return pos == 0 ? defaultValue : buffer.getInt(pos);
+        }
+
+        long getLong(int field, long defaultValue) {
+            int pos = field(field);
+            return pos == 0 ? defaultValue : buffer.getLong(pos);
+        }
+
+        @Nullable
+        String string(int field) {
+            int pos = field(field);
+            if (pos == 0) {
+                return null;
+            }
+            int start = indirect(pos);
+            byte[] bytes = new byte[buffer.getInt(start)];
+            buffer.get(start + 4, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Nullable
+        Table table(int field) throws IOException {
+            int pos = field(field);
+            return pos == 0 ? null : new Table(buffer, indirect(pos));
+        }
+
+        int vectorLength(int field) {
+            int pos = field(field);
+            return pos == 0 ? 0 : buffer.getInt(indirect(pos));
+        }
+
+        /**
+         * @return the absolute position of the first element of the vector
+         */
+        int vectorStart(int field) {
+            int pos = field(field);
+            return pos == 0 ? 0 : indirect(pos) + 4;
+        }
+
+        Table tableAt(int field, int idx) throws IOException {
+            return new Table(buffer, indirect(vectorStart(field) + idx * 4));
+        }
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.settings.Settings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.common.exceptions.Exceptions;
+import io.crate.data.BatchIterator;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.execution.dsl.phases.FileUriCollectPhase.InputFormat;
+import io.crate.execution.engine.collect.files.FileReadingIterator.LineCursor;
+import io.crate.expression.InputRow;
+import io.crate.expression.reference.file.ColumnExtractingLineExpression;
+import io.crate.expression.reference.file.LineContext;
+import io.crate.expression.reference.file.SourceAsMapLineExpression;
+import io.crate.expression.reference.file.SourceLineExpression;
+import io.crate.expression.reference.file.SourceUriFailureExpression;
+
+/**
+ * BatchIterator to read the rows of files using a columnar format ({@link InputFormat#PARQUET},
+ * {@link InputFormat#ARROW}) from one or more {@link URI}s.
+ *
+ * <p>
+ * Unlike {@link FileReadingIterator} combined with {@link LineProcessor}, the rows are not parsed from JSON:
+ * Only the columns referenced by the collected expressions are read from the files and their values are exposed
+ * to the expressions using {@link LineContext#source(LinkedHashMap)}.
+ * </p>
+ *
+ * <p>
+ * Files on shared storage are split by their blocks (row groups, record batches), so that the nodes
+ * read disjunct blocks of the same file instead of whole files.
+ * Files which are not accessible using the local file system are copied to a temporary file first,
+ * as the columnar formats require random access.
+ * </p>
+ */
+public final class ColumnarFileReadingIterator implements BatchIterator<Row> {
+
+    private static final Logger LOGGER = LogManager.getLogger(ColumnarFileReadingIterator.class);
+
+    private final InputFormat inputFormat;
+    private final Boolean shared;
+    private final int numReaders;
+    private final int readerNumber;
+    private final List<FileInput> fileInputs;
+    private final LineCursor cursor = new LineCursor();
+    private final LineContext lineContext;
+    private final InputRow row;
+    private final boolean readAllColumns;
+    private final Set<String> requiredColumns = new HashSet<>();
+    private final boolean collectFailures;
+
+    private volatile Throwable killed;
+
+    private Iterator<FileInput> fileInputsIterator;
+    private FileInput currentInput = null;
+    private Iterator<URI> currentInputUriIterator = null;
+    private boolean currentInputShared;
+
+    @Nullable
+    private ColumnarReader reader = null;
+    @Nullable
+    private Path tempFile = null;
+    private List<String> columnNames = List.of();
+    private List<Integer> columnIndices = List.of();
+    private int block;
+    @Nullable
+    private List<ColumnarReader.ColumnValues> blockValues = null;
+    private long remainingBlockRows;
+    private long rowNumber;
+
+    public ColumnarFileReadingIterator(Collection<String> fileUris,
+                                       InputFormat inputFormat,
+                                       Map<String, FileInputFactory> fileInputFactories,
+                                       Boolean shared,
+                                       int numReaders,
+                                       int readerNumber,
+                                       Settings withClauseOptions,
+                                       List<Input<?>> inputs,
+                                       List<LineCollectorExpression<?>> expressions) {
+        assert inputFormat == InputFormat.PARQUET || inputFormat == InputFormat.ARROW
+            : "ColumnarFileReadingIterator requires a columnar input format, got: " + inputFormat;
+        this.inputFormat = inputFormat;
+        this.shared = shared;
+        this.numReaders = numReaders;
+        this.readerNumber = readerNumber;
+        this.row = new InputRow(inputs);
+        this.lineContext = new LineContext(cursor);
+        boolean readAllColumns = false;
+        boolean collectFailures = false;
+        for (LineCollectorExpression<?> expression : expressions) {
+            expression.startCollect(lineContext);
+            if (expression instanceof ColumnExtractingLineExpression columnExpression) {
+                requiredColumns.add(columnExpression.columnIdent().name());
+            } else if (expression instanceof SourceLineExpression || expression instanceof SourceAsMapLineExpression) {
+                readAllColumns = true;
+            } else if (expression instanceof SourceUriFailureExpression) {
+                collectFailures = true;
+            }
+        }
+        this.readAllColumns = readAllColumns;
+        this.collectFailures = collectFailures;
+        this.fileInputs = fileUris.stream()
+            .map(uri -> FileReadingIterator.toFileInput(fileInputFactories, uri, withClauseOptions))
+            .filter(Objects::nonNull)
+            .toList();
+        this.fileInputsIterator = fileInputs.iterator();
+    }
+
+    @Override
+    public Row currentElement() {
+        return row;
+    }
+
+    @Override
+    public void kill(@NotNull Throwable throwable) {
+        killed = throwable;
+    }
+
+    @Override
+    public void moveToStart() {
+        raiseIfKilled();
+        reset();
+        fileInputsIterator = fileInputs.iterator();
+    }
+
+    @Override
+    public boolean moveNext() {
+        raiseIfKilled();
+        try {
+            while (true) {
+                if (blockValues != null && remainingBlockRows > 0) {
+                    readRow();
+                    return true;
+                } else if (reader != null && nextBlock()) {
+                    continue;
+                }
+                closeReader();
+                if (currentInputUriIterator != null && currentInputUriIterator.hasNext()) {
+                    openReader(currentInputUriIterator.next());
+                } else if (fileInputsIterator != null && fileInputsIterator.hasNext()) {
+                    advanceToNextFileInput();
+                } else {
+                    reset();
+                    return false;
+                }
+            }
+        } catch (IOException e) {
+            closeReader();
+            if (!collectFailures) {
+                throw new UncheckedIOException(
+                    String.format(Locale.ENGLISH, "Failed to read %s file %s", inputFormat, cursor.uri()), e);
+            }
+            // Let consumers collect the error, this is used for RETURN SUMMARY of COPY FROM
+            cursor.failure(e);
+            lineContext.rawSource(null);
+            return true;
+        }
+    }
+
+    private void readRow() throws IOException {
+        LinkedHashMap<String, Object> source = new LinkedHashMap<>();
+        for (int i = 0; i < blockValues.size(); i++) {
+            source.put(columnNames.get(columnIndices.get(i)), blockValues.get(i).next());
+        }
+        remainingBlockRows--;
+        rowNumber++;
+        cursor.line(rowNumber, null);
+        lineContext.resetCurrentParsingFailure();
+        lineContext.source(source);
+    }
+
+    /**
+     * Loads the next block of the current file which is read by this node
+     *
+     * @return false if there are no more blocks
+     */
+    private boolean nextBlock() throws IOException {
+        blockValues = null;
+        while (++block < reader.numBlocks()) {
+            if (currentInputShared && Math.floorMod(cursor.uri().hashCode() + block, numReaders) != readerNumber) {
+                // keep the row numbers consistent with the position of the rows within the file
+                rowNumber += reader.numRows(block);
+                continue;
+            }
+            remainingBlockRows = reader.numRows(block);
+            blockValues = reader.readBlock(block, columnIndices);
+            return true;
+        }
+        return false;
+    }
+
+    private void advanceToNextFileInput() throws IOException {
+        currentInput = fileInputsIterator.next();
+        currentInputShared = Objects.requireNonNullElse(shared, currentInput.sharedStorageDefault());
+        List<URI> uris = currentInput.expandUri();
+        if (uris.size() > 0) {
+            currentInputUriIterator = uris.iterator();
+        } else if (currentInput.isGlobbed()) {
+            URI uri = currentInput.uri();
+            cursor.uri(uri);
+            throw new IOException("Cannot find any URI matching: " + uri.toString());
+        }
+    }
+
+    private void openReader(URI uri) throws IOException {
+        cursor.uri(uri);
+        cursor.line(0, null);
+        rowNumber = 0;
+        block = -1;
+        FileChannel channel;
+        if ("file".equals(uri.getScheme())) {
+            channel = FileChannel.open(Paths.get(uri), StandardOpenOption.READ);
+        } else {
+            tempFile = Files.createTempFile("copy_from_", "." + inputFormat.name().toLowerCase(Locale.ENGLISH));
+            try (InputStream stream = currentInput.getStream(uri)) {
+                Files.copy(stream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            channel = FileChannel.open(tempFile, StandardOpenOption.READ);
+        }
+        try {
+            reader = inputFormat == InputFormat.PARQUET ? new ParquetReader(channel) : new ArrowReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        columnNames = reader.columns();
+        columnIndices = new ArrayList<>(columnNames.size());
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (readAllColumns || requiredColumns.contains(columnNames.get(i))) {
+                columnIndices.add(i);
+            }
+        }
+    }
+
+    private void closeReader() {
+        blockValues = null;
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                LOGGER.error("Unable to close reader for " + cursor.uri(), e);
+            }
+            reader = null;
+        }
+        if (tempFile != null) {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                LOGGER.error("Unable to delete temporary file " + tempFile, e);
+            }
+            tempFile = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        closeReader();
+        reset();
+        killed = BatchIterator.CLOSED;
+    }
+
+    private void reset() {
+        closeReader();
+        fileInputsIterator = null;
+        currentInputUriIterator = null;
+        currentInput = null;
+        cursor.failure(null);
+    }
+
+    @Override
+    public CompletableFuture<?> loadNextBatch() throws Exception {
+        throw new IllegalStateException("All batches already loaded");
+    }
+
+    @Override
+    public boolean allLoaded() {
+        return true;
+    }
+
+    @Override
+    public boolean hasLazyResultSet() {
+        return true;
+    }
+
+    private void raiseIfKilled() {
+        if (killed != null) {
+            Exceptions.rethrowUnchecked(killed);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reads a file of a columnar format. The rows of the file are stored in blocks (row groups of parquet files,
+ * record batches of arrow files) which can be read independently of each other and column by column.
+ */
+interface ColumnarReader extends Closeable {
+
+    /**
+     * @return the names of the top level columns of the file
+     */
+    List<String> columns();
+
+    int numBlocks();
+
+    long numRows(int block) throws IOException;
+
+    /**
+     * Reads the values of the given columns of a block
+     *
+     * @param columns the indices of the columns within {@link #columns()} to read
+     * @return the values of each of the given columns. They must be consumed in order, one value for each row.
+     */
+    List<ColumnValues> readBlock(int block, List<Integer> columns) throws IOException;
+
+    interface ColumnValues {
+
+        /**
+         * @return the value of the next row, converted to the java type used for the corresponding CrateDB type
+         *         (e.g. Long with milliseconds since epoch for timestamps)
+         */
+        @Nullable
+        Object next() throws IOException;
+    }
+}
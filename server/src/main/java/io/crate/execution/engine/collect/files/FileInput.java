@@ -38,6 +38,30 @@ public interface FileInput {
 
     InputStream getStream(URI uri) throws IOException;
 
+    /**
+     * Opens a stream of the byte range {@code [start, end)} of the file.
+     * This is used to read the splits of a file, see {@link #size(URI)}.
+     * Implementations which can't request a range may return a stream which continues after {@code end}.
+     */
+    default InputStream getStream(URI uri, long start, long end) throws IOException {
+        InputStream stream = getStream(uri);
+        try {
+            stream.skipNBytes(start);
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+        return stream;
+    }
+
+    /**
+     * @return the size of the file in bytes or -1 if the size is unknown.
+     *         Only files with a known size can be split into byte ranges which are read independently.
+     */
+    default long size(URI uri) throws IOException {
+        return -1;
+    }
+
     boolean isGlobbed();
 
     URI uri();
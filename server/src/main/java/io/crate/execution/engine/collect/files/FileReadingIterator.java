@@ -32,8 +32,10 @@ import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -50,6 +52,7 @@ import org.elasticsearch.common.settings.Settings;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import io.crate.analyze.CopyStatementSettings;
 import io.crate.common.annotations.VisibleForTesting;
 import io.crate.common.exceptions.Exceptions;
 import io.crate.common.unit.TimeValue;
@@ -65,6 +68,11 @@ import io.crate.data.BatchIterator;
  * </p>
  *
  * <p>
+ * Large uncompressed files on shared storage can be split into byte ranges of {@link CopyStatementSettings#SPLIT_SIZE},
+ * which are distributed across the readers. See {@link SplitInputStream} for how the lines are assigned to splits.
+ * </p>
+ *
+ * <p>
  * The iterator automatically retries reading on
  * @{link {@link SocketException} or {@link SocketTimeoutException}
  * </p>
@@ -91,14 +99,17 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
     private final int numReaders;
     private final int readerNumber;
     private final boolean compressed;
+    private final long splitSize;
     private final List<FileInput> fileInputs;
 
     private volatile Throwable killed;
 
     private Iterator<FileInput> fileInputsIterator = null;
     private FileInput currentInput = null;
-    private Iterator<URI> currentInputUriIterator = null;
+    private Iterator<Split> currentInputSplitIterator = null;
+    private Split currentSplit = null;
     private BufferedReader currentReader = null;
+    private boolean firstSplit = true;
 
     @VisibleForTesting
     long watermark;
@@ -107,11 +118,25 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
     private final ScheduledExecutorService scheduler;
     private final Iterator<TimeValue> backOffPolicy;
 
+    /**
+     * A byte range of a file. Files which are not split are covered by a single split.
+     *
+     * @param size the size of the file, -1 if the file is not split
+     */
+    record Split(URI uri, long start, long end, long size) {
+
+        static Split of(URI uri) {
+            return new Split(uri, 0, Long.MAX_VALUE, -1);
+        }
+    }
+
     public static class LineCursor {
         private URI uri;
         private long lineNumber;
         private String line;
         private IOException failure;
+        private String header;
+        private LinkedHashMap<String, Object> source;
 
         public LineCursor() {
         }
@@ -141,19 +166,69 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
             return failure;
         }
 
+        /**
+         * @return the already decoded values of the row, by column name, if the input doesn't consist of lines
+         *         but of rows, see {@link StdinInput#add(LinkedHashMap, int)}. The line is null in that case.
+         */
+        @Nullable
+        public LinkedHashMap<String, Object> source() {
+            return source;
+        }
+
+        /**
+         * @return the first line of the file if the cursor points to a split which doesn't start at the
+         *         beginning of the file and which is the first split read by the iterator.
+         *         The line numbers of such a split are relative to its start.
+         */
+        @Nullable
+        public String header() {
+            return header;
+        }
+
+        /**
+         * Points the cursor to a line of the current uri.
+         */
+        void line(long lineNumber, String line) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.failure = null;
+            this.source = null;
+        }
+
+        /**
+         * Points the cursor to an already decoded row.
+         */
+        void source(long lineNumber, LinkedHashMap<String, Object> source) {
+            this.lineNumber = lineNumber;
+            this.line = null;
+            this.failure = null;
+            this.source = source;
+        }
+
+        void uri(URI uri) {
+            this.uri = uri;
+        }
+
+        void failure(@Nullable IOException failure) {
+            this.failure = failure;
+        }
+
         @VisibleForTesting
         public LineCursor copy() {
-            return new LineCursor(uri, lineNumber, line, failure);
+            LineCursor copy = new LineCursor(uri, lineNumber, line, failure);
+            copy.header = header;
+            copy.source = source;
+            return copy;
         }
 
         @Override
         public String toString() {
-            return "LineCursor{" + uri + ":" + lineNumber + ":line=" + line + ", failure=" + failure + "}";
+            return "LineCursor{" + uri + ":" + lineNumber + ":line=" + line + ", source=" + source + ", failure=" + failure + "}";
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(uri, lineNumber, line, failure);
+            return Objects.hash(uri, lineNumber, line, failure, source);
         }
 
         @Override
@@ -171,7 +246,8 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
             return Objects.equals(uri, other.uri)
                 && lineNumber == other.lineNumber
                 && Objects.equals(line, other.line)
-                && Objects.equals(failure, other.failure);
+                && Objects.equals(failure, other.failure)
+                && Objects.equals(source, other.source);
         }
     }
 
@@ -184,6 +260,10 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
                                Settings withClauseOptions,
                                ScheduledExecutorService scheduler) {
         this.compressed = compression != null && compression.equalsIgnoreCase("gzip");
+        // skipping lines refers to the first lines read by a reader, which can't be combined with splits
+        this.splitSize = CopyStatementSettings.SKIP_NUM_LINES.get(withClauseOptions) > 0
+            ? 0
+            : CopyStatementSettings.SPLIT_SIZE.get(withClauseOptions).getBytes();
         this.fileInputFactories = fileInputFactories;
         this.cursor = new LineCursor();
         this.shared = shared;
@@ -193,7 +273,7 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
         this.backOffPolicy = BackoffPolicy.exponentialBackoff(TimeValue.ZERO, MAX_SOCKET_TIMEOUT_RETRIES).iterator();
 
         this.fileInputs = fileUris.stream()
-            .map(uri -> toFileInput(uri, withClauseOptions))
+            .map(uri -> toFileInput(fileInputFactories, uri, withClauseOptions))
             .filter(Objects::nonNull)
             .toList();
         fileInputsIterator = fileInputs.iterator();
@@ -214,6 +294,7 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
         raiseIfKilled();
         reset();
         watermark = 0;
+        firstSplit = true;
         fileInputsIterator = fileInputs.iterator();
     }
 
@@ -238,8 +319,8 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
                 cursor.line = line;
                 cursor.failure = null;
                 return true;
-            } else if (currentInputUriIterator != null && currentInputUriIterator.hasNext()) {
-                advanceToNextUri(currentInput);
+            } else if (currentInputSplitIterator != null && currentInputSplitIterator.hasNext()) {
+                advanceToNextSplit(currentInput);
                 return moveNext();
             } else if (fileInputsIterator != null && fileInputsIterator.hasNext()) {
                 advanceToNextFileInput();
@@ -260,17 +341,31 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
         }
     }
 
-    private void advanceToNextUri(FileInput fileInput) throws IOException {
+    private void advanceToNextSplit(FileInput fileInput) throws IOException {
         watermark = 0;
-        createReader(fileInput, currentInputUriIterator.next());
+        currentSplit = currentInputSplitIterator.next();
+        cursor.header = null;
+        if (firstSplit && currentSplit.start > 0) {
+            // the first line of a CSV file is the header which is required to parse the lines of the split
+            cursor.uri = currentSplit.uri;
+            cursor.lineNumber = 0;
+            try (BufferedReader reader = createBufferedReader(fileInput.getStream(currentSplit.uri))) {
+                cursor.header = reader.readLine();
+            }
+        }
+        firstSplit = false;
+        createReader(fileInput, currentSplit);
     }
 
     private void advanceToNextFileInput() throws IOException {
         currentInput = fileInputsIterator.next();
-        List<URI> uris = currentInput.expandUri().stream().filter(this::shouldBeReadByCurrentNode).toList();
-        if (uris.size() > 0) {
-            currentInputUriIterator = uris.iterator();
-            advanceToNextUri(currentInput);
+        List<Split> splits = new ArrayList<>();
+        for (URI uri : currentInput.expandUri()) {
+            addSplitsReadByCurrentNode(uri, splits);
+        }
+        if (splits.size() > 0) {
+            currentInputSplitIterator = splits.iterator();
+            advanceToNextSplit(currentInput);
         } else if (currentInput.isGlobbed()) {
             URI uri = currentInput.uri();
             cursor.uri = uri;
@@ -278,19 +373,42 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
         }
     }
 
-    private boolean shouldBeReadByCurrentNode(URI uri) {
+    private void addSplitsReadByCurrentNode(URI uri, List<Split> splits) throws IOException {
         boolean sharedStorage = Objects.requireNonNullElse(shared, currentInput.sharedStorageDefault());
-        if (sharedStorage) {
-            return moduloPredicateImpl(uri, this.readerNumber, this.numReaders);
-        } else {
-            return MATCH_ALL_PREDICATE.test(uri);
+        if (!sharedStorage) {
+            if (MATCH_ALL_PREDICATE.test(uri)) {
+                splits.add(Split.of(uri));
+            }
+            return;
+        }
+        // compressed files can't be read starting at an arbitrary position
+        long size = splitSize > 0 && !compressed ? currentInput.size(uri) : -1;
+        if (size > splitSize) {
+            long numSplits = (size + splitSize - 1) / splitSize;
+            for (long i = 0; i < numSplits; i++) {
+                if (Math.floorMod(uri.hashCode() + i, numReaders) == readerNumber) {
+                    splits.add(new Split(uri, i * splitSize, Math.min(size, (i + 1) * splitSize), size));
+                }
+            }
+        } else if (moduloPredicateImpl(uri, this.readerNumber, this.numReaders)) {
+            splits.add(Split.of(uri));
         }
     }
 
-    private void createReader(FileInput fileInput, URI uri) throws IOException {
-        cursor.uri = uri;
+    private void createReader(FileInput fileInput, Split split) throws IOException {
+        cursor.uri = split.uri;
         cursor.lineNumber = 0;
-        InputStream stream = fileInput.getStream(uri);
+        InputStream stream;
+        if (split.start == 0 && split.end == Long.MAX_VALUE) {
+            stream = fileInput.getStream(split.uri);
+        } else {
+            // start one byte early to detect if a line starts at the beginning of the split
+            stream = new SplitInputStream(
+                new RangedInputStream(fileInput, split.uri, Math.max(0, split.start - 1), split.end, split.size),
+                split.start,
+                split.end
+            );
+        }
         currentReader = createBufferedReader(stream);
     }
 
@@ -324,7 +442,7 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
             if (backOffPolicy.hasNext()) {
                 watermark = watermark == 0 ? cursor.lineNumber + 1 : watermark;
                 closeReader();
-                createReader(currentInput, cursor.uri);
+                createReader(currentInput, currentSplit);
             } else {
                 URI uri = currentInput.uri();
                 LOGGER.error("Timeout during COPY FROM '" + uri.toString() +
@@ -351,9 +469,11 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
 
     private void reset() {
         fileInputsIterator = null;
-        currentInputUriIterator = null;
+        currentInputSplitIterator = null;
+        currentSplit = null;
         currentInput = null;
         cursor.failure = null;
+        cursor.header = null;
     }
 
     @Override
@@ -398,7 +518,9 @@ public class FileReadingIterator implements BatchIterator<FileReadingIterator.Li
     }
 
     @Nullable
-    private FileInput toFileInput(String fileUri, Settings withClauseOptions) {
+    static FileInput toFileInput(Map<String, FileInputFactory> fileInputFactories,
+                                 String fileUri,
+                                 Settings withClauseOptions) {
         URI uri = toURI(fileUri);
         FileInputFactory fileInputFactory = fileInputFactories.get(uri.getScheme());
         if (fileInputFactory != null) {
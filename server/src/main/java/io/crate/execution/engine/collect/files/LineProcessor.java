@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
 
 import io.crate.analyze.CopyFromParserProperties;
@@ -106,6 +107,12 @@ public final class LineProcessor extends MappedForwardingBatchIterator<LineCurso
         try {
             while (source.moveNext()) {
                 LineCursor cursor = source.currentElement();
+                LinkedHashMap<String, Object> decodedRow = cursor.source();
+                if (decodedRow != null) {
+                    lineContext.resetCurrentParsingFailure();
+                    lineContext.source(decodedRow);
+                    return true;
+                }
                 String line = cursor.line();
                 if (line == null) {
                     assert cursor.failure() != null : "If the line is null, there must be a failure";
@@ -113,7 +120,11 @@ public final class LineProcessor extends MappedForwardingBatchIterator<LineCurso
                 }
                 if (firstLine) {
                     firstLine = false;
-                    if (readFirstLine(cursor.uri(), line)) {
+                    String header = cursor.header();
+                    if (header != null) {
+                        // the line is part of a split of the file, the header must be taken from the start of the file
+                        readFirstLine(cursor.uri(), header);
+                    } else if (readFirstLine(cursor.uri(), line)) {
                         continue;
                     }
                 }
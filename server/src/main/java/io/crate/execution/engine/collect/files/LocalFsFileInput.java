@@ -31,6 +31,8 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.FileSystemLoopException;
 import java.nio.file.FileVisitResult;
@@ -38,6 +40,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.EnumSet;
@@ -149,6 +152,18 @@ public class LocalFsFileInput implements FileInput {
         return new FileInputStream(file);
     }
 
+    @Override
+    public InputStream getStream(URI uri, long start, long end) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(uri), StandardOpenOption.READ);
+        channel.position(start);
+        return Channels.newInputStream(channel);
+    }
+
+    @Override
+    public long size(URI uri) throws IOException {
+        return Files.size(Paths.get(uri));
+    }
+
     @Override
     public boolean sharedStorageDefault() {
         return false;
@@ -0,0 +1,792 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import org.jetbrains.annotations.Nullable;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.compression.Snappy;
+
+/**
+ * Reads parquet files (https://parquet.apache.org/docs/file-format/).
+ *
+ * <p>
+ * Supported are primitive top level columns using the PLAIN, dictionary or RLE encoding within data pages of
+ * version 1 or 2, compressed using snappy or gzip or not at all. Nested columns (groups or repeated fields) are
+ * exposed by {@link #columns()}, but fail once they are read.
+ * The column chunks are read column by column, only the pages of the current chunk are held in memory.
+ * </p>
+ */
+final class ParquetReader implements ColumnarReader {
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    // parquet.thrift: Type
+    private static final int BOOLEAN = 0;
+    private static final int INT32 = 1;
+    private static final int INT64 = 2;
+    private static final int INT96 = 3;
+    private static final int FLOAT = 4;
+    private static final int DOUBLE = 5;
+    private static final int BYTE_ARRAY = 6;
+    private static final int FIXED_LEN_BYTE_ARRAY = 7;
+
+    // parquet.thrift: ConvertedType
+    private static final int UTF8 = 0;
+    private static final int ENUM = 4;
+    private static final int DECIMAL = 5;
+    private static final int DATE = 6;
+    private static final int TIMESTAMP_MILLIS = 9;
+    private static final int TIMESTAMP_MICROS = 10;
+    private static final int JSON = 19;
+
+    // parquet.thrift: FieldRepetitionType
+    private static final int REQUIRED = 0;
+    private static final int REPEATED = 2;
+
+    // parquet.thrift: Encoding
+    private static final int PLAIN = 0;
+    private static final int PLAIN_DICTIONARY = 2;
+    private static final int RLE = 3;
+    private static final int RLE_DICTIONARY = 8;
+
+    // parquet.thrift: PageType
+    private static final int DATA_PAGE = 0;
+    private static final int DICTIONARY_PAGE = 2;
+    private static final int DATA_PAGE_V2 = 3;
+
+    // parquet.thrift: CompressionCodec
+    private static final int UNCOMPRESSED = 0;
+    private static final int SNAPPY = 1;
+    private static final int GZIP = 2;
+
+    private static final long JULIAN_EPOCH_DAY = 2_440_588L;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    /**
+     * How the physical values of a column are converted
+     */
+    private enum Conversion {
+        NONE,
+        STRING,
+        DATE,
+        TIMESTAMP_MILLIS,
+        TIMESTAMP_MICROS,
+        TIMESTAMP_NANOS,
+        DECIMAL,
+        UUID
+    }
+
+    private record Column(String name,
+                          int type,
+                          int typeLength,
+                          boolean optional,
+                          Conversion conversion,
+                          int scale,
+                          int leafIndex,
+                          @Nullable String unsupported) {
+    }
+
+    private record ColumnChunk(int codec, long numValues, long compressedSize, long offset) {
+    }
+
+    private record RowGroup(long numRows, List<ColumnChunk> chunks) {
+    }
+
+    private final FileChannel channel;
+    private final List<Column> columns;
+    private final List<String> columnNames;
+    private final List<RowGroup> rowGroups;
+
+    ParquetReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size < 12) {
+            throw new IOException("Not a parquet file, the file is too small");
+        }
+        ByteBuffer tail = read(size - 8, 8);
+        if (!hasMagic(tail, 4) || !hasMagic(read(0, 4), 0)) {
+            throw new IOException("Not a parquet file, the magic number is missing");
+        }
+        int footerLength = tail.getInt(0);
+        if (footerLength <= 0 || footerLength > size - 12) {
+            throw new IOException("Invalid parquet footer length: " + footerLength);
+        }
+        ThriftCompactReader reader = new ThriftCompactReader(read(size - 8 - footerLength, footerLength));
+        List<Column> columns = null;
+        List<RowGroup> rowGroups = new ArrayList<>();
+        while (reader.nextField()) {
+            switch (reader.fieldId()) {
+                case 2 -> columns = readSchema(reader);
+                case 4 -> {
+                    int numRowGroups = reader.readListBegin();
+                    for (int i = 0; i < numRowGroups; i++) {
+                        rowGroups.add(readRowGroup(reader));
+                    }
+                }
+                default -> reader.skip();
+            }
+        }
+        if (columns == null) {
+            throw new IOException("Invalid parquet footer, the schema is missing");
+        }
+        this.columns = columns;
+        this.columnNames = columns.stream().map(Column::name).toList();
+        this.rowGroups = rowGroups;
+    }
+
+    @Override
+    public List<String> columns() {
+        return columnNames;
+    }
+
+    @Override
+    public int numBlocks() {
+        return rowGroups.size();
+    }
+
+    @Override
+    public long numRows(int block) {
+        return rowGroups.get(block).numRows;
+    }
+
+    @Override
+    public List<ColumnValues> readBlock(int block, List<Integer> columnIndices) throws IOException {
+        RowGroup rowGroup = rowGroups.get(block);
+        List<ColumnValues> values = new ArrayList<>(columnIndices.size());
+        for (int idx : columnIndices) {
+            Column column = columns.get(idx);
+            if (column.unsupported != null) {
+                throw new IOException(String.format(
+                    Locale.ENGLISH, "Column \"%s\" is not supported: %s", column.name, column.unsupported));
+            }
+            ColumnChunk chunk = rowGroup.chunks.get(column.leafIndex);
+            values.add(new ChunkValues(column, chunk.codec, read(chunk.offset, Math.toIntExact(chunk.compressedSize))));
+        }
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of parquet file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static boolean hasMagic(ByteBuffer buffer, int offset) {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(offset + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * parquet.thrift: list&lt;SchemaElement&gt;, a depth-first flattened tree with the root as first element
+     */
+    private static List<Column> readSchema(ThriftCompactReader reader) throws IOException {
+        int numElements = reader.readListBegin();
+        List<SchemaElement> elements = new ArrayList<>(numElements);
+        for (int i = 0; i < numElements; i++) {
+            elements.add(SchemaElement.read(reader));
+        }
+        if (elements.isEmpty()) {
+            throw new IOException("Invalid parquet schema, the root element is missing");
+        }
+        List<Column> columns = new ArrayList<>(elements.get(0).numChildren);
+        int idx = 1;
+        int leafIndex = 0;
+        for (int i = 0; i < elements.get(0).numChildren; i++) {
+            SchemaElement element = elements.get(idx);
+            int subtreeEnd = subtreeEnd(elements, idx);
+            if (element.numChildren > 0) {
+                columns.add(unsupported(element, leafIndex, "nested columns are not supported"));
+                for (int j = idx; j < subtreeEnd; j++) {
+                    if (elements.get(j).numChildren == 0) {
+                        leafIndex++;
+                    }
+                }
+            } else {
+                columns.add(element.toColumn(leafIndex));
+                leafIndex++;
+            }
+            idx = subtreeEnd;
+        }
+        return columns;
+    }
+
+    private static int subtreeEnd(List<SchemaElement> elements, int idx) throws IOException {
+        if (idx >= elements.size()) {
+            throw new IOException("Invalid parquet schema, missing elements");
+        }
+        int end = idx + 1;
+        for (int i = 0; i < elements.get(idx).numChildren; i++) {
+            end = subtreeEnd(elements, end);
+        }
+        return end;
+    }
+
+    private static Column unsupported(SchemaElement element, int leafIndex, String reason) {
+        return new Column(element.name, element.type, element.typeLength, true, Conversion.NONE, 0, leafIndex, reason);
+    }
+
+    private static final class SchemaElement {
+
+        private int type = -1;
+        private int typeLength;
+        private int repetition = REQUIRED;
+        private String name;
+        private int numChildren;
+        private int convertedType = -1;
+        private int scale;
+        @Nullable
+        private Conversion logicalConversion;
+
+        static SchemaElement read(ThriftCompactReader reader) throws IOException {
+            SchemaElement element = new SchemaElement();
+            reader.beginStruct();
+            while (reader.nextField()) {
+                switch (reader.fieldId()) {
+                    case 1 -> element.type = reader.readI32();
+                    case 2 -> element.typeLength = reader.readI32();
+                    case 3 -> element.repetition = reader.readI32();
+                    case 4 -> element.name = reader.readString();
+                    case 5 -> element.numChildren = reader.readI32();
+                    case 6 -> element.convertedType = reader.readI32();
+                    case 7 -> element.scale = reader.readI32();
+                    case 10 -> element.readLogicalType(reader);
+                    default -> reader.skip();
+                }
+            }
+            reader.endStruct();
+            return element;
+        }
+
+        /**
+         * parquet.thrift: LogicalType, a union of structs
+         */
+        private void readLogicalType(ThriftCompactReader reader) throws IOException {
+            reader.beginStruct();
+            while (reader.nextField()) {
+                switch (reader.fieldId()) {
+                    case 1, 4, 12 -> {
+                        // STRING, ENUM, JSON
+                        logicalConversion = Conversion.STRING;
+                        reader.skip();
+                    }
+                    case 5 -> {
+                        logicalConversion = Conversion.DECIMAL;
+                        reader.beginStruct();
+                        while (reader.nextField()) {
+                            if (reader.fieldId() == 1) {
+                                scale = reader.readI32();
+                            } else {
+                                reader.skip();
+                            }
+                        }
+                        reader.endStruct();
+                    }
+                    case 6 -> {
+                        logicalConversion = Conversion.DATE;
+                        reader.skip();
+                    }
+                    case 8 -> {
+                        // TIMESTAMP: 1: isAdjustedToUTC, 2: unit (union of MILLIS, MICROS, NANOS)
+                        reader.beginStruct();
+                        while (reader.nextField()) {
+                            if (reader.fieldId() == 2) {
+                                reader.beginStruct();
+                                while (reader.nextField()) {
+                                    logicalConversion = switch (reader.fieldId()) {
+                                        case 1 -> Conversion.TIMESTAMP_MILLIS;
+                                        case 2 -> Conversion.TIMESTAMP_MICROS;
+                                        default -> Conversion.TIMESTAMP_NANOS;
+                                    };
+                                    reader.skip();
+                                }
+                                reader.endStruct();
+                            } else {
+                                reader.skip();
+                            }
+                        }
+                        reader.endStruct();
+                    }
+                    case 14 -> {
+                        logicalConversion = Conversion.UUID;
+                        reader.skip();
+                    }
+                    default -> reader.skip();
+                }
+            }
+            reader.endStruct();
+        }
+
+        Column toColumn(int leafIndex) {
+            if (repetition == REPEATED) {
+                return unsupported(this, leafIndex, "repeated columns are not supported");
+            }
+            Conversion conversion = logicalConversion;
+            if (conversion == null) {
+                conversion = switch (convertedType) {
+                    case UTF8, ENUM, JSON -> Conversion.STRING;
+                    case DECIMAL -> Conversion.DECIMAL;
+                    case DATE -> Conversion.DATE;
+                    case TIMESTAMP_MILLIS -> Conversion.TIMESTAMP_MILLIS;
+                    case TIMESTAMP_MICROS -> Conversion.TIMESTAMP_MICROS;
+                    default -> Conversion.NONE;
+                };
+            }
+            if (type == FIXED_LEN_BYTE_ARRAY && conversion != Conversion.DECIMAL && conversion != Conversion.UUID) {
+                return unsupported(this, leafIndex, "fixed length byte arrays are only supported for decimals and uuids");
+            }
+            return new Column(name, type, typeLength, repetition != REQUIRED, conversion, scale, leafIndex, null);
+        }
+    }
+
+    /**
+     * parquet.thrift: RowGroup
+     */
+    private static RowGroup readRowGroup(ThriftCompactReader reader) throws IOException {
+        long numRows = 0;
+        List<ColumnChunk> chunks = new ArrayList<>();
+        reader.beginStruct();
+        while (reader.nextField()) {
+            switch (reader.fieldId()) {
+                case 1 -> {
+                    int numChunks = reader.readListBegin();
+                    for (int i = 0; i < numChunks; i++) {
+                        chunks.add(readColumnChunk(reader));
+                    }
+                }
+                case 3 -> numRows = reader.readI64();
+                default -> reader.skip();
+            }
+        }
+        reader.endStruct();
+        return new RowGroup(numRows, chunks);
+    }
+
+    /**
+     * parquet.thrift: ColumnChunk and its ColumnMetaData
+     */
+    private static ColumnChunk readColumnChunk(ThriftCompactReader reader) throws IOException {
+        int codec = UNCOMPRESSED;
+        long numValues = 0;
+        long compressedSize = 0;
+        long dataPageOffset = 0;
+        long dictionaryPageOffset = -1;
+        reader.beginStruct();
+        while (reader.nextField()) {
+            if (reader.fieldId() == 1) {
+                if (!reader.readString().isEmpty()) {
+                    throw new IOException("Column chunks stored in other files are not supported");
+                }
+                continue;
+            }
+            if (reader.fieldId() != 3) {
+                reader.skip();
+                continue;
+            }
+            reader.beginStruct();
+            while (reader.nextField()) {
+                switch (reader.fieldId()) {
+                    case 4 -> codec = reader.readI32();
+                    case 5 -> numValues = reader.readI64();
+                    case 7 -> compressedSize = reader.readI64();
+                    case 9 -> dataPageOffset = reader.readI64();
+                    case 11 -> dictionaryPageOffset = reader.readI64();
+                    default -> reader.skip();
+                }
+            }
+            reader.endStruct();
+        }
+        reader.endStruct();
+        // Some writers set the dictionary page offset to 0 if there is no dictionary page
+        long offset = dictionaryPageOffset > 0 && dictionaryPageOffset < dataPageOffset
+            ? dictionaryPageOffset
+            : dataPageOffset;
+        return new ColumnChunk(codec, numValues, compressedSize, offset);
+    }
+
+    /**
+     * Decodes the pages of a column chunk one after the other
+     */
+    private static final class ChunkValues implements ColumnValues {
+
+        private final Column column;
+        private final int codec;
+        private final ByteBuffer chunk;
+
+        @Nullable
+        private Object[] dictionary;
+        private Object[] pageValues = new Object[0];
+        private int pagePosition = 0;
+
+        private ChunkValues(Column column, int codec, ByteBuffer chunk) {
+            this.column = column;
+            this.codec = codec;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public Object next() throws IOException {
+            while (pagePosition == pageValues.length) {
+                readPage();
+            }
+            return pageValues[pagePosition++];
+        }
+
+        private void readPage() throws IOException {
+            if (!chunk.hasRemaining()) {
+                throw new IOException("Column \"" + column.name + "\" has less values than rows");
+            }
+            PageHeader header = PageHeader.read(new ThriftCompactReader(chunk));
+            if (header.compressedSize < 0 || header.compressedSize > chunk.remaining()) {
+                throw new IOException("Invalid parquet page size: " + header.compressedSize);
+            }
+            ByteBuffer body = chunk.slice(chunk.position(), header.compressedSize).order(ByteOrder.LITTLE_ENDIAN);
+            chunk.position(chunk.position() + header.compressedSize);
+            switch (header.type) {
+                case DICTIONARY_PAGE -> {
+                    ByteBuffer values = decompress(body, header.uncompressedSize);
+                    dictionary = new Object[header.numValues];
+                    decodePlain(values, dictionary, header.numValues);
+                }
+                case DATA_PAGE -> {
+                    ByteBuffer page = decompress(body, header.uncompressedSize);
+                    boolean[] defined = null;
+                    if (column.optional) {
+                        int length = page.getInt();
+                        defined = decodeDefinitionLevels(page.slice(page.position(), length), header.numValues);
+                        page.position(page.position() + length);
+                    }
+                    decodePage(page, header.encoding, header.numValues, defined);
+                }
+                case DATA_PAGE_V2 -> {
+                    // the levels are never compressed
+                    body.position(header.repetitionLevelsLength);
+                    boolean[] defined = null;
+                    if (column.optional) {
+                        defined = decodeDefinitionLevels(
+                            body.slice(body.position(), header.definitionLevelsLength), header.numValues);
+                    }
+                    body.position(header.repetitionLevelsLength + header.definitionLevelsLength);
+                    ByteBuffer values = body.slice();
+                    if (header.compressed) {
+                        int levelsLength = header.repetitionLevelsLength + header.definitionLevelsLength;
+                        values = decompress(values, header.uncompressedSize - levelsLength);
+                    }
+                    decodePage(values.order(ByteOrder.LITTLE_ENDIAN), header.encoding, header.numValues, defined);
+                }
+                default -> {
+                    // index pages are not used
+                }
+            }
+        }
+
+        private static boolean[] decodeDefinitionLevels(ByteBuffer levels, int numValues) throws IOException {
+            int[] decoded = new int[numValues];
+            decodeHybrid(levels, 1, decoded, numValues);
+            boolean[] defined = new boolean[numValues];
+            for (int i = 0; i < numValues; i++) {
+                defined[i] = decoded[i] != 0;
+            }
+            return defined;
+        }
+
+        private void decodePage(ByteBuffer page, int encoding, int numValues, @Nullable boolean[] defined) throws IOException {
+            int numNonNull = numValues;
+            if (defined != null) {
+                for (boolean d : defined) {
+                    if (!d) {
+                        numNonNull--;
+                    }
+                }
+            }
+            Object[] values = new Object[numNonNull];
+            switch (encoding) {
+                case PLAIN -> decodePlain(page, values, numNonNull);
+                case PLAIN_DICTIONARY, RLE_DICTIONARY -> {
+                    if (dictionary == null) {
+                        throw new IOException("Column \"" + column.name + "\" is missing the dictionary page");
+                    }
+                    int bitWidth = page.get() & 0xFF;
+                    int[] ids = new int[numNonNull];
+                    decodeHybrid(page, bitWidth, ids, numNonNull);
+                    for (int i = 0; i < numNonNull; i++) {
+                        if (ids[i] < 0 || ids[i] >= dictionary.length) {
+                            throw new IOException("Invalid dictionary id: " + ids[i]);
+                        }
+                        values[i] = dictionary[ids[i]];
+                    }
+                }
+                case RLE -> {
+                    if (column.type != BOOLEAN) {
+                        throw new IOException("RLE encoding is only supported for boolean values");
+                    }
+                    int length = page.getInt();
+                    int[] bits = new int[numNonNull];
+                    decodeHybrid(page.slice(page.position(), length), 1, bits, numNonNull);
+                    for (int i = 0; i < numNonNull; i++) {
+                        values[i] = bits[i] != 0;
+                    }
+                }
+                default -> throw new IOException(String.format(
+                    Locale.ENGLISH, "Encoding %d of column \"%s\" is not supported", encoding, column.name));
+            }
+            if (defined == null) {
+                pageValues = values;
+            } else {
+                pageValues = new Object[numValues];
+                int v = 0;
+                for (int i = 0; i < numValues; i++) {
+                    pageValues[i] = defined[i] ? values[v++] : null;
+                }
+            }
+            pagePosition = 0;
+        }
+
+        private void decodePlain(ByteBuffer in, Object[] values, int numValues) throws IOException {
+            for (int i = 0; i < numValues; i++) {
+                values[i] = switch (column.type) {
+                    case BOOLEAN -> (in.get(in.position() + i / 8) & (1 << (i % 8))) != 0;
+                    case INT32 -> convert(in.getInt());
+                    case INT64 -> convert(in.getLong());
+                    case INT96 -> {
+                        long nanosOfDay = in.getLong();
+                        long julianDay = in.getInt() & 0xFFFFFFFFL;
+                        yield (julianDay - JULIAN_EPOCH_DAY) * MILLIS_PER_DAY + nanosOfDay / 1_000_000;
+                    }
+                    case FLOAT -> in.getFloat();
+                    case DOUBLE -> in.getDouble();
+                    case BYTE_ARRAY -> {
+                        byte[] bytes = new byte[in.getInt()];
+                        in.get(bytes);
+                        yield convert(bytes);
+                    }
+                    case FIXED_LEN_BYTE_ARRAY -> {
+                        byte[] bytes = new byte[column.typeLength];
+                        in.get(bytes);
+                        yield convert(bytes);
+                    }
+                    default -> throw new IOException("Unknown parquet type: " + column.type);
+                };
+            }
+        }
+
+        private Object convert(int value) {
+            return switch (column.conversion) {
+                case DATE -> value * MILLIS_PER_DAY;
+                case DECIMAL -> BigDecimal.valueOf(value, column.scale);
+                default -> value;
+            };
+        }
+
+        private Object convert(long value) {
+            return switch (column.conversion) {
+                case TIMESTAMP_MICROS -> Math.floorDiv(value, 1000L);
+                case TIMESTAMP_NANOS -> Math.floorDiv(value, 1_000_000L);
+                case DECIMAL -> BigDecimal.valueOf(value, column.scale);
+                default -> value;
+            };
+        }
+
+        private Object convert(byte[] value) {
+            return switch (column.conversion) {
+                case DECIMAL -> new BigDecimal(new BigInteger(value), column.scale);
+                case UUID -> {
+                    ByteBuffer buffer = ByteBuffer.wrap(value);
+                    yield new UUID(buffer.getLong(), buffer.getLong()).toString();
+                }
+                default -> new String(value, StandardCharsets.UTF_8);
+            };
+        }
+
+        private ByteBuffer decompress(ByteBuffer body, int uncompressedSize) throws IOException {
+            switch (codec) {
+                case UNCOMPRESSED:
+                    return body;
+
+                case SNAPPY: {
+                    ByteBuf out = Unpooled.buffer(uncompressedSize);
+                    try {
+                        new Snappy().decode(Unpooled.wrappedBuffer(body), out);
+                        byte[] bytes = new byte[out.readableBytes()];
+                        out.readBytes(bytes);
+                        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+                    } catch (RuntimeException e) {
+                        throw new IOException("Invalid snappy compressed page", e);
+                    } finally {
+                        out.release();
+                    }
+                }
+
+                case GZIP: {
+                    byte[] compressed = new byte[body.remaining()];
+                    body.get(compressed);
+                    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+                        return ByteBuffer.wrap(in.readNBytes(uncompressedSize)).order(ByteOrder.LITTLE_ENDIAN);
+                    }
+                }
+
+                default:
+                    throw new IOException(String.format(
+                        Locale.ENGLISH,
+                        "Compression codec %d of column \"%s\" is not supported, only snappy and gzip are supported",
+                        codec,
+                        column.name
+                    ));
+            }
+        }
+    }
+
+    /**
+     * parquet.thrift: PageHeader with its DataPageHeader, DictionaryPageHeader or DataPageHeaderV2
+     */
+    private static final class PageHeader {
+
+        private int type;
+        private int uncompressedSize;
+        private int compressedSize;
+        private int numValues;
+        private int encoding;
+        private int definitionLevelsLength;
+        private int repetitionLevelsLength;
+        private boolean compressed = true;
+
+        static PageHeader read(ThriftCompactReader reader) throws IOException {
+            PageHeader header = new PageHeader();
+            while (reader.nextField()) {
+                switch (reader.fieldId()) {
+                    case 1 -> header.type = reader.readI32();
+                    case 2 -> header.uncompressedSize = reader.readI32();
+                    case 3 -> header.compressedSize = reader.readI32();
+                    case 5, 7 -> {
+                        // DataPageHeader, DictionaryPageHeader: 1: num_values, 2: encoding
+                        reader.beginStruct();
+                        while (reader.nextField()) {
+                            switch (reader.fieldId()) {
+                                case 1 -> header.numValues = reader.readI32();
+                                case 2 -> header.encoding = reader.readI32();
+                                default -> reader.skip();
+                            }
+                        }
+                        reader.endStruct();
+                    }
+                    case 8 -> {
+                        reader.beginStruct();
+                        while (reader.nextField()) {
+                            switch (reader.fieldId()) {
+                                case 1 -> header.numValues = reader.readI32();
+                                case 4 -> header.encoding = reader.readI32();
+                                case 5 -> header.definitionLevelsLength = reader.readI32();
+                                case 6 -> header.repetitionLevelsLength = reader.readI32();
+                                case 7 -> header.compressed = reader.readBool();
+                                default -> reader.skip();
+                            }
+                        }
+                        reader.endStruct();
+                    }
+                    default -> reader.skip();
+                }
+            }
+            return header;
+        }
+    }
+
+    /**
+     * Decodes values encoded using the RLE/bit-packing hybrid encoding
+     */
+    static void decodeHybrid(ByteBuffer in, int bitWidth, int[] out, int count) throws IOException {
+        if (bitWidth > 32) {
+            throw new IOException("Invalid bit width: " + bitWidth);
+        }
+        int byteWidth = (bitWidth + 7) / 8;
+        int i = 0;
+        while (i < count) {
+            int header = readUnsignedVarInt(in);
+            if ((header & 1) == 0) {
+                int runLength = header >>> 1;
+                int value = 0;
+                for (int b = 0; b < byteWidth; b++) {
+                    value |= (in.get() & 0xFF) << (b * 8);
+                }
+                int end = Math.min(count, i + runLength);
+                while (i < end) {
+                    out[i++] = value;
+                }
+            } else {
+                int numValues = (header >>> 1) * 8;
+                int numBytes = (header >>> 1) * bitWidth;
+                int start = in.position();
+                long mask = (1L << bitWidth) - 1;
+                for (int v = 0; v < numValues && i < count; v++) {
+                    long bit = (long) v * bitWidth;
+                    long buffer = 0;
+                    int firstByte = (int) (bit / 8);
+                    for (int b = 0; b < 5 && firstByte + b < numBytes; b++) {
+                        buffer |= (long) (in.get(start + firstByte + b) & 0xFF) << (b * 8);
+                    }
+                    out[i++] = (int) ((buffer >>> (bit % 8)) & mask);
+                }
+                in.position(start + numBytes);
+            }
+        }
+    }
+
+    private static int readUnsignedVarInt(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Invalid varint");
+    }
+}
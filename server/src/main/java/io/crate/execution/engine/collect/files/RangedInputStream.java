@@ -0,0 +1,125 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Stream of a file from {@code start} to its end, which is read in byte ranges using
+ * {@link FileInput#getStream(URI, long, long)}.
+ *
+ * <p>
+ * Used to read a split of a file: The first range ends {@link #SLACK} bytes after the end of the split, so that
+ * the line crossing the end of the split can usually be finished without another request. Only if the line is
+ * longer, further ranges of {@link #SLACK} bytes are requested until the {@link SplitInputStream} stops reading.
+ * </p>
+ */
+final class RangedInputStream extends InputStream {
+
+    static final int SLACK = 64 * 1024;
+
+    private final FileInput fileInput;
+    private final URI uri;
+    private final long size;
+
+    /**
+     * The position of the next byte within the file
+     */
+    private long position;
+    private long rangeEnd;
+    @Nullable
+    private InputStream range;
+
+    /**
+     * @param end the end of the split, bytes after it are only requested if the stream is read beyond it
+     * @param size the size of the file
+     */
+    RangedInputStream(FileInput fileInput, URI uri, long start, long end, long size) throws IOException {
+        assert start <= end && end <= size : "range must be within the file";
+        this.fileInput = fileInput;
+        this.uri = uri;
+        this.size = size;
+        this.position = start;
+        openRange(Math.min(size, end + SLACK));
+    }
+
+    private void openRange(long end) throws IOException {
+        if (range != null) {
+            range.close();
+        }
+        range = fileInput.getStream(uri, position, end);
+        rangeEnd = end;
+    }
+
+    /**
+     * @return false if the end of the file has been reached
+     */
+    private boolean ensureRange() throws IOException {
+        if (position < rangeEnd) {
+            return true;
+        }
+        if (position >= size) {
+            return false;
+        }
+        openRange(Math.min(size, position + SLACK));
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (ensureRange() == false) {
+            return -1;
+        }
+        int b = range.read();
+        if (b != -1) {
+            position++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (ensureRange() == false) {
+            return -1;
+        }
+        int n = range.read(b, off, (int) Math.min(len, rangeEnd - position));
+        if (n > 0) {
+            position += n;
+        }
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (range != null) {
+            range.close();
+            range = null;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.collect.files;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stream of the lines of a byte range {@code [start, end)} of a file.
+ *
+ * <p>
+ * A split contains all lines which start within its range: If the split doesn't start at the beginning of the file,
+ * the (partial) line in which {@code start} is located is skipped, as it belongs to the previous split. The last
+ * line which starts before {@code end} is read completely, even if it ends after {@code end}.
+ * This way the splits of a file can be read independently and each line is read by exactly one split.
+ * </p>
+ *
+ * <p>
+ * Lines are separated by {@code '\n'}, which can't be part of a multibyte UTF-8 character, so the
+ * lines can be found without decoding the bytes.
+ * </p>
+ */
+final class SplitInputStream extends InputStream {
+
+    private final InputStream delegate;
+    private final long end;
+
+    /**
+     * The position of the next byte of the delegate within the file
+     */
+    private long position;
+    private boolean lineStart = true;
+    private boolean eof = false;
+
+    /**
+     * @param delegate stream of the file, positioned at {@code start - 1} if {@code start > 0}, otherwise at {@code 0}.
+     *                 It is not required to end at {@code end}, the lines are cut off by this stream.
+     */
+    SplitInputStream(InputStream delegate, long start, long end) throws IOException {
+        assert start >= 0 && start < end : "split must contain at least one byte";
+        this.delegate = new BufferedInputStream(delegate);
+        this.end = end;
+        if (start > 0) {
+            // skip the remainder of the line which starts in the previous split.
+            // the delegate starts one byte early, if that byte is a line separator a line starts at `start`
+            position = start - 1;
+            int b;
+            do {
+                b = this.delegate.read();
+                position++;
+            } while (b != -1 && b != '\n');
+            eof = b == -1;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (isAtEnd()) {
+            return -1;
+        }
+        int b = delegate.read();
+        if (b == -1) {
+            eof = true;
+            return -1;
+        }
+        position++;
+        lineStart = b == '\n';
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (isAtEnd()) {
+            return -1;
+        }
+        int n = delegate.read(b, off, len);
+        if (n == -1) {
+            eof = true;
+            return -1;
+        }
+        // a line separator at `end - 1` or later terminates the last line of the split
+        int i = (int) Math.max(0, Math.min(n, end - 1 - position));
+        for (; i < n; i++) {
+            if (b[off + i] == '\n') {
+                n = i + 1;
+                eof = true;
+                break;
+            }
+        }
+        position += n;
+        lineStart = b[off + n - 1] == '\n';
+        return n;
+    }
+
+    private boolean isAtEnd() {
+        return eof || (lineStart && position >= end);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.common.exceptions.Exceptions;
+import io.crate.data.BatchIterator;
+import io.crate.execution.engine.collect.files.FileReadingIterator.LineCursor;
+
+/**
+ * The rows of a {@code COPY ... FROM STDIN} statement, sent by a client via the PostgreSQL wire protocol.
+ *
+ * <p>
+ * The client adds the rows either as lines using {@link #add(String)} or, if it already decoded them, as values by
+ * column name using {@link #add(LinkedHashMap, int)}, while the collect phase of the COPY FROM statement consumes
+ * them. Unlike {@link FileReadingIterator} the iterator never blocks while waiting for data:
+ * {@link #moveNext()} returns false if no rows are buffered and {@link #loadNextBatch()} completes once more rows
+ * have been added or the input has been finished.
+ * </p>
+ *
+ * <p>
+ * The buffered rows are limited to {@link #MAX_BUFFERED_CHARS}, measured in the length of the data sent by the
+ * client. If {@code add} returns false, the client must stop reading further data until {@link #drained()}
+ * completes.
+ * </p>
+ */
+public final class StdinInput implements BatchIterator<LineCursor> {
+
+    static final int MAX_BUFFERED_CHARS = 4 * 1024 * 1024;
+
+    private final URI uri;
+    private final LineCursor cursor;
+    private final ArrayDeque<Entry> rows = new ArrayDeque<>();
+
+    private long lineNumber = 0;
+    private long bufferedChars = 0;
+    private boolean finished = false;
+
+    @Nullable
+    private Throwable killed;
+
+    @Nullable
+    private CompletableFuture<Void> nextLines;
+
+    @Nullable
+    private CompletableFuture<Void> drained;
+
+    /**
+     * A buffered row, either a line or the decoded values
+     */
+    private record Entry(@Nullable String line, @Nullable LinkedHashMap<String, Object> source, int length) {
+    }
+
+    StdinInput(URI uri) {
+        this.uri = uri;
+        this.cursor = new LineCursor(uri, 0, null, null);
+    }
+
+    public URI uri() {
+        return uri;
+    }
+
+    /**
+     * Adds a line to the input.
+     *
+     * @return false if the buffered rows exceed {@link #MAX_BUFFERED_CHARS} and the client must pause until
+     *         {@link #drained()} completes.
+     */
+    public boolean add(String line) {
+        return add(new Entry(line, null, line.length()));
+    }
+
+    /**
+     * Adds a row whose values have already been decoded, so they are read without parsing.
+     *
+     * @param length the length of the row as sent by the client
+     * @return false if the buffered rows exceed {@link #MAX_BUFFERED_CHARS} and the client must pause until
+     *         {@link #drained()} completes.
+     */
+    public boolean add(LinkedHashMap<String, Object> source, int length) {
+        return add(new Entry(null, source, length));
+    }
+
+    private boolean add(Entry entry) {
+        CompletableFuture<Void> waiting;
+        boolean belowLimit;
+        synchronized (this) {
+            if (killed != null || finished) {
+                return true;
+            }
+            rows.add(entry);
+            bufferedChars += entry.length();
+            belowLimit = bufferedChars < MAX_BUFFERED_CHARS;
+            waiting = nextLines;
+            nextLines = null;
+        }
+        if (waiting != null) {
+            waiting.complete(null);
+        }
+        return belowLimit;
+    }
+
+    /**
+     * @return a future which completes once the buffered rows fell below half of {@link #MAX_BUFFERED_CHARS},
+     *         or the iterator was closed or killed.
+     */
+    public CompletableFuture<?> drained() {
+        synchronized (this) {
+            if (killed != null || bufferedChars <= MAX_BUFFERED_CHARS / 2) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (drained == null) {
+                drained = new CompletableFuture<>();
+            }
+            return drained;
+        }
+    }
+
+    /**
+     * Marks the end of the input: No further rows are added.
+     */
+    public void finish() {
+        CompletableFuture<Void> waiting;
+        synchronized (this) {
+            finished = true;
+            waiting = nextLines;
+            nextLines = null;
+        }
+        if (waiting != null) {
+            waiting.complete(null);
+        }
+    }
+
+    @Override
+    public LineCursor currentElement() {
+        return cursor;
+    }
+
+    @Override
+    public void moveToStart() {
+        throw new UnsupportedOperationException("Cannot move to the start of the rows read from STDIN");
+    }
+
+    @Override
+    public boolean moveNext() {
+        CompletableFuture<Void> drainedFuture = null;
+        try {
+            synchronized (this) {
+                raiseIfKilled();
+                Entry entry = rows.poll();
+                if (entry == null) {
+                    return false;
+                }
+                bufferedChars -= entry.length();
+                lineNumber++;
+                if (entry.source() == null) {
+                    cursor.line(lineNumber, entry.line());
+                } else {
+                    cursor.source(lineNumber, entry.source());
+                }
+                if (drained != null && bufferedChars <= MAX_BUFFERED_CHARS / 2) {
+                    drainedFuture = drained;
+                    drained = null;
+                }
+                return true;
+            }
+        } finally {
+            if (drainedFuture != null) {
+                drainedFuture.complete(null);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        kill(BatchIterator.CLOSED);
+    }
+
+    @Override
+    public CompletableFuture<?> loadNextBatch() throws Exception {
+        synchronized (this) {
+            raiseIfKilled();
+            if (finished) {
+                throw new IllegalStateException("All batches already loaded");
+            }
+            if (!rows.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (nextLines == null) {
+                nextLines = new CompletableFuture<>();
+            }
+            return nextLines;
+        }
+    }
+
+    @Override
+    public synchronized boolean allLoaded() {
+        return finished;
+    }
+
+    @Override
+    public boolean hasLazyResultSet() {
+        return true;
+    }
+
+    /**
+     * Fails the consumer of the rows, for example if the client sent a CopyFail message or the connection was
+     * closed.
+     */
+    @Override
+    public void kill(@NotNull Throwable throwable) {
+        CompletableFuture<Void> waiting;
+        CompletableFuture<Void> drainedFuture;
+        synchronized (this) {
+            if (killed == null) {
+                killed = throwable;
+            }
+            rows.clear();
+            bufferedChars = 0;
+            waiting = nextLines;
+            nextLines = null;
+            drainedFuture = drained;
+            drained = null;
+        }
+        if (waiting != null) {
+            waiting.complete(null);
+        }
+        if (drainedFuture != null) {
+            drainedFuture.complete(null);
+        }
+    }
+
+    private void raiseIfKilled() {
+        if (killed != null) {
+            Exceptions.rethrowUnchecked(killed);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.elasticsearch.common.inject.Singleton;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Registry of the {@link StdinInput}s of the {@code COPY ... FROM STDIN} statements executed by clients connected
+ * to this node.
+ *
+ * <p>
+ * The PostgreSQL wire protocol registers an input per statement and refers to it using a {@code stdin:///<id>} URI
+ * within the COPY FROM statement. The collect phase reading this URI is executed on this node only and takes the
+ * input out of the registry.
+ * </p>
+ */
+@Singleton
+public class StdinInputs {
+
+    public static final String SCHEME = "stdin";
+
+    private final Map<URI, StdinInput> inputs = new ConcurrentHashMap<>();
+
+    public StdinInput register() {
+        URI uri = URI.create(SCHEME + ":///" + UUID.randomUUID());
+        StdinInput input = new StdinInput(uri);
+        inputs.put(uri, input);
+        return input;
+    }
+
+    @Nullable
+    public StdinInput remove(URI uri) {
+        return inputs.remove(uri);
+    }
+
+    public static boolean isStdin(String uri) {
+        return uri.startsWith(SCHEME + ":");
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+
+/**
+ * Reads structs encoded using the thrift compact protocol, which is used to encode the page headers and the footer
+ * of parquet files.
+ *
+ * <p>
+ * Usage: Call {@link #nextField()} until it returns false, which marks the end of the current struct, and either
+ * read the value of the field using the method matching {@link #fieldType()} or {@link #skip()} it.
+ * See https://github.com/apache/thrift/blob/master/doc/specs/thrift-compact-protocol.md
+ * </p>
+ */
+final class ThriftCompactReader {
+
+    static final byte TYPE_BOOLEAN_TRUE = 1;
+    static final byte TYPE_BOOLEAN_FALSE = 2;
+    static final byte TYPE_BYTE = 3;
+    static final byte TYPE_I16 = 4;
+    static final byte TYPE_I32 = 5;
+    static final byte TYPE_I64 = 6;
+    static final byte TYPE_DOUBLE = 7;
+    static final byte TYPE_BINARY = 8;
+    static final byte TYPE_LIST = 9;
+    static final byte TYPE_SET = 10;
+    static final byte TYPE_MAP = 11;
+    static final byte TYPE_STRUCT = 12;
+
+    private final ByteBuffer in;
+    private final ArrayDeque<Integer> lastFieldIds = new ArrayDeque<>();
+    private int lastFieldId = 0;
+    private int fieldId;
+    private byte fieldType;
+
+    ThriftCompactReader(ByteBuffer in) {
+        this.in = in;
+    }
+
+    /**
+     * @return the position after the last read byte
+     */
+    int position() {
+        return in.position();
+    }
+
+    /**
+     * Moves to the next field of the current struct.
+     *
+     * @return false if the end of the current struct is reached
+     */
+    boolean nextField() throws IOException {
+        int header = readByte() & 0xFF;
+        if (header == 0) {
+            return false;
+        }
+        fieldType = (byte) (header & 0x0F);
+        int delta = header >>> 4;
+        fieldId = delta == 0 ? unzigzag((int) readVarLong()) : lastFieldId + delta;
+        lastFieldId = fieldId;
+        return true;
+    }
+
+    int fieldId() {
+        return fieldId;
+    }
+
+    byte fieldType() {
+        return fieldType;
+    }
+
+    /**
+     * Starts reading the struct which is the value of the current field or an element of a list
+     */
+    void beginStruct() {
+        lastFieldIds.push(lastFieldId);
+        lastFieldId = 0;
+    }
+
+    /**
+     * Must be called once {@link #nextField()} returned false for a struct started with {@link #beginStruct()}
+     */
+    void endStruct() {
+        lastFieldId = lastFieldIds.pop();
+    }
+
+    boolean readBool() {
+        return fieldType == TYPE_BOOLEAN_TRUE;
+    }
+
+    int readI32() throws IOException {
+        return unzigzag((int) readVarLong());
+    }
+
+    long readI64() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    String readString() throws IOException {
+        int length = (int) readVarLong();
+        if (length < 0 || length > in.remaining()) {
+            throw new IOException("Invalid thrift binary length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the header of a list and returns its size, the type of the elements is available via {@link #fieldType()}
+     */
+    int readListBegin() throws IOException {
+        int header = readByte() & 0xFF;
+        fieldType = (byte) (header & 0x0F);
+        int size = header >>> 4;
+        return size == 15 ? (int) readVarLong() : size;
+    }
+
+    /**
+     * Skips the value of the current field
+     */
+    void skip() throws IOException {
+        skip(fieldType);
+    }
+
+    private void skip(byte type) throws IOException {
+        switch (type) {
+            case TYPE_BOOLEAN_TRUE, TYPE_BOOLEAN_FALSE:
+                break;
+
+            case TYPE_BYTE:
+                readByte();
+                break;
+
+            case TYPE_I16, TYPE_I32, TYPE_I64:
+                readVarLong();
+                break;
+
+            case TYPE_DOUBLE:
+                skipBytes(8);
+                break;
+
+            case TYPE_BINARY:
+                skipBytes((int) readVarLong());
+                break;
+
+            case TYPE_LIST, TYPE_SET: {
+                int size = readListBegin();
+                byte elementType = fieldType;
+                for (int i = 0; i < size; i++) {
+                    // booleans within lists are encoded as one byte
+                    if (elementType == TYPE_BOOLEAN_TRUE || elementType == TYPE_BOOLEAN_FALSE) {
+                        readByte();
+                    } else {
+                        skip(elementType);
+                    }
+                }
+                break;
+            }
+
+            case TYPE_MAP: {
+                int size = (int) readVarLong();
+                if (size > 0) {
+                    int types = readByte() & 0xFF;
+                    for (int i = 0; i < size; i++) {
+                        skip((byte) (types >>> 4));
+                        skip((byte) (types & 0x0F));
+                    }
+                }
+                break;
+            }
+
+            case TYPE_STRUCT:
+                beginStruct();
+                while (nextField()) {
+                    skip();
+                }
+                endStruct();
+                break;
+
+            default:
+                throw new IOException("Invalid thrift type: " + type);
+        }
+    }
+
+    private void skipBytes(int length) throws IOException {
+        if (length < 0 || length > in.remaining()) {
+            throw new IOException("Unexpected end of thrift struct");
+        }
+        in.position(in.position() + length);
+    }
+
+    private byte readByte() throws IOException {
+        if (!in.hasRemaining()) {
+            throw new IOException("Unexpected end of thrift struct");
+        }
+        return in.get();
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Invalid thrift varint");
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
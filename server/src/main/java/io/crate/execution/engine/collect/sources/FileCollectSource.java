@@ -43,10 +43,13 @@ import io.crate.data.SkippingBatchIterator;
 import io.crate.execution.dsl.phases.CollectPhase;
 import io.crate.execution.dsl.phases.FileUriCollectPhase;
 import io.crate.execution.engine.collect.CollectTask;
+import io.crate.execution.engine.collect.files.ColumnarFileReadingIterator;
 import io.crate.execution.engine.collect.files.FileInputFactory;
 import io.crate.execution.engine.collect.files.FileReadingIterator;
+import io.crate.execution.engine.collect.files.FileReadingIterator.LineCursor;
 import io.crate.execution.engine.collect.files.LineCollectorExpression;
 import io.crate.execution.engine.collect.files.LineProcessor;
+import io.crate.execution.engine.collect.files.StdinInputs;
 import io.crate.expression.InputFactory;
 import io.crate.expression.reference.file.FileLineReferenceResolver;
 import io.crate.expression.symbol.Symbol;
@@ -64,13 +67,16 @@ public class FileCollectSource implements CollectSource {
     private final InputFactory inputFactory;
     private final NodeContext nodeCtx;
     private final ThreadPool threadPool;
+    private final StdinInputs stdinInputs;
 
     @Inject
     public FileCollectSource(NodeContext nodeCtx,
                              ClusterService clusterService,
                              Map<String, FileInputFactory> fileInputFactoryMap,
-                             ThreadPool threadPool) {
+                             ThreadPool threadPool,
+                             StdinInputs stdinInputs) {
         this.fileInputFactoryMap = fileInputFactoryMap;
+        this.stdinInputs = stdinInputs;
         this.nodeCtx = nodeCtx;
         this.inputFactory = new InputFactory(nodeCtx);
         this.clusterService = clusterService;
@@ -88,21 +94,45 @@ public class FileCollectSource implements CollectSource {
         ctx.add(collectPhase.toCollect());
 
         List<String> fileUris = targetUriToStringList(txnCtx, nodeCtx, fileUriCollectPhase.targetUri());
-        FileReadingIterator fileReadingIterator = new FileReadingIterator(
-            fileUris,
-            fileUriCollectPhase.compression(),
-            fileInputFactoryMap,
-            fileUriCollectPhase.sharedStorage(),
-            fileUriCollectPhase.nodeIds().size(),
-            getReaderNumber(fileUriCollectPhase.nodeIds(), clusterService.state().nodes().getLocalNodeId()),
-            fileUriCollectPhase.withClauseOptions(),
-            threadPool.scheduler()
-        );
+        if (fileUriCollectPhase.inputFormat().isColumnar()) {
+            // the rows of columnar formats are read without parsing lines
+            return CompletableFuture.completedFuture(new ColumnarFileReadingIterator(
+                fileUris,
+                fileUriCollectPhase.inputFormat(),
+                fileInputFactoryMap,
+                fileUriCollectPhase.sharedStorage(),
+                fileUriCollectPhase.nodeIds().size(),
+                getReaderNumber(fileUriCollectPhase.nodeIds(), clusterService.state().nodes().getLocalNodeId()),
+                fileUriCollectPhase.withClauseOptions(),
+                ctx.topLevelInputs(),
+                ctx.expressions()
+            ));
+        }
+        BatchIterator<LineCursor> lines;
+        if (fileUris.size() == 1 && StdinInputs.isStdin(fileUris.get(0))) {
+            // COPY FROM STDIN, the lines are sent by a client connected to this node
+            lines = stdinInputs.remove(FileReadingIterator.toURI(fileUris.get(0)));
+            if (lines == null) {
+                return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "No COPY FROM STDIN input found for URI: " + fileUris.get(0)));
+            }
+        } else {
+            lines = new FileReadingIterator(
+                fileUris,
+                fileUriCollectPhase.compression(),
+                fileInputFactoryMap,
+                fileUriCollectPhase.sharedStorage(),
+                fileUriCollectPhase.nodeIds().size(),
+                getReaderNumber(fileUriCollectPhase.nodeIds(), clusterService.state().nodes().getLocalNodeId()),
+                fileUriCollectPhase.withClauseOptions(),
+                threadPool.scheduler()
+            );
+        }
         CopyFromParserProperties parserProperties = fileUriCollectPhase.parserProperties();
         LineProcessor lineProcessor = new LineProcessor(
             parserProperties.skipNumLines() > 0
-                ? new SkippingBatchIterator<>(fileReadingIterator, (int) parserProperties.skipNumLines())
-                : fileReadingIterator,
+                ? new SkippingBatchIterator<>(lines, (int) parserProperties.skipNumLines())
+                : lines,
             ctx.topLevelInputs(),
             ctx.expressions(),
             fileUriCollectPhase.inputFormat(),
@@ -25,6 +25,7 @@ import io.crate.blob.v2.BlobIndicesService;
 import io.crate.blob.v2.BlobShard;
 import io.crate.execution.engine.collect.BlobShardCollectorProvider;
 import io.crate.execution.engine.collect.LuceneShardCollectorProvider;
+import io.crate.execution.engine.collect.PartialAggregateCache;
 import io.crate.execution.engine.collect.ShardCollectorProvider;
 import io.crate.execution.engine.export.FileOutputFactory;
 import io.crate.execution.jobs.NodeLimits;
@@ -59,6 +60,7 @@ public class ShardCollectorProviderFactory {
 
     private final NodeContext nodeCtx;
     private final LuceneQueryBuilder luceneQueryBuilder;
+    private final PartialAggregateCache partialAggregateCache;
     private final NodeLimits nodeJobsCounter;
     private final BigArrays bigArrays;
     private final Settings settings;
@@ -75,6 +77,7 @@ public class ShardCollectorProviderFactory {
                                          BlobIndicesService blobIndicesService,
                                          NodeContext nodeCtx,
                                          LuceneQueryBuilder luceneQueryBuilder,
+                                         PartialAggregateCache partialAggregateCache,
                                          NodeLimits nodeJobsCounter,
                                          PageCacheRecycler pageCacheRecycler,
                                          Map<String, FileOutputFactory> fileOutputFactoryMap) {
@@ -87,6 +90,7 @@ public class ShardCollectorProviderFactory {
         this.blobIndicesService = blobIndicesService;
         this.nodeCtx = nodeCtx;
         this.luceneQueryBuilder = luceneQueryBuilder;
+        this.partialAggregateCache = partialAggregateCache;
         this.nodeJobsCounter = nodeJobsCounter;
         this.bigArrays = new BigArrays(pageCacheRecycler, circuitBreakerService, HierarchyCircuitBreakerService.QUERY, true);
         this.fileOutputFactoryMap = fileOutputFactoryMap;
@@ -120,6 +124,7 @@ public class ShardCollectorProviderFactory {
                 elasticsearchClient,
                 indexShard,
                 bigArrays,
+                partialAggregateCache,
                 fileOutputFactoryMap);
         }
     }
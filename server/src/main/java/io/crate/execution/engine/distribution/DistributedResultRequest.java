@@ -118,11 +118,25 @@ public class DistributedResultRequest extends TransportRequest {
         return bucketIdx;
     }
 
+    /**
+     * Returns the received rows. If the request has been received from another node,
+     * the rows may share the network buffers of the request and must be released
+     * once consumed. See {@link io.crate.execution.jobs.PageBucketReceiver#setBucket}
+     */
     public Bucket readRows(Streamer<?>[] streamers) {
         rows.streamers(streamers);
         return rows;
     }
 
+    /**
+     * Releases the rows of the request if they are not handed over to a {@link io.crate.execution.jobs.PageBucketReceiver}
+     */
+    void releaseRows() {
+        if (rows != null) {
+            rows.close();
+        }
+    }
+
     public boolean isLast() {
         return isLast;
     }
@@ -149,7 +163,7 @@ public class DistributedResultRequest extends TransportRequest {
             throwable = in.readException();
             isKilled = in.readBoolean();
         } else {
-            rows = new StreamBucket(in);
+            rows = StreamBucket.readRetained(in);
         }
     }
 
@@ -21,30 +21,57 @@
 
 package io.crate.execution.engine.distribution;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.transport.TransportResponse;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.execution.engine.join.JoinKeyFilter;
 
 import java.io.IOException;
 
 public class DistributedResultResponse extends TransportResponse {
 
     private final boolean needMore;
+    @Nullable
+    private final JoinKeyFilter keyFilter;
 
     public DistributedResultResponse(boolean needMore) {
+        this(needMore, null);
+    }
+
+    public DistributedResultResponse(boolean needMore, @Nullable JoinKeyFilter keyFilter) {
         this.needMore = needMore;
+        this.keyFilter = keyFilter;
     }
 
     public boolean needMore() {
         return needMore;
     }
 
+    /**
+     * @return a filter the upstream can use to skip rows which won't be joined by the downstream.
+     */
+    @Nullable
+    public JoinKeyFilter keyFilter() {
+        return keyFilter;
+    }
+
     public DistributedResultResponse(StreamInput in) throws IOException {
         needMore = in.readBoolean();
+        if (in.getVersion().onOrAfter(Version.V_5_6_0)) {
+            keyFilter = in.readOptionalWriteable(JoinKeyFilter::new);
+        } else {
+            keyFilter = null;
+        }
     }
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         out.writeBoolean(needMore);
+        if (out.getVersion().onOrAfter(Version.V_5_6_0)) {
+            out.writeOptionalWriteable(keyFilter);
+        }
     }
 }
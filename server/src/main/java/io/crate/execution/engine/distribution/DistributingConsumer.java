@@ -41,6 +41,7 @@ import io.crate.data.Paging;
 import io.crate.data.Row;
 import io.crate.data.RowConsumer;
 import io.crate.exceptions.SQLExceptions;
+import io.crate.execution.engine.join.JoinKeyFilter;
 import io.crate.execution.support.ActionExecutor;
 import io.crate.execution.support.NodeRequest;
 
@@ -52,6 +53,8 @@ import io.crate.execution.support.NodeRequest;
  *
  * Every time requests to the downstreams are made consumption of the source BatchIterator is stopped until a response
  * from all downstreams is received.
+ *
+ * If all downstreams responded with a {@link JoinKeyFilter}, rows which none of the filters might match are skipped.
  */
 public class DistributingConsumer implements RowConsumer {
 
@@ -73,6 +76,9 @@ public class DistributingConsumer implements RowConsumer {
 
     private volatile Throwable failure;
 
+    @Nullable
+    private JoinKeyFilter[] keyFilters;
+
     public DistributingConsumer(Executor responseExecutor,
                                 UUID jobId,
                                 MultiBucketBuilder multiBucketBuilder,
@@ -117,7 +123,11 @@ public class DistributingConsumer implements RowConsumer {
     private void consumeIt(BatchIterator<Row> it) {
         try {
             while (it.moveNext()) {
-                multiBucketBuilder.add(it.currentElement());
+                Row row = it.currentElement();
+                if (keyFilters != null && mightMatch(keyFilters, row) == false) {
+                    continue;
+                }
+                multiBucketBuilder.add(row);
                 if (multiBucketBuilder.size() >= pageSize || multiBucketBuilder.ramBytesUsed() >= Paging.MAX_PAGE_BYTES) {
                     forwardResults(it, false);
                     return;
@@ -139,6 +149,15 @@ public class DistributingConsumer implements RowConsumer {
         }
     }
 
+    private static boolean mightMatch(JoinKeyFilter[] keyFilters, Row row) {
+        for (JoinKeyFilter keyFilter : keyFilters) {
+            if (keyFilter.mightMatch(row)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void forwardFailure(@Nullable final BatchIterator<?> it, final Throwable f) {
         Throwable failure = SQLExceptions.unwrap(f); // make sure it's streamable
         AtomicInteger numActiveRequests = new AtomicInteger(downstreams.size());
@@ -215,6 +234,9 @@ public class DistributingConsumer implements RowConsumer {
                     (resp, t) -> {
                         if (t == null) {
                             downstream.needsMoreData = resp.needMore();
+                            if (resp.keyFilter() != null) {
+                                downstream.keyFilter = resp.keyFilter();
+                            }
                             countdownAndMaybeContinue(it, numActiveRequests, false);
                         } else {
                             LOGGER.trace(
@@ -237,6 +259,9 @@ public class DistributingConsumer implements RowConsumer {
                                            AtomicInteger numActiveRequests,
                                            boolean sameExecutor) {
         if (numActiveRequests.decrementAndGet() == 0) {
+            if (keyFilters == null && downstreams.stream().allMatch(downstream -> downstream.keyFilter != null)) {
+                keyFilters = downstreams.stream().map(downstream -> downstream.keyFilter).toArray(JoinKeyFilter[]::new);
+            }
             if (downstreams.stream().anyMatch(Downstream::needsMoreData)) {
                 if (failure == null) {
                     if (sameExecutor) {
@@ -270,6 +295,8 @@ public class DistributingConsumer implements RowConsumer {
 
         private final String nodeId;
         private boolean needsMoreData = true;
+        @Nullable
+        private volatile JoinKeyFilter keyFilter;
 
         Downstream(String nodeId) {
             this.nodeId = nodeId;
@@ -24,15 +24,20 @@ package io.crate.execution.engine.distribution;
 import io.crate.Streamer;
 import io.crate.data.Bucket;
 import io.crate.data.Row;
-import io.crate.data.RowN;
 import io.crate.data.breaker.RamAccounting;
 
 import org.apache.lucene.util.Accountable;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.lease.Releasable;
+
+import com.carrotsearch.hppc.IntArrayList;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -40,15 +45,47 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.util.Objects.requireNonNull;
 
-public class StreamBucket implements Bucket, Writeable {
+/**
+ * A {@link Bucket} holding its rows in serialized form.
+ *
+ * <p>
+ * Rows are de-serialized lazily: A row returned by the iterator only decodes the columns
+ * which are accessed via {@link Row#get(int)}. Columns after the highest accessed column are skipped.
+ * </p>
+ *
+ * <p>
+ * A bucket created via {@link #readRetained(StreamInput)} may share the network buffers of the
+ * message it was read from. It must be {@link #close() closed} once its rows are no longer used.
+ * Closing other buckets has no effect.
+ * </p>
+ */
+public class StreamBucket implements Bucket, Writeable, Releasable {
 
     private Streamer<?>[] streamers;
     private int size = -1;
     private BytesReference bytes;
 
+    /**
+     * Start offsets of the rows within {@link #bytes}; null if the bucket was received
+     * from a node which doesn't send them, in which case rows are decoded eagerly.
+     */
+    @Nullable
+    private int[] rowOffsets;
+
+    /**
+     * True if {@link #bytes} share the buffers of the message the bucket was read from
+     * and must be released on {@link #close()}.
+     */
+    private boolean retained = false;
+
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
     public static class Builder implements Accountable {
 
         private static final int INITIAL_PAGE_SIZE = 1024;
@@ -57,6 +94,7 @@ public class StreamBucket implements Bucket, Writeable {
 
         private int size = 0;
         private BytesStreamOutput out;
+        private final IntArrayList rowOffsets = new IntArrayList();
         private int prevOutSize = 0;
 
         public Builder(Streamer<?>[] streamers, RamAccounting ramAccounting) {
@@ -70,6 +108,7 @@ public class StreamBucket implements Bucket, Writeable {
             assert streamers.length == row.numColumns() : "number of streamer must match row size";
 
             size++;
+            rowOffsets.add(out.size());
             for (int i = 0; i < row.numColumns(); i++) {
                 try {
                     //noinspection unchecked
@@ -86,11 +125,13 @@ public class StreamBucket implements Bucket, Writeable {
             StreamBucket sb = new StreamBucket(streamers);
             sb.size = size;
             sb.bytes = out.bytes();
+            sb.rowOffsets = rowOffsets.toArray();
             return sb;
         }
 
         public void reset() {
             out = new BytesStreamOutput(size); // next bucket is probably going to have the same size
+            rowOffsets.clear();
             size = 0;
         }
 
@@ -136,16 +177,26 @@ public class StreamBucket implements Bucket, Writeable {
         private final Streamer<?>[] streamers;
         private final int size;
         private final StreamInput input;
+        private final int numBytes;
+        @Nullable
+        private final int[] rowOffsets;
         private final Object[] current;
-        private final RowN row;
+        private final Row row;
         private int pos = 0;
+        private int numDecoded = 0;
 
-        private RowIterator(StreamInput streamInput, Streamer<?>[] streamers, int size) {
+        private RowIterator(StreamInput streamInput,
+                            int numBytes,
+                            Streamer<?>[] streamers,
+                            int size,
+                            @Nullable int[] rowOffsets) {
             this.streamers = streamers;
             this.size = size;
+            this.numBytes = numBytes;
+            this.rowOffsets = rowOffsets;
             input = streamInput;
             current = new Object[streamers.length];
-            row = new RowN(current);
+            row = new LazyRow();
         }
 
         @Override
@@ -155,20 +206,64 @@ public class StreamBucket implements Bucket, Writeable {
 
         @Override
         public Row next() {
-            for (int c = 0; c < streamers.length; c++) {
-                try {
-                    current[c] = streamers[c].readValueFrom(input);
-                } catch (IOException e) {
-                    throw new UncheckedIOException(e);
+            if (pos >= size) {
+                throw new NoSuchElementException("StreamBucket has no more rows");
+            }
+            try {
+                if (rowOffsets == null) {
+                    numDecoded = 0;
+                    decodeUpTo(streamers.length - 1);
+                } else {
+                    skipTo(rowOffsets[pos]);
+                    numDecoded = 0;
                 }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
             pos++;
             return row;
         }
 
+        private void skipTo(int offset) throws IOException {
+            int toSkip = offset - (numBytes - input.available());
+            assert toSkip >= 0 : "Rows must be read in order";
+            if (toSkip > 0) {
+                long skipped = input.skip(toSkip);
+                assert skipped == toSkip : "Must skip the remaining columns of the previous row";
+            }
+        }
+
+        private void decodeUpTo(int column) throws IOException {
+            for (int c = numDecoded; c <= column; c++) {
+                current[c] = streamers[c].readValueFrom(input);
+            }
+            numDecoded = Math.max(numDecoded, column + 1);
+        }
+
         @Override
         public void remove() {
         }
+
+        private final class LazyRow extends Row {
+
+            @Override
+            public int numColumns() {
+                return current.length;
+            }
+
+            @Override
+            public Object get(int index) {
+                if (index >= numDecoded) {
+                    Objects.checkIndex(index, current.length);
+                    try {
+                        decodeUpTo(index);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return current[index];
+            }
+        }
     }
 
     @Override
@@ -178,8 +273,11 @@ public class StreamBucket implements Bucket, Writeable {
             return Collections.emptyIterator();
         }
         assert streamers != null : "streamers must not be null";
+        if (released.get()) {
+            throw new IllegalStateException("StreamBucket has already been released");
+        }
         try {
-            return new RowIterator(bytes.streamInput(), streamers, size);
+            return new RowIterator(bytes.streamInput(), bytes.length(), streamers, size, rowOffsets);
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -199,9 +297,75 @@ public class StreamBucket implements Bucket, Writeable {
      * Before consuming the rows it is necessary to set the {@link #streamers(Streamer[])}
      */
     public StreamBucket(StreamInput in) throws IOException {
+        this(in, false);
+    }
+
+    private StreamBucket(StreamInput in, boolean retain) throws IOException {
         size = in.readVInt();
         if (size > 0) {
-            bytes = in.readBytesReference();
+            retained = retain && in.sharesReleasableBytes();
+            bytes = retained ? in.readReleasableBytesReference() : in.readBytesReference();
+            try {
+                if (in.getVersion().onOrAfter(Version.V_5_6_0) && in.readBoolean()) {
+                    rowOffsets = new int[size];
+                    int offset = 0;
+                    for (int i = 0; i < size; i++) {
+                        rowOffsets[i] = offset;
+                        offset += in.readVInt();
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Create a StreamBucket by reading from an input stream without copying the serialized rows
+     * if the stream is backed by a {@link ReleasableBytesReference}, e.g. the pooled network buffers of a
+     * transport message. The returned bucket must be {@link #close() closed} once its rows have been consumed.
+     * Before consuming the rows it is necessary to set the {@link #streamers(Streamer[])}
+     */
+    public static StreamBucket readRetained(StreamInput in) throws IOException {
+        return new StreamBucket(in, true);
+    }
+
+    /**
+     * Releases the bytes of the bucket if it has been created via {@link #readRetained(StreamInput)}
+     * and shares the bytes of the stream. Rows must not be accessed afterwards.
+     */
+    @Override
+    public void close() {
+        if (retained && released.compareAndSet(false, true)) {
+            ((ReleasableBytesReference) bytes).close();
+        }
+    }
+
+    /**
+     * Returns a copy of this bucket which holds the rows on the heap and releases this bucket
+     * if it has been created via {@link #readRetained(StreamInput)} and shares the bytes of the stream.
+     * Otherwise returns this bucket.
+     * To be used by consumers which keep the rows beyond a single pass over them.
+     */
+    public StreamBucket copyIfRetained() {
+        if (!retained) {
+            return this;
+        }
+        StreamBucket copy = new StreamBucket(streamers);
+        copy.size = size;
+        copy.bytes = new BytesArray(BytesReference.toBytes(bytes));
+        copy.rowOffsets = rowOffsets;
+        close();
+        return copy;
+    }
+
+    /**
+     * Releases the bucket if it holds resources which must be released.
+     */
+    public static void release(@Nullable Bucket bucket) {
+        if (bucket instanceof Releasable releasable) {
+            releasable.close();
         }
     }
 
@@ -218,6 +382,15 @@ public class StreamBucket implements Bucket, Writeable {
         out.writeVInt(size);
         if (size > 0) {
             out.writeBytesReference(bytes);
+            if (out.getVersion().onOrAfter(Version.V_5_6_0)) {
+                out.writeBoolean(rowOffsets != null);
+                if (rowOffsets != null) {
+                    for (int i = 0; i < size; i++) {
+                        int end = i + 1 < size ? rowOffsets[i + 1] : bytes.length();
+                        out.writeVInt(end - rowOffsets[i]);
+                    }
+                }
+            }
         }
     }
 }
@@ -48,6 +48,7 @@ import io.crate.exceptions.JobKilledException;
 import io.crate.exceptions.TaskMissing;
 import io.crate.execution.jobs.DownstreamRXTask;
 import io.crate.execution.jobs.PageBucketReceiver;
+import io.crate.execution.engine.join.JoinKeyFilter;
 import io.crate.execution.jobs.PageResultListener;
 import io.crate.execution.jobs.RootTask;
 import io.crate.execution.jobs.TasksService;
@@ -138,6 +139,7 @@ public class TransportDistributedResultAction extends TransportAction<NodeReques
         RootTask rootTask = tasksService.getTaskOrNull(request.jobId());
         if (rootTask == null) {
             if (tasksService.recentlyFailed(request.jobId())) {
+                request.releaseRows();
                 return CompletableFuture.failedFuture(JobKilledException.of(
                     "Received result for job=" + request.jobId() + " but there is no context for this job due to a failure during the setup."));
             } else {
@@ -149,6 +151,7 @@ public class TransportDistributedResultAction extends TransportAction<NodeReques
         try {
             rxTask = rootTask.getTask(request.executionPhaseId());
         } catch (ClassCastException e) {
+            request.releaseRows();
             return CompletableFuture.failedFuture(
                 new IllegalStateException(
                     String.format(
@@ -156,11 +159,13 @@ public class TransportDistributedResultAction extends TransportAction<NodeReques
                         "Found execution rootTask for %d but it's not a downstream rootTask",
                         request.executionPhaseId()), e));
         } catch (Throwable t) {
+            request.releaseRows();
             return CompletableFuture.failedFuture(t);
         }
 
         PageBucketReceiver pageBucketReceiver = rxTask.getBucketReceiver(request.executionPhaseInputId());
         if (pageBucketReceiver == null) {
+            request.releaseRows();
             return CompletableFuture.failedFuture(
                 new IllegalStateException(
                     String.format(
@@ -204,6 +209,7 @@ public class TransportDistributedResultAction extends TransportAction<NodeReques
             if (LOGGER.isTraceEnabled()) {
                 LOGGER.trace("Received a result for job={} but couldn't find a RootTask for it", request.jobId());
             }
+            request.releaseRows();
             List<String> excludedNodeIds = Collections.singletonList(clusterService.localNode().getId());
             /* The upstream (DistributingConsumer) forwards failures to other downstreams and eventually considers its job done.
              * But it cannot inform the handler-merge about a failure because the JobResponse is sent eagerly.
@@ -236,8 +242,13 @@ public class TransportDistributedResultAction extends TransportAction<NodeReques
 
         @Override
         public void needMore(boolean needMore) {
+            needMore(needMore, null);
+        }
+
+        @Override
+        public void needMore(boolean needMore, @Nullable JoinKeyFilter keyFilter) {
             LOGGER.trace("sending needMore response, need more? {}", needMore);
-            future.complete(new DistributedResultResponse(needMore));
+            future.complete(new DistributedResultResponse(needMore, keyFilter));
         }
     }
 
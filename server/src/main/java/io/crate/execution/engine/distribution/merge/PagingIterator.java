@@ -57,6 +57,14 @@ public interface PagingIterator<TKey, TRow> extends Iterator<TRow> {
      */
     Iterable<TRow> repeat();
 
+    /**
+     * @return true if each merged iterable is iterated only once and never accessed after it has been exhausted.
+     *         Resources backing an iterable can then be released as soon as it is exhausted.
+     */
+    default boolean isSinglePass() {
+        return false;
+    }
+
     /**
      * Returns the suitable {@link PagingIterator} according to the use case.
      * If requiresRepeat is true or we're looking to create and ordered iterator then the PagingIterator is wrapped with
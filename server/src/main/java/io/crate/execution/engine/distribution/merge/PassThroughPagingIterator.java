@@ -91,6 +91,11 @@ public class PassThroughPagingIterator<TKey, TRow> implements PagingIterator<TKe
         return null;
     }
 
+    @Override
+    public boolean isSinglePass() {
+        return !repeatable;
+    }
+
     @Override
     public Iterable<TRow> repeat() {
         if (!repeatable) {
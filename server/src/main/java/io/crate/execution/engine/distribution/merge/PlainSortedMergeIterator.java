@@ -116,6 +116,11 @@ final class PlainSortedMergeIterator<TKey, TRow> implements PagingIterator<TKey,
         throw new UnsupportedOperationException("cannot repeat with " + getClass().getSimpleName());
     }
 
+    @Override
+    public boolean isSinglePass() {
+        return true;
+    }
+
     private static class NumberedPeekingIterator<TKey, TRow> implements PeekingIterator<TRow> {
 
         private final TKey key;
@@ -59,6 +59,7 @@ import io.crate.execution.dsl.projection.WriterProjection;
 import io.crate.execution.engine.collect.CollectExpression;
 import io.crate.metadata.ColumnIdent;
 import io.crate.server.xcontent.XContentHelper;
+import io.crate.types.DataType;
 
 /**
  * Collector implementation which writes the rows to the configured {@link FileOutput}
@@ -71,6 +72,7 @@ public class FileWriterCountCollector implements Collector<Row, long[], Iterable
     private final Executor executor;
     private final Iterable<CollectExpression<Row, ?>> collectExpressions;
     private final List<Input<?>> inputs;
+    private final List<DataType<?>> inputTypes;
     private final URI uri;
     private final FileOutput fileOutput;
     private final Map<String, Object> overwrites;
@@ -78,6 +80,7 @@ public class FileWriterCountCollector implements Collector<Row, long[], Iterable
     @Nullable
     private final List<String> outputNames;
     private final WriterProjection.OutputFormat outputFormat;
+    private final Settings withClauseOptions;
 
     private final RowWriter rowWriter;
 
@@ -85,6 +88,7 @@ public class FileWriterCountCollector implements Collector<Row, long[], Iterable
                              String uriStr,
                              @Nullable WriterProjection.CompressionType compressionType,
                              @Nullable List<Input<?>> inputs,
+                             List<DataType<?>> inputTypes,
                              Iterable<CollectExpression<Row, ?>> collectExpressions,
                              Map<ColumnIdent, Object> overwrites,
                              @Nullable List<String> outputNames,
@@ -94,10 +98,12 @@ public class FileWriterCountCollector implements Collector<Row, long[], Iterable
         this.executor = executor;
         this.collectExpressions = collectExpressions;
         this.inputs = inputs;
+        this.inputTypes = inputTypes;
         this.overwrites = toNestedStringObjectMap(overwrites);
         this.compressionType = compressionType;
         this.outputNames = outputNames;
         this.outputFormat = outputFormat;
+        this.withClauseOptions = withClauseOptions;
         try {
             uri = new URI(uriStr);
         } catch (URISyntaxException e) {
@@ -153,7 +159,19 @@ public class FileWriterCountCollector implements Collector<Row, long[], Iterable
 
     private RowWriter initWriter() {
         try {
-            if (!overwrites.isEmpty()) {
+            if (outputFormat == WriterProjection.OutputFormat.PARQUET) {
+                assert inputs != null && outputNames != null : "PARQUET requires the inputs and their names";
+                // the compression is applied to the pages, the file itself is not compressed
+                return new ParquetRowWriter(
+                    fileOutput.acquireOutputStream(executor, uri, null),
+                    collectExpressions,
+                    inputs,
+                    outputNames,
+                    inputTypes,
+                    compressionType,
+                    withClauseOptions
+                );
+            } else if (!overwrites.isEmpty()) {
                 return new DocWriter(
                     fileOutput.acquireOutputStream(executor, uri, compressionType), collectExpressions, overwrites);
             } else if (outputFormat.equals(WriterProjection.OutputFormat.JSON_ARRAY)) {
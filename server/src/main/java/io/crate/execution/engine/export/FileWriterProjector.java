@@ -29,6 +29,7 @@ import io.crate.data.Row;
 import io.crate.execution.dsl.projection.WriterProjection;
 import io.crate.execution.engine.collect.CollectExpression;
 import io.crate.metadata.ColumnIdent;
+import io.crate.types.DataType;
 import org.elasticsearch.common.settings.Settings;
 
 import org.jetbrains.annotations.Nullable;
@@ -41,6 +42,7 @@ public class FileWriterProjector implements Projector {
     private final String uri;
     private final Iterable<CollectExpression<Row, ?>> collectExpressions;
     private final List<Input<?>> inputs;
+    private final List<DataType<?>> inputTypes;
     private final Map<ColumnIdent, Object> overwrites;
     @Nullable
     private final List<String> outputNames;
@@ -57,11 +59,13 @@ public class FileWriterProjector implements Projector {
      *               That raw source is then written to the output
      *               <p/>
      *               If inputs is not null the inputs are consumed to write a JSON array to the output.
+     * @param inputTypes the types of the inputs, used to define the schema of {@link WriterProjection.OutputFormat#PARQUET}
      */
     public FileWriterProjector(Executor executor,
                                String uri,
                                @Nullable WriterProjection.CompressionType compressionType,
                                @Nullable List<Input<?>> inputs,
+                               List<DataType<?>> inputTypes,
                                Iterable<CollectExpression<Row, ?>> collectExpressions,
                                Map<ColumnIdent, Object> overwrites,
                                @Nullable List<String> outputNames,
@@ -71,6 +75,7 @@ public class FileWriterProjector implements Projector {
         this.collectExpressions = collectExpressions;
         this.executor = executor;
         this.inputs = inputs;
+        this.inputTypes = inputTypes;
         this.overwrites = overwrites;
         this.outputNames = outputNames;
         this.outputFormat = outputFormat;
@@ -89,6 +94,7 @@ public class FileWriterProjector implements Projector {
                 uri,
                 compressionType,
                 inputs,
+                inputTypes,
                 collectExpressions,
                 overwrites,
                 outputNames,
@@ -0,0 +1,536 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.IntUnaryOperator;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.types.ArrayType;
+import io.crate.types.BooleanType;
+import io.crate.types.ByteType;
+import io.crate.types.DataType;
+import io.crate.types.DoubleType;
+import io.crate.types.FloatType;
+import io.crate.types.GeoShapeType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.ObjectType;
+import io.crate.types.ShortType;
+import io.crate.types.TimestampType;
+
+/**
+ * Buffers the values of a single column of a parquet row group.
+ *
+ * <p>
+ * Every column is an optional, non-repeated field of the schema. The values are added to data pages (v1) of about
+ * {@link #PAGE_SIZE} bytes which are compressed once they are full, and kept in memory until the row group is
+ * written, because the column chunks of a row group are stored one after another.
+ * </p>
+ *
+ * <p>
+ * Values other than booleans are dictionary encoded until the dictionary of the column chunk exceeds
+ * {@link #MAX_DICTIONARY_BYTES}. The following pages of the column chunk then use the plain encoding.
+ * </p>
+ *
+ * <p>
+ * Primitive types are mapped to the corresponding parquet types, timestamps to {@code INT64} annotated as
+ * {@code TIMESTAMP_MILLIS}. All other values are written as {@code BYTE_ARRAY} containing their text, or JSON
+ * representation for objects, arrays and geo shapes.
+ * </p>
+ */
+final class ParquetColumnWriter {
+
+    static final int PAGE_SIZE = 1024 * 1024;
+    static final int MAX_DICTIONARY_BYTES = 1024 * 1024;
+
+    // parquet.thrift: Type
+    static final int BOOLEAN = 0;
+    static final int INT32 = 1;
+    static final int INT64 = 2;
+    static final int FLOAT = 4;
+    static final int DOUBLE = 5;
+    static final int BYTE_ARRAY = 6;
+
+    // parquet.thrift: ConvertedType
+    private static final int UTF8 = 0;
+    private static final int TIMESTAMP_MILLIS = 9;
+    private static final int INT_8 = 15;
+    private static final int INT_16 = 16;
+    private static final int JSON = 19;
+
+    // parquet.thrift: Encoding
+    static final int PLAIN = 0;
+    static final int PLAIN_DICTIONARY = 2;
+    static final int RLE = 3;
+
+    // parquet.thrift: PageType
+    private static final int DATA_PAGE = 0;
+    private static final int DICTIONARY_PAGE = 2;
+
+    private final String name;
+    private final DataType<?> dataType;
+    private final int type;
+    @Nullable
+    private final Integer convertedType;
+    private final boolean useDictionary;
+    private final ParquetRowWriter.Codec codec;
+
+    private final Map<Object, Integer> dictionary = new HashMap<>();
+    private final ByteArrayOutputStream dictionaryValues = new ByteArrayOutputStream();
+    private boolean dictionaryEncoding;
+
+    // current page
+    private int[] definitionLevels = new int[1024];
+    private int[] ids = new int[1024];
+    private int numIds = 0;
+    private final ByteArrayOutputStream plainValues = new ByteArrayOutputStream();
+    private int pageNumValues = 0;
+
+    // completed pages of the column chunk
+    private final List<byte[]> pages = new ArrayList<>();
+    private final TreeSet<Integer> encodings = new TreeSet<>();
+    private long pagesCompressedBytes = 0;
+    private long pagesUncompressedBytes = 0;
+    private long chunkNumValues = 0;
+
+    ParquetColumnWriter(String name, DataType<?> dataType, boolean useDictionary, ParquetRowWriter.Codec codec) {
+        this.name = name;
+        this.dataType = dataType;
+        this.codec = codec;
+        switch (dataType.id()) {
+            case BooleanType.ID -> {
+                type = BOOLEAN;
+                convertedType = null;
+            }
+            case ByteType.ID -> {
+                type = INT32;
+                convertedType = INT_8;
+            }
+            case ShortType.ID -> {
+                type = INT32;
+                convertedType = INT_16;
+            }
+            case IntegerType.ID -> {
+                type = INT32;
+                convertedType = null;
+            }
+            case LongType.ID -> {
+                type = INT64;
+                convertedType = null;
+            }
+            case TimestampType.ID_WITH_TZ, TimestampType.ID_WITHOUT_TZ -> {
+                type = INT64;
+                convertedType = TIMESTAMP_MILLIS;
+            }
+            case FloatType.ID -> {
+                type = FLOAT;
+                convertedType = null;
+            }
+            case DoubleType.ID -> {
+                type = DOUBLE;
+                convertedType = null;
+            }
+            case ObjectType.ID, ArrayType.ID, GeoShapeType.ID -> {
+                type = BYTE_ARRAY;
+                convertedType = JSON;
+            }
+            default -> {
+                type = BYTE_ARRAY;
+                convertedType = UTF8;
+            }
+        }
+        this.useDictionary = useDictionary && type != BOOLEAN;
+        this.dictionaryEncoding = this.useDictionary;
+    }
+
+    /**
+     * Adds the schema element of the column to the footer
+     */
+    void writeSchemaElement(ThriftCompactWriter writer) {
+        writer.beginListStruct()
+            .i32(1, type)
+            .i32(3, 1) // repetition_type: OPTIONAL
+            .string(4, name);
+        if (convertedType != null) {
+            writer.i32(6, convertedType);
+        }
+        writer.endStruct();
+    }
+
+    void add(@Nullable Object value) throws IOException {
+        if (pageNumValues == definitionLevels.length) {
+            definitionLevels = Arrays.copyOf(definitionLevels, pageNumValues * 2);
+        }
+        pageNumValues++;
+        if (value == null) {
+            definitionLevels[pageNumValues - 1] = 0;
+        } else {
+            definitionLevels[pageNumValues - 1] = 1;
+            addValue(value);
+        }
+        if (pageBytes() >= PAGE_SIZE) {
+            finishPage();
+        }
+    }
+
+    private void addValue(Object value) throws IOException {
+        if (type == BOOLEAN) {
+            addId((Boolean) value ? 1 : 0);
+            return;
+        }
+        Object key = type == BYTE_ARRAY ? new BytesRef(toBytes(value)) : value;
+        if (!dictionaryEncoding) {
+            writePlain(plainValues, key);
+            return;
+        }
+        Integer id = dictionary.get(key);
+        if (id == null) {
+            id = dictionary.size();
+            dictionary.put(key, id);
+            writePlain(dictionaryValues, key);
+        }
+        addId(id);
+        if (dictionaryValues.size() > MAX_DICTIONARY_BYTES) {
+            // The remaining pages of the column chunk are plain encoded
+            finishPage();
+            dictionaryEncoding = false;
+        }
+    }
+
+    private void addId(int id) {
+        if (numIds == ids.length) {
+            ids = Arrays.copyOf(ids, numIds * 2);
+        }
+        ids[numIds++] = id;
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] toBytes(Object value) throws IOException {
+        if (convertedType != null && convertedType == JSON) {
+            XContentBuilder builder = JsonXContent.builder();
+            if (dataType.id() == ObjectType.ID || dataType.id() == GeoShapeType.ID) {
+                builder.map((Map<String, Object>) value);
+            } else {
+                builder.value(value);
+            }
+            return Strings.toString(builder).getBytes(StandardCharsets.UTF_8);
+        }
+        if (value instanceof String str) {
+            return str.getBytes(StandardCharsets.UTF_8);
+        }
+        return Strings.toString(JsonXContent.builder().value(value)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void writePlain(ByteArrayOutputStream out, Object value) {
+        switch (type) {
+            case INT32 -> writeIntLE(out, ((Number) value).intValue());
+            case INT64 -> writeLongLE(out, ((Number) value).longValue());
+            case FLOAT -> writeIntLE(out, Float.floatToIntBits(((Number) value).floatValue()));
+            case DOUBLE -> writeLongLE(out, Double.doubleToLongBits(((Number) value).doubleValue()));
+            case BYTE_ARRAY -> {
+                BytesRef bytes = (BytesRef) value;
+                writeIntLE(out, bytes.length);
+                out.write(bytes.bytes, bytes.offset, bytes.length);
+            }
+            default -> throw new AssertionError("Unexpected parquet type: " + type);
+        }
+    }
+
+    private int pageBytes() {
+        int valueBytes;
+        if (type == BOOLEAN) {
+            valueBytes = numIds / 8;
+        } else if (dictionaryEncoding && !dictionary.isEmpty()) {
+            valueBytes = (int) ((long) numIds * bitWidth(dictionary.size() - 1) / 8);
+        } else {
+            valueBytes = plainValues.size();
+        }
+        return valueBytes + pageNumValues / 8;
+    }
+
+    /**
+     * @return the number of bytes held by the column for the current row group
+     */
+    long bufferedBytes() {
+        return pagesCompressedBytes + pageBytes() + dictionaryValues.size();
+    }
+
+    /**
+     * Encodes and compresses the current page
+     */
+    void finishPage() throws IOException {
+        if (pageNumValues == 0) {
+            return;
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream(pageBytes() + 16);
+        byte[] levels = encodeHybrid(definitionLevels, pageNumValues, 1);
+        writeIntLE(body, levels.length);
+        body.write(levels);
+        int encoding;
+        if (type == BOOLEAN) {
+            encoding = PLAIN;
+            body.write(bitPack(ids, numIds, 1));
+        } else if (dictionaryEncoding && !dictionary.isEmpty()) {
+            encoding = PLAIN_DICTIONARY;
+            int bitWidth = bitWidth(dictionary.size() - 1);
+            body.write(bitWidth);
+            body.write(encodeHybrid(ids, numIds, bitWidth));
+        } else {
+            encoding = PLAIN;
+            plainValues.writeTo(body);
+        }
+        byte[] uncompressed = body.toByteArray();
+        byte[] compressed = codec.compress(uncompressed);
+        byte[] header = new ThriftCompactWriter()
+            .i32(1, DATA_PAGE)
+            .i32(2, uncompressed.length)
+            .i32(3, compressed.length)
+            .beginStruct(5)
+                .i32(1, pageNumValues)
+                .i32(2, encoding)
+                .i32(3, RLE)
+                .i32(4, RLE)
+            .endStruct()
+            .finish();
+        addPage(header, compressed, uncompressed.length);
+        encodings.add(encoding);
+        encodings.add(RLE);
+        chunkNumValues += pageNumValues;
+        pageNumValues = 0;
+        numIds = 0;
+        plainValues.reset();
+    }
+
+    private void addPage(byte[] header, byte[] compressed, int uncompressedLength) {
+        byte[] page = Arrays.copyOf(header, header.length + compressed.length);
+        System.arraycopy(compressed, 0, page, header.length, compressed.length);
+        pages.add(page);
+        pagesCompressedBytes += page.length;
+        pagesUncompressedBytes += header.length + uncompressedLength;
+    }
+
+    /**
+     * Writes the column chunk of the current row group, consisting of the dictionary page, if the column chunk
+     * is dictionary encoded, and the data pages. Resets the column for the next row group.
+     *
+     * @param offset the position of the output within the file
+     */
+    ColumnChunk writeChunk(OutputStream out, long offset) throws IOException {
+        finishPage();
+        Long dictionaryPageOffset = null;
+        long dataPageOffset = offset;
+        if (!dictionary.isEmpty()) {
+            byte[] uncompressed = dictionaryValues.toByteArray();
+            byte[] compressed = codec.compress(uncompressed);
+            byte[] header = new ThriftCompactWriter()
+                .i32(1, DICTIONARY_PAGE)
+                .i32(2, uncompressed.length)
+                .i32(3, compressed.length)
+                .beginStruct(7)
+                    .i32(1, dictionary.size())
+                    .i32(2, PLAIN_DICTIONARY)
+                .endStruct()
+                .finish();
+            out.write(header);
+            out.write(compressed);
+            dictionaryPageOffset = offset;
+            dataPageOffset += header.length + compressed.length;
+            pagesCompressedBytes += header.length + compressed.length;
+            pagesUncompressedBytes += header.length + uncompressed.length;
+            encodings.add(PLAIN_DICTIONARY);
+        }
+        for (byte[] page : pages) {
+            out.write(page);
+        }
+        final ColumnChunk chunk = new ColumnChunk(
+            name,
+            type,
+            List.copyOf(encodings),
+            codec,
+            chunkNumValues,
+            pagesUncompressedBytes,
+            pagesCompressedBytes,
+            dataPageOffset,
+            dictionaryPageOffset
+        );
+        pages.clear();
+        encodings.clear();
+        pagesCompressedBytes = 0;
+        pagesUncompressedBytes = 0;
+        chunkNumValues = 0;
+        dictionary.clear();
+        dictionaryValues.reset();
+        dictionaryEncoding = useDictionary;
+        return chunk;
+    }
+
+    record ColumnChunk(String name,
+                       int type,
+                       List<Integer> encodings,
+                       ParquetRowWriter.Codec codec,
+                       long numValues,
+                       long uncompressedBytes,
+                       long compressedBytes,
+                       long dataPageOffset,
+                       @Nullable Long dictionaryPageOffset) {
+
+        long offset() {
+            return dictionaryPageOffset == null ? dataPageOffset : dictionaryPageOffset;
+        }
+
+        void writeTo(ThriftCompactWriter writer) {
+            writer.beginListStruct()
+                .i64(2, offset())
+                .beginStruct(3)
+                    .i32(1, type)
+                    .beginList(2, ThriftCompactWriter.TYPE_I32, encodings.size());
+            for (int encoding : encodings) {
+                writer.listI32(encoding);
+            }
+            writer.beginList(3, ThriftCompactWriter.TYPE_BINARY, 1)
+                    .listString(name)
+                    .i32(4, codec.id())
+                    .i64(5, numValues)
+                    .i64(6, uncompressedBytes)
+                    .i64(7, compressedBytes)
+                    .i64(9, dataPageOffset);
+            if (dictionaryPageOffset != null) {
+                writer.i64(11, dictionaryPageOffset);
+            }
+            writer.endStruct()
+                .endStruct();
+        }
+    }
+
+    static int bitWidth(int maxValue) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(maxValue));
+    }
+
+    /**
+     * Encodes the values using the RLE/bit-packing hybrid encoding:
+     * Runs of at least 8 equal values are run length encoded, the other values are bit-packed in groups of 8.
+     */
+    static byte[] encodeHybrid(int[] values, int numValues, int bitWidth) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(numValues * bitWidth / 8 + 16);
+        int bitPackedStart = 0;
+        int i = 0;
+        while (i < numValues) {
+            int runEnd = i + 1;
+            while (runEnd < numValues && values[runEnd] == values[i]) {
+                runEnd++;
+            }
+            int runLength = runEnd - i;
+            if (runLength >= 8) {
+                // complete the pending group of bit-packed values, which must consist of 8 values
+                int fill = (8 - (i - bitPackedStart) % 8) % 8;
+                i += fill;
+                runLength -= fill;
+                if (runLength >= 8) {
+                    writeBitPacked(out, values, bitPackedStart, i, bitWidth);
+                    writeUnsignedVarInt(out, runLength << 1);
+                    int value = values[i];
+                    for (int b = 0; b < (bitWidth + 7) / 8; b++) {
+                        out.write(value >>> (b * 8));
+                    }
+                    bitPackedStart = runEnd;
+                }
+            }
+            i = runEnd;
+        }
+        writeBitPacked(out, values, bitPackedStart, numValues, bitWidth);
+        return out.toByteArray();
+    }
+
+    private static void writeBitPacked(ByteArrayOutputStream out, int[] values, int from, int to, int bitWidth) {
+        if (from == to) {
+            return;
+        }
+        int numGroups = (to - from + 7) / 8;
+        writeUnsignedVarInt(out, (numGroups << 1) | 1);
+        // the last group is padded with zeros
+        int paddedTo = from + numGroups * 8;
+        byte[] packed = bitPack(idx -> idx < to ? values[idx] : 0, from, paddedTo, bitWidth);
+        out.write(packed, 0, packed.length);
+    }
+
+    /**
+     * Packs the values with the least significant bit first, as used by the plain encoding of booleans.
+     */
+    static byte[] bitPack(int[] values, int numValues, int bitWidth) {
+        return bitPack(idx -> values[idx], 0, numValues, bitWidth);
+    }
+
+    private static byte[] bitPack(IntUnaryOperator values, int from, int to, int bitWidth) {
+        byte[] packed = new byte[(int) (((long) (to - from) * bitWidth + 7) / 8)];
+        int pos = 0;
+        long buffer = 0;
+        int bits = 0;
+        for (int i = from; i < to; i++) {
+            buffer |= (values.applyAsInt(i) & 0xFFFFFFFFL) << bits;
+            bits += bitWidth;
+            while (bits >= 8) {
+                packed[pos++] = (byte) buffer;
+                buffer >>>= 8;
+                bits -= 8;
+            }
+        }
+        if (bits > 0) {
+            packed[pos] = (byte) buffer;
+        }
+        return packed;
+    }
+
+    private static void writeUnsignedVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    private static void writeLongLE(ByteArrayOutputStream out, long value) {
+        writeIntLE(out, (int) value);
+        writeIntLE(out, (int) (value >>> 32));
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.exceptions.UnhandledServerException;
+import io.crate.execution.dsl.projection.WriterProjection;
+import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.types.DataType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.compression.Snappy;
+
+/**
+ * Writes the rows as a parquet file (https://parquet.apache.org/docs/file-format/).
+ *
+ * <p>
+ * The rows are buffered column by column, see {@link ParquetColumnWriter}. Once the buffered data exceeds
+ * {@link #ROW_GROUP_SIZE}, the column chunks are written to the output as a row group, so the memory usage is
+ * bounded independent of the number of rows. The footer describing the schema and the row groups is written once
+ * all rows have been written.
+ * </p>
+ */
+class ParquetRowWriter implements FileWriterCountCollector.RowWriter {
+
+    public static final Setting<ByteSizeValue> ROW_GROUP_SIZE = Setting.byteSizeSetting(
+        "row_group_size",
+        new ByteSizeValue(32, ByteSizeUnit.MB)
+    );
+
+    public static final Setting<Boolean> DICTIONARY_ENCODING = Setting.boolSetting("dictionary_encoding", true);
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * The uncompressed length of the blocks compressed by {@link Snappy#encode(ByteBuf, ByteBuf, int)}, which
+     * indexes the positions within a block using shorts.
+     */
+    private static final int SNAPPY_BLOCK_SIZE = Short.MAX_VALUE;
+
+    /**
+     * Compression of the pages, parquet.thrift: CompressionCodec
+     */
+    enum Codec {
+        UNCOMPRESSED(0),
+        SNAPPY(1),
+        GZIP(2);
+
+        private final int id;
+
+        Codec(int id) {
+            this.id = id;
+        }
+
+        int id() {
+            return id;
+        }
+
+        static Codec of(@Nullable WriterProjection.CompressionType compressionType) {
+            if (compressionType == null) {
+                return UNCOMPRESSED;
+            }
+            return switch (compressionType) {
+                case GZIP -> GZIP;
+                case SNAPPY -> SNAPPY;
+            };
+        }
+
+        byte[] compress(byte[] data) throws IOException {
+            switch (this) {
+                case UNCOMPRESSED:
+                    return data;
+
+                case GZIP:
+                    ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 32);
+                    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                        gzip.write(data);
+                    }
+                    return out.toByteArray();
+
+                case SNAPPY:
+                    return snappy(data);
+
+                default:
+                    throw new AssertionError("Unexpected codec: " + this);
+            }
+        }
+
+        /**
+         * Compresses the data using the raw snappy format: The uncompressed length followed by the compressed
+         * elements. The data is compressed in blocks whose elements only refer to previous data of the same block.
+         */
+        private static byte[] snappy(byte[] data) {
+            ByteBuf in = Unpooled.wrappedBuffer(data);
+            ByteBuf out = Unpooled.buffer(data.length + data.length / 6 + 32);
+            ByteBuf block = Unpooled.buffer(SNAPPY_BLOCK_SIZE + SNAPPY_BLOCK_SIZE / 6 + 32);
+            try {
+                writeUnsignedVarInt(out, data.length);
+                Snappy snappy = new Snappy();
+                while (in.isReadable()) {
+                    int blockLength = Math.min(in.readableBytes(), SNAPPY_BLOCK_SIZE);
+                    block.clear();
+                    snappy.encode(in.readSlice(blockLength), block, blockLength);
+                    // skip the uncompressed length of the block
+                    while ((block.readByte() & 0x80) != 0) {
+                        assert block.isReadable() : "Compressed block must contain its length";
+                    }
+                    out.writeBytes(block);
+                }
+                byte[] compressed = new byte[out.readableBytes()];
+                out.readBytes(compressed);
+                return compressed;
+            } finally {
+                out.release();
+                block.release();
+            }
+        }
+
+        private static void writeUnsignedVarInt(ByteBuf out, int value) {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+
+    private final OutputStream outputStream;
+    private final Iterable<CollectExpression<Row, ?>> collectExpressions;
+    private final List<Input<?>> inputs;
+    private final List<ParquetColumnWriter> columns;
+    private final long rowGroupSize;
+    private final List<RowGroup> rowGroups = new ArrayList<>();
+
+    private long position = 0;
+    private long rowGroupNumRows = 0;
+    private long totalNumRows = 0;
+
+    ParquetRowWriter(OutputStream outputStream,
+                     Iterable<CollectExpression<Row, ?>> collectExpressions,
+                     List<Input<?>> inputs,
+                     List<String> outputNames,
+                     List<DataType<?>> outputTypes,
+                     @Nullable WriterProjection.CompressionType compressionType,
+                     Settings withClauseOptions) throws IOException {
+        assert inputs.size() == outputNames.size() && inputs.size() == outputTypes.size()
+            : "Each input must have a name and a type";
+        this.outputStream = outputStream;
+        this.collectExpressions = collectExpressions;
+        this.inputs = inputs;
+        this.rowGroupSize = ROW_GROUP_SIZE.get(withClauseOptions).getBytes();
+        Codec codec = Codec.of(compressionType);
+        boolean useDictionary = DICTIONARY_ENCODING.get(withClauseOptions);
+        this.columns = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            columns.add(new ParquetColumnWriter(outputNames.get(i), outputTypes.get(i), useDictionary, codec));
+        }
+        write(MAGIC);
+    }
+
+    @Override
+    public void write(Row row) {
+        for (CollectExpression<Row, ?> collectExpression : collectExpressions) {
+            collectExpression.setNextRow(row);
+        }
+        try {
+            long bufferedBytes = 0;
+            for (int i = 0; i < inputs.size(); i++) {
+                ParquetColumnWriter column = columns.get(i);
+                column.add(inputs.get(i).value());
+                bufferedBytes += column.bufferedBytes();
+            }
+            rowGroupNumRows++;
+            if (bufferedBytes >= rowGroupSize) {
+                writeRowGroup();
+            }
+        } catch (IOException e) {
+            throw new UnhandledServerException("Failed to write row to output", e);
+        }
+    }
+
+    private void writeRowGroup() throws IOException {
+        if (rowGroupNumRows == 0) {
+            return;
+        }
+        List<ParquetColumnWriter.ColumnChunk> chunks = new ArrayList<>(columns.size());
+        long totalBytes = 0;
+        for (ParquetColumnWriter column : columns) {
+            ParquetColumnWriter.ColumnChunk chunk = column.writeChunk(outputStream, position);
+            position += chunk.compressedBytes();
+            totalBytes += chunk.uncompressedBytes();
+            chunks.add(chunk);
+        }
+        rowGroups.add(new RowGroup(chunks, totalBytes, rowGroupNumRows));
+        totalNumRows += rowGroupNumRows;
+        rowGroupNumRows = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writeRowGroup();
+            byte[] footer = footer();
+            write(footer);
+            ByteArrayOutputStream footerLength = new ByteArrayOutputStream(4);
+            ParquetColumnWriter.writeIntLE(footerLength, footer.length);
+            write(footerLength.toByteArray());
+            write(MAGIC);
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    /**
+     * parquet.thrift: FileMetaData
+     */
+    private byte[] footer() {
+        ThriftCompactWriter writer = new ThriftCompactWriter()
+            .i32(1, 1)
+            .beginList(2, ThriftCompactWriter.TYPE_STRUCT, columns.size() + 1)
+                .beginListStruct()
+                    .string(4, "schema")
+                    .i32(5, columns.size())
+                .endStruct();
+        for (ParquetColumnWriter column : columns) {
+            column.writeSchemaElement(writer);
+        }
+        writer.i64(3, totalNumRows)
+            .beginList(4, ThriftCompactWriter.TYPE_STRUCT, rowGroups.size());
+        for (RowGroup rowGroup : rowGroups) {
+            writer.beginListStruct()
+                .beginList(1, ThriftCompactWriter.TYPE_STRUCT, rowGroup.chunks.size());
+            for (ParquetColumnWriter.ColumnChunk chunk : rowGroup.chunks) {
+                chunk.writeTo(writer);
+            }
+            writer.i64(2, rowGroup.totalBytes)
+                .i64(3, rowGroup.numRows)
+                .endStruct();
+        }
+        return writer.string(6, "CrateDB").finish();
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        outputStream.write(bytes);
+        position += bytes.length;
+    }
+
+    private record RowGroup(List<ParquetColumnWriter.ColumnChunk> chunks, long totalBytes, long numRows) {
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.export;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+
+/**
+ * Writes structs using the thrift compact protocol, which is used to encode the page headers and the footer of
+ * parquet files.
+ *
+ * <p>
+ * Only the subset of the protocol which is needed by {@link ParquetRowWriter} is supported: Fields of type i32,
+ * i64, binary and struct, and lists of i32, binary and struct elements.
+ * See https://github.com/apache/thrift/blob/master/doc/specs/thrift-compact-protocol.md
+ * </p>
+ */
+final class ThriftCompactWriter {
+
+    static final byte TYPE_I32 = 5;
+    static final byte TYPE_I64 = 6;
+    static final byte TYPE_BINARY = 8;
+    static final byte TYPE_LIST = 9;
+    static final byte TYPE_STRUCT = 12;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+    private final ArrayDeque<Integer> lastFieldIds = new ArrayDeque<>();
+    private int lastFieldId = 0;
+
+    ThriftCompactWriter i32(int fieldId, int value) {
+        fieldHeader(fieldId, TYPE_I32);
+        writeVarLong(zigzag(value));
+        return this;
+    }
+
+    ThriftCompactWriter i64(int fieldId, long value) {
+        fieldHeader(fieldId, TYPE_I64);
+        writeVarLong(zigzag(value));
+        return this;
+    }
+
+    ThriftCompactWriter string(int fieldId, String value) {
+        fieldHeader(fieldId, TYPE_BINARY);
+        writeBinary(value);
+        return this;
+    }
+
+    ThriftCompactWriter beginStruct(int fieldId) {
+        fieldHeader(fieldId, TYPE_STRUCT);
+        return beginListStruct();
+    }
+
+    /**
+     * Starts a struct which is an element of a list
+     */
+    ThriftCompactWriter beginListStruct() {
+        lastFieldIds.push(lastFieldId);
+        lastFieldId = 0;
+        return this;
+    }
+
+    ThriftCompactWriter endStruct() {
+        out.write(0);
+        lastFieldId = lastFieldIds.pop();
+        return this;
+    }
+
+    ThriftCompactWriter beginList(int fieldId, byte elementType, int size) {
+        fieldHeader(fieldId, TYPE_LIST);
+        if (size < 15) {
+            out.write((size << 4) | elementType);
+        } else {
+            out.write(0xF0 | elementType);
+            writeVarLong(size);
+        }
+        return this;
+    }
+
+    ThriftCompactWriter listI32(int value) {
+        writeVarLong(zigzag(value));
+        return this;
+    }
+
+    ThriftCompactWriter listString(String value) {
+        writeBinary(value);
+        return this;
+    }
+
+    /**
+     * Ends the top level struct
+     *
+     * @return the encoded struct
+     */
+    byte[] finish() {
+        assert lastFieldIds.isEmpty() : "All nested structs must be ended";
+        out.write(0);
+        return out.toByteArray();
+    }
+
+    private void fieldHeader(int fieldId, byte type) {
+        int delta = fieldId - lastFieldId;
+        if (delta > 0 && delta <= 15) {
+            out.write((delta << 4) | type);
+        } else {
+            out.write(type);
+            writeVarLong(zigzag(fieldId));
+        }
+        lastFieldId = fieldId;
+    }
+
+    private void writeBinary(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
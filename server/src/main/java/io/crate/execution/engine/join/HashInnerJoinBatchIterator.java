@@ -21,21 +21,33 @@
 
 package io.crate.execution.engine.join;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 import java.util.function.LongToIntFunction;
 import java.util.function.Predicate;
 import java.util.function.ToIntFunction;
 
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.Streamer;
+import io.crate.common.exceptions.Exceptions;
 import io.crate.data.BatchIterator;
+import io.crate.data.CloseableIterator;
 import io.crate.data.Paging;
 import io.crate.data.Row;
 import io.crate.data.UnsafeArrayRow;
+import io.crate.data.breaker.RamAccounting;
 import io.crate.data.breaker.RowAccounting;
 import io.crate.data.join.CombinedRow;
 import io.crate.data.join.JoinBatchIterator;
+import io.crate.execution.engine.spill.SpillDirectory;
+import io.crate.execution.engine.spill.SpillFile;
 import io.netty.util.collection.IntObjectHashMap;
 
 /**
@@ -69,6 +81,29 @@ import io.netty.util.collection.IntObjectHashMap;
  *     Repeat until both sides are all loaded and processed.
  * </pre>
  * <p>
+ * If a {@link SpillDirectory} is provided and the left side doesn't fit into the first block, the right side is not
+ * scanned once per block. Instead the iterator switches to a grace hash join:
+ * <pre>
+ *     Partition Phase:
+ *     for (leftRow in left) {
+ *         write leftRow to partition file (hash(leftRow) % numPartitions)
+ *     }
+ *     for (rightRow in right) {
+ *         write rightRow to partition file (hash(rightRow) % numPartitions)
+ *     }
+ *
+ *     Join Phase:
+ *     for (partition in partitions) {
+ *         build the Buffer from the left partition file (in blocks if it doesn't fit into one)
+ *         probe the Buffer with every row of the right partition file
+ *     }
+ * </pre>
+ * Both sides are read exactly once. Only the partition files of the right side are re-read if a single partition
+ * of the left side doesn't fit into a block.
+ * <p>
+ * If the whole left side fits into the first block, the hashes of all left rows can be passed on once the build
+ * phase is done, see {@link JoinKeyFilter}.
+ * <p>
  * The caller of the constructor needs to pass two functions {@link #hashBuilderForLeft} and {@link #hashBuilderForRight}.
  * Those functions are called on each row of the left and right side respectively and they return the hash value of
  * the relevant columns of the row.
@@ -100,6 +135,27 @@ public class HashInnerJoinBatchIterator extends JoinBatchIterator<Row, Row, Row>
     private int numberOfLeftBatchesLoadedForBlock;
     private Iterator<Object[]> leftMatchingRowsIterator;
 
+    @Nullable
+    private final SpillDirectory spillDirectory;
+    private final RamAccounting spillRamAccounting;
+    private final Streamer<?>[] leftStreamers;
+    private final Streamer<?>[] rightStreamers;
+    private boolean rightStarted = false;
+    @Nullable
+    private final Consumer<int[]> buildSideHashesConsumer;
+
+    @Nullable
+    private HashJoinPartitions partitions;
+    private boolean leftPartitioned;
+    private boolean rightPartitioned;
+    private int partition;
+    @Nullable
+    private CloseableIterator<Row> leftPartitionRows;
+    @Nullable
+    private CloseableIterator<Row> rightPartitionRows;
+    @Nullable
+    private volatile Throwable killed;
+
     public HashInnerJoinBatchIterator(BatchIterator<Row> left,
                                       BatchIterator<Row> right,
                                       RowAccounting<Object[]> leftRowAccounting,
@@ -108,12 +164,87 @@ public class HashInnerJoinBatchIterator extends JoinBatchIterator<Row, Row, Row>
                                       ToIntFunction<Row> hashBuilderForLeft,
                                       ToIntFunction<Row> hashBuilderForRight,
                                       LongToIntFunction calculateBlockSize) {
+        this(
+            left,
+            right,
+            leftRowAccounting,
+            combiner,
+            joinCondition,
+            hashBuilderForLeft,
+            hashBuilderForRight,
+            calculateBlockSize,
+            null,
+            RamAccounting.NO_ACCOUNTING,
+            new Streamer[0],
+            new Streamer[0]
+        );
+    }
+
+    /**
+     * @param spillDirectory if not null, both sides are partitioned to disk if the left side doesn't fit into a block.
+     * @param spillRamAccounting accounts for the buffers of the partition files. It must not be released
+     *                           by other operations while the partitions are in use.
+     * @param leftStreamers streamers for the columns of the left side, used to write the partitions.
+     * @param rightStreamers streamers for the columns of the right side, used to write the partitions.
+     */
+    public HashInnerJoinBatchIterator(BatchIterator<Row> left,
+                                      BatchIterator<Row> right,
+                                      RowAccounting<Object[]> leftRowAccounting,
+                                      CombinedRow combiner,
+                                      Predicate<Row> joinCondition,
+                                      ToIntFunction<Row> hashBuilderForLeft,
+                                      ToIntFunction<Row> hashBuilderForRight,
+                                      LongToIntFunction calculateBlockSize,
+                                      @Nullable SpillDirectory spillDirectory,
+                                      RamAccounting spillRamAccounting,
+                                      Streamer<?>[] leftStreamers,
+                                      Streamer<?>[] rightStreamers) {
+        this(
+            left,
+            right,
+            leftRowAccounting,
+            combiner,
+            joinCondition,
+            hashBuilderForLeft,
+            hashBuilderForRight,
+            calculateBlockSize,
+            spillDirectory,
+            spillRamAccounting,
+            leftStreamers,
+            rightStreamers,
+            null
+        );
+    }
+
+    /**
+     * @param buildSideHashesConsumer if not null, it's called with the hashes of all left rows before the right side
+     *                                is read the first time, but only if the left side fits into a single block.
+     */
+    public HashInnerJoinBatchIterator(BatchIterator<Row> left,
+                                      BatchIterator<Row> right,
+                                      RowAccounting<Object[]> leftRowAccounting,
+                                      CombinedRow combiner,
+                                      Predicate<Row> joinCondition,
+                                      ToIntFunction<Row> hashBuilderForLeft,
+                                      ToIntFunction<Row> hashBuilderForRight,
+                                      LongToIntFunction calculateBlockSize,
+                                      @Nullable SpillDirectory spillDirectory,
+                                      RamAccounting spillRamAccounting,
+                                      Streamer<?>[] leftStreamers,
+                                      Streamer<?>[] rightStreamers,
+                                      @Nullable Consumer<int[]> buildSideHashesConsumer) {
         super(left, right, combiner);
+        assert spillDirectory == null || spillDirectory.isAvailable() : "SpillDirectory must be available if provided";
+        this.spillDirectory = spillDirectory;
+        this.spillRamAccounting = spillRamAccounting;
+        this.leftStreamers = leftStreamers;
+        this.rightStreamers = rightStreamers;
         this.leftRowAccounting = leftRowAccounting;
         this.joinCondition = joinCondition;
         this.hashBuilderForLeft = hashBuilderForLeft;
         this.hashBuilderForRight = hashBuilderForRight;
         this.calculateBlockSize = calculateBlockSize;
+        this.buildSideHashesConsumer = buildSideHashesConsumer;
         // resized upon block size calculation
         this.buffer = new IntObjectHashMap<>();
         resetBuffer();
@@ -131,6 +262,8 @@ public class HashInnerJoinBatchIterator extends JoinBatchIterator<Row, Row, Row>
         left.moveToStart();
         right.moveToStart();
         activeIt = left;
+        closePartitions();
+        rightStarted = false;
         resetBuffer();
         leftMatchingRowsIterator = null;
     }
@@ -145,8 +278,13 @@ public class HashInnerJoinBatchIterator extends JoinBatchIterator<Row, Row, Row>
 
     @Override
     public boolean moveNext() {
+        if (partitions != null) {
+            return moveNextPartitioned();
+        }
         while (buildBufferAndMatchRight() == false) {
-            if (right.allLoaded() && leftBatchHasItems == false && left.allLoaded()) {
+            if (partitions != null) {
+                return moveNextPartitioned();
+            } else if (right.allLoaded() && leftBatchHasItems == false && left.allLoaded()) {
                 // both sides are fully loaded, we're done here
                 return false;
             } else if (activeIt == left) {
@@ -201,7 +339,15 @@ public class HashInnerJoinBatchIterator extends JoinBatchIterator<Row, Row, Row>
             }
 
             if (mustSwitchToRight()) {
+                if (mustPartition()) {
+                    startPartitioning();
+                    return false;
+                }
+                if (rightStarted == false && buildSideHashesConsumer != null && left.allLoaded() && leftBatchHasItems == false) {
+                    buildSideHashesConsumer.accept(buildSideHashes());
+                }
                 activeIt = right;
+                rightStarted = true;
             }
         }
 
@@ -236,6 +382,15 @@ public class HashInnerJoinBatchIterator extends JoinBatchIterator<Row, Row, Row>
         numberOfRowsInBuffer++;
     }
 
+    private int[] buildSideHashes() {
+        int[] hashes = new int[buffer.size()];
+        int i = 0;
+        for (var entry : buffer.entries()) {
+            hashes[i++] = entry.key();
+        }
+        return hashes;
+    }
+
     private boolean findMatchingRows() {
         while (leftMatchingRowsIterator.hasNext()) {
             leftRow.cells(leftMatchingRowsIterator.next());
@@ -253,6 +408,170 @@ public class HashInnerJoinBatchIterator extends JoinBatchIterator<Row, Row, Row>
                || (leftBatchHasItems == false && numberOfLeftBatchesLoadedForBlock == numberOfLeftBatchesForBlock);
     }
 
+    /**
+     * Partitioning is only possible before the right side has been scanned the first time.
+     * If the left side isn't fully loaded at this point, it doesn't fit into a single block and without partitioning
+     * the right side would have to be scanned once per block.
+     */
+    private boolean mustPartition() {
+        return spillDirectory != null && rightStarted == false && left.allLoaded() == false;
+    }
+
+    private void startPartitioning() {
+        try {
+            partitions = new HashJoinPartitions(spillDirectory, spillRamAccounting, leftStreamers, rightStreamers);
+            for (var entry : buffer.entries()) {
+                int hash = entry.key();
+                for (Object[] row : entry.value()) {
+                    partitions.addLeft(row, hash);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+        numberOfRowsInBuffer = 0;
+        leftRowAccounting.release();
+        leftPartitioned = false;
+        rightPartitioned = false;
+        partition = -1;
+    }
+
+    private boolean moveNextPartitioned() {
+        if (killed != null) {
+            Exceptions.rethrowUnchecked(killed);
+        }
+        try {
+            if (leftPartitioned == false) {
+                while (left.moveNext()) {
+                    Row row = left.currentElement();
+                    partitions.addLeft(row, hashBuilderForLeft.applyAsInt(row));
+                }
+                if (left.allLoaded() == false) {
+                    return false;
+                }
+                partitions.finishLeft();
+                leftPartitioned = true;
+                activeIt = right;
+                rightStarted = true;
+            }
+            if (rightPartitioned == false) {
+                while (right.moveNext()) {
+                    Row row = right.currentElement();
+                    partitions.addRight(row, hashBuilderForRight.applyAsInt(row));
+                }
+                if (right.allLoaded() == false) {
+                    return false;
+                }
+                partitions.finishRight();
+                rightPartitioned = true;
+            }
+            return matchPartitions();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean matchPartitions() throws IOException {
+        while (true) {
+            // In case of multiple matches on the left side (duplicate values or hash collisions)
+            if (leftMatchingRowsIterator != null && findMatchingRows()) {
+                return true;
+            }
+            leftMatchingRowsIterator = null;
+            if (rightPartitionRows != null) {
+                while (rightPartitionRows.hasNext()) {
+                    Row rightRow = rightPartitionRows.next();
+                    List<Object[]> leftMatchingRows = buffer.get(hashBuilderForRight.applyAsInt(rightRow));
+                    if (leftMatchingRows != null) {
+                        leftMatchingRowsIterator = leftMatchingRows.iterator();
+                        combiner.setRight(rightRow);
+                        if (findMatchingRows()) {
+                            return true;
+                        }
+                    }
+                }
+                rightPartitionRows.close();
+                rightPartitionRows = null;
+            }
+            if (loadNextPartitionBlock() == false) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Fills the buffer with the next block of rows of the current left partition, or of the next partition
+     * if the current partition is exhausted, and starts to read the matching right partition.
+     *
+     * @return false if all partitions have been processed.
+     */
+    private boolean loadNextPartitionBlock() throws IOException {
+        if (leftPartitionRows == null || leftPartitionRows.hasNext() == false) {
+            if (leftPartitionRows != null) {
+                leftPartitionRows.close();
+                leftPartitionRows = null;
+                partitions.release(partition);
+            }
+            do {
+                if (partition + 1 == HashJoinPartitions.NUM_PARTITIONS) {
+                    return false;
+                }
+                partition++;
+                if (partitions.left(partition).numRows() == 0 || partitions.right(partition).numRows() == 0) {
+                    partitions.release(partition);
+                } else {
+                    break;
+                }
+            } while (true);
+            leftPartitionRows = partitions.left(partition).rows();
+        }
+        buffer.clear();
+        numberOfRowsInBuffer = 0;
+        leftRowAccounting.release();
+        blockSize = calculateBlockSize.applyAsInt(leftAverageRowSize);
+        long sum = 0;
+        while (numberOfRowsInBuffer < blockSize && leftPartitionRows.hasNext()) {
+            Row row = leftPartitionRows.next();
+            Object[] leftRow = row.materialize();
+            sum += leftRowAccounting.accountForAndMaybeBreak(leftRow);
+            addToBuffer(leftRow, hashBuilderForLeft.applyAsInt(row));
+        }
+        if (numberOfRowsInBuffer > 0) {
+            leftAverageRowSize = (int) (sum / numberOfRowsInBuffer);
+        }
+        SpillFile rightPartition = partitions.right(partition);
+        rightPartitionRows = rightPartition.rows();
+        return true;
+    }
+
+    private void closePartitions() {
+        if (partitions != null) {
+            if (leftPartitionRows != null) {
+                leftPartitionRows.close();
+                leftPartitionRows = null;
+            }
+            if (rightPartitionRows != null) {
+                rightPartitionRows.close();
+                rightPartitionRows = null;
+            }
+            partitions.close();
+            partitions = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        closePartitions();
+    }
+
+    @Override
+    public void kill(@NotNull Throwable throwable) {
+        killed = throwable;
+        super.kill(throwable);
+    }
+
     private boolean mustLoadLeftNextBatch() {
         return leftBatchHasItems == false
                && left.allLoaded() == false
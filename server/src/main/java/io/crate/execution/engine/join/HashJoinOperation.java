@@ -23,20 +23,25 @@ package io.crate.execution.engine.join;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.ToIntFunction;
 
 import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.jetbrains.annotations.Nullable;
 
+import io.crate.Streamer;
 import io.crate.concurrent.CompletionListenable;
 import io.crate.data.BatchIterator;
 import io.crate.data.CapturingRowConsumer;
 import io.crate.data.Paging;
 import io.crate.data.Row;
 import io.crate.data.RowConsumer;
+import io.crate.data.breaker.RamAccounting;
 import io.crate.data.breaker.RowAccounting;
 import io.crate.data.join.CombinedRow;
 import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.execution.engine.spill.SpillDirectory;
 import io.crate.expression.InputFactory;
 import io.crate.expression.symbol.Symbol;
 import io.crate.metadata.TransactionContext;
@@ -46,6 +51,10 @@ public class HashJoinOperation implements CompletionListenable {
     private final CapturingRowConsumer leftConsumer;
     private final CapturingRowConsumer rightConsumer;
     private final RowConsumer resultConsumer;
+    @Nullable
+    private final int[] rightKeyColumns;
+    @Nullable
+    private volatile JoinKeyFilter rightKeyFilter;
 
     public HashJoinOperation(int numLeftCols,
                              int numRightCols,
@@ -57,9 +66,14 @@ public class HashJoinOperation implements CompletionListenable {
                              TransactionContext txnCtx,
                              InputFactory inputFactory,
                              CircuitBreaker circuitBreaker,
-                             long estimatedRowSizeForLeft) {
+                             long estimatedRowSizeForLeft,
+                             @Nullable SpillDirectory spillDirectory,
+                             RamAccounting spillRamAccounting,
+                             Streamer<?>[] leftStreamers,
+                             Streamer<?>[] rightStreamers) {
 
         this.resultConsumer = nlResultConsumer;
+        this.rightKeyColumns = JoinKeyFilter.keyColumns(joinRightInputs);
         this.leftConsumer = new CapturingRowConsumer(nlResultConsumer.requiresScroll(), nlResultConsumer.completionFuture());
         this.rightConsumer = new CapturingRowConsumer(true, nlResultConsumer.completionFuture());
         CompletableFuture.allOf(leftConsumer.capturedBatchIterator(), rightConsumer.capturedBatchIterator())
@@ -80,7 +94,12 @@ public class HashJoinOperation implements CompletionListenable {
                                 Paging.PAGE_SIZE,
                                 circuitBreaker,
                                 estimatedRowSizeForLeft
-                            )
+                            ),
+                            spillDirectory,
+                            spillRamAccounting,
+                            leftStreamers,
+                            rightStreamers,
+                            rightKeyColumns == null ? null : hashes -> rightKeyFilter = JoinKeyFilter.create(rightKeyColumns, hashes)
                         );
                         nlResultConsumer.accept(joinIterator, null);
                     } catch (Exception e) {
@@ -105,6 +124,16 @@ public class HashJoinOperation implements CompletionListenable {
         return rightConsumer;
     }
 
+    /**
+     * @return a filter for the rows of the right side, available once all rows of the left side have been loaded
+     *         into memory. Null if the left side doesn't fit into memory or the join keys of the right side
+     *         aren't plain columns.
+     */
+    @Nullable
+    public JoinKeyFilter rightKeyFilter() {
+        return rightKeyFilter;
+    }
+
     private static ToIntFunction<Row> getHashBuilderFromSymbols(TransactionContext txnCtx,
                                                                 InputFactory inputFactory,
                                                                 List<Symbol> inputs) {
@@ -132,7 +161,12 @@ public class HashJoinOperation implements CompletionListenable {
                                                              ToIntFunction<Row> hashBuilderForLeft,
                                                              ToIntFunction<Row> hashBuilderForRight,
                                                              RowAccounting<Object[]> rowAccounting,
-                                                             RamBlockSizeCalculator blockSizeCalculator) {
+                                                             RamBlockSizeCalculator blockSizeCalculator,
+                                                             @Nullable SpillDirectory spillDirectory,
+                                                             RamAccounting spillRamAccounting,
+                                                             Streamer<?>[] leftStreamers,
+                                                             Streamer<?>[] rightStreamers,
+                                                             @Nullable Consumer<int[]> buildSideHashesConsumer) {
         CombinedRow combiner = new CombinedRow(leftNumCols, rightNumCols);
         return new HashInnerJoinBatchIterator(
             left,
@@ -142,6 +176,11 @@ public class HashJoinOperation implements CompletionListenable {
             joinCondition,
             hashBuilderForLeft,
             hashBuilderForRight,
-            blockSizeCalculator);
+            blockSizeCalculator,
+            spillDirectory,
+            spillRamAccounting,
+            leftStreamers,
+            rightStreamers,
+            buildSideHashesConsumer);
     }
 }
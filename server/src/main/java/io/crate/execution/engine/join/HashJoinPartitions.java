@@ -0,0 +1,148 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.join;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.carrotsearch.hppc.BitMixer;
+
+import io.crate.Streamer;
+import io.crate.common.io.IOUtils;
+import io.crate.data.Row;
+import io.crate.data.breaker.RamAccounting;
+import io.crate.execution.engine.spill.SpillDirectory;
+import io.crate.execution.engine.spill.SpillFile;
+
+/**
+ * Hash partitioned {@link SpillFile}s for both sides of a hash join.
+ *
+ * <p>
+ * Rows of both sides are assigned to a partition based on the hash of their join condition inputs.
+ * Rows which can match are therefore in the partitions with the same index.
+ * </p>
+ *
+ * <p>
+ * The write buffers of all files are accounted while the partitions are written. Once a side is finished,
+ * only one buffer is kept accounted for reading its partitions one at a time.
+ * </p>
+ */
+final class HashJoinPartitions implements Closeable {
+
+    static final int NUM_PARTITIONS = 32;
+
+    private final SpillFile[] left;
+    private final SpillFile[] right;
+    private final RamAccounting ramAccounting;
+    private long accountedBytes;
+    private boolean leftFinished = false;
+    private boolean rightFinished = false;
+
+    HashJoinPartitions(SpillDirectory spillDirectory,
+                       RamAccounting ramAccounting,
+                       Streamer<?>[] leftStreamers,
+                       Streamer<?>[] rightStreamers) throws IOException {
+        this.left = new SpillFile[NUM_PARTITIONS];
+        this.right = new SpillFile[NUM_PARTITIONS];
+        this.ramAccounting = ramAccounting;
+        long bufferBytes = 2L * NUM_PARTITIONS * SpillFile.BUFFER_SIZE;
+        ramAccounting.addBytes(bufferBytes);
+        this.accountedBytes = bufferBytes;
+        try {
+            for (int i = 0; i < NUM_PARTITIONS; i++) {
+                left[i] = spillDirectory.newFile("hash-join-left-", leftStreamers);
+                right[i] = spillDirectory.newFile("hash-join-right-", rightStreamers);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * The hash is mixed before the partition is derived from it, otherwise all rows within a partition would
+     * share the same low bits of their hash, which are used to address the slots of the in-memory hash table.
+     */
+    static int partition(int hash) {
+        return Integer.remainderUnsigned(BitMixer.mix32(hash), NUM_PARTITIONS);
+    }
+
+    void addLeft(Object[] row, int hash) throws IOException {
+        left[partition(hash)].write(row);
+    }
+
+    void addLeft(Row row, int hash) throws IOException {
+        left[partition(hash)].write(row);
+    }
+
+    void addRight(Row row, int hash) throws IOException {
+        right[partition(hash)].write(row);
+    }
+
+    void finishLeft() throws IOException {
+        for (SpillFile file : left) {
+            file.finishWriting();
+        }
+        if (leftFinished == false) {
+            leftFinished = true;
+            releaseBytes((NUM_PARTITIONS - 1L) * SpillFile.BUFFER_SIZE);
+        }
+    }
+
+    void finishRight() throws IOException {
+        for (SpillFile file : right) {
+            file.finishWriting();
+        }
+        if (rightFinished == false) {
+            rightFinished = true;
+            releaseBytes((NUM_PARTITIONS - 1L) * SpillFile.BUFFER_SIZE);
+        }
+    }
+
+    private void releaseBytes(long bytes) {
+        ramAccounting.addBytes(-bytes);
+        accountedBytes -= bytes;
+    }
+
+    SpillFile left(int partition) {
+        return left[partition];
+    }
+
+    SpillFile right(int partition) {
+        return right[partition];
+    }
+
+    /**
+     * Deletes the files of a partition which has been joined already
+     */
+    void release(int partition) {
+        IOUtils.closeWhileHandlingException(left[partition], right[partition]);
+    }
+
+    @Override
+    public void close() {
+        IOUtils.closeWhileHandlingException(Arrays.asList(left));
+        IOUtils.closeWhileHandlingException(Arrays.asList(right));
+        releaseBytes(accountedBytes);
+    }
+}
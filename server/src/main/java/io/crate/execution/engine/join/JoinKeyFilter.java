@@ -0,0 +1,161 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.join;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.jetbrains.annotations.Nullable;
+
+import com.carrotsearch.hppc.BitMixer;
+
+import io.crate.data.Row;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Symbol;
+import io.crate.types.DataTypes;
+
+/**
+ * A bloom filter over the hashes of the join keys of the build (left) side of a hash join.
+ *
+ * <p>
+ * Once the build side has been loaded completely, the filter is sent back to the upstreams of the probe (right)
+ * side as part of their paging responses. The upstreams use it to drop rows which cannot have a join partner
+ * before they're sent over the network. The filter can return false positives, those rows are eliminated by the
+ * join itself, but never false negatives.
+ * </p>
+ *
+ * <p>
+ * The hash of a row is computed the same way as the hash used by the {@link HashInnerJoinBatchIterator} to look up
+ * matching rows, so a filter can only be created if the join keys of the probe side are plain columns of the rows
+ * sent by the upstreams, see {@link #keyColumns(List)}.
+ * </p>
+ */
+public final class JoinKeyFilter implements Writeable {
+
+    /**
+     * The maximum number of distinct build side hashes for which a filter is created.
+     * The filter uses up to 16 bits per hash, so it stays below 512kb.
+     */
+    static final int MAX_KEYS = 1 << 18;
+
+    private static final int NUM_HASH_FUNCTIONS = 3;
+
+    private final int[] keyColumns;
+    private final long[] bits;
+    private final int mask;
+
+    /**
+     * @param keyColumns the positions of the join keys within the probe side rows
+     * @param hashes the distinct hashes of the join keys of all build side rows
+     * @return the filter or null if there are too many hashes to keep the filter small
+     */
+    @Nullable
+    public static JoinKeyFilter create(int[] keyColumns, int[] hashes) {
+        if (hashes.length > MAX_KEYS) {
+            return null;
+        }
+        // 8 to 16 bits per key result in a false positive probability of less than 5% with 3 hash functions
+        int numBits = Math.max(Long.SIZE, Integer.highestOneBit(Math.max(hashes.length, 1)) << 4);
+        JoinKeyFilter filter = new JoinKeyFilter(keyColumns, new long[numBits / Long.SIZE]);
+        for (int hash : hashes) {
+            filter.add(hash);
+        }
+        return filter;
+    }
+
+    /**
+     * @return the positions of the join key columns or null if any of the join keys isn't a column of a type which
+     *         is hashed consistently by the upstreams and the join.
+     */
+    @Nullable
+    public static int[] keyColumns(List<Symbol> joinInputs) {
+        int[] keyColumns = new int[joinInputs.size()];
+        for (int i = 0; i < keyColumns.length; i++) {
+            Symbol joinInput = joinInputs.get(i);
+            if (joinInput instanceof InputColumn inputColumn && DataTypes.isPrimitive(inputColumn.valueType())) {
+                keyColumns[i] = inputColumn.index();
+            } else {
+                return null;
+            }
+        }
+        return keyColumns;
+    }
+
+    private JoinKeyFilter(int[] keyColumns, long[] bits) {
+        assert Integer.bitCount(bits.length) == 1 : "Number of bits must be a power of two";
+        this.keyColumns = keyColumns;
+        this.bits = bits;
+        this.mask = bits.length * Long.SIZE - 1;
+    }
+
+    public JoinKeyFilter(StreamInput in) throws IOException {
+        this(in.readVIntArray(), in.readLongArray());
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVIntArray(keyColumns);
+        out.writeLongArray(bits);
+    }
+
+    private void add(int hash) {
+        long mixed = BitMixer.mix64(hash);
+        int h1 = (int) mixed;
+        int h2 = (int) (mixed >>> 32);
+        for (int i = 0; i < NUM_HASH_FUNCTIONS; i++) {
+            int bit = (h1 + i * h2) & mask;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(int hash) {
+        long mixed = BitMixer.mix64(hash);
+        int h1 = (int) mixed;
+        int h2 = (int) (mixed >>> 32);
+        for (int i = 0; i < NUM_HASH_FUNCTIONS; i++) {
+            int bit = (h1 + i * h2) & mask;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return false if the row definitely has no join partner on the build side.
+     */
+    public boolean mightMatch(Row row) {
+        return mightContain(hash(row));
+    }
+
+    private int hash(Row row) {
+        int hash = 0;
+        for (int keyColumn : keyColumns) {
+            Object value = row.get(keyColumn);
+            hash = 31 * hash + (value == null ? 0 : value.hashCode());
+        }
+        return hash;
+    }
+}
@@ -21,24 +21,40 @@
 
 package io.crate.execution.engine.pipeline;
 
-
 import io.crate.data.BatchIterator;
 import io.crate.data.FilteringBatchIterator;
 import io.crate.data.Projector;
 import io.crate.data.Row;
+import io.crate.expression.vector.ColumnBatchEvaluator;
 
 import java.util.function.Predicate;
 
+import org.jetbrains.annotations.Nullable;
+
 class FilterProjector implements Projector {
 
     private final Predicate<Row> rowFilterPredicate;
+    @Nullable
+    private final ColumnBatchEvaluator batchFilter;
 
     FilterProjector(Predicate<Row> rowFilterPredicate) {
+        this(rowFilterPredicate, null);
+    }
+
+    /**
+     * @param batchFilter evaluates the filter for batches of rows; if null the rows are filtered one by one
+     *                    using {@code rowFilterPredicate}
+     */
+    FilterProjector(Predicate<Row> rowFilterPredicate, @Nullable ColumnBatchEvaluator batchFilter) {
         this.rowFilterPredicate = rowFilterPredicate;
+        this.batchFilter = batchFilter;
     }
 
     @Override
     public BatchIterator<Row> apply(BatchIterator<Row> batchIterator) {
+        if (batchFilter != null) {
+            return VectorizedBatchIterator.filter(batchIterator, batchFilter);
+        }
         return new FilteringBatchIterator<>(batchIterator, rowFilterPredicate);
     }
 
@@ -23,28 +23,52 @@ package io.crate.execution.engine.pipeline;
 
 import java.util.List;
 
+import org.jetbrains.annotations.Nullable;
+
 import io.crate.data.BatchIterator;
 import io.crate.data.Input;
 import io.crate.data.Projector;
 import io.crate.data.Row;
 import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.vector.ColumnBatchEvaluator;
 
 /**
  * Projector which evaluates scalars or extends/cuts columns, see {@link MapRowUsingInputs}.
+ * If a {@link ColumnBatchEvaluator} is provided, the scalars are evaluated for batches of rows instead.
  */
 public class InputRowProjector implements Projector {
 
     protected final List<Input<?>> inputs;
     protected final List<? extends CollectExpression<Row, ?>> collectExpressions;
+    private final List<? extends Symbol> outputs;
+    @Nullable
+    private final ColumnBatchEvaluator batchEvaluator;
 
     public InputRowProjector(List<Input<?>> inputs,
                              List<? extends CollectExpression<Row, ?>> collectExpressions) {
+        this(inputs, collectExpressions, List.of(), null);
+    }
+
+    /**
+     * @param outputs        the symbols the inputs have been created for
+     * @param batchEvaluator evaluator for all {@code outputs} which aren't input columns, in the same order
+     */
+    public InputRowProjector(List<Input<?>> inputs,
+                             List<? extends CollectExpression<Row, ?>> collectExpressions,
+                             List<? extends Symbol> outputs,
+                             @Nullable ColumnBatchEvaluator batchEvaluator) {
         this.inputs = inputs;
         this.collectExpressions = collectExpressions;
+        this.outputs = outputs;
+        this.batchEvaluator = batchEvaluator;
     }
 
     @Override
     public BatchIterator<Row> apply(BatchIterator<Row> batchIterator) {
+        if (batchEvaluator != null) {
+            return VectorizedBatchIterator.map(batchIterator, outputs, batchEvaluator);
+        }
         return batchIterator.map(new MapRowUsingInputs(inputs, collectExpressions));
     }
 
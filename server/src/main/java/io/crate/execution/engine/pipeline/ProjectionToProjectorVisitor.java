@@ -26,6 +26,7 @@ import static io.crate.execution.engine.pipeline.LimitAndOffset.NO_OFFSET;
 import static io.crate.planner.operators.InsertFromValues.checkConstraints;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -111,10 +112,12 @@ import io.crate.execution.engine.indexing.IndexWriterProjector;
 import io.crate.execution.engine.indexing.ShardDMLExecutor;
 import io.crate.execution.engine.indexing.ShardingUpsertExecutor;
 import io.crate.execution.engine.indexing.UpsertResultContext;
+import io.crate.execution.engine.sort.ExternalSorter;
 import io.crate.execution.engine.sort.OrderingByPosition;
 import io.crate.execution.engine.sort.SortingLimitAndOffsetProjector;
 import io.crate.execution.engine.sort.SortingProjector;
 import io.crate.execution.engine.sort.UnboundedSortingLimitAndOffsetCollector;
+import io.crate.execution.engine.spill.SpillDirectory;
 import io.crate.execution.engine.window.WindowProjector;
 import io.crate.execution.jobs.NodeLimits;
 import io.crate.execution.support.ThreadPools;
@@ -125,9 +128,12 @@ import io.crate.expression.reference.StaticTableDefinition;
 import io.crate.expression.reference.StaticTableReferenceResolver;
 import io.crate.expression.reference.sys.SysRowUpdater;
 import io.crate.expression.reference.sys.check.node.SysNodeCheck;
+import io.crate.expression.symbol.InputColumn;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.SymbolType;
 import io.crate.expression.symbol.Symbols;
+import io.crate.expression.vector.ColumnBatchEvaluator;
 import io.crate.memory.MemoryManager;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.NodeContext;
@@ -160,6 +166,12 @@ public class ProjectionToProjectorVisitor
      */
     private static final int UNBOUNDED_COLLECTOR_THRESHOLD = 10_000;
 
+    /**
+     * Fraction of the query circuit breaker limit which a single sort or grouping operation may occupy
+     * before it spills to disk. A sort operation also spills if the circuit breaker trips.
+     */
+    private static final int SPILL_BREAKER_LIMIT_DIVISOR = 4;
+
     private final ClusterService clusterService;
     private final NodeLimits nodeJobsCounter;
     private final NodeContext nodeCtx;
@@ -177,6 +189,10 @@ public class ProjectionToProjectorVisitor
     private final int numProcessors;
     private final Map<String, FileOutputFactory> fileOutputFactoryMap;
     private final Schemas schemas;
+    @Nullable
+    private final SpillDirectory spillDirectory;
+    @Nullable
+    private final Function<RamAccounting, MemoryManager> memoryManagerFactory;
 
 
     public ProjectionToProjectorVisitor(ClusterService clusterService,
@@ -193,7 +209,9 @@ public class ProjectionToProjectorVisitor
                                         Function<RelationName, StaticTableDefinition<?>> staticTableDefinitionGetter,
                                         Version indexVersionCreated,
                                         @Nullable ShardId shardId,
-                                        Map<String, FileOutputFactory> fileOutputFactoryMap) {
+                                        Map<String, FileOutputFactory> fileOutputFactoryMap,
+                                        @Nullable SpillDirectory spillDirectory,
+                                        @Nullable Function<RamAccounting, MemoryManager> memoryManagerFactory) {
         this.clusterService = clusterService;
         this.schemas = schemas;
         this.nodeJobsCounter = nodeJobsCounter;
@@ -210,6 +228,8 @@ public class ProjectionToProjectorVisitor
         this.shardId = shardId;
         this.numProcessors = EsExecutors.numberOfProcessors(settings);
         this.fileOutputFactoryMap = fileOutputFactoryMap;
+        this.spillDirectory = spillDirectory;
+        this.memoryManagerFactory = memoryManagerFactory;
     }
 
     public ProjectionToProjectorVisitor(ClusterService clusterService,
@@ -238,6 +258,8 @@ public class ProjectionToProjectorVisitor
             staticTableDefinitionGetter,
             Version.CURRENT,
             null,
+            null,
+            null,
             null
         );
     }
@@ -281,16 +303,29 @@ public class ProjectionToProjectorVisitor
             context.ramAccounting,
             rowMemoryOverhead
         );
+        Comparator<Object[]> ordering = OrderingByPosition.arrayOrdering(
+            rowTypes, orderByIndices, projection.reverseFlags(), projection.nullsFirst());
+        ExternalSorter externalSorter = null;
+        if (spillDirectory != null) {
+            externalSorter = new ExternalSorter(
+                spillDirectory,
+                rowAccounting,
+                DataTypes.getStreamers(rowTypes),
+                ordering,
+                maxBytesInMemoryBeforeSpill()
+            );
+        }
         if (projection.limit() > NO_LIMIT) {
             return new SortingLimitAndOffsetProjector(
                 rowAccounting,
                 inputs,
                 ctx.expressions(),
                 numOutputs,
-                OrderingByPosition.arrayOrdering(rowTypes, orderByIndices, projection.reverseFlags(), projection.nullsFirst()),
+                ordering,
                 projection.limit(),
                 projection.offset(),
-                UNBOUNDED_COLLECTOR_THRESHOLD
+                UNBOUNDED_COLLECTOR_THRESHOLD,
+                externalSorter
             );
         }
         return new SortingProjector(
@@ -298,8 +333,9 @@ public class ProjectionToProjectorVisitor
             inputs,
             ctx.expressions(),
             numOutputs,
-            OrderingByPosition.arrayOrdering(rowTypes, orderByIndices, projection.reverseFlags(), projection.nullsFirst()),
-            projection.offset()
+            ordering,
+            projection.offset(),
+            externalSorter
         );
     }
 
@@ -328,7 +364,12 @@ public class ProjectionToProjectorVisitor
     @Override
     public Projector visitEvalProjection(EvalProjection projection, Context context) {
         InputFactory.Context<CollectExpression<Row, ?>> ctx = inputFactory.ctxForInputColumns(context.txnCtx, projection.outputs());
-        return new InputRowProjector(ctx.topLevelInputs(), ctx.expressions());
+        List<? extends Symbol> outputs = projection.outputs();
+        List<? extends Symbol> expressions = outputs.stream().filter(x -> !(x instanceof InputColumn)).toList();
+        ColumnBatchEvaluator batchEvaluator = expressions.isEmpty() || !vectorizedEvaluationEnabled(context)
+            ? null
+            : ColumnBatchEvaluator.create(context.txnCtx, nodeCtx, expressions);
+        return new InputRowProjector(ctx.topLevelInputs(), ctx.expressions(), outputs, batchEvaluator);
     }
 
     @Override
@@ -348,10 +389,18 @@ public class ProjectionToProjectorVisitor
             context.ramAccounting,
             context.memoryManager,
             clusterService.state().nodes().getMinNodeVersion(),
-            indexVersionCreated
+            indexVersionCreated,
+            spillDirectory,
+            memoryManagerFactory,
+            maxBytesInMemoryBeforeSpill()
         );
     }
 
+    private long maxBytesInMemoryBeforeSpill() {
+        long breakerLimit = circuitBreakerService.getBreaker(HierarchyCircuitBreakerService.QUERY).getLimit();
+        return breakerLimit > 0 ? breakerLimit / SPILL_BREAKER_LIMIT_DIVISOR : Long.MAX_VALUE;
+    }
+
     @Override
     public Projector visitMergeCountProjection(MergeCountProjection projection, Context context) {
         return new MergeCountProjector();
@@ -388,7 +437,11 @@ public class ProjectionToProjectorVisitor
         assert uri != null : "URI must not be null";
 
         StringBuilder sb = new StringBuilder(uri);
-        Symbol resolvedFileName = normalizer.normalize(WriterProjection.DIRECTORY_TO_FILENAME, context.txnCtx);
+        boolean parquet = projection.outputFormat() == WriterProjection.OutputFormat.PARQUET;
+        Symbol resolvedFileName = normalizer.normalize(
+            parquet ? WriterProjection.DIRECTORY_TO_PARQUET_FILENAME : WriterProjection.DIRECTORY_TO_FILENAME,
+            context.txnCtx
+        );
         assert resolvedFileName instanceof Literal : "resolvedFileName must be a Literal, but is: " + resolvedFileName;
         assert resolvedFileName.valueType().id() == StringType.ID :
             "resolvedFileName.valueType() must be " + StringType.INSTANCE;
@@ -398,7 +451,7 @@ public class ProjectionToProjectorVisitor
             sb.append("/");
         }
         sb.append(fileName);
-        if (projection.compressionType() == WriterProjection.CompressionType.GZIP) {
+        if (!parquet && projection.compressionType() == WriterProjection.CompressionType.GZIP) {
             sb.append(".gz");
         }
         uri = sb.toString();
@@ -411,6 +464,7 @@ public class ProjectionToProjectorVisitor
             uri,
             projection.compressionType(),
             inputs,
+            Symbols.typeView(projection.inputs()),
             ctx.expressions(),
             overwrites,
             projection.outputNames(),
@@ -560,7 +614,15 @@ public class ProjectionToProjectorVisitor
     @Override
     public Projector visitFilterProjection(FilterProjection projection, Context context) {
         Predicate<Row> rowFilter = RowFilter.create(context.txnCtx, inputFactory, projection.query());
-        return new FilterProjector(rowFilter);
+        Symbol query = projection.query();
+        ColumnBatchEvaluator batchFilter = query.symbolType() == SymbolType.FUNCTION && vectorizedEvaluationEnabled(context)
+            ? ColumnBatchEvaluator.create(context.txnCtx, nodeCtx, List.of(query))
+            : null;
+        return new FilterProjector(rowFilter, batchFilter);
+    }
+
+    private static boolean vectorizedEvaluationEnabled(Context context) {
+        return context.txnCtx.sessionSettings().vectorizedEvaluationEnabled();
     }
 
     @Override
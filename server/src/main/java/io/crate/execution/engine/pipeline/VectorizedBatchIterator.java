@@ -0,0 +1,170 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.pipeline;
+
+import java.util.List;
+
+import io.crate.data.ArrayRow;
+import io.crate.data.BatchIterator;
+import io.crate.data.BooleanVector;
+import io.crate.data.ColumnBatch;
+import io.crate.data.ColumnVector;
+import io.crate.data.MappedForwardingBatchIterator;
+import io.crate.data.Row;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.vector.ColumnBatchEvaluator;
+
+/**
+ * BatchIterator which reads the rows of the source in batches of up to {@link #BATCH_SIZE} rows and
+ * evaluates expressions for all rows of a batch at once using a {@link ColumnBatchEvaluator}.
+ *
+ * <p>
+ * A batch ends early if the source needs to load more data, so that no rows are held back while
+ * the source is loading.
+ * </p>
+ */
+final class VectorizedBatchIterator extends MappedForwardingBatchIterator<Row, Row> {
+
+    static final int BATCH_SIZE = 1024;
+
+    @FunctionalInterface
+    interface BatchProjection {
+
+        /**
+         * Projects the first {@code numRows} rows in place.
+         *
+         * @return the number of rows after the projection
+         */
+        int project(Object[][] rows, int numRows);
+    }
+
+    private final BatchIterator<Row> delegate;
+    private final BatchProjection projection;
+    private final Object[][] rows = new Object[BATCH_SIZE][];
+    private final ArrayRow row = new ArrayRow();
+
+    private int numRows = 0;
+    private int pos = 0;
+
+    private VectorizedBatchIterator(BatchIterator<Row> delegate, BatchProjection projection) {
+        this.delegate = delegate;
+        this.projection = projection;
+    }
+
+    /**
+     * Filters the rows by the first expression of {@code evaluator}, which must be a boolean expression.
+     */
+    static BatchIterator<Row> filter(BatchIterator<Row> source, ColumnBatchEvaluator evaluator) {
+        return new VectorizedBatchIterator(source, (rows, numRows) -> {
+            ColumnBatch batch = evaluator.toBatch(rows, numRows);
+            BooleanVector matches = (BooleanVector) evaluator.evaluate(0, batch);
+            int numMatches = 0;
+            for (int i = 0; i < numRows; i++) {
+                if (matches.isTrue(i)) {
+                    rows[numMatches++] = rows[i];
+                }
+            }
+            return numMatches;
+        });
+    }
+
+    /**
+     * Replaces the rows with the values of {@code outputs}.
+     * {@link InputColumn}s are copied from the source rows, all other outputs are evaluated by {@code evaluator},
+     * which must contain their expressions in the same order.
+     */
+    static BatchIterator<Row> map(BatchIterator<Row> source,
+                                  List<? extends Symbol> outputs,
+                                  ColumnBatchEvaluator evaluator) {
+        int numOutputs = outputs.size();
+        int[] sourceColumns = new int[numOutputs];
+        for (int i = 0; i < numOutputs; i++) {
+            sourceColumns[i] = outputs.get(i) instanceof InputColumn inputColumn ? inputColumn.index() : -1;
+        }
+        return new VectorizedBatchIterator(source, (rows, numRows) -> {
+            ColumnBatch batch = evaluator.toBatch(rows, numRows);
+            Object[][] outputRows = new Object[numRows][numOutputs];
+            int expressionIdx = 0;
+            for (int i = 0; i < numOutputs; i++) {
+                int sourceColumn = sourceColumns[i];
+                if (sourceColumn == -1) {
+                    ColumnVector result = evaluator.evaluate(expressionIdx, batch);
+                    for (int r = 0; r < numRows; r++) {
+                        outputRows[r][i] = evaluator.value(expressionIdx, result, r);
+                    }
+                    expressionIdx++;
+                } else {
+                    for (int r = 0; r < numRows; r++) {
+                        outputRows[r][i] = rows[r][sourceColumn];
+                    }
+                }
+            }
+            System.arraycopy(outputRows, 0, rows, 0, numRows);
+            return numRows;
+        });
+    }
+
+    @Override
+    protected BatchIterator<Row> delegate() {
+        return delegate;
+    }
+
+    @Override
+    public Row currentElement() {
+        return row;
+    }
+
+    @Override
+    public void moveToStart() {
+        delegate.moveToStart();
+        numRows = 0;
+        pos = 0;
+    }
+
+    @Override
+    public boolean moveNext() {
+        while (pos >= numRows) {
+            if (!readBatch()) {
+                return false;
+            }
+        }
+        row.cells(rows[pos]);
+        pos++;
+        return true;
+    }
+
+    private boolean readBatch() {
+        int numRead = 0;
+        while (numRead < BATCH_SIZE && delegate.moveNext()) {
+            rows[numRead] = delegate.currentElement().materialize();
+            numRead++;
+        }
+        pos = 0;
+        if (numRead == 0) {
+            numRows = 0;
+            return false;
+        }
+        numRows = projection.project(rows, numRead);
+        return true;
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.sort;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+
+import io.crate.Streamer;
+import io.crate.common.io.IOUtils;
+import io.crate.data.Bucket;
+import io.crate.data.CloseableIterator;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.data.breaker.RowAccounting;
+import io.crate.execution.engine.distribution.merge.KeyIterable;
+import io.crate.execution.engine.distribution.merge.PagingIterator;
+import io.crate.execution.engine.spill.SpillDirectory;
+import io.crate.execution.engine.spill.SpillFile;
+
+/**
+ * Accounts for the rows a sorting collector holds in memory and writes them as sorted run to disk if they don't fit
+ * into memory anymore.
+ *
+ * <p>
+ * The rows are spilled if either the rows in memory exceed {@code maxBytesInMemory} or if the circuit breaker trips.
+ * Once all rows are collected, the spilled runs and the remaining rows in memory are merged
+ * using a sorted {@link PagingIterator}.
+ * </p>
+ *
+ * <p>
+ * An instance is used by a single collector and must be closed to delete the spilled runs.
+ * </p>
+ */
+public final class ExternalSorter implements Closeable {
+
+    private final SpillDirectory spillDirectory;
+    private final RowAccounting<Object[]> rowAccounting;
+    private final Streamer<?>[] streamers;
+    private final Comparator<Object[]> comparator;
+    private final long maxBytesInMemory;
+    private final List<SpillFile> runs = new ArrayList<>();
+    private final List<CloseableIterator<Row>> openRunIterators = new ArrayList<>();
+
+    private long bytesInMemory = 0;
+
+    /**
+     * @param rowAccounting    the row accounting which is used to account for the rows held in memory.
+     *                         The bytes of the rows are released every time they're written to disk.
+     * @param streamers        streamers of all the cells of a row
+     * @param comparator       the ordering of the rows
+     * @param maxBytesInMemory the rows are spilled to disk once they exceed this size
+     */
+    public ExternalSorter(SpillDirectory spillDirectory,
+                          RowAccounting<Object[]> rowAccounting,
+                          Streamer<?>[] streamers,
+                          Comparator<Object[]> comparator,
+                          long maxBytesInMemory) {
+        assert spillDirectory.isAvailable() : "SpillDirectory must be available to spill sorted runs";
+        this.spillDirectory = spillDirectory;
+        this.rowAccounting = rowAccounting;
+        this.streamers = streamers;
+        this.comparator = comparator;
+        this.maxBytesInMemory = maxBytesInMemory;
+    }
+
+    /**
+     * Accounts for a row which is about to be added to {@code rowsInMemory}.
+     * If the memory limit is reached, the rows currently held in memory are written as a sorted run to disk
+     * and {@code rowsInMemory} is cleared.
+     */
+    void accountFor(Object[] rowCells, Collection<Object[]> rowsInMemory) {
+        if (bytesInMemory >= maxBytesInMemory && !rowsInMemory.isEmpty()) {
+            spill(rowsInMemory);
+        }
+        long rowBytes;
+        try {
+            rowBytes = rowAccounting.accountForAndMaybeBreak(rowCells);
+        } catch (CircuitBreakingException e) {
+            if (rowsInMemory.isEmpty()) {
+                throw e;
+            }
+            spill(rowsInMemory);
+            rowBytes = rowAccounting.accountForAndMaybeBreak(rowCells);
+        }
+        bytesInMemory += rowBytes;
+    }
+
+    boolean hasSpilled() {
+        return !runs.isEmpty();
+    }
+
+    private void spill(Collection<Object[]> rowsInMemory) {
+        Object[][] rows = rowsInMemory.toArray(new Object[0][]);
+        Arrays.sort(rows, comparator);
+        SpillFile run = null;
+        try {
+            run = spillDirectory.newFile("sort-", streamers);
+            for (Object[] row : rows) {
+                run.write(row);
+            }
+            run.finishWriting();
+        } catch (IOException e) {
+            IOUtils.closeWhileHandlingException(run);
+            throw new UncheckedIOException(e);
+        }
+        runs.add(run);
+        rowsInMemory.clear();
+        rowAccounting.release(bytesInMemory);
+        bytesInMemory = 0;
+    }
+
+    /**
+     * Merges the spilled runs and the remaining rows in memory.
+     *
+     * @param numOutputs the number of leading cells of each row which are part of the result
+     * @param limit      the max number of rows of the result
+     * @param offset     the number of rows to skip
+     */
+    Bucket merge(Collection<Object[]> rowsInMemory, int numOutputs, int limit, int offset) {
+        Object[][] sortedRowsInMemory = rowsInMemory.toArray(new Object[0][]);
+        Arrays.sort(sortedRowsInMemory, comparator);
+        long numRows = sortedRowsInMemory.length;
+        for (SpillFile run : runs) {
+            numRows += run.numRows();
+        }
+        int size = (int) Math.max(Math.min(numRows - offset, limit), 0);
+        return new Bucket() {
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Iterator<Row> iterator() {
+                Iterator<Object[]> mergedRows = mergedRows(sortedRowsInMemory);
+                for (int i = 0; i < offset && mergedRows.hasNext(); i++) {
+                    mergedRows.next();
+                }
+                return new Iterator<>() {
+
+                    final RowN row = new RowN(numOutputs);
+                    int pos = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return pos < size && mergedRows.hasNext();
+                    }
+
+                    @Override
+                    public Row next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException("Bucket is exhausted");
+                        }
+                        row.cells(mergedRows.next());
+                        pos++;
+                        return row;
+                    }
+                };
+            }
+        };
+    }
+
+    private Iterator<Object[]> mergedRows(Object[][] sortedRowsInMemory) {
+        closeRunIterators();
+        List<KeyIterable<Integer, Object[]>> iterables = new ArrayList<>(runs.size() + 1);
+        for (int i = 0; i < runs.size(); i++) {
+            CloseableIterator<Row> rows;
+            try {
+                rows = runs.get(i).rows();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            openRunIterators.add(rows);
+            iterables.add(new KeyIterable<>(i, () -> new Iterator<>() {
+
+                @Override
+                public boolean hasNext() {
+                    return rows.hasNext();
+                }
+
+                @Override
+                public Object[] next() {
+                    // The merge holds on to the current row of each run, the rows of a run re-use the same instance
+                    return rows.next().materialize();
+                }
+            }));
+        }
+        iterables.add(new KeyIterable<>(runs.size(), Arrays.asList(sortedRowsInMemory)));
+        PagingIterator<Integer, Object[]> mergedRows = PagingIterator.createSorted(comparator, false);
+        mergedRows.merge(iterables);
+        mergedRows.finish();
+        return mergedRows;
+    }
+
+    private void closeRunIterators() {
+        for (CloseableIterator<Row> rows : openRunIterators) {
+            rows.close();
+        }
+        openRunIterators.clear();
+    }
+
+    @Override
+    public void close() {
+        closeRunIterators();
+        IOUtils.closeWhileHandlingException(runs);
+        runs.clear();
+    }
+}
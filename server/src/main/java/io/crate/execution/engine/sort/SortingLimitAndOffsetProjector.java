@@ -25,6 +25,8 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.stream.Collector;
 
+import org.jetbrains.annotations.Nullable;
+
 import io.crate.data.BatchIterator;
 import io.crate.data.Bucket;
 import io.crate.data.CollectingBatchIterator;
@@ -40,6 +42,8 @@ public class SortingLimitAndOffsetProjector implements Projector {
 
     private final Collector<Row, ?, Bucket> collector;
     private final boolean hasNoResult;
+    @Nullable
+    private final ExternalSorter externalSorter;
 
     /**
      * @param rowAccounting               sorting is a pipeline breaker so account for the used memory
@@ -60,6 +64,23 @@ public class SortingLimitAndOffsetProjector implements Projector {
                                           int limit,
                                           int offset,
                                           int unboundedCollectorThreshold) {
+        this(rowAccounting, inputs, collectExpressions, numOutputs, ordering, limit, offset, unboundedCollectorThreshold, null);
+    }
+
+    /**
+     * @param externalSorter if not null and an unbounded collector is used, the rows are spilled to disk if they
+     *                       don't fit into memory. It must use the same row accounting and ordering.
+     */
+    public SortingLimitAndOffsetProjector(RowAccounting<Object[]> rowAccounting,
+                                          Collection<? extends Input<?>> inputs,
+                                          Iterable<? extends CollectExpression<Row, ?>> collectExpressions,
+                                          int numOutputs,
+                                          Comparator<Object[]> ordering,
+                                          int limit,
+                                          int offset,
+                                          int unboundedCollectorThreshold,
+                                          @Nullable ExternalSorter externalSorter) {
+        this.externalSorter = externalSorter;
         this.hasNoResult = limit + offset == 0;
         if (offset < 0) {
             throw new IllegalArgumentException("Invalid OFFSET: value must be >= 0; got: " + offset);
@@ -82,7 +103,8 @@ public class SortingLimitAndOffsetProjector implements Projector {
                 ordering,
                 unboundedCollectorThreshold,
                 limit,
-                offset
+                offset,
+                externalSorter
             );
         } else {
             collector = new BoundedSortingLimitAndOffsetCollector(
@@ -103,6 +125,17 @@ public class SortingLimitAndOffsetProjector implements Projector {
             batchIterator.close();
             return InMemoryBatchIterator.empty(SentinelRow.SENTINEL);
         }
+        if (externalSorter != null) {
+            return CollectingBatchIterator.newInstance(
+                () -> {
+                    batchIterator.close();
+                    externalSorter.close();
+                },
+                batchIterator::kill,
+                () -> batchIterator.collect(collector),
+                batchIterator.hasLazyResultSet()
+            );
+        }
         return CollectingBatchIterator.newInstance(batchIterator, collector);
     }
 
@@ -31,12 +31,15 @@ import io.crate.data.Row;
 import io.crate.data.breaker.RowAccounting;
 import io.crate.execution.engine.collect.CollectExpression;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
+import org.jetbrains.annotations.Nullable;
+
 /**
  * Sort rows by ordering criteria and process given offset before emitting.
  * <p>
@@ -52,6 +55,8 @@ public class SortingProjector implements Projector {
     private final int offset;
     private final int numOutputs;
     private final RowAccounting<Object[]> rowAccounting;
+    @Nullable
+    private final ExternalSorter externalSorter;
 
     /**
      * @param rowAccounting               sorting is a pipeline breaker so account for the used memory
@@ -67,6 +72,20 @@ public class SortingProjector implements Projector {
                             int numOutputs,
                             Comparator<Object[]> comparator,
                             int offset) {
+        this(rowAccounting, inputs, collectExpressions, numOutputs, comparator, offset, null);
+    }
+
+    /**
+     * @param externalSorter if not null, the rows are spilled to disk if they don't fit into memory.
+     *                       It must use the same row accounting and comparator.
+     */
+    public SortingProjector(RowAccounting<Object[]> rowAccounting,
+                            Collection<? extends Input<?>> inputs,
+                            Iterable<? extends CollectExpression<Row, ?>> collectExpressions,
+                            int numOutputs,
+                            Comparator<Object[]> comparator,
+                            int offset,
+                            @Nullable ExternalSorter externalSorter) {
         if (offset < 0) {
             throw new IllegalArgumentException("invalid offset " + offset);
         }
@@ -76,11 +95,37 @@ public class SortingProjector implements Projector {
         this.collectExpressions = collectExpressions;
         this.comparator = comparator;
         this.offset = offset;
+        this.externalSorter = externalSorter;
     }
 
 
     @Override
     public BatchIterator<Row> apply(BatchIterator<Row> batchIterator) {
+        if (externalSorter != null) {
+            Collector<Row, List<Object[]>, Bucket> collector = Collector.of(
+                ArrayList::new,
+                (rows, row) -> {
+                    Object[] cells = getCellsWithoutAccounting(row);
+                    externalSorter.accountFor(cells, rows);
+                    rows.add(cells);
+                },
+                (rows1, rows2) -> {
+                    throw new UnsupportedOperationException("combine not supported");
+                },
+                rows -> externalSorter.hasSpilled()
+                    ? externalSorter.merge(rows, numOutputs, Integer.MAX_VALUE, offset)
+                    : sortAndCreateBucket(rows)
+            );
+            return CollectingBatchIterator.newInstance(
+                () -> {
+                    batchIterator.close();
+                    externalSorter.close();
+                },
+                batchIterator::kill,
+                () -> batchIterator.collect(collector),
+                batchIterator.hasLazyResultSet()
+            );
+        }
         Collector<Row, ?, Bucket> collector = Collectors.mapping(
             this::getCells,
             Collectors.collectingAndThen(Collectors.toList(), this::sortAndCreateBucket));
@@ -93,6 +138,12 @@ public class SortingProjector implements Projector {
     }
 
     private Object[] getCells(Row row) {
+        Object[] newRow = getCellsWithoutAccounting(row);
+        rowAccounting.accountForAndMaybeBreak(newRow);
+        return newRow;
+    }
+
+    private Object[] getCellsWithoutAccounting(Row row) {
         for (CollectExpression<Row, ?> collectExpression : collectExpressions) {
             collectExpression.setNextRow(row);
         }
@@ -101,7 +152,6 @@ public class SortingProjector implements Projector {
         for (Input<?> input : inputs) {
             newRow[i++] = input.value();
         }
-        rowAccounting.accountForAndMaybeBreak(newRow);
         return newRow;
     }
 
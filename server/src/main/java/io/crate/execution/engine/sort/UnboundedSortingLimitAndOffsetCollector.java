@@ -28,6 +28,7 @@ import io.crate.data.Row;
 import io.crate.data.breaker.RowAccounting;
 import io.crate.execution.engine.collect.CollectExpression;
 import org.apache.lucene.util.ArrayUtil;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -56,6 +57,8 @@ public class UnboundedSortingLimitAndOffsetCollector implements Collector<Row, P
     private final int offset;
     private final int maxNumberOfRowsInQueue;
     private final RowAccounting<Object[]> rowAccounting;
+    @Nullable
+    private final ExternalSorter externalSorter;
 
     /**
      * @param rowAccounting   sorting is a pipeline breaker so account for the used memory
@@ -75,6 +78,22 @@ public class UnboundedSortingLimitAndOffsetCollector implements Collector<Row, P
                                                    int initialCapacity,
                                                    int limit,
                                                    int offset) {
+        this(rowAccounting, inputs, expressions, numOutputs, comparator, initialCapacity, limit, offset, null);
+    }
+
+    /**
+     * @param externalSorter  if not null, the rows in the queue are spilled to disk if they don't fit into memory.
+     *                        It must use the same row accounting and comparator.
+     */
+    public UnboundedSortingLimitAndOffsetCollector(RowAccounting<Object[]> rowAccounting,
+                                                   Collection<? extends Input<?>> inputs,
+                                                   Iterable<? extends CollectExpression<Row, ?>> expressions,
+                                                   int numOutputs,
+                                                   Comparator<Object[]> comparator,
+                                                   int initialCapacity,
+                                                   int limit,
+                                                   int offset,
+                                                   @Nullable ExternalSorter externalSorter) {
         if (initialCapacity <= 0) {
             throw new IllegalArgumentException("Invalid initial capacity: value must be > 0; got: " + initialCapacity);
         }
@@ -92,6 +111,7 @@ public class UnboundedSortingLimitAndOffsetCollector implements Collector<Row, P
         this.initialCapacity = initialCapacity;
         this.offset = offset;
         this.maxNumberOfRowsInQueue = limit + offset;
+        this.externalSorter = externalSorter;
 
         if (maxNumberOfRowsInQueue >= ArrayUtil.MAX_ARRAY_LENGTH || maxNumberOfRowsInQueue < 0) {
             // Throw exception to prevent confusing OOME in PriorityQueue
@@ -139,19 +159,30 @@ public class UnboundedSortingLimitAndOffsetCollector implements Collector<Row, P
             rowCells[i] = input.value();
             i++;
         }
-        rowAccounting.accountForAndMaybeBreak(rowCells);
         if (pq.size() == maxNumberOfRowsInQueue) {
             Object[] highestElementInOrder = pq.peek();
-            if (highestElementInOrder == null || comparator.compare(rowCells, highestElementInOrder) < 0) {
-                pq.poll();
-                pq.add(rowCells);
+            if (highestElementInOrder != null && comparator.compare(rowCells, highestElementInOrder) >= 0) {
+                // Row isn't part of the result, it's not added to the queue and doesn't need to be accounted for
+                return;
             }
+        }
+        if (externalSorter == null) {
+            rowAccounting.accountForAndMaybeBreak(rowCells);
         } else {
-            pq.add(rowCells);
+            // Each spilled run contains at most limit + offset rows; merging the runs yields the overall top rows.
+            // This may spill and clear the queue.
+            externalSorter.accountFor(rowCells, pq);
         }
+        if (pq.size() == maxNumberOfRowsInQueue) {
+            pq.poll();
+        }
+        pq.add(rowCells);
     }
 
     private Bucket pqToIterable(PriorityQueue<Object[]> pq) {
+        if (externalSorter != null && externalSorter.hasSpilled()) {
+            return externalSorter.merge(pq, numOutputs, maxNumberOfRowsInQueue - offset, offset);
+        }
         if (offset > pq.size()) {
             return new ArrayBucket(new Object[0][0], numOutputs);
         }
@@ -0,0 +1,90 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.spill;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.env.NodeEnvironment;
+
+import io.crate.Streamer;
+import io.crate.common.io.IOUtils;
+
+/**
+ * Location for temporary files of operations which spill rows to disk if they don't fit into memory.
+ *
+ * <p>
+ * The files are created within a {@code spill} folder in each data path of the node, used round robin.
+ * Left-overs of a previous run of the node (e.g. after a crash) are deleted on startup.
+ * </p>
+ */
+@Singleton
+public class SpillDirectory {
+
+    static final String FOLDER_NAME = "spill";
+
+    private final Path[] paths;
+    private final AtomicInteger nextPath = new AtomicInteger(0);
+
+    @Inject
+    public SpillDirectory(NodeEnvironment nodeEnvironment) {
+        this(nodeEnvironment.hasNodeFile() ? nodeEnvironment.nodeDataPaths() : new Path[0]);
+    }
+
+    public SpillDirectory(Path[] dataPaths) {
+        this.paths = new Path[dataPaths.length];
+        for (int i = 0; i < dataPaths.length; i++) {
+            Path path = dataPaths[i].resolve(FOLDER_NAME);
+            try {
+                IOUtils.rm(path);
+                Files.createDirectories(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            paths[i] = path;
+        }
+    }
+
+    /**
+     * @return false if the node has no data paths (e.g. if it is a master-only node) and no rows can be spilled.
+     */
+    public boolean isAvailable() {
+        return paths.length > 0;
+    }
+
+    /**
+     * Create a new, empty spill file.
+     * The file is deleted once the returned {@link SpillFile} is closed.
+     *
+     * @param prefix used as prefix of the file name to ease debugging.
+     */
+    public SpillFile newFile(String prefix, Streamer<?>[] streamers) throws IOException {
+        assert isAvailable() : "SpillDirectory must be available to create files";
+        Path directory = paths[Math.floorMod(nextPath.getAndIncrement(), paths.length)];
+        return new SpillFile(Files.createTempFile(directory, prefix, ".spill"), streamers);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.spill;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+import org.jetbrains.annotations.Nullable;
+import org.elasticsearch.common.io.stream.InputStreamStreamInput;
+import org.elasticsearch.common.io.stream.OutputStreamStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import io.crate.Streamer;
+import io.crate.common.io.IOUtils;
+import io.crate.data.CloseableIterator;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+
+/**
+ * A temporary file holding rows.
+ *
+ * <p>
+ * Rows use the same format as a {@link io.crate.execution.engine.distribution.StreamBucket}:
+ * The cells of a row are written one after another using the {@link Streamer} of the column.
+ * </p>
+ *
+ * <p>
+ * A file is written once and can be read any number of times after {@link #finishWriting()}.
+ * The file is deleted on {@link #close()}.
+ * </p>
+ */
+public final class SpillFile implements Closeable {
+
+    /**
+     * Size of the buffer used while writing the file and of the buffer of each iterator over its rows
+     */
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final Streamer<?>[] streamers;
+
+    @Nullable
+    private StreamOutput out;
+    private long numRows = 0;
+
+    SpillFile(Path path, Streamer<?>[] streamers) throws IOException {
+        this.path = path;
+        this.streamers = streamers;
+        this.out = new OutputStreamStreamOutput(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+    }
+
+    public void write(Row row) throws IOException {
+        assert out != null : "Cannot write to a SpillFile after finishWriting was called";
+        assert row.numColumns() == streamers.length : "Number of columns must match number of streamers";
+        for (int i = 0; i < streamers.length; i++) {
+            //noinspection unchecked
+            ((Streamer) streamers[i]).writeValueTo(out, row.get(i));
+        }
+        numRows++;
+    }
+
+    public void write(Object[] cells) throws IOException {
+        assert out != null : "Cannot write to a SpillFile after finishWriting was called";
+        assert cells.length == streamers.length : "Number of cells must match number of streamers";
+        for (int i = 0; i < streamers.length; i++) {
+            //noinspection unchecked
+            ((Streamer) streamers[i]).writeValueTo(out, cells[i]);
+        }
+        numRows++;
+    }
+
+    /**
+     * Flushes all buffered rows to disk. Must be called before the rows can be read.
+     */
+    public void finishWriting() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    public long numRows() {
+        return numRows;
+    }
+
+    public long sizeInBytes() throws IOException {
+        assert out == null : "Size is only available after finishWriting was called";
+        return Files.size(path);
+    }
+
+    /**
+     * @return an iterator over the rows of this file.
+     *         The returned row is re-used, consumers must materialize it if they hold on to it.
+     */
+    public CloseableIterator<Row> rows() throws IOException {
+        assert out == null : "Rows can only be read after finishWriting was called";
+        return new RowIterator(
+            new InputStreamStreamInput(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE)),
+            streamers,
+            numRows
+        );
+    }
+
+    @Override
+    public void close() {
+        IOUtils.closeWhileHandlingException(out);
+        out = null;
+        IOUtils.deleteFilesIgnoringExceptions(path);
+    }
+
+    @Override
+    public String toString() {
+        return "SpillFile{" + path + ", numRows=" + numRows + "}";
+    }
+
+    private static class RowIterator implements CloseableIterator<Row> {
+
+        private final StreamInput in;
+        private final Streamer<?>[] streamers;
+        private final long numRows;
+        private final Object[] cells;
+        private final RowN row;
+        private long pos = 0;
+
+        RowIterator(StreamInput in, Streamer<?>[] streamers, long numRows) {
+            this.in = in;
+            this.streamers = streamers;
+            this.numRows = numRows;
+            this.cells = new Object[streamers.length];
+            this.row = new RowN(cells);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pos < numRows;
+        }
+
+        @Override
+        public Row next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("SpillFile has no more rows");
+            }
+            try {
+                for (int i = 0; i < streamers.length; i++) {
+                    cells[i] = streamers[i].readValueFrom(in);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            pos++;
+            return row;
+        }
+
+        @Override
+        public void close() {
+            IOUtils.closeWhileHandlingException(in);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.window;
+
+import org.apache.lucene.util.RamUsageEstimator;
+
+import io.crate.data.breaker.RamAccounting;
+import io.crate.execution.engine.aggregation.AggregationFunction;
+
+/**
+ * Segment tree over the partial aggregation states of the rows of a partition.
+ * Each inner node holds the reduced states of its two children, which allows to compute the state of any range of rows
+ * by reducing {@code O(log n)} states instead of aggregating every row of the range again.
+ * See "Efficient Processing of Window Functions in Analytical SQL Queries", http://www.vldb.org/pvldb/vol8/p1058-leis.pdf
+ *
+ * <p>
+ * The states are shared between nodes and query results, so the function must be
+ * {@link AggregationFunction#isReduceNonMutating()}.
+ * </p>
+ */
+final class AggregateSegmentTree {
+
+    private final AggregationFunction<Object, ?> function;
+    private final RamAccounting ramAccounting;
+    private final int numLeaves;
+
+    /**
+     * Node {@code i} has the children {@code 2i} and {@code 2i + 1}, the leaves start at {@code numLeaves}.
+     */
+    private final Object[] nodes;
+
+    /**
+     * @param leafStates the partial state of each row of the partition, an empty state for rows which are filtered out
+     */
+    AggregateSegmentTree(AggregationFunction<Object, ?> function, RamAccounting ramAccounting, Object[] leafStates) {
+        assert function.isReduceNonMutating() : "Segment tree requires a function which doesn't mutate reduced states";
+        this.function = function;
+        this.ramAccounting = ramAccounting;
+        this.numLeaves = leafStates.length;
+        ramAccounting.addBytes(RamUsageEstimator.NUM_BYTES_ARRAY_HEADER +
+                               2L * numLeaves * RamUsageEstimator.NUM_BYTES_OBJECT_REF);
+        this.nodes = new Object[2 * numLeaves];
+        System.arraycopy(leafStates, 0, nodes, numLeaves, numLeaves);
+        for (int i = numLeaves - 1; i > 0; i--) {
+            nodes[i] = function.reduce(ramAccounting, nodes[2 * i], nodes[2 * i + 1]);
+        }
+    }
+
+    /**
+     * Returns the reduced state of the rows from {@code fromIdx} to {@code toIdxExclusive},
+     * or {@code emptyState} if the range is empty.
+     */
+    Object query(int fromIdx, int toIdxExclusive, Object emptyState) {
+        assert fromIdx >= 0 && toIdxExclusive <= numLeaves : "Range must be within the partition";
+        Object leftState = emptyState;
+        Object rightState = null;
+        boolean hasRightState = false;
+        for (int left = fromIdx + numLeaves, right = toIdxExclusive + numLeaves; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                leftState = function.reduce(ramAccounting, leftState, nodes[left]);
+                left++;
+            }
+            if ((right & 1) == 1) {
+                right--;
+                rightState = hasRightState ? function.reduce(ramAccounting, nodes[right], rightState) : nodes[right];
+                hasRightState = true;
+            }
+        }
+        return hasRightState ? function.reduce(ramAccounting, leftState, rightState) : leftState;
+    }
+}
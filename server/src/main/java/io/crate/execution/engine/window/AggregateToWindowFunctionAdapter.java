@@ -56,6 +56,14 @@ public class AggregateToWindowFunctionAdapter implements WindowFunction {
     private int seenFrameUpperBound = -1;
     private Object resultForCurrentFrame;
 
+    /**
+     * Built once the lower bound of the frame moves within a partition if the function isn't removable cumulative.
+     * Afterwards all frames of the partition are computed using the segment tree, as the accumulated state might be
+     * shared with its nodes and must not be iterated on.
+     */
+    @Nullable
+    private AggregateSegmentTree segmentTree;
+
     AggregateToWindowFunctionAdapter(AggregationFunction aggregationFunction,
                                      ExpressionsInput<Row, Boolean> filter,
                                      Version indexVersionCreated,
@@ -99,7 +107,12 @@ public class AggregateToWindowFunctionAdapter implements WindowFunction {
                           Input... args) {
         assert ignoreNulls == null;
         if (idxInPartition == 0) {
+            segmentTree = null;
             recomputeFunction(frame, expressions, args);
+        } else if (segmentTree != null) {
+            if (frame.lowerBound() != seenFrameLowerBound || frame.upperBoundExclusive() != seenFrameUpperBound) {
+                executeAggregateForFrameUsingSegmentTree(frame);
+            }
         } else if (isLowerBoundIncreasing(frame, seenFrameLowerBound)) {
             if (aggregationFunction.isRemovableCumulative()) {
                 removeSeenRowsFromAccumulatedState(frame, expressions, args);
@@ -110,6 +123,9 @@ public class AggregateToWindowFunctionAdapter implements WindowFunction {
                 }
                 seenFrameLowerBound = frame.lowerBound();
                 seenFrameUpperBound = frame.upperBoundExclusive();
+            } else if (aggregationFunction.isReduceNonMutating()) {
+                segmentTree = buildSegmentTree(frame, expressions, args);
+                executeAggregateForFrameUsingSegmentTree(frame);
             } else {
                 recomputeFunction(frame, expressions, args);
             }
@@ -140,6 +156,38 @@ public class AggregateToWindowFunctionAdapter implements WindowFunction {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private AggregateSegmentTree buildSegmentTree(WindowFrameState frame,
+                                                  List<? extends CollectExpression<Row, ?>> expressions,
+                                                  Input[] args) {
+        var row = new ArrayRow();
+        Object[] leafStates = new Object[frame.partitionSize()];
+        for (int i = 0; i < leafStates.length; i++) {
+            Object[] cells = frame.getRowInPartitionAtIndexOrNull(i);
+            assert cells != null : "No row at idx=" + i + " in current partition=" + frame;
+            row.cells(cells);
+            for (int j = 0, expressionsSize = expressions.size(); j < expressionsSize; j++) {
+                expressions.get(j).setNextRow(row);
+            }
+            Object state = aggregationFunction.newState(ramAccounting, indexVersionCreated, minNodeVersion, memoryManager);
+            if (filter.value(row)) {
+                state = aggregationFunction.iterate(ramAccounting, memoryManager, state, args);
+            }
+            leafStates[i] = state;
+        }
+        return new AggregateSegmentTree(aggregationFunction, ramAccounting, leafStates);
+    }
+
+    private void executeAggregateForFrameUsingSegmentTree(WindowFrameState frame) {
+        assert segmentTree != null : "segmentTree must be built before it can be used";
+        Object emptyState = aggregationFunction.newState(ramAccounting, indexVersionCreated, minNodeVersion, memoryManager);
+        accumulatedState = segmentTree.query(frame.lowerBound(), frame.upperBoundExclusive(), emptyState);
+        //noinspection unchecked
+        resultForCurrentFrame = aggregationFunction.terminatePartial(ramAccounting, accumulatedState);
+        seenFrameLowerBound = frame.lowerBound();
+        seenFrameUpperBound = frame.upperBoundExclusive();
+    }
+
     private void recomputeFunction(WindowFrameState frame,
                                    List<? extends CollectExpression<Row, ?>> expressions,
                                    Input[] args) {
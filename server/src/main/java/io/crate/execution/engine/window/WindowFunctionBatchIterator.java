@@ -23,18 +23,21 @@ package io.crate.execution.engine.window;
 
 import static io.crate.common.collections.Lists2.findFirstNonPeer;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.IntSupplier;
 
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.common.logging.Loggers;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import io.crate.common.collections.Iterables;
@@ -69,6 +72,12 @@ import io.crate.execution.engine.sort.Sort;
  *                      - Determine window frame
  *                      - Compute window function over the frame and output tuple
  * </pre>
+ *
+ * <p>
+ * If the source is already sorted by the PARTITION BY and ORDER BY expressions, {@link #ofSorted} can be used instead.
+ * It only keeps the rows of the current partition in memory and emits the results of a partition
+ * as soon as the first row of the next partition is read.
+ * </p>
  */
 public final class WindowFunctionBatchIterator {
 
@@ -117,6 +126,165 @@ public final class WindowFunctionBatchIterator {
         );
     }
 
+    /**
+     * Like {@link #of}, but requires the rows of the source to be sorted by the PARTITION BY
+     * expressions followed by the ORDER BY expressions of the window definition.
+     * Only the rows of one partition are held in memory at a time.
+     */
+    public static BatchIterator<Row> ofSorted(BatchIterator<Row> source,
+                                              RowAccounting<Row> rowAccounting,
+                                              ComputeFrameBoundary<Object[]> computeFrameStart,
+                                              ComputeFrameBoundary<Object[]> computeFrameEnd,
+                                              @Nullable Comparator<Object[]> cmpPartitionBy,
+                                              int numCellsInSourceRow,
+                                              List<WindowFunction> windowFunctions,
+                                              List<? extends CollectExpression<Row, ?>> argsExpressions,
+                                              Boolean[] ignoreNulls,
+                                              Input[]... args) {
+        assert windowFunctions.size() == args.length : "arguments must be defined for each window function";
+        assert args.length == ignoreNulls.length : "ignore-nulls option must be defined for each window function";
+        return new SortedPartitionsBatchIterator(
+            source,
+            rowAccounting,
+            windowFunctions.size(),
+            cmpPartitionBy,
+            partitionRows -> computeWindowFunctions(
+                partitionRows,
+                computeFrameStart,
+                computeFrameEnd,
+                null,
+                numCellsInSourceRow,
+                windowFunctions,
+                argsExpressions,
+                ignoreNulls,
+                args
+            )
+        );
+    }
+
+    private static final class SortedPartitionsBatchIterator implements BatchIterator<Row> {
+
+        private final BatchIterator<Row> source;
+        private final RowAccounting<Row> rowAccounting;
+        private final int numWindowFunctions;
+        @Nullable
+        private final Comparator<Object[]> cmpPartitionBy;
+        private final Function<List<Object[]>, Iterable<Object[]>> computeWindowFunctions;
+        private final Function<Object[], Row> toRow = Buckets.arrayToSharedRow();
+
+        private Row current;
+
+        private List<Object[]> partition = new ArrayList<>();
+        private long partitionBytes = 0;
+        @Nullable
+        private Iterator<Object[]> results;
+        private long resultsBytes = 0;
+
+        private SortedPartitionsBatchIterator(BatchIterator<Row> source,
+                                              RowAccounting<Row> rowAccounting,
+                                              int numWindowFunctions,
+                                              @Nullable Comparator<Object[]> cmpPartitionBy,
+                                              Function<List<Object[]>, Iterable<Object[]>> computeWindowFunctions) {
+            this.source = source;
+            this.rowAccounting = rowAccounting;
+            this.numWindowFunctions = numWindowFunctions;
+            this.cmpPartitionBy = cmpPartitionBy;
+            this.computeWindowFunctions = computeWindowFunctions;
+        }
+
+        @Override
+        public Row currentElement() {
+            return current;
+        }
+
+        @Override
+        public void moveToStart() {
+            source.moveToStart();
+            results = null;
+            partition = new ArrayList<>();
+            rowAccounting.release(resultsBytes + partitionBytes);
+            resultsBytes = 0;
+            partitionBytes = 0;
+        }
+
+        @Override
+        public boolean moveNext() {
+            while (true) {
+                if (results != null) {
+                    if (results.hasNext()) {
+                        current = toRow.apply(results.next());
+                        return true;
+                    }
+                    results = null;
+                    releaseEmittedPartition();
+                }
+                if (source.moveNext()) {
+                    Row row = source.currentElement();
+                    long rowBytes = rowAccounting.accountForAndMaybeBreak(row);
+                    Object[] cells = materializeWithSpare(row, numWindowFunctions);
+                    if (isStartOfNextPartition(cells)) {
+                        emitPartition();
+                    }
+                    partition.add(cells);
+                    partitionBytes += rowBytes;
+                } else if (source.allLoaded() && partition.isEmpty() == false) {
+                    emitPartition();
+                } else {
+                    return false;
+                }
+            }
+        }
+
+        private boolean isStartOfNextPartition(Object[] cells) {
+            return cmpPartitionBy != null
+                && partition.isEmpty() == false
+                && cmpPartitionBy.compare(partition.get(partition.size() - 1), cells) != 0;
+        }
+
+        private void emitPartition() {
+            results = computeWindowFunctions.apply(partition).iterator();
+            resultsBytes = partitionBytes;
+            partition = new ArrayList<>();
+            partitionBytes = 0;
+        }
+
+        /**
+         * Releases the memory accounted for the emitted partition.
+         * The rows of the next partition which may already have been read stay accounted for.
+         */
+        private void releaseEmittedPartition() {
+            rowAccounting.release(resultsBytes);
+            resultsBytes = 0;
+        }
+
+        @Override
+        public void close() {
+            partition = List.of();
+            results = null;
+            source.close();
+        }
+
+        @Override
+        public CompletionStage<?> loadNextBatch() throws Exception {
+            return source.loadNextBatch();
+        }
+
+        @Override
+        public boolean allLoaded() {
+            return source.allLoaded();
+        }
+
+        @Override
+        public void kill(@NotNull Throwable throwable) {
+            source.kill(throwable);
+        }
+
+        @Override
+        public boolean hasLazyResultSet() {
+            return source.hasLazyResultSet();
+        }
+    }
+
     private static Object[] materializeWithSpare(Row row, int numWindowFunctions) {
         Object[] cells = new Object[row.numColumns() + numWindowFunctions];
         for (int i = 0; i < row.numColumns(); i++) {
@@ -153,6 +153,20 @@ public class WindowProjector {
             windowDefinition,
             cmpOrderBy
         );
+        if (projection.presorted()) {
+            return sourceRows -> WindowFunctionBatchIterator.ofSorted(
+                sourceRows,
+                accounting,
+                computeFrameStart,
+                computeFrameEnd,
+                cmpPartitionBy,
+                numCellsInSourceRow,
+                windowFunctions,
+                windowFuncArgsExpressions,
+                ignoreNulls,
+                windowFuncArgsInputs
+            );
+        }
         return sourceRows -> WindowFunctionBatchIterator.of(
             sourceRows,
             accounting,
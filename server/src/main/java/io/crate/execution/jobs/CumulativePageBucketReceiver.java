@@ -26,19 +26,23 @@ import io.crate.data.BatchIterator;
 import io.crate.data.Bucket;
 import io.crate.data.Row;
 import io.crate.data.RowConsumer;
+import io.crate.execution.engine.distribution.StreamBucket;
 import io.crate.execution.engine.distribution.merge.BatchPagingIterator;
 import io.crate.execution.engine.distribution.merge.KeyIterable;
 import io.crate.execution.engine.distribution.merge.PagingIterator;
+import io.crate.execution.engine.join.JoinKeyFilter;
 import io.netty.util.collection.IntObjectHashMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import io.crate.common.annotations.GuardedBy;
 import io.crate.common.concurrent.KillableCompletionStage;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -47,6 +51,7 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 /**
  * A {@link PageBucketReceiver} which receives buckets from upstreams, wait to receive the page from all upstreams
@@ -69,6 +74,12 @@ public class CumulativePageBucketReceiver implements PageBucketReceiver {
     private final Map<Integer, PageResultListener> listenersByBucketIdx;
     @GuardedBy("lock")
     private final Map<Integer, Bucket> bucketsByIdx;
+    @GuardedBy("lock")
+    private final Set<StreamBucket> unreleasedBuckets = new HashSet<>();
+    private final Supplier<JoinKeyFilter> keyFilter;
+
+    @GuardedBy("listenersByBucketIdx")
+    private final Set<Integer> keyFilterSent;
     private final RowConsumer consumer;
     private final PagingIterator<Integer, Row> pagingIterator;
     private final BatchIterator<Row> batchPagingIterator;
@@ -85,6 +96,21 @@ public class CumulativePageBucketReceiver implements PageBucketReceiver {
                                         RowConsumer rowConsumer,
                                         PagingIterator<Integer, Row> pagingIterator,
                                         int numBuckets) {
+        this(nodeName, phaseId, executor, streamers, rowConsumer, pagingIterator, numBuckets, () -> null);
+    }
+
+    /**
+     * @param keyFilter supplies a filter which is sent once to each upstream as part of the request for more data
+     *                  as soon as it's available.
+     */
+    public CumulativePageBucketReceiver(String nodeName,
+                                        int phaseId,
+                                        Executor executor,
+                                        Streamer<?>[] streamers,
+                                        RowConsumer rowConsumer,
+                                        PagingIterator<Integer, Row> pagingIterator,
+                                        int numBuckets,
+                                        Supplier<JoinKeyFilter> keyFilter) {
         this.nodeName = nodeName;
         this.phaseId = phaseId;
         this.executor = executor;
@@ -92,10 +118,12 @@ public class CumulativePageBucketReceiver implements PageBucketReceiver {
         this.consumer = rowConsumer;
         this.pagingIterator = pagingIterator;
         this.numBuckets = numBuckets;
+        this.keyFilter = keyFilter;
 
         this.exhausted = Collections.newSetFromMap(new IntObjectHashMap<>(numBuckets));
         this.bucketsByIdx = new IntObjectHashMap<>(numBuckets);
         this.listenersByBucketIdx = new IntObjectHashMap<>(numBuckets);
+        this.keyFilterSent = Collections.newSetFromMap(new IntObjectHashMap<>(numBuckets));
         processingFuture.whenComplete((result, ex) -> {
             synchronized (listenersByBucketIdx) {
                 for (PageResultListener resultListener : listenersByBucketIdx.values()) {
@@ -103,6 +131,13 @@ public class CumulativePageBucketReceiver implements PageBucketReceiver {
                 }
                 listenersByBucketIdx.clear();
             }
+            if (ex == null || receivingFirstPage) {
+                // The consumer closed the iterator or never received it, no rows are accessed anymore
+                releaseBuckets();
+            } else {
+                // On a kill the consumer might still be reading rows of the current buckets
+                consumer.completionFuture().whenComplete((res, err) -> releaseBuckets());
+            }
         });
         batchPagingIterator = new BatchPagingIterator<>(
             pagingIterator,
@@ -120,7 +155,7 @@ public class CumulativePageBucketReceiver implements PageBucketReceiver {
     }
 
     @Override
-    public void setBucket(int bucketIdx, Bucket rows, boolean isLast, PageResultListener pageResultListener) {
+    public void setBucket(int bucketIdx, Bucket bucket, boolean isLast, PageResultListener pageResultListener) {
         final boolean isLastOrHasError;
         synchronized (listenersByBucketIdx) {
             isLastOrHasError = isLast || lastThrowable != null;
@@ -136,6 +171,7 @@ public class CumulativePageBucketReceiver implements PageBucketReceiver {
             if (traceEnabled) {
                 LOGGER.trace("method=setBucket phaseId={} bucket={} istLast={}", phaseId, bucketIdx, isLast);
             }
+            Bucket rows = trackForRelease(bucket);
 
             if (bucketsByIdx.putIfAbsent(bucketIdx, rows) != null) {
                 processingFuture.completeExceptionally(new IllegalStateException(String.format(Locale.ENGLISH,
@@ -152,6 +188,45 @@ public class CumulativePageBucketReceiver implements PageBucketReceiver {
         }
     }
 
+    /**
+     * Buckets which share network buffers are released as soon as they have been consumed if the
+     * {@link PagingIterator} iterates them only once. Otherwise they're copied to the heap, so that
+     * network buffers aren't held for the duration of the whole operation.
+     */
+    @GuardedBy("lock")
+    private Bucket trackForRelease(Bucket rows) {
+        if (!(rows instanceof StreamBucket streamBucket)) {
+            return rows;
+        }
+        if (processingFuture.isDone()) {
+            streamBucket.close();
+            return Bucket.EMPTY;
+        }
+        if (!pagingIterator.isSinglePass()) {
+            return streamBucket.copyIfRetained();
+        }
+        unreleasedBuckets.add(streamBucket);
+        return new ReleaseOnExhaustionBucket(streamBucket);
+    }
+
+    private void release(StreamBucket bucket) {
+        synchronized (lock) {
+            unreleasedBuckets.remove(bucket);
+        }
+        bucket.close();
+    }
+
+    private void releaseBuckets() {
+        List<StreamBucket> toRelease;
+        synchronized (lock) {
+            toRelease = new ArrayList<>(unreleasedBuckets);
+            unreleasedBuckets.clear();
+        }
+        for (StreamBucket bucket : toRelease) {
+            bucket.close();
+        }
+    }
+
     private void triggerConsumerOrPageFuture(List<KeyIterable<Integer, Row>> buckets) {
         boolean invokeConsumer = false;
         Throwable throwable;
@@ -252,19 +327,29 @@ public class CumulativePageBucketReceiver implements PageBucketReceiver {
             for (Integer bucketIdx : listenersByBucketIdx.keySet()) {
                 bucketsByIdx.putIfAbsent(bucketIdx, Bucket.EMPTY);
             }
-            pageResultListener.needMore(true);
+            pageResultListener.needMore(true, keyFilterToSend(exhaustedBucket));
         }
     }
 
     private void fetchFromUnExhausted() {
         synchronized (listenersByBucketIdx) {
-            for (PageResultListener listener : listenersByBucketIdx.values()) {
-                listener.needMore(true);
+            for (Map.Entry<Integer, PageResultListener> entry : listenersByBucketIdx.entrySet()) {
+                entry.getValue().needMore(true, keyFilterToSend(entry.getKey()));
             }
             listenersByBucketIdx.clear();
         }
     }
 
+    @Nullable
+    @GuardedBy("listenersByBucketIdx")
+    private JoinKeyFilter keyFilterToSend(Integer bucketIdx) {
+        JoinKeyFilter filter = keyFilter.get();
+        if (filter == null || keyFilterSent.add(bucketIdx) == false) {
+            return null;
+        }
+        return filter;
+    }
+
     @Override
     public Streamer<?>[] streamers() {
         return streamers;
@@ -298,6 +383,42 @@ public class CumulativePageBucketReceiver implements PageBucketReceiver {
         }
     }
 
+    private final class ReleaseOnExhaustionBucket implements Bucket {
+
+        private final StreamBucket bucket;
+
+        ReleaseOnExhaustionBucket(StreamBucket bucket) {
+            this.bucket = bucket;
+        }
+
+        @Override
+        public int size() {
+            return bucket.size();
+        }
+
+        @Override
+        @NotNull
+        public Iterator<Row> iterator() {
+            Iterator<Row> it = bucket.iterator();
+            return new Iterator<>() {
+
+                @Override
+                public boolean hasNext() {
+                    boolean hasNext = it.hasNext();
+                    if (!hasNext) {
+                        release(bucket);
+                    }
+                    return hasNext;
+                }
+
+                @Override
+                public Row next() {
+                    return it.next();
+                }
+            };
+        }
+    }
+
     @Override
     public String toString() {
         return "CumulativePageBucketReceiver{" +
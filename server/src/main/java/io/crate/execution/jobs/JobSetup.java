@@ -35,10 +35,12 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collector;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.elasticsearch.Version;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.inject.Inject;
@@ -106,10 +108,12 @@ import io.crate.execution.engine.distribution.StreamBucket;
 import io.crate.execution.engine.distribution.merge.PagingIterator;
 import io.crate.execution.engine.fetch.FetchTask;
 import io.crate.execution.engine.join.HashJoinOperation;
+import io.crate.execution.engine.join.JoinKeyFilter;
 import io.crate.execution.engine.join.NestedLoopOperation;
 import io.crate.execution.engine.pipeline.ProjectingRowConsumer;
 import io.crate.execution.engine.pipeline.ProjectionToProjectorVisitor;
 import io.crate.execution.engine.pipeline.ProjectorFactory;
+import io.crate.execution.engine.spill.SpillDirectory;
 import io.crate.expression.InputFactory;
 import io.crate.expression.RowFilter;
 import io.crate.expression.eval.EvaluatingNormalizer;
@@ -144,6 +148,7 @@ public class JobSetup {
     private final Executor searchTp;
     private final String nodeName;
     private final Schemas schemas;
+    private final SpillDirectory spillDirectory;
 
     @Inject
     public JobSetup(Settings settings,
@@ -160,7 +165,8 @@ public class JobSetup {
                     NodeContext nodeCtx,
                     SystemCollectSource systemCollectSource,
                     ShardCollectSource shardCollectSource,
-                    MemoryManagerFactory memoryManagerFactory) {
+                    MemoryManagerFactory memoryManagerFactory,
+                    SpillDirectory spillDirectory) {
         this.nodeName = Node.NODE_NAME_SETTING.get(settings);
         this.schemas = schemas;
         this.collectOperation = collectOperation;
@@ -168,6 +174,7 @@ public class JobSetup {
         this.circuitBreakerService = circuitBreakerService;
         this.countOperation = countOperation;
         this.memoryManagerFactory = memoryManagerFactory;
+        this.spillDirectory = spillDirectory;
         this.pkLookupOperation = new PKLookupOperation(indicesService, shardCollectSource);
         this.distributingConsumerFactory = distributingConsumerFactory;
         innerPreparer = new InnerPreparer();
@@ -186,7 +193,12 @@ public class JobSetup {
             inputFactory,
             normalizer,
             systemCollectSource::getRowUpdater,
-            systemCollectSource::tableDefinition
+            systemCollectSource::tableDefinition,
+            Version.CURRENT,
+            null,
+            null,
+            spillDirectory.isAvailable() ? spillDirectory : null,
+            memoryManagerFactory
         );
     }
 
@@ -695,6 +707,7 @@ public class JobSetup {
                         phase.jobId()
                     );
                     collector = groupingProjector.getCollector();
+                    finalRowConsumer.completionFuture().whenComplete((result, error) -> groupingProjector.close());
                     projections = projections.subList(1, projections.size());
                 } else if (firstProjection instanceof AggregationProjection) {
                     AggregationProjection aggregationProjection = (AggregationProjection) firstProjection;
@@ -953,7 +966,13 @@ public class JobSetup {
                 context.transactionContext,
                 inputFactory,
                 breaker(),
-                phase.estimatedRowSizeForLeft()
+                phase.estimatedRowSizeForLeft(),
+                spillDirectory.isAvailable() && phase.rightOutputTypes() != null ? spillDirectory : null,
+                // The iterator, and with it the partitions, is closed after the consumer completed and
+                // released the ram accounting of the phase, so the buffers are accounted separately
+                ConcurrentRamAccounting.forCircuitBreaker(phase.label(), breaker, 0),
+                DataTypes.getStreamers(phase.leftOutputTypes()),
+                phase.rightOutputTypes() == null ? new Streamer[0] : DataTypes.getStreamers(phase.rightOutputTypes())
             );
             DistResultRXTask left = pageDownstreamContextForNestedLoop(
                 phase.phaseId(),
@@ -974,7 +993,8 @@ public class JobSetup {
                 phase.rightMergePhase(),
                 joinOperation.rightConsumer(),
                 new BlockBasedRamAccounting(ramAccounting::addBytes, ramAccountingBlockSizeInBytes),
-                memoryManager
+                memoryManager,
+                joinOperation::rightKeyFilter
             );
             if (right != null) {
                 context.registerSubContext(right);
@@ -996,6 +1016,23 @@ public class JobSetup {
                                                                     RowConsumer rowConsumer,
                                                                     RamAccounting ramAccounting,
                                                                     MemoryManager memoryManager) {
+            return pageDownstreamContextForNestedLoop(
+                nlPhaseId, ctx, inputId, mergePhase, rowConsumer, ramAccounting, memoryManager, () -> null);
+        }
+
+        /**
+         * @param keyFilter filter for the rows of the upstreams, ignored if the merge phase has projections
+         *                  as they could depend on the unfiltered rows.
+         */
+        @Nullable
+        private DistResultRXTask pageDownstreamContextForNestedLoop(int nlPhaseId,
+                                                                    Context ctx,
+                                                                    byte inputId,
+                                                                    @Nullable MergePhase mergePhase,
+                                                                    RowConsumer rowConsumer,
+                                                                    RamAccounting ramAccounting,
+                                                                    MemoryManager memoryManager,
+                                                                    Supplier<JoinKeyFilter> keyFilter) {
             if (mergePhase == null) {
                 ctx.consumersByPhaseInputId.put(toKey(nlPhaseId, inputId), rowConsumer);
                 return null;
@@ -1029,7 +1066,8 @@ public class JobSetup {
                     () -> new RowAccountingWithEstimators(
                         mergePhase.inputTypes(),
                         ramAccounting)),
-                mergePhase.numUpstreams());
+                mergePhase.numUpstreams(),
+                mergePhase.hasProjections() ? () -> null : keyFilter);
 
             return new DistResultRXTask(
                 mergePhase.phaseId(),
@@ -65,7 +65,9 @@ public interface PageBucketReceiver extends CompletionListenable, Killable {
      * called multiple times for each bucketIdx if the corresponding
      * {@code pageResultListener} is called via {@code PageResultListener#needMore(true)}.
      * @param bucketIdx A bucket id which uniquely identifies all buckets of this page.
-     * @param rows The bucket which holds result rows.
+     * @param rows The bucket which holds result rows. The receiver takes ownership of the bucket:
+     *             if it is {@link org.elasticsearch.common.lease.Releasable} (e.g. a bucket sharing the network
+     *             buffers of a request) it must be released once its rows have been consumed.
      * @param isLast Indicates whether this is the last bucket with this id.
      * @param pageResultListener The ResultListener which is informed if more data is needed (for an additional page).
      */
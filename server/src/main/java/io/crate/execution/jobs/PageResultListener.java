@@ -21,6 +21,10 @@
 
 package io.crate.execution.jobs;
 
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.execution.engine.join.JoinKeyFilter;
+
 /**
  * An interface to signal more paging data is needed.
  * The PageResultListener has to take action which ensures that
@@ -38,4 +42,12 @@ public interface PageResultListener {
      * @param needMore True if more data is needed and should be requested, false otherwise.
      */
     void needMore(boolean needMore);
+
+    /**
+     * Like {@link #needMore(boolean)}, but also passes a filter the upstream can apply to the rows of the
+     * following pages.
+     */
+    default void needMore(boolean needMore, @Nullable JoinKeyFilter keyFilter) {
+        needMore(needMore);
+    }
 }
@@ -0,0 +1,214 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.resultcache;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.jetbrains.annotations.Nullable;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.crate.analyze.AnalyzedStatement;
+import io.crate.analyze.Relations;
+import io.crate.analyze.relations.AnalyzedRelation;
+import io.crate.analyze.relations.DocTableRelation;
+import io.crate.common.annotations.VisibleForTesting;
+import io.crate.metadata.SearchPath;
+import io.crate.planner.Plan;
+import io.crate.planner.operators.Get;
+import io.crate.planner.operators.LogicalPlan;
+
+/**
+ * A node-local cache for the result rows of read-only queries.
+ * <p>
+ * An entry is only served as long as the cluster metadata and the Lucene readers of all shard copies of the
+ * queried tables are unchanged. The current reader versions are looked up using
+ * {@link TransportShardReaderVersionsAction} before each execution of a cacheable query, so any write which
+ * became visible to queries by a refresh invalidates the entries of the tables it touched.
+ * </p>
+ * The cache is disabled unless {@link #SIZE} is set.
+ */
+@Singleton
+public class QueryResultCache {
+
+    public static final Setting<ByteSizeValue> SIZE = Setting.memorySizeSetting(
+        "query.result_cache.size",
+        "0b",
+        Property.Dynamic,
+        Property.NodeScope,
+        Property.Exposed
+    );
+
+    public record Key(String statement, String userName, SearchPath searchPath, List<Object> params) {
+    }
+
+    private record Entry(long metadataVersion, Map<String, Long> readerVersions, List<Object[]> rows, int bytes) {
+    }
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final Cache<Key, Entry> cache;
+
+    private volatile long maxBytes;
+
+    @Inject
+    public QueryResultCache(Settings settings, ClusterService clusterService) {
+        this(settings, clusterService.getClusterSettings());
+    }
+
+    @VisibleForTesting
+    QueryResultCache(Settings settings, ClusterSettings clusterSettings) {
+        this.maxBytes = SIZE.get(settings).getBytes();
+        this.cache = Caffeine.newBuilder()
+            .executor(Runnable::run)
+            .maximumWeight(maxBytes)
+            .weigher((Key key, Entry entry) -> entry.bytes)
+            .removalListener((Key key, Entry entry, RemovalCause cause) -> {
+                if (cause.wasEvicted()) {
+                    evictions.increment();
+                }
+            })
+            .build();
+        clusterSettings.addSettingsUpdateConsumer(SIZE, this::setMaxBytes);
+    }
+
+    private void setMaxBytes(ByteSizeValue size) {
+        maxBytes = size.getBytes();
+        cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maxBytes));
+        if (maxBytes == 0) {
+            cache.invalidateAll();
+        }
+    }
+
+    public boolean enabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Results larger than this aren't cached to prevent a single query from evicting all other entries.
+     */
+    public long maxEntryBytes() {
+        return Math.min(maxBytes / 4, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return the cached rows or null if there is no entry for the key or if the entry was created for other
+     *         metadata or reader versions. Stale entries are removed.
+     */
+    @Nullable
+    public List<Object[]> get(Key key, long metadataVersion, Map<String, Long> readerVersions) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.metadataVersion != metadataVersion || !entry.readerVersions.equals(readerVersions)) {
+            cache.asMap().remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.rows;
+    }
+
+    public void put(Key key, long metadataVersion, Map<String, Long> readerVersions, List<Object[]> rows, long bytes) {
+        if (bytes > maxEntryBytes()) {
+            return;
+        }
+        cache.put(key, new Entry(metadataVersion, readerVersions, List.copyOf(rows), (int) bytes));
+    }
+
+    public QueryResultCacheStats stats() {
+        cache.cleanUp();
+        long sizeInBytes = cache.policy().eviction()
+            .map(eviction -> eviction.weightedSize().orElse(0L))
+            .orElse(0L);
+        return new QueryResultCacheStats(
+            hits.sum(),
+            misses.sum(),
+            evictions.sum(),
+            cache.estimatedSize(),
+            sizeInBytes
+        );
+    }
+
+    /**
+     * Returns the names of the indices read by the plan if the result of the statement can be cached,
+     * otherwise null.
+     * <p>
+     * Results are cacheable if the statement is a query which only reads from user tables and only uses
+     * deterministic functions. Primary key lookups are excluded because they read from the translog and
+     * can see writes which are not yet visible to the Lucene readers.
+     * </p>
+     */
+    @Nullable
+    public static Set<String> cacheableIndices(AnalyzedStatement statement, Plan plan) {
+        if (!(statement instanceof AnalyzedRelation relation)
+            || !(plan instanceof LogicalPlan logicalPlan)
+            || !Relations.isDeterministic(relation, source -> source instanceof DocTableRelation)) {
+            return null;
+        }
+        HashSet<String> indices = new HashSet<>();
+        if (collectIndices(logicalPlan, indices)) {
+            return indices;
+        }
+        return null;
+    }
+
+    private static boolean collectIndices(LogicalPlan plan, Set<String> indices) {
+        if (plan instanceof Get) {
+            return false;
+        }
+        for (var table : plan.baseTables()) {
+            if (!(table instanceof DocTableRelation docTable)) {
+                return false;
+            }
+            indices.addAll(List.of(docTable.tableInfo().concreteOpenIndices()));
+        }
+        for (LogicalPlan source : plan.sources()) {
+            if (!collectIndices(source, indices)) {
+                return false;
+            }
+        }
+        for (LogicalPlan dependency : plan.dependencies().keySet()) {
+            if (!collectIndices(dependency, indices)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.resultcache;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.transport.TransportResponse;
+
+public class ShardReaderVersionsResponse extends TransportResponse {
+
+    private final Map<String, Long> versionByAllocationId;
+
+    public ShardReaderVersionsResponse(Map<String, Long> versionByAllocationId) {
+        this.versionByAllocationId = versionByAllocationId;
+    }
+
+    public ShardReaderVersionsResponse(StreamInput in) throws IOException {
+        versionByAllocationId = in.readMap(StreamInput::readString, StreamInput::readVLong);
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeMap(versionByAllocationId, StreamOutput::writeString, StreamOutput::writeVLong);
+    }
+
+    /**
+     * The versions of the Lucene readers used by queries, keyed by the allocation id of the shard copies.
+     */
+    public Map<String, Long> versionByAllocationId() {
+        return versionByAllocationId;
+    }
+}
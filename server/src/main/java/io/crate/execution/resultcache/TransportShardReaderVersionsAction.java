@@ -0,0 +1,143 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.resultcache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionListenerResponseHandler;
+import org.elasticsearch.action.support.TransportAction;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.index.IndexService;
+import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.shard.IndexShardState;
+import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportService;
+
+import io.crate.execution.support.MultiActionListener;
+import io.crate.execution.support.NodeActionRequestHandler;
+
+/**
+ * Retrieves the versions of the Lucene readers of all started shard copies of the given indices from the
+ * nodes holding them. Pending refreshes of search idle shards are awaited first, like queries do, so the
+ * versions reflect the data a query would read.
+ */
+@Singleton
+public class TransportShardReaderVersionsAction
+    extends TransportAction<ShardReaderVersionsRequest, ShardReaderVersionsResponse> {
+
+    private final ClusterService clusterService;
+    private final TransportService transportService;
+    private final IndicesService indicesService;
+
+    @Inject
+    public TransportShardReaderVersionsAction(ClusterService clusterService,
+                                              TransportService transportService,
+                                              IndicesService indicesService) {
+        super(ShardReaderVersionsAction.NAME);
+        this.clusterService = clusterService;
+        this.transportService = transportService;
+        this.indicesService = indicesService;
+        transportService.registerRequestHandler(
+            ShardReaderVersionsAction.NAME,
+            ThreadPool.Names.MANAGEMENT,
+            ShardReaderVersionsRequest::new,
+            new NodeActionRequestHandler<>(this::nodeOperation)
+        );
+    }
+
+    @Override
+    protected void doExecute(ShardReaderVersionsRequest request,
+                             ActionListener<ShardReaderVersionsResponse> listener) {
+        ClusterState state = clusterService.state();
+        Set<String> nodeIds = new HashSet<>();
+        for (ShardRouting shardRouting : state.routingTable().allShards(request.indices().toArray(new String[0]))) {
+            if (shardRouting.active()) {
+                nodeIds.add(shardRouting.currentNodeId());
+            }
+        }
+        MultiActionListener<ShardReaderVersionsResponse, Map<String, Long>, ShardReaderVersionsResponse> multiActionListener =
+            new MultiActionListener<>(
+                nodeIds.size(),
+                HashMap::new,
+                (versions, response) -> versions.putAll(response.versionByAllocationId()),
+                ShardReaderVersionsResponse::new,
+                listener
+            );
+        for (String nodeId : nodeIds) {
+            DiscoveryNode node = state.nodes().get(nodeId);
+            if (node == null) {
+                multiActionListener.onFailure(new IllegalStateException("Node " + nodeId + " is not part of the cluster"));
+                continue;
+            }
+            transportService.sendRequest(
+                node,
+                ShardReaderVersionsAction.NAME,
+                request,
+                new ActionListenerResponseHandler<>(multiActionListener, ShardReaderVersionsResponse::new)
+            );
+        }
+    }
+
+    CompletableFuture<ShardReaderVersionsResponse> nodeOperation(ShardReaderVersionsRequest request) {
+        Set<String> indices = Set.copyOf(request.indices());
+        List<IndexShard> shards = new ArrayList<>();
+        for (IndexService indexService : indicesService) {
+            if (indices.contains(indexService.index().getName())) {
+                for (IndexShard indexShard : indexService) {
+                    if (indexShard.state() == IndexShardState.STARTED) {
+                        shards.add(indexShard);
+                    }
+                }
+            }
+        }
+        List<CompletableFuture<Boolean>> searchActive = new ArrayList<>(shards.size());
+        for (IndexShard indexShard : shards) {
+            searchActive.add(indexShard.awaitShardSearchActive());
+        }
+        return CompletableFuture.allOf(searchActive.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            Map<String, Long> versions = new HashMap<>();
+            for (IndexShard indexShard : shards) {
+                try (Engine.Searcher searcher = indexShard.acquireSearcher("result_cache")) {
+                    versions.put(
+                        indexShard.routingEntry().allocationId().getId(),
+                        searcher.getDirectoryReader().getVersion()
+                    );
+                }
+            }
+            return new ShardReaderVersionsResponse(versions);
+        });
+    }
+}
@@ -29,6 +29,8 @@ import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.Query;
 
+import io.crate.data.BooleanVector;
+import io.crate.data.ColumnVector;
 import io.crate.data.Input;
 import io.crate.expression.symbol.Function;
 import io.crate.expression.symbol.Literal;
@@ -132,6 +134,17 @@ public class AndOperator extends Operator<Boolean> {
         return left && right;
     }
 
+    @Override
+    public boolean supportsBatchEvaluation() {
+        return true;
+    }
+
+    @Override
+    public ColumnVector evaluateBatch(TransactionContext txnCtx, NodeContext nodeCtx, ColumnVector... args) {
+        assert args.length == 2 : "number of args must be 2";
+        return BooleanVector.and((BooleanVector) args[0], (BooleanVector) args[1]);
+    }
+
     @Override
     public Query toQuery(Function function, Context context) {
         BooleanQuery.Builder query = new BooleanQuery.Builder();
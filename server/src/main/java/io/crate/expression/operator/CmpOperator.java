@@ -26,8 +26,10 @@ import java.util.function.IntPredicate;
 import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.Query;
 
+import io.crate.data.ColumnVector;
 import io.crate.data.Input;
 import io.crate.expression.symbol.Literal;
+import io.crate.expression.vector.ColumnVectors;
 import io.crate.metadata.IndexType;
 import io.crate.metadata.NodeContext;
 import io.crate.metadata.Reference;
@@ -68,6 +70,17 @@ public final class CmpOperator extends Operator<Object> {
         return isMatch.test(type.compare(left, right));
     }
 
+    @Override
+    public boolean supportsBatchEvaluation() {
+        return ColumnVectors.isSupported(type);
+    }
+
+    @Override
+    public ColumnVector evaluateBatch(TransactionContext txnCtx, NodeContext nodeCtx, ColumnVector... args) {
+        assert args.length == 2 : "number of args must be 2";
+        return ColumnVectors.compare(args[0], args[1], isMatch);
+    }
+
     @SuppressWarnings({"rawtypes", "unchecked"})
     public static Query toQuery(String functionName, Reference ref, Object value) {
         StorageSupport<?> storageSupport = ref.valueType().storageSupport();
@@ -43,11 +43,13 @@ import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.mapper.Uid;
 import org.jetbrains.annotations.Nullable;
 
+import io.crate.data.ColumnVector;
 import io.crate.data.Input;
 import io.crate.expression.scalar.NumTermsPerDocQuery;
 import io.crate.expression.symbol.Function;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
+import io.crate.expression.vector.ColumnVectors;
 import io.crate.lucene.LuceneQueryBuilder.Context;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.IndexType;
@@ -108,6 +110,17 @@ public final class EqOperator extends Operator<Object> {
         return argType.compare(left, right) == 0;
     }
 
+    @Override
+    public boolean supportsBatchEvaluation() {
+        return ColumnVectors.isSupported(argType);
+    }
+
+    @Override
+    public ColumnVector evaluateBatch(TransactionContext txnCtx, NodeContext nodeCtx, ColumnVector... args) {
+        assert args.length == 2 : "number of args must be 2";
+        return ColumnVectors.compare(args[0], args[1], cmpResult -> cmpResult == 0);
+    }
+
     @Override
     public Query toQuery(Function function, Context context) {
         List<Symbol> args = function.arguments();
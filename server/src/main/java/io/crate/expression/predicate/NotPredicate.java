@@ -30,6 +30,8 @@ import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.Query;
 import org.elasticsearch.common.lucene.search.Queries;
 
+import io.crate.data.BooleanVector;
+import io.crate.data.ColumnVector;
 import io.crate.data.Input;
 import io.crate.expression.scalar.Ignore3vlFunction;
 import io.crate.expression.scalar.cast.ExplicitCastFunction;
@@ -94,6 +96,17 @@ public class NotPredicate extends Scalar<Boolean, Boolean> {
         return value != null ? !value : null;
     }
 
+    @Override
+    public boolean supportsBatchEvaluation() {
+        return true;
+    }
+
+    @Override
+    public ColumnVector evaluateBatch(TransactionContext txnCtx, NodeContext nodeCtx, ColumnVector... args) {
+        assert args.length == 1 : "number of args must be 1";
+        return BooleanVector.not((BooleanVector) args[0]);
+    }
+
 
     private final NullabilityVisitor INNER_VISITOR = new NullabilityVisitor();
 
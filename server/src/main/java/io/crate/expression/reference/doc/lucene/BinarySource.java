@@ -0,0 +1,406 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.expression.reference.doc.lucene;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.lucene.util.BitUtil;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+
+import io.crate.server.xcontent.XContentHelper;
+import io.crate.types.DataTypes;
+
+/**
+ * Binary format of the {@code _source} stored field, which can be used instead of JSON
+ * by setting {@link #INDEX_SOURCE_FORMAT_SETTING} to {@code binary}.
+ *
+ * <p>
+ * Values are typed and objects contain an entry table with the positions of the keys and values,
+ * so single columns can be read without tokenizing the whole source:
+ * </p>
+ *
+ * <pre>
+ * source:  MAGIC VERSION value
+ * value:   NULL | TRUE | FALSE
+ *          | INT zigzag-vint | LONG zigzag-vlong | DOUBLE 8 bytes | BIG_INTEGER string-bytes
+ *          | STRING vint-length utf-8-bytes
+ *          | ARRAY int32-length vint-count value*
+ *          | OBJECT int32-length vint-count (int32-key-position int32-value-position)* key* value*
+ * key:     vint-length utf-8-bytes
+ * </pre>
+ *
+ * <p>
+ * The positions of an object's entry table are relative to the start of the object and the entries are in the
+ * order of the JSON source. The keys are the same as in JSON sources, which are column OIDs for tables
+ * created with OIDs.
+ * </p>
+ *
+ * <p>
+ * The format is detected using the first byte, which can't be the first byte of a (compressed) JSON source.
+ * This allows segments of a table to contain both formats after changing the setting.
+ * The translog always keeps the JSON source, replicas and translog replays store it in the format of the
+ * current setting, see {@link org.elasticsearch.index.mapper.SourceFieldMapper}.
+ * </p>
+ */
+public final class BinarySource {
+
+    public static final String JSON = "json";
+    public static final String BINARY = "binary";
+
+    public static final Setting<String> INDEX_SOURCE_FORMAT_SETTING = new Setting<>(
+        "index.source_format",
+        JSON,
+        s -> {
+            String format = s.toLowerCase(Locale.ENGLISH);
+            if (!format.equals(JSON) && !format.equals(BINARY)) {
+                throw new IllegalArgumentException(
+                    "unknown value for [index.source_format] must be one of [json, binary] but was: " + s);
+            }
+            return format;
+        },
+        DataTypes.STRING,
+        Property.IndexScope,
+        Property.Dynamic
+    );
+
+    private static final byte MAGIC = 0;
+    private static final byte VERSION = 1;
+    static final int HEADER_LENGTH = 2;
+
+    static final byte NULL = 0;
+    static final byte TRUE = 1;
+    static final byte FALSE = 2;
+    static final byte INT = 3;
+    static final byte LONG = 4;
+    static final byte DOUBLE = 5;
+    static final byte BIG_INTEGER = 6;
+    static final byte STRING = 7;
+    static final byte ARRAY = 8;
+    static final byte OBJECT = 9;
+
+    private BinarySource() {
+    }
+
+    public static boolean isBinary(BytesReference source) {
+        return source.length() >= HEADER_LENGTH && source.get(0) == MAGIC;
+    }
+
+    /**
+     * Converts a JSON source into the binary format.
+     */
+    public static BytesRef fromJson(BytesReference json) {
+        Map<String, Object> source;
+        try (InputStream inputStream = XContentHelper.getUncompressedInputStream(json);
+             XContentParser parser = XContentType.JSON.xContent().createParser(
+                 NamedXContentRegistry.EMPTY,
+                 DeprecationHandler.THROW_UNSUPPORTED_OPERATION,
+                 inputStream)) {
+            source = parser.mapOrdered();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return fromValue(source, json.length() + 64);
+    }
+
+    /**
+     * Writes a value in the binary format. Maps, lists and scalars must be of the types returned by a JSON parser.
+     */
+    static BytesRef fromValue(Object value, int initialCapacity) {
+        Writer writer = new Writer(initialCapacity);
+        writer.writeByte(MAGIC);
+        writer.writeByte(VERSION);
+        writer.writeValue(value);
+        return new BytesRef(writer.bytes, 0, writer.length);
+    }
+
+    /**
+     * @return the source as JSON, converting it if it uses the binary format.
+     */
+    public static BytesReference toJson(BytesReference source) {
+        if (!isBinary(source)) {
+            return source;
+        }
+        BytesRef bytes = source.toBytesRef();
+        try (XContentBuilder builder = JsonXContent.builder()) {
+            builder.value(readValue(bytes.bytes, bytes.offset + HEADER_LENGTH));
+            return BytesReference.bytes(builder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the source as map, keeping the order of the keys.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> toMap(BytesReference source) {
+        assert isBinary(source) : "source must use the binary format";
+        BytesRef bytes = source.toBytesRef();
+        return (Map<String, Object>) readValue(bytes.bytes, bytes.offset + HEADER_LENGTH);
+    }
+
+    static byte tag(byte[] bytes, int pos) {
+        return bytes[pos];
+    }
+
+    static int numEntries(byte[] bytes, int objectPos) {
+        assert bytes[objectPos] == OBJECT || bytes[objectPos] == ARRAY : "value must be an object or an array";
+        return readVInt(bytes, objectPos + 5);
+    }
+
+    static String key(byte[] bytes, int objectPos, int entry) {
+        int keyPos = objectPos + (int) BitUtil.VH_LE_INT.get(bytes, entryTablePos(bytes, objectPos) + entry * 8);
+        return readString(bytes, keyPos);
+    }
+
+    static int valuePos(byte[] bytes, int objectPos, int entry) {
+        return objectPos + (int) BitUtil.VH_LE_INT.get(bytes, entryTablePos(bytes, objectPos) + entry * 8 + 4);
+    }
+
+    /**
+     * @return the position of the first element of an array
+     */
+    static int firstElementPos(byte[] bytes, int arrayPos) {
+        return arrayPos + 5 + vIntLength(bytes, arrayPos + 5);
+    }
+
+    private static int entryTablePos(byte[] bytes, int objectPos) {
+        return objectPos + 5 + vIntLength(bytes, objectPos + 5);
+    }
+
+    /**
+     * @return the position after the value at {@code pos}
+     */
+    static int skip(byte[] bytes, int pos) {
+        return switch (bytes[pos]) {
+            case NULL, TRUE, FALSE -> pos + 1;
+            case INT, LONG -> pos + 1 + vIntLength(bytes, pos + 1);
+            case DOUBLE -> pos + 9;
+            case BIG_INTEGER, STRING -> {
+                int length = readVInt(bytes, pos + 1);
+                yield pos + 1 + vIntLength(bytes, pos + 1) + length;
+            }
+            case ARRAY, OBJECT -> pos + 5 + (int) BitUtil.VH_LE_INT.get(bytes, pos + 1);
+            default -> throw new IllegalStateException("Invalid binary source, unknown tag: " + bytes[pos]);
+        };
+    }
+
+    /**
+     * Reads the value at {@code pos}. The values are of the same types as if they were parsed from JSON.
+     */
+    static Object readValue(byte[] bytes, int pos) {
+        switch (bytes[pos]) {
+            case ARRAY: {
+                int size = numEntries(bytes, pos);
+                ArrayList<Object> values = new ArrayList<>(size);
+                int elementPos = firstElementPos(bytes, pos);
+                for (int i = 0; i < size; i++) {
+                    values.add(readValue(bytes, elementPos));
+                    elementPos = skip(bytes, elementPos);
+                }
+                return values;
+            }
+            case OBJECT: {
+                int size = numEntries(bytes, pos);
+                LinkedHashMap<String, Object> values = new LinkedHashMap<>(size);
+                for (int i = 0; i < size; i++) {
+                    values.put(key(bytes, pos, i), readValue(bytes, valuePos(bytes, pos, i)));
+                }
+                return values;
+            }
+            default:
+                return readScalar(bytes, pos);
+        }
+    }
+
+    static Object readScalar(byte[] bytes, int pos) {
+        return switch (bytes[pos]) {
+            case NULL -> null;
+            case TRUE -> Boolean.TRUE;
+            case FALSE -> Boolean.FALSE;
+            case INT -> BitUtil.zigZagDecode(readVInt(bytes, pos + 1));
+            case LONG -> BitUtil.zigZagDecode(readVLong(bytes, pos + 1));
+            case DOUBLE -> (double) BitUtil.VH_LE_DOUBLE.get(bytes, pos + 1);
+            case BIG_INTEGER -> new BigInteger(readString(bytes, pos + 1));
+            case STRING -> readString(bytes, pos + 1);
+            default -> throw new IllegalStateException(
+                "Invalid binary source, expected a scalar, got tag: " + bytes[pos]);
+        };
+    }
+
+    private static String readString(byte[] bytes, int pos) {
+        int length = readVInt(bytes, pos);
+        return new String(bytes, pos + vIntLength(bytes, pos), length, StandardCharsets.UTF_8);
+    }
+
+    private static int readVInt(byte[] bytes, int pos) {
+        return (int) readVLong(bytes, pos);
+    }
+
+    private static long readVLong(byte[] bytes, int pos) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes[pos++];
+            value |= (b & 0x7FL) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private static int vIntLength(byte[] bytes, int pos) {
+        int length = 1;
+        while ((bytes[pos++] & 0x80) != 0) {
+            length++;
+        }
+        return length;
+    }
+
+    private static final class Writer {
+
+        private byte[] bytes;
+        private int length = 0;
+
+        Writer(int initialCapacity) {
+            bytes = new byte[initialCapacity];
+        }
+
+        private void ensureCapacity(int additional) {
+            if (length + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + additional));
+            }
+        }
+
+        void writeByte(byte b) {
+            ensureCapacity(1);
+            bytes[length++] = b;
+        }
+
+        void writeVLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void writeIntAt(int pos, int value) {
+            BitUtil.VH_LE_INT.set(bytes, pos, value);
+        }
+
+        int reserve(int numBytes) {
+            ensureCapacity(numBytes);
+            int pos = length;
+            length += numBytes;
+            return pos;
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVLong(utf8.length);
+            ensureCapacity(utf8.length);
+            System.arraycopy(utf8, 0, bytes, length, utf8.length);
+            length += utf8.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        void writeValue(Object value) {
+            if (value == null) {
+                writeByte(NULL);
+            } else if (value instanceof Boolean bool) {
+                writeByte(bool ? TRUE : FALSE);
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                writeByte(INT);
+                writeVLong(BitUtil.zigZagEncode(((Number) value).intValue()) & 0xFFFFFFFFL);
+            } else if (value instanceof Long l) {
+                writeByte(LONG);
+                writeVLong(BitUtil.zigZagEncode(l));
+            } else if (value instanceof Double || value instanceof Float) {
+                writeByte(DOUBLE);
+                int pos = reserve(8);
+                BitUtil.VH_LE_DOUBLE.set(bytes, pos, ((Number) value).doubleValue());
+            } else if (value instanceof BigInteger bigInteger) {
+                writeByte(BIG_INTEGER);
+                writeString(bigInteger.toString());
+            } else if (value instanceof BigDecimal bigDecimal) {
+                writeByte(DOUBLE);
+                int pos = reserve(8);
+                BitUtil.VH_LE_DOUBLE.set(bytes, pos, bigDecimal.doubleValue());
+            } else if (value instanceof String str) {
+                writeByte(STRING);
+                writeString(str);
+            } else if (value instanceof List<?> list) {
+                writeByte(ARRAY);
+                int lengthPos = reserve(4);
+                writeVLong(list.size());
+                for (Object element : list) {
+                    writeValue(element);
+                }
+                writeIntAt(lengthPos, length - lengthPos - 4);
+            } else if (value instanceof Map<?, ?> map) {
+                int objectPos = length;
+                writeByte(OBJECT);
+                final int lengthPos = reserve(4);
+                writeVLong(map.size());
+                int entryTablePos = reserve(map.size() * 8);
+                int entry = 0;
+                for (String key : ((Map<String, Object>) map).keySet()) {
+                    writeIntAt(entryTablePos + entry * 8, length - objectPos);
+                    writeString(key);
+                    entry++;
+                }
+                entry = 0;
+                for (Object entryValue : map.values()) {
+                    writeIntAt(entryTablePos + entry * 8 + 4, length - objectPos);
+                    writeValue(entryValue);
+                    entry++;
+                }
+                writeIntAt(lengthPos, length - lengthPos - 4);
+            } else {
+                throw new IllegalArgumentException(
+                    "Cannot write value of type " + value.getClass() + " to binary source");
+            }
+        }
+    }
+}
@@ -0,0 +1,433 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.reference.doc.lucene;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentGenerator;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Collects the values written to a JSON {@link XContentBuilder}, so that the {@link BinarySource} can be built
+ * from the values as they are indexed, without parsing the JSON source again.
+ *
+ * <p>
+ * The values are collected with the types a JSON parser would return for the written JSON, so the binary source
+ * is the same as if it was converted using {@link BinarySource#fromJson}.
+ * </p>
+ */
+public final class BinarySourceCollector {
+
+    private final CollectingXContent xContent = new CollectingXContent();
+    private CollectingGenerator generator;
+
+    /**
+     * Creates a builder writing JSON to {@code out}. The values of the last created builder are
+     * returned by {@link #binarySource()}.
+     */
+    public XContentBuilder jsonBuilder(OutputStream out) throws IOException {
+        return new XContentBuilder(xContent, out);
+    }
+
+    /**
+     * @param initialCapacity the initial capacity of the buffer, for example the length of the JSON source
+     * @return the values written to the last created builder in the binary format.
+     */
+    public BytesRef binarySource(int initialCapacity) {
+        assert generator != null && generator.containers.isEmpty() : "builder must contain a complete value";
+        return BinarySource.fromValue(generator.root, initialCapacity);
+    }
+
+    private final class CollectingXContent implements XContent {
+
+        @Override
+        public XContentType type() {
+            return XContentType.JSON;
+        }
+
+        @Override
+        public byte streamSeparator() {
+            return JsonXContent.JSON_XCONTENT.streamSeparator();
+        }
+
+        @Override
+        public XContentGenerator createGenerator(OutputStream os) throws IOException {
+            generator = new CollectingGenerator(JsonXContent.JSON_XCONTENT.createGenerator(os));
+            return generator;
+        }
+
+        @Override
+        public XContentParser createParser(NamedXContentRegistry xContentRegistry,
+                                           DeprecationHandler deprecationHandler,
+                                           String content) throws IOException {
+            return JsonXContent.JSON_XCONTENT.createParser(xContentRegistry, deprecationHandler, content);
+        }
+
+        @Override
+        public XContentParser createParser(NamedXContentRegistry xContentRegistry,
+                                           DeprecationHandler deprecationHandler,
+                                           InputStream is) throws IOException {
+            return JsonXContent.JSON_XCONTENT.createParser(xContentRegistry, deprecationHandler, is);
+        }
+
+        @Override
+        public XContentParser createParser(NamedXContentRegistry xContentRegistry,
+                                           DeprecationHandler deprecationHandler,
+                                           byte[] data) throws IOException {
+            return JsonXContent.JSON_XCONTENT.createParser(xContentRegistry, deprecationHandler, data);
+        }
+
+        @Override
+        public XContentParser createParser(NamedXContentRegistry xContentRegistry,
+                                           DeprecationHandler deprecationHandler,
+                                           byte[] data,
+                                           int offset,
+                                           int length) throws IOException {
+            return JsonXContent.JSON_XCONTENT.createParser(xContentRegistry, deprecationHandler, data, offset, length);
+        }
+    }
+
+    private static final class CollectingGenerator implements XContentGenerator {
+
+        private final XContentGenerator json;
+        private final ArrayDeque<Object> containers = new ArrayDeque<>();
+        private Object root;
+        private String fieldName;
+
+        CollectingGenerator(XContentGenerator json) {
+            this.json = json;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void add(Object value) {
+            Object container = containers.peek();
+            if (container == null) {
+                root = value;
+            } else if (container instanceof List<?> list) {
+                ((List<Object>) list).add(value);
+            } else {
+                ((Map<String, Object>) container).put(fieldName, value);
+                fieldName = null;
+            }
+        }
+
+        private void add(long value) {
+            if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                add((Object) (int) value);
+            } else {
+                add((Object) value);
+            }
+        }
+
+        private void add(double value) {
+            // Non-finite numbers are written as strings
+            add(Double.isFinite(value) ? (Object) value : Double.toString(value));
+        }
+
+        @Override
+        public XContentType contentType() {
+            return json.contentType();
+        }
+
+        @Override
+        public void usePrettyPrint() {
+            json.usePrettyPrint();
+        }
+
+        @Override
+        public boolean isPrettyPrint() {
+            return json.isPrettyPrint();
+        }
+
+        @Override
+        public void usePrintLineFeedAtEnd() {
+            json.usePrintLineFeedAtEnd();
+        }
+
+        @Override
+        public void writeStartObject() throws IOException {
+            json.writeStartObject();
+            LinkedHashMap<String, Object> object = new LinkedHashMap<>();
+            add(object);
+            containers.push(object);
+        }
+
+        @Override
+        public void writeEndObject() throws IOException {
+            json.writeEndObject();
+            containers.pop();
+        }
+
+        @Override
+        public void writeStartArray() throws IOException {
+            json.writeStartArray();
+            ArrayList<Object> array = new ArrayList<>();
+            add(array);
+            containers.push(array);
+        }
+
+        @Override
+        public void writeEndArray() throws IOException {
+            json.writeEndArray();
+            containers.pop();
+        }
+
+        @Override
+        public void writeFieldName(String name) throws IOException {
+            json.writeFieldName(name);
+            fieldName = name;
+        }
+
+        @Override
+        public void writeNull() throws IOException {
+            json.writeNull();
+            add(null);
+        }
+
+        @Override
+        public void writeNullField(String name) throws IOException {
+            writeFieldName(name);
+            writeNull();
+        }
+
+        @Override
+        public void writeBooleanField(String name, boolean value) throws IOException {
+            writeFieldName(name);
+            writeBoolean(value);
+        }
+
+        @Override
+        public void writeBoolean(boolean value) throws IOException {
+            json.writeBoolean(value);
+            add(value);
+        }
+
+        @Override
+        public void writeNumberField(String name, double value) throws IOException {
+            writeFieldName(name);
+            writeNumber(value);
+        }
+
+        @Override
+        public void writeNumber(double value) throws IOException {
+            json.writeNumber(value);
+            add(value);
+        }
+
+        @Override
+        public void writeNumberField(String name, float value) throws IOException {
+            writeFieldName(name);
+            writeNumber(value);
+        }
+
+        @Override
+        public void writeNumber(float value) throws IOException {
+            json.writeNumber(value);
+            // The JSON parser reads the shortest representation of the float as double
+            add(Double.parseDouble(Float.toString(value)));
+        }
+
+        @Override
+        public void writeNumberField(String name, int value) throws IOException {
+            writeFieldName(name);
+            writeNumber(value);
+        }
+
+        @Override
+        public void writeNumber(int value) throws IOException {
+            json.writeNumber(value);
+            add((Object) value);
+        }
+
+        @Override
+        public void writeNumberField(String name, long value) throws IOException {
+            writeFieldName(name);
+            writeNumber(value);
+        }
+
+        @Override
+        public void writeNumber(long value) throws IOException {
+            json.writeNumber(value);
+            add(value);
+        }
+
+        @Override
+        public void writeNumber(short value) throws IOException {
+            json.writeNumber(value);
+            add((Object) (int) value);
+        }
+
+        @Override
+        public void writeNumber(BigInteger value) throws IOException {
+            json.writeNumber(value);
+            if (value.bitLength() < Long.SIZE) {
+                add(value.longValue());
+            } else {
+                add((Object) value);
+            }
+        }
+
+        @Override
+        public void writeNumberField(String name, BigInteger value) throws IOException {
+            writeFieldName(name);
+            writeNumber(value);
+        }
+
+        @Override
+        public void writeNumber(BigDecimal value) throws IOException {
+            json.writeNumber(value);
+            add(value.doubleValue());
+        }
+
+        @Override
+        public void writeNumberField(String name, BigDecimal value) throws IOException {
+            writeFieldName(name);
+            writeNumber(value);
+        }
+
+        @Override
+        public void writeStringField(String name, String value) throws IOException {
+            writeFieldName(name);
+            writeString(value);
+        }
+
+        @Override
+        public void writeString(String value) throws IOException {
+            json.writeString(value);
+            add(value);
+        }
+
+        @Override
+        public void writeString(char[] text, int offset, int len) throws IOException {
+            json.writeString(text, offset, len);
+            add(new String(text, offset, len));
+        }
+
+        @Override
+        public void writeUTF8String(byte[] value, int offset, int length) throws IOException {
+            json.writeUTF8String(value, offset, length);
+            add(new String(value, offset, length, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void writeBinaryField(String name, byte[] value) throws IOException {
+            writeFieldName(name);
+            writeBinary(value);
+        }
+
+        @Override
+        public void writeBinary(byte[] value) throws IOException {
+            writeBinary(value, 0, value.length);
+        }
+
+        @Override
+        public void writeBinary(byte[] value, int offset, int length) throws IOException {
+            json.writeBinary(value, offset, length);
+            // Binary values are written as base64 encoded strings
+            add(Base64.getEncoder().encodeToString(Arrays.copyOfRange(value, offset, offset + length)));
+        }
+
+        @Override
+        public void writeRawValue(InputStream value, XContentType xContentType) throws IOException {
+            try (XContentParser parser = xContentType.xContent().createParser(
+                    NamedXContentRegistry.EMPTY, DeprecationHandler.THROW_UNSUPPORTED_OPERATION, value)) {
+                copyCurrentStructure(parser);
+            }
+        }
+
+        @Override
+        public void copyCurrentStructure(XContentParser parser) throws IOException {
+            if (parser.currentToken() == null) {
+                parser.nextToken();
+            }
+            XContentParser.Token token = parser.currentToken();
+            if (token == XContentParser.Token.FIELD_NAME) {
+                writeFieldName(parser.currentName());
+                token = parser.nextToken();
+            }
+            switch (token) {
+                case START_ARRAY:
+                    writeStartArray();
+                    while (parser.nextToken() != XContentParser.Token.END_ARRAY) {
+                        copyCurrentStructure(parser);
+                    }
+                    writeEndArray();
+                    break;
+                case START_OBJECT:
+                    writeStartObject();
+                    while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
+                        copyCurrentStructure(parser);
+                    }
+                    writeEndObject();
+                    break;
+                default:
+                    copyCurrentEvent(parser);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            json.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            json.close();
+        }
+
+        @Override
+        public boolean isClosed() {
+            return json.isClosed();
+        }
+
+        @Override
+        public void configure(JsonGenerator.Feature f, boolean state) {
+            json.configure(f, state);
+        }
+
+        @Override
+        public boolean isEnabled(JsonGenerator.Feature f) {
+            return json.isEnabled(f);
+        }
+    }
+}
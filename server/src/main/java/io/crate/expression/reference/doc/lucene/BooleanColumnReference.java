@@ -21,52 +21,14 @@
 
 package io.crate.expression.reference.doc.lucene;
 
-import java.io.IOException;
-import java.io.UncheckedIOException;
-
-import org.apache.lucene.index.DocValues;
-import org.apache.lucene.index.SortedNumericDocValues;
-
-import io.crate.exceptions.ArrayViaDocValuesUnsupportedException;
-import io.crate.execution.engine.fetch.ReaderContext;
-
-public class BooleanColumnReference extends LuceneCollectorExpression<Boolean> {
-
-    private final String columnName;
-    private SortedNumericDocValues values;
-    private int docId;
+public class BooleanColumnReference extends NumericColumnReference<Boolean> {
 
     public BooleanColumnReference(String columnName) {
-        this.columnName = columnName;
-    }
-
-    @Override
-    public Boolean value() {
-        try {
-            if (values.advanceExact(docId)) {
-                switch (values.docValueCount()) {
-                    case 1:
-                        return values.nextValue() == 1;
-
-                    default:
-                        throw new ArrayViaDocValuesUnsupportedException(columnName);
-                }
-            } else {
-                return null;
-            }
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
-    }
-
-    @Override
-    public void setNextDocId(int docId) {
-        this.docId = docId;
+        super(columnName);
     }
 
     @Override
-    public void setNextReader(ReaderContext context) throws IOException {
-        super.setNextReader(context);
-        values = DocValues.getSortedNumeric(context.reader(), columnName);
+    protected Boolean convert(long value) {
+        return value == 1;
     }
 }
@@ -26,16 +26,17 @@ import java.io.UncheckedIOException;
 
 import io.crate.execution.engine.fetch.ReaderContext;
 import org.apache.lucene.index.DocValues;
-import org.elasticsearch.index.fielddata.FieldData;
-import org.elasticsearch.index.fielddata.SortedBinaryDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
 
 import io.crate.exceptions.ArrayViaDocValuesUnsupportedException;
 
 public class BytesRefColumnReference extends LuceneCollectorExpression<String> {
 
     private final String columnName;
-    private SortedBinaryDocValues values;
+    private final DocValuesBlock block = new DocValuesBlock();
+    private SortedSetDocValues values;
     private int docId;
+    private boolean inBlock = false;
 
     public BytesRefColumnReference(String columnName) {
         this.columnName = columnName;
@@ -44,9 +45,16 @@ public class BytesRefColumnReference extends LuceneCollectorExpression<String> {
     @Override
     public String value() throws ArrayViaDocValuesUnsupportedException {
         try {
+            if (inBlock) {
+                return switch (block.docValueCount()) {
+                    case 0 -> null;
+                    case 1 -> values.lookupOrd(block.value()).utf8ToString();
+                    default -> throw new ArrayViaDocValuesUnsupportedException(columnName);
+                };
+            }
             if (values.advanceExact(docId)) {
                 if (values.docValueCount() == 1) {
-                    return values.nextValue().utf8ToString();
+                    return values.lookupOrd(values.nextOrd()).utf8ToString();
                 } else {
                     throw new ArrayViaDocValuesUnsupportedException(columnName);
                 }
@@ -61,12 +69,19 @@ public class BytesRefColumnReference extends LuceneCollectorExpression<String> {
     @Override
     public void setNextDocId(int docId) {
         this.docId = docId;
+        this.inBlock = block.advance(docId);
     }
 
     @Override
     public void setNextReader(ReaderContext context) throws IOException {
         super.setNextReader(context);
-        values = FieldData.toString(DocValues.getSortedSet(context.reader(), columnName));
+        values = DocValues.getSortedSet(context.reader(), columnName);
+        block.clear();
+        inBlock = false;
     }
-}
 
+    @Override
+    public void loadBlock(int[] docs, int numDocs) throws IOException {
+        block.load(values, docs, numDocs);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.reference.doc.lucene;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.util.ArrayUtil;
+
+/**
+ * The values of a doc values column for a block of documents, decoded in a single pass.
+ * Only the first value of a document is kept; multi valued documents are detected using {@link #docValueCount()}.
+ */
+final class DocValuesBlock {
+
+    private int[] docs = new int[0];
+    private long[] values = new long[0];
+    private int[] docValueCounts = new int[0];
+    private int size = 0;
+    private int idx = -1;
+
+    void clear() {
+        size = 0;
+        idx = -1;
+    }
+
+    void load(SortedNumericDocValues docValues, int[] docs, int numDocs) throws IOException {
+        grow(numDocs);
+        for (int i = 0; i < numDocs; i++) {
+            int doc = docs[i];
+            this.docs[i] = doc;
+            if (docValues.advanceExact(doc)) {
+                docValueCounts[i] = docValues.docValueCount();
+                values[i] = docValues.nextValue();
+            } else {
+                docValueCounts[i] = 0;
+            }
+        }
+        size = numDocs;
+        idx = -1;
+    }
+
+    /**
+     * Loads the ordinals of the values, use {@link SortedSetDocValues#lookupOrd(long)} to resolve them.
+     */
+    void load(SortedSetDocValues docValues, int[] docs, int numDocs) throws IOException {
+        grow(numDocs);
+        for (int i = 0; i < numDocs; i++) {
+            int doc = docs[i];
+            this.docs[i] = doc;
+            if (docValues.advanceExact(doc)) {
+                docValueCounts[i] = docValues.docValueCount();
+                values[i] = docValues.nextOrd();
+            } else {
+                docValueCounts[i] = 0;
+            }
+        }
+        size = numDocs;
+        idx = -1;
+    }
+
+    private void grow(int numDocs) {
+        if (docs.length < numDocs) {
+            int newSize = ArrayUtil.oversize(numDocs, Integer.BYTES);
+            docs = new int[newSize];
+            values = new long[newSize];
+            docValueCounts = new int[newSize];
+        }
+    }
+
+    /**
+     * Positions the block on a document. Documents must be visited in increasing order.
+     *
+     * @return false if the document is not part of the block.
+     */
+    boolean advance(int doc) {
+        if (idx + 1 < size && docs[idx + 1] == doc) {
+            idx++;
+            return true;
+        }
+        int pos = Arrays.binarySearch(docs, 0, size, doc);
+        if (pos >= 0) {
+            idx = pos;
+            return true;
+        }
+        assert size == 0 || doc > docs[size - 1]
+            : "Documents before the end of a loaded block must be part of the block";
+        return false;
+    }
+
+    int docValueCount() {
+        return docValueCounts[idx];
+    }
+
+    long value() {
+        return values[idx];
+    }
+}
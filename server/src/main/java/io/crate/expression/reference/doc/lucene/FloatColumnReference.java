@@ -21,54 +21,16 @@
 
 package io.crate.expression.reference.doc.lucene;
 
-import java.io.IOException;
-import java.io.UncheckedIOException;
-
-import io.crate.execution.engine.fetch.ReaderContext;
-import org.apache.lucene.index.DocValues;
-import org.apache.lucene.index.SortedNumericDocValues;
 import org.apache.lucene.util.NumericUtils;
 
-import io.crate.exceptions.ArrayViaDocValuesUnsupportedException;
-
-public class FloatColumnReference extends LuceneCollectorExpression<Float> {
-
-    private final String columnName;
-    private SortedNumericDocValues values;
-    private int docId;
+public class FloatColumnReference extends NumericColumnReference<Float> {
 
     public FloatColumnReference(String columnName) {
-        this.columnName = columnName;
-    }
-
-    @Override
-    public Float value() {
-        try {
-            if (values.advanceExact(docId)) {
-                switch (values.docValueCount()) {
-                    case 1:
-                        return NumericUtils.sortableIntToFloat((int) values.nextValue());
-
-                    default:
-                        throw new ArrayViaDocValuesUnsupportedException(columnName);
-                }
-            } else {
-                return null;
-            }
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
-    }
-
-    @Override
-    public void setNextDocId(int docId) {
-        this.docId = docId;
-
+        super(columnName);
     }
 
     @Override
-    public void setNextReader(ReaderContext context) throws IOException {
-        super.setNextReader(context);
-        values = DocValues.getSortedNumeric(context.reader(), columnName);
+    protected Float convert(long value) {
+        return NumericUtils.sortableIntToFloat((int) value);
     }
 }
@@ -21,52 +21,15 @@
 
 package io.crate.expression.reference.doc.lucene;
 
-import io.crate.exceptions.ArrayViaDocValuesUnsupportedException;
-import io.crate.execution.engine.fetch.ReaderContext;
-import org.apache.lucene.index.DocValues;
-import org.apache.lucene.index.SortedNumericDocValues;
-
-import java.io.IOException;
-import java.io.UncheckedIOException;
-
-public class IntegerColumnReference extends LuceneCollectorExpression<Integer> {
-
-    private final String columnName;
-    private SortedNumericDocValues values;
-    private int docId;
+public class IntegerColumnReference extends NumericColumnReference<Integer> {
 
     public IntegerColumnReference(String columnName) {
-        this.columnName = columnName;
+        super(columnName);
     }
 
     @Override
-    public Integer value() {
-        try {
-            if (values.advanceExact(docId)) {
-                switch (values.docValueCount()) {
-                    case 1:
-                        return (int) values.nextValue();
-
-                    default:
-                        throw new ArrayViaDocValuesUnsupportedException(columnName);
-                }
-            } else {
-                return null;
-            }
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
-    }
-
-    @Override
-    public void setNextDocId(int docId) {
-        this.docId = docId;
-    }
-
-    @Override
-    public void setNextReader(ReaderContext context) throws IOException {
-        super.setNextReader(context);
-        values = DocValues.getSortedNumeric(context.reader(), columnName);
+    protected Integer convert(long value) {
+        return (int) value;
     }
 
     @Override
@@ -85,4 +48,3 @@ public class IntegerColumnReference extends LuceneCollectorExpression<Integer> {
         return columnName.hashCode();
     }
 }
-
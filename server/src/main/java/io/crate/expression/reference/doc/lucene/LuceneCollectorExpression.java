@@ -41,6 +41,16 @@ public abstract class LuceneCollectorExpression<ReturnType> implements Input<Ret
     public void setNextDocId(int doc) {
     }
 
+    /**
+     * Called with a block of documents before {@link #setNextDocId(int)} is called for each of them, in the same order.
+     * Expressions reading doc values can decode the values of all documents of the block at once, instead of
+     * advancing the doc values of every column separately for each document.
+     *
+     * @param docs the documents of the current reader in increasing order
+     */
+    public void loadBlock(int[] docs, int numDocs) throws IOException {
+    }
+
     public void setNextReader(ReaderContext context) throws IOException {
     }
 
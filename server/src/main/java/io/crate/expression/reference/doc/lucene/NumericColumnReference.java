@@ -0,0 +1,98 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.reference.doc.lucene;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.SortedNumericDocValues;
+
+import io.crate.exceptions.ArrayViaDocValuesUnsupportedException;
+import io.crate.execution.engine.fetch.ReaderContext;
+
+/**
+ * Reads the values of a column stored as {@link SortedNumericDocValues}.
+ * Supports decoding the values of a block of documents at once, see {@link #loadBlock(int[], int)}.
+ */
+public abstract class NumericColumnReference<T> extends LuceneCollectorExpression<T> {
+
+    protected final String columnName;
+    private final DocValuesBlock block = new DocValuesBlock();
+    private SortedNumericDocValues values;
+    private int docId;
+    private boolean inBlock = false;
+
+    protected NumericColumnReference(String columnName) {
+        this.columnName = columnName;
+    }
+
+    /**
+     * Converts the value stored in the doc values
+     */
+    protected abstract T convert(long value);
+
+    @Override
+    public final T value() {
+        if (inBlock) {
+            return switch (block.docValueCount()) {
+                case 0 -> null;
+                case 1 -> convert(block.value());
+                default -> throw new ArrayViaDocValuesUnsupportedException(columnName);
+            };
+        }
+        try {
+            if (values.advanceExact(docId)) {
+                switch (values.docValueCount()) {
+                    case 1:
+                        return convert(values.nextValue());
+
+                    default:
+                        throw new ArrayViaDocValuesUnsupportedException(columnName);
+                }
+            } else {
+                return null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void setNextDocId(int docId) {
+        this.docId = docId;
+        this.inBlock = block.advance(docId);
+    }
+
+    @Override
+    public void setNextReader(ReaderContext context) throws IOException {
+        super.setNextReader(context);
+        values = DocValues.getSortedNumeric(context.reader(), columnName);
+        block.clear();
+        inBlock = false;
+    }
+
+    @Override
+    public void loadBlock(int[] docs, int numDocs) throws IOException {
+        block.load(values, docs, numDocs);
+    }
+}
@@ -74,7 +74,7 @@ public final class SourceLookup {
 
     public BytesReference rawSource() {
         ensureDocVisited();
-        return fieldsVisitor.source();
+        return BinarySource.toJson(fieldsVisitor.source());
     }
 
     public void source(Map<String, Object> source) {
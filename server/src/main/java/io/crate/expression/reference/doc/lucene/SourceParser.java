@@ -27,7 +27,9 @@ import static org.elasticsearch.common.xcontent.XContentParser.Token.VALUE_NULL;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
@@ -37,6 +39,7 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.xcontent.DeprecationHandler;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
@@ -45,6 +48,7 @@ import org.elasticsearch.common.xcontent.XContentParser.Token;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.jetbrains.annotations.Nullable;
 
+import io.crate.common.Booleans;
 import io.crate.expression.symbol.RefVisitor;
 import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.Symbols;
@@ -129,6 +133,18 @@ public final class SourceParser {
     }
 
     public Map<String, Object> parse(BytesReference bytes, boolean includeUnknownCols) {
+        if (BinarySource.isBinary(bytes)) {
+            BytesRef bytesRef = bytes.toBytesRef();
+            return parseBinaryObject(
+                bytesRef.bytes,
+                bytesRef.offset + BinarySource.HEADER_LENGTH,
+                requiredColumns,
+                droppedColumns,
+                lookupNameBySourceKey,
+                new StringBuilder(),
+                includeUnknownCols
+            );
+        }
         try (InputStream inputStream = XContentHelper.getUncompressedInputStream(bytes)) {
             XContentParser parser = XContentType.JSON.xContent().createParser(
                 NamedXContentRegistry.EMPTY,
@@ -254,6 +270,131 @@ public final class SourceParser {
         return values;
     }
 
+    /**
+     * Equivalent of {@link #parseObject} for sources using the {@link BinarySource} format.
+     * Columns which are not required are skipped using the entry table of the object, without reading their values.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<String, Object> parseBinaryObject(byte[] bytes,
+                                                         int objectPos,
+                                                         @Nullable Map<String, Object> requiredColumns,
+                                                         Set<String> droppedColumns,
+                                                         Function<String, String> lookupNameBySourceKey,
+                                                         StringBuilder colPath,
+                                                         boolean includeUnknown) {
+        boolean parseAllFields = requiredColumns == null || requiredColumns.isEmpty();
+        int numEntries = BinarySource.numEntries(bytes, objectPos);
+        HashMap<String, Object> values = new HashMap<>();
+        for (int i = 0; i < numEntries; i++) {
+            String fieldName = lookupNameBySourceKey.apply(BinarySource.key(bytes, objectPos, i));
+            if (droppedColumns.isEmpty() == false) {
+                String path = colPath.isEmpty() ? fieldName : colPath + "." + fieldName;
+                if (droppedColumns.contains(path)) {
+                    continue;
+                }
+            }
+            var required = requiredColumns == null ? null : requiredColumns.get(fieldName);
+            if (parseAllFields == false && required == null && !includeUnknown) {
+                continue;
+            }
+            int valuePos = BinarySource.valuePos(bytes, objectPos, i);
+            byte tag = BinarySource.tag(bytes, valuePos);
+            if (tag == BinarySource.ARRAY
+                && required instanceof DataType<?>
+                && !(required instanceof ArrayType<?>)
+                && !(required instanceof GeoPointType)
+                && !(required instanceof GeoShapeType)
+                && !(required instanceof FloatVectorType)
+                && !(required instanceof UndefinedType)) {
+                // due to a bug: https://github.com/crate/crate/issues/13990
+                values.put(fieldName, null);
+            } else if (tag == BinarySource.NULL) {
+                values.put(fieldName, null);
+            } else {
+                var prevLength = appendToColPath(colPath, fieldName);
+
+                boolean currentTreeIncludeUnknown = false;
+                DataType<?> type = null;
+                if (required instanceof DataType<?> dataType) {
+                    type = dataType;
+                    required = null;
+                    if (dataType instanceof ObjectType objectType) {
+                        required = objectType.innerTypes();
+                        currentTreeIncludeUnknown = true;
+                    }
+                }
+                values.put(fieldName, parseBinaryValue(bytes, valuePos, type, (Map) required, droppedColumns,
+                    lookupNameBySourceKey, colPath, currentTreeIncludeUnknown));
+
+                colPath.delete(prevLength, colPath.length());
+            }
+        }
+        return values;
+    }
+
+    private static Object parseBinaryValue(byte[] bytes,
+                                           int pos,
+                                           @Nullable DataType<?> type,
+                                           @Nullable Map<String, Object> requiredColumns,
+                                           Set<String> droppedColumns,
+                                           Function<String, String> lookupNameBySourceKey,
+                                           StringBuilder colPath,
+                                           boolean includeUnknown) {
+        switch (BinarySource.tag(bytes, pos)) {
+            case BinarySource.ARRAY:
+                if (type instanceof GeoPointType || type instanceof FloatVectorType) {
+                    return type.implicitCast(BinarySource.readValue(bytes, pos));
+                }
+                while (type instanceof ArrayType<?> arrayType) {
+                    type = arrayType.innerType();
+                }
+                int numElements = BinarySource.numEntries(bytes, pos);
+                ArrayList<Object> values = new ArrayList<>(numElements);
+                int elementPos = BinarySource.firstElementPos(bytes, pos);
+                for (int i = 0; i < numElements; i++) {
+                    values.add(parseBinaryValue(bytes, elementPos, type, requiredColumns, droppedColumns,
+                        lookupNameBySourceKey, colPath, false));
+                    elementPos = BinarySource.skip(bytes, elementPos);
+                }
+                return values;
+
+            case BinarySource.OBJECT:
+                return parseBinaryObject(bytes, pos, requiredColumns, droppedColumns, lookupNameBySourceKey,
+                    colPath, includeUnknown);
+
+            default:
+                Object value = BinarySource.readScalar(bytes, pos);
+                return type == null || value == null ? value : convertByType(value, type);
+        }
+    }
+
+    /**
+     * Converts a value of a {@link BinarySource} the same way as {@link #parseByType} converts JSON values.
+     */
+    private static Object convertByType(Object value, DataType<?> type) {
+        var elementType = ArrayType.unnest(type);
+        return switch (elementType.id()) {
+            case BooleanType.ID -> value instanceof Boolean ? value : Booleans.parseBoolean(value.toString());
+            case ByteType.ID -> toNumber(value).byteValue();
+            case ShortType.ID -> toNumber(value).shortValue();
+            case IntegerType.ID -> toNumber(value).intValue();
+            case LongType.ID -> toNumber(value).longValue();
+            case TimestampType.ID_WITH_TZ -> toNumber(value).longValue();
+            case TimestampType.ID_WITHOUT_TZ -> toNumber(value).longValue();
+            case FloatType.ID -> toNumber(value).floatValue();
+            case DoubleType.ID -> toNumber(value).doubleValue();
+            case BitStringType.ID -> new BitString(
+                BitSet.valueOf(Base64.getDecoder().decode(value.toString())),
+                ((BitStringType) elementType).length()
+            );
+            default -> value instanceof String ? value : value.toString();
+        };
+    }
+
+    private static Number toNumber(Object value) {
+        return value instanceof Number number ? number : new BigDecimal(value.toString());
+    }
+
     private static int appendToColPath(StringBuilder colPath, String fieldName) {
         var prevLength = colPath.length();
         if (colPath.isEmpty() == false) {
@@ -36,6 +36,10 @@ public class ColumnExtractingLineExpression extends LineCollectorExpression<Obje
         this.type = type;
     }
 
+    public ColumnIdent columnIdent() {
+        return columnIdent;
+    }
+
     @Override
     public Object value() {
         return type.implicitCast(context.get(columnIdent));
@@ -39,6 +39,7 @@ import org.elasticsearch.monitor.process.ProcessStats;
 import org.elasticsearch.threadpool.ThreadPoolStats;
 
 import io.crate.common.collections.Lists2;
+import io.crate.execution.resultcache.QueryResultCacheStats;
 import io.crate.monitor.ExtendedOsStats;
 import io.crate.protocols.ConnectionStats;
 import io.crate.types.DataTypes;
@@ -65,6 +66,7 @@ public class NodeStatsContext implements Writeable {
     private ThreadPoolStats threadPools;
     private HttpStats httpStats;
     private ConnectionStats psqlStats;
+    private QueryResultCacheStats queryResultCacheStats;
 
     private String osName;
     private String osArch;
@@ -204,6 +206,10 @@ public class NodeStatsContext implements Writeable {
         return psqlStats;
     }
 
+    public QueryResultCacheStats queryResultCacheStats() {
+        return queryResultCacheStats;
+    }
+
     public long openTransportConnections() {
         return openTransportConnections;
     }
@@ -304,6 +310,10 @@ public class NodeStatsContext implements Writeable {
         this.psqlStats = psqlStats;
     }
 
+    public void queryResultCacheStats(QueryResultCacheStats queryResultCacheStats) {
+        this.queryResultCacheStats = queryResultCacheStats;
+    }
+
     void openTransportConnections(long openTransportConnections) {
         this.openTransportConnections = openTransportConnections;
     }
@@ -342,6 +352,9 @@ public class NodeStatsContext implements Writeable {
         this.jvmName = DataTypes.STRING.readValueFrom(in);
         this.jvmVendor = DataTypes.STRING.readValueFrom(in);
         this.jvmVersion = DataTypes.STRING.readValueFrom(in);
+        if (in.getVersion().onOrAfter(Version.V_5_6_0)) {
+            this.queryResultCacheStats = in.readOptionalWriteable(QueryResultCacheStats::new);
+        }
     }
 
     @Override
@@ -384,5 +397,8 @@ public class NodeStatsContext implements Writeable {
         DataTypes.STRING.writeValueTo(out, jvmName);
         DataTypes.STRING.writeValueTo(out, jvmVendor);
         DataTypes.STRING.writeValueTo(out, jvmVersion);
+        if (out.getVersion().onOrAfter(Version.V_5_6_0)) {
+            out.writeOptionalWriteable(queryResultCacheStats);
+        }
     }
 }
@@ -59,6 +59,8 @@ import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.transport.TransportService;
 
 import io.crate.common.annotations.VisibleForTesting;
+import io.crate.execution.resultcache.QueryResultCache;
+import io.crate.execution.resultcache.QueryResultCacheStats;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.sys.SysNodesTableInfo;
 import io.crate.monitor.ExtendedNodeInfo;
@@ -82,6 +84,7 @@ public class NodeStatsContextFieldResolver {
     private final JvmService jvmService;
     private final FsService fsService;
     private final LongSupplier clusterStateVersion;
+    private final Supplier<QueryResultCacheStats> queryResultCacheStats;
 
     @Inject
     @SuppressWarnings("unused")
@@ -91,7 +94,8 @@ public class NodeStatsContextFieldResolver {
                                          TransportService transportService,
                                          ThreadPool threadPool,
                                          ExtendedNodeInfo extendedNodeInfo,
-                                         PostgresNetty postgresNetty) {
+                                         PostgresNetty postgresNetty,
+                                         QueryResultCache queryResultCache) {
         this(
             clusterService::localNode,
             nodeService.getMonitorService(),
@@ -108,7 +112,8 @@ public class NodeStatsContextFieldResolver {
                 return boundTransportAddress.publishAddress();
             },
             () -> transportService.stats().getServerOpen(),
-            () -> clusterService.state().version()
+            () -> clusterService.state().version(),
+            queryResultCache::stats
         );
     }
 
@@ -122,7 +127,8 @@ public class NodeStatsContextFieldResolver {
                                   Supplier<ConnectionStats> psqlStats,
                                   Supplier<TransportAddress> boundPostgresAddress,
                                   LongSupplier numOpenTransportConnections,
-                                  LongSupplier clusterStateVersion) {
+                                  LongSupplier clusterStateVersion,
+                                  Supplier<QueryResultCacheStats> queryResultCacheStats) {
         this.localNode = localNode;
         processService = monitorService.processService();
         osService = monitorService.osService();
@@ -136,6 +142,7 @@ public class NodeStatsContextFieldResolver {
         this.boundPostgresAddress = boundPostgresAddress;
         this.numOpenTransportConnections = numOpenTransportConnections;
         this.clusterStateVersion = clusterStateVersion;
+        this.queryResultCacheStats = queryResultCacheStats;
     }
 
     public NodeStatsContext forTopColumnIdents(Collection<ColumnIdent> topColumnIdents) {
@@ -277,5 +284,11 @@ public class NodeStatsContextFieldResolver {
             public void accept(NodeStatsContext context) {
                 context.fsInfo(fsService.stats());
             }
+        }),
+        entry(SysNodesTableInfo.Columns.QUERY_RESULT_CACHE, new Consumer<>() {
+            @Override
+            public void accept(NodeStatsContext context) {
+                context.queryResultCacheStats(queryResultCacheStats.get());
+            }
         }));
 }
@@ -21,6 +21,9 @@
 
 package io.crate.expression.scalar.arithmetic;
 
+import io.crate.data.ColumnVector;
+import io.crate.data.DoubleVector;
+import io.crate.data.LongVector;
 import io.crate.expression.scalar.ScalarFunctionModule;
 import io.crate.metadata.Scalar;
 import io.crate.metadata.functions.Signature;
@@ -32,6 +35,9 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
 
 public class ArithmeticFunctions {
 
@@ -97,16 +103,16 @@ public class ArithmeticFunctions {
 
         private final Set<Scalar.Feature> features;
 
-        private final BinaryOperator<Integer> integerFunction;
-        private final BinaryOperator<Double> doubleFunction;
-        private final BinaryOperator<Long> longFunction;
+        private final IntBinaryOperator integerFunction;
+        private final DoubleBinaryOperator doubleFunction;
+        private final LongBinaryOperator longFunction;
         private final BinaryOperator<Float> floatFunction;
         private final BinaryOperator<BigDecimal> bdFunction;
 
         Operations(Set<Scalar.Feature> features,
-                   BinaryOperator<Integer> integerFunction,
-                   BinaryOperator<Double> doubleFunction,
-                   BinaryOperator<Long> longFunction,
+                   IntBinaryOperator integerFunction,
+                   DoubleBinaryOperator doubleFunction,
+                   LongBinaryOperator longFunction,
                    BinaryOperator<Float> floatFunction,
                    BinaryOperator<BigDecimal> bdFunction) {
             this.features = features;
@@ -133,7 +139,13 @@ public class ArithmeticFunctions {
                     DataTypes.INTEGER.getTypeSignature()
                 ).withFeatures(op.features),
                 (signature, boundSignature) ->
-                    new BinaryScalar<>(op.integerFunction, signature, boundSignature, DataTypes.INTEGER)
+                    new BinaryScalar<>(
+                        op.integerFunction::applyAsInt,
+                        batchOf(op.integerFunction),
+                        signature,
+                        boundSignature,
+                        DataTypes.INTEGER
+                    )
             );
             module.register(
                 Signature.scalar(
@@ -143,7 +155,13 @@ public class ArithmeticFunctions {
                     DataTypes.LONG.getTypeSignature()
                 ).withFeatures(op.features),
                 (signature, boundSignature) ->
-                    new BinaryScalar<>(op.longFunction, signature, boundSignature, DataTypes.LONG)
+                    new BinaryScalar<>(
+                        op.longFunction::applyAsLong,
+                        batchOf(op.longFunction),
+                        signature,
+                        boundSignature,
+                        DataTypes.LONG
+                    )
             );
             if (op != Operations.SUBTRACT) {
                 for (var type : List.of(DataTypes.TIMESTAMP, DataTypes.TIMESTAMPZ)) {
@@ -155,7 +173,13 @@ public class ArithmeticFunctions {
                             type.getTypeSignature()
                         ).withFeatures(op.features),
                         (signature, boundSignature) ->
-                            new BinaryScalar<>(op.longFunction, signature, boundSignature, type)
+                            new BinaryScalar<>(
+                                op.longFunction::applyAsLong,
+                                batchOf(op.longFunction),
+                                signature,
+                                boundSignature,
+                                type
+                            )
                     );
                 }
             }
@@ -177,7 +201,13 @@ public class ArithmeticFunctions {
                     DataTypes.DOUBLE.getTypeSignature()
                 ).withFeatures(op.features),
                 (signature, boundSignature) ->
-                    new BinaryScalar<>(op.doubleFunction, signature, boundSignature, DataTypes.DOUBLE)
+                    new BinaryScalar<>(
+                        op.doubleFunction::applyAsDouble,
+                        batchOf(op.doubleFunction),
+                        signature,
+                        boundSignature,
+                        DataTypes.DOUBLE
+                    )
             );
             module.register(
                 Signature.scalar(
@@ -199,7 +229,30 @@ public class ArithmeticFunctions {
                 DataTypes.DOUBLE.getTypeSignature()
             ).withFeatures(Scalar.DETERMINISTIC_ONLY),
             (signature, boundSignature) ->
-                new BinaryScalar<>(Math::pow, signature, boundSignature, DataTypes.DOUBLE)
+                new BinaryScalar<>(
+                    Math::pow,
+                    batchOf((DoubleBinaryOperator) Math::pow),
+                    signature,
+                    boundSignature,
+                    DataTypes.DOUBLE
+                )
         );
     }
+
+    private static BinaryOperator<ColumnVector> batchOf(IntBinaryOperator func) {
+        // Integer values are stored in a LongVector, the function is applied with integer semantics (overflow checks)
+        return (arg0, arg1) -> LongVector.map(
+            (LongVector) arg0,
+            (LongVector) arg1,
+            (val0, val1) -> func.applyAsInt((int) val0, (int) val1)
+        );
+    }
+
+    private static BinaryOperator<ColumnVector> batchOf(LongBinaryOperator func) {
+        return (arg0, arg1) -> LongVector.map((LongVector) arg0, (LongVector) arg1, func);
+    }
+
+    private static BinaryOperator<ColumnVector> batchOf(DoubleBinaryOperator func) {
+        return (arg0, arg1) -> DoubleVector.map((DoubleVector) arg0, (DoubleVector) arg1, func);
+    }
 }
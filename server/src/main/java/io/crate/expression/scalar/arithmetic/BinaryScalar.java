@@ -23,6 +23,9 @@ package io.crate.expression.scalar.arithmetic;
 
 import java.util.function.BinaryOperator;
 
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.data.ColumnVector;
 import io.crate.data.Input;
 import io.crate.metadata.NodeContext;
 import io.crate.metadata.Scalar;
@@ -35,15 +38,30 @@ public final class BinaryScalar<T> extends Scalar<T, T> {
 
     private final BinaryOperator<T> func;
     private final DataType<T> type;
+    @Nullable
+    private final BinaryOperator<ColumnVector> batchFunc;
 
     public BinaryScalar(BinaryOperator<T> func,
                         Signature signature,
                         BoundSignature boundSignature,
                         DataType<T> type) {
+        this(func, null, signature, boundSignature, type);
+    }
+
+    /**
+     * @param batchFunc if not null, used to evaluate the function for a batch of rows.
+     *                  See {@link #evaluateBatch(TransactionContext, NodeContext, ColumnVector...)}
+     */
+    public BinaryScalar(BinaryOperator<T> func,
+                        @Nullable BinaryOperator<ColumnVector> batchFunc,
+                        Signature signature,
+                        BoundSignature boundSignature,
+                        DataType<T> type) {
         super(signature, boundSignature);
         assert boundSignature.argTypes().stream().allMatch(t -> t.id() == type.id()) :
             "All bound argument types of the signature must match the type argument";
         this.func = func;
+        this.batchFunc = batchFunc;
         this.type = type;
     }
 
@@ -64,4 +82,19 @@ public final class BinaryScalar<T> extends Scalar<T, T> {
             throw new IllegalArgumentException(ae.getMessage(), ae);
         }
     }
+
+    @Override
+    public boolean supportsBatchEvaluation() {
+        return batchFunc != null;
+    }
+
+    @Override
+    public ColumnVector evaluateBatch(TransactionContext txnCtx, NodeContext nodeCtx, ColumnVector... args) {
+        assert batchFunc != null : "evaluateBatch must only be called if supportsBatchEvaluation is true";
+        try {
+            return batchFunc.apply(args[0], args[1]);
+        } catch (ArithmeticException ae) {
+            throw new IllegalArgumentException(ae.getMessage(), ae);
+        }
+    }
 }
@@ -0,0 +1,231 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.vector;
+
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.IntObjectMap;
+import com.carrotsearch.hppc.cursors.IntObjectCursor;
+
+import io.crate.data.ColumnBatch;
+import io.crate.data.ColumnVector;
+import io.crate.expression.symbol.AliasSymbol;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.SymbolVisitor;
+import io.crate.metadata.FunctionImplementation;
+import io.crate.metadata.NodeContext;
+import io.crate.metadata.Scalar;
+import io.crate.metadata.TransactionContext;
+import io.crate.types.DataType;
+
+/**
+ * Evaluates expressions for a {@link ColumnBatch} instead of row by row.
+ *
+ * <p>
+ * Can only be created if all expressions consist of {@link InputColumn}s, {@link Literal}s and functions
+ * which {@link Scalar#supportsBatchEvaluation() support batch evaluation} and if all of their types are
+ * {@link ColumnVectors#isSupported(DataType) supported}.
+ * </p>
+ */
+public final class ColumnBatchEvaluator {
+
+    private final TransactionContext txnCtx;
+    private final NodeContext nodeCtx;
+    private final IntObjectMap<DataType<?>> inputColumns;
+    private final int numColumns;
+    private final List<? extends Symbol> symbols;
+    private final VectorExpression[] expressions;
+
+    private interface VectorExpression {
+
+        ColumnVector evaluate(ColumnBatch batch);
+    }
+
+    /**
+     * @return the evaluator or null if any of the symbols cannot be evaluated in batches.
+     */
+    @Nullable
+    public static ColumnBatchEvaluator create(TransactionContext txnCtx,
+                                              NodeContext nodeCtx,
+                                              List<? extends Symbol> symbols) {
+        Compiler compiler = new Compiler(txnCtx, nodeCtx);
+        VectorExpression[] expressions = new VectorExpression[symbols.size()];
+        for (int i = 0; i < expressions.length; i++) {
+            VectorExpression expression = symbols.get(i).accept(compiler, null);
+            if (expression == null) {
+                return null;
+            }
+            expressions[i] = expression;
+        }
+        return new ColumnBatchEvaluator(txnCtx, nodeCtx, compiler.inputColumns, symbols, expressions);
+    }
+
+    private ColumnBatchEvaluator(TransactionContext txnCtx,
+                                 NodeContext nodeCtx,
+                                 IntObjectMap<DataType<?>> inputColumns,
+                                 List<? extends Symbol> symbols,
+                                 VectorExpression[] expressions) {
+        this.txnCtx = txnCtx;
+        this.nodeCtx = nodeCtx;
+        this.inputColumns = inputColumns;
+        int maxIndex = -1;
+        for (IntObjectCursor<DataType<?>> cursor : inputColumns) {
+            maxIndex = Math.max(maxIndex, cursor.key);
+        }
+        this.numColumns = maxIndex + 1;
+        this.symbols = symbols;
+        this.expressions = expressions;
+    }
+
+    /**
+     * Creates a batch out of the first {@code numRows} rows, containing the columns used by the expressions.
+     */
+    public ColumnBatch toBatch(Object[][] rows, int numRows) {
+        ColumnVector[] columns = new ColumnVector[numColumns];
+        for (IntObjectCursor<DataType<?>> cursor : inputColumns) {
+            int idx = cursor.key;
+            ColumnVector column = ColumnVectors.newVector(cursor.value, numRows);
+            for (int i = 0; i < numRows; i++) {
+                ColumnVectors.set(column, i, rows[i][idx]);
+            }
+            columns[idx] = column;
+        }
+        return new ColumnBatch(numRows, columns);
+    }
+
+    /**
+     * Evaluates the expression of the symbol at {@code idx}.
+     * The values can be retrieved using {@link #value(int, ColumnVector, int)}
+     */
+    public ColumnVector evaluate(int idx, ColumnBatch batch) {
+        return expressions[idx].evaluate(batch);
+    }
+
+    /**
+     * @param idx    the index of the symbol the vector has been evaluated for
+     * @param vector the result of {@link #evaluate(int, ColumnBatch)}
+     * @param row    the row of the batch
+     */
+    @Nullable
+    public Object value(int idx, ColumnVector vector, int row) {
+        return ColumnVectors.get(symbols.get(idx).valueType(), vector, row);
+    }
+
+    private static class Compiler extends SymbolVisitor<Void, VectorExpression> {
+
+        private final TransactionContext txnCtx;
+        private final NodeContext nodeCtx;
+        private final IntObjectMap<DataType<?>> inputColumns = new IntObjectHashMap<>();
+
+        Compiler(TransactionContext txnCtx, NodeContext nodeCtx) {
+            this.txnCtx = txnCtx;
+            this.nodeCtx = nodeCtx;
+        }
+
+        @Override
+        public VectorExpression visitInputColumn(InputColumn inputColumn, Void context) {
+            DataType<?> type = inputColumn.valueType();
+            if (!ColumnVectors.isSupported(type)) {
+                return null;
+            }
+            int idx = inputColumn.index();
+            DataType<?> existingType = inputColumns.get(idx);
+            if (existingType == null) {
+                inputColumns.put(idx, type);
+            } else if (existingType.id() != type.id()) {
+                return null;
+            }
+            return batch -> batch.column(idx);
+        }
+
+        @Override
+        public VectorExpression visitLiteral(Literal<?> literal, Void context) {
+            DataType<?> type = literal.valueType();
+            if (!ColumnVectors.isSupported(type)) {
+                return null;
+            }
+            Object value = literal.value();
+            return new VectorExpression() {
+
+                ColumnVector vector;
+
+                @Override
+                public ColumnVector evaluate(ColumnBatch batch) {
+                    if (vector == null || vector.size() != batch.size()) {
+                        vector = ColumnVectors.newVector(type, batch.size());
+                        for (int i = 0; i < batch.size(); i++) {
+                            ColumnVectors.set(vector, i, value);
+                        }
+                    }
+                    return vector;
+                }
+            };
+        }
+
+        @Override
+        public VectorExpression visitAlias(AliasSymbol aliasSymbol, Void context) {
+            return aliasSymbol.symbol().accept(this, context);
+        }
+
+        @Override
+        public VectorExpression visitFunction(Function function, Void context) {
+            if (!ColumnVectors.isSupported(function.valueType())) {
+                return null;
+            }
+            FunctionImplementation implementation = nodeCtx.functions().getQualified(function);
+            if (!(implementation instanceof Scalar<?, ?> scalar)) {
+                return null;
+            }
+            List<Symbol> arguments = function.arguments();
+            Scalar<?, ?> compiled = scalar.compile(arguments, txnCtx.sessionSettings().userName(), nodeCtx.roles());
+            if (!compiled.supportsBatchEvaluation()) {
+                return null;
+            }
+            VectorExpression[] args = new VectorExpression[arguments.size()];
+            for (int i = 0; i < args.length; i++) {
+                VectorExpression arg = arguments.get(i).accept(this, context);
+                if (arg == null) {
+                    return null;
+                }
+                args[i] = arg;
+            }
+            return batch -> {
+                ColumnVector[] argVectors = new ColumnVector[args.length];
+                for (int i = 0; i < args.length; i++) {
+                    argVectors[i] = args[i].evaluate(batch);
+                }
+                return compiled.evaluateBatch(txnCtx, nodeCtx, argVectors);
+            };
+        }
+
+        @Override
+        protected VectorExpression visitSymbol(Symbol symbol, Void context) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.vector;
+
+import java.util.function.IntPredicate;
+
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.data.BooleanVector;
+import io.crate.data.ColumnVector;
+import io.crate.data.DoubleVector;
+import io.crate.data.LongVector;
+import io.crate.types.BooleanType;
+import io.crate.types.ByteType;
+import io.crate.types.DataType;
+import io.crate.types.DoubleType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
+import io.crate.types.ShortType;
+import io.crate.types.TimestampType;
+
+/**
+ * Maps {@link DataType}s to the {@link ColumnVector} implementation holding their values:
+ *
+ * <ul>
+ *     <li>{@code byte}, {@code smallint}, {@code integer}, {@code bigint} and {@code timestamp}: {@link LongVector}</li>
+ *     <li>{@code double precision}: {@link DoubleVector}</li>
+ *     <li>{@code boolean}: {@link BooleanVector}</li>
+ * </ul>
+ *
+ * Other types cannot be evaluated in batches.
+ */
+public final class ColumnVectors {
+
+    private ColumnVectors() {
+    }
+
+    public static boolean isSupported(DataType<?> type) {
+        return switch (type.id()) {
+            case ByteType.ID,
+                 ShortType.ID,
+                 IntegerType.ID,
+                 LongType.ID,
+                 TimestampType.ID_WITH_TZ,
+                 TimestampType.ID_WITHOUT_TZ,
+                 DoubleType.ID,
+                 BooleanType.ID -> true;
+            default -> false;
+        };
+    }
+
+    public static ColumnVector newVector(DataType<?> type, int size) {
+        return switch (type.id()) {
+            case ByteType.ID,
+                 ShortType.ID,
+                 IntegerType.ID,
+                 LongType.ID,
+                 TimestampType.ID_WITH_TZ,
+                 TimestampType.ID_WITHOUT_TZ -> new LongVector(size);
+            case DoubleType.ID -> new DoubleVector(size);
+            case BooleanType.ID -> new BooleanVector(size);
+            default -> throw new IllegalArgumentException("Type " + type + " cannot be stored in a ColumnVector");
+        };
+    }
+
+    public static void set(ColumnVector vector, int idx, @Nullable Object value) {
+        if (value == null) {
+            vector.setNull(idx);
+        } else if (vector instanceof LongVector longVector) {
+            longVector.set(idx, ((Number) value).longValue());
+        } else if (vector instanceof DoubleVector doubleVector) {
+            doubleVector.set(idx, ((Number) value).doubleValue());
+        } else {
+            ((BooleanVector) vector).set(idx, (Boolean) value);
+        }
+    }
+
+    @Nullable
+    public static Object get(DataType<?> type, ColumnVector vector, int idx) {
+        if (vector.isNull(idx)) {
+            return null;
+        }
+        return switch (type.id()) {
+            case ByteType.ID -> (byte) ((LongVector) vector).get(idx);
+            case ShortType.ID -> (short) ((LongVector) vector).get(idx);
+            case IntegerType.ID -> (int) ((LongVector) vector).get(idx);
+            case LongType.ID,
+                 TimestampType.ID_WITH_TZ,
+                 TimestampType.ID_WITHOUT_TZ -> ((LongVector) vector).get(idx);
+            case DoubleType.ID -> ((DoubleVector) vector).get(idx);
+            case BooleanType.ID -> ((BooleanVector) vector).get(idx);
+            default -> throw new IllegalArgumentException("Type " + type + " cannot be stored in a ColumnVector");
+        };
+    }
+
+    /**
+     * Compares the entries of two vectors of the same type, following the semantics of {@link DataType#compare}.
+     *
+     * @param cmpResultIsMatch tests the result of the comparison
+     */
+    public static BooleanVector compare(ColumnVector left, ColumnVector right, IntPredicate cmpResultIsMatch) {
+        if (left instanceof LongVector longVector) {
+            return LongVector.compare(longVector, (LongVector) right, cmpResultIsMatch);
+        } else if (left instanceof DoubleVector doubleVector) {
+            return DoubleVector.compare(doubleVector, (DoubleVector) right, cmpResultIsMatch);
+        } else {
+            return BooleanVector.compare((BooleanVector) left, (BooleanVector) right, cmpResultIsMatch);
+        }
+    }
+}
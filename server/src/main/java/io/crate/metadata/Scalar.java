@@ -26,6 +26,7 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 
+import io.crate.data.ColumnVector;
 import io.crate.data.Input;
 import io.crate.expression.symbol.Function;
 import io.crate.expression.symbol.Literal;
@@ -93,6 +94,27 @@ public abstract class Scalar<ReturnType, InputType> implements FunctionImplement
      */
     public abstract ReturnType evaluate(TransactionContext txnCtx, NodeContext nodeContext, Input<InputType>... args);
 
+    /**
+     * Returns true if the function implements {@link #evaluateBatch(TransactionContext, NodeContext, ColumnVector...)}.
+     * Functions which don't support it are evaluated row by row.
+     */
+    public boolean supportsBatchEvaluation() {
+        return false;
+    }
+
+    /**
+     * Evaluate the function for a batch of rows.
+     *
+     * @param args the argument values of all rows of the batch, the vector types are determined by the bound argument
+     *             types, see {@link io.crate.expression.vector.ColumnVectors}.
+     *             The vectors must not be modified, they may be used by other expressions.
+     * @return a new vector with the same size as the arguments
+     */
+    public ColumnVector evaluateBatch(TransactionContext txnCtx, NodeContext nodeContext, ColumnVector... args) {
+        throw new UnsupportedOperationException(
+            "Function " + signature.getName().displayName() + " doesn't support batch evaluation");
+    }
+
     /**
      * Called to return a "optimized" version of a scalar implementation.
      *
@@ -23,6 +23,7 @@ package io.crate.metadata.information;
 
 import io.crate.Constants;
 import io.crate.common.collections.Lists2;
+import io.crate.expression.reference.doc.lucene.BinarySource;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.IndexMappings;
 import io.crate.metadata.RelationInfo;
@@ -179,6 +180,7 @@ public class InformationTablesTableInfo {
                     .add("read_only_allow_delete", BOOLEAN, fromSetting(IndexMetadata.INDEX_BLOCKS_READ_ONLY_ALLOW_DELETE_SETTING))
                 .endObject()
                 .add("codec", STRING, fromSetting(INDEX_CODEC_SETTING))
+                .add("source_format", STRING, fromSetting(BinarySource.INDEX_SOURCE_FORMAT_SETTING))
                 .startObject("store")
                     .add("type", STRING, fromSetting(INDEX_STORE_TYPE_SETTING))
                 .endObject()
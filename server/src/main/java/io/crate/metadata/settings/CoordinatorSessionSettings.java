@@ -47,6 +47,7 @@ public class CoordinatorSessionSettings extends SessionSettings {
     private String applicationName;
     private String dateStyle;
     private TimeValue statementTimeout;
+    private int joinDpThreshold;
 
     public CoordinatorSessionSettings(Role authenticatedUser, String ... searchPath) {
         this(authenticatedUser, authenticatedUser, searchPath);
@@ -77,6 +78,7 @@ public class CoordinatorSessionSettings extends SessionSettings {
         this.excludedOptimizerRules = new HashSet<>(excludedOptimizerRules);
         this.dateStyle = DEFAULT_DATE_STYLE;
         this.statementTimeout = TimeValue.ZERO;
+        this.joinDpThreshold = DEFAULT_JOIN_DP_THRESHOLD;
         this.memoryLimit = memoryLimit;
     }
 
@@ -108,6 +110,10 @@ public class CoordinatorSessionSettings extends SessionSettings {
         hashJoinsEnabled = newValue;
     }
 
+    public void setVectorizedEvaluationEnabled(boolean newValue) {
+        vectorizedEvaluationEnabled = newValue;
+    }
+
     public void setSessionUser(Role user) {
         sessionUser = user;
         userName = user.name();
@@ -143,6 +149,15 @@ public class CoordinatorSessionSettings extends SessionSettings {
         this.statementTimeout = statementTimeout;
     }
 
+    @Override
+    public int joinDpThreshold() {
+        return joinDpThreshold;
+    }
+
+    public void joinDpThreshold(int joinDpThreshold) {
+        this.joinDpThreshold = joinDpThreshold;
+    }
+
     public void memoryLimit(int memoryLimit) {
         this.memoryLimit = memoryLimit;
     }
@@ -40,11 +40,17 @@ import io.crate.metadata.SearchPath;
  */
 public class SessionSettings implements Writeable {
 
+    /**
+     * Joins of up to this many relations are ordered by dynamic programming, larger joins greedily.
+     */
+    public static final int DEFAULT_JOIN_DP_THRESHOLD = 10;
+
     protected String userName;
     protected SearchPath searchPath;
     protected boolean hashJoinsEnabled;
     protected boolean errorOnUnknownObjectKey;
     protected int memoryLimit;
+    protected boolean vectorizedEvaluationEnabled;
 
     @VisibleForTesting
     public SessionSettings(String userName, SearchPath searchPath) {
@@ -79,6 +85,11 @@ public class SessionSettings implements Writeable {
         } else {
             this.memoryLimit = 0;
         }
+        if (version.onOrAfter(Version.V_5_6_0)) {
+            this.vectorizedEvaluationEnabled = in.readBoolean();
+        } else {
+            this.vectorizedEvaluationEnabled = false;
+        }
     }
 
     @Override
@@ -93,6 +104,9 @@ public class SessionSettings implements Writeable {
         if (version.onOrAfter(Version.V_5_5_0)) {
             out.writeVInt(memoryLimit);
         }
+        if (version.onOrAfter(Version.V_5_6_0)) {
+            out.writeBoolean(vectorizedEvaluationEnabled);
+        }
     }
 
     public String userName() {
@@ -115,6 +129,13 @@ public class SessionSettings implements Writeable {
         return errorOnUnknownObjectKey;
     }
 
+    /**
+     * If true, filter and eval projections evaluate supported scalars on batches of rows.
+     */
+    public boolean vectorizedEvaluationEnabled() {
+        return vectorizedEvaluationEnabled;
+    }
+
     public String applicationName() {
         // Only available on coordinator.
         return null;
@@ -130,6 +151,11 @@ public class SessionSettings implements Writeable {
         return TimeValue.ZERO;
     }
 
+    public int joinDpThreshold() {
+        // Only available on coordinator
+        return DEFAULT_JOIN_DP_THRESHOLD;
+    }
+
     /**
      * memory.operation_limit
      **/
@@ -149,11 +175,12 @@ public class SessionSettings implements Writeable {
         return Objects.equals(userName, that.userName) &&
                Objects.equals(searchPath, that.searchPath) &&
                Objects.equals(hashJoinsEnabled, that.hashJoinsEnabled) &&
-               Objects.equals(memoryLimit, that.memoryLimit);
+               Objects.equals(memoryLimit, that.memoryLimit) &&
+               Objects.equals(vectorizedEvaluationEnabled, that.vectorizedEvaluationEnabled);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(userName, searchPath, hashJoinsEnabled, memoryLimit);
+        return Objects.hash(userName, searchPath, hashJoinsEnabled, memoryLimit, vectorizedEvaluationEnabled);
     }
 }
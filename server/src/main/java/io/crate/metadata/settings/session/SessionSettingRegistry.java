@@ -121,6 +121,37 @@ public class SessionSettingRegistry {
         DataTypes.INTEGER
     );
 
+    static final SessionSetting<Boolean> VECTORIZED_EVALUATION = new SessionSetting<>(
+        "enable_vectorized_evaluation",
+        inputs -> {
+            if (inputs.length != 1) {
+                throw new IllegalArgumentException("enable_vectorized_evaluation should have only one argument.");
+            }
+        },
+        inputs -> DataTypes.BOOLEAN.implicitCast(inputs[0]),
+        CoordinatorSessionSettings::setVectorizedEvaluationEnabled,
+        settings -> Boolean.toString(settings.vectorizedEvaluationEnabled()),
+        () -> String.valueOf(false),
+        "Evaluates filters and scalars on batches of rows if all functions involved support it.",
+        DataTypes.BOOLEAN
+    );
+
+    static final SessionSetting<Integer> JOIN_DP_THRESHOLD = new SessionSetting<>(
+        "join_dp_threshold",
+        inputs -> {
+            Integer threshold = DataTypes.INTEGER.implicitCast(inputs[0]);
+            if (threshold == null || threshold < 2) {
+                throw new IllegalArgumentException("join_dp_threshold must be at least 2");
+            }
+        },
+        inputs -> DataTypes.INTEGER.implicitCast(inputs[0]),
+        CoordinatorSessionSettings::joinDpThreshold,
+        settings -> Integer.toString(settings.joinDpThreshold()),
+        () -> Integer.toString(SessionSettings.DEFAULT_JOIN_DP_THRESHOLD),
+        "Inner joins of up to this many relations are ordered by dynamic programming, larger joins greedily.",
+        DataTypes.INTEGER
+    );
+
     private final Map<String, SessionSetting<?>> settings;
 
     @Inject
@@ -237,7 +268,9 @@ public class SessionSettingRegistry {
             .put(APPLICATION_NAME.name(), APPLICATION_NAME)
             .put(DATE_STYLE.name(), DATE_STYLE)
             .put(STATEMENT_TIMEOUT.name(), STATEMENT_TIMEOUT)
-            .put(MEMORY_LIMIT.name(), MEMORY_LIMIT);
+            .put(MEMORY_LIMIT.name(), MEMORY_LIMIT)
+            .put(JOIN_DP_THRESHOLD.name(), JOIN_DP_THRESHOLD)
+            .put(VECTORIZED_EVALUATION.name(), VECTORIZED_EVALUATION);
 
         for (var providers : sessionSettingProviders) {
             for (var setting : providers.sessionSettings()) {
@@ -94,6 +94,8 @@ public class SysNodesTableInfo {
         public static final ColumnIdent PROCESS = new ColumnIdent(SYS_COL_PROCESS);
 
         public static final ColumnIdent FS = new ColumnIdent(SYS_COL_FS);
+
+        public static final ColumnIdent QUERY_RESULT_CACHE = new ColumnIdent("query_result_cache");
     }
 
 
@@ -253,6 +255,13 @@ public class SysNodesTableInfo {
                     .add("path", STRING, FsInfo.Path::getPath)
                 .endObjectArray()
             .endObject()
+            .startObject("query_result_cache")
+                .add("hits", LONG, x -> x.queryResultCacheStats().hits())
+                .add("misses", LONG, x -> x.queryResultCacheStats().misses())
+                .add("evictions", LONG, x -> x.queryResultCacheStats().evictions())
+                .add("entries", LONG, x -> x.queryResultCacheStats().entries())
+                .add("size", LONG, x -> x.queryResultCacheStats().sizeInBytes())
+            .endObject()
             .setPrimaryKeys(new ColumnIdent("id"))
             .build();
     }
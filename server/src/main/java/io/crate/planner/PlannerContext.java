@@ -206,6 +206,10 @@ public class PlannerContext {
         return nodeCtx;
     }
 
+    public RoutingProvider routingProvider() {
+        return routingProvider;
+    }
+
     public ClusterState clusterState() {
         return clusterState;
     }
@@ -210,15 +210,23 @@ public class ExplainPlan implements Plan {
 
     @VisibleForTesting
     public static String printLogicalPlan(LogicalPlan logicalPlan, PlannerContext plannerContext, boolean showCosts) {
-        final PrintContext printContext = createPrintContext(plannerContext.planStats(), showCosts);
+        final PrintContext printContext = createPrintContext(
+            plannerContext.planStats(),
+            showCosts,
+            plannerContext.clusterState().nodes().getDataNodes().size()
+        );
         var optimizedLogicalPlan = logicalPlan.accept(CAST_OPTIMIZER, plannerContext);
         optimizedLogicalPlan.print(printContext);
         return printContext.toString();
     }
 
     public static PrintContext createPrintContext(PlanStats planStats, boolean showCosts) {
+        return createPrintContext(planStats, showCosts, -1);
+    }
+
+    public static PrintContext createPrintContext(PlanStats planStats, boolean showCosts, int numNodes) {
         if (showCosts) {
-            return new PrintContext(planStats);
+            return new PrintContext(planStats, numNodes);
         } else {
             return new PrintContext(null);
         }
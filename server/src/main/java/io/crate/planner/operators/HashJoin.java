@@ -30,6 +30,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.SequencedCollection;
 import java.util.Set;
 
@@ -56,7 +57,9 @@ import io.crate.planner.ResultDescription;
 import io.crate.planner.distribution.DistributionInfo;
 import io.crate.planner.distribution.DistributionType;
 import io.crate.planner.node.dql.join.Join;
+import io.crate.planner.optimizer.costs.PlanStats;
 import io.crate.sql.tree.JoinType;
+import io.crate.statistics.Stats;
 
 public class HashJoin extends AbstractJoinPlan {
 
@@ -119,17 +122,40 @@ public class HashJoin extends AbstractJoinPlan {
             // are on the same node
             leftExecutionPlan.setDistributionInfo(DistributionInfo.DEFAULT_SAME_NODE);
             rightExecutionPlan.setDistributionInfo(DistributionInfo.DEFAULT_SAME_NODE);
-        } else {
-            if (isDistributed) {
-                // Run the join distributed by modulo distribution algorithm
-                leftOutputs = setModuloDistribution(lhsHashSymbols, lhs.outputs(), leftExecutionPlan);
-                rightOutputs = setModuloDistribution(rhsHashSymbols, rhs.outputs(), rightExecutionPlan);
-            } else {
-                // Run the join non-distributed on the handler node
-                joinExecutionNodes = Collections.singletonList(plannerContext.handlerNode());
-                leftExecutionPlan.setDistributionInfo(DistributionInfo.DEFAULT_BROADCAST);
-                rightExecutionPlan.setDistributionInfo(DistributionInfo.DEFAULT_BROADCAST);
+        } else if (isDistributed) {
+            Distribution distribution = chooseDistribution(
+                plannerContext.planStats(),
+                leftResultDesc.nodeIds().size(),
+                rightResultDesc.nodeIds().size()
+            );
+            switch (distribution) {
+                case BROADCAST_LHS -> {
+                    // Send all left rows to every node producing right rows, the right rows aren't moved
+                    joinExecutionNodes = rightResultDesc.nodeIds();
+                    leftExecutionPlan.setDistributionInfo(DistributionInfo.DEFAULT_BROADCAST);
+                    rightExecutionPlan.setDistributionInfo(DistributionInfo.DEFAULT_SAME_NODE);
+                    leftMerge = buildMergePhaseForJoin(plannerContext, leftResultDesc, joinExecutionNodes);
+                }
+                case BROADCAST_RHS -> {
+                    // Send all right rows to every node producing left rows, the left rows aren't moved
+                    leftExecutionPlan.setDistributionInfo(DistributionInfo.DEFAULT_SAME_NODE);
+                    rightExecutionPlan.setDistributionInfo(DistributionInfo.DEFAULT_BROADCAST);
+                    rightMerge = buildMergePhaseForJoin(plannerContext, rightResultDesc, joinExecutionNodes);
+                }
+                case SHUFFLE -> {
+                    // Run the join distributed by modulo distribution algorithm
+                    leftOutputs = setModuloDistribution(lhsHashSymbols, lhs.outputs(), leftExecutionPlan);
+                    rightOutputs = setModuloDistribution(rhsHashSymbols, rhs.outputs(), rightExecutionPlan);
+                    leftMerge = buildMergePhaseForJoin(plannerContext, leftResultDesc, joinExecutionNodes);
+                    rightMerge = buildMergePhaseForJoin(plannerContext, rightResultDesc, joinExecutionNodes);
+                }
+                default -> throw new AssertionError("Unexpected distribution: " + distribution);
             }
+        } else {
+            // Run the join non-distributed on the handler node
+            joinExecutionNodes = Collections.singletonList(plannerContext.handlerNode());
+            leftExecutionPlan.setDistributionInfo(DistributionInfo.DEFAULT_BROADCAST);
+            rightExecutionPlan.setDistributionInfo(DistributionInfo.DEFAULT_BROADCAST);
             leftMerge = buildMergePhaseForJoin(plannerContext, leftResultDesc, joinExecutionNodes);
             rightMerge = buildMergePhaseForJoin(plannerContext, rightResultDesc, joinExecutionNodes);
         }
@@ -150,6 +176,7 @@ public class HashJoin extends AbstractJoinPlan {
             InputColumns.create(lhsHashSymbols, new InputColumns.SourceSymbols(leftOutputs)),
             InputColumns.create(rhsHashSymbols, new InputColumns.SourceSymbols(rightOutputs)),
             Symbols.typeView(leftOutputs),
+            Symbols.typeView(rightOutputs),
             lhStats.estimateSizeForColumns(leftOutputs)
         );
         return new Join(
@@ -227,6 +254,117 @@ public class HashJoin extends AbstractJoinPlan {
         return visitor.visitHashJoin(this, context);
     }
 
+    /**
+     * How the rows of both sides are sent to the nodes running the join if it is executed distributed.
+     */
+    enum Distribution {
+
+        /**
+         * Both sides are partitioned by the hash of the join condition using the {@link DistributionType#MODULO}
+         * distribution. Each row is sent to one node.
+         */
+        SHUFFLE,
+
+        /**
+         * All rows of the left side are sent to each node producing rows of the right side.
+         */
+        BROADCAST_LHS,
+
+        /**
+         * All rows of the right side are sent to each node producing rows of the left side.
+         */
+        BROADCAST_RHS
+    }
+
+    /**
+     * Chooses the distribution which sends the least bytes over the network.
+     * Broadcasting a side sends all of its rows to each node of the other side,
+     * while a shuffle sends the rows of both sides once.
+     *
+     * @param lhsBytes estimated size of the left rows, -1 if unknown
+     * @param lhsNodes number of nodes producing the left rows, 0 if the left rows cannot stay on these nodes
+     * @param rhsBytes estimated size of the right rows, -1 if unknown
+     * @param rhsNodes number of nodes producing the right rows, 0 if the right rows cannot stay on these nodes
+     */
+    @VisibleForTesting
+    static Distribution chooseDistribution(long lhsBytes, int lhsNodes, long rhsBytes, int rhsNodes) {
+        if (lhsBytes < 0 || rhsBytes < 0) {
+            return Distribution.SHUFFLE;
+        }
+        double shuffleBytes = (double) lhsBytes + rhsBytes;
+        double broadcastRhsBytes = lhsNodes == 0 ? Double.POSITIVE_INFINITY : (double) rhsBytes * lhsNodes;
+        double broadcastLhsBytes = rhsNodes == 0 ? Double.POSITIVE_INFINITY : (double) lhsBytes * rhsNodes;
+        if (broadcastRhsBytes < shuffleBytes && broadcastRhsBytes <= broadcastLhsBytes) {
+            return Distribution.BROADCAST_RHS;
+        }
+        if (broadcastLhsBytes < shuffleBytes) {
+            return Distribution.BROADCAST_LHS;
+        }
+        return Distribution.SHUFFLE;
+    }
+
+    /**
+     * Used by {@link #build} and {@link #printStats} so that EXPLAIN shows the distribution used for the execution.
+     * A side can only stay on its nodes if the rows are produced by collecting the shards.
+     * The join task is then fed directly by the collect task on the same node.
+     *
+     * @param lhsNumNodes the number of nodes producing the rows of the left side
+     * @param rhsNumNodes the number of nodes producing the rows of the right side
+     */
+    private Distribution chooseDistribution(PlanStats planStats, int lhsNumNodes, int rhsNumNodes) {
+        return chooseDistribution(
+            estimateSizeInBytes(planStats, lhs),
+            lhs instanceof Collect ? lhsNumNodes : 0,
+            estimateSizeInBytes(planStats, rhs),
+            rhs instanceof Collect ? rhsNumNodes : 0
+        );
+    }
+
+    /**
+     * @return the estimated size of all rows of the plan after filtering, -1 if unknown
+     */
+    private static long estimateSizeInBytes(PlanStats planStats, LogicalPlan plan) {
+        Stats stats = planStats.get(plan);
+        if (stats.numDocs() == -1) {
+            return -1L;
+        }
+        return estimateSizeInBytes(stats.numDocs(), stats.estimateSizeForColumns(plan.outputs()));
+    }
+
+    /**
+     * @return numDocs * bytesPerRow, saturated to {@link Long#MAX_VALUE} instead of overflowing
+     */
+    @VisibleForTesting
+    static long estimateSizeInBytes(long numDocs, long bytesPerRow) {
+        return (long) Math.min((double) numDocs * bytesPerRow, Long.MAX_VALUE);
+    }
+
+    @Override
+    public void printStats(PrintContext printContext) {
+        PlanStats planStats = printContext.planStats();
+        if (planStats == null) {
+            return;
+        }
+        Stats stats = planStats.get(this);
+        if (stats.numDocs() == -1) {
+            printContext.text(" (rows=unknown)");
+            return;
+        }
+        printContext.text(" (rows=" + stats.numDocs());
+        long lhsBytes = estimateSizeInBytes(planStats, lhs);
+        long rhsBytes = estimateSizeInBytes(planStats, rhs);
+        int numNodes = printContext.numNodes();
+        // On a single node no rows are sent over the network, regardless of the distribution
+        if (numNodes > 1 && lhsBytes >= 0 && rhsBytes >= 0) {
+            Distribution distribution = chooseDistribution(planStats, numNodes, numNodes);
+            printContext
+                .text(", distribution=" + distribution.name().toLowerCase(Locale.ENGLISH))
+                .text(", lhs_bytes=" + lhsBytes)
+                .text(", rhs_bytes=" + rhsBytes);
+        }
+        printContext.text(")");
+    }
+
     @Override
     public void print(PrintContext printContext) {
         printContext
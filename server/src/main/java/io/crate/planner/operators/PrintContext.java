@@ -36,9 +36,19 @@ public final class PrintContext {
     private final ArrayList<String> prefixes = new ArrayList<>();
     @Nullable
     private final PlanStats planStats;
+    private final int numNodes;
 
     public PrintContext(@Nullable PlanStats planStats) {
+        this(planStats, -1);
+    }
+
+    /**
+     * @param numNodes the number of data nodes the plan would run on, used to print
+     *                 estimates of distribution decisions. -1 if unknown.
+     */
+    public PrintContext(@Nullable PlanStats planStats, int numNodes) {
         this.planStats = planStats;
+        this.numNodes = numNodes;
         sb = new StringBuilder();
     }
 
@@ -47,6 +57,10 @@ public final class PrintContext {
         return planStats;
     }
 
+    public int numNodes() {
+        return numNodes;
+    }
+
     public PrintContext text(String s) {
         sb.append(s);
         return this;
@@ -24,6 +24,7 @@ package io.crate.planner.operators;
 import static io.crate.execution.dsl.phases.ExecutionPhases.executesOnHandler;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -46,6 +47,7 @@ import io.crate.execution.dsl.projection.WindowAggProjection;
 import io.crate.execution.dsl.projection.builder.InputColumns;
 import io.crate.execution.dsl.projection.builder.ProjectionBuilder;
 import io.crate.execution.engine.pipeline.LimitAndOffset;
+import io.crate.expression.symbol.InputColumn;
 import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.SymbolVisitors;
 import io.crate.expression.symbol.WindowFunction;
@@ -53,6 +55,7 @@ import io.crate.planner.DependencyCarrier;
 import io.crate.planner.ExecutionPlan;
 import io.crate.planner.Merge;
 import io.crate.planner.PlannerContext;
+import io.crate.planner.PositionalOrderBy;
 import io.crate.planner.ResultDescription;
 import io.crate.planner.distribution.DistributionInfo;
 import io.crate.planner.distribution.DistributionType;
@@ -155,13 +158,7 @@ public class WindowAgg extends ForwardingLogicalPlan {
         Function<Symbol, Symbol> toInputCols = binder.andThen(s -> InputColumns.create(s, sourceSymbols));
 
         List<WindowFunction> boundWindowFunctions = (List<WindowFunction>)(List<?>) Lists2.map(windowFunctions, toInputCols);
-        List<Projection> projections = new ArrayList<>();
-        WindowAggProjection windowAggProjection = new WindowAggProjection(
-            windowDefinition.map(toInputCols),
-            boundWindowFunctions,
-            InputColumns.create(this.standalone, sourceSymbols)
-        );
-        projections.add(windowAggProjection);
+        WindowDefinition boundWindowDefinition = windowDefinition.map(toInputCols);
         ExecutionPlan sourcePlan = source.build(
             executor,
             plannerContext,
@@ -175,6 +172,16 @@ public class WindowAgg extends ForwardingLogicalPlan {
             subQueryResults
         );
         ResultDescription resultDescription = sourcePlan.resultDescription();
+        PositionalOrderBy sourceOrder = resultDescription.orderBy();
+        boolean presorted = sourceOrder != null && isSortedBy(sourceOrder, boundWindowDefinition);
+        List<Projection> projections = new ArrayList<>();
+        WindowAggProjection windowAggProjection = new WindowAggProjection(
+            boundWindowDefinition,
+            boundWindowFunctions,
+            InputColumns.create(this.standalone, sourceSymbols),
+            presorted
+        );
+        projections.add(windowAggProjection);
         boolean executesOnHandler = executesOnHandler(plannerContext.handlerNode(), resultDescription.nodeIds());
         boolean nonDistExecution = windowDefinition.partitions().isEmpty()
                                    || resultDescription.hasRemainingLimitOrOffset()
@@ -199,7 +206,8 @@ public class WindowAgg extends ForwardingLogicalPlan {
                 resultDescription.streamOutputs(),
                 projections,
                 DistributionInfo.DEFAULT_BROADCAST,
-                null
+                // The rows of each upstream are sorted, a sorted merge keeps them sorted
+                presorted ? sourceOrder : null
             );
             return new Merge(
                 sourcePlan,
@@ -214,6 +222,51 @@ public class WindowAgg extends ForwardingLogicalPlan {
         return sourcePlan;
     }
 
+    /**
+     * @return true if rows sorted by {@code sourceOrder} are sorted by the partitions followed by the
+     *         ordering of the window definition. The partitions can be sorted in any order and direction as
+     *         long as all rows of a partition are consecutive.
+     */
+    @VisibleForTesting
+    static boolean isSortedBy(PositionalOrderBy sourceOrder, WindowDefinition boundWindowDefinition) {
+        int[] indices = sourceOrder.indices();
+        Set<Integer> partitionIndices = new HashSet<>();
+        for (Symbol partition : boundWindowDefinition.partitions()) {
+            if (partition instanceof InputColumn inputColumn) {
+                partitionIndices.add(inputColumn.index());
+            } else {
+                return false;
+            }
+        }
+        int numPartitions = partitionIndices.size();
+        if (indices.length < numPartitions) {
+            return false;
+        }
+        for (int i = 0; i < numPartitions; i++) {
+            if (partitionIndices.contains(indices[i]) == false) {
+                return false;
+            }
+        }
+        OrderBy orderBy = boundWindowDefinition.orderBy();
+        if (orderBy == null) {
+            return true;
+        }
+        List<Symbol> orderBySymbols = orderBy.orderBySymbols();
+        if (indices.length < numPartitions + orderBySymbols.size()) {
+            return false;
+        }
+        for (int i = 0; i < orderBySymbols.size(); i++) {
+            int pos = numPartitions + i;
+            if (!(orderBySymbols.get(i) instanceof InputColumn inputColumn)
+                || indices[pos] != inputColumn.index()
+                || sourceOrder.reverseFlags()[pos] != orderBy.reverseFlags()[i]
+                || sourceOrder.nullsFirst()[pos] != orderBy.nullsFirst()[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Nullable
     static OrderBy createOrderByInclPartitionBy(WindowDefinition windowDefinition) {
         var orderBy = windowDefinition.orderBy();
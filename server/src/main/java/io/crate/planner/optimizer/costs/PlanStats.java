@@ -150,62 +150,58 @@ public class PlanStats {
         private Stats visitAbstractJoinPlan(AbstractJoinPlan join, Void context) {
             var lhsStats = join.lhs().accept(this, context);
             var rhsStats = join.rhs().accept(this, context);
-            Map<ColumnIdent, ColumnStats<?>> statsByColumn = Maps.concat(lhsStats.statsByColumn(),
-                                                                         rhsStats.statsByColumn());
-            if (lhsStats.numDocs() == -1
-                || lhsStats.sizeInBytes() == -1
-                || rhsStats.numDocs() == -1
-                || rhsStats.sizeInBytes() == -1) {
-                return new Stats(-1, -1, statsByColumn);
-            }
-            long numRows = join.joinType() == JoinType.CROSS
-                ? lhsStats.numDocs() * rhsStats.numDocs()
-                // We don't have any cardinality estimates, so just take the bigger table
-                : Math.max(lhsStats.numDocs(), rhsStats.numDocs());
-            Stats joinStats = new Stats(
-                numRows,
-                (lhsStats.averageSizePerRowInBytes() * numRows) + (rhsStats.averageSizePerRowInBytes() * numRows),
-                statsByColumn
-            );
-            Symbol joinCondition = join.joinCondition();
-            if (joinCondition == null) {
-                return joinStats;
-            }
-            long estimatedNumRows = SelectivityFunctions.estimateNumRows(
-                nodeContext,
-                txnCtx,
-                joinStats,
-                joinCondition,
-                null
-            );
-            return joinStats.withNumDocs(estimatedNumRows);
+            return joinStats(lhsStats, rhsStats, join.joinType(), join.joinCondition());
         }
 
         @Override
         public Stats visitHashJoin(HashJoin join, Void context) {
             var lhsStats = join.lhs().accept(this, context);
             var rhsStats = join.rhs().accept(this, context);
-            Map<ColumnIdent, ColumnStats<?>> statsByColumn = Maps.concat(lhsStats.statsByColumn(), rhsStats.statsByColumn());
+            return joinStats(lhsStats, rhsStats, JoinType.INNER, join.joinCondition());
+        }
+
+        /**
+         * Estimates the number of rows of a join as the selectivity of the join condition applied to the
+         * cartesian product of both sides.
+         * Outer joins emit at least the rows of their outer side(s).
+         */
+        private Stats joinStats(Stats lhsStats, Stats rhsStats, JoinType joinType, @Nullable Symbol joinCondition) {
+            Map<ColumnIdent, ColumnStats<?>> statsByColumn = Maps.concat(lhsStats.statsByColumn(),
+                                                                         rhsStats.statsByColumn());
             if (lhsStats.numDocs() == -1
                 || lhsStats.sizeInBytes() == -1
                 || rhsStats.numDocs() == -1
                 || rhsStats.sizeInBytes() == -1) {
                 return new Stats(-1, -1, statsByColumn);
             }
-            long numRows = Math.max(lhsStats.numDocs(), rhsStats.numDocs());
-            long sizeInBytes =
-                (numRows * lhsStats.averageSizePerRowInBytes())
-                + (numRows * rhsStats.averageSizePerRowInBytes());
-
-            Stats joinStats = new Stats(numRows, sizeInBytes, statsByColumn);
-            long estimatedNumRows = SelectivityFunctions.estimateNumRows(
-                nodeContext,
-                txnCtx,
-                joinStats,
-                join.joinCondition(),
-                null
+            long lhsRows = lhsStats.numDocs();
+            long rhsRows = rhsStats.numDocs();
+            double selectivity = 1.0;
+            if (joinCondition != null && joinType != JoinType.CROSS) {
+                // The selectivity only depends on the column stats
+                selectivity = SelectivityFunctions.estimateSelectivity(
+                    nodeContext,
+                    txnCtx,
+                    new Stats(-1, -1, statsByColumn),
+                    joinCondition,
+                    null
+                );
+            }
+            double innerRows = (double) lhsRows * (double) rhsRows * selectivity;
+            double numRows = switch (joinType) {
+                case LEFT -> Math.max(innerRows, lhsRows);
+                case RIGHT -> Math.max(innerRows, rhsRows);
+                case FULL -> Math.max(innerRows, Math.max(lhsRows, rhsRows));
+                case SEMI -> Math.min(innerRows, lhsRows);
+                case ANTI -> lhsRows;
+                default -> innerRows;
+            };
+            long estimatedNumRows = (long) Math.min(numRows, Long.MAX_VALUE);
+            return new Stats(
+                estimatedNumRows,
+                (lhsStats.averageSizePerRowInBytes() * estimatedNumRows) + (rhsStats.averageSizePerRowInBytes() * estimatedNumRows),
+                statsByColumn
             );
-            return joinStats.withNumDocs(estimatedNumRows);
         }
 
         @Override
@@ -0,0 +1,403 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.planner.optimizer.joinorder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.common.collections.Maps;
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.operator.EqOperator;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.NodeContext;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.TransactionContext;
+import io.crate.planner.consumer.RelationNameCollector;
+import io.crate.planner.operators.Filter;
+import io.crate.planner.operators.JoinPlan;
+import io.crate.planner.operators.LogicalPlan;
+import io.crate.planner.optimizer.costs.PlanStats;
+import io.crate.planner.optimizer.iterative.GroupReference;
+import io.crate.planner.selectivity.SelectivityFunctions;
+import io.crate.sql.tree.JoinType;
+import io.crate.statistics.ColumnStats;
+import io.crate.statistics.Stats;
+
+/**
+ * Finds the cheapest order of the inner joins of a {@link JoinGraph}.
+ *
+ * <p>
+ * The cost of a join tree is the sum of the estimated number of rows produced by each of its joins.
+ * The number of rows of a set of relations is the product of their rows and the selectivity of all the
+ * conditions between them, so it doesn't depend on the order in which the relations are joined.
+ * </p>
+ *
+ * <p>
+ * Joins with up to {@code dpThreshold} relations are enumerated bottom-up using dynamic programming over
+ * the connected subsets of relations (DPsize). This considers all left-deep and bushy trees which don't contain
+ * cross products. Larger joins are built greedily by repeatedly joining the two connected sub-trees
+ * with the smallest result (Greedy Operator Ordering).
+ * </p>
+ */
+public final class JoinEnumerator {
+
+    /**
+     * Upper bound for the dynamic programming, regardless of the configured threshold.
+     * The number of enumerated sub-tree pairs grows with 3^n.
+     */
+    static final int MAX_DP_RELATIONS = 14;
+
+    /**
+     * The relations are represented as bits of a long
+     */
+    static final int MAX_RELATIONS = 63;
+
+    /**
+     * @param relations bit set of the relations joined by this tree
+     * @param node the index of the relation if this is a leaf, otherwise -1
+     */
+    public record JoinTree(long relations,
+                           int node,
+                           @Nullable JoinTree lhs,
+                           @Nullable JoinTree rhs,
+                           double rows,
+                           double cost) {
+
+        public boolean isLeaf() {
+            return node >= 0;
+        }
+    }
+
+    /**
+     * A join condition or filter and the relations it refers to.
+     */
+    private record Predicate(long relations, Symbol condition, double selectivity) {
+    }
+
+    private final List<LogicalPlan> nodes;
+    private final Map<LogicalPlan, Integer> nodeIndices;
+    private final double[] nodeRows;
+    private final List<Predicate> predicates;
+    private final long allRelations;
+
+    private JoinEnumerator(List<LogicalPlan> nodes,
+                           Map<LogicalPlan, Integer> nodeIndices,
+                           double[] nodeRows,
+                           List<Predicate> predicates) {
+        this.nodes = nodes;
+        this.nodeIndices = nodeIndices;
+        this.nodeRows = nodeRows;
+        this.predicates = predicates;
+        this.allRelations = nodes.size() == MAX_RELATIONS + 1 ? -1L : (1L << nodes.size()) - 1;
+    }
+
+    /**
+     * @return the enumerator or null if the number of rows of any relation is unknown
+     */
+    @Nullable
+    public static JoinEnumerator create(JoinGraph graph,
+                                        PlanStats planStats,
+                                        NodeContext nodeCtx,
+                                        TransactionContext txnCtx) {
+        List<LogicalPlan> nodes = graph.nodes();
+        if (nodes.size() < 2 || nodes.size() > MAX_RELATIONS) {
+            return null;
+        }
+        Map<LogicalPlan, Integer> nodeIndices = new IdentityHashMap<>();
+        Map<RelationName, Integer> nodesByRelation = new HashMap<>();
+        Stats[] nodeStats = new Stats[nodes.size()];
+        double[] nodeRows = new double[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            LogicalPlan node = nodes.get(i);
+            nodeIndices.put(node, i);
+            for (RelationName relationName : node.getRelationNames()) {
+                nodesByRelation.put(relationName, i);
+            }
+            Stats stats = planStats.get(node);
+            if (stats.numDocs() == -1) {
+                return null;
+            }
+            nodeStats[i] = stats;
+            nodeRows[i] = stats.numDocs();
+        }
+        long allRelations = (1L << nodes.size()) - 1;
+        List<Predicate> predicates = new ArrayList<>();
+        for (var entry : graph.edges().entrySet()) {
+            Integer from = nodeIndices.get(entry.getKey());
+            if (from == null) {
+                return null;
+            }
+            for (JoinGraph.Edge edge : entry.getValue()) {
+                Integer to = nodeIndices.get(edge.to());
+                if (to == null) {
+                    return null;
+                }
+                // Edges exist in both directions, only one of them is needed
+                if (from < to) {
+                    boolean leftFromSource = entry.getKey().outputs().contains(edge.left());
+                    Stats leftStats = leftFromSource ? nodeStats[from] : nodeStats[to];
+                    Stats rightStats = leftFromSource ? nodeStats[to] : nodeStats[from];
+                    double selectivity = SelectivityFunctions.eqJoinSelectivity(
+                        edge.left(), leftStats, edge.right(), rightStats);
+                    predicates.add(new Predicate(
+                        (1L << from) | (1L << to),
+                        EqOperator.of(edge.left(), edge.right()),
+                        selectivity
+                    ));
+                }
+            }
+        }
+        for (Symbol filter : graph.filters()) {
+            long relations = 0L;
+            for (RelationName relationName : RelationNameCollector.collect(filter)) {
+                Integer idx = nodesByRelation.get(relationName);
+                if (idx == null) {
+                    relations = allRelations;
+                    break;
+                }
+                relations |= 1L << idx;
+            }
+            if (relations == 0L) {
+                relations = allRelations;
+            }
+            Map<ColumnIdent, ColumnStats<?>> statsByColumn = Map.of();
+            for (int i = 0; i < nodes.size(); i++) {
+                if ((relations & (1L << i)) != 0) {
+                    statsByColumn = Maps.concat(statsByColumn, nodeStats[i].statsByColumn());
+                }
+            }
+            double selectivity = SelectivityFunctions.estimateSelectivity(
+                nodeCtx,
+                txnCtx,
+                new Stats(-1, -1, statsByColumn),
+                filter,
+                null
+            );
+            predicates.add(new Predicate(relations, filter, selectivity));
+        }
+        return new JoinEnumerator(nodes, nodeIndices, nodeRows, predicates);
+    }
+
+    /**
+     * @return the cheapest join tree or null if the relations cannot be joined without a cross product
+     */
+    @Nullable
+    public JoinTree enumerate(int dpThreshold) {
+        if (nodes.size() <= Math.min(dpThreshold, MAX_DP_RELATIONS)) {
+            return enumerateDP();
+        }
+        return enumerateGreedy();
+    }
+
+    private JoinTree leaf(int node) {
+        long relations = 1L << node;
+        return new JoinTree(relations, node, null, null, rows(relations), 0.0);
+    }
+
+    private JoinTree join(JoinTree tree1, JoinTree tree2, double rows) {
+        double cost = tree1.cost + tree2.cost + rows;
+        // The larger side goes to the left, as the smaller one is used to build the hash table
+        if (tree1.rows >= tree2.rows) {
+            return new JoinTree(tree1.relations | tree2.relations, -1, tree1, tree2, rows, cost);
+        }
+        return new JoinTree(tree1.relations | tree2.relations, -1, tree2, tree1, rows, cost);
+    }
+
+    private JoinTree enumerateDP() {
+        int numNodes = nodes.size();
+        int all = (int) allRelations;
+        double[] rows = new double[all + 1];
+        JoinTree[] best = new JoinTree[all + 1];
+        for (int relations = 1; relations <= all; relations++) {
+            rows[relations] = rows(relations);
+        }
+        for (int i = 0; i < numNodes; i++) {
+            best[1 << i] = leaf(i);
+        }
+        // Every proper subset of a set is numerically smaller, so the best trees of
+        // the subsets are known once a set is visited.
+        for (int relations = 1; relations <= all; relations++) {
+            if (Integer.bitCount(relations) < 2) {
+                continue;
+            }
+            int lowestRelation = relations & -relations;
+            for (int lhs = (relations - 1) & relations; lhs > 0; lhs = (lhs - 1) & relations) {
+                // Visit each pair of subsets only once
+                if ((lhs & lowestRelation) == 0) {
+                    continue;
+                }
+                int rhs = relations ^ lhs;
+                JoinTree lhsTree = best[lhs];
+                JoinTree rhsTree = best[rhs];
+                if (lhsTree == null || rhsTree == null || !connected(lhs, rhs)) {
+                    continue;
+                }
+                double cost = lhsTree.cost + rhsTree.cost + rows[relations];
+                if (best[relations] == null || cost < best[relations].cost) {
+                    best[relations] = join(lhsTree, rhsTree, rows[relations]);
+                }
+            }
+        }
+        return best[all];
+    }
+
+    @Nullable
+    private JoinTree enumerateGreedy() {
+        List<JoinTree> trees = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            trees.add(leaf(i));
+        }
+        while (trees.size() > 1) {
+            int bestLhs = -1;
+            int bestRhs = -1;
+            double bestRows = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < trees.size(); i++) {
+                for (int j = i + 1; j < trees.size(); j++) {
+                    long lhs = trees.get(i).relations;
+                    long rhs = trees.get(j).relations;
+                    if (!connected(lhs, rhs)) {
+                        continue;
+                    }
+                    double rows = rows(lhs | rhs);
+                    if (bestLhs == -1 || rows < bestRows) {
+                        bestLhs = i;
+                        bestRhs = j;
+                        bestRows = rows;
+                    }
+                }
+            }
+            if (bestLhs == -1) {
+                return null;
+            }
+            JoinTree joined = join(trees.get(bestLhs), trees.get(bestRhs), bestRows);
+            trees.remove(bestRhs);
+            trees.set(bestLhs, joined);
+        }
+        return trees.get(0);
+    }
+
+    /**
+     * @return the estimated number of rows of joining the given relations
+     */
+    private double rows(long relations) {
+        double rows = 1.0;
+        for (int i = 0; i < nodes.size(); i++) {
+            if ((relations & (1L << i)) != 0) {
+                rows *= nodeRows[i];
+            }
+        }
+        for (Predicate predicate : predicates) {
+            if ((predicate.relations & ~relations) == 0) {
+                rows *= predicate.selectivity;
+            }
+        }
+        return rows;
+    }
+
+    private boolean connected(long lhs, long rhs) {
+        long relations = lhs | rhs;
+        for (Predicate predicate : predicates) {
+            if ((predicate.relations & ~relations) == 0
+                && (predicate.relations & lhs) != 0
+                && (predicate.relations & rhs) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the cost of the existing join tree or -1 if the tree doesn't consist of inner joins between the
+     * relations of the {@link JoinGraph}.
+     */
+    public double cost(LogicalPlan plan, Function<LogicalPlan, LogicalPlan> resolvePlan) {
+        double[] cost = new double[1];
+        long relations = collectJoins(plan, resolvePlan, cost);
+        return relations == allRelations ? cost[0] : -1.0;
+    }
+
+    private long collectJoins(LogicalPlan plan, Function<LogicalPlan, LogicalPlan> resolvePlan, double[] cost) {
+        if (plan instanceof GroupReference) {
+            plan = resolvePlan.apply(plan);
+        }
+        Integer node = nodeIndices.get(plan);
+        if (node != null) {
+            return 1L << node;
+        }
+        if (plan instanceof Filter filter) {
+            return collectJoins(filter.source(), resolvePlan, cost);
+        }
+        if (plan instanceof JoinPlan join && join.joinType() == JoinType.INNER) {
+            long lhs = collectJoins(join.lhs(), resolvePlan, cost);
+            long rhs = collectJoins(join.rhs(), resolvePlan, cost);
+            if (lhs == -1L || rhs == -1L) {
+                return -1L;
+            }
+            cost[0] += rows(lhs | rhs);
+            return lhs | rhs;
+        }
+        return -1L;
+    }
+
+    /**
+     * Builds the join plan for the tree. The conditions and filters are placed at the lowest join
+     * which has all the relations they refer to.
+     */
+    public LogicalPlan build(JoinTree tree) {
+        if (tree.isLeaf()) {
+            LogicalPlan node = nodes.get(tree.node);
+            List<Symbol> filters = conditions(tree.relations, 0L, 0L);
+            return filters.isEmpty() ? node : new Filter(node, AndOperator.join(filters));
+        }
+        assert tree.lhs != null && tree.rhs != null : "JoinTree must either be a leaf or have two children";
+        LogicalPlan lhs = build(tree.lhs);
+        LogicalPlan rhs = build(tree.rhs);
+        return new JoinPlan(
+            lhs,
+            rhs,
+            JoinType.INNER,
+            AndOperator.join(conditions(tree.relations, tree.lhs.relations, tree.rhs.relations)),
+            false,
+            false
+        );
+    }
+
+    private List<Symbol> conditions(long relations, long lhs, long rhs) {
+        List<Symbol> conditions = new ArrayList<>();
+        for (Predicate predicate : predicates) {
+            long predicateRelations = predicate.relations;
+            if ((predicateRelations & ~relations) == 0
+                && (lhs == 0L || (predicateRelations & ~lhs) != 0)
+                && (rhs == 0L || (predicateRelations & ~rhs) != 0)) {
+                conditions.add(predicate.condition);
+            }
+        }
+        return conditions;
+    }
+}
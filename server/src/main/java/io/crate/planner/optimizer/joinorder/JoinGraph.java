@@ -34,11 +34,9 @@ import io.crate.analyze.relations.QuerySplitter;
 import io.crate.common.collections.Lists2;
 import io.crate.common.collections.Maps;
 import io.crate.common.collections.Sets;
+import io.crate.expression.operator.AndOperator;
 import io.crate.expression.operator.EqOperator;
-import io.crate.expression.symbol.ScopedSymbol;
 import io.crate.expression.symbol.Symbol;
-import io.crate.expression.symbol.SymbolVisitor;
-import io.crate.metadata.Reference;
 import io.crate.planner.operators.Filter;
 import io.crate.planner.operators.JoinPlan;
 import io.crate.planner.operators.LogicalPlan;
@@ -183,77 +181,64 @@ public record JoinGraph(
             }
 
             var joinCondition = joinPlan.joinCondition();
-            var edgeCollector = new EdgeCollector();
+            var edges = new HashMap<LogicalPlan, Set<Edge>>();
             var filters = new ArrayList<Symbol>();
             if (joinCondition != null) {
                 var split = QuerySplitter.split(joinCondition);
                 for (var entry : split.entrySet()) {
                     // we are only interested in equi-join conditions between
                     // two tables e.g.: a.x = b.y will result in
-                    // (a,b) -> (a.x = b.y) and we can ignore any other
-                    // filters. Therefore, we only want entries where we have
-                    // two keys.
+                    // (a,b) -> (a.x = b.y). Any other condition is kept as filter.
                     if (entry.getKey().size() == 2) {
-                        entry.getValue().accept(edgeCollector, context);
+                        for (Symbol conjunct : AndOperator.split(entry.getValue())) {
+                            if (addEdges(conjunct, context, edges) == false) {
+                                filters.add(conjunct);
+                            }
+                        }
                     } else {
                         filters.add(entry.getValue());
                     }
                 }
             }
-            return left.joinWith(right).withEdges(edgeCollector.edges).withFilters(filters);
+            return left.joinWith(right).withEdges(edges).withFilters(filters);
         }
 
-        private static class EdgeCollector extends SymbolVisitor<Map<Symbol, LogicalPlan>, Void> {
-
-            private final Map<LogicalPlan, Set<Edge>> edges = new HashMap<>();
-            private final List<LogicalPlan> sources = new ArrayList<>();
-
-            @Override
-            public Void visitField(ScopedSymbol s, Map<Symbol, LogicalPlan> context) {
-                sources.add(context.get(s));
-                return null;
-            }
-
-            @Override
-            public Void visitReference(Reference ref, Map<Symbol, LogicalPlan> context) {
-                sources.add(context.get(ref));
-                return null;
-            }
-
-            @Override
-            public Void visitFunction(io.crate.expression.symbol.Function f, Map<Symbol, LogicalPlan> context) {
-                var sizeSource = sources.size();
-                f.arguments().forEach(x -> x.accept(this, context));
-                if (f.name().equals(EqOperator.NAME)) {
-                    assert sources.size() == sizeSource + 2 : "Source must be collected for each argument";
-                    var fromSymbol = f.arguments().get(0);
-                    var toSymbol = f.arguments().get(1);
-                    var fromRelation = sources.get(sources.size() - 2);
-                    var toRelation = sources.get(sources.size() - 1);
-                    if (fromRelation != null && toRelation != null) {
-                        // Edges are created and indexed for each equi-join condition
-                        // from both directions e.g.:
-                        // a.x = b.y
-                        // becomes:
-                        // a -> Edge[b, a.x, b.y]
-                        // b -> Edge[a, a.x, b.y]
-                        addEdge(fromRelation, new Edge(toRelation, fromSymbol, toSymbol));
-                        addEdge(toRelation, new Edge(fromRelation, fromSymbol, toSymbol));
-                    }
+        /**
+         * Edges are created and indexed for each equi-join condition
+         * from both directions e.g.:
+         * a.x = b.y
+         * becomes:
+         * a -> Edge[b, a.x, b.y]
+         * b -> Edge[a, a.x, b.y]
+         *
+         * @return false if the condition is not an equi-join condition between the outputs of two nodes
+         */
+        private static boolean addEdges(Symbol condition,
+                                        Map<Symbol, LogicalPlan> context,
+                                        Map<LogicalPlan, Set<Edge>> edges) {
+            if (condition instanceof io.crate.expression.symbol.Function f && f.name().equals(EqOperator.NAME)) {
+                var fromSymbol = f.arguments().get(0);
+                var toSymbol = f.arguments().get(1);
+                var fromRelation = context.get(fromSymbol);
+                var toRelation = context.get(toSymbol);
+                if (fromRelation != null && toRelation != null && fromRelation != toRelation) {
+                    addEdge(edges, fromRelation, new Edge(toRelation, fromSymbol, toSymbol));
+                    addEdge(edges, toRelation, new Edge(fromRelation, fromSymbol, toSymbol));
+                    return true;
                 }
-                return null;
             }
+            return false;
+        }
 
-            private void addEdge(LogicalPlan from, Edge edge) {
-                var values = edges.get(from);
-                if (values == null) {
-                    values = Set.of(edge);
-                } else {
-                    values = new HashSet<>(values);
-                    values.add(edge);
-                }
-                edges.put(from, values);
+        private static void addEdge(Map<LogicalPlan, Set<Edge>> edges, LogicalPlan from, Edge edge) {
+            var values = edges.get(from);
+            if (values == null) {
+                values = Set.of(edge);
+            } else {
+                values = new HashSet<>(values);
+                values.add(edge);
             }
+            edges.put(from, values);
         }
     }
 }
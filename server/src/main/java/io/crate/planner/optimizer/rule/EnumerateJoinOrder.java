@@ -0,0 +1,89 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.planner.optimizer.rule;
+
+import static io.crate.planner.optimizer.matcher.Pattern.typeOf;
+
+import java.util.function.Function;
+
+import io.crate.metadata.NodeContext;
+import io.crate.metadata.TransactionContext;
+import io.crate.planner.operators.Eval;
+import io.crate.planner.operators.JoinPlan;
+import io.crate.planner.operators.LogicalPlan;
+import io.crate.planner.optimizer.Rule;
+import io.crate.planner.optimizer.costs.PlanStats;
+import io.crate.planner.optimizer.joinorder.JoinEnumerator;
+import io.crate.planner.optimizer.joinorder.JoinGraph;
+import io.crate.planner.optimizer.matcher.Captures;
+import io.crate.planner.optimizer.matcher.Pattern;
+import io.crate.sql.tree.JoinType;
+
+/**
+ * Replaces a tree of inner joins between three or more relations with the cheapest
+ * (left-deep or bushy) join tree found by the {@link JoinEnumerator}.
+ *
+ * <p>
+ * The joins are only reordered if the row counts of all relations are known and the new
+ * tree is estimated to be cheaper than the current one.
+ * </p>
+ */
+public class EnumerateJoinOrder implements Rule<JoinPlan> {
+
+    private final Pattern<JoinPlan> pattern = typeOf(JoinPlan.class)
+        .with(join -> join.joinType() == JoinType.INNER);
+
+    @Override
+    public Pattern<JoinPlan> pattern() {
+        return pattern;
+    }
+
+    @Override
+    public LogicalPlan apply(JoinPlan join,
+                             Captures captures,
+                             PlanStats planStats,
+                             TransactionContext txnCtx,
+                             NodeContext nodeCtx,
+                             Function<LogicalPlan, LogicalPlan> resolvePlan) {
+        if (join.getRelationNames().size() < 3) {
+            return null;
+        }
+        JoinGraph joinGraph = JoinGraph.create(join, resolvePlan);
+        if (joinGraph.hasCrossJoin() || joinGraph.size() < 3) {
+            return null;
+        }
+        JoinEnumerator enumerator = JoinEnumerator.create(joinGraph, planStats, nodeCtx, txnCtx);
+        if (enumerator == null) {
+            return null;
+        }
+        double currentCost = enumerator.cost(join, resolvePlan);
+        if (currentCost < 0) {
+            // Contains outer joins which cannot be reordered
+            return null;
+        }
+        JoinEnumerator.JoinTree joinTree = enumerator.enumerate(txnCtx.sessionSettings().joinDpThreshold());
+        if (joinTree == null || joinTree.cost() >= currentCost) {
+            return null;
+        }
+        return Eval.create(enumerator.build(joinTree), join.outputs());
+    }
+}
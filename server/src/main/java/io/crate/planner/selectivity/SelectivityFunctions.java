@@ -22,14 +22,23 @@
 package io.crate.planner.selectivity;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import org.jetbrains.annotations.Nullable;
 
+import io.crate.data.Input;
 import io.crate.data.Row;
 import io.crate.expression.operator.AndOperator;
 import io.crate.expression.operator.EqOperator;
+import io.crate.expression.operator.GtOperator;
+import io.crate.expression.operator.GteOperator;
+import io.crate.expression.operator.LikeOperators;
+import io.crate.expression.operator.LtOperator;
+import io.crate.expression.operator.LteOperator;
 import io.crate.expression.operator.Operators;
 import io.crate.expression.operator.OrOperator;
 import io.crate.expression.predicate.IsNullPredicate;
@@ -48,6 +57,7 @@ import io.crate.metadata.TransactionContext;
 import io.crate.statistics.ColumnStats;
 import io.crate.statistics.MostCommonValues;
 import io.crate.statistics.Stats;
+import io.crate.types.DataType;
 
 /**
  * Used to estimate the number of rows returned after applying a given query.
@@ -64,14 +74,34 @@ public class SelectivityFunctions {
      */
     private static final double MAGIC_SEL = 0.333;
 
+    /**
+     * Selectivity of a range condition if the lower and upper bound exclude each other.
+     */
+    private static final double DEFAULT_RANGE_SEL = 0.005;
+
+    private static final Set<String> RANGE_OPERATORS = Set.of(
+        GtOperator.NAME, GteOperator.NAME,
+        LtOperator.NAME, LteOperator.NAME
+    );
+
     public static long estimateNumRows(NodeContext nodeCtx,
                                        TransactionContext txnCtx,
                                        Stats stats,
                                        Symbol query,
                                        @Nullable Row params) {
+        return (long) (stats.numDocs() * estimateSelectivity(nodeCtx, txnCtx, stats, query, params));
+    }
+
+    /**
+     * @return the estimated fraction of rows matching the query, between 0.0 and 1.0
+     */
+    public static double estimateSelectivity(NodeContext nodeCtx,
+                                             TransactionContext txnCtx,
+                                             Stats stats,
+                                             Symbol query,
+                                             @Nullable Row params) {
         var estimator = new SelectivityEstimator(nodeCtx, txnCtx, stats, params);
-        Double selectivity = query.accept(estimator, null);
-        return (long) (stats.numDocs() * selectivity);
+        return query.accept(estimator, null);
     }
 
     static class SelectivityEstimator extends SymbolVisitor<Void, Double> {
@@ -110,13 +140,8 @@ public class SelectivityFunctions {
         @Override
         public Double visitFunction(Function function, Void context) {
             switch (function.name()) {
-                case AndOperator.NAME: {
-                    double selectivity = 1.0;
-                    for (Symbol argument : function.arguments()) {
-                        selectivity *= argument.accept(this, context);
-                    }
-                    return selectivity;
-                }
+                case AndOperator.NAME:
+                    return andSelectivity(function);
 
                 case OrOperator.NAME: {
                     double sel1 = 1.0;
@@ -141,6 +166,9 @@ public class SelectivityFunctions {
                     return isNullSelectivity(arguments.get(0), stats);
                 }
 
+                case LikeOperators.OP_LIKE:
+                    return likeSelectivity(nodeCtx, txnCtx, stats, function, params);
+
                 default:
                     if (Operators.COMPARISON_OPERATORS.contains(function.name())) {
                         return genericOpSelectivity(nodeCtx, txnCtx, stats, function, params);
@@ -149,9 +177,62 @@ public class SelectivityFunctions {
             }
         }
 
+        /**
+         * Multiplies the selectivity of the conjuncts, except for pairs of range conditions on the same column
+         * like {@code x >= 10 AND x < 20} (e.g. from {@code BETWEEN}). Those are not independent and the
+         * selectivity of the range is derived from both bounds.
+         * See PostgreSQL src/backend/optimizer/path/clausesel.c `clauselist_selectivity`
+         */
+        private double andSelectivity(Function and) {
+            double selectivity = 1.0;
+            Map<ColumnIdent, double[]> rangeBounds = new HashMap<>();
+            for (Symbol conjunct : AndOperator.split(and)) {
+                double conjunctSel = conjunct.accept(this, null);
+                ColumnIdent rangeColumn = rangeColumn(conjunct);
+                if (rangeColumn == null) {
+                    selectivity *= conjunctSel;
+                    continue;
+                }
+                // [lower bound selectivity, upper bound selectivity]
+                double[] bounds = rangeBounds.computeIfAbsent(rangeColumn, k -> new double[] {-1.0, -1.0});
+                int idx = switch (((Function) conjunct).name()) {
+                    case GtOperator.NAME, GteOperator.NAME -> 0;
+                    default -> 1;
+                };
+                bounds[idx] = bounds[idx] < 0.0 ? conjunctSel : Math.min(bounds[idx], conjunctSel);
+            }
+            for (Map.Entry<ColumnIdent, double[]> entry : rangeBounds.entrySet()) {
+                double lowerSel = entry.getValue()[0];
+                double upperSel = entry.getValue()[1];
+                if (lowerSel <= 0.0 || upperSel <= 0.0) {
+                    selectivity *= lowerSel < 0.0 ? upperSel : upperSel < 0.0 ? lowerSel : 0.0;
+                    continue;
+                }
+                // Both bounds exclude the null values, so they must be added back once
+                ColumnStats<?> columnStats = stats.getColumnStats(entry.getKey());
+                double rangeSel = lowerSel + upperSel - 1.0 + (columnStats == null ? 0.0 : columnStats.nullFraction());
+                if (rangeSel <= 0.0) {
+                    // Either the bounds exclude each other or the estimates are off by rounding errors
+                    rangeSel = rangeSel < -0.01 ? DEFAULT_RANGE_SEL : 1.0e-10;
+                }
+                selectivity *= rangeSel;
+            }
+            return selectivity;
+        }
+
+        @Nullable
+        private ColumnIdent rangeColumn(Symbol symbol) {
+            if (symbol instanceof Function function && RANGE_OPERATORS.contains(function.name())) {
+                List<Symbol> arguments = function.arguments();
+                Symbol rhs = arguments.get(1);
+                if (rhs instanceof Literal<?> || (rhs instanceof ParameterSymbol && params != null)) {
+                    return getColumn(arguments.get(0));
+                }
+            }
+            return null;
+        }
     }
 
-    @SuppressWarnings("unchecked")
     private static double genericOpSelectivity(NodeContext nodeCtx,
                                                TransactionContext txnCtx,
                                                Stats stats,
@@ -187,21 +268,194 @@ public class SelectivityFunctions {
         }
 
         ColumnStats<?> lhsStats = stats.getColumnStats(lhsColumn);
-        if (lhsStats == null || lhsStats.mostCommonValues().isEmpty()) {
+        if (lhsStats == null || (lhsStats.mostCommonValues().isEmpty() && lhsStats.histogram().size() < 2)) {
             return defaultSel;
         }
+        double histogramSel = -1.0;
+        if (RANGE_OPERATORS.contains(function.name())) {
+            double fractionBelow = histogramFractionBelow(lhsStats, rhsValue);
+            if (fractionBelow >= 0.0) {
+                histogramSel = switch (function.name()) {
+                    case LtOperator.NAME, LteOperator.NAME -> fractionBelow;
+                    default -> 1.0 - fractionBelow;
+                };
+            }
+        }
+        return mcvAndHistogramSelectivity(nodeCtx, txnCtx, function, lhsStats, new Object[] { null, rhsValue }, histogramSel);
+    }
 
+    /**
+     * Estimates the selectivity of {@code column LIKE 'prefix%'} using the histogram fraction of the range
+     * {@code [prefix, prefix + \uffff)}. Patterns without wildcards are treated like equality.
+     * See PostgreSQL src/backend/utils/adt/selfuncs.c `patternsel` and `prefix_selectivity`
+     */
+    private static double likeSelectivity(NodeContext nodeCtx,
+                                          TransactionContext txnCtx,
+                                          Stats stats,
+                                          Function like,
+                                          @Nullable Row params) {
+        List<Symbol> arguments = like.arguments();
+        ColumnIdent column = getColumn(arguments.get(0));
+        if (column == null) {
+            return MAGIC_SEL;
+        }
+        Object[] argValues = new Object[arguments.size()];
+        for (int i = 1; i < arguments.size(); i++) {
+            Symbol arg = arguments.get(i);
+            if (arg instanceof ParameterSymbol param && params != null) {
+                argValues[i] = params.get(param.index());
+            } else if (arg instanceof Literal<?> literal) {
+                argValues[i] = literal.value();
+            } else {
+                return MAGIC_SEL;
+            }
+        }
+        if (!(argValues[1] instanceof String pattern)) {
+            return argValues[1] == null ? 0.0 : MAGIC_SEL;
+        }
+        ColumnStats<?> columnStats = stats.getColumnStats(column);
+        if (columnStats == null) {
+            return MAGIC_SEL;
+        }
+        char escape = argValues.length > 2 && argValues[2] instanceof String str && str.length() == 1
+            ? str.charAt(0)
+            : LikeOperators.DEFAULT_ESCAPE;
+        StringBuilder prefix = new StringBuilder();
+        boolean exact = true;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == escape && i + 1 < pattern.length()) {
+                i++;
+                prefix.append(pattern.charAt(i));
+            } else if (c == '%' || c == '_') {
+                exact = false;
+                break;
+            } else {
+                prefix.append(c);
+            }
+        }
+        if (exact) {
+            return eqSelectivityFromValueAndStats(prefix.toString(), columnStats);
+        }
+        double histogramSel = -1.0;
+        if (prefix.length() > 0) {
+            String lower = prefix.toString();
+            double fractionBelowLower = histogramFractionBelow(columnStats, lower);
+            double fractionBelowUpper = histogramFractionBelow(columnStats, lower + Character.MAX_VALUE);
+            if (fractionBelowLower >= 0.0 && fractionBelowUpper >= 0.0) {
+                // A prefix match is at least as selective as an equality match
+                histogramSel = Math.max(fractionBelowUpper - fractionBelowLower, 1.0 / columnStats.approxDistinct());
+            }
+        }
+        return mcvAndHistogramSelectivity(nodeCtx, txnCtx, like, columnStats, argValues, histogramSel);
+    }
+
+    /**
+     * Evaluates the operator against the most common values and estimates the selectivity of the
+     * remaining population using {@code histogramSel}, or {@link #MAGIC_SEL} if it is negative.
+     * See PostgreSQL src/backend/utils/adt/selfuncs.c `scalarineqsel`
+     *
+     * @param argValues the values of the operator arguments, the first one is replaced with the most common values.
+     */
+    @SuppressWarnings("unchecked")
+    private static double mcvAndHistogramSelectivity(NodeContext nodeCtx,
+                                                     TransactionContext txnCtx,
+                                                     Function function,
+                                                     ColumnStats<?> columnStats,
+                                                     Object[] argValues,
+                                                     double histogramSel) {
         Scalar<Boolean, Object> operator = (Scalar<Boolean, Object>) nodeCtx.functions().getQualified(function);
-        MostCommonValues mostCommonValues = lhsStats.mostCommonValues();
-        double selectivity = 0.0;
+        Input<Object>[] inputs = new Input[argValues.length];
+        for (int i = 1; i < argValues.length; i++) {
+            Object value = argValues[i];
+            inputs[i] = () -> value;
+        }
+        MostCommonValues mostCommonValues = columnStats.mostCommonValues();
+        double mcvSel = 0.0;
+        double sumMcvFrequencies = 0.0;
         for (int i = 0; i < mostCommonValues.length(); i++) {
             Object value = mostCommonValues.value(i);
-            Boolean result = operator.evaluate(txnCtx, nodeCtx, () -> value, () -> rhsValue);
+            inputs[0] = () -> value;
+            Boolean result = operator.evaluate(txnCtx, nodeCtx, inputs);
             if (result != null && result) {
-                selectivity += mostCommonValues.frequency(i);
+                mcvSel += mostCommonValues.frequency(i);
+            }
+            sumMcvFrequencies += mostCommonValues.frequency(i);
+        }
+        double otherSel = clamp(1.0 - columnStats.nullFraction() - sumMcvFrequencies);
+        return clamp(mcvSel + otherSel * (histogramSel < 0.0 ? MAGIC_SEL : histogramSel));
+    }
+
+    /**
+     * Returns the fraction of the histogram population which is less than {@code value}
+     * or -1 if the column has no histogram or the value cannot be compared to the bounds.
+     * Within a bucket the position of the value is linearly interpolated.
+     * See PostgreSQL src/backend/utils/adt/selfuncs.c `ineq_histogram_selectivity`
+     */
+    static <T> double histogramFractionBelow(ColumnStats<T> columnStats, Object value) {
+        List<T> histogram = columnStats.histogram();
+        if (histogram.size() < 2) {
+            return -1.0;
+        }
+        DataType<T> type = columnStats.type();
+        T castValue;
+        try {
+            castValue = type.implicitCast(value);
+        } catch (ClassCastException | IllegalArgumentException e) {
+            return -1.0;
+        }
+        int last = histogram.size() - 1;
+        if (type.compare(castValue, histogram.get(0)) <= 0) {
+            return 0.0;
+        }
+        if (type.compare(castValue, histogram.get(last)) > 0) {
+            return 1.0;
+        }
+        // Find the bucket with histogram[lower] < value <= histogram[upper]
+        int lower = 0;
+        int upper = last;
+        while (upper - lower > 1) {
+            int mid = (lower + upper) >>> 1;
+            if (type.compare(histogram.get(mid), castValue) < 0) {
+                lower = mid;
+            } else {
+                upper = mid;
             }
         }
-        return selectivity;
+        double bucketFraction = bucketFraction(histogram.get(lower), histogram.get(upper), castValue);
+        return (lower + bucketFraction) / last;
+    }
+
+    private static double bucketFraction(Object lower, Object upper, Object value) {
+        if (lower instanceof Number lowerNum && upper instanceof Number upperNum && value instanceof Number num) {
+            double width = upperNum.doubleValue() - lowerNum.doubleValue();
+            if (width > 0.0) {
+                return clamp((num.doubleValue() - lowerNum.doubleValue()) / width);
+            }
+        } else if (lower instanceof String lowerStr && upper instanceof String upperStr && value instanceof String str) {
+            // Only the characters following the common prefix of the bounds carry information
+            int offset = 0;
+            int maxOffset = Math.min(lowerStr.length(), upperStr.length());
+            while (offset < maxOffset && lowerStr.charAt(offset) == upperStr.charAt(offset)) {
+                offset++;
+            }
+            double lowerScalar = stringToScalar(lowerStr, offset);
+            double width = stringToScalar(upperStr, offset) - lowerScalar;
+            if (width > 0.0) {
+                return clamp((stringToScalar(str, offset) - lowerScalar) / width);
+            }
+        }
+        return 0.5;
+    }
+
+    private static double stringToScalar(String value, int offset) {
+        double scalar = 0.0;
+        double base = 1.0;
+        for (int i = offset; i < Math.min(value.length(), offset + 3); i++) {
+            base *= Character.MAX_VALUE + 1;
+            scalar += value.charAt(i) / base;
+        }
+        return scalar;
     }
 
     private static double isNullSelectivity(Symbol arg, Stats stats) {
@@ -246,25 +500,48 @@ public class SelectivityFunctions {
                 return 1.0 / lhsStats.approxDistinct();
             }
 
-            MostCommonValues lhsMcv = lhsStats.mostCommonValues();
-            MostCommonValues rhsMcv = rhsStats.mostCommonValues();
+            return eqJoinSelectivity(lhsStats, rhsStats);
+        }
 
-            if (!lhsMcv.isEmpty() && !rhsMcv.isEmpty()) {
-                return selectivityFromMvcMatches(lhsStats, rhsStats);
-            }
+        return 1.0 / lhsStats.approxDistinct();
+    }
 
-            double nullfrac1 = lhsStats.nullFraction();
-            double nullfrac2 = rhsStats.nullFraction();
+    /**
+     * Estimates the selectivity of the equi-join condition {@code lhs = rhs}
+     * where the columns are outputs of different relations.
+     */
+    public static double eqJoinSelectivity(Symbol lhs, Stats lhsStats, Symbol rhs, Stats rhsStats) {
+        ColumnIdent lhsColumn = getColumn(lhs);
+        ColumnIdent rhsColumn = getColumn(rhs);
+        ColumnStats<?> lhsColumnStats = lhsColumn == null ? null : lhsStats.getColumnStats(lhsColumn);
+        ColumnStats<?> rhsColumnStats = rhsColumn == null ? null : rhsStats.getColumnStats(rhsColumn);
+        if (lhsColumnStats == null && rhsColumnStats == null) {
+            return DEFAULT_EQ_SEL;
+        } else if (lhsColumnStats == null) {
+            return 1.0 / Math.max(rhsColumnStats.approxDistinct(), 1.0);
+        } else if (rhsColumnStats == null) {
+            return 1.0 / Math.max(lhsColumnStats.approxDistinct(), 1.0);
+        }
+        return eqJoinSelectivity(lhsColumnStats, rhsColumnStats);
+    }
 
-            double selectivity = (1.0 - nullfrac1) * (1.0 - nullfrac2);
-            if (lhsStats.approxDistinct() > rhsStats.approxDistinct()) {
-                return selectivity / lhsStats.approxDistinct();
-            } else {
-                return selectivity / rhsStats.approxDistinct();
-            }
+    private static double eqJoinSelectivity(ColumnStats<?> lhsStats, ColumnStats<?> rhsStats) {
+        MostCommonValues lhsMcv = lhsStats.mostCommonValues();
+        MostCommonValues rhsMcv = rhsStats.mostCommonValues();
+
+        if (!lhsMcv.isEmpty() && !rhsMcv.isEmpty()) {
+            return selectivityFromMvcMatches(lhsStats, rhsStats);
         }
 
-        return 1.0 / lhsStats.approxDistinct();
+        double nullfrac1 = lhsStats.nullFraction();
+        double nullfrac2 = rhsStats.nullFraction();
+
+        double selectivity = (1.0 - nullfrac1) * (1.0 - nullfrac2);
+        if (lhsStats.approxDistinct() > rhsStats.approxDistinct()) {
+            return selectivity / lhsStats.approxDistinct();
+        } else {
+            return selectivity / rhsStats.approxDistinct();
+        }
     }
 
     private static double clamp(double value) {
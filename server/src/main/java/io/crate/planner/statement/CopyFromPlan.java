@@ -28,6 +28,7 @@ import static io.crate.analyze.CopyStatementSettings.settingAsEnum;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
@@ -57,9 +58,12 @@ import io.crate.common.annotations.VisibleForTesting;
 import io.crate.common.collections.Lists2;
 import io.crate.data.Row;
 import io.crate.data.RowConsumer;
+import io.crate.exceptions.ColumnUnknownException;
+import io.crate.exceptions.UnsupportedFeatureException;
 import io.crate.execution.dsl.phases.FileUriCollectPhase;
 import io.crate.execution.dsl.phases.NodeOperationTree;
 import io.crate.execution.dsl.projection.AbstractIndexWriterProjection;
+import io.crate.execution.dsl.projection.ColumnIndexWriterProjection;
 import io.crate.execution.dsl.projection.MergeCountProjection;
 import io.crate.execution.dsl.projection.Projection;
 import io.crate.execution.dsl.projection.SourceIndexWriterProjection;
@@ -67,11 +71,13 @@ import io.crate.execution.dsl.projection.SourceIndexWriterReturnSummaryProjectio
 import io.crate.execution.dsl.projection.builder.InputColumns;
 import io.crate.execution.engine.JobLauncher;
 import io.crate.execution.engine.NodeOperationTreeGenerator;
+import io.crate.execution.engine.collect.files.StdinInputs;
 import io.crate.execution.engine.pipeline.LimitAndOffset;
 import io.crate.expression.reference.file.SourceLineNumberExpression;
 import io.crate.expression.reference.file.SourceParsingFailureExpression;
 import io.crate.expression.reference.file.SourceUriExpression;
 import io.crate.expression.reference.file.SourceUriFailureExpression;
+import io.crate.expression.symbol.DynamicReference;
 import io.crate.expression.symbol.InputColumn;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
@@ -194,7 +200,7 @@ public final class CopyFromPlan implements Plan {
         var boundedURI = validateAndConvertToLiteral(eval.apply(copyFrom.uri()));
         var header = settings.getAsBoolean("header", true);
         var targetColumns = copyFrom.targetColumns();
-        if (!header && copyFrom.targetColumns().isEmpty()) {
+        if (!header && copyFrom.targetColumns().isEmpty() && !inputFormat.isColumnar()) {
             targetColumns = Lists2.map(copyFrom.tableInfo().columns(), Reference::toString);
         }
 
@@ -243,11 +249,107 @@ public final class CopyFromPlan implements Plan {
             .map(table::getReference)
             .collect(Collectors.toList());
 
-        List<Symbol> toCollect = getSymbolsRequiredForShardIdCalc(
+        boolean returnSummary = copyFrom instanceof AnalyzedCopyFromReturnSummary;
+        boolean failFast = boundedCopyFrom.settings().getAsBoolean("fail_fast", false);
+        FileUriCollectPhase.InputFormat inputFormat = boundedCopyFrom.inputFormat();
+        if (inputFormat.isColumnar() && isStdin(boundedCopyFrom.uri())) {
+            throw new UnsupportedFeatureException(String.format(
+                Locale.ENGLISH,
+                "COPY FROM STDIN does not support the %s format",
+                inputFormat.name().toLowerCase(Locale.ENGLISH)));
+        }
+        // COPY FROM STDIN in the text or binary format passes the decoded values of the rows instead of JSON lines,
+        // see CopyIn
+        boolean decodedStdinRows = inputFormat == FileUriCollectPhase.InputFormat.JSON && isStdin(boundedCopyFrom.uri());
+        List<Symbol> toCollect = new ArrayList<>();
+        Projection indexWriterProjection;
+        if ((inputFormat.isColumnar() || decodedStdinRows) && !returnSummary && !failFast) {
+            // RETURN SUMMARY and fail_fast require the failures of each row, which are reported by the source projections
+            indexWriterProjection = columnIndexWriterProjection(
+                table,
+                partitionIdent,
+                boundedCopyFrom,
+                primaryKeyRefs,
+                clusteredBy,
+                decodedStdinRows,
+                toCollect
+            );
+        } else {
+            indexWriterProjection = sourceIndexWriterProjection(
+                copyFrom,
+                boundedCopyFrom,
+                table,
+                partitionIdent,
+                partitionedByNames,
+                primaryKeyRefs,
+                clusteredBy,
+                returnSummary || failFast,
+                toCollect
+            );
+        }
+
+        // if there are partitionValues (we've had a PARTITION clause in the statement)
+        // we need to use the calculated partition values because the partition columns are likely NOT in the data being read
+        // the partitionedBy-inputColumns created for the projection are still valid because the positions are not changed
+        if (partitionValues != null) {
+            rewriteToCollectToUsePartitionValues(table.partitionedByColumns(), partitionValues, toCollect);
+        }
+
+        FileUriCollectPhase collectPhase = new FileUriCollectPhase(
+            context.jobId(),
+            context.nextExecutionPhaseId(),
+            "copyFrom",
+            isStdin(boundedCopyFrom.uri())
+                // the lines are sent by the client connected to this node
+                ? List.of(allNodes.getLocalNodeId())
+                : getExecutionNodes(
+                    allNodes,
+                    boundedCopyFrom.settings().getAsInt("num_readers", allNodes.getSize()),
+                    boundedCopyFrom.nodePredicate()),
+            boundedCopyFrom.uri(),
+            boundedCopyFrom.targetColumns(),
+            toCollect,
+            Collections.emptyList(),
+            COMPRESSION_SETTING.getOrNull(boundedCopyFrom.settings()),
+            boundedCopyFrom.settings().getAsBoolean("shared", null),
+            CopyFromParserProperties.of(boundedCopyFrom.settings()),
+            inputFormat,
+            boundedCopyFrom.settings()
+        );
+
+        Collect collect = new Collect(collectPhase, LimitAndOffset.NO_LIMIT, 0, 1, -1, null);
+        // add the projection to the plan to ensure that the outputs are correctly set to the projection outputs
+        collect.addProjection(indexWriterProjection);
+
+        List<Projection> handlerProjections;
+        if (returnSummary) {
+            handlerProjections = Collections.emptyList();
+        } else {
+            handlerProjections = List.of(MergeCountProjection.INSTANCE);
+        }
+        return Merge.ensureOnHandler(collect, context, handlerProjections);
+    }
+
+    /**
+     * Creates the projection to index the raw source ({@code _raw} or {@code _doc}) of the rows.
+     *
+     * @param collectFailures if true the uri, line number and failures of each row are collected as well
+     *                        to report them (RETURN SUMMARY) or to stop on the first failure (fail_fast).
+     */
+    private static SourceIndexWriterProjection sourceIndexWriterProjection(AnalyzedCopyFrom copyFrom,
+                                                                           BoundCopyFrom boundedCopyFrom,
+                                                                           DocTableInfo table,
+                                                                           @Nullable String partitionIdent,
+                                                                           List<String> partitionedByNames,
+                                                                           List<Reference> primaryKeyRefs,
+                                                                           @Nullable ColumnIdent clusteredBy,
+                                                                           boolean collectFailures,
+                                                                           List<Symbol> toCollect) {
+        toCollect.addAll(getSymbolsRequiredForShardIdCalc(
             primaryKeyRefs,
             table.partitionedByColumns(),
             clusteredBy == null ? null : table.getReference(clusteredBy)
-        );
+        ));
         Reference rawOrDoc = rawOrDoc(table, partitionIdent);
         final int rawOrDocIdx = toCollect.size();
         toCollect.add(rawOrDoc);
@@ -261,11 +363,8 @@ public final class CopyFromPlan implements Plan {
             clusteredByInputCol = InputColumns.create(table.getReference(clusteredBy), sourceSymbols);
         }
 
-        SourceIndexWriterProjection sourceIndexWriterProjection;
         List<? extends Symbol> projectionOutputs = AbstractIndexWriterProjection.OUTPUTS;
-        boolean returnSummary = copyFrom instanceof AnalyzedCopyFromReturnSummary;
-        boolean failFast = boundedCopyFrom.settings().getAsBoolean("fail_fast", false);
-        if (returnSummary || failFast) {
+        if (collectFailures) {
             final InputColumn sourceUriSymbol = new InputColumn(toCollect.size(), DataTypes.STRING);
             toCollect.add(SourceUriExpression.getReferenceForRelation(table.ident()));
 
@@ -278,12 +377,12 @@ public final class CopyFromPlan implements Plan {
             final InputColumn sourceParsingFailureSymbol = new InputColumn(toCollect.size(), DataTypes.STRING);
             toCollect.add(SourceParsingFailureExpression.getReferenceForRelation(table.ident()));
 
-            if (returnSummary) {
+            if (copyFrom instanceof AnalyzedCopyFromReturnSummary) {
                 List<? extends Symbol> fields = ((AnalyzedCopyFromReturnSummary) copyFrom).outputs();
                 projectionOutputs = InputColumns.create(fields, new InputColumns.SourceSymbols(fields));
             }
 
-            sourceIndexWriterProjection = new SourceIndexWriterReturnSummaryProjection(
+            return new SourceIndexWriterReturnSummaryProjection(
                 table.ident(),
                 partitionIdent,
                 table.getReference(DocSysColumns.RAW),
@@ -303,7 +402,7 @@ public final class CopyFromPlan implements Plan {
                 lineNumberSymbol
             );
         } else {
-            sourceIndexWriterProjection = new SourceIndexWriterProjection(
+            return new SourceIndexWriterProjection(
                 table.ident(),
                 partitionIdent,
                 table.getReference(DocSysColumns.RAW),
@@ -319,44 +418,103 @@ public final class CopyFromPlan implements Plan {
                 table.isPartitioned() // autoCreateIndices
             );
         }
+    }
 
-        // if there are partitionValues (we've had a PARTITION clause in the statement)
-        // we need to use the calculated partition values because the partition columns are likely NOT in the data being read
-        // the partitionedBy-inputColumns created for the projection are still valid because the positions are not changed
-        if (partitionValues != null) {
-            rewriteToCollectToUsePartitionValues(table.partitionedByColumns(), partitionValues, toCollect);
+    /**
+     * Creates the projection to insert the values of the target columns, like {@code INSERT INTO .. (SELECT ..)}.
+     *
+     * The rows of columnar formats and the decoded rows of COPY FROM STDIN are not read as JSON objects, but as
+     * typed values. Only the target columns and the symbols required to route the rows are collected, in that order.
+     * Target columns missing from a file are imported as NULL.
+     */
+    private static ColumnIndexWriterProjection columnIndexWriterProjection(DocTableInfo table,
+                                                                           @Nullable String partitionIdent,
+                                                                           BoundCopyFrom boundedCopyFrom,
+                                                                           List<Reference> primaryKeyRefs,
+                                                                           @Nullable ColumnIdent clusteredBy,
+                                                                           boolean stdin,
+                                                                           List<Symbol> toCollect) {
+        List<Reference> targetColumns = columnarTargetColumns(table, boundedCopyFrom.targetColumns(), stdin);
+        toCollect.addAll(targetColumns);
+        List<Symbol> routingSymbols = getSymbolsRequiredForShardIdCalc(
+            primaryKeyRefs,
+            table.partitionedByColumns(),
+            clusteredBy == null ? null : table.getReference(clusteredBy)
+        );
+        for (Symbol symbol : routingSymbols) {
+            if (!toCollect.contains(symbol)) {
+                toCollect.add(symbol);
+            }
         }
+        InputColumns.SourceSymbols sourceSymbols = new InputColumns.SourceSymbols(toCollect);
 
-        FileUriCollectPhase collectPhase = new FileUriCollectPhase(
-            context.jobId(),
-            context.nextExecutionPhaseId(),
-            "copyFrom",
-            getExecutionNodes(
-                allNodes,
-                boundedCopyFrom.settings().getAsInt("num_readers", allNodes.getSize()),
-                boundedCopyFrom.nodePredicate()),
-            boundedCopyFrom.uri(),
-            boundedCopyFrom.targetColumns(),
-            toCollect,
-            Collections.emptyList(),
-            COMPRESSION_SETTING.getOrNull(boundedCopyFrom.settings()),
-            boundedCopyFrom.settings().getAsBoolean("shared", null),
-            CopyFromParserProperties.of(boundedCopyFrom.settings()),
-            boundedCopyFrom.inputFormat(),
-            boundedCopyFrom.settings()
+        // Overwriting a duplicate updates all target columns except the ones used for routing
+        Map<Reference, Symbol> onDuplicateKeyAssignments = new HashMap<>();
+        boolean overwriteDuplicates = boundedCopyFrom.settings().getAsBoolean("overwrite_duplicates", false);
+        if (overwriteDuplicates) {
+            for (int i = 0; i < targetColumns.size(); i++) {
+                Reference ref = targetColumns.get(i);
+                ColumnIdent column = ref.column();
+                if (!table.primaryKey().contains(column)
+                    && !table.partitionedBy().contains(column)
+                    && !column.equals(clusteredBy)) {
+                    onDuplicateKeyAssignments.put(ref, new InputColumn(i, ref.valueType()));
+                }
+            }
+        }
+        return new ColumnIndexWriterProjection(
+            table.ident(),
+            partitionIdent,
+            table.primaryKey(),
+            targetColumns,
+            overwriteDuplicates && onDuplicateKeyAssignments.isEmpty(), // ignoreDuplicateKeys
+            onDuplicateKeyAssignments,
+            InputColumns.create(primaryKeyRefs, sourceSymbols),
+            InputColumns.create(table.partitionedByColumns(), sourceSymbols),
+            clusteredBy,
+            clusteredBy == null ? null : InputColumns.create(table.getReference(clusteredBy), sourceSymbols),
+            boundedCopyFrom.settings(),
+            table.isPartitioned(), // autoCreateIndices
+            AbstractIndexWriterProjection.OUTPUTS,
+            List.of()
         );
+    }
 
-        Collect collect = new Collect(collectPhase, LimitAndOffset.NO_LIMIT, 0, 1, -1, null);
-        // add the projection to the plan to ensure that the outputs are correctly set to the projection outputs
-        collect.addProjection(sourceIndexWriterProjection);
-
-        List<Projection> handlerProjections;
-        if (returnSummary) {
-            handlerProjections = Collections.emptyList();
-        } else {
-            handlerProjections = List.of(MergeCountProjection.INSTANCE);
+    /**
+     * @return the references of the given target columns,
+     *         or all top level columns which are not generated if no target columns are given.
+     *         Unknown columns of COPY FROM STDIN are added as text columns if the table allows it, as CopyIn decodes
+     *         their values as text.
+     */
+    private static List<Reference> columnarTargetColumns(DocTableInfo table, List<String> targetColumns, boolean stdin) {
+        if (targetColumns.isEmpty()) {
+            return table.columns().stream()
+                .filter(ref -> !(ref instanceof GeneratedReference))
+                .toList();
         }
-        return Merge.ensureOnHandler(collect, context, handlerProjections);
+        List<Reference> refs = new ArrayList<>(targetColumns.size());
+        for (String targetColumn : targetColumns) {
+            ColumnIdent column = ColumnIdent.fromPath(targetColumn);
+            if (!column.isRoot()) {
+                throw new UnsupportedFeatureException(String.format(
+                    Locale.ENGLISH,
+                    "Target column \"%s\" is not supported, only top level columns can be imported from %s",
+                    column.sqlFqn(),
+                    stdin ? "STDIN" : "columnar formats"));
+            }
+            Reference ref = table.getReference(column);
+            if (ref == null) {
+                if (!stdin) {
+                    throw new ColumnUnknownException(column, table.ident());
+                }
+                // fails for strict tables
+                DynamicReference dynamicRef = table.getDynamic(column, true, true);
+                dynamicRef.valueType(DataTypes.STRING);
+                ref = dynamicRef;
+            }
+            refs.add(ref);
+        }
+        return refs;
     }
 
     private static void rewriteToCollectToUsePartitionValues(List<Reference> partitionedByColumns,
@@ -438,6 +596,12 @@ public final class CopyFromPlan implements Plan {
         return nodes;
     }
 
+    private static boolean isStdin(Symbol uri) {
+        return uri instanceof Literal<?> literal
+            && literal.value() instanceof String value
+            && StdinInputs.isStdin(value);
+    }
+
     private static Symbol validateAndConvertToLiteral(Object uri) {
         if (uri instanceof String) {
             return Literal.of(DataTypes.STRING.sanitizeValue(uri));
@@ -21,7 +21,7 @@
 
 package io.crate.planner.statement;
 
-import static io.crate.analyze.CopyStatementSettings.COMPRESSION_SETTING;
+import static io.crate.analyze.CopyStatementSettings.COPY_TO_COMPRESSION_SETTING;
 import static io.crate.analyze.CopyStatementSettings.OUTPUT_FORMAT_SETTING;
 import static io.crate.analyze.CopyStatementSettings.settingAsEnum;
 
@@ -212,6 +212,13 @@ public final class CopyToPlan implements Plan {
             table
         );
 
+        Settings settings = Settings.builder().put(copyTo.properties().map(eval)).build();
+
+        WriterProjection.CompressionType compressionType =
+            settingAsEnum(WriterProjection.CompressionType.class, COPY_TO_COMPRESSION_SETTING.get(settings));
+        WriterProjection.OutputFormat outputFormat =
+            settingAsEnum(WriterProjection.OutputFormat.class, OUTPUT_FORMAT_SETTING.get(settings));
+
         List<Symbol> outputs = new ArrayList<>();
         Map<ColumnIdent, Symbol> overwrites = null;
         boolean columnsDefined = false;
@@ -224,6 +231,12 @@ public final class CopyToPlan implements Plan {
                 outputs.add(DocReferences.toSourceLookup(symbol));
             }
             columnsDefined = true;
+        } else if (outputFormat == WriterProjection.OutputFormat.PARQUET) {
+            // parquet files have a schema, so each top level column is written as a separate column
+            for (Reference column : table.columns()) {
+                outputNames.add(column.column().sqlFqn());
+                outputs.add(DocReferences.toSourceLookup(column));
+            }
         } else {
             Symbol toCollect;
             if (table.isPartitioned() && partitions.isEmpty()) {
@@ -249,16 +262,13 @@ public final class CopyToPlan implements Plan {
             outputs = List.of(toCollect);
         }
 
-        Settings settings = Settings.builder().put(copyTo.properties().map(eval)).build();
-
-        WriterProjection.CompressionType compressionType =
-            settingAsEnum(WriterProjection.CompressionType.class, COMPRESSION_SETTING.get(settings));
-        WriterProjection.OutputFormat outputFormat =
-            settingAsEnum(WriterProjection.OutputFormat.class, OUTPUT_FORMAT_SETTING.get(settings));
-
         if (!columnsDefined && outputFormat == WriterProjection.OutputFormat.JSON_ARRAY) {
             throw new UnsupportedFeatureException("Output format not supported without specifying columns.");
         }
+        if (compressionType == WriterProjection.CompressionType.SNAPPY
+            && outputFormat != WriterProjection.OutputFormat.PARQUET) {
+            throw new UnsupportedFeatureException("Compression 'snappy' is only supported for the parquet format.");
+        }
 
         WhereClause whereClause = new WhereClause(copyTo.whereClause(), partitions, Collections.emptySet());
         return new BoundCopyTo(
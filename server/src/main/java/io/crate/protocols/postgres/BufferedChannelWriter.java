@@ -0,0 +1,115 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.jetbrains.annotations.Nullable;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+
+/**
+ * Buffers the messages of many rows and writes them to the channel once they exceed {@link #WRITE_THRESHOLD_BYTES}.
+ * <p>
+ * The producer of the rows is paused via {@link #readyForMoreRows()} while the channel isn't writable.
+ * </p>
+ */
+final class BufferedChannelWriter {
+
+    static final int WRITE_THRESHOLD_BYTES = 64 * 1024;
+
+    private final Channel channel;
+
+    @Nullable
+    private ByteBuf buffer;
+
+    @Nullable
+    private ChannelFuture pendingWrite;
+
+    BufferedChannelWriter(Channel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * @return the buffer to encode the next message into
+     */
+    ByteBuf buffer() {
+        ByteBuf buf = buffer;
+        if (buf == null) {
+            buf = channel.alloc().buffer(WRITE_THRESHOLD_BYTES);
+            buffer = buf;
+        }
+        return buf;
+    }
+
+    /**
+     * Writes and flushes the buffered messages if they exceed the threshold.
+     * Must be called after a row has been encoded.
+     */
+    void writeIfFull() {
+        ByteBuf buf = buffer;
+        if (buf != null && buf.readableBytes() >= WRITE_THRESHOLD_BYTES) {
+            ChannelFuture write = writeBuffered();
+            channel.flush();
+            if (!channel.isWritable()) {
+                pendingWrite = write;
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered messages to the channel without flushing it.
+     *
+     * @return the future of the write or null if there were no buffered messages.
+     */
+    @Nullable
+    ChannelFuture writeBuffered() {
+        ByteBuf buf = buffer;
+        if (buf == null) {
+            return null;
+        }
+        buffer = null;
+        if (buf.isReadable()) {
+            return channel.write(buf);
+        }
+        buf.release();
+        return null;
+    }
+
+    /**
+     * @return a future which completes once the last written rows are sent if the channel wasn't writable after
+     *         the write, otherwise null.
+     */
+    @Nullable
+    CompletableFuture<?> readyForMoreRows() {
+        ChannelFuture write = pendingWrite;
+        if (write == null) {
+            return null;
+        }
+        pendingWrite = null;
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        write.addListener(f -> ready.complete(null));
+        return ready;
+    }
+}
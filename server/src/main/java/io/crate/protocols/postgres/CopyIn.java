@@ -0,0 +1,473 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import io.crate.execution.engine.collect.files.StdinInput;
+import io.crate.metadata.GeneratedReference;
+import io.crate.metadata.RelationInfo;
+import io.crate.metadata.Reference;
+import io.crate.metadata.ReferenceIdent;
+import io.crate.metadata.SimpleReference;
+import io.crate.protocols.postgres.CopyOptions.Format;
+import io.crate.protocols.postgres.types.PGType;
+import io.crate.protocols.postgres.types.PGTypes;
+import io.crate.sql.tree.BooleanLiteral;
+import io.crate.sql.tree.CopyFrom;
+import io.crate.sql.tree.Expression;
+import io.crate.sql.tree.GenericProperties;
+import io.crate.sql.tree.StringLiteral;
+import io.crate.types.DataTypes;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+
+/**
+ * The copy-in sub-protocol of a {@code COPY ... FROM STDIN} statement:
+ *
+ * <pre>
+ *      Client                              Server
+ *
+ *          |  Q (COPY ... FROM STDIN)         |
+ *          |--------------------------------->|
+ *          |                                  |
+ *          |     CopyInResponse               |
+ *          |<---------------------------------|
+ *          |                                  |
+ *          |  CopyData                        |
+ *          |--------------------------------->|
+ *          |  ...                             |
+ *          |  CopyDone | CopyFail             |
+ *          |--------------------------------->|
+ *          |                                  |
+ *          |     CommandComplete |            |
+ *          |     ErrorResponse                |
+ *          |<---------------------------------|
+ *          |     ReadyForQuery                |
+ *          |<---------------------------------|
+ * </pre>
+ *
+ * <p>
+ * The statement is executed as {@code COPY ... FROM 'stdin:///<id>'} which reads the lines of a {@link StdinInput}.
+ * The CopyData messages are split into rows which are added to the input: Rows of the {@code csv} format are
+ * passed on as lines, rows of the {@code text} and {@code binary} format are decoded using the types of the
+ * target columns and passed on as values, which are imported without being converted to JSON.
+ * </p>
+ *
+ * <p>
+ * If the input buffers too many lines, the channel stops reading until the lines have been consumed.
+ * </p>
+ */
+final class CopyIn {
+
+    private final Channel channel;
+    private final StdinInput input;
+    private final Format format;
+    private final byte delimiter;
+    private final byte[] nullString;
+    private final String[] columns;
+    private final PGType<?>[] types;
+    private final ByteBuf pending = Unpooled.buffer();
+
+    private byte[] field = new byte[64];
+    private int fieldLength = 0;
+    private boolean binaryHeaderRead = false;
+    private boolean endOfData = false;
+    private boolean accepting = true;
+    private long rowNumber = 0;
+
+    private volatile boolean closed = false;
+
+    CopyIn(Channel channel, StdinInput input, CopyOptions options, List<Reference> targetColumns) {
+        this.channel = channel;
+        this.input = input;
+        this.format = options.format();
+        this.delimiter = (byte) options.delimiter();
+        this.nullString = options.nullString().getBytes(StandardCharsets.UTF_8);
+        this.columns = new String[targetColumns.size()];
+        this.types = new PGType<?>[targetColumns.size()];
+        for (int i = 0; i < columns.length; i++) {
+            Reference column = targetColumns.get(i);
+            columns[i] = column.column().sqlFqn();
+            types[i] = PGTypes.get(column.valueType());
+        }
+    }
+
+    /**
+     * Rewrites the statement to read the lines of the given input.
+     */
+    static CopyFrom<Expression> bindToInput(CopyFrom<Expression> copyFrom, URI inputUri, CopyOptions options) {
+        if (copyFrom.isReturnSummary()) {
+            throw new UnsupportedOperationException("RETURN SUMMARY is not supported for COPY FROM STDIN");
+        }
+        Map<String, Expression> properties = options.otherProperties();
+        if (properties.containsKey("wait_for_completion")) {
+            throw new IllegalArgumentException("The wait_for_completion option is not supported for COPY FROM STDIN");
+        }
+        if (options.format() == Format.CSV) {
+            properties.put("format", new StringLiteral("csv"));
+            properties.put("header", BooleanLiteral.fromObject(options.header()));
+            properties.put("delimiter", new StringLiteral(String.valueOf(options.delimiter())));
+            if (!options.nullString().isEmpty()) {
+                throw new IllegalArgumentException(
+                    "The csv format of COPY FROM STDIN only supports unquoted empty strings as null values");
+            }
+            properties.putIfAbsent("empty_string_as_null", BooleanLiteral.TRUE_LITERAL);
+        } else {
+            properties.put("format", new StringLiteral("json"));
+        }
+        return new CopyFrom<>(
+            copyFrom.table(),
+            copyFrom.columns(),
+            new StringLiteral(inputUri.toString()),
+            new GenericProperties<>(properties),
+            false
+        );
+    }
+
+    /**
+     * @return the columns of the rows sent by the client. All columns of the table, except generated columns, if
+     *         the statement doesn't specify the columns. Unknown columns are decoded as text.
+     */
+    static List<Reference> targetColumns(List<String> columns, RelationInfo table) {
+        List<Reference> targetColumns = new ArrayList<>();
+        if (columns.isEmpty()) {
+            for (Reference column : table.columns()) {
+                if (!(column instanceof GeneratedReference)) {
+                    targetColumns.add(column);
+                }
+            }
+            return targetColumns;
+        }
+        for (String name : columns) {
+            Reference column = null;
+            for (Reference ref : table.columns()) {
+                if (ref.column().sqlFqn().equals(name)) {
+                    column = ref;
+                    break;
+                }
+            }
+            if (column == null) {
+                column = new SimpleReference(
+                    new ReferenceIdent(table.ident(), name),
+                    table.rowGranularity(),
+                    DataTypes.STRING,
+                    0,
+                    null
+                );
+            }
+            targetColumns.add(column);
+        }
+        return targetColumns;
+    }
+
+    /**
+     * Handles a CopyData message
+     */
+    void data(ByteBuf data) {
+        if (closed || endOfData) {
+            return;
+        }
+        try {
+            pending.writeBytes(data);
+            accepting = true;
+            decode(false);
+            if (!accepting) {
+                channel.config().setAutoRead(false);
+                input.drained().whenComplete((result, err) -> channel.config().setAutoRead(true));
+            }
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    /**
+     * Handles a CopyDone message
+     */
+    void done() {
+        if (closed) {
+            return;
+        }
+        try {
+            decode(true);
+            input.finish();
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    /**
+     * Handles a CopyFail message
+     */
+    void fail(String message) {
+        fail(new IllegalStateException("COPY FROM STDIN failed: " + message));
+    }
+
+    private void fail(Throwable t) {
+        endOfData = true;
+        pending.clear();
+        input.kill(t);
+    }
+
+    /**
+     * Stops the copy-in once the statement completed.
+     * Further CopyData messages are discarded and the channel resumes reading if it was paused.
+     */
+    void close() {
+        closed = true;
+        input.kill(new IllegalStateException("COPY FROM STDIN has been completed"));
+        channel.config().setAutoRead(true);
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    private void decode(boolean last) throws IOException {
+        if (format == Format.BINARY) {
+            decodeBinary(last);
+        } else {
+            decodeLines(last);
+        }
+        pending.discardReadBytes();
+    }
+
+    private void decodeLines(boolean last) throws IOException {
+        while (!endOfData && pending.isReadable()) {
+            int start = pending.readerIndex();
+            int newLine = pending.indexOf(start, pending.writerIndex(), (byte) '\n');
+            int end;
+            if (newLine < 0) {
+                if (!last) {
+                    return;
+                }
+                end = pending.writerIndex();
+                pending.readerIndex(end);
+            } else {
+                end = newLine;
+                pending.readerIndex(newLine + 1);
+            }
+            if (end > start && pending.getByte(end - 1) == '\r') {
+                end--;
+            }
+            ByteBuf line = pending.slice(start, end - start);
+            if (format == Format.CSV) {
+                if (line.isReadable()) {
+                    add(line.toString(StandardCharsets.UTF_8));
+                }
+            } else if (line.readableBytes() == 2 && line.getByte(0) == '\\' && line.getByte(1) == '.') {
+                // end-of-data marker of the text format
+                endOfData = true;
+            } else {
+                add(decodeTextRow(line), end - start);
+            }
+        }
+    }
+
+    private Object[] decodeTextRow(ByteBuf line) {
+        rowNumber++;
+        Object[] values = new Object[types.length];
+        int column = 0;
+        int fieldStart = line.readerIndex();
+        int end = line.writerIndex();
+        fieldLength = 0;
+        int i = fieldStart;
+        while (true) {
+            if (i == end || line.getByte(i) == delimiter) {
+                if (column == types.length) {
+                    throw invalidNumberOfColumns(column + 1);
+                }
+                values[column] = isNull(line, fieldStart, i)
+                    ? null
+                    : types[column].readTextValue(Unpooled.wrappedBuffer(field, 0, fieldLength), fieldLength);
+                column++;
+                fieldLength = 0;
+                if (i == end) {
+                    break;
+                }
+                i++;
+                fieldStart = i;
+                continue;
+            }
+            byte b = line.getByte(i++);
+            if (b != '\\' || i == end) {
+                appendToField(b);
+                continue;
+            }
+            byte escaped = line.getByte(i++);
+            switch (escaped) {
+                case 'b' -> appendToField((byte) '\b');
+                case 'f' -> appendToField((byte) '\f');
+                case 'n' -> appendToField((byte) '\n');
+                case 'r' -> appendToField((byte) '\r');
+                case 't' -> appendToField((byte) '\t');
+                case 'v' -> appendToField((byte) 0x0B);
+                case 'x' -> {
+                    int value = 0;
+                    int digits = 0;
+                    while (digits < 2 && i < end && Character.digit(line.getByte(i), 16) >= 0) {
+                        value = value * 16 + Character.digit(line.getByte(i), 16);
+                        digits++;
+                        i++;
+                    }
+                    appendToField(digits == 0 ? (byte) 'x' : (byte) value);
+                }
+                case '0', '1', '2', '3', '4', '5', '6', '7' -> {
+                    int value = escaped - '0';
+                    int digits = 1;
+                    while (digits < 3 && i < end && line.getByte(i) >= '0' && line.getByte(i) <= '7') {
+                        value = value * 8 + (line.getByte(i) - '0');
+                        digits++;
+                        i++;
+                    }
+                    appendToField((byte) value);
+                }
+                default -> appendToField(escaped);
+            }
+        }
+        if (column != types.length) {
+            throw invalidNumberOfColumns(column);
+        }
+        return values;
+    }
+
+    private boolean isNull(ByteBuf line, int start, int end) {
+        if (end - start != nullString.length) {
+            return false;
+        }
+        for (int i = 0; i < nullString.length; i++) {
+            if (line.getByte(start + i) != nullString[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void appendToField(byte b) {
+        if (fieldLength == field.length) {
+            field = Arrays.copyOf(field, field.length * 2);
+        }
+        field[fieldLength++] = b;
+    }
+
+    private void decodeBinary(boolean last) throws IOException {
+        if (!binaryHeaderRead) {
+            int headerLength = CopyOptions.BINARY_SIGNATURE.length + 4 + 4;
+            if (pending.readableBytes() < headerLength) {
+                if (last) {
+                    throw new IllegalArgumentException("Invalid COPY data: Missing binary header");
+                }
+                return;
+            }
+            int start = pending.readerIndex();
+            for (int i = 0; i < CopyOptions.BINARY_SIGNATURE.length; i++) {
+                if (pending.getByte(start + i) != CopyOptions.BINARY_SIGNATURE[i]) {
+                    throw new IllegalArgumentException("Invalid COPY data: Invalid binary signature");
+                }
+            }
+            int extensionLength = pending.getInt(start + headerLength - 4);
+            if (pending.readableBytes() < headerLength + extensionLength) {
+                if (last) {
+                    throw new IllegalArgumentException("Invalid COPY data: Incomplete binary header");
+                }
+                return;
+            }
+            pending.skipBytes(headerLength + extensionLength);
+            binaryHeaderRead = true;
+        }
+        while (!endOfData && pending.readableBytes() >= 2) {
+            int start = pending.readerIndex();
+            short numFields = pending.getShort(start);
+            if (numFields == -1) {
+                // file trailer
+                endOfData = true;
+                pending.skipBytes(pending.readableBytes());
+                return;
+            }
+            if (numFields != types.length) {
+                rowNumber++;
+                throw invalidNumberOfColumns(numFields);
+            }
+            if (!isTupleComplete(start + 2, numFields)) {
+                break;
+            }
+            rowNumber++;
+            pending.skipBytes(2);
+            Object[] values = new Object[numFields];
+            for (int i = 0; i < numFields; i++) {
+                int length = pending.readInt();
+                if (length == -1) {
+                    continue;
+                }
+                int valueStart = pending.readerIndex();
+                values[i] = types[i].readBinaryValue(pending, length);
+                pending.readerIndex(valueStart + length);
+            }
+            add(values, pending.readerIndex() - start);
+        }
+        if (last && !endOfData && pending.isReadable()) {
+            throw new IllegalArgumentException("Invalid COPY data: Incomplete row at the end of the data");
+        }
+    }
+
+    private boolean isTupleComplete(int index, int numFields) {
+        int end = pending.writerIndex();
+        for (int i = 0; i < numFields; i++) {
+            if (index + 4 > end) {
+                return false;
+            }
+            int length = pending.getInt(index);
+            index += 4 + Math.max(length, 0);
+        }
+        return index <= end;
+    }
+
+    private void add(String line) {
+        accepting &= input.add(line);
+    }
+
+    private void add(Object[] values, int length) {
+        LinkedHashMap<String, Object> source = new LinkedHashMap<>(values.length * 2);
+        for (int i = 0; i < values.length; i++) {
+            source.put(columns[i], values[i]);
+        }
+        accepting &= input.add(source, length);
+    }
+
+    private IllegalArgumentException invalidNumberOfColumns(int numColumns) {
+        return new IllegalArgumentException(String.format(
+            Locale.ENGLISH,
+            "Invalid COPY data: Expected %d columns but got %d in row %d",
+            types.length,
+            numColumns,
+            rowNumber));
+    }
+}
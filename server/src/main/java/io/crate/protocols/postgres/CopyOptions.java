@@ -0,0 +1,171 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import io.crate.sql.ExpressionFormatter;
+import io.crate.sql.tree.BooleanLiteral;
+import io.crate.sql.tree.Expression;
+import io.crate.sql.tree.GenericProperties;
+import io.crate.sql.tree.QualifiedNameReference;
+import io.crate.sql.tree.StringLiteral;
+
+/**
+ * Options of the {@code COPY ... FROM STDIN} and {@code COPY ... TO STDOUT} statements defining how the rows are
+ * encoded within the CopyData messages.
+ *
+ * <ul>
+ *  <li>{@code format}: {@code text} (default), {@code csv} or {@code binary}, see
+ *  https://www.postgresql.org/docs/current/sql-copy.html#id-1.9.3.55.9</li>
+ *  <li>{@code delimiter}: The character separating the columns. A tab for {@code text}, a comma for {@code csv}.</li>
+ *  <li>{@code null}: The string representing a null value. {@code \N} for {@code text}, an unquoted empty string
+ *  for {@code csv}.</li>
+ *  <li>{@code header}: If the first line of the {@code csv} format contains the names of the columns.</li>
+ * </ul>
+ *
+ * Other options are passed on to {@code COPY FROM}.
+ */
+final class CopyOptions {
+
+    enum Format {
+        TEXT,
+        CSV,
+        BINARY
+    }
+
+    /**
+     * The signature at the start of the binary format: {@code PGCOPY\n\377\r\n\0}
+     */
+    static final byte[] BINARY_SIGNATURE = new byte[] { 'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0 };
+
+    private static final String FORMAT = "format";
+    private static final String DELIMITER = "delimiter";
+    private static final String NULL = "null";
+    private static final String HEADER = "header";
+
+    private final Format format;
+    private final char delimiter;
+    private final String nullString;
+    private final boolean header;
+    private final Map<String, Expression> otherProperties;
+
+    private CopyOptions(Format format,
+                        char delimiter,
+                        String nullString,
+                        boolean header,
+                        Map<String, Expression> otherProperties) {
+        this.format = format;
+        this.delimiter = delimiter;
+        this.nullString = nullString;
+        this.header = header;
+        this.otherProperties = otherProperties;
+    }
+
+    static CopyOptions of(GenericProperties<Expression> properties) {
+        Map<String, Expression> otherProperties = new HashMap<>(properties.properties());
+        Expression formatValue = otherProperties.remove(FORMAT);
+        Format format = formatValue == null
+            ? Format.TEXT
+            : parseFormat(stringValue(FORMAT, formatValue));
+        Expression delimiterValue = otherProperties.remove(DELIMITER);
+        Expression nullValue = otherProperties.remove(NULL);
+        Expression headerValue = otherProperties.remove(HEADER);
+        if (format == Format.BINARY && (delimiterValue != null || nullValue != null || headerValue != null)) {
+            throw new IllegalArgumentException(
+                "The delimiter, null and header options are not supported with the binary format");
+        }
+        if (format == Format.TEXT && headerValue != null) {
+            throw new IllegalArgumentException("The header option is only supported with the csv format");
+        }
+        char delimiter = format == Format.CSV ? ',' : '\t';
+        if (delimiterValue != null) {
+            String value = stringValue(DELIMITER, delimiterValue);
+            if (value.length() != 1 || value.charAt(0) > 127 || "\\\r\n\"".indexOf(value.charAt(0)) >= 0) {
+                throw new IllegalArgumentException(
+                    "Invalid delimiter: " + value + ". The delimiter must be a single one-byte character " +
+                    "other than backslash, quote, newline or carriage return");
+            }
+            delimiter = value.charAt(0);
+        }
+        String nullString = format == Format.CSV ? "" : "\\N";
+        if (nullValue != null) {
+            nullString = stringValue(NULL, nullValue);
+        }
+        boolean header = headerValue != null && Boolean.parseBoolean(stringValue(HEADER, headerValue));
+        return new CopyOptions(format, delimiter, nullString, header, otherProperties);
+    }
+
+    private static Format parseFormat(String value) {
+        try {
+            return Format.valueOf(value.toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                "Invalid format: " + value + ". Supported formats are text, csv and binary");
+        }
+    }
+
+    private static String stringValue(String option, Expression value) {
+        if (value instanceof StringLiteral literal) {
+            return literal.getValue();
+        } else if (value instanceof BooleanLiteral literal) {
+            return Boolean.toString(literal.getValue());
+        } else if (value instanceof QualifiedNameReference reference) {
+            // allows `format = csv` like the unquoted values of PostgreSQL
+            return reference.getName().toString();
+        }
+        throw new IllegalArgumentException(String.format(
+            Locale.ENGLISH,
+            "Invalid value for option %s: %s. The value must be a literal",
+            option,
+            ExpressionFormatter.formatStandaloneExpression(value)));
+    }
+
+    Format format() {
+        return format;
+    }
+
+    boolean binary() {
+        return format == Format.BINARY;
+    }
+
+    char delimiter() {
+        return delimiter;
+    }
+
+    String nullString() {
+        return nullString;
+    }
+
+    boolean header() {
+        return header;
+    }
+
+    /**
+     * @return the options which aren't related to the format of the rows.
+     */
+    Map<String, Expression> otherProperties() {
+        return otherProperties;
+    }
+}
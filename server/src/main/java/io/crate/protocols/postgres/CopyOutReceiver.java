@@ -0,0 +1,318 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.action.sql.BaseResultReceiver;
+import io.crate.auth.AccessControl;
+import io.crate.common.collections.Lists2;
+import io.crate.data.Row;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.Symbols;
+import io.crate.protocols.postgres.CopyOptions.Format;
+import io.crate.protocols.postgres.DelayableWriteChannel.DelayedWrites;
+import io.crate.protocols.postgres.types.PGType;
+import io.crate.protocols.postgres.types.PGTypes;
+import io.crate.sql.tree.AllColumns;
+import io.crate.sql.tree.Assignment;
+import io.crate.sql.tree.ComparisonExpression;
+import io.crate.sql.tree.CopyTo;
+import io.crate.sql.tree.Expression;
+import io.crate.sql.tree.LogicalBinaryExpression;
+import io.crate.sql.tree.Query;
+import io.crate.sql.tree.QuerySpecification;
+import io.crate.sql.tree.Select;
+import io.crate.sql.tree.SelectItem;
+import io.crate.sql.tree.SingleColumn;
+import io.crate.sql.tree.Table;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+
+/**
+ * Sends the rows of a {@code COPY ... TO STDOUT} statement as CopyData messages in the {@code text}, {@code csv} or
+ * {@code binary} format, followed by CopyDone and CommandComplete.
+ *
+ * <p>
+ * Like the DataRow messages of a result set, the messages are buffered and written by a {@link BufferedChannelWriter}.
+ * </p>
+ */
+final class CopyOutReceiver extends BaseResultReceiver {
+
+    private final String query;
+    private final DelayableWriteChannel channel;
+    private final Channel directChannel;
+    private final BufferedChannelWriter writer;
+    private final DelayedWrites delayedWrites;
+    private final AccessControl accessControl;
+    private final PGType<?>[] types;
+    private final Format format;
+    private final byte delimiter;
+    private final byte[] nullString;
+
+    /**
+     * Holds the text representation of a single value before it is escaped or quoted
+     */
+    private final ByteBuf value = Unpooled.buffer();
+
+    private long rowCount = 0;
+
+    CopyOutReceiver(String query,
+                    DelayableWriteChannel channel,
+                    DelayedWrites delayedWrites,
+                    AccessControl accessControl,
+                    List<Symbol> fields,
+                    CopyOptions options) {
+        this.query = query;
+        this.channel = channel;
+        this.directChannel = channel.bypassDelay();
+        this.writer = new BufferedChannelWriter(directChannel);
+        this.delayedWrites = delayedWrites;
+        this.accessControl = accessControl;
+        this.types = new PGType<?>[fields.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = PGTypes.get(fields.get(i).valueType());
+        }
+        this.format = options.format();
+        this.delimiter = (byte) options.delimiter();
+        this.nullString = options.nullString().getBytes(StandardCharsets.UTF_8);
+        if (format == Format.BINARY) {
+            writeBinaryHeader();
+        } else if (options.header()) {
+            writeHeader(fields);
+        }
+    }
+
+    /**
+     * Rewrites the statement to a query selecting the rows to send:
+     * All columns if the statement doesn't specify the columns, filtered by the partition and the WHERE clause.
+     */
+    static Query toQuery(CopyTo<Expression> copyTo, CopyOptions options) {
+        if (!options.otherProperties().isEmpty()) {
+            throw new IllegalArgumentException(
+                "Unsupported options for COPY TO STDOUT: " + options.otherProperties().keySet());
+        }
+        Table<Expression> table = copyTo.table();
+        List<SelectItem> selectItems = copyTo.columns().isEmpty()
+            ? List.of(new AllColumns())
+            : Lists2.map(copyTo.columns(), SingleColumn::new);
+        Expression where = copyTo.whereClause().orElse(null);
+        for (Assignment<Expression> partitionProperty : table.partitionProperties()) {
+            Expression equals = new ComparisonExpression(
+                ComparisonExpression.Type.EQUAL,
+                partitionProperty.columnName(),
+                partitionProperty.expression()
+            );
+            where = where == null
+                ? equals
+                : new LogicalBinaryExpression(LogicalBinaryExpression.Type.AND, where, equals);
+        }
+        QuerySpecification querySpecification = new QuerySpecification(
+            new Select(false, selectItems),
+            List.of(new Table<>(table.getName(), table.excludePartitions())),
+            Optional.ofNullable(where),
+            List.of(),
+            Optional.empty(),
+            Map.of(),
+            List.of(),
+            Optional.empty(),
+            Optional.empty()
+        );
+        return new Query(Optional.empty(), querySpecification, List.of(), Optional.empty(), Optional.empty());
+    }
+
+    private void writeBinaryHeader() {
+        ByteBuf buf = writer.buffer();
+        final int start = startMessage(buf);
+        buf.writeBytes(CopyOptions.BINARY_SIGNATURE);
+        buf.writeInt(0); // flags
+        buf.writeInt(0); // header extension length
+        endMessage(buf, start);
+    }
+
+    private void writeHeader(List<Symbol> fields) {
+        ByteBuf buf = writer.buffer();
+        int start = startMessage(buf);
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                buf.writeByte(delimiter);
+            }
+            byte[] name = Symbols.pathFromSymbol(fields.get(i)).sqlFqn().getBytes(StandardCharsets.UTF_8);
+            writeCsvValue(buf, Unpooled.wrappedBuffer(name));
+        }
+        buf.writeByte('\n');
+        endMessage(buf, start);
+    }
+
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void setNextRow(Row row) {
+        ByteBuf buf = writer.buffer();
+        int start = startMessage(buf);
+        try {
+            if (format == Format.BINARY) {
+                buf.writeShort(types.length);
+            }
+            for (int i = 0; i < types.length; i++) {
+                Object val = row.get(i);
+                PGType pgType = types[i];
+                if (format == Format.BINARY) {
+                    if (val == null) {
+                        buf.writeInt(-1);
+                    } else {
+                        pgType.writeAsBinary(buf, val);
+                    }
+                    continue;
+                }
+                if (i > 0) {
+                    buf.writeByte(delimiter);
+                }
+                if (val == null) {
+                    buf.writeBytes(nullString);
+                    continue;
+                }
+                value.clear();
+                pgType.writeAsText(value, val);
+                value.skipBytes(4); // length prefix
+                if (format == Format.CSV) {
+                    writeCsvValue(buf, value);
+                } else {
+                    writeTextValue(buf, value);
+                }
+            }
+            if (format != Format.BINARY) {
+                buf.writeByte('\n');
+            }
+            endMessage(buf, start);
+        } catch (Throwable t) {
+            // discard the partially written message, the messages of previous rows are still sent
+            buf.writerIndex(start);
+            throw t;
+        }
+        rowCount++;
+        writer.writeIfFull();
+    }
+
+    /**
+     * Escapes backslashes, the delimiter and line breaks as defined by the {@code text} format
+     */
+    private void writeTextValue(ByteBuf buf, ByteBuf val) {
+        for (int i = val.readerIndex(); i < val.writerIndex(); i++) {
+            byte b = val.getByte(i);
+            switch (b) {
+                case '\\' -> buf.writeByte('\\').writeByte('\\');
+                case '\n' -> buf.writeByte('\\').writeByte('n');
+                case '\r' -> buf.writeByte('\\').writeByte('r');
+                case '\t' -> buf.writeByte('\\').writeByte('t');
+                default -> {
+                    if (b == delimiter) {
+                        buf.writeByte('\\');
+                    }
+                    buf.writeByte(b);
+                }
+            }
+        }
+    }
+
+    /**
+     * Quotes values which are empty or contain the delimiter, a quote or a line break, to distinguish them from
+     * the unquoted {@code null} string
+     */
+    private void writeCsvValue(ByteBuf buf, ByteBuf val) {
+        boolean quote = !val.isReadable();
+        for (int i = val.readerIndex(); i < val.writerIndex() && !quote; i++) {
+            byte b = val.getByte(i);
+            quote = b == delimiter || b == '"' || b == '\n' || b == '\r';
+        }
+        if (!quote) {
+            buf.writeBytes(val);
+            return;
+        }
+        buf.writeByte('"');
+        for (int i = val.readerIndex(); i < val.writerIndex(); i++) {
+            byte b = val.getByte(i);
+            if (b == '"') {
+                buf.writeByte('"');
+            }
+            buf.writeByte(b);
+        }
+        buf.writeByte('"');
+    }
+
+    /**
+     * CopyData
+     * | 'd' | int32 len | bytes |
+     */
+    private static int startMessage(ByteBuf buf) {
+        int start = buf.writerIndex();
+        buf.writeByte('d');
+        buf.writeInt(0); // will be set at the end
+        return start;
+    }
+
+    private static void endMessage(ByteBuf buf, int start) {
+        buf.setInt(start + 1, buf.writerIndex() - start - 1);
+    }
+
+    /**
+     * Pauses the producer of the rows while the channel isn't writable, until the last written rows are sent.
+     */
+    @Override
+    @Nullable
+    public CompletableFuture<?> readyForMoreRows() {
+        return writer.readyForMoreRows();
+    }
+
+    @Override
+    public void allFinished() {
+        if (format == Format.BINARY) {
+            ByteBuf buf = writer.buffer();
+            int start = startMessage(buf);
+            buf.writeShort(-1); // file trailer
+            endMessage(buf, start);
+        }
+        writer.writeBuffered();
+        Messages.sendCopyDone(directChannel);
+        ChannelFuture sendCommandComplete = Messages.sendCommandComplete(directChannel, query, rowCount);
+        channel.writePendingMessages(delayedWrites);
+        channel.flush();
+        sendCommandComplete.addListener(f -> super.allFinished());
+    }
+
+    @Override
+    public void fail(@NotNull Throwable throwable) {
+        writer.writeBuffered();
+        ChannelFuture sendErrorResponse = Messages.sendErrorResponse(directChannel, accessControl, throwable);
+        channel.writePendingMessages(delayedWrites);
+        channel.flush();
+        sendErrorResponse.addListener(f -> super.fail(throwable));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import io.crate.data.Row;
+import io.crate.protocols.postgres.types.PGType;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+/**
+ * Encodes the DataRow messages of a result set.
+ * <p>
+ * Unlike {@link Messages#sendDataRow(Channel, Row, List, FormatCodes.FormatCode[])} the types and format codes of
+ * the columns are resolved once, and the messages of many rows are encoded into the buffer of a
+ * {@link BufferedChannelWriter}.
+ * </p>
+ */
+final class DataRowWriter {
+
+    private final BufferedChannelWriter writer;
+    private final PGType<?>[] types;
+    private final boolean[] binary;
+
+    DataRowWriter(BufferedChannelWriter writer,
+                  List<PGType<?>> columnTypes,
+                  @Nullable FormatCodes.FormatCode[] formatCodes) {
+        this.writer = writer;
+        this.types = columnTypes.toArray(new PGType<?>[0]);
+        this.binary = new boolean[types.length];
+        for (int i = 0; i < types.length; i++) {
+            binary[i] = FormatCodes.getFormatCode(formatCodes, i) == FormatCodes.FormatCode.BINARY;
+        }
+    }
+
+    /**
+     * Encodes the row as DataRow message.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void write(Row row) {
+        assert types.length == row.numColumns()
+            : "Number of columns in the row must match number of columnTypes. Row: " + row + " types: " + types.length;
+        ByteBuf buf = writer.buffer();
+        int start = buf.writerIndex();
+        try {
+            buf.writeByte('D');
+            buf.writeInt(0); // will be set at the end
+            buf.writeShort(types.length);
+            int length = 4 + 2;
+            for (int i = 0; i < types.length; i++) {
+                Object value = row.get(i);
+                if (value == null) {
+                    buf.writeInt(-1);
+                    length += 4;
+                } else {
+                    PGType pgType = types[i];
+                    length += binary[i] ? pgType.writeAsBinary(buf, value) : pgType.writeAsText(buf, value);
+                }
+            }
+            buf.setInt(start + 1, length);
+        } catch (Throwable t) {
+            // discard the partially written message, the messages of previous rows are still sent
+            buf.writerIndex(start);
+            throw t;
+        }
+        writer.writeIfFull();
+    }
+}
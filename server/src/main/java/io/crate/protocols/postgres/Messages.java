@@ -497,6 +497,47 @@ public class Messages {
         sendShortMsg(channel, 'n', "sentNoData");
     }
 
+    /**
+     * CopyInResponse | CopyOutResponse
+     * | 'G' or 'H' | int32 len | int8 format | int16 numColumns | int16 format for each column |
+     */
+    static void sendCopyInResponse(Channel channel, boolean binary, int numColumns) {
+        sendCopyResponse(channel, 'G', binary, numColumns, "sentCopyInResponse");
+    }
+
+    static void sendCopyOutResponse(Channel channel, boolean binary, int numColumns) {
+        sendCopyResponse(channel, 'H', binary, numColumns, "sentCopyOutResponse");
+    }
+
+    private static void sendCopyResponse(Channel channel,
+                                         char msgType,
+                                         boolean binary,
+                                         int numColumns,
+                                         String traceLogMsg) {
+        int length = 4 + 1 + 2 + 2 * numColumns;
+        int format = binary ? 1 : 0;
+        ByteBuf buffer = channel.alloc().buffer(length + 1);
+        buffer.writeByte(msgType);
+        buffer.writeInt(length);
+        buffer.writeByte(format);
+        buffer.writeShort(numColumns);
+        for (int i = 0; i < numColumns; i++) {
+            buffer.writeShort(format);
+        }
+        ChannelFuture channelFuture = channel.write(buffer);
+        if (LOGGER.isTraceEnabled()) {
+            channelFuture.addListener((ChannelFutureListener) future -> LOGGER.trace(traceLogMsg));
+        }
+    }
+
+    /**
+     * CopyDone
+     * | 'c' | int32 len |
+     */
+    static void sendCopyDone(Channel channel) {
+        sendShortMsg(channel, 'c', "sentCopyDone");
+    }
+
     /**
      * Send a message that just contains the msgType and the msg length
      * @return
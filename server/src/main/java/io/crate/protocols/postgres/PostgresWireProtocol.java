@@ -59,8 +59,11 @@ import io.crate.auth.AuthenticationMethod;
 import io.crate.auth.Protocol;
 import io.crate.common.annotations.VisibleForTesting;
 import io.crate.common.collections.Lists2;
+import io.crate.execution.engine.collect.files.StdinInput;
+import io.crate.execution.engine.collect.files.StdinInputs;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.Reference;
 import io.crate.metadata.settings.CoordinatorSessionSettings;
 import io.crate.metadata.settings.session.SessionSetting;
 import io.crate.metadata.settings.session.SessionSettingRegistry;
@@ -69,6 +72,9 @@ import io.crate.protocols.postgres.parser.PgArrayParser;
 import io.crate.protocols.postgres.types.PGType;
 import io.crate.protocols.postgres.types.PGTypes;
 import io.crate.sql.parser.SqlParser;
+import io.crate.sql.tree.CopyFrom;
+import io.crate.sql.tree.CopyTo;
+import io.crate.sql.tree.Expression;
 import io.crate.sql.tree.Statement;
 import io.crate.types.DataType;
 import io.crate.role.Role;
@@ -139,6 +145,9 @@ import joptsimple.OptionSet;
  *          |     ReadyForQuery                |
  *          |<---------------------------------|
  *
+ * COPY ... FROM STDIN and COPY ... TO STDOUT are supported via the simple query flow, see {@link CopyIn} and
+ * {@link CopyOutReceiver}.
+ *
  * Extended Query
  *
  *          +                                  +
@@ -209,6 +218,8 @@ public class PostgresWireProtocol {
     private DelayableWriteChannel channel;
     Session session;
     private boolean ignoreTillSync = false;
+    @Nullable
+    private CopyIn copyIn;
     private AuthenticationContext authContext;
     private Properties properties;
 
@@ -362,6 +373,15 @@ public class PostgresWireProtocol {
                 case 'C':
                     handleClose(buffer, channel);
                     return;
+                case 'd':
+                    handleCopyData(buffer);
+                    return;
+                case 'c':
+                    handleCopyDone();
+                    return;
+                case 'f':
+                    handleCopyFail(buffer);
+                    return;
                 case 'X': // Terminate (called when jdbc connection is closed)
                     closeSession();
                     channel.close();
@@ -377,6 +397,10 @@ public class PostgresWireProtocol {
         }
 
         private void closeSession() {
+            if (copyIn != null) {
+                copyIn.fail("Connection closed");
+                copyIn = null;
+            }
             if (session != null) {
                 session.close();
                 session = null;
@@ -789,11 +813,18 @@ public class PostgresWireProtocol {
         composedFuture.whenComplete(new ReadyForQueryCallback(channel, TransactionState.IDLE));
     }
 
+    @SuppressWarnings("unchecked")
     private CompletableFuture<?> handleSingleQuery(Statement statement, String query, DelayableWriteChannel channel) {
         CompletableFuture<?> result = new CompletableFuture<>();
 
         AccessControl accessControl = getAccessControl.apply(session.sessionSettings());
         try {
+            if (statement instanceof CopyFrom<?> copyFrom && copyFrom.isStdin()) {
+                return handleCopyFromStdin((CopyFrom<Expression>) copyFrom, query, channel, accessControl);
+            }
+            if (statement instanceof CopyTo<?> copyTo && copyTo.isStdout()) {
+                return handleCopyToStdout((CopyTo<Expression>) copyTo, query, channel, accessControl);
+            }
             session.analyze("", statement, Collections.emptyList(), query);
             session.bind("", "", Collections.emptyList(), null);
             DescribeResult describeResult = session.describe('P', "");
@@ -831,6 +862,107 @@ public class PostgresWireProtocol {
         }
     }
 
+    /**
+     * Executes the statement as {@code COPY ... FROM 'stdin:///<id>'} and switches to the copy-in mode.
+     * The statement completes once the client sent CopyDone and all rows have been imported.
+     */
+    private CompletableFuture<?> handleCopyFromStdin(CopyFrom<Expression> copyFrom,
+                                                     String query,
+                                                     DelayableWriteChannel channel,
+                                                     AccessControl accessControl) {
+        CopyOptions options = CopyOptions.of(copyFrom.properties());
+        StdinInputs stdinInputs = sessions.stdinInputs();
+        StdinInput input = stdinInputs.register();
+        CopyIn newCopyIn;
+        try {
+            session.analyze("", CopyIn.bindToInput(copyFrom, input.uri(), options), Collections.emptyList(), query);
+            session.bind("", "", Collections.emptyList(), null);
+            DescribeResult describeResult = session.describe('P', "");
+            List<Reference> targetColumns = CopyIn.targetColumns(copyFrom.columns(), describeResult.relation());
+            newCopyIn = new CopyIn(channel.bypassDelay(), input, options, targetColumns);
+            Messages.sendCopyInResponse(channel, options.binary(), targetColumns.size());
+            channel.flush();
+        } catch (Throwable t) {
+            stdinInputs.remove(input.uri());
+            throw t;
+        }
+        copyIn = newCopyIn;
+        DelayedWrites delayedWrites = channel.delayWrites();
+        RowCountReceiver rowCountReceiver = new RowCountReceiver(
+            query,
+            channel,
+            delayedWrites,
+            accessControl
+        );
+        session.execute("", 0, rowCountReceiver);
+        return session.sync().whenComplete((result, err) -> {
+            // The collect phase takes the input out of the registry, unless the execution failed before
+            stdinInputs.remove(input.uri());
+            newCopyIn.close();
+        });
+    }
+
+    /**
+     * Executes the statement as {@code SELECT ... FROM table WHERE ...} and sends the rows as CopyData messages.
+     */
+    private CompletableFuture<?> handleCopyToStdout(CopyTo<Expression> copyTo,
+                                                    String query,
+                                                    DelayableWriteChannel channel,
+                                                    AccessControl accessControl) {
+        CopyOptions options = CopyOptions.of(copyTo.properties());
+        session.analyze("", CopyOutReceiver.toQuery(copyTo, options), Collections.emptyList(), query);
+        session.bind("", "", Collections.emptyList(), null);
+        DescribeResult describeResult = session.describe('P', "");
+        List<Symbol> fields = describeResult.getFields();
+        Messages.sendCopyOutResponse(channel, options.binary(), fields.size());
+        DelayedWrites delayedWrites = channel.delayWrites();
+        CopyOutReceiver copyOutReceiver = new CopyOutReceiver(
+            query,
+            channel,
+            delayedWrites,
+            accessControl,
+            fields,
+            options
+        );
+        session.execute("", 0, copyOutReceiver);
+        return session.sync();
+    }
+
+    /**
+     * CopyData
+     * | 'd' | int32 len | bytes |
+     *
+     * Data sent after the copy-in has been completed or failed is discarded.
+     */
+    private void handleCopyData(ByteBuf buffer) {
+        if (copyIn != null && !copyIn.isClosed()) {
+            copyIn.data(buffer);
+        }
+    }
+
+    /**
+     * CopyDone
+     * | 'c' | int32 len |
+     */
+    private void handleCopyDone() {
+        if (copyIn != null) {
+            copyIn.done();
+            copyIn = null;
+        }
+    }
+
+    /**
+     * CopyFail
+     * | 'f' | int32 len | string message |
+     */
+    private void handleCopyFail(ByteBuf buffer) {
+        String message = readCString(buffer);
+        if (copyIn != null) {
+            copyIn.fail(message);
+            copyIn = null;
+        }
+    }
+
     private void handleCancelRequestBody(ByteBuf buffer, Channel channel) {
         var keyData = KeyData.of(buffer);
 
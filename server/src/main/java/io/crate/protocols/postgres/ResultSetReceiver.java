@@ -22,6 +22,7 @@
 package io.crate.protocols.postgres;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -38,14 +39,13 @@ class ResultSetReceiver extends BaseResultReceiver {
 
     private final String query;
     private final DelayableWriteChannel channel;
-    private final List<PGType<?>> columnTypes;
     private final TransactionState transactionState;
     private final AccessControl accessControl;
     private final Channel directChannel;
     private final DelayedWrites delayedWrites;
 
-    @Nullable
-    private final FormatCodes.FormatCode[] formatCodes;
+    private final BufferedChannelWriter writer;
+    private final DataRowWriter dataRowWriter;
 
     private long rowCount = 0;
 
@@ -62,21 +62,28 @@ class ResultSetReceiver extends BaseResultReceiver {
         this.directChannel = channel.bypassDelay();
         this.transactionState = transactionState;
         this.accessControl = accessControl;
-        this.columnTypes = columnTypes;
-        this.formatCodes = formatCodes;
+        this.writer = new BufferedChannelWriter(directChannel);
+        this.dataRowWriter = new DataRowWriter(writer, columnTypes, formatCodes);
     }
 
     @Override
     public void setNextRow(Row row) {
         rowCount++;
-        Messages.sendDataRow(directChannel, row, columnTypes, formatCodes);
-        if (rowCount % 1000 == 0) {
-            directChannel.flush();
-        }
+        dataRowWriter.write(row);
+    }
+
+    /**
+     * Pauses the producer of the rows while the channel isn't writable, until the last written rows are sent.
+     */
+    @Override
+    @Nullable
+    public CompletableFuture<?> readyForMoreRows() {
+        return writer.readyForMoreRows();
     }
 
     @Override
     public void batchFinished() {
+        writer.writeBuffered();
         ChannelFuture sendPortalSuspended = Messages.sendPortalSuspended(directChannel);
         channel.writePendingMessages(delayedWrites);
         channel.flush();
@@ -89,6 +96,7 @@ class ResultSetReceiver extends BaseResultReceiver {
 
     @Override
     public void allFinished() {
+        writer.writeBuffered();
         ChannelFuture sendCommandComplete = Messages.sendCommandComplete(directChannel, query, rowCount);
         channel.writePendingMessages(delayedWrites);
         channel.flush();
@@ -97,6 +105,7 @@ class ResultSetReceiver extends BaseResultReceiver {
 
     @Override
     public void fail(@NotNull Throwable throwable) {
+        writer.writeBuffered();
         ChannelFuture sendErrorResponse = Messages.sendErrorResponse(directChannel, accessControl, throwable);
         channel.writePendingMessages(delayedWrites);
         channel.flush();
@@ -35,6 +35,7 @@ import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.transport.ConnectTransportException;
+import org.jetbrains.annotations.Nullable;
 
 import io.crate.Constants;
 import io.crate.action.sql.ResultReceiver;
@@ -73,6 +74,12 @@ public class RetryOnFailureResultReceiver<T> implements ResultReceiver<T> {
         delegate.setNextRow(row);
     }
 
+    @Override
+    @Nullable
+    public CompletableFuture<?> readyForMoreRows() {
+        return delegate.readyForMoreRows();
+    }
+
     @Override
     public void batchFinished() {
         delegate.batchFinished();
@@ -73,6 +73,12 @@ public class SubscriberEngine extends InternalEngine {
         return planIndexingAsNonPrimary(index);
     }
 
+    @Override
+    protected boolean canAppendInBatch(Index index) {
+        // operations must be validated and are indexed using the sequence numbers of the publisher
+        return false;
+    }
+
     @Override
     protected DeletionStrategy deletionStrategyForOperation(Delete delete) throws IOException {
         validate(delete);
@@ -105,6 +105,15 @@ public final class ColumnStats<T> implements Writeable {
         return mostCommonValues;
     }
 
+    public DataType<T> type() {
+        return type;
+    }
+
+    /**
+     * Equi-depth histogram of the values which are not part of the {@link #mostCommonValues()}.
+     * The values are sorted bounds dividing the remaining population into buckets of equal size.
+     * The first bound is the smallest value and the last bound is the largest value.
+     */
     public List<T> histogram() {
         return histogram;
     }
@@ -271,17 +280,31 @@ public final class ColumnStats<T> implements Writeable {
         return prunedSamples;
     }
 
+    /**
+     * Picks {@code numBins} bounds out of the sorted values so that the same number of values
+     * falls between each pair of adjacent bounds (equi-depth).
+     * See PostgreSQL src/backend/command/analyze.c -> compute_scalar_stats
+     */
     static <T> List<T> generateHistogram(int numBins, List<T> sortedValues) {
         int numHist = Math.min(numBins, sortedValues.size());
         if (numHist < 2) {
             return List.of();
         }
         ArrayList<T> histogram = new ArrayList<>(numHist);
+        // The step between two bounds is (numValues - 1) / (numHist - 1);
+        // The remainder is spread across the buckets so that the last bound is the largest value.
         int delta = (sortedValues.size() - 1) / (numHist - 1);
+        int deltaFraction = (sortedValues.size() - 1) % (numHist - 1);
         int position = 0;
+        int positionFraction = 0;
         for (int i = 0; i < numHist; i++) {
             histogram.add(sortedValues.get(position));
             position += delta;
+            positionFraction += deltaFraction;
+            if (positionFraction >= numHist - 1) {
+                position++;
+                positionFraction -= numHist - 1;
+            }
         }
         return histogram;
     }
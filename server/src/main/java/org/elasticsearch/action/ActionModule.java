@@ -128,6 +128,8 @@ import io.crate.execution.jobs.kill.TransportKillAllNodeAction;
 import io.crate.execution.jobs.kill.TransportKillJobsNodeAction;
 import io.crate.execution.jobs.transport.JobAction;
 import io.crate.execution.jobs.transport.TransportJobAction;
+import io.crate.execution.resultcache.ShardReaderVersionsAction;
+import io.crate.execution.resultcache.TransportShardReaderVersionsAction;
 import io.crate.replication.logical.action.DropSubscriptionAction;
 import io.crate.replication.logical.action.GetFileChunkAction;
 import io.crate.replication.logical.action.GetStoreMetadataAction;
@@ -212,6 +214,7 @@ public class ActionModule extends AbstractModule {
         actions.register(JobAction.INSTANCE, TransportJobAction.class);
         actions.register(FetchNodeAction.INSTANCE, TransportFetchNodeAction.class);
         actions.register(RenameColumnAction.INSTANCE, TransportRenameColumnAction.class);
+        actions.register(ShardReaderVersionsAction.INSTANCE, TransportShardReaderVersionsAction.class);
 
         actionPlugins.stream().flatMap(p -> p.getActions().stream()).forEach(actions::register);
 
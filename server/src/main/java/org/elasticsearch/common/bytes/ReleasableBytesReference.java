@@ -21,6 +21,7 @@ package org.elasticsearch.common.bytes;
 
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefIterator;
+import org.elasticsearch.common.io.stream.FilterStreamInput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.lease.Releasable;
 import org.elasticsearch.common.util.concurrent.AbstractRefCounted;
@@ -104,7 +105,7 @@ public final class ReleasableBytesReference implements Releasable, BytesReferenc
 
     @Override
     public StreamInput streamInput() throws IOException {
-        return delegate.streamInput();
+        return new RetainingStreamInput(delegate.streamInput());
     }
 
     @Override
@@ -152,6 +153,64 @@ public final class ReleasableBytesReference implements Releasable, BytesReferenc
         return delegate.hashCode();
     }
 
+    /**
+     * Stream that hands out retained slices of this reference from {@link #readReleasableBytesReference()}
+     * instead of copying the bytes.
+     */
+    private final class RetainingStreamInput extends FilterStreamInput {
+
+        RetainingStreamInput(StreamInput delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public ReleasableBytesReference readReleasableBytesReference() throws IOException {
+            final int length = readArraySize();
+            if (length == 0) {
+                return ReleasableBytesReference.wrap(BytesArray.EMPTY);
+            }
+            final int offset = ReleasableBytesReference.this.length() - available();
+            final long skipped = skip(length);
+            assert skipped == length : skipped + " vs " + length;
+            return retainedSlice(offset, length);
+        }
+
+        @Override
+        public boolean sharesReleasableBytes() {
+            return true;
+        }
+
+        @Override
+        public BytesReference readBytesReference(int length) throws IOException {
+            return delegate.readBytesReference(length);
+        }
+
+        @Override
+        public BytesRef readBytesRef(int length) throws IOException {
+            return delegate.readBytesRef(length);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return delegate.read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            return delegate.skip(n);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return delegate.markSupported();
+        }
+
+        @Override
+        public void mark(int readLimit) {
+            delegate.mark(readLimit);
+        }
+    }
+
     private static final class RefCountedReleasable extends AbstractRefCounted {
 
         private final Releasable releasable;
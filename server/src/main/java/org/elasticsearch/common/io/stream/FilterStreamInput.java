@@ -20,6 +20,7 @@
 package org.elasticsearch.common.io.stream;
 
 import org.elasticsearch.Version;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 
 import java.io.EOFException;
 import java.io.IOException;
@@ -60,6 +61,16 @@ public abstract class FilterStreamInput extends StreamInput {
         return delegate.readLong();
     }
 
+    @Override
+    public ReleasableBytesReference readReleasableBytesReference() throws IOException {
+        return delegate.readReleasableBytesReference();
+    }
+
+    @Override
+    public boolean sharesReleasableBytes() {
+        return delegate.sharesReleasableBytes();
+    }
+
     @Override
     public void reset() throws IOException {
         delegate.reset();
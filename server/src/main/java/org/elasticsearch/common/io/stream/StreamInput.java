@@ -73,6 +73,7 @@ import org.elasticsearch.Version;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
 import org.elasticsearch.common.collect.ImmutableOpenMap;
 import org.elasticsearch.common.geo.GeoPoint;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
@@ -185,6 +186,23 @@ public abstract class StreamInput extends InputStream {
         return new BytesArray(bytes, 0, length);
     }
 
+    /**
+     * Reads a bytes reference from this stream which may share the underlying bytes of the stream instead of copying them.
+     * The returned reference must be closed once it is no longer used.
+     * Streams which are not backed by a {@link ReleasableBytesReference} return a copy.
+     */
+    public ReleasableBytesReference readReleasableBytesReference() throws IOException {
+        return ReleasableBytesReference.wrap(readBytesReference());
+    }
+
+    /**
+     * @return true if {@link #readReleasableBytesReference()} shares the underlying bytes of this stream,
+     *         false if it returns a copy which doesn't need to be released
+     */
+    public boolean sharesReleasableBytes() {
+        return false;
+    }
+
     public BytesRef readBytesRef() throws IOException {
         int length = readArraySize();
         return readBytesRef(length);
@@ -1174,7 +1192,7 @@ public abstract class StreamInput extends InputStream {
      * Reads a vint via {@link #readVInt()} and applies basic checks to ensure the read array size is sane.
      * This method uses {@link #ensureCanReadBytes(int)} to ensure this stream has enough bytes to read for the read array size.
      */
-    private int readArraySize() throws IOException {
+    protected int readArraySize() throws IOException {
         final int arraySize = readVInt();
         if (arraySize > ArrayUtil.MAX_ARRAY_LENGTH) {
             throw new IllegalStateException("array length must be <= to " + ArrayUtil.MAX_ARRAY_LENGTH + " but was: " + arraySize);
@@ -103,9 +103,11 @@ import io.crate.action.sql.Sessions;
 import io.crate.auth.AuthSettings;
 import io.crate.blob.v2.BlobIndicesService;
 import io.crate.cluster.gracefulstop.DecommissioningService;
+import io.crate.execution.engine.collect.PartialAggregateCache;
 import io.crate.execution.engine.collect.stats.JobsLogService;
 import io.crate.execution.engine.indexing.ShardingUpsertExecutor;
 import io.crate.execution.jobs.NodeLimits;
+import io.crate.execution.resultcache.QueryResultCache;
 import io.crate.legacy.LegacySettings;
 import io.crate.memory.MemoryManagerFactory;
 import io.crate.metadata.settings.AnalyzerSettings;
@@ -430,6 +432,8 @@ public final class ClusterSettings extends AbstractScopedSettings {
         Sessions.NODE_READ_ONLY_SETTING,
         Sessions.STATEMENT_TIMEOUT,
         Sessions.MEMORY_LIMIT,
+        QueryResultCache.SIZE,
+        PartialAggregateCache.SIZE,
         PostgresNetty.PSQL_ENABLED_SETTING,
         PostgresNetty.PSQL_PORT_SETTING,
         AuthSettings.AUTH_HOST_BASED_ENABLED_SETTING,
@@ -39,6 +39,7 @@ import org.elasticsearch.index.translog.Translog;
 import org.elasticsearch.node.Node;
 
 import io.crate.common.unit.TimeValue;
+import io.crate.expression.reference.doc.lucene.BinarySource;
 import io.crate.types.DataTypes;
 
 /**
@@ -53,6 +54,13 @@ public final class IndexSettings {
     public static final Setting<TimeValue> INDEX_TRANSLOG_SYNC_INTERVAL_SETTING =
         Setting.timeSetting("index.translog.sync_interval", TimeValue.timeValueSeconds(5), TimeValue.timeValueMillis(100),
             Property.Dynamic, Property.IndexScope, Property.ReplicatedIndexScope);
+    /**
+     * How long a request durable translog sync waits for concurrent writes before it fsyncs, so that a single fsync
+     * makes the operations of all of them durable. {@code 0} disables the wait.
+     */
+    public static final Setting<TimeValue> INDEX_TRANSLOG_SYNC_GROUP_WINDOW_SETTING =
+        Setting.timeSetting("index.translog.sync_group_window", TimeValue.ZERO, TimeValue.ZERO, TimeValue.timeValueMillis(100),
+            Property.Dynamic, Property.IndexScope, Property.ReplicatedIndexScope);
     public static final Setting<TimeValue> INDEX_SEARCH_IDLE_AFTER =
         Setting.timeSetting("index.search.idle.after", TimeValue.timeValueSeconds(30),
             TimeValue.timeValueMinutes(0), Property.IndexScope, Property.Dynamic);
@@ -247,6 +255,7 @@ public final class IndexSettings {
     private volatile IndexMetadata indexMetadata;
     private volatile Translog.Durability durability;
     private volatile TimeValue syncInterval;
+    private volatile TimeValue syncGroupWindow;
     private volatile TimeValue refreshInterval;
     private volatile ByteSizeValue flushThresholdSize;
     private volatile TimeValue translogRetentionAge;
@@ -278,6 +287,7 @@ public final class IndexSettings {
     private volatile boolean warmerEnabled;
     private volatile int maxNgramDiff;
     private volatile int maxShingleDiff;
+    private volatile boolean binarySource;
     private volatile TimeValue searchIdleAfter;
 
     /**
@@ -315,6 +325,7 @@ public final class IndexSettings {
         numberOfShards = settings.getAsInt(IndexMetadata.SETTING_NUMBER_OF_SHARDS, null);
         this.durability = scopedSettings.get(INDEX_TRANSLOG_DURABILITY_SETTING);
         syncInterval = INDEX_TRANSLOG_SYNC_INTERVAL_SETTING.get(settings);
+        syncGroupWindow = scopedSettings.get(INDEX_TRANSLOG_SYNC_GROUP_WINDOW_SETTING);
         refreshInterval = scopedSettings.get(INDEX_REFRESH_INTERVAL_SETTING);
         flushThresholdSize = scopedSettings.get(INDEX_TRANSLOG_FLUSH_THRESHOLD_SIZE_SETTING);
         generationThresholdSize = scopedSettings.get(INDEX_TRANSLOG_GENERATION_THRESHOLD_SIZE_SETTING);
@@ -327,6 +338,7 @@ public final class IndexSettings {
         warmerEnabled = scopedSettings.get(INDEX_WARMER_ENABLED_SETTING);
         maxNgramDiff = scopedSettings.get(MAX_NGRAM_DIFF_SETTING);
         maxShingleDiff = scopedSettings.get(MAX_SHINGLE_DIFF_SETTING);
+        setSourceFormat(scopedSettings.get(BinarySource.INDEX_SOURCE_FORMAT_SETTING));
         maxRefreshListeners = scopedSettings.get(MAX_REFRESH_LISTENERS_PER_SHARD);
         this.mergePolicyConfig = new MergePolicyConfig(logger, this);
         searchIdleAfter = scopedSettings.get(INDEX_SEARCH_IDLE_AFTER);
@@ -346,8 +358,10 @@ public final class IndexSettings {
         scopedSettings.addSettingsUpdateConsumer(MergeSchedulerConfig.AUTO_THROTTLE_SETTING, mergeSchedulerConfig::setAutoThrottle);
         scopedSettings.addSettingsUpdateConsumer(INDEX_TRANSLOG_DURABILITY_SETTING, this::setTranslogDurability);
         scopedSettings.addSettingsUpdateConsumer(INDEX_TRANSLOG_SYNC_INTERVAL_SETTING, this::setTranslogSyncInterval);
+        scopedSettings.addSettingsUpdateConsumer(INDEX_TRANSLOG_SYNC_GROUP_WINDOW_SETTING, this::setTranslogSyncGroupWindow);
         scopedSettings.addSettingsUpdateConsumer(MAX_NGRAM_DIFF_SETTING, this::setMaxNgramDiff);
         scopedSettings.addSettingsUpdateConsumer(MAX_SHINGLE_DIFF_SETTING, this::setMaxShingleDiff);
+        scopedSettings.addSettingsUpdateConsumer(BinarySource.INDEX_SOURCE_FORMAT_SETTING, this::setSourceFormat);
         scopedSettings.addSettingsUpdateConsumer(INDEX_WARMER_ENABLED_SETTING, this::setEnableWarmer);
         scopedSettings.addSettingsUpdateConsumer(INDEX_GC_DELETES_SETTING, this::setGCDeletes);
         scopedSettings.addSettingsUpdateConsumer(INDEX_TRANSLOG_FLUSH_THRESHOLD_SIZE_SETTING, this::setTranslogFlushThresholdSize);
@@ -564,6 +578,17 @@ public final class IndexSettings {
         this.syncInterval = translogSyncInterval;
     }
 
+    /**
+     * Returns how long a translog sync waits for concurrent writes to join it before it fsyncs.
+     */
+    public TimeValue getTranslogSyncGroupWindow() {
+        return syncGroupWindow;
+    }
+
+    private void setTranslogSyncGroupWindow(TimeValue syncGroupWindow) {
+        this.syncGroupWindow = syncGroupWindow;
+    }
+
     /**
      * Returns this interval in which the shards of this index are asynchronously refreshed. {@code -1} means async refresh is disabled.
      */
@@ -657,6 +682,17 @@ public final class IndexSettings {
         this.maxShingleDiff = maxShingleDiff;
     }
 
+    /**
+     * Returns <code>true</code> if the <code>_source</code> is stored using the {@link BinarySource} format.
+     */
+    public boolean isBinarySource() {
+        return binarySource;
+    }
+
+    private void setSourceFormat(String sourceFormat) {
+        this.binarySource = BinarySource.BINARY.equals(sourceFormat);
+    }
+
     /**
      * Returns the GC deletes cycle in milliseconds.
      */
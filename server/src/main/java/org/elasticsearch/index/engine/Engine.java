@@ -25,6 +25,7 @@ import static org.elasticsearch.index.seqno.SequenceNumbers.UNASSIGNED_SEQ_NO;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Comparator;
@@ -285,6 +286,24 @@ public abstract class Engine implements Closeable {
      */
     public abstract IndexResult index(Index index) throws IOException;
 
+    /**
+     * Perform a batch of document index operations on the engine. The operations are expected to use auto
+     * generated ids, which allows engines to add the documents of operations which can't have been indexed before
+     * using a single {@link org.apache.lucene.index.IndexWriter#addDocuments(Iterable)} call.
+     * The default implementation performs the operations one by one.
+     *
+     * @return the results in the same order as the operations
+     *
+     * Note: engine level failures (i.e. persistent engine failures) are thrown
+     */
+    public List<IndexResult> indexAppendOnly(List<Index> operations) throws IOException {
+        ArrayList<IndexResult> results = new ArrayList<>(operations.size());
+        for (Index operation : operations) {
+            results.add(index(operation));
+        }
+        return results;
+    }
+
     /**
      * Perform document delete operation on the engine
      * @param delete operation to perform
@@ -311,6 +330,7 @@ public abstract class Engine implements Closeable {
         private final SetOnce<Boolean> freeze = new SetOnce<>();
         private final Mapping requiredMappingUpdate;
         private Translog.Location translogLocation;
+        private long took;
 
         protected Result(Exception failure, long version, long term, long seqNo) {
             this.failure = Objects.requireNonNull(failure);
@@ -380,6 +400,11 @@ public abstract class Engine implements Closeable {
             return failure;
         }
 
+        /** get total time in nanoseconds */
+        public long getTook() {
+            return took;
+        }
+
         void setTranslogLocation(Translog.Location translogLocation) {
             if (freeze.get() == null) {
                 this.translogLocation = translogLocation;
@@ -388,6 +413,14 @@ public abstract class Engine implements Closeable {
             }
         }
 
+        void setTook(long took) {
+            if (freeze.get() == null) {
+                this.took = took;
+            } else {
+                throw new IllegalStateException("result is already frozen");
+            }
+        }
+
         void freeze() {
             freeze.set(true);
         }
@@ -22,6 +22,7 @@ package org.elasticsearch.index.engine;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -81,6 +82,7 @@ import org.apache.lucene.util.InfoStream;
 import org.elasticsearch.Assertions;
 import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.common.lease.Releasable;
+import org.elasticsearch.common.lease.Releasables;
 import org.elasticsearch.common.lucene.LoggerInfoStream;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
@@ -114,6 +116,8 @@ import org.elasticsearch.index.translog.TranslogStats;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.jetbrains.annotations.Nullable;
 
+import com.carrotsearch.hppc.IntArrayList;
+
 import io.crate.common.Booleans;
 import io.crate.common.SuppressForbidden;
 import io.crate.common.io.IOUtils;
@@ -962,6 +966,7 @@ public class InternalEngine extends Engine {
                         indexResult.getSeqNo() + "]";
                     localCheckpointTracker.markSeqNoAsPersisted(indexResult.getSeqNo());
                 }
+                indexResult.setTook(System.nanoTime() - index.startTime());
                 indexResult.freeze();
                 return indexResult;
             } finally {
@@ -981,6 +986,142 @@ public class InternalEngine extends Engine {
         }
     }
 
+    /**
+     * Adds the documents of all operations which can't have been indexed before (see {@link #mayHaveBeenIndexedBefore(Index)})
+     * using a single {@link IndexWriter#addDocuments(Iterable)} call and writes their translog operations as one batch.
+     * The remaining operations are performed one by one using {@link #index(Index)}.
+     */
+    @Override
+    public List<IndexResult> indexAppendOnly(List<Index> operations) throws IOException {
+        final IndexResult[] results = new IndexResult[operations.size()];
+        final List<Index> appends = new ArrayList<>(operations.size());
+        final IntArrayList appendPositions = new IntArrayList(operations.size());
+        try (ReleasableLock releasableLock = readLock.acquire()) {
+            ensureOpen();
+            final List<Releasable> uidLocks = new ArrayList<>(operations.size());
+            int reservedDocs = 0;
+            try {
+                for (int i = 0; i < operations.size(); i++) {
+                    Index index = operations.get(i);
+                    assert Objects.equals(index.uid().field(), IdFieldMapper.NAME) : index.uid().field();
+                    if (canAppendInBatch(index) == false) {
+                        continue;
+                    }
+                    Releasable uidLock = versionMap.acquireLock(index.uid().bytes());
+                    if (mayHaveBeenIndexedBefore(index)) {
+                        uidLock.close();
+                    } else {
+                        uidLocks.add(uidLock);
+                        appends.add(index);
+                        appendPositions.add(i);
+                    }
+                }
+                if (appends.isEmpty() == false) {
+                    try (Releasable indexThrottle = throttle.acquireThrottle()) {
+                        final Exception reserveError = tryAcquireInFlightDocs(appends.get(0), appends.size());
+                        if (reserveError == null) {
+                            reservedDocs = appends.size();
+                            appendIntoLucene(appends, appendPositions, results);
+                        } else {
+                            for (int i = 0; i < appends.size(); i++) {
+                                IndexResult indexResult = new IndexResult(reserveError, Versions.NOT_FOUND);
+                                indexResult.setTook(System.nanoTime() - appends.get(i).startTime());
+                                indexResult.freeze();
+                                results[appendPositions.get(i)] = indexResult;
+                            }
+                        }
+                    }
+                }
+            } finally {
+                releaseInFlightDocs(reservedDocs);
+                Releasables.close(uidLocks);
+            }
+        } catch (RuntimeException | IOException e) {
+            try {
+                maybeFailEngine("index batch of [" + appends.size() + "] operations", e);
+            } catch (Exception inner) {
+                e.addSuppressed(inner);
+            }
+            throw e;
+        }
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = index(operations.get(i));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void appendIntoLucene(List<Index> appends, IntArrayList appendPositions, IndexResult[] results) throws IOException {
+        final List<Document> docs = new ArrayList<>(appends.size());
+        for (int i = 0; i < appends.size(); i++) {
+            Index index = appends.get(i);
+            lastWriteNanos = index.startTime();
+            index = new Index(index.uid(), index.parsedDoc(), generateSeqNoForOperationOnPrimary(index), index.primaryTerm(),
+                index.version(), index.versionType(), index.origin(), index.startTime(), index.getAutoGeneratedIdTimestamp(),
+                index.isRetry(), index.getIfSeqNo(), index.getIfPrimaryTerm());
+            appends.set(i, index);
+            index.parsedDoc().updateSeqID(index.seqNo(), index.primaryTerm());
+            index.parsedDoc().version().setLongValue(1L);
+            docs.add(index.document());
+        }
+        final IndexingStrategy plan = IndexingStrategy.optimizedAppendOnly(1L, 0);
+        try {
+            indexWriter.addDocuments(docs);
+            numDocAppends.inc(docs.size());
+            for (int i = 0; i < appends.size(); i++) {
+                Index index = appends.get(i);
+                results[appendPositions.get(i)] =
+                    new IndexResult(plan.versionForIndexing, index.primaryTerm(), index.seqNo(), plan.currentNotFoundOrDeleted);
+            }
+        } catch (Exception ex) {
+            if (ex instanceof AlreadyClosedException || indexWriter.getTragicException() != null) {
+                throw ex;
+            }
+            // A document failure aborts the whole block, add the documents one by one to fail only the affected ones
+            for (int i = 0; i < appends.size(); i++) {
+                results[appendPositions.get(i)] = indexIntoLucene(appends.get(i), plan);
+            }
+        }
+
+        final List<Translog.Operation> translogOps = new ArrayList<>(appends.size());
+        for (int i = 0; i < appends.size(); i++) {
+            Index index = appends.get(i);
+            IndexResult indexResult = results[appendPositions.get(i)];
+            if (indexResult.getResultType() == Result.Type.SUCCESS) {
+                translogOps.add(new Translog.Index(index, indexResult));
+            } else {
+                // record document failures as a no-op in the translog and Lucene with the generated seq_no
+                final NoOp noOp = new NoOp(indexResult.getSeqNo(), index.primaryTerm(), index.origin(),
+                    index.startTime(), indexResult.getFailure().toString());
+                indexResult.setTranslogLocation(innerNoOp(noOp).getTranslogLocation());
+            }
+        }
+        final List<Translog.Location> locations = translog.add(translogOps);
+        final boolean trackLocations = trackTranslogLocation.get();
+        int location = 0;
+        for (int i = 0; i < appends.size(); i++) {
+            Index index = appends.get(i);
+            IndexResult indexResult = results[appendPositions.get(i)];
+            if (indexResult.getResultType() == Result.Type.SUCCESS) {
+                Translog.Location translogLocation = locations.get(location++);
+                indexResult.setTranslogLocation(translogLocation);
+                versionMap.maybePutIndexUnderLock(index.uid().bytes(), new IndexVersionValue(
+                    trackLocations ? translogLocation : null, plan.versionForIndexing, index.seqNo(), index.primaryTerm()));
+                localCheckpointTracker.markSeqNoAsProcessed(indexResult.getSeqNo());
+            }
+            indexResult.setTook(System.nanoTime() - index.startTime());
+            indexResult.freeze();
+        }
+    }
+
+    /**
+     * @return true if the operation can be added by {@link #indexAppendOnly(List)} without planning an {@link IndexingStrategy}
+     */
+    protected boolean canAppendInBatch(Index index) {
+        return index.origin() == Operation.Origin.PRIMARY && index.isRetry() == false && canOptimizeAddDocument(index);
+    }
+
     protected final IndexingStrategy planIndexingAsNonPrimary(Index index) throws IOException {
         assert assertNonPrimaryOrigin(index);
         // needs to maintain the auto_id timestamp in case this replica becomes primary
@@ -51,6 +51,7 @@ import org.elasticsearch.index.mapper.Uid;
 import org.elasticsearch.index.translog.Translog;
 
 import io.crate.common.io.IOUtils;
+import io.crate.expression.reference.doc.lucene.BinarySource;
 import io.crate.metadata.doc.DocSysColumns;
 
 /**
@@ -274,7 +275,10 @@ final class LuceneChangesSnapshot implements Translog.Snapshot {
                     seqNo,
                     primaryTerm,
                     version,
-                    source.toBytesRef().bytes,
+                    // operations are replayed by parsing the source as JSON
+                    BinarySource.isBinary(source)
+                        ? BytesReference.toBytes(BinarySource.toJson(source))
+                        : source.toBytesRef().bytes,
                     autoGeneratedIdTimestamp
                 );
             }
@@ -33,6 +33,8 @@ import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 
+import io.crate.expression.reference.doc.lucene.BinarySource;
+
 public class SourceFieldMapper extends MetadataFieldMapper {
 
     public static final String NAME = "_source";
@@ -115,7 +117,10 @@ public class SourceFieldMapper extends MetadataFieldMapper {
         BytesReference source = originalSource;
         if (fieldType.stored() && source != null) {
             // Percolate and tv APIs may not set the source and that is ok, because these APIs will not index any data
-            BytesRef ref = source.toBytesRef();
+            // Replicas and translog replays receive the JSON source, it is stored in the same format as on the primary
+            BytesRef ref = context.indexSettings().isBinarySource()
+                ? BinarySource.fromJson(source)
+                : source.toBytesRef();
             addField.accept(new StoredField(fieldType().name(), ref.bytes, ref.offset, ref.length));
         } else {
             source = null;
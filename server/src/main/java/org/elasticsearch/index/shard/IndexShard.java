@@ -786,6 +786,48 @@ public class IndexShard extends AbstractIndexShardComponent implements IndicesCl
         }
     }
 
+    /**
+     * Performs a batch of index operations with auto generated ids on the primary, see {@link Engine#indexAppendOnly(List)}
+     *
+     * @return the results in the same order as the operations
+     */
+    public List<Engine.IndexResult> indexAppendOnly(List<Engine.Index> operations) throws IOException {
+        ensureWriteAllowed(Engine.Operation.Origin.PRIMARY);
+        active.set(true);
+        List<Engine.Index> preparedOperations = new ArrayList<>(operations.size());
+        for (Engine.Index index : operations) {
+            assert index.origin() == Engine.Operation.Origin.PRIMARY : "batches of index operations must be primary operations";
+            assert index.primaryTerm() <= getOperationPrimaryTerm()
+                : "op term [ " + index.primaryTerm() + " ] > shard term [" + getOperationPrimaryTerm() + "]";
+            preparedOperations.add(indexingOperationListeners.preIndex(shardId, index));
+        }
+        List<Engine.IndexResult> results;
+        try {
+            results = getEngine().indexAppendOnly(preparedOperations);
+        } catch (Exception e) {
+            if (logger.isTraceEnabled()) {
+                logger.trace(new ParameterizedMessage(
+                    "index-batch-fail [{}] allocation-id [{}] operationPrimaryTerm [{}]",
+                    preparedOperations.size(),
+                    routingEntry().allocationId(),
+                    getOperationPrimaryTerm()
+                ), e);
+            }
+            // Same as in index(Index): failures are document level failures unless the shard is closed
+            verifyNotClosed(e);
+            results = new ArrayList<>(preparedOperations.size());
+            for (Engine.Index index : preparedOperations) {
+                indexingOperationListeners.postIndex(shardId, index, e);
+                results.add(new Engine.IndexResult(e, index.version(), index.primaryTerm(), index.seqNo()));
+            }
+            return results;
+        }
+        for (int i = 0; i < preparedOperations.size(); i++) {
+            indexingOperationListeners.postIndex(shardId, preparedOperations.get(i), results.get(i));
+        }
+        return results;
+    }
+
     public Engine.IndexResult index(Engine engine, Engine.Index index) throws IOException {
         active.set(true);
         final Engine.IndexResult result;
@@ -131,6 +131,7 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
     private final String translogUUID;
     private final TranslogDeletionPolicy deletionPolicy;
     private final LongConsumer persistedSequenceNumberConsumer;
+    private final TranslogSyncStats syncStats = new TranslogSyncStats();
 
     /**
      * Creates a new Translog instance. This method will create a new transaction log unless the given {@link TranslogGeneration} is
@@ -481,6 +482,7 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
                 initialMinTranslogGen, initialGlobalCheckpoint,
                 globalCheckpointSupplier, this::getMinFileGeneration, primaryTermSupplier.getAsLong(), tragedy,
                 persistedSequenceNumberConsumer,
+                syncStats,
                 bigArrays);
         } catch (final IOException e) {
             throw new TranslogException(shardId, "failed to create new translog file", e);
@@ -529,6 +531,55 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
         }
     }
 
+    /**
+     * Adds a batch of operations to the transaction log.
+     * The operations are serialized into a single buffer and written while holding the lock only once.
+     *
+     * @return the locations of the operations in the same order as the operations
+     */
+    public List<Location> add(final List<? extends Operation> operations) throws IOException {
+        final ReleasableBytesStreamOutput out = new ReleasableBytesStreamOutput(bigArrays);
+        try {
+            final int[] offsets = new int[operations.size() + 1];
+            for (int i = 0; i < operations.size(); i++) {
+                final int start = (int) out.position();
+                offsets[i] = start;
+                out.skip(Integer.BYTES);
+                writeOperationNoSize(new BufferedChecksumStreamOutput(out), operations.get(i));
+                final int end = (int) out.position();
+                out.seek(start);
+                out.writeInt(end - Integer.BYTES - start);
+                out.seek(end);
+            }
+            offsets[operations.size()] = (int) out.position();
+            final BytesReference bytes = out.bytes();
+            final List<Location> locations = new ArrayList<>(operations.size());
+            try (ReleasableLock ignored = readLock.acquire()) {
+                ensureOpen();
+                for (int i = 0; i < operations.size(); i++) {
+                    final Operation operation = operations.get(i);
+                    if (operation.primaryTerm() > current.getPrimaryTerm()) {
+                        assert false :
+                            "Operation term is newer than the current term; "
+                                + "current term[" + current.getPrimaryTerm() + "], operation term[" + operation + "]";
+                        throw new IllegalArgumentException("Operation term is newer than the current term; "
+                            + "current term[" + current.getPrimaryTerm() + "], operation term[" + operation + "]");
+                    }
+                    locations.add(current.add(bytes.slice(offsets[i], offsets[i + 1] - offsets[i]), operation.seqNo()));
+                }
+            }
+            return locations;
+        } catch (final AlreadyClosedException | IOException ex) {
+            closeOnTragicEvent(ex);
+            throw ex;
+        } catch (final Exception ex) {
+            closeOnTragicEvent(ex);
+            throw new TranslogException(shardId, "Failed to write operations [" + operations.size() + "]", ex);
+        } finally {
+            Releasables.close(out);
+        }
+    }
+
     /**
      * Tests whether or not the translog generation should be rolled to a new generation. This test
      * is based on the size of the current generation compared to the configured generation
@@ -757,7 +808,8 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
         try (ReleasableLock lock = readLock.acquire()) {
             if (location.generation == current.getGeneration()) { // if we have a new one it's already synced
                 ensureOpen();
-                return current.syncUpTo(location.translogLocation + location.size);
+                long groupWindowNanos = indexSettings.getTranslogSyncGroupWindow().nanos();
+                return current.syncUpTo(location.translogLocation + location.size, groupWindowNanos);
             }
         } catch (final Exception ex) {
             closeOnTragicEvent(ex);
@@ -822,7 +874,10 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
                 totalOperations(),
                 sizeInBytes(),
                 totalOperationsByMinGen(uncommittedGen),
-                sizeInBytesByMinGen(uncommittedGen));
+                sizeInBytesByMinGen(uncommittedGen),
+                syncStats.syncs(),
+                syncStats.syncedOperations(),
+                syncStats.maxSyncedOperations());
         }
     }
 
@@ -1895,6 +1950,7 @@ public class Translog extends AbstractIndexShardComponent implements IndexShardC
             seqNo -> {
                 throw new UnsupportedOperationException();
             },
+            new TranslogSyncStats(),
             BigArrays.NON_RECYCLING_INSTANCE
         );
         writer.close();
@@ -25,11 +25,24 @@ public class TranslogStats {
     private final int numberOfOperations;
     private final long uncommittedSizeInBytes;
     private final int uncommittedOperations;
+    private final long syncs;
+    private final long syncedOperations;
+    private final long maxSyncedOperations;
 
     public TranslogStats(int numberOfOperations,
                          long translogSizeInBytes,
                          int uncommittedOperations,
                          long uncommittedSizeInBytes) {
+        this(numberOfOperations, translogSizeInBytes, uncommittedOperations, uncommittedSizeInBytes, 0L, 0L, 0L);
+    }
+
+    public TranslogStats(int numberOfOperations,
+                         long translogSizeInBytes,
+                         int uncommittedOperations,
+                         long uncommittedSizeInBytes,
+                         long syncs,
+                         long syncedOperations,
+                         long maxSyncedOperations) {
         if (numberOfOperations < 0) {
             throw new IllegalArgumentException("numberOfOperations must be >= 0");
         }
@@ -46,6 +59,9 @@ public class TranslogStats {
         this.translogSizeInBytes = translogSizeInBytes;
         this.uncommittedSizeInBytes = uncommittedSizeInBytes;
         this.uncommittedOperations = uncommittedOperations;
+        this.syncs = syncs;
+        this.syncedOperations = syncedOperations;
+        this.maxSyncedOperations = maxSyncedOperations;
     }
 
     public long getTranslogSizeInBytes() {
@@ -66,6 +82,21 @@ public class TranslogStats {
         return uncommittedOperations;
     }
 
+    /** the number of fsync calls done on the translog */
+    public long getSyncs() {
+        return syncs;
+    }
+
+    /** the number of operations made durable by all fsync calls; divided by {@link #getSyncs()} it's the average group size */
+    public long getSyncedOperations() {
+        return syncedOperations;
+    }
+
+    /** the largest number of operations made durable by a single fsync call */
+    public long getMaxSyncedOperations() {
+        return maxSyncedOperations;
+    }
+
     @Override
     public String toString() {
         return "TranslogStats{" +
@@ -73,6 +104,9 @@ public class TranslogStats {
                ", numberOfOperations=" + numberOfOperations +
                ", uncommittedSizeInBytes=" + uncommittedSizeInBytes +
                ", uncommittedOperations=" + uncommittedOperations +
+               ", syncs=" + syncs +
+               ", syncedOperations=" + syncedOperations +
+               ", maxSyncedOperations=" + maxSyncedOperations +
                '}';
     }
 }
@@ -0,0 +1,53 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.translog;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the fsync calls of a {@link Translog} over all its generations and how many
+ * operations each of them made durable. The ratio of the two is the group commit
+ * batch size, see {@link org.elasticsearch.index.IndexSettings#INDEX_TRANSLOG_SYNC_GROUP_WINDOW_SETTING}.
+ */
+public final class TranslogSyncStats {
+
+    private final LongAdder syncs = new LongAdder();
+    private final LongAdder syncedOperations = new LongAdder();
+    private final LongAccumulator maxSyncedOperations = new LongAccumulator(Math::max, 0L);
+
+    void onSync(long numOperations) {
+        syncs.increment();
+        syncedOperations.add(numOperations);
+        maxSyncedOperations.accumulate(numOperations);
+    }
+
+    public long syncs() {
+        return syncs.sum();
+    }
+
+    public long syncedOperations() {
+        return syncedOperations.sum();
+    }
+
+    public long maxSyncedOperations() {
+        return maxSyncedOperations.get();
+    }
+}
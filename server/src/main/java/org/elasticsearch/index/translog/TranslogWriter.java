@@ -29,6 +29,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.LongConsumer;
 import java.util.function.LongSupplier;
@@ -80,6 +81,7 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
 
     // callback that's called whenever an operation with a given sequence number is successfully persisted.
     private final LongConsumer persistedSequenceNumberConsumer;
+    private final TranslogSyncStats syncStats;
 
     protected final AtomicBoolean closed = new AtomicBoolean(false);
     // lock order try(Releasable lock = writeLock.acquire()) -> synchronized(this)
@@ -105,6 +107,7 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
         final LongSupplier globalCheckpointSupplier, LongSupplier minTranslogGenerationSupplier, TranslogHeader header,
         final TragicExceptionHolder tragedy,
         final LongConsumer persistedSequenceNumberConsumer,
+        final TranslogSyncStats syncStats,
         final BigArrays bigArrays)
             throws
             IOException {
@@ -126,6 +129,7 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
         assert initialCheckpoint.trimmedAboveSeqNo == SequenceNumbers.UNASSIGNED_SEQ_NO : initialCheckpoint.trimmedAboveSeqNo;
         this.globalCheckpointSupplier = globalCheckpointSupplier;
         this.persistedSequenceNumberConsumer = persistedSequenceNumberConsumer;
+        this.syncStats = syncStats;
         this.bigArrays = bigArrays;
         this.seenSequenceNumbers = Assertions.ENABLED ? new HashMap<>() : null;
         this.tragedy = tragedy;
@@ -135,7 +139,8 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
                                         ByteSizeValue bufferSize, final long initialMinTranslogGen, long initialGlobalCheckpoint,
                                         final LongSupplier globalCheckpointSupplier, final LongSupplier minTranslogGenerationSupplier,
                                         final long primaryTerm, TragicExceptionHolder tragedy,
-                                        final LongConsumer persistedSequenceNumberConsumer, final BigArrays bigArrays)
+                                        final LongConsumer persistedSequenceNumberConsumer, final TranslogSyncStats syncStats,
+                                        final BigArrays bigArrays)
         throws IOException {
         final Path checkpointFile = file.getParent().resolve(Translog.CHECKPOINT_FILE_NAME);
 
@@ -160,7 +165,8 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
                 writerGlobalCheckpointSupplier = globalCheckpointSupplier;
             }
             return new TranslogWriter(shardId, checkpoint, channel, checkpointChannel, file, checkpointFile, bufferSize,
-                writerGlobalCheckpointSupplier, minTranslogGenerationSupplier, header, tragedy, persistedSequenceNumberConsumer, bigArrays);
+                writerGlobalCheckpointSupplier, minTranslogGenerationSupplier, header, tragedy, persistedSequenceNumberConsumer, syncStats,
+                bigArrays);
         } catch (Exception exception) {
             // if we fail to bake the file-generation into the checkpoint we stick with the file and once we recover and that
             // file exists we remove it. We only apply this logic to the checkpoint.generation+1 any other file with a higher generation
@@ -396,11 +402,27 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
      * @return <code>true</code> if this call caused an actual sync operation
      */
     public boolean syncUpTo(long offset) throws IOException {
+        return syncUpTo(offset, 0L);
+    }
+
+    /**
+     * Syncs the translog up to at least the given offset unless already synced.
+     * Before the fsync this waits up to <code>groupWindowNanos</code> so that operations added concurrently by
+     * other writers are made durable by the same fsync. Those writers then find their offset synced and return
+     * without an fsync of their own. Writers arriving during the wait block on the sync lock, as they would
+     * during the fsync itself.
+     *
+     * @return <code>true</code> if this call caused an actual sync operation
+     */
+    public boolean syncUpTo(long offset, long groupWindowNanos) throws IOException {
         if (lastSyncedCheckpoint.offset < offset && syncNeeded()) {
             synchronized (syncLock) { // only one sync/checkpoint should happen concurrently but we wait
                 if (lastSyncedCheckpoint.offset < offset && syncNeeded()) {
                     // double checked locking - we don't want to fsync unless we have to and now that we have
                     // the lock we should check again since if this code is busy we might have fsynced enough already
+                    if (groupWindowNanos > 0) {
+                        LockSupport.parkNanos(this, groupWindowNanos);
+                    }
                     final Checkpoint checkpointToSync;
                     final LongArrayList flushedSequenceNumbers;
                     final ReleasableBytesReference toWrite;
@@ -433,6 +455,7 @@ public class TranslogWriter extends BaseTranslogReader implements Closeable {
                     flushedSequenceNumbers.forEach((LongProcedure) persistedSequenceNumberConsumer::accept);
                     assert lastSyncedCheckpoint.offset <= checkpointToSync.offset :
                         "illegal state: " + lastSyncedCheckpoint.offset + " <= " + checkpointToSync.offset;
+                    syncStats.onSync(checkpointToSync.numOps - lastSyncedCheckpoint.numOps);
                     lastSyncedCheckpoint = checkpointToSync; // write protected by syncLock
                     return true;
                 }
@@ -39,6 +39,9 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.elasticsearch.client.ElasticsearchClient;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.Metadata;
+import org.elasticsearch.test.ClusterServiceUtils;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
@@ -49,8 +52,10 @@ import org.mockito.stubbing.Answer;
 
 import io.crate.analyze.AnalyzedStatement;
 import io.crate.common.unit.TimeValue;
+import io.crate.data.InMemoryBatchIterator;
 import io.crate.data.Row;
 import io.crate.data.RowConsumer;
+import io.crate.data.SentinelRow;
 import io.crate.execution.jobs.kill.KillJobsNodeAction;
 import io.crate.execution.jobs.kill.KillJobsNodeRequest;
 import io.crate.planner.DependencyCarrier;
@@ -317,6 +322,114 @@ public class SessionTest extends CrateDummyClusterServiceUnitTest {
         assertThat(sqlExecutor.jobsLogs.metrics().iterator().next().totalCount()).isEqualTo(1L);
     }
 
+    @Test
+    public void test_plan_of_prepared_statement_is_reused_until_metadata_or_settings_change() throws Exception {
+        Planner planner = mock(Planner.class);
+        SQLExecutor sqlExecutor = SQLExecutor.builder(clusterService)
+            .addTable("create table t1 (x int)")
+            .overridePlanner(planner)
+            .build();
+        when(planner.plan(any(AnalyzedStatement.class), any(PlannerContext.class)))
+            .thenReturn(
+                new Plan() {
+                    @Override
+                    public StatementType type() {
+                        return StatementType.SELECT;
+                    }
+
+                    @Override
+                    public void executeOrFail(DependencyCarrier dependencies,
+                                              PlannerContext plannerContext,
+                                              RowConsumer consumer,
+                                              Row params,
+                                              SubQueryResults subQueryResults) throws Exception {
+                        consumer.accept(InMemoryBatchIterator.empty(SentinelRow.SENTINEL), null);
+                    }
+                }
+            );
+        Session session = sqlExecutor.createSession();
+        session.parse("S_1", "SELECT x FROM t1 WHERE x = ?", List.of());
+        PlanCacheStats stats = sqlExecutor.sqlOperations.planCacheStats();
+
+        for (int i = 0; i < 3; i++) {
+            session.bind("P_1", "S_1", List.of(i), null);
+            session.execute("P_1", 0, new BaseResultReceiver());
+            session.sync().get(5, TimeUnit.SECONDS);
+        }
+        verify(planner, times(1)).plan(any(AnalyzedStatement.class), any(PlannerContext.class));
+        assertThat(stats.misses()).isEqualTo(1L);
+        assertThat(stats.hits()).isEqualTo(2L);
+
+        ClusterState state = clusterService.state();
+        ClusterServiceUtils.setState(
+            clusterService,
+            ClusterState.builder(state).metadata(Metadata.builder(state.metadata()).version(state.metadata().version() + 1))
+        );
+        session.bind("P_1", "S_1", List.of(1), null);
+        session.execute("P_1", 0, new BaseResultReceiver());
+        session.sync().get(5, TimeUnit.SECONDS);
+        verify(planner, times(2)).plan(any(AnalyzedStatement.class), any(PlannerContext.class));
+
+        session.sessionSettings().setHashJoinEnabled(false);
+        session.bind("P_1", "S_1", List.of(1), null);
+        session.execute("P_1", 0, new BaseResultReceiver());
+        session.sync().get(5, TimeUnit.SECONDS);
+        verify(planner, times(3)).plan(any(AnalyzedStatement.class), any(PlannerContext.class));
+        assertThat(stats.misses()).isEqualTo(3L);
+        assertThat(stats.hits()).isEqualTo(2L);
+    }
+
+    @Test
+    public void test_plan_of_prepared_statement_using_non_deterministic_functions_is_not_reused() throws Exception {
+        Planner planner = mock(Planner.class);
+        SQLExecutor sqlExecutor = SQLExecutor.builder(clusterService)
+            .addTable("create table t1 (x int, ts timestamp with time zone)")
+            .overridePlanner(planner)
+            .build();
+        when(planner.plan(any(AnalyzedStatement.class), any(PlannerContext.class)))
+            .thenReturn(
+                new Plan() {
+                    @Override
+                    public StatementType type() {
+                        return StatementType.SELECT;
+                    }
+
+                    @Override
+                    public void executeOrFail(DependencyCarrier dependencies,
+                                              PlannerContext plannerContext,
+                                              RowConsumer consumer,
+                                              Row params,
+                                              SubQueryResults subQueryResults) throws Exception {
+                        consumer.accept(InMemoryBatchIterator.empty(SentinelRow.SENTINEL), null);
+                    }
+                }
+            );
+        Session session = sqlExecutor.createSession();
+        session.parse("S_1", "SELECT x FROM t1 WHERE ts < now()", List.of());
+        PlanCacheStats stats = sqlExecutor.sqlOperations.planCacheStats();
+
+        for (int i = 0; i < 2; i++) {
+            session.bind("P_1", "S_1", List.of(), null);
+            session.execute("P_1", 0, new BaseResultReceiver());
+            session.sync().get(5, TimeUnit.SECONDS);
+        }
+        verify(planner, times(2)).plan(any(AnalyzedStatement.class), any(PlannerContext.class));
+        assertThat(stats.misses()).isEqualTo(0L);
+        assertThat(stats.hits()).isEqualTo(0L);
+
+        session.parse("S_2", "SELECT x FROM t1 WHERE x = ?", List.of());
+        session.bind("P_2", "S_2", List.of(1), null);
+        session.execute("P_2", 0, new BaseResultReceiver());
+        session.sync().get(5, TimeUnit.SECONDS);
+        session.sessionSettings().setSearchPath("custom");
+        session.bind("P_2", "S_2", List.of(1), null);
+        session.execute("P_2", 0, new BaseResultReceiver());
+        session.sync().get(5, TimeUnit.SECONDS);
+        verify(planner, times(4)).plan(any(AnalyzedStatement.class), any(PlannerContext.class));
+        assertThat(stats.misses()).isEqualTo(2L);
+        assertThat(stats.hits()).isEqualTo(0L);
+    }
+
     @Test
     public void test_kills_query_if_not_completed_within_statement_timeout() throws Exception {
         Planner planner = mock(Planner.class);
@@ -41,9 +41,11 @@ import org.mockito.Mockito;
 import io.crate.analyze.Analyzer;
 import io.crate.common.unit.TimeValue;
 import io.crate.data.InMemoryBatchIterator;
+import io.crate.execution.engine.collect.files.StdinInputs;
 import io.crate.execution.engine.collect.stats.JobsLogs;
 import io.crate.execution.jobs.transport.CancelRequest;
 import io.crate.execution.jobs.transport.TransportCancelAction;
+import io.crate.execution.resultcache.QueryResultCache;
 import io.crate.metadata.Functions;
 import io.crate.metadata.NodeContext;
 import io.crate.planner.DependencyCarrier;
@@ -75,7 +77,9 @@ public class SessionsTest extends CrateDummyClusterServiceUnitTest {
             new JobsLogs(() -> false),
             Settings.EMPTY,
             clusterService,
-            new TableStats()
+            new TableStats(),
+            new QueryResultCache(Settings.EMPTY, clusterService),
+            new StdinInputs()
         );
 
         KeyData keyData = new KeyData(10, 20);
@@ -145,7 +149,9 @@ public class SessionsTest extends CrateDummyClusterServiceUnitTest {
                 .put("statement_timeout", "30s")
                 .build(),
             clusterService,
-            new TableStats()
+            new TableStats(),
+            new QueryResultCache(Settings.EMPTY, clusterService),
+            new StdinInputs()
         );
         Session session = sessions.newSession("doc", Role.CRATE_USER);
         assertThat(session.sessionSettings().statementTimeout())
@@ -161,7 +167,9 @@ public class SessionsTest extends CrateDummyClusterServiceUnitTest {
             new JobsLogs(() -> false),
             Settings.EMPTY,
             clusterService,
-            new TableStats()
+            new TableStats(),
+            new QueryResultCache(Settings.EMPTY, clusterService),
+            new StdinInputs()
         );
         return sessions;
     }
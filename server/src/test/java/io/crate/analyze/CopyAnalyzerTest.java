@@ -250,6 +250,16 @@ public class CopyAnalyzerTest extends CrateDummyClusterServiceUnitTest {
         assertThat(analysis.compressionType()).isEqualTo(WriterProjection.CompressionType.GZIP);
     }
 
+    @Test
+    public void test_copy_to_parquet_rejects_unsupported_compression() throws Exception {
+        assertThatThrownBy(() -> analyze("COPY users TO DIRECTORY '/blah' WITH (format='parquet', compression='zstd')"))
+            .isExactlyInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Unsupported setting value: zstd. Supported values are: gzip, snappy");
+        assertThatThrownBy(() -> analyze("COPY users TO DIRECTORY '/blah' WITH (compression='snappy')"))
+            .isExactlyInstanceOf(UnsupportedFeatureException.class)
+            .hasMessage("Compression 'snappy' is only supported for the parquet format.");
+    }
+
     @Test
     public void testCopyToFileWithPartitionedTable() throws Exception {
         BoundCopyTo analysis = analyze("COPY parted TO DIRECTORY '/blah'");
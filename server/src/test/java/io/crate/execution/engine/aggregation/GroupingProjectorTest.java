@@ -0,0 +1,315 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import static io.crate.data.SentinelRow.SENTINEL;
+import static io.crate.testing.TestingHelpers.createNodeContext;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.crate.breaker.ConcurrentRamAccounting;
+import io.crate.data.BatchIterator;
+import io.crate.data.CollectionBucket;
+import io.crate.data.InMemoryBatchIterator;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.breaker.RamAccounting;
+import io.crate.data.testing.TestingRowConsumer;
+import io.crate.execution.engine.aggregation.impl.CountAggregation;
+import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.execution.engine.collect.RowCollectExpression;
+import io.crate.execution.engine.spill.SpillDirectory;
+import io.crate.expression.symbol.AggregateMode;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.memory.MemoryManager;
+import io.crate.memory.OnHeapMemoryManager;
+import io.crate.metadata.NodeContext;
+import io.crate.metadata.functions.Signature;
+import io.crate.types.DataTypes;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+public class GroupingProjectorTest extends ESTestCase {
+
+    private static final Signature AVG_SIGNATURE = Signature.aggregate(
+        "avg",
+        DataTypes.INTEGER.getTypeSignature(),
+        DataTypes.DOUBLE.getTypeSignature()
+    );
+
+    private NodeContext nodeCtx;
+
+    @Before
+    public void setUpNodeContext() {
+        nodeCtx = createNodeContext();
+    }
+
+    private GroupingProjector createProjector(List<Symbol> keys,
+                                              AggregateMode mode,
+                                              RamAccounting ramAccounting,
+                                              SpillDirectory spillDirectory,
+                                              long maxBytesInMemory) {
+        return createProjector(
+            keys,
+            mode,
+            ramAccounting,
+            spillDirectory,
+            accounting -> new OnHeapMemoryManager(accounting::addBytes),
+            maxBytesInMemory
+        );
+    }
+
+    private GroupingProjector createProjector(List<Symbol> keys,
+                                              AggregateMode mode,
+                                              RamAccounting ramAccounting,
+                                              SpillDirectory spillDirectory,
+                                              Function<RamAccounting, MemoryManager> memoryManagerFactory,
+                                              long maxBytesInMemory) {
+        // rows: [keys..., value]
+        int numKeys = keys.size();
+        List<Input<?>> keyInputs = new ArrayList<>();
+        CollectExpression<Row, ?>[] expressions = new CollectExpression[numKeys + 1];
+        for (int i = 0; i < numKeys; i++) {
+            RowCollectExpression keyExpression = new RowCollectExpression(i);
+            expressions[i] = keyExpression;
+            keyInputs.add(keyExpression);
+        }
+        RowCollectExpression value = new RowCollectExpression(numKeys);
+        expressions[numKeys] = value;
+        AggregationFunction<?, ?> count = (AggregationFunction<?, ?>) nodeCtx.functions().getQualified(
+            CountAggregation.SIGNATURE, List.of(DataTypes.INTEGER), DataTypes.LONG);
+        AggregationFunction<?, ?> avg = (AggregationFunction<?, ?>) nodeCtx.functions().getQualified(
+            AVG_SIGNATURE, List.of(DataTypes.INTEGER), DataTypes.DOUBLE);
+        return new GroupingProjector(
+            keys,
+            keyInputs,
+            expressions,
+            mode,
+            new AggregationContext[] {
+                new AggregationContext(count, Literal.BOOLEAN_TRUE, List.of(value)),
+                new AggregationContext(avg, Literal.BOOLEAN_TRUE, List.of(value))
+            },
+            ramAccounting,
+            new OnHeapMemoryManager(ramAccounting::addBytes),
+            Version.CURRENT,
+            Version.CURRENT,
+            spillDirectory,
+            memoryManagerFactory,
+            maxBytesInMemory
+        );
+    }
+
+    @Test
+    public void test_group_by_spills_partial_states_and_reduces_partitions() throws Exception {
+        boolean multipleKeys = randomBoolean();
+        List<Symbol> keys = multipleKeys
+            ? List.of(new InputColumn(0, DataTypes.STRING), new InputColumn(1, DataTypes.INTEGER))
+            : List.of(new InputColumn(0, DataTypes.STRING));
+        int numGroups = 500;
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < numGroups * 4; i++) {
+            int group = i % numGroups;
+            rows.add(multipleKeys ? new Object[] { "key-" + group, group, i } : new Object[] { "key-" + group, i });
+        }
+        Path dataPath = createTempDir();
+        var ramAccounting = ConcurrentRamAccounting.forCircuitBreaker("test", new NoopCircuitBreaker("dummy"), 0);
+        GroupingProjector projector = createProjector(
+            keys, AggregateMode.ITER_FINAL, ramAccounting, new SpillDirectory(new Path[] { dataPath }), 4096);
+
+        TestingRowConsumer consumer = new TestingRowConsumer(false);
+        BatchIterator<Row> batchIterator = projector.apply(
+            InMemoryBatchIterator.of(new CollectionBucket(rows), SENTINEL, true));
+        consumer.accept(batchIterator, null);
+        List<Object[]> result = consumer.getResult();
+        assertThat(numSpillFiles(dataPath)).isEqualTo(SpillingGroupingCollector.NUM_PARTITIONS);
+
+        assertThat(result).hasSize(numGroups);
+        for (Object[] row : result) {
+            int group = Integer.parseInt(((String) row[0]).substring(4));
+            int numKeys = keys.size();
+            assertThat(row[numKeys]).isEqualTo(4L);
+            assertThat(row[numKeys + 1]).isEqualTo(group + 1.5 * numGroups);
+        }
+
+        batchIterator.close();
+        assertThat(numSpillFiles(dataPath)).isZero();
+    }
+
+    @Test
+    public void test_partial_group_by_emits_partial_states_after_spilling() throws Exception {
+        List<Symbol> keys = List.of(new InputColumn(0, DataTypes.INTEGER));
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(new Object[] { i % 100, i });
+        }
+        var ramAccounting = ConcurrentRamAccounting.forCircuitBreaker("test", new NoopCircuitBreaker("dummy"), 0);
+        GroupingProjector projector = createProjector(
+            keys, AggregateMode.ITER_PARTIAL, ramAccounting, new SpillDirectory(new Path[] { createTempDir() }), 1024);
+
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(projector.apply(InMemoryBatchIterator.of(new CollectionBucket(rows), SENTINEL, true)), null);
+        List<Object[]> result = consumer.getResult();
+
+        assertThat(result).hasSize(100);
+        for (Object[] row : result) {
+            // partial states are emitted unfinished
+            assertThat(row[1]).hasToString("10");
+            assertThat(row[2]).isNotInstanceOf(Double.class);
+        }
+    }
+
+    @Test
+    public void test_spilling_collector_releases_only_its_own_bytes() throws Exception {
+        List<Symbol> keys = List.of(new InputColumn(0, DataTypes.INTEGER));
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(new Object[] { i % 100, i });
+        }
+        Path dataPath = createTempDir();
+        var ramAccounting = ConcurrentRamAccounting.forCircuitBreaker("test", new NoopCircuitBreaker("dummy"), 0);
+        // bytes of another operation of the same phase
+        long otherBytes = 10_000L;
+        ramAccounting.addBytes(otherBytes);
+        GroupingProjector projector = createProjector(
+            keys, AggregateMode.ITER_FINAL, ramAccounting, new SpillDirectory(new Path[] { dataPath }), 1024);
+
+        // Used without apply() like the merge phase does
+        List<Object[]> result = new ArrayList<>();
+        for (Row row : StreamSupport.stream(new CollectionBucket(rows).spliterator(), false)
+                .collect(projector.getCollector())) {
+            result.add(row.materialize());
+            assertThat(ramAccounting.totalBytes()).isGreaterThanOrEqualTo(otherBytes);
+        }
+        assertThat(result).hasSize(100);
+        assertThat(numSpillFiles(dataPath)).isEqualTo(SpillingGroupingCollector.NUM_PARTITIONS);
+
+        projector.close();
+        assertThat(numSpillFiles(dataPath)).isZero();
+        assertThat(ramAccounting.totalBytes()).isEqualTo(otherBytes);
+    }
+
+    @Test
+    public void test_off_heap_pages_trigger_spill_and_are_released_by_it() throws Exception {
+        List<Symbol> keys = List.of(new InputColumn(0, DataTypes.STRING), new InputColumn(1, DataTypes.INTEGER));
+        int numGroups = 5000;
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < numGroups * 2; i++) {
+            int group = i % numGroups;
+            rows.add(new Object[] { "key-" + group, group, i });
+        }
+        AtomicLong directBytes = new AtomicLong();
+        AtomicLong maxDirectBytes = new AtomicLong();
+        AtomicInteger openMemoryManagers = new AtomicInteger();
+        AtomicInteger closedMemoryManagers = new AtomicInteger();
+        Function<RamAccounting, MemoryManager> offHeapMemoryManagers = accounting -> {
+            openMemoryManagers.incrementAndGet();
+            return new MemoryManager() {
+
+                private final List<ByteBuf> buffers = new ArrayList<>();
+
+                @Override
+                public ByteBuf allocate(int capacity) {
+                    ByteBuf buffer = Unpooled.directBuffer(capacity);
+                    buffers.add(buffer);
+                    maxDirectBytes.accumulateAndGet(directBytes.addAndGet(capacity), Math::max);
+                    return buffer;
+                }
+
+                @Override
+                public void close() {
+                    for (ByteBuf buffer : buffers) {
+                        directBytes.addAndGet(-buffer.capacity());
+                        buffer.release();
+                    }
+                    buffers.clear();
+                    openMemoryManagers.decrementAndGet();
+                    closedMemoryManagers.incrementAndGet();
+                }
+            };
+        };
+        Path dataPath = createTempDir();
+        AtomicLong heapBytes = new AtomicLong();
+        AtomicLong maxHeapBytes = new AtomicLong();
+        var ramAccounting = new ConcurrentRamAccounting(
+            bytes -> maxHeapBytes.accumulateAndGet(heapBytes.addAndGet(bytes), Math::max),
+            bytes -> heapBytes.addAndGet(-bytes),
+            "test",
+            0
+        );
+        long maxBytesInMemory = 2L * SerializedKeyHashTable.PAGE_SIZE;
+        GroupingProjector projector = createProjector(
+            keys,
+            AggregateMode.ITER_FINAL,
+            ramAccounting,
+            new SpillDirectory(new Path[] { dataPath }),
+            offHeapMemoryManagers,
+            maxBytesInMemory
+        );
+
+        TestingRowConsumer consumer = new TestingRowConsumer(false);
+        BatchIterator<Row> batchIterator = projector.apply(
+            InMemoryBatchIterator.of(new CollectionBucket(rows), SENTINEL, true));
+        consumer.accept(batchIterator, null);
+        List<Object[]> result = consumer.getResult();
+
+        // Only the pages can have exceeded the limit, the accounted heap bytes stayed below it
+        assertThat(maxHeapBytes.get()).isLessThan(maxBytesInMemory);
+        assertThat(numSpillFiles(dataPath)).isEqualTo(SpillingGroupingCollector.NUM_PARTITIONS);
+        assertThat(maxDirectBytes.get()).isLessThanOrEqualTo(maxBytesInMemory + SerializedKeyHashTable.PAGE_SIZE);
+        assertThat(result).hasSize(numGroups);
+        for (Object[] row : result) {
+            assertThat(row[2]).isEqualTo(2L);
+            assertThat(row[3]).isEqualTo((int) row[1] + numGroups / 2.0);
+        }
+        // Released after the final merge
+        assertThat(closedMemoryManagers.get()).isGreaterThan(1);
+        assertThat(openMemoryManagers.get()).isZero();
+        assertThat(directBytes.get()).isZero();
+
+        batchIterator.close();
+        assertThat(openMemoryManagers.get()).isZero();
+        assertThat(numSpillFiles(dataPath)).isZero();
+    }
+
+    private static long numSpillFiles(Path dataPath) throws Exception {
+        try (Stream<Path> files = Files.list(dataPath.resolve("spill"))) {
+            return files.filter(file -> file.toString().endsWith(".spill")).count();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.aggregation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.junit.Test;
+
+import io.crate.breaker.ConcurrentRamAccounting;
+import io.crate.data.Input;
+import io.crate.memory.OffHeapMemoryManager;
+import io.crate.memory.OnHeapMemoryManager;
+import io.crate.types.DataTypes;
+
+public class SerializedKeyHashTableTest {
+
+    @Test
+    public void test_supports_only_types_with_unique_serialized_form() {
+        assertThat(SerializedKeyHashTable.supportsTypes(
+            List.of(DataTypes.STRING, DataTypes.TIMESTAMPZ, DataTypes.INTEGER, DataTypes.DOUBLE))).isTrue();
+        assertThat(SerializedKeyHashTable.supportsTypes(
+            List.of(DataTypes.STRING, DataTypes.UNTYPED_OBJECT))).isFalse();
+        assertThat(SerializedKeyHashTable.supportsTypes(
+            List.of(DataTypes.LONG, DataTypes.NUMERIC))).isFalse();
+    }
+
+    @Test
+    public void test_add_returns_same_ordinal_for_equal_keys() {
+        try (var memoryManager = new OffHeapMemoryManager()) {
+            var table = new SerializedKeyHashTable(
+                List.of(DataTypes.STRING, DataTypes.LONG),
+                1,
+                ConcurrentRamAccounting.forCircuitBreaker("test", new NoopCircuitBreaker("dummy"), 0),
+                memoryManager
+            );
+            assertThat(table.add(keys("a", 1L))).isEqualTo(0);
+            assertThat(table.add(keys("b", 1L))).isEqualTo(1);
+            assertThat(table.add(keys("a", null))).isEqualTo(2);
+            assertThat(table.add(keys(null, null))).isEqualTo(3);
+
+            assertThat(table.add(keys("a", 1L))).isEqualTo(-1);
+            assertThat(table.add(keys("a", null))).isEqualTo(-3);
+            assertThat(table.add(keys(null, null))).isEqualTo(-4);
+            assertThat(table.size()).isEqualTo(4);
+
+            Object[] cells = new Object[2];
+            table.readKey(2, cells);
+            assertThat(cells).containsExactly("a", null);
+        }
+    }
+
+    @Test
+    public void test_keys_and_states_survive_rehash_and_page_allocation() {
+        try (var memoryManager = new OffHeapMemoryManager()) {
+            var table = new SerializedKeyHashTable(
+                List.of(DataTypes.STRING, DataTypes.INTEGER),
+                1,
+                ConcurrentRamAccounting.forCircuitBreaker("test", new NoopCircuitBreaker("dummy"), 0),
+                memoryManager
+            );
+            int numKeys = 10_000;
+            for (int i = 0; i < numKeys; i++) {
+                int ordinal = table.add(keys("key-" + i, i));
+                assertThat(ordinal).isEqualTo(i);
+                table.states(ordinal, new Object[] { (long) i });
+            }
+            assertThat(table.size()).isEqualTo(numKeys);
+            Object[] cells = new Object[2];
+            for (int i = 0; i < numKeys; i++) {
+                assertThat(table.add(keys("key-" + i, i))).isEqualTo(-(i + 1));
+                table.readKey(i, cells);
+                assertThat(cells).containsExactly("key-" + i, i);
+                assertThat(table.states(i)).containsExactly((long) i);
+            }
+        }
+    }
+
+    @Test
+    public void test_ram_accounting_includes_heap_structures_and_key_pages() {
+        AtomicLong accountedBytes = new AtomicLong();
+        var ramAccounting = new ConcurrentRamAccounting(accountedBytes::addAndGet, bytes -> {}, "test", 0);
+        var table = new SerializedKeyHashTable(
+            List.of(DataTypes.STRING, DataTypes.STRING),
+            1,
+            ramAccounting,
+            new OnHeapMemoryManager(ramAccounting::addBytes)
+        );
+        long initialBytes = accountedBytes.get();
+        assertThat(initialBytes).isGreaterThan(0L);
+
+        table.add(keys("a", "b"));
+        assertThat(accountedBytes.get())
+            .as("first key allocates a page")
+            .isEqualTo(initialBytes + SerializedKeyHashTable.PAGE_SIZE);
+
+        table.states(0, new Object[1]);
+        assertThat(accountedBytes.get())
+            .as("states array is accounted")
+            .isEqualTo(initialBytes + SerializedKeyHashTable.PAGE_SIZE + RamUsageEstimator.shallowSizeOf(new Object[1]));
+    }
+
+    private static List<Input<?>> keys(Object first, Object second) {
+        Input<?> firstInput = () -> first;
+        Input<?> secondInput = () -> second;
+        return List.of(firstInput, secondInput);
+    }
+}
@@ -50,10 +50,12 @@ import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.store.ByteBuffersDirectory;
 import org.elasticsearch.Version;
 import org.elasticsearch.common.lucene.BytesRefs;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.shard.IndexShard;
 import org.junit.Before;
 import org.junit.Test;
 
+import io.crate.common.CheckedFunction;
 import io.crate.data.BatchIterator;
 import io.crate.data.Row;
 import io.crate.data.breaker.RamAccounting;
@@ -68,6 +70,7 @@ import io.crate.expression.reference.doc.lucene.LongColumnReference;
 import io.crate.expression.reference.doc.lucene.LuceneCollectorExpression;
 import io.crate.expression.reference.doc.lucene.LuceneReferenceResolver;
 import io.crate.expression.symbol.AggregateMode;
+import io.crate.expression.symbol.Aggregation;
 import io.crate.expression.symbol.InputColumn;
 import io.crate.lucene.FieldTypeLookup;
 import io.crate.lucene.LuceneQueryBuilder;
@@ -165,7 +168,8 @@ public class DocValuesGroupByOptimizedIteratorTest extends CrateDummyClusterServ
             null,
             null,
             new MatchAllDocsQuery(),
-            new CollectorContext(Set.of(), Function.identity())
+            new CollectorContext(Set.of(), Function.identity()),
+            null
         );
 
         var rowConsumer = new TestingRowConsumer();
@@ -244,7 +248,8 @@ public class DocValuesGroupByOptimizedIteratorTest extends CrateDummyClusterServ
             null,
             null,
             new MatchAllDocsQuery(),
-            new CollectorContext(Set.of(), Function.identity())
+            new CollectorContext(Set.of(), Function.identity()),
+            null
         );
 
         var rowConsumer = new TestingRowConsumer();
@@ -254,6 +259,126 @@ public class DocValuesGroupByOptimizedIteratorTest extends CrateDummyClusterServ
             new Object[]{"0", 0L, 6L}, new Object[]{"1", 1L, 4L});
     }
 
+    @Test
+    public void test_group_by_doc_values_optimized_iterator_merges_cached_partials_of_segments() throws Exception {
+        SumAggregation<?> sumAggregation = (SumAggregation<?>) functions.getQualified(
+            Signature.aggregate(
+                SumAggregation.NAME,
+                DataTypes.LONG.getTypeSignature(),
+                DataTypes.LONG.getTypeSignature()
+            ),
+            List.of(DataTypes.LONG),
+            DataTypes.LONG
+        );
+        Reference sumRef = new SimpleReference(
+            new ReferenceIdent(RelationName.fromIndexName("test"), "z"),
+            RowGranularity.DOC,
+            DataTypes.LONG,
+            ColumnPolicy.DYNAMIC,
+            IndexType.PLAIN,
+            true,
+            true,
+            0,
+            COLUMN_OID_UNASSIGNED,
+            false,
+            null
+        );
+        Reference keyRef = new SimpleReference(
+            new ReferenceIdent(RelationName.fromIndexName("test"), "y"),
+            RowGranularity.DOC,
+            DataTypes.LONG,
+            ColumnPolicy.DYNAMIC,
+            IndexType.PLAIN,
+            true,
+            true,
+            1,
+            COLUMN_OID_UNASSIGNED,
+            false,
+            null
+        );
+        var sumDocValuesAggregator = sumAggregation.getDocValueAggregator(
+            mock(LuceneReferenceResolver.class),
+            List.of(sumRef),
+            mock(DocTableInfo.class),
+            List.of()
+        );
+        Aggregation aggregation = new Aggregation(
+            sumAggregation.signature(),
+            DataTypes.LONG,
+            List.of(new InputColumn(1, DataTypes.LONG))
+        );
+        var cache = new PartialAggregateCache(
+            Settings.builder().put(PartialAggregateCache.SIZE.getKey(), "1mb").build(),
+            clusterService.getClusterSettings()
+        );
+        var cachedPartials = cache.forAggregations(
+            functions,
+            List.of(keyRef, sumRef),
+            List.of(new InputColumn(0, DataTypes.LONG), aggregation),
+            List.of(aggregation),
+            Version.CURRENT,
+            Version.CURRENT
+        );
+
+        var indexWriter = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig());
+        for (var row : rows) {
+            Document doc = new Document();
+            doc.add(new NumericDocValuesField("y", (Long) row[1]));
+            doc.add(new NumericDocValuesField("z", (Long) row[2]));
+            indexWriter.addDocument(doc);
+        }
+        indexWriter.commit();
+        DirectoryReader reader1 = DirectoryReader.open(indexWriter);
+        CheckedFunction<DirectoryReader, List<Object[]>, Exception> groupBy = reader -> {
+            var it = DocValuesGroupByOptimizedIterator.GroupByIterator.forSingleKey(
+                List.of(sumDocValuesAggregator),
+                new IndexSearcher(reader),
+                keyRef,
+                List.of(new LongColumnReference("y")),
+                RamAccounting.NO_ACCOUNTING,
+                null,
+                Version.CURRENT,
+                new MatchAllDocsQuery(),
+                new CollectorContext(Set.of(), Function.identity()),
+                cachedPartials
+            );
+            var rowConsumer = new TestingRowConsumer();
+            rowConsumer.accept(it, null);
+            return rowConsumer.getResult();
+        };
+        assertThat(groupBy.apply(reader1)).containsExactlyInAnyOrder(
+            new Object[]{0L, 6L}, new Object[]{1L, 4L});
+        assertThat(cache.size()).isEqualTo(1L);
+        // weighted by the bytes accounted for the key entries and states of the segment
+        long segmentBytes = cache.sizeInBytes();
+        assertThat(segmentBytes).isPositive();
+
+        Document doc = new Document();
+        doc.add(new NumericDocValuesField("y", 0L));
+        doc.add(new NumericDocValuesField("z", 10L));
+        indexWriter.addDocument(doc);
+        indexWriter.commit();
+        DirectoryReader reader2 = DirectoryReader.openIfChanged(reader1);
+        assertThat(groupBy.apply(reader2)).containsExactlyInAnyOrder(
+            new Object[]{0L, 16L}, new Object[]{1L, 4L});
+        assertThat(cache.size()).isEqualTo(2L);
+        assertThat(cache.sizeInBytes()).isGreaterThan(segmentBytes);
+
+        // the entries of merged away segments are dropped once their readers are closed
+        indexWriter.forceMerge(1);
+        indexWriter.commit();
+        DirectoryReader reader3 = DirectoryReader.openIfChanged(reader2);
+        reader1.close();
+        reader2.close();
+        assertThat(cache.size()).isEqualTo(0L);
+        assertThat(cache.sizeInBytes()).isZero();
+        assertThat(groupBy.apply(reader3)).containsExactlyInAnyOrder(
+            new Object[]{0L, 16L}, new Object[]{1L, 4L});
+        assertThat(cache.size()).isEqualTo(1L);
+        reader3.close();
+        indexWriter.close();
+    }
+
     @Test
     public void test_create_optimized_iterator_for_single_string_key() throws Exception {
         GroupProjection groupProjection = new GroupProjection(
@@ -293,6 +418,7 @@ public class DocValuesGroupByOptimizedIteratorTest extends CrateDummyClusterServ
                 nodeCtx,
                 referenceResolver
             ),
+            new PartialAggregateCache(Settings.EMPTY, clusterService.getClusterSettings()),
             collectPhase,
             collectTask
         );
@@ -367,12 +493,13 @@ public class DocValuesGroupByOptimizedIteratorTest extends CrateDummyClusterServ
             null,
             null,
             null,
-            (states, key) -> {
+            ramAccounting -> (states, key) -> {
             },
             (expressions) -> expressions.get(0).value(),
             (key, cells) -> cells[0] = key,
             new MatchAllDocsQuery(),
-            new CollectorContext(Set.of(), Function.identity())
+            new CollectorContext(Set.of(), Function.identity()),
+            null
         );
     }
 }
@@ -50,6 +50,7 @@ import io.crate.data.CollectionBucket;
 import io.crate.data.Row;
 import io.crate.data.testing.TestingRowConsumer;
 import io.crate.execution.dsl.phases.FileUriCollectPhase;
+import io.crate.execution.engine.collect.files.StdinInputs;
 import io.crate.execution.engine.collect.sources.FileCollectSource;
 import io.crate.expression.symbol.Literal;
 import io.crate.metadata.ColumnIdent;
@@ -69,7 +70,8 @@ public class MapSideDataCollectOperationTest extends CrateDummyClusterServiceUni
             createNodeContext(),
             clusterService,
             Collections.emptyMap(),
-            THREAD_POOL
+            THREAD_POOL,
+            new StdinInputs()
             );
 
         File tmpFile = temporaryFolder.newFile("fileUriCollectOperation.json");
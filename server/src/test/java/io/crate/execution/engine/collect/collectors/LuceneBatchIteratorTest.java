@@ -21,6 +21,8 @@
 
 package io.crate.execution.engine.collect.collectors;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -29,19 +31,28 @@ import java.util.function.Function;
 
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
 import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.BytesRef;
 import org.junit.Before;
 import org.junit.Test;
 
 import io.crate.data.testing.BatchIteratorTester;
+import io.crate.expression.reference.doc.lucene.BytesRefColumnReference;
 import io.crate.expression.reference.doc.lucene.CollectorContext;
 import io.crate.expression.reference.doc.lucene.LongColumnReference;
+import io.crate.expression.reference.doc.lucene.LuceneCollectorExpression;
 
 public class LuceneBatchIteratorTest {
 
@@ -82,4 +93,114 @@ public class LuceneBatchIteratorTest {
         );
         tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
     }
+
+    @Test
+    public void test_documents_are_collected_in_blocks_across_segments_with_deletions() throws Exception {
+        IndexWriterConfig config = new IndexWriterConfig(new StandardAnalyzer())
+            .setMergePolicy(NoMergePolicy.INSTANCE);
+        IndexWriter iw = new IndexWriter(new ByteBuffersDirectory(), config);
+        int numDocs = LuceneBatchIterator.BLOCK_SIZE * 3 + 17;
+        List<Object[]> expected = new ArrayList<>();
+        for (int i = 0; i < numDocs; i++) {
+            Document doc = new Document();
+            doc.add(new StringField("id", Integer.toString(i), Field.Store.NO));
+            if (i % 7 != 0) {
+                doc.add(new SortedNumericDocValuesField("x", i));
+            }
+            doc.add(new SortedSetDocValuesField("s", new BytesRef("s" + i)));
+            iw.addDocument(doc);
+            if (i % 300 == 299) {
+                iw.commit();
+            }
+            if (i % 10 != 0) {
+                expected.add(new Object[] { i % 7 == 0 ? null : (long) i, "s" + i });
+            }
+        }
+        for (int i = 0; i < numDocs; i += 10) {
+            iw.deleteDocuments(new Term("id", Integer.toString(i)));
+        }
+        iw.commit();
+        IndexSearcher searcher = new IndexSearcher(DirectoryReader.open(iw));
+        assertThat(searcher.getIndexReader().leaves()).hasSizeGreaterThan(1);
+
+        List<LuceneCollectorExpression<?>> columns = List.of(
+            new LongColumnReference("x"),
+            new BytesRefColumnReference("s")
+        );
+        for (boolean doScores : List.of(false, true)) {
+            var tester = BatchIteratorTester.forRows(
+                () -> new LuceneBatchIterator(
+                    searcher,
+                    new MatchAllDocsQuery(),
+                    null,
+                    doScores,
+                    new CollectorContext(Set.of(), Function.identity()),
+                    columns,
+                    columns
+                )
+            );
+            tester.verifyResultAndEdgeCaseBehaviour(expected);
+        }
+    }
+
+    @Test
+    public void test_partitioned_iterators_collect_all_documents_exactly_once() throws Exception {
+        IndexWriterConfig config = new IndexWriterConfig(new StandardAnalyzer())
+            .setMergePolicy(NoMergePolicy.INSTANCE);
+        IndexWriter iw = new IndexWriter(new ByteBuffersDirectory(), config);
+        int numDocs = 1000;
+        List<Object[]> expected = new ArrayList<>();
+        for (int i = 0; i < numDocs; i++) {
+            Document doc = new Document();
+            doc.add(new StringField("id", Integer.toString(i), Field.Store.NO));
+            doc.add(new SortedNumericDocValuesField("x", i));
+            iw.addDocument(doc);
+            // one large and a few small segments
+            if (i == 699 || (i > 699 && i % 100 == 99)) {
+                iw.commit();
+            }
+            if (i % 3 != 0) {
+                expected.add(new Object[] { (long) i });
+            }
+        }
+        for (int i = 0; i < numDocs; i += 3) {
+            iw.deleteDocuments(new Term("id", Integer.toString(i)));
+        }
+        iw.commit();
+        IndexSearcher searcher = new IndexSearcher(DirectoryReader.open(iw));
+
+        List<List<LeafDocRange>> parts = LeafDocRange.partition(searcher.getIndexReader().leaves(), 3, 100);
+        assertThat(parts).hasSize(3);
+        assertThat(parts.get(0)).hasSize(1);
+        assertThat(parts.get(0).get(0).coversLeaf()).isFalse();
+
+        for (boolean doScores : List.of(false, true)) {
+            List<Object[]> result = new ArrayList<>();
+            for (List<LeafDocRange> part : parts) {
+                List<LuceneCollectorExpression<?>> columns = List.of(new LongColumnReference("x"));
+                var it = new LuceneBatchIterator(
+                    searcher,
+                    part,
+                    new MatchAllDocsQuery(),
+                    null,
+                    doScores,
+                    new CollectorContext(Set.of(), Function.identity()),
+                    columns,
+                    columns
+                );
+                while (it.moveNext()) {
+                    result.add(it.currentElement().materialize());
+                }
+                it.close();
+            }
+            assertThat(result).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    public void test_partition_does_not_split_below_min_docs_per_part() throws Exception {
+        List<List<LeafDocRange>> parts = LeafDocRange.partition(indexSearcher.getIndexReader().leaves(), 4, 100);
+        assertThat(parts).hasSize(1);
+        assertThat(parts.get(0)).allSatisfy(range -> assertThat(range.coversLeaf()).isTrue());
+    }
 }
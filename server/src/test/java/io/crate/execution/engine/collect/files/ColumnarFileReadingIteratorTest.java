@@ -0,0 +1,249 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import static io.crate.data.SentinelRow.SENTINEL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.After;
+import org.junit.Test;
+
+import io.crate.data.BatchIterator;
+import io.crate.data.InMemoryBatchIterator;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.data.testing.BatchIteratorTester;
+import io.crate.data.testing.TestingRowConsumer;
+import io.crate.execution.dsl.phases.FileUriCollectPhase.InputFormat;
+import io.crate.execution.dsl.projection.WriterProjection;
+import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.execution.engine.collect.RowCollectExpression;
+import io.crate.execution.engine.export.FileWriterProjector;
+import io.crate.execution.engine.export.LocalFsFileOutputFactory;
+import io.crate.expression.reference.file.ColumnExtractingLineExpression;
+import io.crate.expression.reference.file.SourceLineExpression;
+import io.crate.expression.reference.file.SourceLineNumberExpression;
+import io.crate.metadata.ColumnIdent;
+import io.crate.types.DataTypes;
+
+public class ColumnarFileReadingIteratorTest extends ESTestCase {
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(1);
+
+    @After
+    public void shutdownExecutor() throws Exception {
+        executorService.shutdown();
+    }
+
+    private Path writeParquetFile(int numRows, Settings settings) throws Exception {
+        Path file = createTempDir().resolve("data.parquet");
+        RowCollectExpression id = new RowCollectExpression(0);
+        RowCollectExpression name = new RowCollectExpression(1);
+        List<CollectExpression<Row, ?>> collectExpressions = List.of(id, name);
+        FileWriterProjector projector = new FileWriterProjector(
+            executorService,
+            file.toUri().toString(),
+            null,
+            List.of(id, name),
+            List.of(DataTypes.INTEGER, DataTypes.STRING),
+            collectExpressions,
+            new HashMap<>(),
+            List.of("id", "name"),
+            WriterProjection.OutputFormat.PARQUET,
+            Map.of(LocalFsFileOutputFactory.NAME, new LocalFsFileOutputFactory()),
+            settings
+        );
+        List<Row> rows = IntStream.range(0, numRows)
+            .mapToObj(i -> (Row) new RowN(i, i % 3 == 0 ? null : "name-" + i))
+            .toList();
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(projector.apply(InMemoryBatchIterator.of(rows, SENTINEL, true)), null);
+        consumer.getResult();
+        return file;
+    }
+
+    private static BatchIterator<Row> iterator(Path file,
+                                               boolean shared,
+                                               int numReaders,
+                                               int readerNumber,
+                                               List<LineCollectorExpression<?>> expressions) {
+        return new ColumnarFileReadingIterator(
+            List.of(file.toUri().toString()),
+            InputFormat.PARQUET,
+            Map.of(LocalFsFileInputFactory.NAME, new LocalFsFileInputFactory()),
+            shared,
+            numReaders,
+            readerNumber,
+            Settings.EMPTY,
+            new ArrayList<Input<?>>(expressions),
+            expressions
+        );
+    }
+
+    private static List<LineCollectorExpression<?>> idAndName() {
+        return List.of(
+            new ColumnExtractingLineExpression(new ColumnIdent("id"), DataTypes.INTEGER),
+            new ColumnExtractingLineExpression(new ColumnIdent("name"), DataTypes.STRING)
+        );
+    }
+
+    @Test
+    public void test_reads_columns_of_parquet_file() throws Exception {
+        Path file = writeParquetFile(5, Settings.EMPTY);
+        List<Object[]> expectedResult = List.of(
+            new Object[] { 0, null },
+            new Object[] { 1, "name-1" },
+            new Object[] { 2, "name-2" },
+            new Object[] { 3, null },
+            new Object[] { 4, "name-4" }
+        );
+        var tester = BatchIteratorTester.forRows(() -> iterator(file, false, 1, 0, idAndName()));
+        tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
+    }
+
+    @Test
+    public void test_raw_source_and_line_number_of_parquet_rows() throws Exception {
+        Path file = writeParquetFile(2, Settings.EMPTY);
+        List<LineCollectorExpression<?>> expressions = List.of(
+            new SourceLineExpression(),
+            new SourceLineNumberExpression()
+        );
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(iterator(file, false, 1, 0, expressions), null);
+        assertThat(consumer.getResult()).containsExactly(
+            new Object[] { "{\"id\":0,\"name\":null}", 1L },
+            new Object[] { "{\"id\":1,\"name\":\"name-1\"}", 2L }
+        );
+    }
+
+    @Test
+    public void test_row_groups_of_a_file_on_shared_storage_are_split_between_readers() throws Exception {
+        Path file = writeParquetFile(2000, Settings.builder().put("row_group_size", "1kb").build());
+        List<Integer> ids = new ArrayList<>();
+        List<Integer> readerSizes = new ArrayList<>();
+        for (int readerNumber = 0; readerNumber < 2; readerNumber++) {
+            TestingRowConsumer consumer = new TestingRowConsumer();
+            consumer.accept(iterator(file, true, 2, readerNumber, idAndName()), null);
+            List<Object[]> rows = consumer.getResult();
+            readerSizes.add(rows.size());
+            rows.forEach(row -> ids.add((Integer) row[0]));
+        }
+        assertThat(readerSizes).allSatisfy(size -> assertThat(size).isGreaterThan(0));
+        assertThat(ids).containsExactlyInAnyOrderElementsOf(IntStream.range(0, 2000).boxed().toList());
+    }
+
+    @Test
+    public void test_reads_parquet_file_with_dictionary_pages_and_optional_columns() throws Exception {
+        // Written by a small test encoder independent of ParquetRowWriter, not by a reference implementation.
+        // It mimics the layout pyarrow writes by default: snappy compressed v1 data pages,
+        // RLE_DICTIONARY encoded values except for booleans, definition levels using both RLE and
+        // bit-packed runs and two row groups of 10 rows
+        Path file = Paths.get(getClass().getResource("/essetup/data/copy/test_copy_from.parquet").toURI());
+        List<LineCollectorExpression<?>> expressions = List.of(
+            new ColumnExtractingLineExpression(new ColumnIdent("id"), DataTypes.INTEGER),
+            new ColumnExtractingLineExpression(new ColumnIdent("name"), DataTypes.STRING),
+            new ColumnExtractingLineExpression(new ColumnIdent("flag"), DataTypes.BOOLEAN),
+            new ColumnExtractingLineExpression(new ColumnIdent("ts"), DataTypes.TIMESTAMPZ),
+            new ColumnExtractingLineExpression(new ColumnIdent("score"), DataTypes.DOUBLE)
+        );
+        var tester = BatchIteratorTester.forRows(() -> iterator(file, false, 1, 0, expressions));
+        tester.verifyResultAndEdgeCaseBehaviour(List.of(
+            new Object[] { 1, "foo", false, 1600000000000L, 0.5 },
+            new Object[] { 2, "bar", true, 1600000001000L, 1.5 },
+            new Object[] { 3, "bär", true, 1600000002000L, null },
+            new Object[] { null, "", false, 1600000003000L, 0.5 },
+            new Object[] { 5, "foo", true, 1600000004000L, 1.5 },
+            new Object[] { 6, null, true, 1600000000000L, 2.5 },
+            new Object[] { 7, "bär", false, 1600000001000L, null },
+            new Object[] { 8, "", true, null, 1.5 },
+            new Object[] { 9, "foo", true, 1600000003000L, 2.5 },
+            new Object[] { 10, "foo", false, 1600000004000L, 0.5 },
+            new Object[] { 11, "foo", true, 1600000000000L, null },
+            new Object[] { null, "foo", true, 1600000001000L, 2.5 },
+            new Object[] { 13, "foo", false, 1600000002000L, 0.5 },
+            new Object[] { 14, "foo", true, 1600000003000L, 1.5 },
+            new Object[] { 15, null, true, 1600000004000L, null },
+            new Object[] { 16, "foo", false, 1600000000000L, 0.5 },
+            new Object[] { 17, "foo", true, 1600000001000L, 1.5 },
+            new Object[] { 18, "foo", true, 1600000002000L, 2.5 },
+            new Object[] { 19, "foo", false, 1600000003000L, null },
+            new Object[] { 20, "foo", true, 1600000004000L, 1.5 }
+        ));
+    }
+
+    @Test
+    public void test_reads_columns_of_arrow_file() throws Exception {
+        Path file = Paths.get(getClass().getResource("/essetup/data/copy/test_copy_from.arrow").toURI());
+        List<LineCollectorExpression<?>> expressions = List.of(
+            new ColumnExtractingLineExpression(new ColumnIdent("id"), DataTypes.INTEGER),
+            new ColumnExtractingLineExpression(new ColumnIdent("name"), DataTypes.STRING),
+            new ColumnExtractingLineExpression(new ColumnIdent("flag"), DataTypes.BOOLEAN),
+            new ColumnExtractingLineExpression(new ColumnIdent("ts"), DataTypes.TIMESTAMPZ),
+            new ColumnExtractingLineExpression(new ColumnIdent("score"), DataTypes.DOUBLE)
+        );
+        // the nested "tags" column of the file is not read
+        var tester = BatchIteratorTester.forRows(() -> new ColumnarFileReadingIterator(
+            List.of(file.toUri().toString()),
+            InputFormat.ARROW,
+            Map.of(LocalFsFileInputFactory.NAME, new LocalFsFileInputFactory()),
+            false,
+            1,
+            0,
+            Settings.EMPTY,
+            new ArrayList<Input<?>>(expressions),
+            expressions
+        ));
+        tester.verifyResultAndEdgeCaseBehaviour(List.of(
+            new Object[] { 1, "foo", true, 1000L, 1.5 },
+            new Object[] { null, "", false, 2000L, 2.5 },
+            new Object[] { 3, "bär", true, 3000L, null }
+        ));
+    }
+
+    @Test
+    public void test_invalid_file_fails_if_failures_are_not_collected() throws Exception {
+        Path file = createTempFile("invalid", ".parquet");
+        Files.writeString(file, "{\"id\": 1, \"name\": \"foo\"}");
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(iterator(file, false, 1, 0, idAndName()), null);
+        assertThatThrownBy(consumer::getResult)
+            .isExactlyInstanceOf(UncheckedIOException.class)
+            .hasMessageContaining("Failed to read PARQUET file")
+            .hasRootCauseMessage("Not a parquet file, the magic number is missing");
+    }
+}
@@ -37,6 +37,7 @@ import java.net.SocketTimeoutException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -266,4 +267,43 @@ public class FileReadingIteratorTest extends ESTestCase {
                 assertThat(fi.currentElement().line()).isEqualTo("4");
             });
     }
+
+    @Test
+    public void test_large_file_on_shared_storage_is_split_between_readers() throws Exception {
+        Path tempFile = createTempFile("tempfile", ".csv");
+        List<String> lines = new ArrayList<>();
+        lines.add("id,name");
+        for (int i = 0; i < 500; i++) {
+            lines.add(i + "," + "x".repeat(i % 17));
+        }
+        Files.write(tempFile, lines);
+        Settings settings = Settings.builder().put("split_size", "256b").build();
+
+        List<String> readLines = new ArrayList<>();
+        for (int readerNumber = 0; readerNumber < 3; readerNumber++) {
+            var fi = new FileReadingIterator(
+                List.of(tempFile.toUri().toString()),
+                null,
+                Map.of(LocalFsFileInputFactory.NAME, new LocalFsFileInputFactory()),
+                true,
+                3,
+                readerNumber,
+                settings,
+                THREAD_POOL.scheduler()
+            );
+            List<String> readerLines = new ArrayList<>();
+            while (fi.moveNext()) {
+                LineCursor cursor = fi.currentElement();
+                if (readerLines.isEmpty() && cursor.header() != null) {
+                    // the header of the file is provided if the first split doesn't start at the beginning
+                    assertThat(cursor.header()).isEqualTo("id,name");
+                }
+                readerLines.add(cursor.line());
+            }
+            fi.close();
+            assertThat(readerLines).isNotEmpty();
+            readLines.addAll(readerLines);
+        }
+        assertThat(readLines).containsExactlyInAnyOrderElementsOf(lines);
+    }
 }
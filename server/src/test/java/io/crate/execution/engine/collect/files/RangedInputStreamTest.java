@@ -0,0 +1,133 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.collect.files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+public class RangedInputStreamTest extends ESTestCase {
+
+    private static final URI URI = java.net.URI.create("file:///tmp/ranged.csv");
+
+    /**
+     * Serves the requested ranges of {@code bytes} and records them
+     */
+    private static class RangeFileInput implements FileInput {
+
+        private final byte[] bytes;
+        private final List<long[]> ranges = new ArrayList<>();
+
+        RangeFileInput(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public List<URI> expandUri() {
+            return List.of(URI);
+        }
+
+        @Override
+        public InputStream getStream(URI uri) {
+            return new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public InputStream getStream(URI uri, long start, long end) {
+            ranges.add(new long[] { start, end });
+            return new ByteArrayInputStream(Arrays.copyOfRange(bytes, (int) start, (int) end));
+        }
+
+        @Override
+        public long size(URI uri) {
+            return bytes.length;
+        }
+
+        @Override
+        public boolean isGlobbed() {
+            return false;
+        }
+
+        @Override
+        public URI uri() {
+            return URI;
+        }
+
+        @Override
+        public boolean sharedStorageDefault() {
+            return true;
+        }
+    }
+
+    private static List<String> readSplit(FileInput fileInput, long start, long end, long size) throws Exception {
+        List<String> lines = new ArrayList<>();
+        var ranged = new RangedInputStream(fileInput, URI, Math.max(0, start - 1), end, size);
+        try (var reader = new BufferedReader(new InputStreamReader(
+                new SplitInputStream(ranged, start, end), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    public void test_first_range_ends_after_the_split_to_finish_the_last_line() throws Exception {
+        String longLine = "b".repeat(1000);
+        byte[] bytes = ("a\n" + longLine + "\nc\n").getBytes(StandardCharsets.UTF_8);
+        RangeFileInput fileInput = new RangeFileInput(bytes);
+
+        assertThat(readSplit(fileInput, 0, 4, bytes.length)).containsExactly("a", longLine);
+        assertThat(fileInput.ranges).hasSize(1);
+        assertThat(fileInput.ranges.get(0)).containsExactly(0, bytes.length);
+    }
+
+    @Test
+    public void test_lines_longer_than_the_slack_are_read_with_further_ranges() throws Exception {
+        String longLine = "b".repeat(2 * RangedInputStream.SLACK + 10);
+        byte[] bytes = ("a\n" + longLine + "\nc\n").getBytes(StandardCharsets.UTF_8);
+        RangeFileInput fileInput = new RangeFileInput(bytes);
+
+        assertThat(readSplit(fileInput, 1, 4, bytes.length)).containsExactly(longLine);
+        assertThat(fileInput.ranges).hasSize(3);
+        assertThat(fileInput.ranges.get(0)).containsExactly(0, 4 + RangedInputStream.SLACK);
+        assertThat(fileInput.ranges.get(1)).containsExactly(4 + RangedInputStream.SLACK, 4 + 2 * RangedInputStream.SLACK);
+        assertThat(fileInput.ranges.get(2)).containsExactly(4 + 2 * RangedInputStream.SLACK, bytes.length);
+
+        fileInput.ranges.clear();
+        assertThat(readSplit(fileInput, 4, bytes.length, bytes.length)).containsExactly("c");
+        assertThat(fileInput.ranges).hasSize(1);
+        assertThat(fileInput.ranges.get(0)).containsExactly(3, bytes.length);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.collect.files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+public class SplitInputStreamTest extends ESTestCase {
+
+    private static List<String> readSplit(byte[] bytes, long start, long end) throws Exception {
+        var delegate = new ByteArrayInputStream(bytes);
+        delegate.skipNBytes(Math.max(0, start - 1));
+        List<String> lines = new ArrayList<>();
+        try (var reader = new BufferedReader(new InputStreamReader(
+                new SplitInputStream(delegate, start, end), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    public void test_line_starting_at_split_start_belongs_to_the_split() throws Exception {
+        byte[] bytes = "ab\ncd\nef\n".getBytes(StandardCharsets.UTF_8);
+        assertThat(readSplit(bytes, 0, 3)).containsExactly("ab");
+        assertThat(readSplit(bytes, 3, 6)).containsExactly("cd");
+        assertThat(readSplit(bytes, 6, 9)).containsExactly("ef");
+    }
+
+    @Test
+    public void test_line_crossing_the_split_end_is_read_by_the_split_it_starts_in() throws Exception {
+        byte[] bytes = "abcdef\ngh".getBytes(StandardCharsets.UTF_8);
+        assertThat(readSplit(bytes, 0, 2)).containsExactly("abcdef");
+        assertThat(readSplit(bytes, 2, 4)).isEmpty();
+        assertThat(readSplit(bytes, 4, 9)).containsExactly("gh");
+    }
+
+    @Test
+    public void test_each_line_is_read_by_exactly_one_split() throws Exception {
+        List<String> lines = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        int numLines = randomIntBetween(1, 200);
+        for (int i = 0; i < numLines; i++) {
+            String line = i + "-" + randomRealisticUnicodeOfLengthBetween(0, 40).replace("\n", "").replace("\r", "");
+            lines.add(line);
+            sb.append(line).append('\n');
+        }
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+        int splitSize = randomIntBetween(1, 100);
+
+        List<String> readLines = new ArrayList<>();
+        for (long start = 0; start < bytes.length; start += splitSize) {
+            readLines.addAll(readSplit(bytes, start, Math.min(bytes.length, start + splitSize)));
+        }
+        assertThat(readLines).isEqualTo(lines);
+    }
+}
@@ -37,6 +37,7 @@ import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
@@ -56,9 +57,11 @@ import io.crate.data.testing.FailingBatchIterator;
 import io.crate.data.testing.TestingBatchIterators;
 import io.crate.data.testing.TestingRowConsumer;
 import io.crate.execution.engine.distribution.merge.PassThroughPagingIterator;
+import io.crate.execution.engine.join.JoinKeyFilter;
 import io.crate.execution.jobs.CumulativePageBucketReceiver;
 import io.crate.execution.jobs.DistResultRXTask;
 import io.crate.execution.jobs.PageBucketReceiver;
+import io.crate.execution.jobs.PageResultListener;
 import io.crate.execution.support.NodeRequest;
 import io.crate.testing.TestingHelpers;
 import io.crate.types.DataTypes;
@@ -164,6 +167,27 @@ public class DistributingConsumerTest extends ESTestCase {
         collectingConsumer.getResult();
     }
 
+    @Test
+    public void test_rows_are_skipped_once_downstream_responds_with_key_filter() throws Exception {
+        Streamer<?>[] streamers = { DataTypes.INTEGER.streamer() };
+        TestingRowConsumer collectingConsumer = new TestingRowConsumer();
+        JoinKeyFilter keyFilter = JoinKeyFilter.create(new int[] { 0 }, new int[] { 4, 6, 7 });
+        DistResultRXTask distResultRXTask = createPageDownstreamContext(streamers, collectingConsumer, () -> keyFilter);
+        TransportDistributedResultAction distributedResultAction = createFakeTransport(streamers, distResultRXTask);
+        DistributingConsumer distributingConsumer = createDistributingConsumer(streamers, distributedResultAction);
+
+        distributingConsumer.accept(TestingBatchIterators.range(0, 10), null);
+
+        List<Object[]> result = collectingConsumer.getResult();
+        // The filter is sent with the response to the first page, the rows of the first page are not filtered
+        assertThat(TestingHelpers.printedTable(new CollectionBucket(result)),
+            is("0\n" +
+               "1\n" +
+               "4\n" +
+               "6\n" +
+               "7\n"));
+    }
+
     private DistributingConsumer createDistributingConsumer(Streamer<?>[] streamers, TransportDistributedResultAction distributedResultAction) {
         return new DistributingConsumer(
             executorService,
@@ -181,6 +205,12 @@ public class DistributingConsumerTest extends ESTestCase {
     }
 
     private DistResultRXTask createPageDownstreamContext(Streamer<?>[] streamers, TestingRowConsumer collectingConsumer) {
+        return createPageDownstreamContext(streamers, collectingConsumer, () -> null);
+    }
+
+    private DistResultRXTask createPageDownstreamContext(Streamer<?>[] streamers,
+                                                         TestingRowConsumer collectingConsumer,
+                                                         Supplier<JoinKeyFilter> keyFilter) {
         PageBucketReceiver pageBucketReceiver = new CumulativePageBucketReceiver(
             "n1",
             1,
@@ -188,7 +218,8 @@ public class DistributingConsumerTest extends ESTestCase {
             streamers,
             collectingConsumer,
             PassThroughPagingIterator.oneShot(),
-            1);
+            1,
+            keyFilter);
 
         return new DistResultRXTask(
             1,
@@ -213,7 +244,18 @@ public class DistributingConsumerTest extends ESTestCase {
                     resultRequest.bucketIdx(),
                     resultRequest.readRows(streamers),
                     resultRequest.isLast(),
-                    needMore -> listener.onResponse(new DistributedResultResponse(needMore)));
+                    new PageResultListener() {
+
+                        @Override
+                        public void needMore(boolean needMore) {
+                            needMore(needMore, null);
+                        }
+
+                        @Override
+                        public void needMore(boolean needMore, JoinKeyFilter keyFilter) {
+                            listener.onResponse(new DistributedResultResponse(needMore, keyFilter));
+                        }
+                    });
             } else {
                 bucketReceiver.kill(throwable);
             }
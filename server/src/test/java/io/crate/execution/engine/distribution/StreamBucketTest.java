@@ -0,0 +1,207 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.distribution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import io.crate.Streamer;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.data.breaker.RamAccounting;
+import io.crate.types.DataTypes;
+
+public class StreamBucketTest extends ESTestCase {
+
+    private static class CountingStreamer implements Streamer<Integer> {
+
+        private int numReads = 0;
+
+        @Override
+        public Integer readValueFrom(StreamInput in) throws IOException {
+            numReads++;
+            return DataTypes.INTEGER.streamer().readValueFrom(in);
+        }
+
+        @Override
+        public void writeValueTo(StreamOutput out, Integer v) throws IOException {
+            DataTypes.INTEGER.streamer().writeValueTo(out, v);
+        }
+    }
+
+    private static StreamBucket newBucket(Streamer<?>[] streamers) {
+        StreamBucket.Builder builder = new StreamBucket.Builder(streamers, RamAccounting.NO_ACCOUNTING);
+        builder.add(new RowN(1, 2, 3));
+        builder.add(new RowN(4, null, 6));
+        builder.add(new RowN(7, 8, 9));
+        return builder.build();
+    }
+
+    private static StreamBucket stream(StreamBucket bucket, Version version, Streamer<?>[] streamers) throws IOException {
+        BytesStreamOutput out = new BytesStreamOutput();
+        out.setVersion(version);
+        bucket.writeTo(out);
+        StreamInput in = out.bytes().streamInput();
+        in.setVersion(version);
+        return new StreamBucket(in, streamers);
+    }
+
+    @Test
+    public void test_rows_decode_only_the_columns_up_to_the_accessed_column() throws Exception {
+        CountingStreamer[] streamers = new CountingStreamer[] {
+            new CountingStreamer(), new CountingStreamer(), new CountingStreamer()
+        };
+        StreamBucket bucket = stream(newBucket(streamers), Version.CURRENT, streamers);
+
+        List<Object> values = new ArrayList<>();
+        for (Row row : bucket) {
+            values.add(row.get(1));
+            values.add(row.get(0));
+        }
+        assertThat(values).containsExactly(2, 1, null, 4, 8, 7);
+        assertThat(streamers[0].numReads).isEqualTo(3);
+        assertThat(streamers[1].numReads).isEqualTo(3);
+        assertThat(streamers[2].numReads).isEqualTo(0);
+    }
+
+    @Test
+    public void test_rows_of_bucket_streamed_from_or_to_older_node_are_decoded_eagerly() throws Exception {
+        CountingStreamer[] streamers = new CountingStreamer[] {
+            new CountingStreamer(), new CountingStreamer(), new CountingStreamer()
+        };
+        StreamBucket bucket = stream(newBucket(streamers), Version.V_5_5_0, streamers);
+
+        List<Object> values = new ArrayList<>();
+        for (Row row : bucket) {
+            values.add(row.get(0));
+        }
+        assertThat(values).containsExactly(1, 4, 7);
+        assertThat(streamers[2].numReads).isEqualTo(3);
+
+        // A bucket received from an older node can be forwarded to a newer one
+        StreamBucket forwarded = stream(bucket, Version.CURRENT, streamers);
+        List<Object[]> rows = new ArrayList<>();
+        for (Row row : forwarded) {
+            rows.add(row.materialize());
+        }
+        assertThat(rows).containsExactly(
+            new Object[] {1, 2, 3},
+            new Object[] {4, null, 6},
+            new Object[] {7, 8, 9}
+        );
+    }
+
+    @Test
+    public void test_retained_bucket_shares_bytes_until_closed() throws Exception {
+        Streamer<?>[] streamers = new Streamer[] {
+            DataTypes.INTEGER.streamer(), DataTypes.INTEGER.streamer(), DataTypes.INTEGER.streamer()
+        };
+        BytesStreamOutput out = new BytesStreamOutput();
+        newBucket(streamers).writeTo(out);
+        AtomicInteger numReleased = new AtomicInteger(0);
+        ReleasableBytesReference bytes = new ReleasableBytesReference(out.bytes(), numReleased::incrementAndGet);
+        StreamBucket bucket;
+        try (bytes; StreamInput in = bytes.streamInput()) {
+            bucket = StreamBucket.readRetained(in);
+        }
+        bucket.streamers(streamers);
+        assertThat(numReleased.get()).isEqualTo(0);
+
+        List<Object> values = new ArrayList<>();
+        for (Row row : bucket) {
+            values.add(row.get(2));
+        }
+        assertThat(values).containsExactly(3, 6, 9);
+
+        bucket.close();
+        bucket.close();
+        assertThat(numReleased.get()).isEqualTo(1);
+        assertThatThrownBy(bucket::iterator)
+            .isExactlyInstanceOf(IllegalStateException.class)
+            .hasMessage("StreamBucket has already been released");
+    }
+
+    @Test
+    public void test_copy_of_retained_bucket_releases_shared_bytes() throws Exception {
+        Streamer<?>[] streamers = new Streamer[] {
+            DataTypes.INTEGER.streamer(), DataTypes.INTEGER.streamer(), DataTypes.INTEGER.streamer()
+        };
+        StreamBucket bucket = newBucket(streamers);
+        assertThat(bucket.copyIfRetained()).isSameAs(bucket);
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        bucket.writeTo(out);
+        AtomicInteger numReleased = new AtomicInteger(0);
+        ReleasableBytesReference bytes = new ReleasableBytesReference(out.bytes(), numReleased::incrementAndGet);
+        StreamBucket retained;
+        try (bytes; StreamInput in = bytes.streamInput()) {
+            retained = StreamBucket.readRetained(in);
+        }
+        retained.streamers(streamers);
+        StreamBucket copy = retained.copyIfRetained();
+        assertThat(numReleased.get()).isEqualTo(1);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Row row : copy) {
+            rows.add(row.materialize());
+        }
+        assertThat(rows).containsExactly(
+            new Object[] {1, 2, 3},
+            new Object[] {4, null, 6},
+            new Object[] {7, 8, 9}
+        );
+    }
+
+    @Test
+    public void test_bucket_read_retained_from_stream_without_shared_bytes_is_not_copied() throws Exception {
+        Streamer<?>[] streamers = new Streamer[] {
+            DataTypes.INTEGER.streamer(), DataTypes.INTEGER.streamer(), DataTypes.INTEGER.streamer()
+        };
+        BytesStreamOutput out = new BytesStreamOutput();
+        newBucket(streamers).writeTo(out);
+        StreamBucket bucket;
+        try (StreamInput in = out.bytes().streamInput()) {
+            bucket = StreamBucket.readRetained(in);
+        }
+        bucket.streamers(streamers);
+        assertThat(bucket.copyIfRetained()).isSameAs(bucket);
+
+        List<Object> values = new ArrayList<>();
+        for (Row row : bucket) {
+            values.add(row.get(0));
+        }
+        assertThat(values).containsExactly(1, 4, 7);
+    }
+}
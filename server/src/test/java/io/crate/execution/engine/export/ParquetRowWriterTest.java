@@ -0,0 +1,232 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.export;
+
+import static io.crate.testing.Asserts.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import io.crate.data.BatchIterator;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.data.testing.TestingRowConsumer;
+import io.crate.execution.dsl.phases.FileUriCollectPhase.InputFormat;
+import io.crate.execution.dsl.projection.WriterProjection;
+import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.execution.engine.collect.RowCollectExpression;
+import io.crate.execution.engine.collect.files.ColumnarFileReadingIterator;
+import io.crate.execution.engine.collect.files.LineCollectorExpression;
+import io.crate.execution.engine.collect.files.LocalFsFileInputFactory;
+import io.crate.expression.reference.file.ColumnExtractingLineExpression;
+import io.crate.metadata.ColumnIdent;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.compression.Snappy;
+
+public class ParquetRowWriterTest extends ESTestCase {
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    private static ParquetRowWriter newWriter(ByteArrayOutputStream out,
+                                              WriterProjection.CompressionType compressionType,
+                                              Settings settings) throws Exception {
+        return newWriter(
+            out,
+            List.of("id", "name"),
+            List.of(DataTypes.INTEGER, DataTypes.STRING),
+            compressionType,
+            settings
+        );
+    }
+
+    private static ParquetRowWriter newWriter(ByteArrayOutputStream out,
+                                              List<String> names,
+                                              List<DataType<?>> types,
+                                              WriterProjection.CompressionType compressionType,
+                                              Settings settings) throws Exception {
+        List<CollectExpression<Row, ?>> expressions = new ArrayList<>(names.size());
+        List<Input<?>> inputs = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            RowCollectExpression expression = new RowCollectExpression(i);
+            expressions.add(expression);
+            inputs.add(expression);
+        }
+        return new ParquetRowWriter(out, expressions, inputs, names, types, compressionType, settings);
+    }
+
+    /**
+     * Reads the file using {@link ColumnarFileReadingIterator}, whose parquet decoder shares no code with the
+     * writer and is tested against a file written by another implementation.
+     */
+    private List<Object[]> read(byte[] file, List<String> names, List<DataType<?>> types) throws Exception {
+        Path path = createTempDir().resolve("data.parquet");
+        Files.write(path, file);
+        List<LineCollectorExpression<?>> expressions = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            expressions.add(new ColumnExtractingLineExpression(new ColumnIdent(names.get(i)), types.get(i)));
+        }
+        BatchIterator<Row> iterator = new ColumnarFileReadingIterator(
+            List.of(path.toUri().toString()),
+            InputFormat.PARQUET,
+            Map.of(LocalFsFileInputFactory.NAME, new LocalFsFileInputFactory()),
+            false,
+            1,
+            0,
+            Settings.EMPTY,
+            new ArrayList<Input<?>>(expressions),
+            expressions
+        );
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(iterator, null);
+        return consumer.getResult();
+    }
+
+    private static void assertValidFile(byte[] file) {
+        assertThat(Arrays.copyOfRange(file, 0, 4)).isEqualTo(MAGIC);
+        assertThat(Arrays.copyOfRange(file, file.length - 4, file.length)).isEqualTo(MAGIC);
+        int footerLength = ByteBuffer.wrap(file, file.length - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        assertThat(footerLength).isBetween(1, file.length - 12);
+    }
+
+    @Test
+    public void test_rows_are_written_as_parquet_file() throws Exception {
+        WriterProjection.CompressionType[] compressionTypes = {
+            null,
+            WriterProjection.CompressionType.GZIP,
+            WriterProjection.CompressionType.SNAPPY
+        };
+        for (var compressionType : compressionTypes) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ParquetRowWriter writer = newWriter(out, compressionType, Settings.EMPTY);
+            for (int i = 0; i < 100; i++) {
+                writer.write(new RowN(i, i % 3 == 0 ? null : "name-" + (i % 5)));
+            }
+            writer.close();
+            assertValidFile(out.toByteArray());
+        }
+    }
+
+    @Test
+    public void test_row_groups_are_written_once_the_row_group_size_is_reached() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ParquetRowWriter writer = newWriter(out, null, Settings.builder().put("row_group_size", "1kb").build());
+        for (int i = 0; i < 1000; i++) {
+            writer.write(new RowN(i, "name-" + i));
+        }
+        // the rows beyond the magic bytes have been flushed before the writer is closed
+        assertThat(out.size()).isGreaterThan(1024);
+        writer.close();
+        assertValidFile(out.toByteArray());
+    }
+
+    @Test
+    public void test_snappy_compressed_pages_can_be_decompressed() throws Exception {
+        byte[] data = new byte[100_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ((i * 31) % 251);
+        }
+        byte[] compressed = ParquetRowWriter.Codec.SNAPPY.compress(data);
+        assertThat(compressed.length).isLessThan(data.length);
+
+        ByteBuf decompressed = Unpooled.buffer(data.length);
+        new Snappy().decode(Unpooled.wrappedBuffer(compressed), decompressed);
+        byte[] result = new byte[decompressed.readableBytes()];
+        decompressed.readBytes(result);
+        assertThat(result).isEqualTo(data);
+    }
+
+    @Test
+    public void test_definition_levels_are_run_length_encoded() {
+        int[] levels = new int[20];
+        Arrays.fill(levels, 1);
+        // run of 20 values with bit width 1: header (20 << 1), value 1
+        assertThat(ParquetColumnWriter.encodeHybrid(levels, levels.length, 1)).isEqualTo(new byte[] { 40, 1 });
+    }
+
+    @Test
+    public void test_written_values_are_read_back_by_parquet_reader() throws Exception {
+        List<String> names = List.of("b", "i", "l", "f", "d", "s", "ts");
+        List<DataType<?>> types = List.of(
+            DataTypes.BOOLEAN,
+            DataTypes.INTEGER,
+            DataTypes.LONG,
+            DataTypes.FLOAT,
+            DataTypes.DOUBLE,
+            DataTypes.STRING,
+            DataTypes.TIMESTAMPZ
+        );
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            if (i % 7 == 0) {
+                rows.add(new Object[7]);
+            } else {
+                rows.add(new Object[] {
+                    i % 2 == 0,
+                    i % 11 == 0 ? Integer.MIN_VALUE : i,
+                    i % 13 == 0 ? Long.MAX_VALUE : i * 1_000_000_007L,
+                    i / 4.0f,
+                    -i / 3.0,
+                    i % 5 == 0 ? "" : "name-" + (i % 17) + "-ü",
+                    1_600_000_000_000L + i % 10
+                });
+            }
+        }
+        WriterProjection.CompressionType[] compressionTypes = {
+            null,
+            WriterProjection.CompressionType.GZIP,
+            WriterProjection.CompressionType.SNAPPY
+        };
+        for (var compressionType : compressionTypes) {
+            for (boolean dictionaryEncoding : new boolean[] { true, false }) {
+                Settings settings = Settings.builder()
+                    .put("row_group_size", "4kb")
+                    .put("dictionary_encoding", dictionaryEncoding)
+                    .build();
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ParquetRowWriter writer = newWriter(out, names, types, compressionType, settings);
+                for (Object[] row : rows) {
+                    writer.write(new RowN(row));
+                }
+                writer.close();
+                assertThat(read(out.toByteArray(), names, types))
+                    .as("compression=%s, dictionary_encoding=%s", compressionType, dictionaryEncoding)
+                    .containsExactlyElementsOf(rows);
+            }
+        }
+    }
+}
@@ -23,28 +23,44 @@ package io.crate.execution.engine.join;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import io.crate.Streamer;
+import io.crate.breaker.ConcurrentRamAccounting;
 import io.crate.data.BatchIterator;
 import io.crate.data.Paging;
 import io.crate.data.Row;
+import io.crate.data.breaker.RamAccounting;
 import io.crate.data.breaker.RowAccounting;
 import io.crate.data.join.CombinedRow;
 import io.crate.data.testing.BatchSimulatingIterator;
 import io.crate.data.testing.TestingBatchIterators;
 import io.crate.data.testing.TestingRowConsumer;
+import io.crate.execution.engine.spill.SpillDirectory;
+import io.crate.execution.engine.spill.SpillFile;
+import io.crate.types.DataTypes;
 
 public class HashInnerJoinBatchIteratorBehaviouralTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private int originalPageSize = Paging.PAGE_SIZE;
 
     @Before
@@ -110,4 +126,88 @@ public class HashInnerJoinBatchIteratorBehaviouralTest {
         List<Object[]> result = consumer.getResult();
         assertThat(result, contains(new Object[]{2, 2}, new Object[]{4, 4}));
     }
+
+    @Test
+    public void test_right_side_is_read_once_if_partitions_are_spilled_to_disk() throws Exception {
+        BatchSimulatingIterator<Row> leftIterator = new BatchSimulatingIterator<>(
+            TestingBatchIterators.ofValues(Arrays.asList(1, 2, 4)), 1, 2, null);
+        BatchSimulatingIterator<Row> rightIterator = new BatchSimulatingIterator<>(
+            TestingBatchIterators.ofValues(Arrays.asList(2, 0, 4, 5)), 2, 1, null);
+
+        Streamer<?>[] streamers = new Streamer[] { DataTypes.INTEGER };
+        Path spillPath = temporaryFolder.newFolder().toPath();
+        AtomicLong maxAccountedBytes = new AtomicLong();
+        RamAccounting spillRamAccounting = new ConcurrentRamAccounting(
+            bytes -> maxAccountedBytes.accumulateAndGet(bytes, Math::max),
+            bytes -> {},
+            "test",
+            0
+        );
+        BatchIterator<Row> batchIterator = new HashInnerJoinBatchIterator(
+            leftIterator,
+            rightIterator,
+            mock(RowAccounting.class),
+            new CombinedRow(1, 1),
+            row -> Objects.equals(row.get(0), row.get(1)),
+            row -> Objects.hash(row.get(0)),
+            row -> Objects.hash(row.get(0)),
+            ignored -> 2,
+            new SpillDirectory(new Path[] { spillPath }),
+            spillRamAccounting,
+            streamers,
+            streamers
+        );
+
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(batchIterator, null);
+        List<Object[]> result = consumer.getResult();
+        assertThat(result, containsInAnyOrder(new Object[]{2, 2}, new Object[]{4, 4}));
+        assertThat(rightIterator.getMovetoStartCalls(), is(0));
+        // the write buffers of all partition files are accounted and released once the partitions are closed
+        assertThat(maxAccountedBytes.get(), is(2L * HashJoinPartitions.NUM_PARTITIONS * SpillFile.BUFFER_SIZE));
+        assertThat(spillRamAccounting.totalBytes(), is(0L));
+        try (var files = Files.list(spillPath.resolve("spill"))) {
+            assertThat("spill files must be deleted", files.count(), is(0L));
+        }
+    }
+
+    @Test
+    public void test_build_side_hashes_are_passed_on_only_if_left_side_fits_into_one_block() throws Exception {
+        for (int blockSize : new int[] { 2, 10 }) {
+            BatchSimulatingIterator<Row> leftIterator = new BatchSimulatingIterator<>(
+                TestingBatchIterators.ofValues(Arrays.asList(1, 2, 4, 4)), 2, 2, null);
+            BatchSimulatingIterator<Row> rightIterator = new BatchSimulatingIterator<>(
+                TestingBatchIterators.ofValues(Arrays.asList(2, 0, 4, 5)), 2, 1, null);
+
+            List<int[]> buildSideHashes = new ArrayList<>();
+            BatchIterator<Row> batchIterator = new HashInnerJoinBatchIterator(
+                leftIterator,
+                rightIterator,
+                mock(RowAccounting.class),
+                new CombinedRow(1, 1),
+                row -> Objects.equals(row.get(0), row.get(1)),
+                row -> Objects.hash(row.get(0)),
+                row -> Objects.hash(row.get(0)),
+                ignored -> blockSize,
+                null,
+                RamAccounting.NO_ACCOUNTING,
+                new Streamer[0],
+                new Streamer[0],
+                buildSideHashes::add
+            );
+
+            TestingRowConsumer consumer = new TestingRowConsumer();
+            consumer.accept(batchIterator, null);
+            List<Object[]> result = consumer.getResult();
+            assertThat(result, containsInAnyOrder(new Object[]{2, 2}, new Object[]{4, 4}, new Object[]{4, 4}));
+            if (blockSize == 2) {
+                assertThat(buildSideHashes, is(List.of()));
+            } else {
+                assertThat(buildSideHashes.size(), is(1));
+                assertThat(
+                    Arrays.stream(buildSideHashes.get(0)).sorted().boxed().toList(),
+                    is(List.of(Objects.hash(1), Objects.hash(2), Objects.hash(4))));
+            }
+        }
+    }
 }
@@ -25,6 +25,7 @@ import static com.carrotsearch.randomizedtesting.RandomizedTest.$;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -33,7 +34,9 @@ import java.util.function.Supplier;
 import java.util.function.ToIntFunction;
 
 import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 
 import com.carrotsearch.randomizedtesting.RandomizedRunner;
@@ -41,18 +44,25 @@ import com.carrotsearch.randomizedtesting.annotations.Name;
 import com.carrotsearch.randomizedtesting.annotations.ParametersFactory;
 import com.carrotsearch.randomizedtesting.annotations.ThreadLeakScope;
 
+import io.crate.Streamer;
 import io.crate.data.BatchIterator;
 import io.crate.data.Row;
+import io.crate.data.breaker.RamAccounting;
 import io.crate.data.breaker.RowAccounting;
 import io.crate.data.join.CombinedRow;
 import io.crate.data.testing.BatchIteratorTester;
 import io.crate.data.testing.BatchSimulatingIterator;
 import io.crate.data.testing.TestingBatchIterators;
+import io.crate.execution.engine.spill.SpillDirectory;
+import io.crate.types.DataTypes;
 
 @RunWith(RandomizedRunner.class)
 @ThreadLeakScope(ThreadLeakScope.Scope.NONE)
 public class HashInnerJoinBatchIteratorTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private final CircuitBreaker circuitBreaker = mock(CircuitBreaker.class);
     private final List<Object[]> expectedResult;
     private final Supplier<BatchIterator<Row>> leftIterator;
@@ -189,4 +199,48 @@ public class HashInnerJoinBatchIteratorTest {
         var tester = BatchIteratorTester.forRows(batchIteratorSupplier);
         tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
     }
+
+    @Test
+    public void testInnerHashJoinWithPartitionsSpilledToDisk() throws Exception {
+        SpillDirectory spillDirectory = new SpillDirectory(new Path[] { temporaryFolder.newFolder().toPath() });
+        Streamer<?>[] streamers = new Streamer[] { DataTypes.INTEGER };
+        Supplier<BatchIterator<Row>> batchIteratorSupplier = () -> new HashInnerJoinBatchIterator(
+            leftIterator.get(),
+            rightIterator.get(),
+            mock(RowAccounting.class),
+            new CombinedRow(1, 1),
+            getCol0EqCol1JoinCondition(),
+            getHashForLeft(),
+            getHashForRight(),
+            ignored -> 2,
+            spillDirectory,
+            RamAccounting.NO_ACCOUNTING,
+            streamers,
+            streamers
+        );
+        var tester = BatchIteratorTester.forRows(batchIteratorSupplier);
+        tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
+    }
+
+    @Test
+    public void testInnerHashJoinWithPartitionsSpilledToDiskAndHashCollisions() throws Exception {
+        SpillDirectory spillDirectory = new SpillDirectory(new Path[] { temporaryFolder.newFolder().toPath() });
+        Streamer<?>[] streamers = new Streamer[] { DataTypes.INTEGER };
+        Supplier<BatchIterator<Row>> batchIteratorSupplier = () -> new HashInnerJoinBatchIterator(
+            leftIterator.get(),
+            rightIterator.get(),
+            mock(RowAccounting.class),
+            new CombinedRow(1, 1),
+            getCol0EqCol1JoinCondition(),
+            getHashWithCollisions(),
+            getHashWithCollisions(),
+            ignored -> 1,
+            spillDirectory,
+            RamAccounting.NO_ACCOUNTING,
+            streamers,
+            streamers
+        );
+        var tester = BatchIteratorTester.forRows(batchIteratorSupplier);
+        tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
+    }
 }
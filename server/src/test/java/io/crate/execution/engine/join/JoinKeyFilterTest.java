@@ -0,0 +1,95 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.join;
+
+import static io.crate.testing.Asserts.assertThat;
+
+import java.util.List;
+
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Literal;
+import io.crate.types.DataTypes;
+
+public class JoinKeyFilterTest extends ESTestCase {
+
+    private static int hash(Object... keys) {
+        int hash = 0;
+        for (Object key : keys) {
+            hash = 31 * hash + key.hashCode();
+        }
+        return hash;
+    }
+
+    @Test
+    public void test_filter_matches_all_added_keys_and_rejects_most_other_keys() throws Exception {
+        int[] hashes = new int[1000];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = hash("k" + i, (long) i);
+        }
+        JoinKeyFilter filter = JoinKeyFilter.create(new int[] { 2, 0 }, hashes);
+        assertThat(filter).isNotNull();
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        filter.writeTo(out);
+        StreamInput in = out.bytes().streamInput();
+        JoinKeyFilter streamedFilter = new JoinKeyFilter(in);
+
+        int falsePositives = 0;
+        for (int i = 0; i < 2000; i++) {
+            Row row = new RowN((long) i, "unused", "k" + i);
+            if (i < 1000) {
+                assertThat(filter.mightMatch(row)).isTrue();
+                assertThat(streamedFilter.mightMatch(row)).isTrue();
+            } else if (streamedFilter.mightMatch(row)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(100);
+    }
+
+    @Test
+    public void test_no_filter_is_created_for_too_many_keys() throws Exception {
+        assertThat(JoinKeyFilter.create(new int[] { 0 }, new int[JoinKeyFilter.MAX_KEYS + 1])).isNull();
+    }
+
+    @Test
+    public void test_key_columns_require_plain_columns_of_primitive_types() throws Exception {
+        assertThat(JoinKeyFilter.keyColumns(List.of(
+            new InputColumn(3, DataTypes.STRING),
+            new InputColumn(1, DataTypes.LONG)
+        ))).containsExactly(3, 1);
+        assertThat(JoinKeyFilter.keyColumns(List.of(
+            new InputColumn(0, DataTypes.STRING),
+            Literal.of(1)
+        ))).isNull();
+        assertThat(JoinKeyFilter.keyColumns(List.of(
+            new InputColumn(0, DataTypes.UNTYPED_OBJECT)
+        ))).isNull();
+    }
+}
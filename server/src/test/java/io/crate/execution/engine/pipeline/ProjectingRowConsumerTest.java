@@ -106,7 +106,9 @@ public class ProjectingRowConsumerTest extends CrateDummyClusterServiceUnitTest
             t -> null,
             Version.CURRENT,
             new ShardId("dummy", UUID.randomUUID().toString(), 0),
-            Map.of(LocalFsFileOutputFactory.NAME, new LocalFsFileOutputFactory())
+            Map.of(LocalFsFileOutputFactory.NAME, new LocalFsFileOutputFactory()),
+            null,
+            null
         );
     }
 
@@ -30,6 +30,7 @@ import static io.crate.testing.TestingHelpers.isRow;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
@@ -58,6 +59,7 @@ import io.crate.data.breaker.RamAccounting;
 import io.crate.data.testing.TestingBatchIterators;
 import io.crate.data.testing.TestingRowConsumer;
 import io.crate.execution.dsl.projection.AggregationProjection;
+import io.crate.execution.dsl.projection.EvalProjection;
 import io.crate.execution.dsl.projection.FilterProjection;
 import io.crate.execution.dsl.projection.GroupProjection;
 import io.crate.execution.dsl.projection.OrderedLimitAndOffsetProjection;
@@ -70,7 +72,11 @@ import io.crate.execution.engine.sort.SortingLimitAndOffsetProjector;
 import io.crate.execution.jobs.NodeLimits;
 import io.crate.expression.InputFactory;
 import io.crate.expression.eval.EvaluatingNormalizer;
+import io.crate.expression.operator.AndOperator;
 import io.crate.expression.operator.EqOperator;
+import io.crate.expression.operator.GtOperator;
+import io.crate.expression.predicate.NotPredicate;
+import io.crate.expression.scalar.arithmetic.ArithmeticFunctions;
 import io.crate.expression.symbol.AggregateMode;
 import io.crate.expression.symbol.Aggregation;
 import io.crate.expression.symbol.Function;
@@ -79,11 +85,13 @@ import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
 import io.crate.memory.OnHeapMemoryManager;
 import io.crate.metadata.CoordinatorTxnCtx;
+import io.crate.metadata.FunctionImplementation;
 import io.crate.metadata.NodeContext;
 import io.crate.metadata.RowGranularity;
 import io.crate.metadata.SearchPath;
 import io.crate.metadata.TransactionContext;
 import io.crate.metadata.functions.Signature;
+import io.crate.metadata.settings.CoordinatorSessionSettings;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.types.DataTypes;
 
@@ -301,4 +309,92 @@ public class ProjectionToProjectorVisitorTest extends CrateDummyClusterServiceUn
         Bucket bucket = consumer.getBucket();
         assertThat(bucket.size(), is(1));
     }
+
+    private Function function(String name, Symbol... args) {
+        List<Symbol> arguments = Arrays.asList(args);
+        FunctionImplementation impl = nodeCtx.functions().get(
+            null, name, arguments, SearchPath.pathWithPGCatalogAndDoc());
+        return new Function(impl.signature(), arguments, impl.boundSignature().returnType());
+    }
+
+    @Test
+    public void test_filter_and_eval_projections_evaluate_supported_scalars_in_batches() throws Exception {
+        // rows: [name, x, y]
+        InputColumn name = new InputColumn(0, DataTypes.STRING);
+        InputColumn x = new InputColumn(1, DataTypes.INTEGER);
+        InputColumn y = new InputColumn(2, DataTypes.DOUBLE);
+        List<Object[]> rows = new ArrayList<>();
+        int numRows = VectorizedBatchIterator.BATCH_SIZE * 2 + 10;
+        for (int i = 0; i < numRows; i++) {
+            rows.add(new Object[] { "name-" + i, i % 7 == 0 ? null : i, i % 11 == 0 ? null : i / 2.0 });
+        }
+
+        // x % 2 = 0 AND NOT (y > 100.0)
+        Symbol query = function(
+            AndOperator.NAME,
+            function(EqOperator.NAME, function(ArithmeticFunctions.Names.MODULUS, x, Literal.of(2)), Literal.of(0)),
+            function(NotPredicate.NAME, function(GtOperator.NAME, y, Literal.of(100.0)))
+        );
+        CoordinatorSessionSettings sessionSettings = CoordinatorSessionSettings.systemDefaults();
+        sessionSettings.setVectorizedEvaluationEnabled(true);
+        TransactionContext vectorizedTxnCtx = new CoordinatorTxnCtx(sessionSettings);
+        Projector filter = visitor.create(
+            new FilterProjection(query, List.of(name, x, y)),
+            vectorizedTxnCtx,
+            RamAccounting.NO_ACCOUNTING,
+            memoryManager,
+            UUID.randomUUID()
+        );
+        // name, x * 3, y + y
+        Projector eval = visitor.create(
+            new EvalProjection(List.of(
+                name,
+                function(ArithmeticFunctions.Names.MULTIPLY, x, Literal.of(3)),
+                function(ArithmeticFunctions.Names.ADD, y, y))),
+            vectorizedTxnCtx,
+            RamAccounting.NO_ACCOUNTING,
+            memoryManager,
+            UUID.randomUUID()
+        );
+
+        BatchIterator<Row> filtered = filter.apply(InMemoryBatchIterator.of(new CollectionBucket(rows), SENTINEL, true));
+        assertThat(filtered, instanceOf(VectorizedBatchIterator.class));
+        BatchIterator<Row> projected = eval.apply(filtered);
+        assertThat(projected, instanceOf(VectorizedBatchIterator.class));
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(projected, null);
+
+        List<List<Object>> expected = new ArrayList<>();
+        for (Object[] row : rows) {
+            Integer xValue = (Integer) row[1];
+            Double yValue = (Double) row[2];
+            Boolean notGt = yValue == null ? null : !(yValue > 100.0);
+            boolean matches = xValue != null && xValue % 2 == 0 && (notGt == null ? false : notGt);
+            if (matches) {
+                expected.add(Arrays.asList(row[0], xValue * 3, yValue == null ? null : yValue + yValue));
+            }
+        }
+        List<List<Object>> result = new ArrayList<>();
+        for (Object[] row : consumer.getResult()) {
+            result.add(Arrays.asList(row));
+        }
+        assertThat(result, is(expected));
+    }
+
+    @Test
+    public void test_filter_projection_evaluates_rows_one_by_one_if_vectorized_evaluation_is_disabled() throws Exception {
+        InputColumn x = new InputColumn(0, DataTypes.INTEGER);
+        Projector filter = visitor.create(
+            new FilterProjection(function(GtOperator.NAME, x, Literal.of(1)), List.of(x)),
+            txnCtx,
+            RamAccounting.NO_ACCOUNTING,
+            memoryManager,
+            UUID.randomUUID()
+        );
+        BatchIterator<Row> filtered = filter.apply(TestingBatchIterators.range(0, 5));
+        assertThat(filtered, not(instanceOf(VectorizedBatchIterator.class)));
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        consumer.accept(filtered, null);
+        assertThat(consumer.getResult().size(), is(3));
+    }
 }
@@ -22,15 +22,21 @@
 package io.crate.execution.engine.sort;
 
 import static io.crate.testing.TestingHelpers.isRow;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.breaker.MemoryCircuitBreaker;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.test.ESTestCase;
@@ -49,6 +55,7 @@ import io.crate.data.testing.TestingRowConsumer;
 import io.crate.execution.engine.collect.CollectExpression;
 import io.crate.execution.engine.collect.RowCollectExpression;
 import io.crate.execution.engine.pipeline.LimitAndOffset;
+import io.crate.execution.engine.spill.SpillDirectory;
 import io.crate.expression.symbol.Literal;
 import io.crate.types.DataTypes;
 
@@ -194,4 +201,115 @@ public class SortingLimitAndOffsetProjectorTest extends ESTestCase {
         int i = Integer.MAX_VALUE / 2 + 1;
         getProjector(2, i, i);
     }
+
+    @Test
+    public void test_unbounded_collector_spills_rows_and_merges_runs() throws Exception {
+        RowCellsAccountingWithEstimators rowAccounting = new RowCellsAccountingWithEstimators(
+            List.of(DataTypes.INTEGER, DataTypes.BOOLEAN),
+            ConcurrentRamAccounting.forCircuitBreaker("test", new NoopCircuitBreaker("dummy"), 0),
+            0
+        );
+        ExternalSorter externalSorter = new ExternalSorter(
+            new SpillDirectory(new Path[] { createTempDir() }),
+            rowAccounting,
+            DataTypes.getStreamers(List.of(DataTypes.INTEGER, DataTypes.BOOLEAN)),
+            FIRST_CELL_ORDERING,
+            40
+        );
+        Projector projector = new SortingLimitAndOffsetProjector(
+            rowAccounting,
+            INPUT_LITERAL_LIST,
+            COLLECT_EXPRESSIONS,
+            1,
+            FIRST_CELL_ORDERING,
+            5,
+            3,
+            1,
+            externalSorter
+        );
+        List<Integer> values = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            values.add(i);
+        }
+        Collections.shuffle(values, random());
+        consumer.accept(projector.apply(TestingBatchIterators.ofValues(values)), null);
+
+        Bucket rows = consumer.getBucket();
+        assertThat(rows.size(), is(5));
+        int expected = 4;
+        for (Row row : rows) {
+            assertThat(row, isRow(expected++));
+        }
+    }
+
+    @Test
+    public void test_unbounded_collector_accounts_only_for_rows_added_to_the_queue() throws Exception {
+        var ramAccounting = ConcurrentRamAccounting.forCircuitBreaker("test", new NoopCircuitBreaker("dummy"), 0);
+        RowCellsAccountingWithEstimators rowAccounting = new RowCellsAccountingWithEstimators(
+            List.of(DataTypes.INTEGER, DataTypes.BOOLEAN),
+            ramAccounting,
+            0
+        );
+        Projector projector = new SortingLimitAndOffsetProjector(
+            rowAccounting,
+            INPUT_LITERAL_LIST,
+            COLLECT_EXPRESSIONS,
+            1,
+            FIRST_CELL_ORDERING,
+            2,
+            1,
+            1
+        );
+        List<Integer> values = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            values.add(i);
+        }
+        consumer.accept(projector.apply(TestingBatchIterators.ofValues(values)), null);
+
+        assertThat(consumer.getBucket().size(), is(2));
+        // Only the first 3 rows are added to the queue, all other rows are greater
+        long rowBytes = rowAccounting.accountRowBytes(new Object[] { 1, true });
+        assertThat(ramAccounting.totalBytes(), is(3 * rowBytes));
+    }
+
+    @Test
+    public void test_spilling_releases_only_the_bytes_of_the_spilled_rows() throws Exception {
+        var ramAccounting = ConcurrentRamAccounting.forCircuitBreaker("test", new NoopCircuitBreaker("dummy"), 0);
+        // bytes of another operation of the same phase
+        long otherBytes = 10_000L;
+        ramAccounting.addBytes(otherBytes);
+        RowCellsAccountingWithEstimators rowAccounting = new RowCellsAccountingWithEstimators(
+            List.of(DataTypes.INTEGER, DataTypes.BOOLEAN),
+            ramAccounting,
+            0
+        );
+        ExternalSorter externalSorter = new ExternalSorter(
+            new SpillDirectory(new Path[] { createTempDir() }),
+            rowAccounting,
+            DataTypes.getStreamers(List.of(DataTypes.INTEGER, DataTypes.BOOLEAN)),
+            FIRST_CELL_ORDERING,
+            40
+        );
+        Projector projector = new SortingLimitAndOffsetProjector(
+            rowAccounting,
+            INPUT_LITERAL_LIST,
+            COLLECT_EXPRESSIONS,
+            1,
+            FIRST_CELL_ORDERING,
+            40,
+            0,
+            1,
+            externalSorter
+        );
+        List<Integer> values = new ArrayList<>();
+        for (int i = 50; i >= 1; i--) {
+            values.add(i);
+        }
+        consumer.accept(projector.apply(TestingBatchIterators.ofValues(values)), null);
+
+        assertThat(consumer.getBucket().size(), is(40));
+        long rowBytes = rowAccounting.accountRowBytes(new Object[] { 1, true });
+        assertThat(ramAccounting.totalBytes() - otherBytes, lessThanOrEqualTo(40 + rowBytes));
+        assertThat(ramAccounting.totalBytes(), greaterThan(otherBytes));
+    }
 }
@@ -25,11 +25,14 @@ import static io.crate.testing.TestingHelpers.isRow;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.breaker.MemoryCircuitBreaker;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.test.ESTestCase;
@@ -46,6 +49,7 @@ import io.crate.data.testing.TestingBatchIterators;
 import io.crate.data.testing.TestingRowConsumer;
 import io.crate.execution.engine.collect.CollectExpression;
 import io.crate.execution.engine.collect.RowCollectExpression;
+import io.crate.execution.engine.spill.SpillDirectory;
 import io.crate.expression.symbol.Literal;
 import io.crate.types.DataTypes;
 
@@ -65,6 +69,29 @@ public class SortingProjectorTest extends ESTestCase {
         );
     }
 
+    private SortingProjector createSpillingProjector(RowAccounting<Object[]> rowAccounting,
+                                                     SpillDirectory spillDirectory,
+                                                     long maxBytesInMemory,
+                                                     int offset) {
+        RowCollectExpression input = new RowCollectExpression(0);
+        var ordering = OrderingByPosition.arrayOrdering(DataTypes.INTEGER, 0, false, false);
+        return new SortingProjector(
+            rowAccounting,
+            List.of(input, Literal.of(true)),
+            List.<CollectExpression<Row, ?>>of(input),
+            1,
+            ordering,
+            offset,
+            new ExternalSorter(
+                spillDirectory,
+                rowAccounting,
+                DataTypes.getStreamers(List.of(DataTypes.INTEGER, DataTypes.BOOLEAN)),
+                ordering,
+                maxBytesInMemory
+            )
+        );
+    }
+
     private SortingProjector createProjector(int numOutputs, int offset) {
         return createProjector(new IgnoreRowCellsAccounting(), numOutputs, offset);
     }
@@ -124,4 +151,55 @@ public class SortingProjectorTest extends ESTestCase {
         expectedException.expect(CircuitBreakingException.class);
         consumer.getResult();
     }
+
+    @Test
+    public void test_rows_exceeding_memory_limit_are_spilled_and_merged() throws Exception {
+        Path dataPath = createTempDir();
+        RowCellsAccountingWithEstimators rowAccounting = new RowCellsAccountingWithEstimators(
+            List.of(DataTypes.INTEGER, DataTypes.BOOLEAN),
+            ConcurrentRamAccounting.forCircuitBreaker("test", new NoopCircuitBreaker("dummy"), 0),
+            0
+        );
+        // Each run holds only a few rows
+        Projector projector = createSpillingProjector(rowAccounting, new SpillDirectory(new Path[] { dataPath }), 40, 2);
+        BatchIterator<Row> batchIterator = projector.apply(
+            TestingBatchIterators.ofValues(List.of(7, 3, 9, 1, 10, 5, 2, 8, 4, 6)));
+        consumer.accept(batchIterator, null);
+
+        List<Object[]> result = consumer.getResult();
+        assertThat(result.size(), is(8));
+        for (int i = 0; i < result.size(); i++) {
+            assertThat(result.get(i), is(new Object[] { i + 3 }));
+        }
+        try (var files = Files.list(dataPath.resolve("spill"))) {
+            assertThat(
+                "spill files must be deleted on close",
+                files.filter(file -> file.toString().endsWith(".spill")).count(),
+                is(0L)
+            );
+        }
+    }
+
+    @Test
+    public void test_rows_are_spilled_if_circuit_breaker_trips() throws Exception {
+        MemoryCircuitBreaker circuitBreaker = new MemoryCircuitBreaker(
+            new ByteSizeValue(60, ByteSizeUnit.BYTES),
+            1,
+            LogManager.getLogger(SortingProjectorTest.class)
+        );
+        RowCellsAccountingWithEstimators rowAccounting = new RowCellsAccountingWithEstimators(
+            List.of(DataTypes.INTEGER, DataTypes.BOOLEAN),
+            ConcurrentRamAccounting.forCircuitBreaker("test", circuitBreaker, 0),
+            0
+        );
+        Projector projector = createSpillingProjector(
+            rowAccounting, new SpillDirectory(new Path[] { createTempDir() }), Long.MAX_VALUE, 0);
+        consumer.accept(projector.apply(TestingBatchIterators.range(0, 100)), null);
+
+        List<Object[]> result = consumer.getResult();
+        assertThat(result.size(), is(100));
+        for (int i = 0; i < result.size(); i++) {
+            assertThat(result.get(i), is(new Object[] { i }));
+        }
+    }
 }
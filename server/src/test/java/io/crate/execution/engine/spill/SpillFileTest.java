@@ -0,0 +1,94 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.engine.spill;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.crate.Streamer;
+import io.crate.data.CloseableIterator;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.types.DataTypes;
+
+public class SpillFileTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void test_rows_can_be_read_multiple_times_and_file_is_deleted_on_close() throws Exception {
+        Path dataPath = temporaryFolder.newFolder().toPath();
+        SpillDirectory spillDirectory = new SpillDirectory(new Path[] { dataPath });
+        Streamer<?>[] streamers = new Streamer[] { DataTypes.INTEGER, DataTypes.STRING };
+
+        SpillFile file = spillDirectory.newFile("test-", streamers);
+        file.write(new RowN(1, "a"));
+        file.write(new Object[] { null, "b" });
+        file.write(new RowN(3, null));
+        file.finishWriting();
+        assertThat(file.numRows()).isEqualTo(3L);
+        assertThat(file.sizeInBytes()).isGreaterThan(0L);
+
+        assertThat(readAll(file)).containsExactly(
+            new Object[] { 1, "a" },
+            new Object[] { null, "b" },
+            new Object[] { 3, null }
+        );
+        assertThat(readAll(file)).hasSize(3);
+
+        file.close();
+        try (var files = Files.list(dataPath.resolve(SpillDirectory.FOLDER_NAME))) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    public void test_spill_directory_removes_left_overs_on_creation() throws Exception {
+        Path dataPath = temporaryFolder.newFolder().toPath();
+        Path leftOver = Files.createDirectories(dataPath.resolve(SpillDirectory.FOLDER_NAME)).resolve("old.spill");
+        Files.createFile(leftOver);
+
+        SpillDirectory spillDirectory = new SpillDirectory(new Path[] { dataPath });
+        assertThat(spillDirectory.isAvailable()).isTrue();
+        assertThat(Files.exists(leftOver)).isFalse();
+        assertThat(new SpillDirectory(new Path[0]).isAvailable()).isFalse();
+    }
+
+    private static List<Object[]> readAll(SpillFile file) throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        try (CloseableIterator<Row> it = file.rows()) {
+            while (it.hasNext()) {
+                rows.add(it.next().materialize());
+            }
+        }
+        return rows;
+    }
+}
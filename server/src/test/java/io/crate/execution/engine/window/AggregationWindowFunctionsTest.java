@@ -332,4 +332,41 @@ public class AggregationWindowFunctionsTest extends AbstractWindowFunctionTest {
             rows
         );
     }
+
+    @Test
+    public void test_max_over_rows_offset_preceding_uses_segment_tree() throws Throwable {
+        Object[] expected = new Object[]{5, 5, 5, 7, 7, 7, 9, 9};
+        assertEvaluate("max(x) OVER(" +
+                            "ORDER BY d ROWS BETWEEN 2 PRECEDING and CURRENT ROW" +
+                       ")",
+            expected,
+            List.of(new ColumnIdent("x"), new ColumnIdent("d")),
+            new Object[]{5, 1.0},
+            new Object[]{1, 2.0},
+            new Object[]{3, 3.0},
+            new Object[]{7, 4.0},
+            new Object[]{2, 5.0},
+            new Object[]{2, 6.0},
+            new Object[]{9, 7.0},
+            new Object[]{1, 8.0});
+    }
+
+    @Test
+    public void test_min_over_rows_offset_preceding_and_following_uses_segment_tree() throws Throwable {
+        Object[] expected = new Object[]{1, 1, 1, 2, 2, 2, 1, 1, 1};
+        assertEvaluate("min(x) OVER(" +
+                            "ORDER BY d ROWS BETWEEN 1 PRECEDING and 1 FOLLOWING" +
+                       ")",
+            expected,
+            List.of(new ColumnIdent("x"), new ColumnIdent("d")),
+            new Object[]{5, 1.0},
+            new Object[]{1, 2.0},
+            new Object[]{3, 3.0},
+            new Object[]{7, 4.0},
+            new Object[]{2, 5.0},
+            new Object[]{2, 6.0},
+            new Object[]{9, 7.0},
+            new Object[]{1, 8.0},
+            new Object[]{null, 9.0});
+    }
 }
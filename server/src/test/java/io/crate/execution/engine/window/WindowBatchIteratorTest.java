@@ -26,6 +26,7 @@ import static io.crate.execution.engine.window.WindowFunctionBatchIterator.sortA
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 
 import java.util.ArrayList;
@@ -45,8 +46,11 @@ import io.crate.breaker.RowAccountingWithEstimators;
 import io.crate.common.collections.Lists2;
 import io.crate.common.collections.Tuple;
 import io.crate.data.BatchIterator;
+import io.crate.data.CollectionBucket;
+import io.crate.data.InMemoryBatchIterator;
 import io.crate.data.Input;
 import io.crate.data.Row;
+import io.crate.data.SentinelRow;
 import io.crate.data.breaker.RamAccounting;
 import io.crate.data.testing.BatchIteratorTester;
 import io.crate.data.testing.BatchSimulatingIterator;
@@ -363,6 +367,93 @@ public class WindowBatchIteratorTest {
         assertThat(ramAccounting.totalBytes(), is(480L));
     }
 
+    @Test
+    public void test_sorted_window_batch_iterator_computes_each_partition_on_its_own() throws Exception {
+        List<Object[]> rows = IntStream.range(0, 10).mapToObj(i -> new Object[]{i / 4, i}).toList();
+        List<Object[]> expectedResult = IntStream.range(0, 10)
+            .mapToObj(i -> new Object[]{i / 4, i, i % 4 + 1}).toList();
+        var tester = BatchIteratorTester.forRows(
+            () -> {
+                Comparator<Object[]> cmpPartitionBy = OrderingByPosition.arrayOrdering(DataTypes.INTEGER, 0, false, false);
+                Comparator<Object[]> cmpOrderBy = OrderingByPosition.arrayOrdering(DataTypes.INTEGER, 1, false, false);
+                return WindowFunctionBatchIterator.ofSorted(
+                    new BatchSimulatingIterator<>(
+                        InMemoryBatchIterator.of(new CollectionBucket(rows), SentinelRow.SENTINEL, true), 3, 4, null),
+                    new IgnoreRowAccounting(),
+                    getComputeFrameStart(cmpOrderBy, FrameBound.Type.UNBOUNDED_PRECEDING),
+                    getComputeFrameEnd(cmpOrderBy, FrameBound.Type.CURRENT_ROW),
+                    cmpPartitionBy,
+                    2,
+                    List.of(rowNumberWindowFunction()),
+                    List.of(),
+                    new Boolean[]{null},
+                    new Input[0]);
+            }
+        );
+        tester.verifyResultAndEdgeCaseBehaviour(expectedResult);
+    }
+
+    @Test
+    public void test_sorted_window_batch_iterator_releases_memory_of_emitted_partitions() {
+        RamAccounting ramAccounting = ConcurrentRamAccounting.forCircuitBreaker("test", new NoopCircuitBreaker("dummy"), 0);
+        List<Object[]> rows = IntStream.range(0, 10).mapToObj(i -> new Object[]{i / 2}).toList();
+        BatchIterator<Row> iterator = WindowFunctionBatchIterator.ofSorted(
+            InMemoryBatchIterator.of(new CollectionBucket(rows), SentinelRow.SENTINEL, true),
+            new RowAccountingWithEstimators(List.of(DataTypes.INTEGER), ramAccounting, 32),
+            (partitionStart, partitionEnd, currentIndex, sortedRows) -> 0,
+            (partitionStart, partitionEnd, currentIndex, sortedRows) -> currentIndex,
+            OrderingByPosition.arrayOrdering(DataTypes.INTEGER, 0, false, false),
+            1,
+            List.of(rowNumberWindowFunction()),
+            List.of(),
+            new Boolean[]{null},
+            new Input[][]{new Input[0]}
+        );
+        List<Long> bytesPerRow = new ArrayList<>();
+        while (iterator.moveNext()) {
+            bytesPerRow.add(ramAccounting.totalBytes());
+        }
+        // at most the rows of the emitted partition and the first row of the next partition are accounted for
+        assertThat(bytesPerRow.stream().allMatch(bytes -> bytes <= 3 * 48L), is(true));
+        assertThat(bytesPerRow.size(), is(10));
+        assertThat(ramAccounting.totalBytes(), is(0L));
+    }
+
+    @Test
+    public void test_sorted_window_batch_iterator_releases_only_the_memory_of_its_rows() {
+        RamAccounting ramAccounting = ConcurrentRamAccounting.forCircuitBreaker("test", new NoopCircuitBreaker("dummy"), 0);
+        // bytes of another operation of the same phase
+        long otherBytes = 1000L;
+        ramAccounting.addBytes(otherBytes);
+        List<Object[]> rows = IntStream.range(0, 10).mapToObj(i -> new Object[]{i / 2}).toList();
+        BatchIterator<Row> iterator = WindowFunctionBatchIterator.ofSorted(
+            InMemoryBatchIterator.of(new CollectionBucket(rows), SentinelRow.SENTINEL, true),
+            new RowAccountingWithEstimators(List.of(DataTypes.INTEGER), ramAccounting, 32),
+            (partitionStart, partitionEnd, currentIndex, sortedRows) -> 0,
+            (partitionStart, partitionEnd, currentIndex, sortedRows) -> currentIndex,
+            OrderingByPosition.arrayOrdering(DataTypes.INTEGER, 0, false, false),
+            1,
+            List.of(rowNumberWindowFunction()),
+            List.of(),
+            new Boolean[]{null},
+            new Input[][]{new Input[0]}
+        );
+        assertThat(iterator.moveNext(), is(true));
+        assertThat(iterator.moveNext(), is(true));
+        // the rows of the first partition and the first row of the second partition
+        assertThat(ramAccounting.totalBytes(), is(otherBytes + 3 * 48L));
+        assertThat(iterator.moveNext(), is(true));
+        // the rows of the first partition have been released
+        assertThat(ramAccounting.totalBytes(), is(otherBytes + 3 * 48L));
+
+        iterator.moveToStart();
+        assertThat(ramAccounting.totalBytes(), is(otherBytes));
+        while (iterator.moveNext()) {
+            assertThat(ramAccounting.totalBytes(), greaterThan(otherBytes));
+        }
+        assertThat(ramAccounting.totalBytes(), is(otherBytes));
+    }
+
     @Test
     public void testWindowBatchIteratorWithOrderedWindowOverNullValues() throws Exception {
         var rows = Arrays.asList(
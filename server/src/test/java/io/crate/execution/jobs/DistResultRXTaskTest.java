@@ -32,6 +32,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -40,24 +41,33 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.elasticsearch.common.bytes.ReleasableBytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.test.ESTestCase;
 import org.junit.Test;
 
 import io.crate.Streamer;
 import io.crate.common.collections.Iterables;
 import io.crate.common.collections.Iterators;
+import io.crate.data.BatchIterator;
 import io.crate.data.ArrayBucket;
 import io.crate.data.Bucket;
 import io.crate.data.CollectionBucket;
 import io.crate.data.Row;
+import io.crate.data.Row1;
+import io.crate.data.RowConsumer;
 import io.crate.data.breaker.RamAccounting;
 import io.crate.data.testing.TestingRowConsumer;
+import io.crate.execution.engine.distribution.StreamBucket;
 import io.crate.execution.engine.distribution.merge.KeyIterable;
 import io.crate.execution.engine.distribution.merge.PagingIterator;
 import io.crate.execution.engine.distribution.merge.PassThroughPagingIterator;
 import io.crate.testing.TestingHelpers;
+import io.crate.types.DataTypes;
 
 public class DistResultRXTaskTest extends ESTestCase {
 
@@ -161,6 +171,86 @@ public class DistResultRXTaskTest extends ESTestCase {
                "4\n"));
     }
 
+    @Test
+    public void test_retained_buckets_are_released_once_consumed() throws Exception {
+        TestingRowConsumer batchConsumer = new TestingRowConsumer();
+        DistResultRXTask ctx = getPageDownstreamContext(batchConsumer, PassThroughPagingIterator.oneShot(), 1);
+        PageBucketReceiver bucketReceiver = ctx.getBucketReceiver((byte) 0);
+        assertThat(bucketReceiver, notNullValue());
+
+        AtomicInteger numReleased = new AtomicInteger(0);
+        StreamBucket b1 = retainedBucket(numReleased, 1, 2);
+        StreamBucket b2 = retainedBucket(numReleased, 3, 4);
+        bucketReceiver.setBucket(0, b1, false, needMore -> {
+            if (needMore) {
+                // rows of the first page have been consumed before the next page is requested
+                assertThat(numReleased.get(), is(1));
+                bucketReceiver.setBucket(0, b2, true, mock(PageResultListener.class));
+            }
+        });
+
+        List<Object[]> result = batchConsumer.getResult();
+        assertThat(TestingHelpers.printedTable(new CollectionBucket(result)),
+            is("1\n" +
+               "2\n" +
+               "3\n" +
+               "4\n"));
+        assertThat(numReleased.get(), is(2));
+    }
+
+    @Test
+    public void test_retained_buckets_are_released_on_kill_only_after_consumer_finished() throws Exception {
+        CompletableFuture<Object> consumerDone = new CompletableFuture<>();
+        AtomicReference<BatchIterator<Row>> consumedIt = new AtomicReference<>();
+        RowConsumer consumer = new RowConsumer() {
+
+            @Override
+            public void accept(BatchIterator<Row> iterator, Throwable failure) {
+                consumedIt.set(iterator);
+            }
+
+            @Override
+            public CompletableFuture<?> completionFuture() {
+                return consumerDone;
+            }
+        };
+        PageBucketReceiver bucketReceiver = new CumulativePageBucketReceiver(
+            "n1",
+            1,
+            Runnable::run,
+            new Streamer[1],
+            consumer,
+            PassThroughPagingIterator.oneShot(),
+            1);
+
+        AtomicInteger numReleased = new AtomicInteger(0);
+        bucketReceiver.setBucket(0, retainedBucket(numReleased, 1, 2), false, mock(PageResultListener.class));
+        assertThat(consumedIt.get(), notNullValue());
+
+        bucketReceiver.kill(new InterruptedException("killed"));
+        // the consumer may still be reading the rows of the current page
+        assertThat(numReleased.get(), is(0));
+
+        consumerDone.completeExceptionally(new InterruptedException("killed"));
+        assertThat(numReleased.get(), is(1));
+    }
+
+    private static StreamBucket retainedBucket(AtomicInteger numReleased, int... values) throws IOException {
+        Streamer<?>[] streamers = new Streamer[] { DataTypes.INTEGER.streamer() };
+        StreamBucket.Builder builder = new StreamBucket.Builder(streamers, RamAccounting.NO_ACCOUNTING);
+        for (int value : values) {
+            builder.add(new Row1(value));
+        }
+        BytesStreamOutput out = new BytesStreamOutput();
+        builder.build().writeTo(out);
+        ReleasableBytesReference bytes = new ReleasableBytesReference(out.bytes(), numReleased::incrementAndGet);
+        try (bytes; StreamInput in = bytes.streamInput()) {
+            StreamBucket bucket = StreamBucket.readRetained(in);
+            bucket.streamers(streamers);
+            return bucket;
+        }
+    }
+
     @Test
     public void testListenersCalledWhenOtherUpstreamIsFailing() throws Exception {
         TestingRowConsumer consumer = new TestingRowConsumer();
@@ -0,0 +1,114 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.execution.resultcache;
+
+import static io.crate.testing.Asserts.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Test;
+
+import io.crate.metadata.SearchPath;
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.testing.SQLExecutor;
+
+public class QueryResultCacheTest extends CrateDummyClusterServiceUnitTest {
+
+    private static QueryResultCache.Key key(String statement) {
+        return new QueryResultCache.Key(statement, "crate", SearchPath.pathWithPGCatalogAndDoc(), List.of());
+    }
+
+    private static QueryResultCache newCache(String size) {
+        Settings settings = Settings.builder().put(QueryResultCache.SIZE.getKey(), size).build();
+        return new QueryResultCache(settings, new ClusterSettings(settings, Set.of(QueryResultCache.SIZE)));
+    }
+
+    @Test
+    public void test_entry_is_only_served_for_unchanged_metadata_and_reader_versions() throws Exception {
+        QueryResultCache cache = newCache("1mb");
+        List<Object[]> rows = List.<Object[]>of(new Object[] { 1L });
+        cache.put(key("select count(*) from t"), 5L, Map.of("a", 1L), rows, 100);
+
+        assertThat(cache.get(key("select count(*) from t"), 5L, Map.of("a", 1L))).containsExactly(new Object[] { 1L });
+        assertThat(cache.get(key("select count(*) from t"), 5L, Map.of("a", 2L))).isNull();
+        // stale entries are removed
+        assertThat(cache.get(key("select count(*) from t"), 5L, Map.of("a", 1L))).isNull();
+
+        cache.put(key("select count(*) from t"), 5L, Map.of("a", 1L), rows, 100);
+        assertThat(cache.get(key("select count(*) from t"), 6L, Map.of("a", 1L))).isNull();
+        assertThat(cache.get(key("select 1 from t"), 5L, Map.of("a", 1L))).isNull();
+
+        QueryResultCacheStats stats = cache.stats();
+        assertThat(stats.hits()).isEqualTo(1L);
+        assertThat(stats.misses()).isEqualTo(4L);
+        assertThat(stats.entries()).isEqualTo(0L);
+    }
+
+    @Test
+    public void test_entries_are_evicted_if_cache_exceeds_its_size() throws Exception {
+        QueryResultCache cache = newCache("1kb");
+        assertThat(cache.maxEntryBytes()).isEqualTo(256L);
+
+        cache.put(key("too large"), 1L, Map.of(), List.of(), 257);
+        assertThat(cache.stats().entries()).isEqualTo(0L);
+
+        for (int i = 0; i < 5; i++) {
+            cache.put(key("select " + i), 1L, Map.of(), List.of(), 256);
+        }
+        QueryResultCacheStats stats = cache.stats();
+        assertThat(stats.entries()).isEqualTo(4L);
+        assertThat(stats.sizeInBytes()).isEqualTo(1024L);
+        assertThat(stats.evictions()).isEqualTo(1L);
+    }
+
+    @Test
+    public void test_only_deterministic_queries_on_user_tables_are_cacheable() throws Exception {
+        SQLExecutor e = SQLExecutor.builder(clusterService)
+            .addTable("create table doc.t (id int primary key, x int)")
+            .addPartitionedTable(
+                "create table doc.p (x int, p int) partitioned by (p)",
+                ".partitioned.p.04132",
+                ".partitioned.p.04134")
+            .build();
+
+        assertThat(cacheableIndices(e, "select count(*), max(x) from t group by id")).containsExactly("t");
+        assertThat(cacheableIndices(e, "select * from t where x > (select max(x) from p)"))
+            .containsExactlyInAnyOrder("t", ".partitioned.p.04132", ".partitioned.p.04134");
+        assertThat(cacheableIndices(e, "select t.x from t join p on t.x = p.x"))
+            .containsExactlyInAnyOrder("t", ".partitioned.p.04132", ".partitioned.p.04134");
+
+        assertThat(cacheableIndices(e, "select random(), x from t")).isNull();
+        assertThat(cacheableIndices(e, "select * from t where x < (select random())")).isNull();
+        assertThat(cacheableIndices(e, "select current_timestamp, x from t")).isNull();
+        assertThat(cacheableIndices(e, "select * from t where id = 1")).isNull();
+        assertThat(cacheableIndices(e, "select name from sys.nodes")).isNull();
+        assertThat(cacheableIndices(e, "select * from generate_series(1, 10)")).isNull();
+    }
+
+    private static Set<String> cacheableIndices(SQLExecutor e, String statement) {
+        return QueryResultCache.cacheableIndices(e.analyze(statement), e.logicalPlan(statement));
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.reference.doc.lucene;
+
+import static io.crate.testing.TestingHelpers.createReference;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.test.ESTestCase;
+import org.junit.Test;
+
+import io.crate.common.collections.Maps;
+import io.crate.metadata.ColumnIdent;
+import io.crate.sql.tree.BitString;
+import io.crate.types.ArrayType;
+import io.crate.types.BitStringType;
+import io.crate.types.DataTypes;
+import io.crate.types.ObjectType;
+
+public class BinarySourceTest extends ESTestCase {
+
+    private static BytesReference binary(String json) {
+        return new BytesArray(BinarySource.fromJson(new BytesArray(json)));
+    }
+
+    @Test
+    public void test_json_source_is_not_detected_as_binary() throws Exception {
+        BytesArray json = new BytesArray("{\"x\": 1}");
+        assertThat(BinarySource.isBinary(json)).isFalse();
+        assertThat(BinarySource.toJson(json)).isSameAs(json);
+        assertThat(BinarySource.isBinary(binary("{\"x\": 1}"))).isTrue();
+    }
+
+    @Test
+    public void test_binary_source_can_be_converted_back_to_json_keeping_the_key_order() throws Exception {
+        String json = """
+            {"z":1,"a":"foo","m":{"y":null,"b":[1,2147483648,1.5]},"b":true,"e":[],"o":{},"c":false}""";
+        BytesReference source = binary(json);
+        assertThat(BinarySource.toJson(source).utf8ToString()).isEqualTo(json);
+    }
+
+    @Test
+    public void test_binary_source_to_map() throws Exception {
+        Map<String, Object> map = BinarySource.toMap(binary("""
+            {"i": -10, "l": 9223372036854775807, "d": -0.5, "big": 18446744073709551615,
+             "s": "bär", "n": null, "arr": [[1, 2], {"x": "y"}], "obj": {"inner": {"a": 1}}}
+            """));
+        assertThat(map).containsExactly(
+            Map.entry("i", -10),
+            Map.entry("l", Long.MAX_VALUE),
+            Map.entry("d", -0.5),
+            Map.entry("big", new BigInteger("18446744073709551615")),
+            Map.entry("s", "bär"),
+            new AbstractMap.SimpleEntry<>("n", null),
+            Map.entry("arr", List.of(List.of(1, 2), Map.of("x", "y"))),
+            Map.entry("obj", Map.of("inner", Map.of("a", 1)))
+        );
+    }
+
+    @Test
+    public void test_source_parser_reads_only_registered_columns_of_binary_source() throws Exception {
+        SourceParser sourceParser = new SourceParser(Set.of(), Function.identity());
+        sourceParser.register(new ColumnIdent("_doc", List.of("obj", "x")), DataTypes.LONG);
+        sourceParser.register(new ColumnIdent("_doc", List.of("f")), DataTypes.FLOAT);
+        sourceParser.register(new ColumnIdent("_doc", List.of("i")), DataTypes.INTEGER);
+        sourceParser.register(new ColumnIdent("_doc", List.of("tags")), new ArrayType<>(DataTypes.STRING));
+        Map<String, Object> result = sourceParser.parse(binary("""
+            {"a": "skipped", "obj": {"x": 1, "y": 2}, "f": 0.25, "i": "12", "tags": ["a", null, "b"], "z": [1, 2]}
+            """));
+
+        assertThat(result).containsOnlyKeys("obj", "f", "i", "tags");
+        assertThat(Maps.getByPath(result, "obj.x")).isEqualTo(1L);
+        assertThat(Maps.getByPath(result, "obj.y")).isNull();
+        assertThat(result.get("f")).isEqualTo(0.25f);
+        assertThat(result.get("i")).isEqualTo(12);
+        assertThat(result.get("tags")).isEqualTo(Arrays.asList("a", null, "b"));
+    }
+
+    @Test
+    public void test_source_parser_uses_inner_types_of_objects_of_binary_source() throws Exception {
+        SourceParser sourceParser = new SourceParser(Set.of(), Function.identity());
+        ObjectType objectType = ObjectType.builder()
+            .setInnerType("bs", new BitStringType(4))
+            .setInnerType("b", DataTypes.BOOLEAN)
+            .build();
+        sourceParser.register(new ColumnIdent("_doc", List.of("o")), objectType);
+        Map<String, Object> result = sourceParser.parse(binary("""
+            {"o": {"bs": "CQ==", "b": "true", "other": 1}}
+            """));
+
+        assertThat(Maps.getByPath(result, "o.bs")).isEqualTo(BitString.ofRawBits("1001"));
+        assertThat(Maps.getByPath(result, "o.b")).isEqualTo(true);
+        assertThat(Maps.getByPath(result, "o.other")).isEqualTo(1);
+    }
+
+    @Test
+    public void test_source_parser_skips_dropped_columns_of_binary_source() throws Exception {
+        SourceParser sourceParser = new SourceParser(
+            Set.of(createReference(new ColumnIdent("o", List.of("b")), DataTypes.INTEGER)),
+            Function.identity()
+        );
+        Map<String, Object> result = sourceParser.parse(binary("""
+            {"o": {"a": 1, "b": 2}, "x": 3}
+            """));
+
+        assertThat(Maps.getByPath(result, "o.a")).isEqualTo(1);
+        assertThat(Maps.getByPath(result, "o.b")).isNull();
+        assertThat(result.get("x")).isEqualTo(3);
+    }
+
+    @Test
+    public void test_source_format_setting_validates_values() throws Exception {
+        Settings settings = Settings.builder().put("index.source_format", "BINARY").build();
+        assertThat(BinarySource.INDEX_SOURCE_FORMAT_SETTING.get(settings)).isEqualTo(BinarySource.BINARY);
+        assertThat(BinarySource.INDEX_SOURCE_FORMAT_SETTING.get(Settings.EMPTY)).isEqualTo(BinarySource.JSON);
+        assertThatThrownBy(() -> BinarySource.INDEX_SOURCE_FORMAT_SETTING.get(
+                Settings.builder().put("index.source_format", "smile").build()))
+            .isExactlyInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("must be one of [json, binary] but was: smile");
+    }
+
+    @Test
+    public void test_collected_values_result_in_the_same_binary_source_as_the_written_json() throws Exception {
+        BinarySourceCollector collector = new BinarySourceCollector();
+        BytesStreamOutput out = new BytesStreamOutput();
+        try (XContentBuilder builder = collector.jsonBuilder(out)) {
+            builder.startObject()
+                .field("i", 1)
+                .field("l", 2L)
+                .field("big_l", 2147483648L)
+                .field("s", (short) 3)
+                .field("f", 1.1f)
+                .field("d", 1.5d)
+                .field("nan", Double.NaN)
+                .field("big_i", new BigInteger("18446744073709551616"))
+                .field("big_d", new BigDecimal("2.5"))
+                .field("bytes", new byte[] { 1, 2, 3 })
+                .field("str", "foo")
+                .nullField("n")
+                .field("b", true)
+                .startArray("a")
+                    .value(1)
+                    .nullValue()
+                    .startObject().field("x", "y").endObject()
+                .endArray()
+                .startObject("o")
+                    .field("z", false)
+                    .startObject("e").endObject()
+                .endObject()
+                .endObject();
+        }
+        BytesReference json = out.bytes();
+        assertThat(collector.binarySource(json.length())).isEqualTo(BinarySource.fromJson(json));
+    }
+}
@@ -48,6 +48,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import io.crate.execution.engine.collect.NestableCollectExpression;
+import io.crate.execution.resultcache.QueryResultCacheStats;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.expressions.RowCollectExpressionFactory;
 import io.crate.metadata.sys.SysNodesTableInfo;
@@ -81,7 +82,8 @@ public class NodeStatsContextFieldResolverTest {
             () -> new ConnectionStats(2L, 4L),
             () -> postgresAddress,
             () -> 12L,
-            () -> 1L
+            () -> 1L,
+            () -> new QueryResultCacheStats(3L, 5L, 1L, 2L, 1024L)
         );
     }
 
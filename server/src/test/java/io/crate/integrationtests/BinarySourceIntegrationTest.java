@@ -0,0 +1,179 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.integrationtests;
+
+import static io.crate.testing.Asserts.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.StoredFields;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.mapper.SourceFieldMapper;
+import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.test.IntegTestCase;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.crate.expression.reference.doc.lucene.BinarySource;
+import io.crate.metadata.IndexParts;
+
+@IntegTestCase.ClusterScope(numDataNodes = 2)
+public class BinarySourceIntegrationTest extends IntegTestCase {
+
+    @Before
+    public void createTable() {
+        execute("""
+            create table tbl (
+                id int primary key,
+                name text,
+                details object as (
+                    age int,
+                    tags array(text)
+                )
+            ) clustered into 1 shards with (number_of_replicas = 0, source_format = 'binary')
+            """);
+        execute("""
+            insert into tbl (id, name, details) values
+                (1, 'Arthur', {age = 42, tags = ['towel']}),
+                (2, 'Trillian', {age = 29, tags = []}),
+                (3, 'Marvin', null)
+            """);
+        execute("refresh table tbl");
+    }
+
+    @Test
+    public void test_source_format_is_exposed_in_information_schema() {
+        execute("select settings['source_format'] from information_schema.tables where table_name = 'tbl'");
+        assertThat(response).hasRows("binary");
+
+        execute("alter table tbl set (source_format = 'json')");
+        execute("select settings['source_format'] from information_schema.tables where table_name = 'tbl'");
+        assertThat(response).hasRows("json");
+    }
+
+    @Test
+    public void test_select_columns_raw_and_primary_key_lookup_of_binary_source() {
+        execute("select id, name, details['age'], details['tags'] from tbl order by id");
+        assertThat(response).hasRows(
+            "1| Arthur| 42| [towel]",
+            "2| Trillian| 29| []",
+            "3| Marvin| NULL| NULL"
+        );
+
+        execute("select name, details from tbl where id = 1");
+        assertThat(response).hasRows("Arthur| {age=42, tags=[towel]}");
+
+        execute("select _raw from tbl where id = 2");
+        assertThat((String) response.rows()[0][0])
+            .startsWith("{")
+            .contains("\"Trillian\"")
+            .contains("29");
+
+        execute("select count(*) from tbl where details['age'] > 30");
+        assertThat(response).hasRows("1");
+    }
+
+    @Test
+    public void test_documents_of_both_formats_can_be_read_after_switching_the_format() {
+        execute("alter table tbl set (source_format = 'json')");
+        execute("insert into tbl (id, name, details) values (4, 'Zaphod', {age = 50, tags = ['president']})");
+        execute("alter table tbl set (source_format = 'binary')");
+        execute("insert into tbl (id, name, details) values (5, 'Ford', {age = 43})");
+        execute("update tbl set name = 'Arthur Dent' where id = 1");
+        execute("refresh table tbl");
+
+        execute("select id, name, details['age'], details['tags'] from tbl order by id");
+        assertThat(response).hasRows(
+            "1| Arthur Dent| 42| [towel]",
+            "2| Trillian| 29| []",
+            "3| Marvin| NULL| NULL",
+            "4| Zaphod| 50| [president]",
+            "5| Ford| 43| NULL"
+        );
+        execute("select name from tbl where id = 4");
+        assertThat(response).hasRows("Zaphod");
+    }
+
+    @Test
+    public void test_changes_snapshot_replays_binary_sources_as_json() throws Exception {
+        String indexName = IndexParts.toIndexName(sqlExecutor.getCurrentSchema(), "tbl", null);
+        ClusterState state = cluster().clusterService().state();
+        ShardRouting primary = state.routingTable().allShards(indexName).get(0);
+        String nodeName = state.nodes().get(primary.currentNodeId()).getName();
+        IndexShard shard = cluster().getInstance(IndicesService.class, nodeName).getShardOrNull(primary.shardId());
+
+        List<String> sources = new ArrayList<>();
+        try (Translog.Snapshot snapshot = shard.newChangesSnapshot("test", 0, shard.seqNoStats().getMaxSeqNo(), true)) {
+            Translog.Operation op;
+            while ((op = snapshot.next()) != null) {
+                sources.add(op.getSource().utf8ToString());
+            }
+        }
+        assertThat(sources).hasSize(3);
+        assertThat(sources).allSatisfy(source -> assertThat(source).startsWith("{").endsWith("}"));
+        assertThat(String.join(",", sources)).contains("\"Arthur\"", "\"Trillian\"", "\"Marvin\"", "\"towel\"");
+    }
+
+    @Test
+    public void test_primaries_and_replicas_store_the_source_in_the_format_of_the_table() throws Exception {
+        execute("""
+            create table tbl_r (id int primary key, name text)
+            clustered into 1 shards with (number_of_replicas = 1, source_format = 'binary')
+            """);
+        ensureGreen();
+        execute("insert into tbl_r (id, name) values (1, 'Arthur')");
+        execute("alter table tbl_r set (source_format = 'json')");
+        execute("insert into tbl_r (id, name) values (2, 'Ford')");
+        execute("refresh table tbl_r");
+
+        String indexName = IndexParts.toIndexName(sqlExecutor.getCurrentSchema(), "tbl_r", null);
+        ClusterState state = cluster().clusterService().state();
+        List<ShardRouting> copies = state.routingTable().allShards(indexName);
+        assertThat(copies).hasSize(2);
+        for (ShardRouting copy : copies) {
+            String nodeName = state.nodes().get(copy.currentNodeId()).getName();
+            IndexShard shard = cluster().getInstance(IndicesService.class, nodeName).getShardOrNull(copy.shardId());
+            List<String> formats = new ArrayList<>();
+            try (Engine.Searcher searcher = shard.acquireSearcher("test")) {
+                for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+                    StoredFields storedFields = leaf.reader().storedFields();
+                    for (int doc = 0; doc < leaf.reader().maxDoc(); doc++) {
+                        BytesArray source = new BytesArray(storedFields.document(doc).getBinaryValue(SourceFieldMapper.NAME));
+                        String name = BinarySource.toJson(source).utf8ToString().contains("Arthur") ? "Arthur" : "Ford";
+                        formats.add(name + "=" + (BinarySource.isBinary(source) ? BinarySource.BINARY : BinarySource.JSON));
+                    }
+                }
+            }
+            assertThat(formats)
+                .as("formats of the %s copy", copy.primary() ? "primary" : "replica")
+                .containsExactlyInAnyOrder("Arthur=binary", "Ford=json");
+        }
+    }
+}
@@ -1196,4 +1196,61 @@ public class CopyIntegrationTest extends SQLHttpIntegrationTest {
             "2| 31123| apple safari| 23073"
         );
     }
+
+    @Test
+    public void test_copy_to_and_from_parquet_files() throws Exception {
+        execute("create table src (id int primary key, name text, ts timestamp with time zone) " +
+                "clustered into 2 shards with (number_of_replicas = 0)");
+        execute("insert into src (id, name, ts) values (1, 'Arthur', 1000), (2, null, 2000), (3, 'Trillian', null)");
+        execute("refresh table src");
+
+        String uriTemplate = Paths.get(folder.getRoot().toURI()).toUri().toString();
+        execute("copy src to DIRECTORY ? with (format = 'parquet')", new Object[]{uriTemplate});
+        assertThat(response).hasRowCount(3L);
+
+        execute("create table dst (id int primary key, ts timestamp with time zone, name text, extra text)");
+        execute("copy dst from ? with (format = 'parquet')", new Object[]{uriTemplate + "*.parquet"});
+        assertThat(response).hasRowCount(3L);
+        execute("refresh table dst");
+        execute("select id, name, ts, extra from dst order by id");
+        assertThat(response).hasRows(
+            "1| Arthur| 1000| NULL",
+            "2| NULL| 2000| NULL",
+            "3| Trillian| NULL| NULL"
+        );
+    }
+
+    @Test
+    public void test_copy_from_arrow_file_imports_target_columns() throws Exception {
+        execute("create table t (id int, name text, flag boolean, ts timestamp with time zone, score double)");
+        execute("copy t (id, name, score) from ? with (format = 'arrow', shared = true)",
+            new Object[]{copyFilePath + "test_copy_from.arrow"});
+        assertThat(response).hasRowCount(3L);
+        execute("refresh table t");
+        execute("select id, name, flag, ts, score from t order by score nulls last");
+        assertThat(response).hasRows(
+            "1| foo| NULL| NULL| 1.5",
+            "NULL| | NULL| NULL| 2.5",
+            "3| bär| NULL| NULL| NULL"
+        );
+    }
+
+    @Test
+    public void test_copy_from_parquet_file_with_dictionary_pages_and_two_row_groups() throws Exception {
+        execute("create table t (id int, name text, flag boolean, ts timestamp with time zone, score double)");
+        execute("copy t from ? with (format = 'parquet', shared = true)",
+            new Object[]{copyFilePath + "test_copy_from.parquet"});
+        assertThat(response).hasRowCount(20L);
+        execute("refresh table t");
+        execute("select count(id), count(name), count(*) filter (where flag), count(ts), sum(score) from t");
+        assertThat(response).hasRows("18| 18| 13| 19| 21.5");
+        execute("select name, count(*) from t group by name order by 2 desc, 1");
+        assertThat(response).hasRows(
+            "foo| 13",
+            "| 2",
+            "bär| 2",
+            "NULL| 2",
+            "bar| 1"
+        );
+    }
 }
@@ -1360,6 +1360,24 @@ public class InsertIntoIntegrationTest extends IntegTestCase {
             .hasMessageContaining("A primary key value must not be NULL");
     }
 
+    @Test
+    public void test_insert_from_query_without_primary_key_adds_new_columns_and_keeps_all_rows() throws Exception {
+        execute("create table t (id int) with (column_policy = 'dynamic')");
+        execute("insert into t (id, name) select x, 'name-' || x from unnest([1, 2, 3, 4]) as u (x)");
+        assertThat(response).hasRowCount(4L);
+        execute("refresh table t");
+
+        execute("select data_type from information_schema.columns where table_name = 't' and column_name = 'name'");
+        assertThat(response).hasRows("text");
+        execute("select id, name from t order by id");
+        assertThat(response).hasRows(
+            "1| name-1",
+            "2| name-2",
+            "3| name-3",
+            "4| name-4"
+        );
+    }
+
     @Test
     public void testDynamicTimestampIntegrationTest() throws Exception {
         execute("create table dyn_ts (id integer primary key) with (column_policy = 'dynamic')");
@@ -1569,6 +1587,27 @@ public class InsertIntoIntegrationTest extends IntegTestCase {
 
     }
 
+    @Test
+    public void test_insert_of_multiple_rows_without_primary_key_returns_generated_values_of_each_row() {
+        execute("create table t (" +
+                " x int," +
+                " y int generated always as x * 10" +
+                ") clustered into 1 shards with (number_of_replicas=0)");
+
+        execute("insert into t (x) values (1), (2), (3) returning x, y");
+        assertThat(response).hasRows(
+            "1| 10",
+            "2| 20",
+            "3| 30"
+        );
+
+        execute("insert into t (x) values (4), (5) returning x, _seq_no");
+        assertThat(response).hasRows(
+            "4| 3",
+            "5| 4"
+        );
+    }
+
     @Test
     public void test_insert_with_owner_renamed_in_returning_clause() {
         execute("create table t (" +
@@ -1174,12 +1174,11 @@ public class JoinIntegrationTest extends IntegTestCase {
         assertThat(response.rows()[0][0]).isEqualTo(
             """
                 NestedLoopJoin[LEFT | (id = id)]
-                  ├ Eval[id, a, id, b, id, c]
-                  │  └ HashJoin[(id = id)]
-                  │    ├ Collect[doc.t3 | [id, c] | true]
-                  │    └ HashJoin[(id = id)]
-                  │      ├ Collect[doc.t1 | [id, a] | true]
-                  │      └ Get[doc.t2 | id, b | DocKeys{1; 2} | ((id = 1) OR (id = 2))]
+                  ├ HashJoin[(id = id)]
+                  │  ├ HashJoin[(id = id)]
+                  │  │  ├ Collect[doc.t1 | [id, a] | true]
+                  │  │  └ Get[doc.t2 | id, b | DocKeys{1; 2} | ((id = 1) OR (id = 2))]
+                  │  └ Collect[doc.t3 | [id, c] | true]
                   └ Collect[doc.t4 | [id, d] | true]"""
         );
         execute(stmt);
@@ -1221,10 +1220,10 @@ public class JoinIntegrationTest extends IntegTestCase {
         // This should prevent from the test case becoming invalid
         assertThat(response).hasLines(
             "NestedLoopJoin[INNER | (id = id)]",
-                "  ├ NestedLoopJoin[INNER | (id = id)]",
-                "  │  ├ Collect[doc.t1 | [id, a] | true]",
-                "  │  └ Get[doc.t2 | id, b | DocKeys{1} | (id = 1)]",
-                "  └ Get[doc.t3 | id, c | DocKeys{1} | (id = 1)]");
+                "  ├ Collect[doc.t1 | [id, a] | true]",
+                "  └ NestedLoopJoin[INNER | (id = id)]",
+                "    ├ Get[doc.t2 | id, b | DocKeys{1} | (id = 1)]",
+                "    └ Get[doc.t3 | id, c | DocKeys{1} | (id = 1)]");
         execute(stmt);
     }
 
@@ -1548,14 +1547,15 @@ public class JoinIntegrationTest extends IntegTestCase {
         execute("analyze");
 
         var stmt = "SELECT t3.e FROM t1 JOIN t3 ON t1.b = t3.f JOIN t2 ON t1.a = t2.c WHERE t2.d =t3.e";
-        assertThat(execute("explain " + stmt)).hasLines(
-                "Eval[e] (rows=0)",
-                "  └ Eval[b, a, e, f, c, d] (rows=0)",
-                "    └ HashJoin[((a = c) AND (d = e))] (rows=0)",
-                "      ├ Collect[doc.t2 | [c, d] | true] (rows=2)",
-                "      └ HashJoin[(b = f)] (rows=1)",
-                "        ├ Collect[doc.t1 | [b, a] | true] (rows=1)",
-                "        └ Collect[doc.t3 | [e, f] | true] (rows=1)"
+        // The estimated distribution of the hash joins depends on the number of nodes
+        assertThat(execute("explain (costs false) " + stmt)).hasLines(
+                "Eval[e]",
+                "  └ Eval[b, a, e, f, c, d]",
+                "    └ HashJoin[((a = c) AND (d = e))]",
+                "      ├ Collect[doc.t2 | [c, d] | true]",
+                "      └ HashJoin[(b = f)]",
+                "        ├ Collect[doc.t1 | [b, a] | true]",
+                "        └ Collect[doc.t3 | [e, f] | true]"
         );
 
         execute(stmt);
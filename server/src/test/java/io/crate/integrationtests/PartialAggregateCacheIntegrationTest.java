@@ -0,0 +1,82 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.integrationtests;
+
+import static io.crate.testing.Asserts.assertThat;
+
+import org.elasticsearch.test.IntegTestCase;
+import org.junit.After;
+import org.junit.Test;
+
+public class PartialAggregateCacheIntegrationTest extends IntegTestCase {
+
+    @After
+    public void resetCacheSize() {
+        execute("reset global \"query.partial_aggregate_cache.size\"");
+    }
+
+    @Test
+    public void test_aggregations_merge_cached_partials_with_new_and_changed_segments() throws Exception {
+        execute("set global transient \"query.partial_aggregate_cache.size\" = '10mb'");
+        execute("create table tbl (k int, x bigint) clustered into 1 shards with (number_of_replicas = 0)");
+        execute("insert into tbl (k, x) values (1, 1), (2, 2), (1, 3)");
+        refresh();
+        execute("insert into tbl (k, x) values (2, 4), (3, 5)");
+        refresh();
+
+        String globalStmt = "select count(x), sum(x), avg(x), max(x) from tbl";
+        String groupByStmt = "select k, count(x), sum(x) from tbl group by k order by k";
+        for (int i = 0; i < 2; i++) {
+            execute(globalStmt);
+            assertThat(response).hasRows("5| 15| 3.0| 5");
+            execute(groupByStmt);
+            assertThat(response).hasRows(
+                "1| 2| 4",
+                "2| 2| 6",
+                "3| 1| 5"
+            );
+        }
+
+        execute("insert into tbl (k, x) values (4, 6)");
+        execute("delete from tbl where x = 1");
+        refresh();
+        execute(globalStmt);
+        assertThat(response).hasRows("5| 20| 4.0| 6");
+        execute(groupByStmt);
+        assertThat(response).hasRows(
+            "1| 1| 3",
+            "2| 2| 6",
+            "3| 1| 5",
+            "4| 1| 6"
+        );
+
+        execute("optimize table tbl with (max_num_segments = 1)");
+        execute(globalStmt);
+        assertThat(response).hasRows("5| 20| 4.0| 6");
+        execute("select k, count(x), sum(x) from tbl where x > 3 group by k order by k");
+        assertThat(response).hasRows(
+            "2| 1| 4",
+            "3| 1| 5",
+            "4| 1| 6"
+        );
+    }
+}
@@ -27,6 +27,10 @@ import static io.crate.protocols.postgres.PostgresNetty.PSQL_PORT_SETTING;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.sql.Array;
 import java.sql.BatchUpdateException;
 import java.sql.Connection;
@@ -54,7 +58,9 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
+import org.postgresql.PGConnection;
 import org.postgresql.PGProperty;
+import org.postgresql.copy.CopyManager;
 import org.postgresql.geometric.PGpoint;
 import org.postgresql.jdbc.PreferQueryMode;
 import org.postgresql.util.PGobject;
@@ -310,6 +316,33 @@ public class PostgresITest extends IntegTestCase {
         }
     }
 
+    @Test
+    public void test_prepared_statement_using_now_sees_the_current_time_on_each_execution() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("user", "crate");
+        properties.setProperty("prepareThreshold", "1");
+        try (Connection conn = DriverManager.getConnection(url(RW), properties)) {
+            conn.createStatement().execute(
+                "create table t (id int, ts timestamp with time zone) " +
+                "clustered into 1 shards with (number_of_replicas = 0)");
+            ensureGreen();
+            long ts = System.currentTimeMillis() + 3000;
+            PreparedStatement insert = conn.prepareStatement("insert into t (id, ts) values (1, ?)");
+            insert.setLong(1, ts);
+            insert.executeUpdate();
+            conn.createStatement().execute("refresh table t");
+
+            PreparedStatement stmt = conn.prepareStatement("select id from t where ts < now()");
+            ResultSet resultSet = stmt.executeQuery();
+            assertThat(resultSet.next()).isFalse();
+
+            Thread.sleep(Math.max(0, ts - System.currentTimeMillis()) + 100);
+            resultSet = stmt.executeQuery();
+            assertThat(resultSet.next()).isTrue();
+            assertThat(resultSet.getInt(1)).isEqualTo(1);
+        }
+    }
+
     @Test
     public void testPreparedSelectStatementWithParametersCanBeDescribed() throws Exception {
         Properties properties = new Properties();
@@ -1235,6 +1268,91 @@ public class PostgresITest extends IntegTestCase {
         }
     }
 
+    @Test
+    public void test_copy_from_stdin_and_copy_to_stdout_in_text_format() throws Exception {
+        try (Connection conn = DriverManager.getConnection(url(RW), properties)) {
+            conn.createStatement().execute(
+                "create table copy_t (id int, name text) clustered into 1 shards " +
+                "with (number_of_replicas = 0, column_policy = 'dynamic')");
+            CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+
+            long imported = copyManager.copyIn(
+                "COPY copy_t (id, name, tag) FROM STDIN",
+                new StringReader("1\tfoo\\tbar\tx\n2\t\\N\ty\n3\tbaz\t\\N\n\\.\n"));
+            assertThat(imported).isEqualTo(3L);
+            conn.createStatement().execute("refresh table copy_t");
+
+            // the unknown column is added as a text column
+            ResultSet resultSet = conn.createStatement().executeQuery(
+                "select id, name, tag, pg_typeof(tag) from copy_t order by id");
+            List<String> rows = new ArrayList<>();
+            while (resultSet.next()) {
+                rows.add(resultSet.getInt(1) + "| " + resultSet.getString(2) + "| " + resultSet.getString(3)
+                         + "| " + resultSet.getString(4));
+            }
+            assertThat(rows).containsExactly(
+                "1| foo\tbar| x| text",
+                "2| null| y| text",
+                "3| baz| null| text"
+            );
+
+            StringWriter out = new StringWriter();
+            long exported = copyManager.copyOut("COPY copy_t (id, name) WHERE id < 3 TO STDOUT", out);
+            assertThat(exported).isEqualTo(2L);
+            assertThat(out.toString().lines().sorted()).containsExactly(
+                "1\tfoo\\tbar",
+                "2\t\\N"
+            );
+        }
+    }
+
+    @Test
+    public void test_copy_from_stdin_and_copy_to_stdout_in_csv_and_binary_format() throws Exception {
+        try (Connection conn = DriverManager.getConnection(url(RW), properties)) {
+            conn.createStatement().execute(
+                "create table copy_src (id int, name text) clustered into 1 shards with (number_of_replicas = 0)");
+            conn.createStatement().execute(
+                "create table copy_dst (id int, name text) clustered into 1 shards with (number_of_replicas = 0)");
+            CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+
+            long imported = copyManager.copyIn(
+                "COPY copy_src FROM STDIN WITH (format = 'csv', header = true)",
+                new StringReader("id,name\r\n1,\"foo,\"\"bar\"\"\"\r\n2,\r\n3,baz\r\n"));
+            assertThat(imported).isEqualTo(3L);
+            conn.createStatement().execute("refresh table copy_src");
+
+            StringWriter csv = new StringWriter();
+            copyManager.copyOut("COPY copy_src TO STDOUT WITH (format = 'csv')", csv);
+            assertThat(csv.toString().lines().sorted()).containsExactly(
+                "1,\"foo,\"\"bar\"\"\"",
+                "2,",
+                "3,baz"
+            );
+
+            // the binary output of one table is the input of the other
+            ByteArrayOutputStream binary = new ByteArrayOutputStream();
+            long exported = copyManager.copyOut("COPY copy_src TO STDOUT WITH (format = 'binary')", binary);
+            assertThat(exported).isEqualTo(3L);
+            imported = copyManager.copyIn(
+                "COPY copy_dst FROM STDIN WITH (format = 'binary')",
+                new ByteArrayInputStream(binary.toByteArray()));
+            assertThat(imported).isEqualTo(3L);
+            conn.createStatement().execute("refresh table copy_dst");
+
+            ResultSet resultSet = conn.createStatement().executeQuery(
+                "select id, name from copy_dst order by id");
+            List<String> rows = new ArrayList<>();
+            while (resultSet.next()) {
+                rows.add(resultSet.getInt(1) + "| " + resultSet.getString(2));
+            }
+            assertThat(rows).containsExactly(
+                "1| foo,\"bar\"",
+                "2| null",
+                "3| baz"
+            );
+        }
+    }
+
     private long getNumQueriesFromJobsLogs() {
         long result = 0;
         Iterable<JobsLogs> jobLogs = cluster().getInstances(JobsLogs.class);
@@ -0,0 +1,67 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.integrationtests;
+
+import static io.crate.testing.Asserts.assertThat;
+
+import org.elasticsearch.test.IntegTestCase;
+import org.junit.After;
+import org.junit.Test;
+
+@IntegTestCase.ClusterScope(numDataNodes = 2, supportsDedicatedMasters = false, numClientNodes = 0)
+public class QueryResultCacheIntegrationTest extends IntegTestCase {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    @After
+    public void resetCacheSize() {
+        execute("reset global \"query.result_cache.size\"");
+    }
+
+    @Test
+    public void test_query_result_is_served_from_cache_until_table_is_changed() throws Exception {
+        execute("set global transient \"query.result_cache.size\" = '10mb'");
+        execute("create table tbl (x int) clustered into 4 shards with (number_of_replicas = 1)");
+        execute("insert into tbl (x) values (1), (2), (3)");
+        refresh();
+        ensureGreen();
+
+        String node = cluster().getNodeNames()[0];
+        String stmt = "select count(*), sum(x) from tbl";
+        execute(stmt, NO_ARGS, node);
+        assertThat(response).hasRows("3| 6");
+        execute(stmt, NO_ARGS, node);
+        assertThat(response).hasRows("3| 6");
+
+        String statsStmt = "select query_result_cache['hits'], query_result_cache['misses'], " +
+                           "query_result_cache['entries'] from sys.nodes where name = ?";
+        execute(statsStmt, new Object[] { node });
+        assertThat(response).hasRows("1| 1| 1");
+
+        execute("insert into tbl (x) values (4)");
+        refresh();
+        execute(stmt, NO_ARGS, node);
+        assertThat(response).hasRows("4| 10");
+        execute(statsStmt, new Object[] { node });
+        assertThat(response).hasRows("1| 2| 1");
+    }
+}
@@ -101,6 +101,25 @@ public class WindowFunctionsIntegrationTest extends IntegTestCase {
         );
     }
 
+    @Test
+    public void test_partitioned_window_over_source_sorted_by_partition_and_order_by() {
+        execute("create table tbl (device int, ts int) clustered into 3 shards");
+        execute("insert into tbl (device, ts) values (1, 3), (2, 1), (1, 1), (3, 5), (2, 2), (1, 2), (3, 4)");
+        execute("refresh table tbl");
+        execute("select device, ts, row_number() over (partition by device order by ts), " +
+                "sum(ts) over (partition by device order by ts) " +
+                "from (select device, ts from tbl order by device, ts) t order by 1, 2");
+        assertThat(response).hasRows(
+            "1| 1| 1| 1",
+            "1| 2| 2| 3",
+            "1| 3| 3| 6",
+            "2| 1| 1| 1",
+            "2| 2| 2| 3",
+            "3| 4| 1| 4",
+            "3| 5| 2| 9"
+        );
+    }
+
     @Test
     public void testPartitionedWindowResultSetUnordered() {
         execute("select unnest, sum(unnest) over(partition by unnest>2 order by unnest) from unnest([1, 2, 2, 3, 4, 5])");
@@ -288,6 +307,26 @@ public class WindowFunctionsIntegrationTest extends IntegTestCase {
         );
     }
 
+    @Test
+    public void test_filter_in_aggregate_of_window_function_call_with_sliding_frame_non_removable_impl() {
+        execute("SELECT" +
+                "   x," +
+                "   MAX(x) FILTER (WHERE x != 4) OVER(" +
+                "       PARTITION BY x > 2" +
+                "       ORDER BY x" +
+                "       ROWS BETWEEN 1 PRECEDING AND CURRENT ROW)" +
+                "FROM UNNEST([1, 5, 2, 4, 3, 6]) as t(x) " +
+                "ORDER BY x");
+        assertThat(response).hasRows(
+            "1| 1",
+            "2| 2",
+            "3| 3",
+            "4| 3",
+            "5| 5",
+            "6| 6"
+        );
+    }
+
     // the query execution plan (distributed, non-distributed)
     // depends on the test cluster setup.
     @Test
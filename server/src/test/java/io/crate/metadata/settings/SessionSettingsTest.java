@@ -56,4 +56,20 @@ public class SessionSettingsTest {
         SessionSettings expected = new SessionSettings("user", SearchPath.createSearchPathFrom("crate"), true, true, 0);
         assertThat(actual).isEqualTo(expected);
     }
+
+    @Test
+    public void test_vectorized_evaluation_is_streamed_only_from_5_6_0() throws IOException {
+        CoordinatorSessionSettings s1 = CoordinatorSessionSettings.systemDefaults();
+        s1.setVectorizedEvaluationEnabled(true);
+        BytesStreamOutput out = new BytesStreamOutput();
+        s1.writeTo(out);
+        assertThat(new SessionSettings(out.bytes().streamInput()).vectorizedEvaluationEnabled()).isTrue();
+
+        out = new BytesStreamOutput();
+        out.setVersion(Version.V_5_5_0);
+        s1.writeTo(out);
+        var in = out.bytes().streamInput();
+        in.setVersion(Version.V_5_5_0);
+        assertThat(new SessionSettings(in).vectorizedEvaluationEnabled()).isFalse();
+    }
 }
@@ -30,6 +30,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.elasticsearch.common.Randomness;
 import org.jetbrains.annotations.Nullable;
 import org.junit.Before;
 import org.junit.Test;
@@ -260,7 +261,7 @@ public class ExplainPlannerTest extends CrateDummyClusterServiceUnitTest {
         var printedPlan = ExplainPlan.printLogicalPlan((LogicalPlan) plan.subPlan(), e.getPlannerContext(clusterService.state()), plan.showCosts());
         assertThat(printedPlan).isEqualTo(
             "HashAggregate[count(x)] (rows=1)\n" +
-            "  └ HashJoin[(x = x)] (rows=0)\n" +
+            "  └ HashJoin[(x = x)] (rows=50)\n" +
             "    ├ Collect[doc.a | [x] | true] (rows=100)\n" +
             "    └ Collect[doc.b | [x] | true] (rows=100)"
         );
@@ -268,7 +269,7 @@ public class ExplainPlannerTest extends CrateDummyClusterServiceUnitTest {
         printedPlan = ExplainPlan.printLogicalPlan((LogicalPlan) plan.subPlan(), e.getPlannerContext(clusterService.state()), plan.showCosts());
         assertThat(printedPlan).isEqualTo(
             "HashAggregate[count(x)] (rows=1)\n" +
-            "  └ HashJoin[(x = x)] (rows=0)\n" +
+            "  └ HashJoin[(x = x)] (rows=50)\n" +
             "    ├ Collect[doc.a | [x] | true] (rows=100)\n" +
             "    └ Collect[doc.b | [x] | true] (rows=100)"
         );
@@ -282,6 +283,37 @@ public class ExplainPlannerTest extends CrateDummyClusterServiceUnitTest {
         );
     }
 
+    @Test
+    public void test_explain_costs_shows_estimated_hash_join_distribution() throws Exception {
+        var e = SQLExecutor.builder(clusterService, 2, Randomness.get(), List.of())
+            .addTable("CREATE TABLE doc.a (x int)")
+            .addTable("CREATE TABLE doc.b (x int)")
+            .build();
+
+        e.updateTableStats(Map.of(
+            new RelationName("doc", "a"), new Stats(10_000, 10_000, Map.of()),
+            new RelationName("doc", "b"), new Stats(10_000, 10_000, Map.of())
+        ));
+
+        ExplainPlan plan = e.plan("EXPLAIN SELECT COUNT(a.x) FROM a join b on a.x = b.x");
+        var printedPlan = ExplainPlan.printLogicalPlan((LogicalPlan) plan.subPlan(), e.getPlannerContext(clusterService.state()), plan.showCosts());
+        assertThat(printedPlan).isEqualTo(
+            "HashAggregate[count(x)] (rows=1)\n" +
+            "  └ HashJoin[(x = x)] (rows=500000, distribution=shuffle, lhs_bytes=160000, rhs_bytes=160000)\n" +
+            "    ├ Collect[doc.a | [x] | true] (rows=10000)\n" +
+            "    └ Collect[doc.b | [x] | true] (rows=10000)"
+        );
+
+        plan = e.plan("EXPLAIN SELECT COUNT(a.x) FROM a join b on a.x = b.x where b.x = 1");
+        printedPlan = ExplainPlan.printLogicalPlan((LogicalPlan) plan.subPlan(), e.getPlannerContext(clusterService.state()), plan.showCosts());
+        assertThat(printedPlan).isEqualTo(
+            "HashAggregate[count(x)] (rows=1)\n" +
+            "  └ HashJoin[(x = x)] (rows=2500, distribution=broadcast_rhs, lhs_bytes=160000, rhs_bytes=800)\n" +
+            "    ├ Collect[doc.a | [x] | true] (rows=10000)\n" +
+            "    └ Collect[doc.b | [x] | (x = 1)] (rows=50)"
+        );
+    }
+
     @Test
     public void test_explain_verbose_costs_adds_estimated_rows_to_output() throws Exception {
         var e = SQLExecutor.builder(clusterService)
@@ -302,21 +334,21 @@ public class ExplainPlannerTest extends CrateDummyClusterServiceUnitTest {
                 "Initial logical plan",
                 """
                 HashAggregate[count(x)] (rows=1)
-                  └ Join[INNER | (x = x)] (rows=0)
+                  └ Join[INNER | (x = x)] (rows=50)
                     ├ Collect[doc.a | [x] | true] (rows=100)
                     └ Collect[doc.b | [x] | true] (rows=100)"""},
             new Object[]{
                 "optimizer_rewrite_join_plan",
                 """
                 HashAggregate[count(x)] (rows=1)
-                  └ HashJoin[(x = x)] (rows=0)
+                  └ HashJoin[(x = x)] (rows=50)
                     ├ Collect[doc.a | [x] | true] (rows=100)
                     └ Collect[doc.b | [x] | true] (rows=100)"""},
             new Object[]{
                 "Final logical plan",
                 """
                 HashAggregate[count(x)] (rows=1)
-                  └ HashJoin[(x = x)] (rows=0)
+                  └ HashJoin[(x = x)] (rows=50)
                     ├ Collect[doc.a | [x] | true] (rows=100)
                     └ Collect[doc.b | [x] | true] (rows=100)"""}
         );
@@ -328,21 +360,21 @@ public class ExplainPlannerTest extends CrateDummyClusterServiceUnitTest {
                 "Initial logical plan",
                 """
                 HashAggregate[count(x)] (rows=1)
-                  └ Join[INNER | (x = x)] (rows=0)
+                  └ Join[INNER | (x = x)] (rows=50)
                     ├ Collect[doc.a | [x] | true] (rows=100)
                     └ Collect[doc.b | [x] | true] (rows=100)"""},
             new Object[]{
                 "optimizer_rewrite_join_plan",
                 """
                 HashAggregate[count(x)] (rows=1)
-                  └ HashJoin[(x = x)] (rows=0)
+                  └ HashJoin[(x = x)] (rows=50)
                     ├ Collect[doc.a | [x] | true] (rows=100)
                     └ Collect[doc.b | [x] | true] (rows=100)"""},
             new Object[]{
                 "Final logical plan",
                 """
                 HashAggregate[count(x)] (rows=1)
-                  └ HashJoin[(x = x)] (rows=0)
+                  └ HashJoin[(x = x)] (rows=50)
                     ├ Collect[doc.a | [x] | true] (rows=100)
                     └ Collect[doc.b | [x] | true] (rows=100)"""}
         );
@@ -90,4 +90,24 @@ public class HashJoinTest extends CrateDummyClusterServiceUnitTest {
         assertThat(result.rhsHashSymbols()).satisfiesExactly(isSQL("doc.t3.c"), isSQL("doc.t2.b"), isSQL("doc.t2.i"));
 
     }
+
+    @Test
+    public void test_choose_distribution_broadcasts_side_if_cheaper_than_shuffle() {
+        assertThat(HashJoin.chooseDistribution(-1, 3, 100, 3)).isEqualTo(HashJoin.Distribution.SHUFFLE);
+        assertThat(HashJoin.chooseDistribution(10_000, 3, 10_000, 3)).isEqualTo(HashJoin.Distribution.SHUFFLE);
+        assertThat(HashJoin.chooseDistribution(10_000, 3, 100, 3)).isEqualTo(HashJoin.Distribution.BROADCAST_RHS);
+        assertThat(HashJoin.chooseDistribution(100, 3, 10_000, 3)).isEqualTo(HashJoin.Distribution.BROADCAST_LHS);
+        // Broadcasting to many nodes can be more expensive than shuffling
+        assertThat(HashJoin.chooseDistribution(10_000, 20, 1000, 20)).isEqualTo(HashJoin.Distribution.SHUFFLE);
+        // A side without nodes cannot receive broadcasts
+        assertThat(HashJoin.chooseDistribution(10_000, 0, 100, 3)).isEqualTo(HashJoin.Distribution.SHUFFLE);
+    }
+
+    @Test
+    public void test_estimated_size_saturates_instead_of_overflowing() {
+        assertThat(HashJoin.estimateSizeInBytes(1000, 24)).isEqualTo(24_000L);
+        assertThat(HashJoin.estimateSizeInBytes(Long.MAX_VALUE / 2, 24)).isEqualTo(Long.MAX_VALUE);
+        assertThat(HashJoin.chooseDistribution(HashJoin.estimateSizeInBytes(Long.MAX_VALUE / 2, 24), 3, 100, 3))
+            .isEqualTo(HashJoin.Distribution.BROADCAST_RHS);
+    }
 }
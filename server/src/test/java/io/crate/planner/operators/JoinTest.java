@@ -54,6 +54,7 @@ import io.crate.planner.ExecutionPlan;
 import io.crate.planner.Merge;
 import io.crate.planner.PlannerContext;
 import io.crate.planner.SubqueryPlanner;
+import io.crate.planner.distribution.DistributionType;
 import io.crate.planner.node.dql.Collect;
 import io.crate.planner.node.dql.join.Join;
 import io.crate.sql.tree.JoinType;
@@ -1067,4 +1068,42 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
         assertThat(result.getRelationNames().get(1).toString()).isEqualTo("doc.t1");
         assertThat(result.getRelationNames().get(2).toString()).isEqualTo("doc.t3");
     }
+
+    @Test
+    public void test_hashjoin_broadcasts_small_filtered_side_and_shuffles_equally_sized_sides() throws Exception {
+        var executor = SQLExecutor.builder(clusterService, 2, Randomness.get(), List.of())
+            .addTable("CREATE TABLE doc.t1 (a INT) clustered into 4 shards")
+            .addTable("CREATE TABLE doc.t2 (b INT) clustered into 4 shards")
+            .build();
+        Map<RelationName, Stats> rowCountByTable = new HashMap<>();
+        rowCountByTable.put(new RelationName(Schemas.DOC_SCHEMA_NAME, "t1"), new Stats(10_000, 40_000, Map.of()));
+        rowCountByTable.put(new RelationName(Schemas.DOC_SCHEMA_NAME, "t2"), new Stats(10_000, 40_000, Map.of()));
+        executor.updateTableStats(rowCountByTable);
+
+        var plannerCtx = executor.getPlannerContext(clusterService.state());
+        QueriedSelectRelation mss = executor.analyze("select * from t1 inner join t2 on t1.a = t2.b");
+        Join join = buildJoin(buildLogicalPlan(mss, plannerCtx), plannerCtx);
+        assertThat(((Collect) join.left()).collectPhase().distributionInfo().distributionType())
+            .isEqualTo(DistributionType.MODULO);
+        assertThat(((Collect) join.right()).collectPhase().distributionInfo().distributionType())
+            .isEqualTo(DistributionType.MODULO);
+
+        // The filter reduces the estimated rows of t2, sending them to all nodes is cheaper than shuffling both sides
+        mss = executor.analyze("select * from t1 inner join t2 on t1.a = t2.b where t2.b = 1");
+        join = buildJoin(buildLogicalPlan(mss, plannerCtx), plannerCtx);
+        Collect t1 = (Collect) (tableName(join.left()).equals("t1") ? join.left() : join.right());
+        Collect t2 = (Collect) (tableName(join.left()).equals("t2") ? join.left() : join.right());
+        assertThat(t1.collectPhase().distributionInfo().distributionType()).isEqualTo(DistributionType.SAME_NODE);
+        assertThat(t2.collectPhase().distributionInfo().distributionType()).isEqualTo(DistributionType.BROADCAST);
+        HashJoinPhase joinPhase = (HashJoinPhase) join.joinPhase();
+        assertThat(joinPhase.nodeIds()).containsExactlyInAnyOrderElementsOf(t1.resultDescription().nodeIds());
+        // The collected rows of t1 are passed to the join on the same node without a merge phase
+        if (t1 == join.left()) {
+            assertThat(joinPhase.leftMergePhase()).isNull();
+            assertThat(joinPhase.rightMergePhase()).isNotNull();
+        } else {
+            assertThat(joinPhase.leftMergePhase()).isNotNull();
+            assertThat(joinPhase.rightMergePhase()).isNull();
+        }
+    }
 }
@@ -29,8 +29,10 @@ import org.junit.Test;
 
 import io.crate.analyze.OrderBy;
 import io.crate.analyze.WindowDefinition;
+import io.crate.execution.dsl.projection.WindowAggProjection;
 import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.WindowFunction;
+import io.crate.planner.node.dql.Collect;
 import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
 import io.crate.testing.SQLExecutor;
 
@@ -95,6 +97,18 @@ public class WindowAggTest extends CrateDummyClusterServiceUnitTest {
         assertThat(plan).isEqualTo(expectedPlan);
     }
 
+    @Test
+    public void test_window_agg_on_source_sorted_by_partition_and_order_by_is_presorted() {
+        Collect collect = e.plan(
+            "SELECT x, row_number() OVER (PARTITION BY x ORDER BY y) FROM (SELECT x, y FROM t1 ORDER BY x DESC, y) t");
+        assertThat(collect.collectPhase().projections()).hasSize(2);
+        assertThat(((WindowAggProjection) collect.collectPhase().projections().get(0)).presorted()).isTrue();
+
+        collect = e.plan(
+            "SELECT x, row_number() OVER (PARTITION BY x ORDER BY y) FROM (SELECT x, y FROM t1 ORDER BY y, x) t");
+        assertThat(((WindowAggProjection) collect.collectPhase().projections().get(0)).presorted()).isFalse();
+    }
+
     @Test
     public void testNoOrderByIfNoPartitionsAndNoOrderBy() {
         OrderBy orderBy = WindowAgg.createOrderByInclPartitionBy(wd("avg(x) OVER ()"));
@@ -260,16 +260,23 @@ public class PlanStatsTest extends CrateDummyClusterServiceUnitTest {
         var memo = new Memo(nestedLoopJoin);
         PlanStats planStats = new PlanStats(nodeContext, txnCtx, tableStats, memo);
         var result = planStats.get(nestedLoopJoin);
-        // lhs is the larger table which 9 entries, so the join will at max emit 9 entries
-        assertThat(result.numDocs()).isEqualTo(9L);
-        assertThat(result.sizeInBytes()).isEqualTo(288L);
+        // A join condition matching every row results in the cartesian product
+        assertThat(result.numDocs()).isEqualTo(18L);
+        assertThat(result.sizeInBytes()).isEqualTo(576L);
 
         var joinCondition = e.asSymbol("x = y");
         nestedLoopJoin = new NestedLoopJoin(
             lhs, rhs, JoinType.INNER, joinCondition, false, false, false, false);
         result = planStats.get(nestedLoopJoin);
-        assertThat(result.numDocs()).isEqualTo(1L);
-        assertThat(result.sizeInBytes()).isEqualTo(32L);
+        // 9 * 2 rows, each y value matches 1 out of 9 distinct x values
+        assertThat(result.numDocs()).isEqualTo(2L);
+        assertThat(result.sizeInBytes()).isEqualTo(64L);
+
+        nestedLoopJoin = new NestedLoopJoin(
+            lhs, rhs, JoinType.LEFT, joinCondition, false, false, false, false);
+        result = planStats.get(nestedLoopJoin);
+        // All rows of the left side are emitted
+        assertThat(result.numDocs()).isEqualTo(9L);
 
         nestedLoopJoin = new NestedLoopJoin(
             lhs, rhs, JoinType.CROSS, x, false, false, false, false);
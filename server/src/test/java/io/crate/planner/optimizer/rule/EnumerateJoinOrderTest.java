@@ -0,0 +1,203 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.planner.optimizer.rule;
+
+import static io.crate.testing.Asserts.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.crate.analyze.WhereClause;
+import io.crate.analyze.relations.DocTableRelation;
+import io.crate.metadata.CoordinatorTxnCtx;
+import io.crate.metadata.Reference;
+import io.crate.metadata.settings.CoordinatorSessionSettings;
+import io.crate.planner.operators.Collect;
+import io.crate.planner.operators.JoinPlan;
+import io.crate.planner.operators.LogicalPlan;
+import io.crate.planner.optimizer.costs.PlanStats;
+import io.crate.planner.optimizer.matcher.Captures;
+import io.crate.planner.optimizer.matcher.Match;
+import io.crate.role.Role;
+import io.crate.sql.tree.JoinType;
+import io.crate.statistics.Stats;
+import io.crate.statistics.TableStats;
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.testing.SQLExecutor;
+
+public class EnumerateJoinOrderTest extends CrateDummyClusterServiceUnitTest {
+
+    private SQLExecutor e;
+    private Collect a;
+    private Collect b;
+    private Collect c;
+    private Collect d;
+    private TableStats tableStats;
+
+    @Before
+    public void prepare() throws Exception {
+        e = SQLExecutor.builder(clusterService)
+            .addTable("create table a (x int)")
+            .addTable("create table b (y int)")
+            .addTable("create table c (z int)")
+            .addTable("create table d (w int)")
+            .build();
+
+        a = new Collect(new DocTableRelation(e.resolveTableInfo("a")), List.of((Reference) e.asSymbol("x")), WhereClause.MATCH_ALL);
+        b = new Collect(new DocTableRelation(e.resolveTableInfo("b")), List.of((Reference) e.asSymbol("y")), WhereClause.MATCH_ALL);
+        c = new Collect(new DocTableRelation(e.resolveTableInfo("c")), List.of((Reference) e.asSymbol("z")), WhereClause.MATCH_ALL);
+        d = new Collect(new DocTableRelation(e.resolveTableInfo("d")), List.of((Reference) e.asSymbol("w")), WhereClause.MATCH_ALL);
+        tableStats = new TableStats();
+    }
+
+    private void setNumDocs(long numDocsA, long numDocsB, long numDocsC, long numDocsD) {
+        tableStats.updateTableStats(Map.of(
+            a.relation().relationName(), new Stats(numDocsA, numDocsA * 4, Map.of()),
+            b.relation().relationName(), new Stats(numDocsB, numDocsB * 4, Map.of()),
+            c.relation().relationName(), new Stats(numDocsC, numDocsC * 4, Map.of()),
+            d.relation().relationName(), new Stats(numDocsD, numDocsD * 4, Map.of())
+        ));
+    }
+
+    private LogicalPlan apply(JoinPlan join, int dpThreshold) {
+        var sessionSettings = new CoordinatorSessionSettings(Role.CRATE_USER);
+        sessionSettings.joinDpThreshold(dpThreshold);
+        var txnCtx = new CoordinatorTxnCtx(sessionSettings);
+        var rule = new EnumerateJoinOrder();
+        Match<JoinPlan> match = rule.pattern().accept(join, Captures.empty());
+        assertThat(match.isPresent()).isTrue();
+        return rule.apply(
+            match.value(),
+            match.captures(),
+            new PlanStats(e.nodeCtx, txnCtx, tableStats),
+            txnCtx,
+            e.nodeCtx,
+            Function.identity()
+        );
+    }
+
+    @Test
+    public void test_joins_smallest_intermediate_result_first() throws Exception {
+        setNumDocs(1000, 10, 100_000, 1);
+        var join = new JoinPlan(
+            new JoinPlan(a, c, JoinType.INNER, e.asSymbol("a.x = c.z")),
+            b,
+            JoinType.INNER,
+            e.asSymbol("a.x = b.y")
+        );
+        for (int dpThreshold : new int[] { 2, 10 }) {
+            assertThat(apply(join, dpThreshold)).hasOperators(
+                "Eval[x, z, y]",
+                "  └ Join[INNER | (x = z)]",
+                "    ├ Collect[doc.c | [z] | true]",
+                "    └ Join[INNER | (x = y)]",
+                "      ├ Collect[doc.a | [x] | true]",
+                "      └ Collect[doc.b | [y] | true]"
+            );
+        }
+    }
+
+    @Test
+    public void test_dynamic_programming_finds_bushy_join_tree() throws Exception {
+        setNumDocs(10, 100_000, 100_000, 10);
+        var join = new JoinPlan(
+            new JoinPlan(
+                new JoinPlan(a, b, JoinType.INNER, e.asSymbol("a.x = b.y")),
+                c,
+                JoinType.INNER,
+                e.asSymbol("b.y = c.z")
+            ),
+            d,
+            JoinType.INNER,
+            e.asSymbol("c.z = d.w")
+        );
+        assertThat(apply(join, 10)).hasOperators(
+            "Eval[x, y, z, w]",
+            "  └ Join[INNER | (y = z)]",
+            "    ├ Join[INNER | (x = y)]",
+            "    │  ├ Collect[doc.b | [y] | true]",
+            "    │  └ Collect[doc.a | [x] | true]",
+            "    └ Join[INNER | (z = w)]",
+            "      ├ Collect[doc.c | [z] | true]",
+            "      └ Collect[doc.d | [w] | true]"
+        );
+    }
+
+    @Test
+    public void test_keeps_non_equi_conditions_and_filters() throws Exception {
+        setNumDocs(1000, 10, 100_000, 1);
+        var join = new JoinPlan(
+            new JoinPlan(a, c, JoinType.INNER, e.asSymbol("a.x = c.z and a.x > c.z")),
+            b,
+            JoinType.INNER,
+            e.asSymbol("a.x = b.y and b.y > 1")
+        );
+        assertThat(apply(join, 10)).hasOperators(
+            "Eval[x, z, y]",
+            "  └ Join[INNER | ((x = z) AND (x > z))]",
+            "    ├ Collect[doc.c | [z] | true]",
+            "    └ Join[INNER | (x = y)]",
+            "      ├ Collect[doc.a | [x] | true]",
+            "      └ Filter[(y > 1)]",
+            "        └ Collect[doc.b | [y] | true]"
+        );
+    }
+
+    @Test
+    public void test_does_not_reorder_joins_without_stats() throws Exception {
+        var join = new JoinPlan(
+            new JoinPlan(a, c, JoinType.INNER, e.asSymbol("a.x = c.z")),
+            b,
+            JoinType.INNER,
+            e.asSymbol("a.x = b.y")
+        );
+        assertThat(apply(join, 10)).isNull();
+    }
+
+    @Test
+    public void test_does_not_reorder_cheapest_join_order() throws Exception {
+        setNumDocs(1000, 10, 100_000, 1);
+        var join = new JoinPlan(
+            c,
+            new JoinPlan(a, b, JoinType.INNER, e.asSymbol("a.x = b.y")),
+            JoinType.INNER,
+            e.asSymbol("a.x = c.z")
+        );
+        assertThat(apply(join, 10)).isNull();
+    }
+
+    @Test
+    public void test_does_not_reorder_outer_joins() throws Exception {
+        setNumDocs(1000, 10, 100_000, 1);
+        var join = new JoinPlan(
+            new JoinPlan(a, c, JoinType.LEFT, e.asSymbol("a.x = c.z")),
+            b,
+            JoinType.INNER,
+            e.asSymbol("a.x = b.y")
+        );
+        assertThat(apply(join, 10)).isNull();
+    }
+}
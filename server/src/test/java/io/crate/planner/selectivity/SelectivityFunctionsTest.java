@@ -212,4 +212,68 @@ public class SelectivityFunctionsTest extends CrateDummyClusterServiceUnitTest {
         assertThat(estimate(stats, expressions.asSymbol("x >= 5"))).isEqualTo(9);
         assertThat(estimate(stats, expressions.asSymbol("x > null"))).isEqualTo(0);
     }
+
+    @Test
+    public void test_range_operators_use_histogram_for_values_not_in_mcv() throws Exception {
+        SqlExpressions expressions = new SqlExpressions(T3.sources(clusterService));
+        var numbers = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+        var columnStats = ColumnStats.fromSortedValues(numbers, DataTypes.INTEGER, 0, 10_000L);
+        assertThat(columnStats.mostCommonValues().isEmpty()).isTrue();
+        Stats stats = new Stats(10_000, 16, Map.of(new ColumnIdent("x"), columnStats));
+
+        assertThat(estimate(stats, expressions.asSymbol("x < 2500"))).isEqualTo(2500L);
+        assertThat(estimate(stats, expressions.asSymbol("x >= 2500"))).isBetween(7499L, 7500L);
+        assertThat(estimate(stats, expressions.asSymbol("x > 20000"))).isEqualTo(0L);
+        assertThat(estimate(stats, expressions.asSymbol("x < -1"))).isEqualTo(0L);
+        assertThat(estimate(stats, expressions.asSymbol("x > ?"), new Row1(9000))).isBetween(999L, 1000L);
+    }
+
+    @Test
+    public void test_range_selectivity_combines_mcv_and_histogram() throws Exception {
+        SqlExpressions expressions = new SqlExpressions(T3.sources(clusterService));
+        // 50% of the values are 0, the others are spread between 1 and 1000
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            numbers.add(0);
+        }
+        for (int i = 1; i <= 1000; i++) {
+            numbers.add(i);
+        }
+        var columnStats = ColumnStats.fromSortedValues(numbers, DataTypes.INTEGER, 0, 2000L);
+        Stats stats = new Stats(2000, 16, Map.of(new ColumnIdent("x"), columnStats));
+
+        assertThat(estimate(stats, expressions.asSymbol("x <= 500"))).isBetween(1490L, 1510L);
+        assertThat(estimate(stats, expressions.asSymbol("x > 500"))).isBetween(490L, 510L);
+    }
+
+    @Test
+    public void test_between_is_estimated_as_range_instead_of_independent_conditions() throws Exception {
+        SqlExpressions expressions = new SqlExpressions(T3.sources(clusterService));
+        var numbers = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+        var columnStats = ColumnStats.fromSortedValues(numbers, DataTypes.INTEGER, 0, 10_000L);
+        Stats stats = new Stats(10_000, 16, Map.of(new ColumnIdent("x"), columnStats));
+
+        assertThat(estimate(stats, expressions.asSymbol("x between 1000 and 2000"))).isBetween(990L, 1010L);
+        assertThat(estimate(stats, expressions.asSymbol("x >= 1000 and x < 2000 and x <> 1500"))).isBetween(990L, 1010L);
+        assertThat(estimate(stats, expressions.asSymbol("x > 5000 and x < 1000"))).isEqualTo(50L);
+    }
+
+    @Test
+    public void test_like_prefix_uses_histogram_range() throws Exception {
+        SqlExpressions expressions = new SqlExpressions(T3.sources(clusterService));
+        List<String> values = new ArrayList<>();
+        for (char c = 'a'; c <= 'z'; c++) {
+            for (int i = 0; i < 100; i++) {
+                values.add(c + String.format("%03d", i));
+            }
+        }
+        var columnStats = ColumnStats.fromSortedValues(values, DataTypes.STRING, 0, values.size());
+        Stats stats = new Stats(values.size(), 16, Map.of(new ColumnIdent("a"), columnStats));
+
+        assertThat(estimate(stats, expressions.asSymbol("a like 'b%'"))).isBetween(90L, 110L);
+        assertThat(estimate(stats, expressions.asSymbol("a like 'b05%'"))).isBetween(5L, 20L);
+        assertThat(estimate(stats, expressions.asSymbol("a like 'b001'"))).isEqualTo(1L);
+        // No prefix, falls back to the default selectivity
+        assertThat(estimate(stats, expressions.asSymbol("a like '%b'"))).isEqualTo((long) (values.size() * 0.333));
+    }
 }
@@ -0,0 +1,160 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import static io.crate.testing.Asserts.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.crate.execution.engine.collect.files.FileReadingIterator.LineCursor;
+import io.crate.execution.engine.collect.files.StdinInput;
+import io.crate.execution.engine.collect.files.StdinInputs;
+import io.crate.metadata.Reference;
+import io.crate.metadata.ReferenceIdent;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.RowGranularity;
+import io.crate.metadata.SimpleReference;
+import io.crate.sql.tree.Expression;
+import io.crate.sql.tree.GenericProperties;
+import io.crate.sql.tree.StringLiteral;
+import io.crate.types.DataTypes;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+public class CopyInTest {
+
+    private static final RelationName TABLE = new RelationName("doc", "t");
+
+    private static final List<Reference> COLUMNS = List.of(
+        new SimpleReference(new ReferenceIdent(TABLE, "id"), RowGranularity.DOC, DataTypes.INTEGER, 1, null),
+        new SimpleReference(new ReferenceIdent(TABLE, "name"), RowGranularity.DOC, DataTypes.STRING, 2, null)
+    );
+
+    /**
+     * @return the lines or, for decoded rows, the values by column name
+     */
+    private static List<Object> rows(StdinInput input) throws Exception {
+        List<Object> rows = new ArrayList<>();
+        while (true) {
+            while (input.moveNext()) {
+                LineCursor cursor = input.currentElement();
+                rows.add(cursor.source() == null ? cursor.line() : cursor.source());
+            }
+            if (input.allLoaded()) {
+                return rows;
+            }
+            assertThat(input.loadNextBatch()).isCompleted();
+        }
+    }
+
+    private static Map<String, Object> row(Object id, Object name) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("name", name);
+        return row;
+    }
+
+    @Test
+    public void test_text_format_rows_are_decoded_into_values() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        StdinInput input = new StdinInputs().register();
+        CopyIn copyIn = new CopyIn(channel, input, CopyOptions.of(GenericProperties.empty()), COLUMNS);
+
+        // rows may be split across CopyData messages
+        copyIn.data(Unpooled.copiedBuffer("1\tfoo\\tbar\n2\t", StandardCharsets.UTF_8));
+        copyIn.data(Unpooled.copiedBuffer("\\N\n\\.\n", StandardCharsets.UTF_8));
+        copyIn.done();
+
+        assertThat(rows(input)).containsExactly(
+            row(1, "foo\tbar"),
+            row(2, null)
+        );
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void test_binary_format_rows_are_decoded_into_values() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        StdinInput input = new StdinInputs().register();
+        CopyOptions options = CopyOptions.of(
+            new GenericProperties<Expression>(Map.of("format", new StringLiteral("binary"))));
+        CopyIn copyIn = new CopyIn(channel, input, options, COLUMNS);
+
+        ByteBuf data = Unpooled.buffer();
+        data.writeBytes(CopyOptions.BINARY_SIGNATURE);
+        data.writeInt(0);
+        data.writeInt(0);
+        data.writeShort(2);
+        data.writeInt(4);
+        data.writeInt(1);
+        data.writeInt(-1);
+        data.writeShort(-1);
+
+        copyIn.data(data);
+        copyIn.done();
+
+        assertThat(rows(input)).containsExactly(row(1, null));
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void test_csv_format_rows_are_passed_on_as_lines() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        StdinInput input = new StdinInputs().register();
+        CopyOptions options = CopyOptions.of(
+            new GenericProperties<Expression>(Map.of("format", new StringLiteral("csv"))));
+        CopyIn copyIn = new CopyIn(channel, input, options, COLUMNS);
+
+        copyIn.data(Unpooled.copiedBuffer("1,\"foo,bar\"\r\n2,", StandardCharsets.UTF_8));
+        copyIn.done();
+
+        assertThat(rows(input)).containsExactly("1,\"foo,bar\"", "2,");
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void test_channel_stops_reading_while_input_buffers_too_many_lines() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        StdinInput input = new StdinInputs().register();
+        CopyIn copyIn = new CopyIn(channel, input, CopyOptions.of(GenericProperties.empty()), COLUMNS);
+
+        String row = "1\t" + "x".repeat(1024) + "\n";
+        while (channel.config().isAutoRead()) {
+            copyIn.data(Unpooled.copiedBuffer(row, StandardCharsets.UTF_8));
+        }
+        while (!channel.config().isAutoRead()) {
+            assertThat(input.moveNext()).isTrue();
+        }
+        assertThat(channel.config().isAutoRead()).isTrue();
+
+        copyIn.close();
+        assertThat(copyIn.isClosed()).isTrue();
+        channel.finishAndReleaseAll();
+    }
+}
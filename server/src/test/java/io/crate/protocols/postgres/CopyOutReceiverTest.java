@@ -0,0 +1,190 @@
+/*
+ * Licensed to Crate.io GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.protocols.postgres;
+
+import static io.crate.testing.Asserts.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.crate.auth.AccessControl;
+import io.crate.data.RowN;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.ReferenceIdent;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.RowGranularity;
+import io.crate.metadata.SimpleReference;
+import io.crate.protocols.postgres.DelayableWriteChannel.DelayedWrites;
+import io.crate.sql.tree.Expression;
+import io.crate.sql.tree.GenericProperties;
+import io.crate.sql.tree.StringLiteral;
+import io.crate.types.DataTypes;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+public class CopyOutReceiverTest {
+
+    private static final RelationName TABLE = new RelationName("doc", "t");
+
+    private static final List<Symbol> FIELDS = List.of(
+        new SimpleReference(new ReferenceIdent(TABLE, "id"), RowGranularity.DOC, DataTypes.INTEGER, 1, null),
+        new SimpleReference(new ReferenceIdent(TABLE, "name"), RowGranularity.DOC, DataTypes.STRING, 2, null)
+    );
+
+    private final EmbeddedChannel channel = new EmbeddedChannel();
+
+    @After
+    public void releaseChannel() {
+        channel.finishAndReleaseAll();
+    }
+
+    private CopyOutReceiver newReceiver(Map<String, Expression> options) {
+        DelayableWriteChannel delayableWriteChannel = new DelayableWriteChannel(channel);
+        DelayedWrites delayedWrites = delayableWriteChannel.delayWrites();
+        return new CopyOutReceiver(
+            "COPY t TO STDOUT",
+            delayableWriteChannel,
+            delayedWrites,
+            AccessControl.DISABLED,
+            FIELDS,
+            CopyOptions.of(new GenericProperties<>(options))
+        );
+    }
+
+    /**
+     * @return the type and the payload of all messages written to the channel
+     */
+    private List<Message> messages() {
+        List<Message> messages = new ArrayList<>();
+        ByteBuf buf;
+        while ((buf = channel.readOutbound()) != null) {
+            try {
+                while (buf.isReadable()) {
+                    char type = (char) buf.readByte();
+                    int length = buf.readInt();
+                    messages.add(new Message(type, ByteBufUtil.getBytes(buf.readSlice(length - 4))));
+                }
+            } finally {
+                buf.release();
+            }
+        }
+        return messages;
+    }
+
+    private record Message(char type, byte[] payload) {
+
+        String text() {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void test_text_format_escapes_special_characters_and_writes_null_as_backslash_n() {
+        CopyOutReceiver receiver = newReceiver(Map.of());
+        receiver.setNextRow(new RowN(1, "foo\tbar\\baz\n"));
+        receiver.setNextRow(new RowN(2, null));
+        receiver.allFinished();
+
+        List<Message> messages = messages();
+        assertThat(messages).hasSize(4);
+        assertThat(messages.get(0).type()).isEqualTo('d');
+        assertThat(messages.get(0).text()).isEqualTo("1\tfoo\\tbar\\\\baz\\n\n");
+        assertThat(messages.get(1).type()).isEqualTo('d');
+        assertThat(messages.get(1).text()).isEqualTo("2\t\\N\n");
+        assertThat(messages.get(2).type()).isEqualTo('c');
+        assertThat(messages.get(3).type()).isEqualTo('C');
+        assertThat(messages.get(3).text()).isEqualTo("COPY 2\0");
+        assertThat(receiver.completionFuture()).isCompleted();
+    }
+
+    @Test
+    public void test_csv_format_writes_header_and_quotes_values_with_delimiter_quotes_or_empty_strings() {
+        CopyOutReceiver receiver = newReceiver(Map.of(
+            "format", new StringLiteral("csv"),
+            "header", new StringLiteral("true")
+        ));
+        receiver.setNextRow(new RowN(1, "foo,\"bar\""));
+        receiver.setNextRow(new RowN(2, ""));
+        receiver.setNextRow(new RowN(3, null));
+        receiver.allFinished();
+
+        List<Message> messages = messages();
+        assertThat(messages).hasSize(6);
+        assertThat(messages.get(0).text()).isEqualTo("id,name\n");
+        assertThat(messages.get(1).text()).isEqualTo("1,\"foo,\"\"bar\"\"\"\n");
+        assertThat(messages.get(2).text()).isEqualTo("2,\"\"\n");
+        assertThat(messages.get(3).text()).isEqualTo("3,\n");
+        assertThat(messages.get(4).type()).isEqualTo('c');
+        assertThat(messages.get(5).text()).isEqualTo("COPY 3\0");
+    }
+
+    @Test
+    public void test_binary_format_writes_header_tuples_and_trailer() {
+        CopyOutReceiver receiver = newReceiver(Map.of("format", new StringLiteral("binary")));
+        receiver.setNextRow(new RowN(1, null));
+        receiver.allFinished();
+
+        List<Message> messages = messages();
+        assertThat(messages).hasSize(5);
+
+        ByteBuf header = Unpooled.wrappedBuffer(messages.get(0).payload());
+        assertThat(ByteBufUtil.getBytes(header.readSlice(CopyOptions.BINARY_SIGNATURE.length)))
+            .isEqualTo(CopyOptions.BINARY_SIGNATURE);
+        assertThat(header.readInt()).isEqualTo(0);
+        assertThat(header.readInt()).isEqualTo(0);
+        assertThat(header.isReadable()).isFalse();
+
+        ByteBuf tuple = Unpooled.wrappedBuffer(messages.get(1).payload());
+        assertThat(tuple.readShort()).isEqualTo((short) 2);
+        assertThat(tuple.readInt()).isEqualTo(4);
+        assertThat(tuple.readInt()).isEqualTo(1);
+        assertThat(tuple.readInt()).isEqualTo(-1);
+        assertThat(tuple.isReadable()).isFalse();
+
+        ByteBuf trailer = Unpooled.wrappedBuffer(messages.get(2).payload());
+        assertThat(trailer.readShort()).isEqualTo((short) -1);
+
+        assertThat(messages.get(3).type()).isEqualTo('c');
+        assertThat(messages.get(4).text()).isEqualTo("COPY 1\0");
+    }
+
+    @Test
+    public void test_error_response_is_sent_on_failure() {
+        CopyOutReceiver receiver = newReceiver(Map.of());
+        receiver.setNextRow(new RowN(1, "foo"));
+        receiver.fail(new IllegalStateException("boom"));
+
+        List<Message> messages = messages();
+        assertThat(messages).hasSize(2);
+        assertThat(messages.get(0).text()).isEqualTo("1\tfoo\n");
+        assertThat(messages.get(1).type()).isEqualTo('E');
+        assertThat(messages.get(1).text()).contains("boom");
+        assertThat(receiver.completionFuture()).isCompletedExceptionally();
+    }
+}
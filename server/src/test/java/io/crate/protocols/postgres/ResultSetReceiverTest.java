@@ -21,30 +21,38 @@
 
 package io.crate.protocols.postgres;
 
+import static io.crate.testing.Asserts.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Test;
 import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 
 import io.crate.auth.AccessControl;
 import io.crate.data.Row1;
 import io.crate.protocols.postgres.DelayableWriteChannel.DelayedWrites;
 import io.crate.protocols.postgres.types.PGTypes;
 import io.crate.types.DataTypes;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.concurrent.GenericFutureListener;
 
 public class ResultSetReceiverTest {
 
-    @Test
-    public void testChannelIsPeriodicallyFlushedToAvoidConsumingTooMuchMemory() {
-        Channel channel = mock(Channel.class, Answers.RETURNS_DEEP_STUBS);
+    private static ResultSetReceiver newReceiver(Channel channel) {
         DelayableWriteChannel delayableWriteChannel = new DelayableWriteChannel(channel);
         DelayedWrites delayWrites = delayableWriteChannel.delayWrites();
-        ResultSetReceiver resultSetReceiver = new ResultSetReceiver(
+        return new ResultSetReceiver(
             "select * from t",
             delayableWriteChannel,
             delayWrites,
@@ -53,10 +61,60 @@ public class ResultSetReceiverTest {
             Collections.singletonList(PGTypes.get(DataTypes.INTEGER)),
             null
         );
+    }
+
+    @Test
+    public void test_rows_are_written_in_batches_and_channel_is_flushed_per_batch() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ResultSetReceiver resultSetReceiver = newReceiver(channel);
+        // DataRow of an INTEGER in text format: 'D' + length + numColumns + value length + "1"
+        int rowBytes = 1 + 4 + 2 + 4 + 1;
+        int rowsPerBatch = (BufferedChannelWriter.WRITE_THRESHOLD_BYTES + rowBytes - 1) / rowBytes;
         Row1 row1 = new Row1(1);
-        for (int i = 0; i < 1500; i++) {
+        for (int i = 0; i < rowsPerBatch + 10; i++) {
             resultSetReceiver.setNextRow(row1);
         }
+        assertThat(channel.outboundMessages()).hasSize(1);
+        ByteBuf batch = channel.readOutbound();
+        assertThat(batch.readableBytes()).isEqualTo(rowsPerBatch * rowBytes);
+        assertThat((char) batch.getByte(0)).isEqualTo('D');
+        assertThat(batch.getInt(1)).isEqualTo(rowBytes - 1);
+        batch.release();
+
+        resultSetReceiver.allFinished();
+        ByteBuf remainingRows = channel.readOutbound();
+        assertThat(remainingRows.readableBytes()).isEqualTo(10 * rowBytes);
+        remainingRows.release();
+        ByteBuf commandComplete = channel.readOutbound();
+        assertThat((char) commandComplete.getByte(0)).isEqualTo('C');
+        commandComplete.release();
+        assertThat(resultSetReceiver.completionFuture()).isCompleted();
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_receiver_is_not_ready_for_more_rows_until_batch_is_written_if_channel_is_not_writable() throws Exception {
+        Channel channel = mock(Channel.class, Answers.RETURNS_DEEP_STUBS);
+        when(channel.alloc()).thenReturn(UnpooledByteBufAllocator.DEFAULT);
+        when(channel.isWritable()).thenReturn(false);
+        ChannelFuture writeFuture = mock(ChannelFuture.class);
+        when(channel.write(any())).thenReturn(writeFuture);
+        ResultSetReceiver resultSetReceiver = newReceiver(channel);
+
+        Row1 row1 = new Row1(1);
+        CompletableFuture<?> ready = null;
+        while (ready == null) {
+            resultSetReceiver.setNextRow(row1);
+            ready = resultSetReceiver.readyForMoreRows();
+        }
         verify(channel, times(1)).flush();
+        assertThat(ready).isNotDone();
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ArgumentCaptor<GenericFutureListener> listener = ArgumentCaptor.forClass(GenericFutureListener.class);
+        verify(writeFuture).addListener(listener.capture());
+        listener.getValue().operationComplete(writeFuture);
+        assertThat(ready).isDone();
     }
 }
@@ -100,8 +100,13 @@ public class ColumnStatsTest {
             .collect(Collectors.toList());
 
         ColumnStats<Integer> columnStats = ColumnStats.fromSortedValues(numbers, DataTypes.INTEGER, 0, 400L);
-        List<Integer> histogramSample = columnStats.histogram().subList(0, 15);
-        assertThat(histogramSample, contains(1, 2, 3, 4, 5, 6, 7, 8, 9, 30, 31, 32, 33, 34, 35));
+        List<Integer> histogram = columnStats.histogram();
+        assertThat(histogram.size(), is(MostCommonValues.MCV_TARGET));
+        assertThat(histogram.subList(0, 5), contains(1, 2, 3, 4, 6));
+        assertThat(histogram.get(histogram.size() - 1), is(149));
+        // most common values are excluded from the histogram
+        assertThat(histogram.contains(10), is(false));
+        assertThat(histogram.contains(20), is(false));
         MostCommonValues mostCommonValues = columnStats.mostCommonValues();
         assertThat(mostCommonValues.values().length, is(2));
         assertThat(mostCommonValues.values()[0], is(10));
@@ -116,7 +121,7 @@ public class ColumnStatsTest {
             4,
             IntStream.range(1, 21).boxed().collect(Collectors.toList())
         );
-        assertThat(histogram, contains(1, 7, 13, 19));
+        assertThat(histogram, contains(1, 7, 13, 20));
     }
 
     @Test
@@ -3939,6 +3939,43 @@ public class InternalEngineTests extends EngineTestCase {
                                 Engine.Operation.Origin.REPLICA, System.nanoTime(), autoGeneratedIdTimestamp, retry, UNASSIGNED_SEQ_NO, 0);
     }
 
+    @Test
+    public void testIndexAppendOnlyAddsDocumentsInBatch() throws IOException {
+        int numDocs = randomIntBetween(2, 20);
+        List<Engine.Index> operations = new ArrayList<>(numDocs);
+        for (int i = 0; i < numDocs; i++) {
+            ParsedDocument doc = testParsedDocument(Integer.toString(i), testDocumentWithTextField(), B_1, null);
+            operations.add(appendOnlyPrimary(doc, false, i));
+        }
+        List<Engine.IndexResult> results = engine.indexAppendOnly(operations);
+        assertThat(results, hasSize(numDocs));
+        Set<Translog.Location> locations = new HashSet<>();
+        for (int i = 0; i < numDocs; i++) {
+            Engine.IndexResult result = results.get(i);
+            assertThat(result.getResultType(), is(Engine.Result.Type.SUCCESS));
+            assertThat(result.getSeqNo(), is((long) i));
+            assertThat(result.getVersion(), is(1L));
+            assertThat(result.getTranslogLocation(), notNullValue());
+            assertThat(result.getTook(), greaterThan(0L));
+            locations.add(result.getTranslogLocation());
+        }
+        assertThat(locations, hasSize(numDocs));
+        assertLuceneOperations(engine, numDocs, 0, 0);
+        assertThatIfAssertionEnabled(engine.getNumVersionLookups(), is(0L));
+        assertThat(engine.getProcessedLocalCheckpoint(), is(numDocs - 1L));
+
+        // a retry may have been indexed before, it's indexed using an update
+        ParsedDocument doc = testParsedDocument("0", testDocumentWithTextField(), B_1, null);
+        results = engine.indexAppendOnly(List.of(appendOnlyPrimary(doc, true, 0, false)));
+        assertThat(results.get(0).getResultType(), is(Engine.Result.Type.SUCCESS));
+        assertLuceneOperations(engine, numDocs, 1, 0);
+
+        engine.refresh("test");
+        try (Engine.Searcher searcher = engine.acquireSearcher("test")) {
+            TopDocs topDocs = searcher.search(new MatchAllDocsQuery(), 100);
+            assertEquals(numDocs, topDocs.totalHits.value);
+        }
+    }
 
     @Test
     public void testAppendConcurrently() throws InterruptedException, IOException {
@@ -1118,6 +1118,48 @@ public class TranslogTests extends ESTestCase {
         }
     }
 
+    @Test
+    public void testEnsureSyncedGroupsConcurrentWritesIntoOneSync() throws Exception {
+        Path path = createTempDir();
+        Settings settings = Settings.builder()
+            .put(IndexMetadata.SETTING_VERSION_CREATED, org.elasticsearch.Version.CURRENT)
+            .put(IndexSettings.INDEX_TRANSLOG_SYNC_GROUP_WINDOW_SETTING.getKey(), "20ms")
+            .build();
+        TranslogConfig config = getTranslogConfig(path, settings);
+        String translogUUID = Translog.createEmptyTranslog(path, SequenceNumbers.NO_OPS_PERFORMED, shardId, primaryTerm.get());
+        Set<Long> persistedSeqNos = Sets.newConcurrentHashSet();
+        try (Translog translog = new Translog(config, translogUUID, createTranslogDeletionPolicy(config.getIndexSettings()),
+            () -> SequenceNumbers.NO_OPS_PERFORMED, primaryTerm::get, persistedSeqNos::add)) {
+            Thread[] threads = new Thread[between(2, 8)];
+            Phaser phaser = new Phaser(threads.length);
+            AtomicLong nextSeqNo = new AtomicLong();
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread(() -> {
+                    phaser.arriveAndAwaitAdvance();
+                    long seqNo = nextSeqNo.incrementAndGet();
+                    try {
+                        Translog.Location location = translog.add(
+                            new Translog.Index("1", seqNo, primaryTerm.get(), new byte[]{1}));
+                        translog.ensureSynced(location);
+                    } catch (IOException e) {
+                        throw new AssertionError(e);
+                    }
+                    assertThat("seq# " + seqNo + " was not marked as persisted", persistedSeqNos, hasItem(seqNo));
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertFalse(translog.syncNeeded());
+            TranslogStats stats = translog.stats();
+            assertThat(stats.getSyncedOperations(), equalTo((long) threads.length));
+            assertThat(stats.getSyncs(), greaterThanOrEqualTo(1L));
+            assertThat(stats.getSyncs(), lessThanOrEqualTo((long) threads.length));
+            assertThat(stats.getMaxSyncedOperations(), greaterThanOrEqualTo(1L));
+        }
+    }
+
     @Test
     public void testLocationComparison() throws IOException {
         List<Translog.Location> locations = new ArrayList<>();
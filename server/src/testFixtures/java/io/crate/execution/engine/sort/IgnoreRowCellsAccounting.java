@@ -33,4 +33,8 @@ public class IgnoreRowCellsAccounting implements RowAccounting<Object[]> {
     @Override
     public void release() {
     }
+
+    @Override
+    public void release(long bytes) {
+    }
 }
@@ -34,4 +34,8 @@ public class IgnoreRowAccounting implements RowAccounting<Row> {
     @Override
     public void release() {
     }
+
+    @Override
+    public void release(long bytes) {
+    }
 }
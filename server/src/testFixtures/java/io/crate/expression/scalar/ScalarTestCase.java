@@ -36,6 +36,7 @@ import org.junit.Before;
 import io.crate.analyze.relations.AnalyzedRelation;
 import io.crate.analyze.relations.DocTableRelation;
 import io.crate.common.collections.Lists2;
+import io.crate.data.ColumnBatch;
 import io.crate.data.Input;
 import io.crate.data.Row;
 import io.crate.execution.engine.collect.CollectExpression;
@@ -46,6 +47,7 @@ import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.ParameterBinder;
 import io.crate.expression.symbol.RefReplacer;
 import io.crate.expression.symbol.Symbol;
+import io.crate.expression.vector.ColumnBatchEvaluator;
 import io.crate.metadata.CoordinatorTxnCtx;
 import io.crate.metadata.FunctionImplementation;
 import io.crate.metadata.RelationName;
@@ -255,6 +257,14 @@ public abstract class ScalarTestCase extends CrateDummyClusterServiceUnitTest {
 
         actualValue = scalar.evaluate(txnCtx, sqlExpressions.nodeCtx, arguments);
         assertThat((T) actualValue).satisfies(expectedValue);
+
+        // Batch evaluation must lead to the same result
+        ColumnBatchEvaluator batchEvaluator = ColumnBatchEvaluator.create(txnCtx, sqlExpressions.nodeCtx, List.of(function));
+        if (batchEvaluator != null) {
+            ColumnBatch batch = batchEvaluator.toBatch(new Object[1][0], 1);
+            actualValue = batchEvaluator.value(0, batchEvaluator.evaluate(0, batch), 0);
+            assertThat((T) actualValue).satisfies(expectedValue);
+        }
     }
 
     @SuppressWarnings("rawtypes")
@@ -57,6 +57,7 @@ import org.elasticsearch.cluster.routing.TestShardRouting;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.UUIDs;
 import org.elasticsearch.common.lucene.uid.Versions;
+import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.xcontent.XContentBuilder;
@@ -108,6 +109,7 @@ import io.crate.execution.engine.aggregation.AggregationFunction;
 import io.crate.execution.engine.collect.CollectTask;
 import io.crate.execution.engine.collect.DocValuesAggregates;
 import io.crate.execution.engine.collect.MapSideDataCollectOperation;
+import io.crate.execution.engine.collect.PartialAggregateCache;
 import io.crate.execution.engine.collect.RowCollectExpression;
 import io.crate.execution.jobs.SharedShardContexts;
 import io.crate.expression.reference.doc.lucene.LuceneReferenceResolver;
@@ -335,6 +337,7 @@ public abstract class AggregationTestCase extends ESTestCase {
             shard,
             mock(DocTableInfo.class),
             new LuceneQueryBuilder(nodeCtx),
+            new PartialAggregateCache(Settings.EMPTY, new ClusterSettings(Settings.EMPTY, Set.of(PartialAggregateCache.SIZE))),
             collectPhase,
             collectTask
         );
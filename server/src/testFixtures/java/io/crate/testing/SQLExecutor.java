@@ -125,8 +125,10 @@ import io.crate.common.collections.MapBuilder;
 import io.crate.data.Row;
 import io.crate.execution.ddl.RepositoryService;
 import io.crate.execution.dsl.projection.builder.ProjectionBuilder;
+import io.crate.execution.engine.collect.files.StdinInputs;
 import io.crate.execution.engine.collect.stats.JobsLogs;
 import io.crate.execution.engine.pipeline.LimitAndOffset;
+import io.crate.execution.resultcache.QueryResultCache;
 import io.crate.expression.symbol.SelectSymbol;
 import io.crate.expression.symbol.Symbol;
 import io.crate.expression.udf.UDFLanguage;
@@ -803,8 +805,9 @@ public class SQLExecutor {
             jobsLogs,
             clusterService.getSettings(),
             clusterService,
-            tableStats
-
+            tableStats,
+            new QueryResultCache(clusterService.getSettings(), clusterService),
+            new StdinInputs()
         );
         this.analyzer = analyzer;
         this.planner = planner;